@@ -255,6 +255,13 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final int sqlPageFrameMinRows;
     private final boolean sqlParallelFilterEnabled;
     private final boolean sqlParallelFilterPreTouchEnabled;
+    private final boolean sqlParallelGroupByEnabled;
+    private final boolean sqlParallelSampleByEnabled;
+    private final boolean sqlParallelHashJoinEnabled;
+    private final boolean sqlProjectionCompilerEnabled;
+    private final boolean sqlResultCacheEnabled;
+    private final boolean sqlZoneMapEnabled;
+    private final long sqlResultCacheMemoryLimit;
     private final int sqlRenameTableModelPoolCapacity;
     private final int sqlSmallMapKeyCapacity;
     private final int sqlSmallMapPageSize;
@@ -264,6 +271,8 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final long sqlSortLightValuePageSize;
     private final int sqlSortValueMaxPages;
     private final int sqlSortValuePageSize;
+    private final String sqlSpillRoot;
+    private final long sqlSpillThreshold;
     private final int sqlStrFunctionBufferMaxSize;
     private final int sqlTxnScoreboardEntryCount;
     private final int sqlWithClauseModelPoolCapacity;
@@ -282,6 +291,7 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final int walApplyLookAheadTransactionCount;
     private final WorkerPoolConfiguration walApplyPoolConfiguration = new PropWalApplyPoolConfiguration();
     private final long walApplySleepTimeout;
+    private final long walApplySquashMaxRows;
     private final long walApplyTableTimeQuota;
     private final int[] walApplyWorkerAffinity;
     private final int walApplyWorkerCount;
@@ -336,6 +346,8 @@ public class PropServerConfiguration implements ServerConfiguration {
     private int httpNetConnectionRcvBuf;
     private int httpNetConnectionSndBuf;
     private long httpNetConnectionTimeout;
+    private int httpNetDispatcherCount;
+    private boolean httpNetIOURingEnabled;
     private boolean httpReadOnlySecurityContext;
     private boolean httpServerKeepAlive;
     private String httpVersion;
@@ -376,6 +388,8 @@ public class PropServerConfiguration implements ServerConfiguration {
     private long lineTcpNetConnectionQueueTimeout;
     private int lineTcpNetConnectionRcvBuf;
     private long lineTcpNetConnectionTimeout;
+    private int lineTcpNetDispatcherCount;
+    private boolean lineTcpNetIOURingEnabled;
     private LineProtoTimestampAdapter lineTcpTimestampAdapter;
     private int lineTcpWriterQueueCapacity;
     private int[] lineTcpWriterWorkerAffinity;
@@ -416,6 +430,8 @@ public class PropServerConfiguration implements ServerConfiguration {
     private long pgNetConnectionQueueTimeout;
     private int pgNetConnectionRcvBuf;
     private int pgNetConnectionSndBuf;
+    private int pgNetDispatcherCount;
+    private boolean pgNetIOURingEnabled;
     private long pgNetIdleConnectionTimeout;
     private String pgPassword;
     private int pgPendingWritersCacheCapacity;
@@ -481,6 +497,7 @@ public class PropServerConfiguration implements ServerConfiguration {
         this.walSquashUncommittedRowsMultiplier = getDouble(properties, env, PropertyKey.CAIRO_WAL_SQUASH_UNCOMMITTED_ROWS_MULTIPLIER, 20.0);
         this.walApplyTableTimeQuota = getLong(properties, env, PropertyKey.CAIRO_WAL_APPLY_TABLE_TIME_QUOTA, 1000);
         this.walApplyLookAheadTransactionCount = getInt(properties, env, PropertyKey.CAIRO_WAL_APPLY_LOOK_AHEAD_TXN_COUNT, 20);
+        this.walApplySquashMaxRows = getLong(properties, env, PropertyKey.CAIRO_WAL_APPLY_SQUASH_MAX_ROWS, 1_000_000);
         this.tableTypeConversionEnabled = getBoolean(properties, env, PropertyKey.TABLE_TYPE_CONVERSION_ENABLED, true);
 
         this.dbDirectory = getString(properties, env, PropertyKey.CAIRO_ROOT, DB_DIRECTORY);
@@ -620,6 +637,8 @@ public class PropServerConfiguration implements ServerConfiguration {
                 this.httpNetConnectionLimit = getInt(properties, env, PropertyKey.HTTP_NET_ACTIVE_CONNECTION_LIMIT, 64);
                 this.httpNetConnectionLimit = getInt(properties, env, PropertyKey.HTTP_NET_CONNECTION_LIMIT, this.httpNetConnectionLimit);
                 this.httpNetConnectionHint = getBoolean(properties, env, PropertyKey.HTTP_NET_CONNECTION_HINT, false);
+                this.httpNetDispatcherCount = getInt(properties, env, PropertyKey.HTTP_NET_DISPATCHER_COUNT, 1);
+                this.httpNetIOURingEnabled = getBoolean(properties, env, PropertyKey.HTTP_NET_IO_URING_ENABLED, false);
                 // deprecated
                 this.httpNetConnectionTimeout = getLong(properties, env, PropertyKey.HTTP_NET_IDLE_CONNECTION_TIMEOUT, 5 * 60 * 1000L);
                 this.httpNetConnectionTimeout = getLong(properties, env, PropertyKey.HTTP_NET_CONNECTION_TIMEOUT, this.httpNetConnectionTimeout);
@@ -684,6 +703,8 @@ public class PropServerConfiguration implements ServerConfiguration {
                 pgNetConnectionLimit = getInt(properties, env, PropertyKey.PG_NET_ACTIVE_CONNECTION_LIMIT, 64);
                 pgNetConnectionLimit = getInt(properties, env, PropertyKey.PG_NET_CONNECTION_LIMIT, pgNetConnectionLimit);
                 pgNetConnectionHint = getBoolean(properties, env, PropertyKey.PG_NET_CONNECTION_HINT, false);
+                pgNetDispatcherCount = getInt(properties, env, PropertyKey.PG_NET_DISPATCHER_COUNT, 1);
+                pgNetIOURingEnabled = getBoolean(properties, env, PropertyKey.PG_NET_IO_URING_ENABLED, false);
                 parseBindTo(properties, env, PropertyKey.PG_NET_BIND_TO, "0.0.0.0:8812", (a, p) -> {
                     pgNetBindIPv4Address = a;
                     pgNetBindPort = p;
@@ -802,6 +823,8 @@ public class PropServerConfiguration implements ServerConfiguration {
             this.sqlHashJoinLightValueMaxPages = getIntSize(properties, env, PropertyKey.CAIRO_SQL_HASH_JOIN_LIGHT_VALUE_MAX_PAGES, Integer.MAX_VALUE);
             this.sqlSortValuePageSize = getIntSize(properties, env, PropertyKey.CAIRO_SQL_SORT_VALUE_PAGE_SIZE, 16777216);
             this.sqlSortValueMaxPages = getIntSize(properties, env, PropertyKey.CAIRO_SQL_SORT_VALUE_MAX_PAGES, Integer.MAX_VALUE);
+            this.sqlSpillRoot = getString(properties, env, PropertyKey.CAIRO_SQL_SPILL_ROOT, tmpRoot);
+            this.sqlSpillThreshold = getLongSize(properties, env, PropertyKey.CAIRO_SQL_SPILL_THRESHOLD, 0);
             this.workStealTimeoutNanos = getLong(properties, env, PropertyKey.CAIRO_WORK_STEAL_TIMEOUT_NANOS, 10_000);
             this.parallelIndexingEnabled = getBoolean(properties, env, PropertyKey.CAIRO_PARALLEL_INDEXING_ENABLED, true);
             this.sqlJoinMetadataPageSize = getIntSize(properties, env, PropertyKey.CAIRO_SQL_JOIN_METADATA_PAGE_SIZE, 16384);
@@ -826,6 +849,13 @@ public class PropServerConfiguration implements ServerConfiguration {
             this.cairoPageFrameReduceColumnListCapacity = Numbers.ceilPow2(getInt(properties, env, PropertyKey.CAIRO_PAGE_FRAME_COLUMN_LIST_CAPACITY, 16));
             this.sqlParallelFilterEnabled = getBoolean(properties, env, PropertyKey.CAIRO_SQL_PARALLEL_FILTER_ENABLED, true);
             this.sqlParallelFilterPreTouchEnabled = getBoolean(properties, env, PropertyKey.CAIRO_SQL_PARALLEL_FILTER_PRETOUCH_ENABLED, true);
+            this.sqlParallelGroupByEnabled = getBoolean(properties, env, PropertyKey.CAIRO_SQL_PARALLEL_GROUPBY_ENABLED, false);
+            this.sqlParallelSampleByEnabled = getBoolean(properties, env, PropertyKey.CAIRO_SQL_PARALLEL_SAMPLEBY_ENABLED, false);
+            this.sqlParallelHashJoinEnabled = getBoolean(properties, env, PropertyKey.CAIRO_SQL_PARALLEL_HASH_JOIN_ENABLED, false);
+            this.sqlProjectionCompilerEnabled = getBoolean(properties, env, PropertyKey.CAIRO_SQL_PROJECTION_COMPILER_ENABLED, true);
+            this.sqlResultCacheEnabled = getBoolean(properties, env, PropertyKey.CAIRO_SQL_RESULT_CACHE_ENABLED, false);
+            this.sqlZoneMapEnabled = getBoolean(properties, env, PropertyKey.CAIRO_SQL_ZONE_MAP_ENABLED, false);
+            this.sqlResultCacheMemoryLimit = getLongSize(properties, env, PropertyKey.CAIRO_SQL_RESULT_CACHE_MEMORY_LIMIT, 64 * 1024 * 1024);
             this.cairoPageFrameReduceShardCount = getInt(properties, env, PropertyKey.CAIRO_PAGE_FRAME_SHARD_COUNT, 4);
             this.cairoPageFrameReduceTaskPoolCapacity = getInt(properties, env, PropertyKey.CAIRO_PAGE_FRAME_TASK_POOL_CAPACITY, 4);
 
@@ -975,6 +1005,8 @@ public class PropServerConfiguration implements ServerConfiguration {
                 lineTcpNetConnectionLimit = getInt(properties, env, PropertyKey.LINE_TCP_NET_ACTIVE_CONNECTION_LIMIT, 256);
                 lineTcpNetConnectionLimit = getInt(properties, env, PropertyKey.LINE_TCP_NET_CONNECTION_LIMIT, lineTcpNetConnectionLimit);
                 lineTcpNetConnectionHint = getBoolean(properties, env, PropertyKey.LINE_TCP_NET_CONNECTION_HINT, false);
+                lineTcpNetDispatcherCount = getInt(properties, env, PropertyKey.LINE_TCP_NET_DISPATCHER_COUNT, 1);
+                lineTcpNetIOURingEnabled = getBoolean(properties, env, PropertyKey.LINE_TCP_NET_IO_URING_ENABLED, false);
                 parseBindTo(properties, env, PropertyKey.LINE_TCP_NET_BIND_TO, "0.0.0.0:9009", (a, p) -> {
                     lineTcpNetBindIPv4Address = a;
                     lineTcpNetBindPort = p;
@@ -2221,6 +2253,21 @@ public class PropServerConfiguration implements ServerConfiguration {
             return sqlSortValuePageSize;
         }
 
+        @Override
+        public long getSqlResultCacheMemoryLimit() {
+            return sqlResultCacheMemoryLimit;
+        }
+
+        @Override
+        public CharSequence getSqlSpillRoot() {
+            return sqlSpillRoot;
+        }
+
+        @Override
+        public long getSqlSpillThreshold() {
+            return sqlSpillThreshold;
+        }
+
         @Override
         public int getStrFunctionMaxBufferLength() {
             return sqlStrFunctionBufferMaxSize;
@@ -2270,6 +2317,11 @@ public class PropServerConfiguration implements ServerConfiguration {
             return walApplyLookAheadTransactionCount;
         }
 
+        @Override
+        public long getWalApplySquashMaxRows() {
+            return walApplySquashMaxRows;
+        }
+
         @Override
         public long getWalApplyTableTimeQuota() {
             return walApplyTableTimeQuota;
@@ -2390,6 +2442,36 @@ public class PropServerConfiguration implements ServerConfiguration {
             return sqlParallelFilterPreTouchEnabled;
         }
 
+        @Override
+        public boolean isSqlParallelGroupByEnabled() {
+            return sqlParallelGroupByEnabled;
+        }
+
+        @Override
+        public boolean isSqlParallelSampleByEnabled() {
+            return sqlParallelSampleByEnabled;
+        }
+
+        @Override
+        public boolean isSqlParallelHashJoinEnabled() {
+            return sqlParallelHashJoinEnabled;
+        }
+
+        @Override
+        public boolean isSqlProjectionCompilerEnabled() {
+            return sqlProjectionCompilerEnabled;
+        }
+
+        @Override
+        public boolean isSqlResultCacheEnabled() {
+            return sqlResultCacheEnabled;
+        }
+
+        @Override
+        public boolean isSqlZoneMapEnabled() {
+            return sqlZoneMapEnabled;
+        }
+
         @Override
         public boolean isTableTypeConversionEnabled() {
             return tableTypeConversionEnabled;
@@ -2499,6 +2581,11 @@ public class PropServerConfiguration implements ServerConfiguration {
             return MillisecondClockImpl.INSTANCE;
         }
 
+        @Override
+        public int getDispatcherCount() {
+            return httpNetDispatcherCount;
+        }
+
         @Override
         public String getDispatcherLogName() {
             return "http-server";
@@ -2568,6 +2655,11 @@ public class PropServerConfiguration implements ServerConfiguration {
         public long getTimeout() {
             return httpNetConnectionTimeout;
         }
+
+        @Override
+        public boolean isIOURingEnabled() {
+            return httpNetIOURingEnabled;
+        }
     }
 
     private class PropHttpMinIODispatcherConfiguration implements IODispatcherConfiguration {
@@ -3041,6 +3133,11 @@ public class PropServerConfiguration implements ServerConfiguration {
             return MillisecondClockImpl.INSTANCE;
         }
 
+        @Override
+        public int getDispatcherCount() {
+            return lineTcpNetDispatcherCount;
+        }
+
         @Override
         public String getDispatcherLogName() {
             return "tcp-line-server";
@@ -3109,6 +3206,11 @@ public class PropServerConfiguration implements ServerConfiguration {
         public long getTimeout() {
             return lineTcpNetConnectionTimeout;
         }
+
+        @Override
+        public boolean isIOURingEnabled() {
+            return lineTcpNetIOURingEnabled;
+        }
     }
 
     private class PropLineTcpWriterWorkerPoolConfiguration implements WorkerPoolConfiguration {
@@ -3467,6 +3569,11 @@ public class PropServerConfiguration implements ServerConfiguration {
             return MillisecondClockImpl.INSTANCE;
         }
 
+        @Override
+        public int getDispatcherCount() {
+            return pgNetDispatcherCount;
+        }
+
         @Override
         public String getDispatcherLogName() {
             return "pg-server";
@@ -3536,6 +3643,11 @@ public class PropServerConfiguration implements ServerConfiguration {
         public long getTimeout() {
             return pgNetIdleConnectionTimeout;
         }
+
+        @Override
+        public boolean isIOURingEnabled() {
+            return pgNetIOURingEnabled;
+        }
     }
 
     private class PropSqlExecutionCircuitBreakerConfiguration implements SqlExecutionCircuitBreakerConfiguration {
@@ -84,6 +84,8 @@ public enum PropertyKey {
     CAIRO_SQL_HASH_JOIN_LIGHT_VALUE_MAX_PAGES("cairo.sql.hash.join.light.value.max.pages"),
     CAIRO_SQL_SORT_VALUE_PAGE_SIZE("cairo.sql.sort.value.page.size"),
     CAIRO_SQL_SORT_VALUE_MAX_PAGES("cairo.sql.sort.value.max.pages"),
+    CAIRO_SQL_SPILL_ROOT("cairo.sql.spill.root"),
+    CAIRO_SQL_SPILL_THRESHOLD("cairo.sql.spill.threshold"),
     CAIRO_WORK_STEAL_TIMEOUT_NANOS("cairo.work.steal.timeout.nanos"),
     CAIRO_PARALLEL_INDEXING_ENABLED("cairo.parallel.indexing.enabled"),
     CAIRO_PAGE_FRAME_REDUCE_QUEUE_CAPACITY("cairo.page.frame.reduce.queue.capacity"),
@@ -91,6 +93,13 @@ public enum PropertyKey {
     CAIRO_PAGE_FRAME_COLUMN_LIST_CAPACITY("cairo.page.frame.column.list.capacity"),
     CAIRO_SQL_PARALLEL_FILTER_ENABLED("cairo.sql.parallel.filter.enabled"),
     CAIRO_SQL_PARALLEL_FILTER_PRETOUCH_ENABLED("cairo.sql.parallel.filter.pretouch.enabled"),
+    CAIRO_SQL_PARALLEL_GROUPBY_ENABLED("cairo.sql.parallel.groupby.enabled"),
+    CAIRO_SQL_PARALLEL_SAMPLEBY_ENABLED("cairo.sql.parallel.sampleby.enabled"),
+    CAIRO_SQL_PARALLEL_HASH_JOIN_ENABLED("cairo.sql.parallel.hash.join.enabled"),
+    CAIRO_SQL_PROJECTION_COMPILER_ENABLED("cairo.sql.projection.compiler.enabled"),
+    CAIRO_SQL_RESULT_CACHE_ENABLED("cairo.sql.result.cache.enabled"),
+    CAIRO_SQL_ZONE_MAP_ENABLED("cairo.sql.zone.map.enabled"),
+    CAIRO_SQL_RESULT_CACHE_MEMORY_LIMIT("cairo.sql.result.cache.memory.limit"),
     CAIRO_PAGE_FRAME_SHARD_COUNT("cairo.page.frame.shard.count"),
     CAIRO_PAGE_FRAME_TASK_POOL_CAPACITY("cairo.page.frame.task.pool.capacity"),
     CAIRO_SQL_JOIN_METADATA_PAGE_SIZE("cairo.sql.join.metadata.page.size"),
@@ -242,6 +251,8 @@ public enum PropertyKey {
     HTTP_KEEP_ALIVE_MAX("http.keep-alive.max"),
     HTTP_NET_ACTIVE_CONNECTION_LIMIT("http.net.active.connection.limit"),
     HTTP_NET_CONNECTION_LIMIT("http.net.connection.limit"),
+    HTTP_NET_DISPATCHER_COUNT("http.net.dispatcher.count"),
+    HTTP_NET_IO_URING_ENABLED("http.net.io.uring.enabled"),
     HTTP_TEXT_DATE_ADAPTER_POOL_CAPACITY("http.text.date.adapter.pool.capacity"),
     HTTP_TEXT_METADATA_STRING_POOL_CAPACITY("http.text.metadata.string.pool.capacity"),
     HTTP_TEXT_ANALYSIS_MAX_LINES("http.text.analysis.max.lines"),
@@ -271,6 +282,8 @@ public enum PropertyKey {
     LINE_TCP_NET_ACTIVE_CONNECTION_LIMIT("line.tcp.net.active.connection.limit"),
     LINE_TCP_NET_CONNECTION_LIMIT("line.tcp.net.connection.limit"),
     LINE_TCP_NET_CONNECTION_HINT("line.tcp.net.connection.hint"),
+    LINE_TCP_NET_DISPATCHER_COUNT("line.tcp.net.dispatcher.count"),
+    LINE_TCP_NET_IO_URING_ENABLED("line.tcp.net.io.uring.enabled"),
     LINE_TCP_NET_BIND_TO("line.tcp.net.bind.to"),
     LINE_TCP_NET_IDLE_TIMEOUT("line.tcp.net.idle.timeout"),
     LINE_TCP_NET_CONNECTION_TIMEOUT("line.tcp.net.connection.timeout"),
@@ -339,6 +352,8 @@ public enum PropertyKey {
     PG_SELECT_CACHE_ENABLED("pg.select.cache.enabled"),
     PG_NET_ACTIVE_CONNECTION_LIMIT("pg.net.active.connection.limit"),
     PG_NET_CONNECTION_LIMIT("pg.net.connection.limit"),
+    PG_NET_DISPATCHER_COUNT("pg.net.dispatcher.count"),
+    PG_NET_IO_URING_ENABLED("pg.net.io.uring.enabled"),
     PG_CHARACTER_STORE_CAPACITY("pg.character.store.capacity"),
     PG_BINARY_PARAM_COUNT_CAPACITY("pg.binary.param.count.capacity"),
     PG_CHARACTER_STORE_POOL_CAPACITY("pg.character.store.pool.capacity"),
@@ -397,6 +412,7 @@ public enum PropertyKey {
     CAIRO_WAL_SQUASH_UNCOMMITTED_ROWS_MULTIPLIER("cairo.wal.squash.uncommitted.rows.multiplier"),
     CAIRO_WAL_APPLY_TABLE_TIME_QUOTA("cairo.wal.apply.table.time.quota"),
     CAIRO_WAL_APPLY_LOOK_AHEAD_TXN_COUNT("cairo.wal.apply.look.ahead.txn.count"),
+    CAIRO_WAL_APPLY_SQUASH_MAX_ROWS("cairo.wal.apply.squash.max.rows"),
     READ_ONLY_INSTANCE("readonly"),
     CAIRO_TABLE_REGISTRY_AUTO_RELOAD_FREQUENCY("cairo.table.registry.auto.reload.frequency"),
     CAIRO_TABLE_REGISTRY_COMPACTION_THRESHOLD("cairo.table.registry.compaction.threshold"),
@@ -27,6 +27,7 @@ package io.questdb.cairo;
 import io.questdb.cairo.sql.DataFrame;
 import io.questdb.cairo.sql.DataFrameCursor;
 import io.questdb.cairo.sql.StaticSymbolTable;
+import io.questdb.cairo.vm.MemoryCMRDecompressImpl;
 import io.questdb.cairo.vm.api.MemoryR;
 import io.questdb.griffin.SqlException;
 import io.questdb.griffin.SqlExecutionContext;
@@ -67,6 +68,10 @@ public abstract class AbstractIntervalDataFrameCursor implements DataFrameCursor
     }
 
     public static long binarySearch(MemoryR column, long value, long low, long high, int scanDir) {
+        if (column instanceof MemoryCMRDecompressImpl) {
+            // timestamps of a compressed partition, search without decompressing the whole column
+            return ((MemoryCMRDecompressImpl) column).binarySearch64Bit(value, low, high, scanDir);
+        }
         return Vect.binarySearch64Bit(column.getPageAddress(0), value, low, high, scanDir);
     }
 
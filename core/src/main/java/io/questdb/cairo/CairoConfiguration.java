@@ -401,6 +401,20 @@ public interface CairoConfiguration {
 
     int getSqlSortValuePageSize();
 
+    /**
+     * Directory where memory-hungry SQL structures, such as hash maps and record chains,
+     * keep their temporary files once they exceed the spill threshold.
+     */
+    long getSqlResultCacheMemoryLimit();
+
+    CharSequence getSqlSpillRoot();
+
+    /**
+     * Size in bytes after which a single map or record chain is moved from RAM
+     * to a memory-mapped file under the spill root. Zero disables spilling.
+     */
+    long getSqlSpillThreshold();
+
     int getStrFunctionMaxBufferLength();
 
     CharSequence getSystemTableNamePrefix();
@@ -421,6 +435,8 @@ public interface CairoConfiguration {
 
     int getWalApplyLookAheadTransactionCount();
 
+    long getWalApplySquashMaxRows();
+
     long getWalApplyTableTimeQuota();
 
     long getWalDataAppendPageSize();
@@ -474,6 +490,18 @@ public interface CairoConfiguration {
 
     boolean isSqlParallelFilterPreTouchEnabled();
 
+    boolean isSqlParallelGroupByEnabled();
+
+    boolean isSqlParallelSampleByEnabled();
+
+    boolean isSqlParallelHashJoinEnabled();
+
+    boolean isSqlProjectionCompilerEnabled();
+
+    boolean isSqlResultCacheEnabled();
+
+    boolean isSqlZoneMapEnabled();
+
     boolean isTableTypeConversionEnabled();
 
     boolean isWalApplyEnabled();
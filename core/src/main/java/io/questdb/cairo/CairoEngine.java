@@ -68,6 +68,7 @@ public class CairoEngine implements Closeable, WriterSource {
     private final MessageBusImpl messageBus;
     private final MetadataPool metadataPool;
     private final Metrics metrics;
+    private final QueryResultCache queryResultCache;
     private final ReaderPool readerPool;
     private final IDGenerator tableIdGenerator;
     private final TableNameRegistry tableNameRegistry;
@@ -98,6 +99,7 @@ public class CairoEngine implements Closeable, WriterSource {
         this.metadataPool = new MetadataPool(configuration, this);
         this.walWriterPool = new WalWriterPool(configuration, this);
         this.engineMaintenanceJob = new EngineMaintenanceJob(configuration);
+        this.queryResultCache = new QueryResultCache(configuration.getSqlResultCacheMemoryLimit());
         this.telemetry = new Telemetry<>(TelemetryTask.TELEMETRY, configuration);
         this.telemetryWal = new Telemetry<>(TelemetryWalTask.WAL_TELEMETRY, configuration);
         this.tableIdGenerator = new IDGenerator(configuration, TableUtils.TAB_INDEX_FILE_NAME);
@@ -159,6 +161,7 @@ public class CairoEngine implements Closeable, WriterSource {
         boolean b4 = metadataPool.releaseAll();
         boolean b5 = walWriterPool.releaseAll();
         messageBus.reset();
+        queryResultCache.clear();
         return b1 & b2 & b3 & b4 & b5;
     }
 
@@ -174,6 +177,7 @@ public class CairoEngine implements Closeable, WriterSource {
         Misc.free(telemetry);
         Misc.free(telemetryWal);
         Misc.free(tableNameRegistry);
+        Misc.free(queryResultCache);
     }
 
     @TestOnly
@@ -407,6 +411,10 @@ public class CairoEngine implements Closeable, WriterSource {
         return this.writerPool.getPoolListener();
     }
 
+    public QueryResultCache getQueryResultCache() {
+        return queryResultCache;
+    }
+
     public TableReader getReader(CairoSecurityContext securityContext, TableToken tableToken) {
         verifyTableToken(tableToken);
         return readerPool.get(tableToken);
@@ -0,0 +1,446 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo;
+
+import io.questdb.cairo.vm.api.MemoryARW;
+import io.questdb.std.LongList;
+import io.questdb.std.Unsafe;
+import io.questdb.std.Vect;
+import io.questdb.std.Zip;
+
+/**
+ * Lightweight codecs for fixed-size column files of compressed partitions.
+ * <p>
+ * Compressed column file starts with a header (codec, value size, value count, block value count
+ * and block table offset) followed by blocks of up to {@link #BLOCK_SIZE} decoded bytes. Blocks are
+ * encoded independently, so that a reader can decode any one of them:
+ * <ul>
+ *     <li>delta-of-delta - timestamps, first value followed by zigzag varint encoded delta-of-deltas</li>
+ *     <li>RLE - repeated values, varint run length followed by the value bytes</li>
+ *     <li>deflate - raw deflate stream of the column bytes, for everything else</li>
+ * </ul>
+ * The block table follows the last block, it holds block offsets relative to the header and the end
+ * offset of the last block. Data after the end of the block table is ignored.
+ */
+public final class ColumnCodec {
+    public static final int BLOCK_SIZE = 256 * 1024;
+    public static final int CODEC_DEFLATE = 3;
+    public static final int CODEC_DELTA_OF_DELTA = 1;
+    public static final int CODEC_RLE = 2;
+    public static final int HEADER_SIZE = 32;
+    private static final int DEFLATE_OUT_BUF_SIZE = 64 * 1024;
+    private static final int HEADER_BLOCK_ROW_COUNT_OFFSET = 16;
+    private static final int HEADER_BLOCK_TABLE_OFFSET = 24;
+    private static final long MAX_DEFLATE_CHUNK = 1L << 30;
+    private static final int MAX_VARINT_SIZE = 10;
+    private static final int VARINT_BLOCK_ROWS = 4096;
+
+    private ColumnCodec() {
+    }
+
+    /**
+     * Encodes column values and appends the result to the given memory.
+     *
+     * @param columnType type of the column, must be fixed size
+     * @param srcAddr    address of the column values
+     * @param rowCount   number of values to encode
+     * @param dst        memory to append encoded column to
+     * @return codec used to encode the values
+     */
+    public static int compress(int columnType, long srcAddr, long rowCount, MemoryARW dst) {
+        assert !ColumnType.isVariableLength(columnType);
+        final int valueSize = ColumnType.sizeOf(columnType);
+        final int codec;
+        if (ColumnType.tagOf(columnType) == ColumnType.TIMESTAMP) {
+            codec = CODEC_DELTA_OF_DELTA;
+        } else {
+            // RLE pays off only when there are a lot fewer runs than values
+            codec = countRuns(srcAddr, rowCount, valueSize) * (valueSize + 1) < (rowCount * valueSize) / 4 ? CODEC_RLE : CODEC_DEFLATE;
+        }
+
+        final long blockRowCount = BLOCK_SIZE / valueSize;
+        final long headerOffset = dst.getAppendOffset();
+        final long headerAddr = dst.appendAddressFor(HEADER_SIZE);
+        Unsafe.getUnsafe().putInt(headerAddr, codec);
+        Unsafe.getUnsafe().putInt(headerAddr + 4, valueSize);
+        Unsafe.getUnsafe().putLong(headerAddr + 8, rowCount);
+        Unsafe.getUnsafe().putLong(headerAddr + HEADER_BLOCK_ROW_COUNT_OFFSET, blockRowCount);
+
+        final LongList blockOffsets = new LongList((int) getBlockCount(rowCount, blockRowCount) + 1);
+        for (long blockLo = 0; blockLo < rowCount; blockLo += blockRowCount) {
+            blockOffsets.add(dst.getAppendOffset() - headerOffset);
+            final long blockAddr = srcAddr + blockLo * valueSize;
+            final long blockRows = Math.min(blockRowCount, rowCount - blockLo);
+            switch (codec) {
+                case CODEC_DELTA_OF_DELTA:
+                    encodeDeltaOfDelta(blockAddr, blockRows, dst);
+                    break;
+                case CODEC_RLE:
+                    encodeRle(blockAddr, blockRows, valueSize, dst);
+                    break;
+                default:
+                    encodeDeflate(blockAddr, blockRows * valueSize, dst);
+                    break;
+            }
+        }
+        blockOffsets.add(dst.getAppendOffset() - headerOffset);
+
+        final long blockTableOffset = dst.getAppendOffset() - headerOffset;
+        for (int i = 0, n = blockOffsets.size(); i < n; i++) {
+            dst.putLong(blockOffsets.getQuick(i));
+        }
+        // memory could have been remapped by appends, re-read header address
+        Unsafe.getUnsafe().putLong(dst.addressOf(headerOffset + HEADER_BLOCK_TABLE_OFFSET), blockTableOffset);
+        return codec;
+    }
+
+    /**
+     * Checks that compressed column header and block table are within the column file.
+     *
+     * @param srcAddr address of the compressed column, including header
+     * @param srcSize size of the compressed column
+     * @param dstSize expected size of the decoded column
+     */
+    public static void checkColumn(long srcAddr, long srcSize, long dstSize) {
+        if (srcSize < HEADER_SIZE) {
+            throw CairoException.critical(0).put("compressed column is too short [size=").put(srcSize).put(']');
+        }
+        final int codec = Unsafe.getUnsafe().getInt(srcAddr);
+        final int valueSize = Unsafe.getUnsafe().getInt(srcAddr + 4);
+        final long rowCount = Unsafe.getUnsafe().getLong(srcAddr + 8);
+        final long blockRowCount = Unsafe.getUnsafe().getLong(srcAddr + HEADER_BLOCK_ROW_COUNT_OFFSET);
+        if (codec < CODEC_DELTA_OF_DELTA || codec > CODEC_DEFLATE) {
+            throw CairoException.critical(0).put("unknown column codec [codec=").put(codec).put(']');
+        }
+        if (valueSize <= 0 || blockRowCount <= 0 || rowCount < 0) {
+            throw CairoException.critical(0).put("corrupt compressed column header [valueSize=").put(valueSize)
+                    .put(", rowCount=").put(rowCount)
+                    .put(", blockRowCount=").put(blockRowCount)
+                    .put(']');
+        }
+        if (rowCount * valueSize < dstSize) {
+            throw CairoException.critical(0).put("compressed column is too short [rowCount=").put(rowCount)
+                    .put(", valueSize=").put(valueSize)
+                    .put(", expectedSize=").put(dstSize)
+                    .put(']');
+        }
+        final long blockTableOffset = Unsafe.getUnsafe().getLong(srcAddr + HEADER_BLOCK_TABLE_OFFSET);
+        final long blockTableSize = (getBlockCount(rowCount, blockRowCount) + 1) * Long.BYTES;
+        if (blockTableOffset < HEADER_SIZE || blockTableOffset > srcSize - blockTableSize) {
+            throw CairoException.critical(0).put("compressed column is truncated [size=").put(srcSize)
+                    .put(", blockTableOffset=").put(blockTableOffset)
+                    .put(']');
+        }
+    }
+
+    /**
+     * Decodes compressed column into the destination buffer.
+     *
+     * @param srcAddr address of the compressed column, including header
+     * @param srcSize size of the compressed column
+     * @param dstAddr address of the destination buffer
+     * @param dstSize expected size of the decoded column
+     */
+    public static void decompress(long srcAddr, long srcSize, long dstAddr, long dstSize) {
+        checkColumn(srcAddr, srcSize, dstSize);
+        final long blockSize = getBlockSize(srcAddr);
+        for (long blockIndex = 0, lo = 0; lo < dstSize; blockIndex++, lo += blockSize) {
+            decompressBlock(srcAddr, srcSize, blockIndex, dstAddr + lo, Math.min(blockSize, dstSize - lo));
+        }
+    }
+
+    /**
+     * Decodes single block of compressed column into the destination buffer. Column must be
+     * validated with {@link #checkColumn(long, long, long)} before blocks are decoded.
+     *
+     * @param srcAddr    address of the compressed column, including header
+     * @param srcSize    size of the compressed column
+     * @param blockIndex index of the block to decode
+     * @param dstAddr    address of the destination buffer
+     * @param dstSize    number of bytes to decode from the start of the block
+     */
+    public static void decompressBlock(long srcAddr, long srcSize, long blockIndex, long dstAddr, long dstSize) {
+        final int codec = Unsafe.getUnsafe().getInt(srcAddr);
+        final int valueSize = Unsafe.getUnsafe().getInt(srcAddr + 4);
+        final long blockTableAddr = srcAddr + Unsafe.getUnsafe().getLong(srcAddr + HEADER_BLOCK_TABLE_OFFSET);
+        final long blockOffset = Unsafe.getUnsafe().getLong(blockTableAddr + blockIndex * Long.BYTES);
+        final long blockLimit = Unsafe.getUnsafe().getLong(blockTableAddr + (blockIndex + 1) * Long.BYTES);
+        if (blockOffset < HEADER_SIZE || blockOffset > blockLimit || blockLimit > srcSize) {
+            throw CairoException.critical(0).put("compressed column is truncated [blockIndex=").put(blockIndex)
+                    .put(", blockOffset=").put(blockOffset)
+                    .put(", blockLimit=").put(blockLimit)
+                    .put(']');
+        }
+
+        final long payloadAddr = srcAddr + blockOffset;
+        final long payloadLim = srcAddr + blockLimit;
+        final long decodeRowCount = dstSize / valueSize;
+        switch (codec) {
+            case CODEC_DELTA_OF_DELTA:
+                decodeDeltaOfDelta(payloadAddr, payloadLim, dstAddr, decodeRowCount);
+                break;
+            case CODEC_RLE:
+                decodeRle(payloadAddr, payloadLim, dstAddr, decodeRowCount, valueSize);
+                break;
+            case CODEC_DEFLATE:
+                decodeDeflate(payloadAddr, payloadLim - payloadAddr, dstAddr, dstSize);
+                break;
+            default:
+                throw CairoException.critical(0).put("unknown column codec [codec=").put(codec).put(']');
+        }
+    }
+
+    /**
+     * @param srcAddr address of the compressed column, including header
+     * @return number of decoded bytes in a block, the last block of the column can be shorter
+     */
+    public static long getBlockSize(long srcAddr) {
+        return Unsafe.getUnsafe().getLong(srcAddr + HEADER_BLOCK_ROW_COUNT_OFFSET) * Unsafe.getUnsafe().getInt(srcAddr + 4);
+    }
+
+    private static void checkPayload(long p, long lim) {
+        if (p > lim) {
+            throw CairoException.critical(0).put("compressed column is truncated");
+        }
+    }
+
+    private static long countRuns(long srcAddr, long rowCount, int valueSize) {
+        long runs = rowCount > 0 ? 1 : 0;
+        for (long i = 1; i < rowCount; i++) {
+            if (!valueEquals(srcAddr + (i - 1) * valueSize, srcAddr + i * valueSize, valueSize)) {
+                runs++;
+            }
+        }
+        return runs;
+    }
+
+    private static void decodeDeflate(long srcAddr, long srcSize, long dstAddr, long dstSize) {
+        final long strm = Zip.inflateInit(true);
+        if (strm < 0) {
+            throw CairoException.critical(0).put("could not initialize inflater [error=").put(strm).put(']');
+        }
+        try {
+            long inOffset = 0;
+            long outOffset = 0;
+            while (outOffset < dstSize) {
+                if (Zip.availIn(strm) == 0) {
+                    if (inOffset >= srcSize) {
+                        throw CairoException.critical(0).put("compressed column is truncated [expectedSize=").put(dstSize)
+                                .put(", actualSize=").put(outOffset)
+                                .put(']');
+                    }
+                    final int len = (int) Math.min(MAX_DEFLATE_CHUNK, srcSize - inOffset);
+                    Zip.setInput(strm, srcAddr + inOffset, len);
+                    inOffset += len;
+                }
+                final int availIn = Zip.availIn(strm);
+                final int ret = Zip.inflate(strm, dstAddr + outOffset, (int) Math.min(MAX_DEFLATE_CHUNK, dstSize - outOffset), false);
+                if (ret < 0) {
+                    throw CairoException.critical(0).put("could not inflate column [error=").put(ret).put(']');
+                }
+                if (ret == 0 && Zip.availIn(strm) == availIn) {
+                    // end of the deflate stream, but the column is not complete
+                    throw CairoException.critical(0).put("compressed column is truncated [expectedSize=").put(dstSize)
+                            .put(", actualSize=").put(outOffset)
+                            .put(']');
+                }
+                outOffset += ret;
+            }
+        } finally {
+            Zip.inflateEnd(strm);
+        }
+    }
+
+    private static void decodeDeltaOfDelta(long p, long lim, long dstAddr, long rowCount) {
+        if (rowCount == 0) {
+            return;
+        }
+        checkPayload(p + Long.BYTES, lim);
+        long value = Unsafe.getUnsafe().getLong(p);
+        p += Long.BYTES;
+        Unsafe.getUnsafe().putLong(dstAddr, value);
+        long delta = 0;
+        for (long i = 1; i < rowCount; i++) {
+            long z = 0;
+            int shift = 0;
+            byte b;
+            do {
+                checkPayload(p + 1, lim);
+                b = Unsafe.getUnsafe().getByte(p++);
+                z |= (long) (b & 0x7f) << shift;
+                shift += 7;
+            } while (b < 0);
+            delta += (z >>> 1) ^ -(z & 1);
+            value += delta;
+            Unsafe.getUnsafe().putLong(dstAddr + (i << 3), value);
+        }
+    }
+
+    private static void decodeRle(long p, long lim, long dstAddr, long rowCount, int valueSize) {
+        long row = 0;
+        while (row < rowCount) {
+            long runLength = 0;
+            int shift = 0;
+            byte b;
+            do {
+                checkPayload(p + 1, lim);
+                b = Unsafe.getUnsafe().getByte(p++);
+                runLength |= (long) (b & 0x7f) << shift;
+                shift += 7;
+            } while (b < 0);
+            checkPayload(p + valueSize, lim);
+
+            final long runHi = Math.min(row + runLength, rowCount);
+            switch (valueSize) {
+                case Byte.BYTES:
+                    Vect.memset(dstAddr + row, runHi - row, Unsafe.getUnsafe().getByte(p));
+                    break;
+                case Short.BYTES:
+                    final short s = Unsafe.getUnsafe().getShort(p);
+                    for (long i = row; i < runHi; i++) {
+                        Unsafe.getUnsafe().putShort(dstAddr + (i << 1), s);
+                    }
+                    break;
+                case Integer.BYTES:
+                    final int n = Unsafe.getUnsafe().getInt(p);
+                    for (long i = row; i < runHi; i++) {
+                        Unsafe.getUnsafe().putInt(dstAddr + (i << 2), n);
+                    }
+                    break;
+                case Long.BYTES:
+                    final long l = Unsafe.getUnsafe().getLong(p);
+                    for (long i = row; i < runHi; i++) {
+                        Unsafe.getUnsafe().putLong(dstAddr + (i << 3), l);
+                    }
+                    break;
+                default:
+                    for (long i = row; i < runHi; i++) {
+                        Vect.memcpy(dstAddr + i * valueSize, p, valueSize);
+                    }
+                    break;
+            }
+            p += valueSize;
+            row = runHi;
+        }
+    }
+
+    private static void encodeDeflate(long srcAddr, long srcSize, MemoryARW dst) {
+        final long strm = Zip.deflateInit();
+        if (strm < 0) {
+            throw CairoException.critical(0).put("could not initialize deflater [error=").put(strm).put(']');
+        }
+        try {
+            long inOffset = 0;
+            int ret;
+            do {
+                final boolean flush;
+                if (Zip.availIn(strm) == 0 && inOffset < srcSize) {
+                    final int len = (int) Math.min(MAX_DEFLATE_CHUNK, srcSize - inOffset);
+                    Zip.setInput(strm, srcAddr + inOffset, len);
+                    inOffset += len;
+                }
+                flush = inOffset == srcSize;
+
+                final long outAddr = dst.appendAddressFor(DEFLATE_OUT_BUF_SIZE);
+                ret = Zip.deflate(strm, outAddr, DEFLATE_OUT_BUF_SIZE, flush);
+                if (ret < 0) {
+                    throw CairoException.critical(0).put("could not deflate column [error=").put(ret).put(']');
+                }
+                // give back the part of the buffer deflate did not use
+                dst.jumpTo(dst.getAppendOffset() - Zip.availOut(strm));
+            } while (ret != Zip.Z_STREAM_END);
+        } finally {
+            Zip.deflateEnd(strm);
+        }
+    }
+
+    private static void encodeDeltaOfDelta(long srcAddr, long rowCount, MemoryARW dst) {
+        if (rowCount == 0) {
+            return;
+        }
+        long prev = Unsafe.getUnsafe().getLong(srcAddr);
+        Unsafe.getUnsafe().putLong(dst.appendAddressFor(Long.BYTES), prev);
+        long prevDelta = 0;
+        for (long lo = 1; lo < rowCount; lo += VARINT_BLOCK_ROWS) {
+            final long hi = Math.min(lo + VARINT_BLOCK_ROWS, rowCount);
+            final long blockSize = (hi - lo) * MAX_VARINT_SIZE;
+            final long blockAddr = dst.appendAddressFor(blockSize);
+            long p = blockAddr;
+            for (long i = lo; i < hi; i++) {
+                final long value = Unsafe.getUnsafe().getLong(srcAddr + (i << 3));
+                final long delta = value - prev;
+                final long dod = delta - prevDelta;
+                p = putVarLong(p, (dod << 1) ^ (dod >> 63));
+                prev = value;
+                prevDelta = delta;
+            }
+            dst.jumpTo(dst.getAppendOffset() - (blockSize - (p - blockAddr)));
+        }
+    }
+
+    private static void encodeRle(long srcAddr, long rowCount, int valueSize, MemoryARW dst) {
+        long runLo = 0;
+        while (runLo < rowCount) {
+            final long valueAddr = srcAddr + runLo * valueSize;
+            long runHi = runLo + 1;
+            while (runHi < rowCount && valueEquals(valueAddr, srcAddr + runHi * valueSize, valueSize)) {
+                runHi++;
+            }
+            final long runAddr = dst.appendAddressFor(MAX_VARINT_SIZE + valueSize);
+            final long p = putVarLong(runAddr, runHi - runLo);
+            Vect.memcpy(p, valueAddr, valueSize);
+            dst.jumpTo(dst.getAppendOffset() - (MAX_VARINT_SIZE - (p - runAddr)));
+            runLo = runHi;
+        }
+    }
+
+    private static long getBlockCount(long rowCount, long blockRowCount) {
+        return (rowCount + blockRowCount - 1) / blockRowCount;
+    }
+
+    private static long putVarLong(long p, long value) {
+        while ((value & ~0x7fL) != 0) {
+            Unsafe.getUnsafe().putByte(p++, (byte) ((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+        Unsafe.getUnsafe().putByte(p++, (byte) value);
+        return p;
+    }
+
+    private static boolean valueEquals(long a, long b, int valueSize) {
+        switch (valueSize) {
+            case Byte.BYTES:
+                return Unsafe.getUnsafe().getByte(a) == Unsafe.getUnsafe().getByte(b);
+            case Short.BYTES:
+                return Unsafe.getUnsafe().getShort(a) == Unsafe.getUnsafe().getShort(b);
+            case Integer.BYTES:
+                return Unsafe.getUnsafe().getInt(a) == Unsafe.getUnsafe().getInt(b);
+            case Long.BYTES:
+                return Unsafe.getUnsafe().getLong(a) == Unsafe.getUnsafe().getLong(b);
+            default:
+                return Vect.memeq(a, b, valueSize);
+        }
+    }
+}
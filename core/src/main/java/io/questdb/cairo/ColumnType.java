@@ -71,12 +71,14 @@ public final class ColumnType {    //@formatter:off
     // inside the MAX type value.
     public static final short GEOHASH = RECORD + 1;     // = 23;
     public static final short LONG128 = GEOHASH + 1;    // = 24; // Limited support, few tests only
+    // UTF-8 encoded string, stored in the same layout as BINARY
+    public static final short VARCHAR = LONG128 + 1;    // = 25;
     // PG specific types to work with 3rd party software with canned catalogue queries
-    public static final short REGCLASS = LONG128 + 1;   // = 25;
-    public static final short REGPROCEDURE = REGCLASS + 1;      // = 26;
-    public static final short ARRAY_STRING = REGPROCEDURE + 1;  // = 27;
-    public static final short PARAMETER = ARRAY_STRING + 1;     // = 28;
-    public static final short NULL = PARAMETER + 1;             // = 29;
+    public static final short REGCLASS = VARCHAR + 1;   // = 26;
+    public static final short REGPROCEDURE = REGCLASS + 1;      // = 27;
+    public static final short ARRAY_STRING = REGPROCEDURE + 1;  // = 28;
+    public static final short PARAMETER = ARRAY_STRING + 1;     // = 29;
+    public static final short NULL = PARAMETER + 1;             // = 30;
     // Overload matrix algo depends on the fact that MAX == NULL
     public static final short MAX = NULL;
     public static final short TYPES_SIZE = MAX + 1;
@@ -104,6 +106,12 @@ public final class ColumnType {    //@formatter:off
             /* 17 GEOLONG   */, {GEOLONG, GEOHASH}
             /* 18 BINARY    */, {BINARY}
             /* 19 UUID      */, {UUID, STRING}
+            /* 20 CURSOR    */, {}
+            /* 21 VAR_ARG   */, {}
+            /* 22 RECORD    */, {}
+            /* 23 GEOHASH   */, {}
+            /* 24 LONG128   */, {}
+            /* 25 VARCHAR   */, {VARCHAR, STRING}
     };
     //@formatter:on
 
@@ -232,8 +240,12 @@ public final class ColumnType {    //@formatter:off
         return columnType == UNDEFINED;
     }
 
+    public static boolean isVarchar(int columnType) {
+        return columnType == VARCHAR;
+    }
+
     public static boolean isVariableLength(int columnType) {
-        return columnType == STRING || columnType == BINARY;
+        return columnType == STRING || columnType == BINARY || columnType == VARCHAR;
     }
 
     public static String nameOf(int columnType) {
@@ -294,7 +306,7 @@ public final class ColumnType {    //@formatter:off
         if (columnType == ColumnType.STRING) {
             return Integer.BYTES;
         }
-        assert columnType == ColumnType.BINARY;
+        assert columnType == ColumnType.BINARY || columnType == ColumnType.VARCHAR;
         return Long.BYTES;
     }
 
@@ -353,7 +365,13 @@ public final class ColumnType {    //@formatter:off
                 || (fromType == SYMBOL && toType == STRING)
                 || (fromType == CHAR && toType == SYMBOL)
                 || (fromType == CHAR && toType == STRING)
-                || (fromType == UUID && toType == STRING);
+                || (fromType == UUID && toType == STRING)
+                || (fromType == VARCHAR && toType == STRING)
+                || (fromType == VARCHAR && toType == SYMBOL)
+                || (fromType == STRING && toType == VARCHAR)
+                || (fromType == SYMBOL && toType == VARCHAR)
+                || (fromType == CHAR && toType == VARCHAR)
+                || (fromType == UUID && toType == VARCHAR);
     }
 
     private static int mkGeoHashType(int bits, short baseType) {
@@ -390,6 +408,7 @@ public final class ColumnType {    //@formatter:off
         typeNameMap.put(SHORT, "SHORT");
         typeNameMap.put(CHAR, "CHAR");
         typeNameMap.put(STRING, "STRING");
+        typeNameMap.put(VARCHAR, "VARCHAR");
         typeNameMap.put(SYMBOL, "SYMBOL");
         typeNameMap.put(BINARY, "BINARY");
         typeNameMap.put(DATE, "DATE");
@@ -430,7 +449,7 @@ public final class ColumnType {    //@formatter:off
         nameTypeMap.put("bigint", LONG);
         nameTypeMap.put("real", FLOAT);
         nameTypeMap.put("bytea", STRING);
-        nameTypeMap.put("varchar", STRING);
+        nameTypeMap.put("varchar", VARCHAR);
         nameTypeMap.put("regclass", REGCLASS);
         nameTypeMap.put("regprocedure", REGPROCEDURE);
         nameTypeMap.put("text[]", ARRAY_STRING);
@@ -468,6 +487,7 @@ public final class ColumnType {    //@formatter:off
         TYPE_SIZE_POW2[GEOINT] = 2;
         TYPE_SIZE_POW2[GEOLONG] = 3;
         TYPE_SIZE_POW2[BINARY] = -1;
+        TYPE_SIZE_POW2[VARCHAR] = -1;
         TYPE_SIZE_POW2[PARAMETER] = -1;
         TYPE_SIZE_POW2[CURSOR] = -1;
         TYPE_SIZE_POW2[VAR_ARG] = -1;
@@ -495,6 +515,7 @@ public final class ColumnType {    //@formatter:off
         TYPE_SIZE[GEOINT] = Integer.BYTES;
         TYPE_SIZE[GEOLONG] = Long.BYTES;
         TYPE_SIZE[BINARY] = 0;
+        TYPE_SIZE[VARCHAR] = 0;
         TYPE_SIZE[PARAMETER] = -1;
         TYPE_SIZE[CURSOR] = -1;
         TYPE_SIZE[VAR_ARG] = -1;
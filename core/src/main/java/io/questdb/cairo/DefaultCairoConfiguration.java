@@ -47,6 +47,7 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
     private final CharSequence root;
     private final CairoSecurityContextFactory securityContextFactory = new AllowAllSecurityContextFactory();
     private final CharSequence snapshotRoot;
+    private final CharSequence spillRoot;
     private final DefaultTelemetryConfiguration telemetryConfiguration = new DefaultTelemetryConfiguration();
     private final TextConfiguration textConfiguration;
     private final VolumeDefinitions volumeDefinitions = new VolumeDefinitions();
@@ -56,6 +57,7 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         this.confRoot = PropServerConfiguration.rootSubdir(root, PropServerConfiguration.CONFIG_DIRECTORY);
         this.textConfiguration = new DefaultTextConfiguration(Chars.toString(confRoot));
         this.snapshotRoot = PropServerConfiguration.rootSubdir(root, PropServerConfiguration.SNAPSHOT_DIRECTORY);
+        this.spillRoot = PropServerConfiguration.rootSubdir(root, PropServerConfiguration.TMP_DIRECTORY);
         Rnd rnd = new Rnd(NanosecondClockImpl.INSTANCE.getTicks(), MicrosecondClockImpl.INSTANCE.getTicks());
         this.databaseIdLo = rnd.nextLong();
         this.databaseIdHi = rnd.nextLong();
@@ -764,6 +766,21 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return Numbers.SIZE_1MB * 16;
     }
 
+    @Override
+    public long getSqlResultCacheMemoryLimit() {
+        return 64 * 1024 * 1024;
+    }
+
+    @Override
+    public CharSequence getSqlSpillRoot() {
+        return spillRoot;
+    }
+
+    @Override
+    public long getSqlSpillThreshold() {
+        return 0;
+    }
+
     @Override
     public int getStrFunctionMaxBufferLength() {
         return 1024 * 1024;
@@ -814,6 +831,11 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return 20;
     }
 
+    @Override
+    public long getWalApplySquashMaxRows() {
+        return 1_000_000;
+    }
+
     @Override
     public long getWalApplyTableTimeQuota() {
         return 1000L;
@@ -938,6 +960,36 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return true;
     }
 
+    @Override
+    public boolean isSqlParallelGroupByEnabled() {
+        return false;
+    }
+
+    @Override
+    public boolean isSqlParallelSampleByEnabled() {
+        return false;
+    }
+
+    @Override
+    public boolean isSqlParallelHashJoinEnabled() {
+        return false;
+    }
+
+    @Override
+    public boolean isSqlProjectionCompilerEnabled() {
+        return true;
+    }
+
+    @Override
+    public boolean isSqlResultCacheEnabled() {
+        return false;
+    }
+
+    @Override
+    public boolean isSqlZoneMapEnabled() {
+        return false;
+    }
+
     @Override
     public boolean isTableTypeConversionEnabled() {
         return true;
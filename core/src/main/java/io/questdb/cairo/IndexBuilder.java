@@ -31,7 +31,6 @@ import io.questdb.cairo.vm.api.MemoryMR;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
 import io.questdb.std.MemoryTag;
-import io.questdb.std.Misc;
 import io.questdb.std.str.Path;
 
 /**
@@ -40,9 +39,10 @@ import io.questdb.std.str.Path;
  */
 public class IndexBuilder extends RebuildColumnBase {
     private static final Log LOG = LogFactory.getLog(IndexBuilder.class);
+    // fixed size columns of compressed partitions are read through decompressing memory
+    private final MemoryMR compressedIndexMem = Vm.getMRDecompressInstance();
     private final MemoryMAR ddlMem = Vm.getMARInstance();
     private final MemoryMR indexMem = Vm.getMRInstance();
-    private final SymbolColumnIndexer indexer = new SymbolColumnIndexer();
 
     public IndexBuilder() {
         super();
@@ -55,13 +55,6 @@ public class IndexBuilder extends RebuildColumnBase {
         // ddlMem is idempotent, we can call close() as many times as we need,
         // but we reuse Java object after memory is closed (method of() will reopen memory)
         ddlMem.close();
-        indexer.clear();
-    }
-
-    @Override
-    public void close() {
-        super.close();
-        Misc.free(indexer);
     }
 
     private void createIndexFiles(CharSequence columnName, int indexValueBlockCapacity, int plen, long columnNameTxn) {
@@ -124,10 +117,12 @@ public class IndexBuilder extends RebuildColumnBase {
             ColumnVersionReader columnVersionReader,
             int columnWriterIndex,
             CharSequence columnName,
+            int columnType,
             CharSequence partitionName,
             long partitionNameTxn,
             long partitionSize,
             long partitionTimestamp,
+            boolean partitionCompressed,
             int indexValueBlockCapacity
     ) {
         path.trimTo(rootLen).concat(partitionName);
@@ -135,7 +130,7 @@ public class IndexBuilder extends RebuildColumnBase {
         final int plen = path.length();
 
         if (ff.exists(path.$())) {
-            try (final MemoryMR roMem = indexMem) {
+            try (final MemoryMR roMem = partitionCompressed ? compressedIndexMem : indexMem) {
                 long columnNameTxn = columnVersionReader.getColumnNameTxn(partitionTimestamp, columnWriterIndex);
                 removeIndexFiles(columnName, columnNameTxn);
                 TableUtils.dFile(path.trimTo(plen), columnName, columnNameTxn);
@@ -151,14 +146,12 @@ public class IndexBuilder extends RebuildColumnBase {
                                 ff,
                                 path,
                                 0,
-                                (partitionSize - columnTop) * Integer.BYTES,
+                                (partitionSize - columnTop) << ColumnType.pow2SizeOf(columnType),
                                 MemoryTag.MMAP_TABLE_WRITER
                         );
-                        try {
+                        try (SymbolColumnIndexer indexer = new SymbolColumnIndexer(columnType)) {
                             indexer.configureWriter(configuration, path.trimTo(plen), columnName, columnNameTxn, columnTop);
                             indexer.index(roMem, columnTop, partitionSize);
-                        } finally {
-                            indexer.clear();
                         }
                     }
                 } else {
@@ -0,0 +1,186 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+import io.questdb.cairo.vm.Vm;
+import io.questdb.cairo.vm.api.MemoryMARW;
+import io.questdb.std.*;
+import io.questdb.std.str.Path;
+
+/**
+ * Definition of a materialized SAMPLE BY view, persisted in the view table directory.
+ * <p>
+ * Besides the base table name, the definition keeps the view query split around the
+ * position of the base table name. Refresh substitutes the table name with a sub-query
+ * that filters base rows from the first changed day onwards, so that only the affected
+ * buckets are re-aggregated.
+ * <p>
+ * Base table changes are detected by comparing the base partition table, as seen in
+ * the _txn file, with the snapshot taken at the last refresh.
+ */
+public class MatViewDefinition implements Mutable {
+    private static final int LONGS_PER_PARTITION = 4;
+    private static final int PARTITION_COLUMN_VERSION_OFFSET = 3;
+    private static final int PARTITION_NAME_TXN_OFFSET = 2;
+    private static final int PARTITION_SIZE_OFFSET = 1;
+    private final LongList basePartitions = new LongList();
+    private String baseTableName;
+    private String queryPrefix;
+    private String querySuffix;
+
+    @Override
+    public void clear() {
+        baseTableName = null;
+        queryPrefix = null;
+        querySuffix = null;
+        basePartitions.clear();
+    }
+
+    /**
+     * Finds the earliest base partition that was added, removed or modified since the last snapshot.
+     *
+     * @param txReader transaction state of the base table
+     * @return timestamp of the earliest changed partition or Long.MAX_VALUE when base table did not change
+     */
+    public long findEarliestChange(TxReader txReader) {
+        final int snapshotCount = basePartitions.size() / LONGS_PER_PARTITION;
+        final int partitionCount = txReader.getPartitionCount();
+        int i = 0;
+        int j = 0;
+        while (i < snapshotCount || j < partitionCount) {
+            final long snapshotTs = i < snapshotCount ? basePartitions.getQuick(i * LONGS_PER_PARTITION) : Long.MAX_VALUE;
+            final long partitionTs = j < partitionCount ? txReader.getPartitionTimestamp(j) : Long.MAX_VALUE;
+            if (snapshotTs != partitionTs) {
+                // partition was either added or removed
+                return Math.min(snapshotTs, partitionTs);
+            }
+            final int offset = i * LONGS_PER_PARTITION;
+            if (basePartitions.getQuick(offset + PARTITION_SIZE_OFFSET) != txReader.getPartitionSize(j)
+                    || basePartitions.getQuick(offset + PARTITION_NAME_TXN_OFFSET) != txReader.getPartitionNameTxn(j)
+                    || basePartitions.getQuick(offset + PARTITION_COLUMN_VERSION_OFFSET) != txReader.getPartitionColumnVersion(j)) {
+                return partitionTs;
+            }
+            i++;
+            j++;
+        }
+        return Long.MAX_VALUE;
+    }
+
+    public String getBaseTableName() {
+        return baseTableName;
+    }
+
+    public int getSnapshotPartitionCount() {
+        return basePartitions.size() / LONGS_PER_PARTITION;
+    }
+
+    public String getQueryPrefix() {
+        return queryPrefix;
+    }
+
+    public String getQuerySuffix() {
+        return querySuffix;
+    }
+
+    public MatViewDefinition of(CharSequence baseTableName, CharSequence queryPrefix, CharSequence querySuffix) {
+        this.baseTableName = Chars.toString(baseTableName);
+        this.queryPrefix = Chars.toString(queryPrefix);
+        this.querySuffix = Chars.toString(querySuffix);
+        basePartitions.clear();
+        return this;
+    }
+
+    /**
+     * Reads definition from the view table directory.
+     *
+     * @return false when the table is not a materialized view
+     */
+    public boolean read(FilesFacade ff, Path tablePath, MemoryMARW mem) {
+        final int rootLen = tablePath.length();
+        try {
+            tablePath.concat(TableUtils.MAT_VIEW_FILE_NAME).$();
+            if (!ff.exists(tablePath)) {
+                return false;
+            }
+            mem.smallFile(ff, tablePath, MemoryTag.MMAP_DEFAULT);
+            try {
+                long offset = 0;
+                CharSequence str = mem.getStr(offset);
+                baseTableName = Chars.toString(str);
+                offset += Vm.getStorageLength(str);
+                str = mem.getStr(offset);
+                queryPrefix = Chars.toString(str);
+                offset += Vm.getStorageLength(str);
+                str = mem.getStr(offset);
+                querySuffix = Chars.toString(str);
+                offset += Vm.getStorageLength(str);
+                final int n = mem.getInt(offset);
+                offset += Integer.BYTES;
+                basePartitions.clear();
+                for (int i = 0; i < n; i++) {
+                    basePartitions.add(mem.getLong(offset));
+                    offset += Long.BYTES;
+                }
+            } finally {
+                mem.close(false);
+            }
+            return true;
+        } finally {
+            tablePath.trimTo(rootLen);
+        }
+    }
+
+    /**
+     * Captures the current state of base table partitions.
+     */
+    public void snapshot(TxReader txReader) {
+        basePartitions.clear();
+        for (int i = 0, n = txReader.getPartitionCount(); i < n; i++) {
+            basePartitions.add(txReader.getPartitionTimestamp(i));
+            basePartitions.add(txReader.getPartitionSize(i));
+            basePartitions.add(txReader.getPartitionNameTxn(i));
+            basePartitions.add(txReader.getPartitionColumnVersion(i));
+        }
+    }
+
+    public void write(FilesFacade ff, Path tablePath, MemoryMARW mem) {
+        final int rootLen = tablePath.length();
+        try {
+            mem.smallFile(ff, tablePath.concat(TableUtils.MAT_VIEW_FILE_NAME).$(), MemoryTag.MMAP_DEFAULT);
+            mem.jumpTo(0);
+            mem.putStr(baseTableName);
+            mem.putStr(queryPrefix);
+            mem.putStr(querySuffix);
+            mem.putInt(basePartitions.size());
+            for (int i = 0, n = basePartitions.size(); i < n; i++) {
+                mem.putLong(basePartitions.getQuick(i));
+            }
+            mem.close(true, Vm.TRUNCATE_TO_POINTER);
+        } finally {
+            tablePath.trimTo(rootLen);
+        }
+    }
+}
@@ -30,6 +30,7 @@ import io.questdb.std.ObjList;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class O3Basket implements Mutable {
+    private final O3DedupKeys dedupKeys = new O3DedupKeys();
     private final ObjList<BitmapIndexWriter> indexers = new ObjList<BitmapIndexWriter>();
     private final ObjList<AtomicInteger> partCounters = new ObjList<AtomicInteger>();
     private int columnCount;
@@ -83,4 +84,8 @@ public class O3Basket implements Mutable {
         }
         this.indexCount = indexCount;
     }
+
+    O3DedupKeys getDedupKeys() {
+        return dedupKeys;
+    }
 }
@@ -125,6 +125,7 @@ public class O3CopyJob extends AbstractQueueConsumerJob<O3CopyTask> {
                     mergeCopy(
                             columnType,
                             timestampMergeIndexAddr,
+                            timestampMergeIndexSize,
                             // this is a hack, when we have column top we can have only of the two:
                             // srcDataFixOffset, when we had to shift data to back-fill nulls or
                             // srcDataTopOffset - if we kept the column top
@@ -206,6 +207,7 @@ public class O3CopyJob extends AbstractQueueConsumerJob<O3CopyTask> {
         copyTail(
                 columnCounter,
                 partCounter,
+                columnType,
                 timestampMergeIndexAddr,
                 timestampMergeIndexSize,
                 srcDataFixFd,
@@ -369,6 +371,7 @@ public class O3CopyJob extends AbstractQueueConsumerJob<O3CopyTask> {
         switch (ColumnType.tagOf(columnType)) {
             case ColumnType.STRING:
             case ColumnType.BINARY:
+            case ColumnType.VARCHAR:
                 copyVarSizeCol(
                         ff,
                         srcFixAddr,
@@ -428,6 +431,7 @@ public class O3CopyJob extends AbstractQueueConsumerJob<O3CopyTask> {
     private static void copyTail(
             AtomicInteger columnCounter,
             @Nullable AtomicInteger partCounter,
+            int columnType,
             long timestampMergeIndexAddr,
             long timestampMergeIndexSize,
             int srcDataFixFd,
@@ -466,6 +470,7 @@ public class O3CopyJob extends AbstractQueueConsumerJob<O3CopyTask> {
             if (indexBlockCapacity > -1) {
                 updateIndex(
                         columnCounter,
+                        columnType,
                         timestampMergeIndexAddr,
                         timestampMergeIndexSize,
                         srcDataFixFd,
@@ -576,6 +581,7 @@ public class O3CopyJob extends AbstractQueueConsumerJob<O3CopyTask> {
     private static void mergeCopy(
             int columnType,
             long timestampMergeIndexAddr,
+            long timestampMergeIndexSize,
             long srcDataFixAddr,
             long srcDataVarAddr,
             long srcDataLo,
@@ -589,7 +595,9 @@ public class O3CopyJob extends AbstractQueueConsumerJob<O3CopyTask> {
             long dstVarOffset,
             long dstVarOffsetEnd
     ) {
-        final long rowCount = srcOooHi - srcOooLo + 1 + srcDataHi - srcDataLo + 1;
+        // deduplication can remove data rows from the merge index, so the row count comes from its size
+        final long rowCount = timestampMergeIndexSize / TIMESTAMP_MERGE_ENTRY_BYTES;
+        assert rowCount <= srcOooHi - srcOooLo + 1 + srcDataHi - srcDataLo + 1;
         switch (ColumnType.tagOf(columnType)) {
             case ColumnType.BOOLEAN:
             case ColumnType.BYTE:
@@ -618,6 +626,7 @@ public class O3CopyJob extends AbstractQueueConsumerJob<O3CopyTask> {
                 Unsafe.getUnsafe().putLong(dstFixAddr + rowCount * 8, dstVarOffsetEnd);
                 break;
             case ColumnType.BINARY:
+            case ColumnType.VARCHAR:
                 Vect.oooMergeCopyBinColumn(
                         timestampMergeIndexAddr,
                         rowCount,
@@ -665,6 +674,7 @@ public class O3CopyJob extends AbstractQueueConsumerJob<O3CopyTask> {
 
     private static void updateIndex(
             AtomicInteger columnCounter,
+            int columnType,
             long timestampMergeIndexAddr,
             long timestampMergeIndexSize,
             int srcDataFixFd,
@@ -692,13 +702,13 @@ public class O3CopyJob extends AbstractQueueConsumerJob<O3CopyTask> {
     ) {
         // dstKFd & dstVFd are closed by the indexer
         try {
-            long row = dstIndexOffset / Integer.BYTES;
+            long row = dstIndexOffset >> ColumnType.pow2SizeOf(columnType);
             boolean closed = !indexWriter.isOpen();
             if (closed) {
                 indexWriter.of(tableWriter.getConfiguration(), dstKFd, dstVFd, row == 0, indexBlockCapacity);
             }
             try {
-                updateIndex(dstFixAddr, dstFixSize, indexWriter, dstIndexOffset / Integer.BYTES, dstIndexAdjust);
+                updateIndex(columnType, dstFixAddr, dstFixSize, indexWriter, row, dstIndexAdjust);
             } finally {
                 if (closed) {
                     Misc.free(indexWriter);
@@ -737,11 +747,11 @@ public class O3CopyJob extends AbstractQueueConsumerJob<O3CopyTask> {
         }
     }
 
-    private static void updateIndex(long dstFixAddr, long dstFixSize, BitmapIndexWriter w, long row, long rowAdjust) {
+    private static void updateIndex(int columnType, long dstFixAddr, long dstFixSize, BitmapIndexWriter w, long row, long rowAdjust) {
         w.rollbackConditionally(row + rowAdjust);
-        final long count = dstFixSize / Integer.BYTES;
+        final long count = dstFixSize >> ColumnType.pow2SizeOf(columnType);
         for (; row < count; row++) {
-            w.add(TableUtils.toIndexKey(Unsafe.getUnsafe().getInt(dstFixAddr + row * Integer.BYTES)), row + rowAdjust);
+            w.add(TableUtils.toIndexKey(columnType, dstFixAddr, row), row + rowAdjust);
         }
         w.setMaxValue(count - 1);
     }
@@ -952,6 +962,7 @@ public class O3CopyJob extends AbstractQueueConsumerJob<O3CopyTask> {
         switch (ColumnType.tagOf(columnType)) {
             case ColumnType.STRING:
             case ColumnType.BINARY:
+            case ColumnType.VARCHAR:
                 // we can find out the edge of string column in one of two ways
                 // 1. if srcOooHi is at the limit of the page - we need to copy the whole page of strings
                 // 2  if there are more items behind srcOooHi we can get offset of srcOooHi+1
@@ -0,0 +1,222 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo;
+
+import io.questdb.cairo.sql.RecordMetadata;
+import io.questdb.cairo.vm.api.MemoryCR;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.*;
+import io.questdb.std.str.LPSZ;
+import io.questdb.std.str.Path;
+
+/**
+ * Dedup key column values of the rows being merged into a partition. Rows come from one of
+ * two sources, the sorted O3 data in memory or the partition data on disk, and are compared
+ * by the values of all dedup key columns, except the designated timestamp.
+ */
+final class O3DedupKeys implements QuietCloseable {
+    static final int SOURCE_DATA = 1;
+    static final int SOURCE_O3 = 0;
+    private static final Log LOG = LogFactory.getLog(O3DedupKeys.class);
+    // per key column: o3 fix, o3 var, data fix, data var, data column top, data fix size, data var size
+    private static final int KEY_ENTRY_SIZE = 7;
+    // largest fixed size value is LONG256
+    private static final int NULL_VALUE_SIZE = 32;
+    private final LongList keys = new LongList();
+    private final IntList types = new IntList();
+    private FilesFacade ff;
+    private long nullValuesAddr;
+    private long nullValuesSize;
+
+    @Override
+    public void close() {
+        for (int k = 0, n = types.size(); k < n; k++) {
+            final int offset = k * KEY_ENTRY_SIZE;
+            O3Utils.unmap(ff, keys.getQuick(offset + 2), keys.getQuick(offset + 5));
+            O3Utils.unmap(ff, keys.getQuick(offset + 3), keys.getQuick(offset + 6));
+        }
+        keys.clear();
+        types.clear();
+        if (nullValuesAddr != 0) {
+            nullValuesAddr = Unsafe.free(nullValuesAddr, nullValuesSize, MemoryTag.NATIVE_O3);
+            nullValuesSize = 0;
+        }
+    }
+
+    // Hash is never negative, so that the native index sort orders it the same way as Java does.
+    long hash(int source, long row) {
+        long hash = 0;
+        for (int k = 0, n = types.size(); k < n; k++) {
+            final long addr = valueAddress(k, source, row);
+            hash = 31 * hash + Hash.hashMem32(addr, valueSize(k, source, row, addr));
+        }
+        return hash & Long.MAX_VALUE;
+    }
+
+    boolean keysEqual(int sourceA, long rowA, int sourceB, long rowB) {
+        for (int k = 0, n = types.size(); k < n; k++) {
+            final long addrA = valueAddress(k, sourceA, rowA);
+            final long addrB = valueAddress(k, sourceB, rowB);
+            final long sizeA = valueSize(k, sourceA, rowA, addrA);
+            if (sizeA != valueSize(k, sourceB, rowB, addrB) || !Vect.memeq(addrA, addrB, sizeA)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Maps dedup key columns of the partition at the given path, so that the rows of the partition
+     * can be compared with the O3 rows. The partition has srcDataMax rows, rows above column top read as nulls.
+     */
+    void mapPartition(
+            FilesFacade ff,
+            Path partitionPath,
+            TableWriter tableWriter,
+            long partitionTimestamp,
+            boolean last,
+            long srcDataMax
+    ) {
+        this.ff = ff;
+        final RecordMetadata metadata = tableWriter.getMetadata();
+        final IntList keyColumns = tableWriter.getDedupKeyColumns();
+        final int plen = partitionPath.length();
+        for (int k = 0, n = keyColumns.size(); k < n; k++) {
+            final int columnIndex = keyColumns.getQuick(k);
+            final int columnType = types.getQuick(k);
+            final CharSequence columnName = metadata.getColumnName(columnIndex);
+            final long columnNameTxn = tableWriter.getColumnNameTxn(partitionTimestamp, columnIndex);
+            final long columnTop = last
+                    ? tableWriter.getColumnTop(columnIndex)
+                    : tableWriter.getColumnTop(partitionTimestamp, columnIndex, srcDataMax);
+            final int offset = k * KEY_ENTRY_SIZE;
+            keys.setQuick(offset + 4, columnTop);
+
+            final long rowCount = srcDataMax - columnTop;
+            if (rowCount > 0) {
+                if (ColumnType.isVariableLength(columnType)) {
+                    final long fixSize = (rowCount + 1) * Long.BYTES;
+                    final long fixAddr = mapColumnFile(TableUtils.iFile(partitionPath.trimTo(plen), columnName, columnNameTxn), fixSize);
+                    keys.setQuick(offset + 2, fixAddr);
+                    keys.setQuick(offset + 5, fixSize);
+                    final long varSize = Unsafe.getUnsafe().getLong(fixAddr + rowCount * Long.BYTES);
+                    if (varSize > 0) {
+                        keys.setQuick(offset + 3, mapColumnFile(TableUtils.dFile(partitionPath.trimTo(plen), columnName, columnNameTxn), varSize));
+                        keys.setQuick(offset + 6, varSize);
+                    }
+                } else {
+                    final long fixSize = rowCount << ColumnType.pow2SizeOf(columnType);
+                    keys.setQuick(offset + 2, mapColumnFile(TableUtils.dFile(partitionPath.trimTo(plen), columnName, columnNameTxn), fixSize));
+                    keys.setQuick(offset + 5, fixSize);
+                }
+            }
+
+            if (columnTop > 0) {
+                if (nullValuesAddr == 0) {
+                    nullValuesSize = (long) n * NULL_VALUE_SIZE;
+                    nullValuesAddr = Unsafe.malloc(nullValuesSize, MemoryTag.NATIVE_O3);
+                }
+                final long nullAddr = nullValuesAddr + (long) k * NULL_VALUE_SIZE;
+                if (ColumnType.isVariableLength(columnType)) {
+                    // null string has int length of -1, null binary has long length of -1
+                    Vect.memset(nullAddr, Long.BYTES, -1);
+                } else {
+                    TableUtils.setNull(columnType, nullAddr, 1);
+                }
+            }
+        }
+        partitionPath.trimTo(plen);
+    }
+
+    /**
+     * Sets up dedup key columns of the table writer with the O3 rows as the only source.
+     */
+    void of(TableWriter tableWriter, ReadOnlyObjList<? extends MemoryCR> o3Columns) {
+        close();
+        final RecordMetadata metadata = tableWriter.getMetadata();
+        final IntList keyColumns = tableWriter.getDedupKeyColumns();
+        for (int k = 0, n = keyColumns.size(); k < n; k++) {
+            final int columnIndex = keyColumns.getQuick(k);
+            final int columnType = metadata.getColumnType(columnIndex);
+            final int primaryIndex = TableWriter.getPrimaryColumnIndex(columnIndex);
+            types.add(columnType);
+            if (ColumnType.isVariableLength(columnType)) {
+                keys.add(o3Columns.getQuick(primaryIndex + 1).addressOf(0));
+                keys.add(o3Columns.getQuick(primaryIndex).addressOf(0));
+            } else {
+                keys.add(o3Columns.getQuick(primaryIndex).addressOf(0));
+                keys.add(0);
+            }
+            // partition data is not mapped
+            keys.add(0);
+            keys.add(0);
+            keys.add(0);
+            keys.add(0);
+            keys.add(0);
+        }
+    }
+
+    private long mapColumnFile(LPSZ path, long size) {
+        final int fd = TableUtils.openRO(ff, path, LOG);
+        try {
+            return TableUtils.mapRO(ff, fd, size, MemoryTag.MMAP_O3);
+        } finally {
+            ff.close(fd);
+        }
+    }
+
+    private long valueAddress(int k, int source, long row) {
+        final int offset = k * KEY_ENTRY_SIZE + (source == SOURCE_DATA ? 2 : 0);
+        final int columnType = types.getQuick(k);
+        if (source == SOURCE_DATA) {
+            final long columnTop = keys.getQuick(k * KEY_ENTRY_SIZE + 4);
+            if (row < columnTop) {
+                return nullValuesAddr + (long) k * NULL_VALUE_SIZE;
+            }
+            row -= columnTop;
+        }
+        if (ColumnType.isVariableLength(columnType)) {
+            return keys.getQuick(offset + 1) + Unsafe.getUnsafe().getLong(keys.getQuick(offset) + row * Long.BYTES);
+        }
+        return keys.getQuick(offset) + (row << ColumnType.pow2SizeOf(columnType));
+    }
+
+    private long valueSize(int k, int source, long row, long addr) {
+        final int columnType = types.getQuick(k);
+        if (!ColumnType.isVariableLength(columnType)) {
+            return 1L << ColumnType.pow2SizeOf(columnType);
+        }
+        if (source == SOURCE_DATA) {
+            final long columnTop = keys.getQuick(k * KEY_ENTRY_SIZE + 4);
+            if (row < columnTop) {
+                return ColumnType.isString(columnType) ? Integer.BYTES : Long.BYTES;
+            }
+            row -= columnTop;
+        }
+        final long fixAddr = keys.getQuick(k * KEY_ENTRY_SIZE + (source == SOURCE_DATA ? 2 : 0));
+        return Unsafe.getUnsafe().getLong(fixAddr + (row + 1) * Long.BYTES) - Unsafe.getUnsafe().getLong(fixAddr + row * Long.BYTES);
+    }
+}
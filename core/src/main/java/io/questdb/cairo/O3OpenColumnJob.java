@@ -79,6 +79,7 @@ public class O3OpenColumnJob extends AbstractQueueConsumerJob<O3OpenColumnTask>
         final long dstLen = srcOooHi - srcOooLo + 1 + srcDataMax - srcDataTop;
         switch (ColumnType.tagOf(columnType)) {
             case ColumnType.BINARY:
+            case ColumnType.VARCHAR:
             case ColumnType.STRING:
                 appendVarColumn(
                         columnCounter,
@@ -312,7 +313,10 @@ public class O3OpenColumnJob extends AbstractQueueConsumerJob<O3OpenColumnTask>
             int columnIndex,
             long columnNameTxn
     ) {
-        final long mergeLen = mergeOOOHi - mergeOOOLo + 1 + mergeDataHi - mergeDataLo + 1;
+        // merge index holds the rows the merge writes, deduplication may have removed some data rows from it
+        final long mergeLen = timestampMergeIndexAddr != 0
+                ? timestampMergeIndexSize / TIMESTAMP_MERGE_ENTRY_BYTES
+                : mergeOOOHi - mergeOOOLo + 1 + mergeDataHi - mergeDataLo + 1;
         final Path pathToPartition = Path.getThreadLocal(pathToTable);
         TableUtils.setPathForPartition(pathToPartition, tableWriter.getPartitionBy(), oooTimestampLo, false);
         final int pplen = pathToPartition.length();
@@ -662,6 +666,7 @@ public class O3OpenColumnJob extends AbstractQueueConsumerJob<O3OpenColumnTask>
         final long dstLen = srcOooHi - srcOooLo + 1 + srcDataMax - srcDataTop;
         switch (ColumnType.tagOf(columnType)) {
             case ColumnType.BINARY:
+            case ColumnType.VARCHAR:
             case ColumnType.STRING:
                 try {
                     // index files are opened as normal
@@ -1188,6 +1193,23 @@ public class O3OpenColumnJob extends AbstractQueueConsumerJob<O3OpenColumnTask>
         }
     }
 
+    // Number of data rows deduplication removed from the merge index.
+    private static long getDedupRowCount(int mergeType, long mergeOOOLo, long mergeOOOHi, long mergeDataLo, long mergeDataHi, long mergeLen) {
+        return mergeType == O3_BLOCK_MERGE ? mergeOOOHi - mergeOOOLo + 1 + mergeDataHi - mergeDataLo + 1 - mergeLen : 0;
+    }
+
+    private static long getMergeVarColumnLength(long mergeIndexAddr, long mergeRowCount, long srcDataFixAddr, long srcOooFixAddr) {
+        long len = 0;
+        for (long i = 0; i < mergeRowCount; i++) {
+            final long index = Unsafe.getUnsafe().getLong(mergeIndexAddr + i * TIMESTAMP_MERGE_ENTRY_BYTES + Long.BYTES);
+            // data rows have the top bit set
+            final long fixAddr = index < 0 ? srcDataFixAddr : srcOooFixAddr;
+            final long row = index & ~(1L << 63);
+            len += Unsafe.getUnsafe().getLong(fixAddr + (row + 1) * Long.BYTES) - Unsafe.getUnsafe().getLong(fixAddr + row * Long.BYTES);
+        }
+        return len;
+    }
+
     private static void mergeFixColumn(
             Path pathToPartition,
             int pplen,
@@ -1284,7 +1306,7 @@ public class O3OpenColumnJob extends AbstractQueueConsumerJob<O3OpenColumnTask>
 
             dFile(pathToPartition.trimTo(pDirNameLen), columnName, columnNameTxn);
             dstFixFd = openRW(ff, pathToPartition, LOG, tableWriter.getConfiguration().getWriterFileOpenOpts());
-            dstFixSize = ((srcOooHi - srcOooLo + 1) + srcDataMax - srcDataTop) << shl;
+            dstFixSize = ((srcOooHi - srcOooLo + 1) + srcDataMax - srcDataTop - getDedupRowCount(mergeType, mergeOOOLo, mergeOOOHi, mergeDataLo, mergeDataHi, mergeLen)) << shl;
             dstFixAddr = mapRW(ff, dstFixFd, dstFixSize, MemoryTag.MMAP_O3);
             if (directIoFlag) {
                 ff.fadvise(dstFixFd, 0, dstFixSize, Files.POSIX_FADV_RANDOM);
@@ -1450,6 +1472,7 @@ public class O3OpenColumnJob extends AbstractQueueConsumerJob<O3OpenColumnTask>
     ) {
         switch (ColumnType.tagOf(columnType)) {
             case ColumnType.BINARY:
+            case ColumnType.VARCHAR:
             case ColumnType.STRING:
                 // index files are opened as normal
                 mergeVarColumn(
@@ -1613,6 +1636,7 @@ public class O3OpenColumnJob extends AbstractQueueConsumerJob<O3OpenColumnTask>
         int srcDataVarFd = 0;
         switch (ColumnType.tagOf(columnType)) {
             case ColumnType.BINARY:
+            case ColumnType.VARCHAR:
             case ColumnType.STRING:
                 try {
                     iFile(pathToPartition.trimTo(plen), columnName, columnNameTxn);
@@ -1942,7 +1966,8 @@ public class O3OpenColumnJob extends AbstractQueueConsumerJob<O3OpenColumnTask>
 
             iFile(pathToPartition.trimTo(pDirNameLen), columnName, columnNameTxn);
             dstFixFd = openRW(ff, pathToPartition, LOG, tableWriter.getConfiguration().getWriterFileOpenOpts());
-            dstFixSize = (srcOooHi - srcOooLo + 1 + srcDataMax - srcDataTop + 1) * Long.BYTES;
+            final long dedupRowCount = getDedupRowCount(mergeType, mergeOOOLo, mergeOOOHi, mergeDataLo, mergeDataHi, mergeLen);
+            dstFixSize = (srcOooHi - srcOooLo + 1 + srcDataMax - srcDataTop + 1 - dedupRowCount) * Long.BYTES;
             dstFixAddr = mapRW(ff, dstFixFd, dstFixSize, MemoryTag.MMAP_O3);
             if (directIoFlag) {
                 ff.fadvise(dstFixFd, 0, dstFixSize, Files.POSIX_FADV_RANDOM);
@@ -1954,6 +1979,19 @@ public class O3OpenColumnJob extends AbstractQueueConsumerJob<O3OpenColumnTask>
             dstVarFd = openRW(ff, pathToPartition, LOG, tableWriter.getConfiguration().getWriterFileOpenOpts());
             dstVarSize = srcDataVarSize - srcDataVarOffset
                     + O3Utils.getVarColumnLength(srcOooLo, srcOooHi, srcOooFixAddr);
+            long mergeVarLen = 0;
+            if (dedupRowCount > 0) {
+                // data rows removed by deduplication are not written, size the merge by what the merge index has
+                mergeVarLen = getMergeVarColumnLength(
+                        timestampMergeIndexAddr,
+                        mergeLen,
+                        srcDataFixAddr + srcDataFixOffset - srcDataTop * Long.BYTES,
+                        srcOooFixAddr
+                );
+                dstVarSize -= O3Utils.getVarColumnLength(mergeOOOLo, mergeOOOHi, srcOooFixAddr)
+                        + O3Utils.getVarColumnLength(mergeDataLo, mergeDataHi, srcDataFixAddr + srcDataFixOffset - srcDataTop * Long.BYTES)
+                        - mergeVarLen;
+            }
             dstVarAddr = mapRW(ff, dstVarFd, dstVarSize, MemoryTag.MMAP_O3);
             if (directIoFlag) {
                 ff.fadvise(dstVarFd, 0, dstVarSize, Files.POSIX_FADV_RANDOM);
@@ -2000,7 +2038,7 @@ public class O3OpenColumnJob extends AbstractQueueConsumerJob<O3OpenColumnTask>
                         srcDataFixAddr + srcDataFixOffset - srcDataTop * 8
                 );
                 dstFixAppendOffset2 = dstFixAppendOffset1 + (mergeLen * Long.BYTES);
-                dstVarAppendOffset2 = dstVarAppendOffset1 + oooLen + dataLen;
+                dstVarAppendOffset2 = dstVarAppendOffset1 + (dedupRowCount > 0 ? mergeVarLen : oooLen + dataLen);
             } else {
                 dstFixAppendOffset2 = dstFixAppendOffset1;
                 dstVarAppendOffset2 = dstVarAppendOffset1;
@@ -216,8 +216,75 @@ public class O3PartitionJob extends AbstractQueueConsumerJob<O3PartitionTask> {
                 assert srcTimestampFd != -1 && srcTimestampFd != 1;
 
                 int branch;
+                final long o3TimestampHi = getTimestampIndexValue(sortedTimestampsAddr, srcOooHi);
+
+                if (tableWriter.isDedupEnabled() && o3TimestampLo <= dataTimestampHi && o3TimestampHi >= dataTimestampLo) {
+
+                    // Deduplicated table, timestamp ranges of data and OOO overlap.
+                    // The merge takes all rows with a timestamp present on both sides,
+                    // equal timestamps included, so that OOO rows can replace data rows.
+
+                    branch = 9;
+                    mergeDataLo = Vect.boundedBinarySearch64Bit(
+                            srcTimestampAddr,
+                            o3TimestampLo - 1,
+                            0,
+                            srcDataMax - 1,
+                            BinarySearch.SCAN_DOWN
+                    ) + 1;
+                    mergeDataHi = Vect.boundedBinarySearch64Bit(
+                            srcTimestampAddr,
+                            o3TimestampHi,
+                            0,
+                            srcDataMax - 1,
+                            BinarySearch.SCAN_DOWN
+                    );
+                    mergeO3Lo = Vect.boundedBinarySearchIndexT(
+                            sortedTimestampsAddr,
+                            dataTimestampLo - 1,
+                            srcOooLo,
+                            srcOooHi,
+                            BinarySearch.SCAN_DOWN
+                    ) + 1;
+                    mergeO3Hi = Vect.boundedBinarySearchIndexT(
+                            sortedTimestampsAddr,
+                            dataTimestampHi,
+                            srcOooLo,
+                            srcOooHi,
+                            BinarySearch.SCAN_DOWN
+                    );
+
+                    if (mergeDataLo > 0) {
+                        prefixType = O3_BLOCK_DATA;
+                        prefixLo = 0;
+                        prefixHi = mergeDataLo - 1;
+                    } else if (mergeO3Lo > srcOooLo) {
+                        prefixType = O3_BLOCK_O3;
+                        prefixLo = srcOooLo;
+                        prefixHi = mergeO3Lo - 1;
+                    } else {
+                        // empty prefix ahead of the merge
+                        prefixLo = 0;
+                    }
 
-                if (o3TimestampLo > dataTimestampLo) {
+                    if (mergeDataLo > mergeDataHi) {
+                        mergeType = O3_BLOCK_O3;
+                    } else if (mergeO3Lo > mergeO3Hi) {
+                        mergeType = O3_BLOCK_DATA;
+                    } else {
+                        mergeType = O3_BLOCK_MERGE;
+                    }
+
+                    if (mergeDataHi < srcDataMax - 1) {
+                        suffixType = O3_BLOCK_DATA;
+                        suffixLo = mergeDataHi + 1;
+                        suffixHi = srcDataMax - 1;
+                    } else if (mergeO3Hi < srcOooHi) {
+                        suffixType = O3_BLOCK_O3;
+                        suffixLo = mergeO3Hi + 1;
+                        suffixHi = srcOooHi;
+                    }
+                } else if (o3TimestampLo > dataTimestampLo) {
                     //   +------+
                     //   | data |  +-----+
                     //   |      |  | OOO |
@@ -465,7 +532,7 @@ public class O3PartitionJob extends AbstractQueueConsumerJob<O3PartitionTask> {
                         .$(", table=").$(pathToTable)
                         .I$();
 
-                if (prefixType == O3_BLOCK_NONE) {
+                if (prefixType == O3_BLOCK_NONE && mergeType == O3_BLOCK_NONE) {
                     // We do not need to create a copy of partition when we simply need to append
                     // existing the one.
                     openColumnMode = OPEN_MID_PARTITION_FOR_APPEND;
@@ -596,10 +663,11 @@ public class O3PartitionJob extends AbstractQueueConsumerJob<O3PartitionTask> {
             long mergeDataHi,
             long mergeOOOLo,
             long mergeOOOHi,
-            long indexSize
+            long mergeIndexSize
     ) {
         // Create "index" for existing timestamp column. When we reshuffle timestamps during merge we will
         // have to go back and find data rows we need to move accordingly
+        final long indexSize = (mergeDataHi - mergeDataLo + 1) * TIMESTAMP_MERGE_ENTRY_BYTES;
         final long index = Unsafe.malloc(indexSize, MemoryTag.NATIVE_O3);
         try {
             Vect.makeTimestampIndex(srcDataTimestampAddr, mergeDataLo, mergeDataHi, index);
@@ -609,13 +677,132 @@ public class O3PartitionJob extends AbstractQueueConsumerJob<O3PartitionTask> {
                     sortedTimestampsAddr + mergeOOOLo * 16,
                     mergeOOOHi - mergeOOOLo + 1
             );
-            Unsafe.recordMemAlloc(indexSize, MemoryTag.NATIVE_O3);
+            Unsafe.recordMemAlloc(mergeIndexSize, MemoryTag.NATIVE_O3);
             return ptr;
         } finally {
             Unsafe.free(index, indexSize, MemoryTag.NATIVE_O3);
         }
     }
 
+    // Removes data rows replaced by O3 rows from the merge index of a deduplicated table.
+    // A data row is replaced when an O3 row has the same timestamp and equal values in all
+    // dedup key columns. Returns the number of removed rows, the index is compacted in place.
+    private static long dedupMergeIndex(
+            Path pathToTable,
+            ReadOnlyObjList<? extends MemoryCR> oooColumns,
+            long oooTimestampLo,
+            long partitionTimestamp,
+            long srcDataMax,
+            long srcDataTxn,
+            boolean last,
+            long mergeIndexAddr,
+            long mergeRowCount,
+            TableWriter tableWriter,
+            O3DedupKeys dedupKeys
+    ) {
+        final Path path = Path.getThreadLocal(pathToTable);
+        TableUtils.setPathForPartition(path, tableWriter.getPartitionBy(), oooTimestampLo, false);
+        TableUtils.txnPartitionConditionally(path, srcDataTxn);
+
+        long pairsAddr = 0;
+        long pairsSize = 0;
+        long dedupRowCount = 0;
+        try {
+            dedupKeys.of(tableWriter, oooColumns);
+            dedupKeys.mapPartition(tableWriter.getFilesFacade(), path, tableWriter, partitionTimestamp, last, srcDataMax);
+
+            long runLo = 0;
+            while (runLo < mergeRowCount) {
+                final long ts = Unsafe.getUnsafe().getLong(mergeIndexAddr + runLo * TIMESTAMP_MERGE_ENTRY_BYTES);
+                long runHi = runLo + 1;
+                long o3Count = Unsafe.getUnsafe().getLong(mergeIndexAddr + runLo * TIMESTAMP_MERGE_ENTRY_BYTES + Long.BYTES) < 0 ? 0 : 1;
+                while (runHi < mergeRowCount && Unsafe.getUnsafe().getLong(mergeIndexAddr + runHi * TIMESTAMP_MERGE_ENTRY_BYTES) == ts) {
+                    if (Unsafe.getUnsafe().getLong(mergeIndexAddr + runHi * TIMESTAMP_MERGE_ENTRY_BYTES + Long.BYTES) >= 0) {
+                        o3Count++;
+                    }
+                    runHi++;
+                }
+
+                if (o3Count > 0 && o3Count < runHi - runLo) {
+                    // (hash, row) pairs of O3 rows sorted by hash, data rows look up their keys there
+                    final long size = o3Count * TIMESTAMP_MERGE_ENTRY_BYTES;
+                    if (size > pairsSize) {
+                        pairsAddr = Unsafe.realloc(pairsAddr, pairsSize, size, MemoryTag.NATIVE_O3);
+                        pairsSize = size;
+                    }
+                    long pairCount = 0;
+                    for (long i = runLo; i < runHi; i++) {
+                        final long row = Unsafe.getUnsafe().getLong(mergeIndexAddr + i * TIMESTAMP_MERGE_ENTRY_BYTES + Long.BYTES);
+                        if (row >= 0) {
+                            final long pairAddr = pairsAddr + pairCount++ * TIMESTAMP_MERGE_ENTRY_BYTES;
+                            Unsafe.getUnsafe().putLong(pairAddr, dedupKeys.hash(O3DedupKeys.SOURCE_O3, row));
+                            Unsafe.getUnsafe().putLong(pairAddr + Long.BYTES, row);
+                        }
+                    }
+                    Vect.sortLongIndexAscInPlace(pairsAddr, pairCount);
+
+                    for (long i = runLo; i < runHi; i++) {
+                        final long rowAddr = mergeIndexAddr + i * TIMESTAMP_MERGE_ENTRY_BYTES + Long.BYTES;
+                        final long index = Unsafe.getUnsafe().getLong(rowAddr);
+                        if (index < 0) {
+                            final long dataRow = index & ~(1L << 63);
+                            if (isReplacedByO3(dedupKeys, dataRow, pairsAddr, pairCount)) {
+                                // data row index is never all bits set, use it to mark the removed row
+                                Unsafe.getUnsafe().putLong(rowAddr, -1);
+                                dedupRowCount++;
+                            }
+                        }
+                    }
+                }
+                runLo = runHi;
+            }
+
+            if (dedupRowCount > 0) {
+                long keepCount = 0;
+                for (long i = 0; i < mergeRowCount; i++) {
+                    final long entryAddr = mergeIndexAddr + i * TIMESTAMP_MERGE_ENTRY_BYTES;
+                    if (Unsafe.getUnsafe().getLong(entryAddr + Long.BYTES) != -1) {
+                        if (keepCount != i) {
+                            Vect.memcpy(mergeIndexAddr + keepCount * TIMESTAMP_MERGE_ENTRY_BYTES, entryAddr, TIMESTAMP_MERGE_ENTRY_BYTES);
+                        }
+                        keepCount++;
+                    }
+                }
+                LOG.info().$("dedup merge [table=").utf8(tableWriter.getTableToken().getTableName())
+                        .$(", partitionTimestamp=").$ts(partitionTimestamp)
+                        .$(", mergeRowCount=").$(mergeRowCount)
+                        .$(", dedupRowCount=").$(dedupRowCount)
+                        .I$();
+            }
+            return dedupRowCount;
+        } finally {
+            Unsafe.free(pairsAddr, pairsSize, MemoryTag.NATIVE_O3);
+            dedupKeys.close();
+        }
+    }
+
+    private static boolean isReplacedByO3(O3DedupKeys dedupKeys, long dataRow, long pairsAddr, long pairCount) {
+        final long hash = dedupKeys.hash(O3DedupKeys.SOURCE_DATA, dataRow);
+        // lower bound of the hash in the sorted pairs
+        long lo = 0;
+        long hi = pairCount;
+        while (lo < hi) {
+            final long mid = (lo + hi) >>> 1;
+            if (Unsafe.getUnsafe().getLong(pairsAddr + mid * TIMESTAMP_MERGE_ENTRY_BYTES) < hash) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        for (; lo < pairCount && Unsafe.getUnsafe().getLong(pairsAddr + lo * TIMESTAMP_MERGE_ENTRY_BYTES) == hash; lo++) {
+            final long o3Row = Unsafe.getUnsafe().getLong(pairsAddr + lo * TIMESTAMP_MERGE_ENTRY_BYTES + Long.BYTES);
+            if (dedupKeys.keysEqual(O3DedupKeys.SOURCE_DATA, dataRow, O3DedupKeys.SOURCE_O3, o3Row)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private static void publishOpenColumnTaskContended(
             long cursor,
             int openColumnMode,
@@ -907,8 +1094,9 @@ public class O3PartitionJob extends AbstractQueueConsumerJob<O3PartitionTask> {
         final long timestampMergeIndexAddr;
         final long timestampMergeIndexSize;
         if (mergeType == O3_BLOCK_MERGE) {
-            timestampMergeIndexSize = (mergeDataHi - mergeDataLo + 1) * TIMESTAMP_MERGE_ENTRY_BYTES;
-            assert timestampMergeIndexSize > 0; // avoid SIGSEGV
+            // merge index size is the number of rows the merge writes
+            final long mergeRowCount = mergeDataHi - mergeDataLo + 1 + mergeOOOHi - mergeOOOLo + 1;
+            assert mergeDataHi >= mergeDataLo; // avoid SIGSEGV
 
             timestampMergeIndexAddr = createMergeIndex(
                     srcTimestampAddr,
@@ -917,8 +1105,44 @@ public class O3PartitionJob extends AbstractQueueConsumerJob<O3PartitionTask> {
                     mergeDataHi,
                     mergeOOOLo,
                     mergeOOOHi,
-                    timestampMergeIndexSize
+                    mergeRowCount * TIMESTAMP_MERGE_ENTRY_BYTES
             );
+
+            if (tableWriter.isDedupEnabled()) {
+                final long dedupRowCount;
+                try {
+                    dedupRowCount = dedupMergeIndex(
+                            pathToTable,
+                            oooColumns,
+                            oooTimestampLo,
+                            partitionTimestamp,
+                            srcDataMax,
+                            srcDataTxn,
+                            openColumnMode == OPEN_LAST_PARTITION_FOR_MERGE,
+                            timestampMergeIndexAddr,
+                            mergeRowCount,
+                            tableWriter,
+                            o3Basket.getDedupKeys()
+                    );
+                } catch (Throwable e) {
+                    LOG.error().$("dedup merge error [table=").utf8(tableWriter.getTableToken().getTableName())
+                            .$(", e=").$(e)
+                            .I$();
+                    Vect.freeMergedIndex(timestampMergeIndexAddr, mergeRowCount * TIMESTAMP_MERGE_ENTRY_BYTES);
+                    O3Utils.unmap(tableWriter.getFilesFacade(), srcTimestampAddr, srcTimestampSize);
+                    O3Utils.close(tableWriter.getFilesFacade(), srcTimestampFd);
+                    tableWriter.o3BumpErrorCount();
+                    tableWriter.o3ClockDownPartitionUpdateCount();
+                    tableWriter.o3CountDownDoneLatch();
+                    throw e;
+                }
+                // the merge index keeps its allocation, account for the rows it still has
+                Unsafe.recordMemAlloc(-dedupRowCount * TIMESTAMP_MERGE_ENTRY_BYTES, MemoryTag.NATIVE_O3);
+                tableWriter.o3NotifyPartitionDedup(partitionTimestamp, dedupRowCount);
+                timestampMergeIndexSize = (mergeRowCount - dedupRowCount) * TIMESTAMP_MERGE_ENTRY_BYTES;
+            } else {
+                timestampMergeIndexSize = mergeRowCount * TIMESTAMP_MERGE_ENTRY_BYTES;
+            }
         } else {
             timestampMergeIndexAddr = 0;
             timestampMergeIndexSize = 0;
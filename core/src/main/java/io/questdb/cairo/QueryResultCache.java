@@ -0,0 +1,438 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.RecordMetadata;
+import io.questdb.cairo.vm.Vm;
+import io.questdb.cairo.vm.api.MemoryCARW;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.*;
+
+import java.io.Closeable;
+
+/**
+ * Server-wide cache of query results shared by all connections.
+ * <p>
+ * Entries are keyed by normalized query text and bind variable values. Each entry also records
+ * the txn of every table the query reads from; the caller re-validates those before serving the
+ * entry, so results are served without re-execution until any of the tables change.
+ * <p>
+ * Results are serialized row by row into native memory, which makes published entries immutable
+ * and safe to read from multiple threads concurrently. Cache memory is bounded by a budget,
+ * least recently used entries are evicted first. Entries that are being read when evicted are
+ * released once the last reader is done.
+ */
+public class QueryResultCache implements Closeable, Mutable {
+    private static final Log LOG = LogFactory.getLog(QueryResultCache.class);
+    private static final int PAGE_SIZE = 64 * 1024;
+    private final CharSequenceObjHashMap<Entry> entries = new CharSequenceObjHashMap<>();
+    private final long memoryLimit;
+    // most recently used entry
+    private Entry head;
+    private long memoryUsed;
+    // least recently used entry
+    private Entry tail;
+
+    public QueryResultCache(long memoryLimit) {
+        this.memoryLimit = memoryLimit;
+    }
+
+    /**
+     * Checks whether rows of given metadata can be serialized into the cache.
+     */
+    public static boolean isCacheable(RecordMetadata metadata) {
+        for (int i = 0, n = metadata.getColumnCount(); i < n; i++) {
+            if (Entry.sizeOf(metadata.getColumnType(i)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Looks up entry by key and pins it. Pinned entries must be released via {@link #release(Entry)}.
+     *
+     * @return pinned entry or null on cache miss
+     */
+    public synchronized Entry acquire(CharSequence key) {
+        final Entry entry = entries.get(key);
+        if (entry != null) {
+            entry.refCount++;
+            unlink(entry);
+            linkHead(entry);
+        }
+        return entry;
+    }
+
+    @Override
+    public synchronized void clear() {
+        while (tail != null) {
+            evict(tail);
+        }
+    }
+
+    @Override
+    public void close() {
+        clear();
+    }
+
+    public long getMemoryLimit() {
+        return memoryLimit;
+    }
+
+    public synchronized long getMemoryUsed() {
+        return memoryUsed;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Removes stale entry from the cache. The entry must be pinned by the caller.
+     */
+    public synchronized void invalidate(Entry entry) {
+        if (!entry.evicted) {
+            evict(entry);
+        }
+    }
+
+    /**
+     * Creates an entry that is not yet visible to other threads. Once rows are appended the entry
+     * is published via {@link #put(Entry)}, or freed via {@link Entry#close()} if caching is abandoned.
+     */
+    public Entry newEntry(CharSequence key, RecordMetadata metadata, ObjList<TableToken> tableTokens, LongList tableTxns) {
+        return new Entry(Chars.toString(key), metadata, tableTokens, tableTxns, memoryLimit);
+    }
+
+    /**
+     * Publishes fully populated entry. Least recently used entries are evicted to fit the entry into the
+     * memory budget. The entry is freed and not cached when it exceeds the budget on its own.
+     * Cached entry is pinned on behalf of the caller and must be released via {@link #release(Entry)}.
+     *
+     * @return true when the entry was cached
+     */
+    public synchronized boolean put(Entry entry) {
+        final long size = entry.getMemoryUsed();
+        if (size > memoryLimit) {
+            entry.close();
+            return false;
+        }
+        final Entry existing = entries.get(entry.key);
+        if (existing != null) {
+            evict(existing);
+        }
+        while (memoryUsed + size > memoryLimit && tail != null) {
+            evict(tail);
+        }
+        entries.put(entry.key, entry);
+        linkHead(entry);
+        entry.refCount++;
+        memoryUsed += size;
+        LOG.debug().$("cached [key=").utf8(entry.key).$(", rows=").$(entry.getRowCount()).$(", size=").$(size).I$();
+        return true;
+    }
+
+    public synchronized void release(Entry entry) {
+        if (--entry.refCount == 0 && entry.evicted) {
+            entry.close();
+        }
+    }
+
+    private void evict(Entry entry) {
+        entries.remove(entry.key);
+        unlink(entry);
+        memoryUsed -= entry.getMemoryUsed();
+        entry.evicted = true;
+        if (entry.refCount == 0) {
+            entry.close();
+        }
+    }
+
+    private void linkHead(Entry entry) {
+        entry.prev = null;
+        entry.next = head;
+        if (head != null) {
+            head.prev = entry;
+        }
+        head = entry;
+        if (tail == null) {
+            tail = entry;
+        }
+    }
+
+    private void unlink(Entry entry) {
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else if (head == entry) {
+            head = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        } else if (tail == entry) {
+            tail = entry.prev;
+        }
+        entry.prev = null;
+        entry.next = null;
+    }
+
+    /**
+     * Serialized query result. Each row is stored as a fixed size area followed by string values.
+     * Fixed area holds column values in column order; string columns hold offset of their value,
+     * symbol columns hold symbol key and offset of the value. Symbol values are stored once per entry.
+     */
+    public static class Entry implements Closeable {
+        private final long[] columnOffsets;
+        private final int[] columnTypes;
+        private final String key;
+        private final long maxSize;
+        private final MemoryCARW mem;
+        private final LongList rowOffsets = new LongList();
+        // offsets of string values within fixed area, -1 for non-string columns
+        private final long[] strOffsets;
+        // symbol key to value offset, values of the same symbol are stored once
+        private final ObjList<IntLongHashMap> symbolValueOffsets = new ObjList<>();
+        private final ObjList<TableToken> tableTokens = new ObjList<>();
+        private final LongList tableTxns = new LongList();
+        private boolean evicted;
+        private Entry next;
+        private Entry prev;
+        private int refCount;
+
+        private Entry(String key, RecordMetadata metadata, ObjList<TableToken> tableTokens, LongList tableTxns, long maxSize) {
+            this.key = key;
+            this.maxSize = maxSize;
+            this.tableTokens.addAll(tableTokens);
+            this.tableTxns.add(tableTxns);
+            final int columnCount = metadata.getColumnCount();
+            this.columnTypes = new int[columnCount];
+            this.columnOffsets = new long[columnCount];
+            this.strOffsets = new long[columnCount];
+            long offset = 0;
+            for (int i = 0; i < columnCount; i++) {
+                final int type = metadata.getColumnType(i);
+                columnTypes[i] = type;
+                columnOffsets[i] = offset;
+                strOffsets[i] = -1;
+                if (ColumnType.isString(type) || ColumnType.isVarchar(type)) {
+                    strOffsets[i] = offset;
+                } else if (ColumnType.isSymbol(type)) {
+                    // symbol key is followed by value offset
+                    strOffsets[i] = offset + Integer.BYTES;
+                    symbolValueOffsets.extendAndSet(i, new IntLongHashMap());
+                }
+                offset += sizeOf(type);
+            }
+            this.mem = Vm.getCARWInstance(PAGE_SIZE, Integer.MAX_VALUE, MemoryTag.NATIVE_RESULT_CACHE);
+        }
+
+        /**
+         * Appends row to the entry.
+         *
+         * @return false when entry grew past the cache memory budget
+         */
+        public boolean append(Record record) {
+            final long rowOffset = mem.getAppendOffset();
+            rowOffsets.add(rowOffset);
+            for (int i = 0, n = columnTypes.length; i < n; i++) {
+                final int type = columnTypes[i];
+                switch (ColumnType.tagOf(type)) {
+                    case ColumnType.BOOLEAN:
+                        mem.putBool(record.getBool(i));
+                        break;
+                    case ColumnType.BYTE:
+                        mem.putByte(record.getByte(i));
+                        break;
+                    case ColumnType.GEOBYTE:
+                        mem.putByte(record.getGeoByte(i));
+                        break;
+                    case ColumnType.SHORT:
+                        mem.putShort(record.getShort(i));
+                        break;
+                    case ColumnType.GEOSHORT:
+                        mem.putShort(record.getGeoShort(i));
+                        break;
+                    case ColumnType.CHAR:
+                        mem.putChar(record.getChar(i));
+                        break;
+                    case ColumnType.INT:
+                        mem.putInt(record.getInt(i));
+                        break;
+                    case ColumnType.GEOINT:
+                        mem.putInt(record.getGeoInt(i));
+                        break;
+                    case ColumnType.FLOAT:
+                        mem.putFloat(record.getFloat(i));
+                        break;
+                    case ColumnType.LONG:
+                        mem.putLong(record.getLong(i));
+                        break;
+                    case ColumnType.DATE:
+                        mem.putLong(record.getDate(i));
+                        break;
+                    case ColumnType.TIMESTAMP:
+                        mem.putLong(record.getTimestamp(i));
+                        break;
+                    case ColumnType.GEOLONG:
+                        mem.putLong(record.getGeoLong(i));
+                        break;
+                    case ColumnType.DOUBLE:
+                        mem.putDouble(record.getDouble(i));
+                        break;
+                    case ColumnType.UUID:
+                    case ColumnType.LONG128:
+                        mem.putLong(record.getLong128Lo(i));
+                        mem.putLong(record.getLong128Hi(i));
+                        break;
+                    case ColumnType.LONG256:
+                        final Long256 long256 = record.getLong256A(i);
+                        mem.putLong(long256.getLong0());
+                        mem.putLong(long256.getLong1());
+                        mem.putLong(long256.getLong2());
+                        mem.putLong(long256.getLong3());
+                        break;
+                    case ColumnType.SYMBOL:
+                        mem.putInt(record.getInt(i));
+                        // value offset, populated below
+                        mem.putLong(-1);
+                        break;
+                    default:
+                        // value offset, populated below
+                        mem.putLong(-1);
+                        break;
+                }
+            }
+            for (int i = 0, n = columnTypes.length; i < n; i++) {
+                final int type = columnTypes[i];
+                if (ColumnType.isString(type) || ColumnType.isVarchar(type)) {
+                    mem.putLong(rowOffset + strOffsets[i], mem.getAppendOffset());
+                    mem.putStr(record.getStr(i));
+                } else if (ColumnType.isSymbol(type)) {
+                    final IntLongHashMap valueOffsets = symbolValueOffsets.getQuick(i);
+                    final int symbolKey = record.getInt(i);
+                    final int index = valueOffsets.keyIndex(symbolKey);
+                    long valueOffset;
+                    if (index < 0) {
+                        valueOffset = valueOffsets.valueAt(index);
+                    } else {
+                        valueOffset = mem.getAppendOffset();
+                        mem.putStr(record.getSym(i));
+                        valueOffsets.putAt(index, symbolKey, valueOffset);
+                    }
+                    mem.putLong(rowOffset + strOffsets[i], valueOffset);
+                }
+            }
+            return getMemoryUsed() <= maxSize;
+        }
+
+        @Override
+        public void close() {
+            Misc.free(mem);
+        }
+
+        public long getColumnOffset(int columnIndex) {
+            return columnOffsets[columnIndex];
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public long getMemoryUsed() {
+            return mem.getAppendOffset() + rowOffsets.size() * 8L;
+        }
+
+        public long getRowAddress(long row) {
+            return mem.getPageAddress(0) + rowOffsets.getQuick((int) row);
+        }
+
+        public long getRowCount() {
+            return rowOffsets.size();
+        }
+
+        /**
+         * Resolves address of a string or symbol value that belongs to a row.
+         */
+        public long getStrAddress(long rowAddress, int columnIndex) {
+            return mem.getPageAddress(0) + Unsafe.getUnsafe().getLong(rowAddress + strOffsets[columnIndex]);
+        }
+
+        /**
+         * Resolves address of symbol value by symbol key.
+         *
+         * @return value address or 0 when the key is not present in the result
+         */
+        public long getSymbolValueAddress(int columnIndex, int symbolKey) {
+            final IntLongHashMap valueOffsets = symbolValueOffsets.getQuick(columnIndex);
+            final int index = valueOffsets.keyIndex(symbolKey);
+            return index < 0 ? mem.getPageAddress(0) + valueOffsets.valueAt(index) : 0;
+        }
+
+        public ObjList<TableToken> getTableTokens() {
+            return tableTokens;
+        }
+
+        public LongList getTableTxns() {
+            return tableTxns;
+        }
+
+        private static int sizeOf(int type) {
+            switch (ColumnType.tagOf(type)) {
+                case ColumnType.BOOLEAN:
+                case ColumnType.BYTE:
+                case ColumnType.GEOBYTE:
+                    return Byte.BYTES;
+                case ColumnType.SHORT:
+                case ColumnType.GEOSHORT:
+                case ColumnType.CHAR:
+                    return Short.BYTES;
+                case ColumnType.INT:
+                case ColumnType.GEOINT:
+                case ColumnType.FLOAT:
+                    return Integer.BYTES;
+                case ColumnType.LONG:
+                case ColumnType.DATE:
+                case ColumnType.TIMESTAMP:
+                case ColumnType.GEOLONG:
+                case ColumnType.DOUBLE:
+                case ColumnType.STRING:
+                case ColumnType.VARCHAR:
+                    return Long.BYTES;
+                case ColumnType.SYMBOL:
+                    return Integer.BYTES + Long.BYTES;
+                case ColumnType.UUID:
+                case ColumnType.LONG128:
+                    return 2 * Long.BYTES;
+                case ColumnType.LONG256:
+                    return Long256.BYTES;
+                default:
+                    return -1;
+            }
+        }
+    }
+}
@@ -120,10 +120,12 @@ public abstract class RebuildColumnBase implements Closeable, Mutable {
                 // as metadata writers' index.
                 columnIndex,
                 columnName,
+                metadata.getColumnType(columnIndex),
                 tempStringSink, // partition name
                 partitionNameTxn,
                 partitionSize,
                 partitionTimestamp,
+                txReader.isPartitionCompressed(partitionIndex),
                 indexValueBlockCapacity
         );
     }
@@ -143,16 +145,19 @@ public abstract class RebuildColumnBase implements Closeable, Mutable {
             CharSequence partitionName,
             long partitionNameTxn,
             long partitionTimestamp,
-            long partitionSize
+            long partitionSize,
+            boolean partitionCompressed
     ) {
         doReindex(
                 columnVersionReader,
                 metadata.getWriterIndex(columnIndex),
                 metadata.getColumnName(columnIndex),
+                metadata.getColumnType(columnIndex),
                 partitionName,
                 partitionNameTxn,
                 partitionSize,
                 partitionTimestamp,
+                partitionCompressed,
                 metadata.getIndexValueBlockCapacity(columnIndex)
         );
     }
@@ -234,7 +239,8 @@ public abstract class RebuildColumnBase implements Closeable, Mutable {
                             partitionDirFormatMethod,
                             -1L,
                             0L,
-                            txReader.getTransientRowCount()
+                            txReader.getTransientRowCount(),
+                            false
                     );
                 }
             }
@@ -250,7 +256,8 @@ public abstract class RebuildColumnBase implements Closeable, Mutable {
             DateFormat partitionDirFormatMethod,
             long partitionNameTxn,
             long partitionTimestamp,
-            long partitionSize
+            long partitionSize,
+            boolean partitionCompressed
     ) {
         boolean isIndexed = false;
         tempStringSink.clear();
@@ -267,7 +274,8 @@ public abstract class RebuildColumnBase implements Closeable, Mutable {
                             tempStringSink,
                             partitionNameTxn,
                             partitionTimestamp,
-                            partitionSize
+                            partitionSize,
+                            partitionCompressed
                     );
                 }
             }
@@ -283,7 +291,8 @@ public abstract class RebuildColumnBase implements Closeable, Mutable {
                         tempStringSink,
                         partitionNameTxn,
                         partitionTimestamp,
-                        partitionSize
+                        partitionSize,
+                        partitionCompressed
                 );
             } else {
                 throw CairoException.nonCritical().put(unsupportedColumnMessage);
@@ -311,7 +320,8 @@ public abstract class RebuildColumnBase implements Closeable, Mutable {
                 partitionDirFormatMethod,
                 txReader.getPartitionNameTxn(partitionIndex),
                 partitionTimestamp,
-                partitionSize
+                partitionSize,
+                txReader.isPartitionCompressed(partitionIndex)
         );
     }
 
@@ -335,10 +345,12 @@ public abstract class RebuildColumnBase implements Closeable, Mutable {
             ColumnVersionReader columnVersionReader,
             int columnWriterIndex,
             CharSequence columnName,
+            int columnType,
             CharSequence partitionName,
             long partitionNameTxn,
             long partitionSize,
             long partitionTimestamp,
+            boolean partitionCompressed,
             int indexValueBlockCapacity
     );
 
@@ -57,7 +57,29 @@ public class RecordChain implements Closeable, RecordCursor, Mutable, RecordSink
             long pageSize,
             int maxPages
     ) {
-        this.mem = Vm.getARWInstance(pageSize, maxPages, MemoryTag.NATIVE_RECORD_CHAIN);
+        this(columnTypes, recordSink, Vm.getARWInstance(pageSize, maxPages, MemoryTag.NATIVE_RECORD_CHAIN));
+    }
+
+    /**
+     * Creates a record chain that moves its memory to a temporary file once it grows
+     * past the configured spill threshold.
+     */
+    public RecordChain(
+            @NotNull CairoConfiguration configuration,
+            @Transient @NotNull ColumnTypes columnTypes,
+            @NotNull RecordSink recordSink,
+            long pageSize,
+            int maxPages
+    ) {
+        this(columnTypes, recordSink, Vm.getSpillARWInstance(configuration, pageSize, maxPages, MemoryTag.NATIVE_RECORD_CHAIN));
+    }
+
+    private RecordChain(
+            @Transient @NotNull ColumnTypes columnTypes,
+            @NotNull RecordSink recordSink,
+            @NotNull MemoryARW mem
+    ) {
+        this.mem = mem;
         this.recordSink = recordSink;
         int count = columnTypes.getColumnCount();
         long varOffset = 0L;
@@ -191,6 +191,7 @@ public class RecordSinkFactory {
                     asm.invokeInterface(wPutDouble, 2);
                     break;
                 case ColumnType.STRING:
+                case ColumnType.VARCHAR:
                     asm.aload(2);
                     asm.aload(1);
                     asm.iconst(getSkewedIndex(index, skewIndex));
@@ -228,6 +229,11 @@ public class RecordSinkFactory {
                     asm.iconst(Long.BYTES);
                     asm.invokeInterface(wSkip, 1);
                     break;
+                case -ColumnType.DOUBLE:
+                    asm.aload(2);
+                    asm.iconst(Double.BYTES);
+                    asm.invokeInterface(wSkip, 1);
+                    break;
                 case ColumnType.GEOBYTE:
                     asm.aload(2);
                     asm.aload(1);
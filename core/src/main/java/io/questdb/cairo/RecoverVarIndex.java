@@ -39,8 +39,9 @@ public class RecoverVarIndex extends RebuildColumnBase {
     @Override
     protected void doReindex(
             ColumnVersionReader columnVersionReader, int columnWriterIndex, CharSequence columnName,
+            int columnType,
             CharSequence partitionName,
-            long partitionNameTxn, long partitionSize, long partitionTimestamp, int indexValueBlockCapacity
+            long partitionNameTxn, long partitionSize, long partitionTimestamp, boolean partitionCompressed, int indexValueBlockCapacity
     ) {
         long columnNameTxn = columnVersionReader.getColumnNameTxn(partitionTimestamp, columnWriterIndex);
         long columnTop = columnVersionReader.getColumnTop(partitionTimestamp, columnWriterIndex);
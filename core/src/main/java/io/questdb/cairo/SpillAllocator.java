@@ -0,0 +1,160 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.*;
+import io.questdb.std.str.Path;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Allocates a single contiguous memory region on behalf of a SQL data structure, such as
+ * a hash map or a record chain. The region lives in RAM until its size crosses the configured
+ * spill threshold. After that the contents are moved to a temporary file under the spill root
+ * and the structure continues to operate on the memory-mapped file. File-backed pages can be
+ * written back and evicted by the OS, so large queries degrade to disk speed instead of
+ * exhausting RSS. The region moves back to RAM once it shrinks below the threshold.
+ * <p>
+ * The allocator tracks at most one region at a time, it is up to the owner to make sure
+ * that every non-zero address is eventually passed to {@link #free(long, long)}.
+ */
+public class SpillAllocator {
+    private static final Log LOG = LogFactory.getLog(SpillAllocator.class);
+    private static final AtomicLong SPILL_FILE_ID = new AtomicLong();
+    private final FilesFacade ff;
+    private final int memoryTag;
+    private final int mkDirMode;
+    private final CharSequence spillRoot;
+    private final long threshold;
+    private int fd = -1;
+    private Path path;
+
+    public SpillAllocator(CairoConfiguration configuration, int memoryTag) {
+        this.ff = configuration.getFilesFacade();
+        this.spillRoot = configuration.getSqlSpillRoot();
+        this.threshold = spillRoot != null ? configuration.getSqlSpillThreshold() : 0;
+        this.mkDirMode = configuration.getMkDirMode();
+        this.memoryTag = memoryTag;
+    }
+
+    /**
+     * Creates an allocator that never spills to disk.
+     */
+    public SpillAllocator(int memoryTag) {
+        this.ff = null;
+        this.spillRoot = null;
+        this.threshold = 0;
+        this.mkDirMode = 0;
+        this.memoryTag = memoryTag;
+    }
+
+    public void free(long address, long size) {
+        if (address == 0) {
+            return;
+        }
+        if (fd != -1) {
+            ff.munmap(address, size, MemoryTag.MMAP_SQL_SPILL);
+            removeSpillFile();
+        } else {
+            Unsafe.free(address, size, memoryTag);
+        }
+    }
+
+    public boolean isSpilled() {
+        return fd != -1;
+    }
+
+    public long malloc(long size) {
+        return realloc(0, 0, size);
+    }
+
+    public long realloc(long address, long oldSize, long newSize) {
+        if (fd != -1) {
+            if (newSize > threshold) {
+                TableUtils.allocateDiskSpace(ff, fd, newSize);
+                return TableUtils.mremap(ff, fd, address, oldSize, newSize, Files.MAP_RW, MemoryTag.MMAP_SQL_SPILL);
+            }
+            return unspill(address, oldSize, newSize);
+        }
+
+        if (threshold > 0 && newSize > threshold) {
+            return spill(address, oldSize, newSize);
+        }
+
+        if (address == 0) {
+            return Unsafe.malloc(newSize, memoryTag);
+        }
+        return Unsafe.realloc(address, oldSize, newSize, memoryTag);
+    }
+
+    private void removeSpillFile() {
+        ff.close(fd);
+        fd = -1;
+        if (!ff.remove(path)) {
+            LOG.error().$("could not remove spill file [file=").$(path).$(", errno=").$(ff.errno()).I$();
+        }
+        path = Misc.free(path);
+    }
+
+    private long spill(long address, long oldSize, long newSize) {
+        path = new Path().of(spillRoot).slash$();
+        try {
+            if (!ff.exists(path)) {
+                TableUtils.createDirsOrFail(ff, path, mkDirMode);
+            }
+            path.put("spill-").put(SPILL_FILE_ID.incrementAndGet()).put(".tmp").$();
+            fd = TableUtils.openFileRWOrFail(ff, path, CairoConfiguration.O_NONE);
+        } catch (Throwable th) {
+            path = Misc.free(path);
+            throw th;
+        }
+
+        final long spillAddress;
+        try {
+            spillAddress = TableUtils.mapRW(ff, fd, newSize, MemoryTag.MMAP_SQL_SPILL);
+        } catch (Throwable th) {
+            removeSpillFile();
+            throw th;
+        }
+
+        if (address != 0) {
+            Vect.memcpy(spillAddress, address, Math.min(oldSize, newSize));
+            Unsafe.free(address, oldSize, memoryTag);
+        }
+        LOG.info().$("spilled to disk [file=").$(path).$(", size=").$(newSize).I$();
+        return spillAddress;
+    }
+
+    private long unspill(long address, long oldSize, long newSize) {
+        final long newAddress = Unsafe.malloc(newSize, memoryTag);
+        Vect.memcpy(newAddress, address, Math.min(oldSize, newSize));
+        ff.munmap(address, oldSize, MemoryTag.MMAP_SQL_SPILL);
+        removeSpillFile();
+        return newAddress;
+    }
+}
@@ -33,9 +33,14 @@ import io.questdb.std.Mutable;
 import io.questdb.std.Unsafe;
 import io.questdb.std.str.Path;
 
+/**
+ * Maintains bitmap index of a column. Despite the name, it also indexes INT, LONG and UUID
+ * columns, their values are hashed into index keys, see {@link TableUtils#isIndexable(int)}.
+ */
 public class SymbolColumnIndexer implements ColumnIndexer, Mutable {
 
     private static final long SEQUENCE_OFFSET;
+    private final int columnType;
     private final MemorySRImpl mem = new MemorySRImpl();
     private final BitmapIndexWriter writer = new BitmapIndexWriter();
     private long columnTop;
@@ -43,6 +48,14 @@ public class SymbolColumnIndexer implements ColumnIndexer, Mutable {
     @SuppressWarnings({"unused", "FieldCanBeLocal", "FieldMayBeFinal"})
     private volatile long sequence = 0L;
 
+    public SymbolColumnIndexer() {
+        this(ColumnType.SYMBOL);
+    }
+
+    public SymbolColumnIndexer(int columnType) {
+        this.columnType = columnType;
+    }
+
     @Override
     public void clear() {
         writer.clear();
@@ -129,7 +142,7 @@ public class SymbolColumnIndexer implements ColumnIndexer, Mutable {
         // index values have to be adjusted to partition-level row id
         writer.rollbackConditionally(loRow);
         for (long lo = Math.max(loRow, columnTop); lo < hiRow; lo++) {
-            writer.add(TableUtils.toIndexKey(mem.getInt((lo - columnTop) * Integer.BYTES)), lo);
+            writer.add(TableUtils.toIndexKey(columnType, mem, lo - columnTop), lo);
         }
         writer.setMaxValue(hiRow - 1);
     }
@@ -25,6 +25,7 @@
 package io.questdb.cairo;
 
 import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.vm.api.MemoryR;
 import io.questdb.std.*;
 import io.questdb.std.str.CharSink;
 
@@ -230,9 +231,9 @@ public class TableReaderRecord implements Record, Sinkable {
                 recordIndex,
                 TableReader.getPrimaryColumnIndex(columnBase, col)
         );
-        return reader.getColumn(absoluteColumnIndex).getStr(
-                reader.getColumn(absoluteColumnIndex + 1).getLong(recordIndex)
-        );
+        final MemoryR mem = reader.getColumn(absoluteColumnIndex);
+        final long offset = reader.getColumn(absoluteColumnIndex + 1).getLong(recordIndex);
+        return isVarchar(col) ? mem.getVarcharA(offset) : mem.getStr(offset);
     }
 
     @Override
@@ -240,9 +241,9 @@ public class TableReaderRecord implements Record, Sinkable {
         final int index = TableReader.getPrimaryColumnIndex(columnBase, col);
         final long recordIndex = getAdjustedRecordIndex(col) * Long.BYTES;
         final int absoluteColumnIndex = ifOffsetNegThen0ElseValue(recordIndex, index);
-        return reader.getColumn(absoluteColumnIndex).getStr2(
-                reader.getColumn(absoluteColumnIndex + 1).getLong(recordIndex)
-        );
+        final MemoryR mem = reader.getColumn(absoluteColumnIndex);
+        final long offset = reader.getColumn(absoluteColumnIndex + 1).getLong(recordIndex);
+        return isVarchar(col) ? mem.getVarcharB(offset) : mem.getStr2(offset);
     }
 
     @Override
@@ -250,9 +251,9 @@ public class TableReaderRecord implements Record, Sinkable {
         final int index = TableReader.getPrimaryColumnIndex(columnBase, col);
         final long recordIndex = getAdjustedRecordIndex(col) * Long.BYTES;
         final int absoluteColumnIndex = ifOffsetNegThen0ElseValue(recordIndex, index);
-        return reader.getColumn(absoluteColumnIndex).getStrLen(
-                reader.getColumn(absoluteColumnIndex + 1).getLong(recordIndex)
-        );
+        final MemoryR mem = reader.getColumn(absoluteColumnIndex);
+        final long offset = reader.getColumn(absoluteColumnIndex + 1).getLong(recordIndex);
+        return isVarchar(col) ? mem.getVarcharLen(offset) : mem.getStrLen(offset);
     }
 
     @Override
@@ -306,4 +307,8 @@ public class TableReaderRecord implements Record, Sinkable {
         assert col > -1 && col < reader.getColumnCount() : "Column index out of bounds: " + col + " >= " + reader.getColumnCount();
         return recordIndex - reader.getColumnTop(columnBase, col);
     }
+
+    private boolean isVarchar(int col) {
+        return ColumnType.isVarchar(reader.getMetadata().getColumnType(col));
+    }
 }
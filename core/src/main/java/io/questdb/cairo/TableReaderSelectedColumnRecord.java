@@ -25,6 +25,7 @@
 package io.questdb.cairo;
 
 import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.vm.api.MemoryR;
 import io.questdb.std.*;
 import io.questdb.std.str.CharSink;
 import org.jetbrains.annotations.NotNull;
@@ -236,7 +237,8 @@ public class TableReaderSelectedColumnRecord implements Record {
         );
         long offset = reader.getColumn(absoluteColumnIndex + 1).getLong(recordIndex);
         assert recordIndex != 0 || (offset == 0 || offset == Numbers.LONG_NaN);
-        return reader.getColumn(absoluteColumnIndex).getStr(offset);
+        final MemoryR mem = reader.getColumn(absoluteColumnIndex);
+        return isVarchar(col) ? mem.getVarcharA(offset) : mem.getStr(offset);
     }
 
     @Override
@@ -247,9 +249,9 @@ public class TableReaderSelectedColumnRecord implements Record {
                 recordIndex,
                 TableReader.getPrimaryColumnIndex(columnBase, col)
         );
-        return reader.getColumn(absoluteColumnIndex).getStr2(
-                reader.getColumn(absoluteColumnIndex + 1).getLong(recordIndex)
-        );
+        final MemoryR mem = reader.getColumn(absoluteColumnIndex);
+        final long offset = reader.getColumn(absoluteColumnIndex + 1).getLong(recordIndex);
+        return isVarchar(col) ? mem.getVarcharB(offset) : mem.getStr2(offset);
     }
 
     @Override
@@ -260,9 +262,9 @@ public class TableReaderSelectedColumnRecord implements Record {
                 recordIndex,
                 TableReader.getPrimaryColumnIndex(columnBase, col)
         );
-        return reader.getColumn(absoluteColumnIndex).getStrLen(
-                reader.getColumn(absoluteColumnIndex + 1).getLong(recordIndex)
-        );
+        final MemoryR mem = reader.getColumn(absoluteColumnIndex);
+        final long offset = reader.getColumn(absoluteColumnIndex + 1).getLong(recordIndex);
+        return isVarchar(col) ? mem.getVarcharLen(offset) : mem.getStrLen(offset);
     }
 
     @Override
@@ -317,4 +319,8 @@ public class TableReaderSelectedColumnRecord implements Record {
         assert col > -1 && col < reader.getColumnCount() : "Column index out of bounds: " + col + " >= " + reader.getColumnCount();
         return recordIndex - reader.getColumnTop(columnBase, col);
     }
+
+    private boolean isVarchar(int col) {
+        return ColumnType.isVarchar(reader.getMetadata().getColumnType(col));
+    }
 }
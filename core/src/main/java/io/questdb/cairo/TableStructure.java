@@ -40,6 +40,10 @@ public interface TableStructure extends TableDescriptor {
 
     CharSequence getTableName();
 
+    default boolean isDedupKey(int columnIndex) {
+        return false;
+    }
+
     boolean isIndexed(int columnIndex);
 
     boolean isSequential(int columnIndex);
@@ -61,9 +61,12 @@ public final class TableUtils {
     public static final String DETACHED_DIR_MARKER = ".detached";
     public static final String FILE_SUFFIX_D = ".d";
     public static final String FILE_SUFFIX_I = ".i";
+    // INT, LONG and UUID values are hashed into keys 1..HASH_INDEX_KEY_MASK+1, key 0 is reserved for NULL
+    public static final int HASH_INDEX_KEY_MASK = 4095;
     public static final int INITIAL_TXN = 0;
     public static final int LONGS_PER_TX_ATTACHED_PARTITION = 4;
     public static final int LONGS_PER_TX_ATTACHED_PARTITION_MSB = Numbers.msb(LONGS_PER_TX_ATTACHED_PARTITION);
+    public static final String MAT_VIEW_FILE_NAME = "_mv";
     public static final long META_COLUMN_DATA_SIZE = 32;
     public static final String META_FILE_NAME = "_meta";
     public static final long META_OFFSET_COLUMN_TYPES = 128;
@@ -158,6 +161,7 @@ public final class TableUtils {
     public static final int TX_RECORD_HEADER_SIZE = (int) TX_OFFSET_MAP_WRITER_COUNT_32 + Integer.BYTES;
     public static final String UPGRADE_FILE_NAME = "_upgrade.d";
     static final int COLUMN_VERSION_FILE_HEADER_SIZE = 40;
+    static final int META_FLAG_BIT_DEDUP_KEY = 1 << 2;
     static final int META_FLAG_BIT_INDEXED = 1;
     static final int META_FLAG_BIT_NOT_INDEXED = 0;
     static final int META_FLAG_BIT_SEQUENTIAL = 1 << 1;
@@ -613,6 +617,25 @@ public final class TableUtils {
         return iFile(path, columnName, COLUMN_NAME_TXN_NONE);
     }
 
+    /**
+     * SYMBOL columns index their dense int keys, INT, LONG and UUID columns index hashes of their
+     * values, so index lookups on the latter return false positives which must be filtered out.
+     *
+     * @param columnType column type
+     * @return true when column of this type can have index
+     */
+    public static boolean isIndexable(int columnType) {
+        switch (ColumnType.tagOf(columnType)) {
+            case ColumnType.SYMBOL:
+            case ColumnType.INT:
+            case ColumnType.LONG:
+            case ColumnType.UUID:
+                return true;
+            default:
+                return false;
+        }
+    }
+
     public static boolean isValidColumnName(CharSequence seq, int fsFileNameLimit) {
         int l = seq.length();
         if (l > fsFileNameLimit) {
@@ -1199,6 +1222,47 @@ public final class TableUtils {
         return symbolKey == SymbolTable.VALUE_IS_NULL ? 0 : symbolKey + 1;
     }
 
+    public static int toIndexKey(int columnType, MemoryR mem, long row) {
+        switch (ColumnType.tagOf(columnType)) {
+            case ColumnType.INT:
+                return toIndexKeyInt(mem.getInt(row << 2));
+            case ColumnType.LONG:
+                return toIndexKeyLong(mem.getLong(row << 3));
+            case ColumnType.UUID:
+                return toIndexKeyUuid(mem.getLong(row << 4), mem.getLong((row << 4) + Long.BYTES));
+            default:
+                return toIndexKey(mem.getInt(row << 2));
+        }
+    }
+
+    public static int toIndexKey(int columnType, long address, long row) {
+        switch (ColumnType.tagOf(columnType)) {
+            case ColumnType.INT:
+                return toIndexKeyInt(Unsafe.getUnsafe().getInt(address + (row << 2)));
+            case ColumnType.LONG:
+                return toIndexKeyLong(Unsafe.getUnsafe().getLong(address + (row << 3)));
+            case ColumnType.UUID:
+                return toIndexKeyUuid(
+                        Unsafe.getUnsafe().getLong(address + (row << 4)),
+                        Unsafe.getUnsafe().getLong(address + (row << 4) + Long.BYTES)
+                );
+            default:
+                return toIndexKey(Unsafe.getUnsafe().getInt(address + (row << 2)));
+        }
+    }
+
+    public static int toIndexKeyInt(int value) {
+        return value == Numbers.INT_NaN ? 0 : (int) (Hash.fastLongMix(value) & HASH_INDEX_KEY_MASK) + 1;
+    }
+
+    public static int toIndexKeyLong(long value) {
+        return value == Numbers.LONG_NaN ? 0 : (int) (Hash.fastLongMix(value) & HASH_INDEX_KEY_MASK) + 1;
+    }
+
+    public static int toIndexKeyUuid(long lo, long hi) {
+        return Uuid.isNull(lo, hi) ? 0 : (Hash.hash(lo, hi) & HASH_INDEX_KEY_MASK) + 1;
+    }
+
     public static void txnPartition(CharSink path, long txn) {
         path.put('.').put(txn);
     }
@@ -1250,8 +1314,8 @@ public final class TableUtils {
                 }
 
                 if (isColumnIndexed(metaMem, i)) {
-                    if (!ColumnType.isSymbol(type)) {
-                        throw validationException(metaMem).put("Index flag is only supported for SYMBOL").put(" at [").put(i).put(']');
+                    if (!isIndexable(type)) {
+                        throw validationException(metaMem).put("Index flag is only supported for SYMBOL, INT, LONG and UUID").put(" at [").put(i).put(']');
                     }
 
                     if (getIndexBlockCapacity(metaMem, i) < 2) {
@@ -1372,6 +1436,10 @@ public final class TableUtils {
                     flags |= META_FLAG_BIT_SEQUENTIAL;
                 }
 
+                if (structure.isDedupKey(i)) {
+                    flags |= META_FLAG_BIT_DEDUP_KEY;
+                }
+
                 mem.putLong(flags);
                 mem.putInt(structure.getIndexBlockCapacity(i));
                 // reserved
@@ -1489,6 +1557,10 @@ public final class TableUtils {
         return metaMem.getInt(META_OFFSET_COLUMN_TYPES + columnIndex * META_COLUMN_DATA_SIZE + 4 + 8);
     }
 
+    static boolean isColumnDedupKey(MemoryR metaMem, int columnIndex) {
+        return (getColumnFlags(metaMem, columnIndex) & META_FLAG_BIT_DEDUP_KEY) != 0;
+    }
+
     static boolean isColumnIndexed(MemoryR metaMem, int columnIndex) {
         return (getColumnFlags(metaMem, columnIndex) & META_FLAG_BIT_INDEXED) != 0;
     }
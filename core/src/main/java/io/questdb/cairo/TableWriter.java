@@ -84,7 +84,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
     };
     private static final Row NOOP_ROW = new NoOpRow();
     private static final int O3_ERRNO_FATAL = Integer.MAX_VALUE - 1;
-    private static final int PARTITION_UPDATE_SINK_ENTRY_SIZE = 8;
+    private static final int PARTITION_UPDATE_SINK_ENTRY_SIZE = 9;
     private static final int ROW_ACTION_NO_PARTITION = 1;
     private static final int ROW_ACTION_NO_TIMESTAMP = 2;
     private static final int ROW_ACTION_O3 = 3;
@@ -102,6 +102,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
     private final SCSequence commandSubSeq;
     private final CairoConfiguration configuration;
     private final MemoryMAR ddlMem;
+    private final IntList dedupKeyColumns = new IntList();
     private final int defaultCommitMode;
     private final ObjList<ColumnIndexer> denseIndexers = new ObjList<>();
     private final ObjList<MapWriter> denseSymbolMapWriters;
@@ -129,6 +130,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
     private final ObjectPool<O3MutableAtomicInteger> o3ColumnCounters = new ObjectPool<>(O3MutableAtomicInteger::new, 64);
     private final int o3ColumnMemorySize;
     private final ObjList<MemoryCR> o3ColumnOverrides;
+    private final O3DedupKeys o3DedupKeys = new O3DedupKeys();
     private final SOUnboundedCountDownLatch o3DoneLatch = new SOUnboundedCountDownLatch();
     private final AtomicInteger o3ErrorCount = new AtomicInteger();
     private final long[] o3LastTimestampSpreads;
@@ -172,6 +174,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
     private boolean avoidIndexOnCommit = false;
     private int columnCount;
     private long committedMasterRef;
+    private boolean dedupEnabled;
     private String designatedTimestampColumnName;
     private boolean distressed = false;
     private DropIndexOperator dropIndexOperator;
@@ -550,13 +553,13 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         final int existingType = getColumnType(metaMem, columnIndex);
         LOG.info().$("adding index to '").utf8(columnName).$('[').$(ColumnType.nameOf(existingType)).$(", path=").$(path).I$();
 
-        if (!ColumnType.isSymbol(existingType)) {
+        if (!isIndexable(existingType)) {
             LOG.error().$("cannot create index for [column='").utf8(columnName).$(", type=").$(ColumnType.nameOf(existingType)).$(", path=").$(path).I$();
             throw CairoException.nonCritical().put("cannot create index for [column='").put(columnName).put(", type=").put(ColumnType.nameOf(existingType)).put(", path=").put(path).put(']');
         }
 
         // create indexer
-        final SymbolColumnIndexer indexer = new SymbolColumnIndexer();
+        final SymbolColumnIndexer indexer = new SymbolColumnIndexer(existingType);
 
         final long columnNameTxn = columnVersionWriter.getColumnNameTxn(txWriter.getLastPartitionTimestamp(), columnIndex);
         try {
@@ -865,6 +868,116 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         txWriter.commit(defaultCommitMode, denseSymbolMapWriters);
     }
 
+    @Override
+    public void compressPartition(long timestamp) {
+        // Should be checked by SQL compiler
+        assert metadata.getTimestampIndex() > -1;
+        assert PartitionBy.isPartitioned(partitionBy);
+
+        if (inTransaction()) {
+            LOG.info()
+                    .$("committing open transaction before applying compress partition command [table=")
+                    .utf8(tableToken.getTableName())
+                    .$(", partition=").$ts(timestamp)
+                    .I$();
+            commit();
+        }
+
+        timestamp = getPartitionLo(timestamp);
+        final int partitionIndex = txWriter.getPartitionIndex(timestamp);
+        if (partitionIndex == -1) {
+            throw CairoException.nonCritical().put("partition does not exist [table=").put(tableToken.getTableName())
+                    .put(", partition=").ts(timestamp)
+                    .put(']');
+        }
+        if (timestamp == getPartitionLo(txWriter.getMaxTimestamp())) {
+            throw CairoException.nonCritical().put("cannot compress active partition [table=").put(tableToken.getTableName())
+                    .put(", partition=").ts(timestamp)
+                    .put(']');
+        }
+        if (txWriter.isPartitionCompressed(partitionIndex)) {
+            LOG.info().$("partition is already compressed [table=").utf8(tableToken.getTableName())
+                    .$(", partition=").$ts(timestamp)
+                    .I$();
+            return;
+        }
+        if (txWriter.isPartitionReadOnly(partitionIndex)) {
+            throw CairoException.nonCritical().put("cannot compress read-only partition [table=").put(tableToken.getTableName())
+                    .put(", partition=").ts(timestamp)
+                    .put(']');
+        }
+
+        final long partitionSize = txWriter.getPartitionSize(partitionIndex);
+        final long srcNameTxn = txWriter.getPartitionNameTxn(partitionIndex);
+        final long dstNameTxn = txWriter.getTxn();
+        try {
+            setPathForPartition(path.trimTo(rootLen), partitionBy, timestamp, false);
+            TableUtils.txnPartitionConditionally(path, srcNameTxn);
+            final int srcLen = path.length();
+            setPathForPartition(other.trimTo(rootLen), partitionBy, timestamp, false);
+            TableUtils.txnPartitionConditionally(other, dstNameTxn);
+            final int dstLen = other.length();
+            if (ff.exists(other.slash$())) {
+                throw CairoException.critical(0).put("compressed partition directory already exists [path=").put(other).put(']');
+            }
+            createDirsOrFail(ff, other, mkDirMode);
+
+            long rawSize = 0;
+            long compressedSize = 0;
+            try {
+                for (int i = 0; i < columnCount; i++) {
+                    final int columnType = metadata.getColumnType(i);
+                    final long columnTop = columnVersionWriter.getColumnTop(timestamp, i);
+                    if (columnType < 0 || columnTop < 0) {
+                        // column is deleted or does not exist in this partition
+                        continue;
+                    }
+                    final CharSequence columnName = metadata.getColumnName(i);
+                    final long columnNameTxn = columnVersionWriter.getColumnNameTxn(timestamp, i);
+                    final long columnRowCount = partitionSize - columnTop;
+                    if (ColumnType.isVariableLength(columnType)) {
+                        compressPartitionLinkFile(dFile(path.trimTo(srcLen), columnName, columnNameTxn), dFile(other.trimTo(dstLen), columnName, columnNameTxn));
+                        compressPartitionLinkFile(iFile(path.trimTo(srcLen), columnName, columnNameTxn), iFile(other.trimTo(dstLen), columnName, columnNameTxn));
+                    } else if (columnRowCount > 0) {
+                        final long columnSize = columnRowCount << ColumnType.pow2SizeOf(columnType);
+                        rawSize += columnSize;
+                        compressedSize += compressPartitionColumn(
+                                columnType,
+                                dFile(path.trimTo(srcLen), columnName, columnNameTxn),
+                                dFile(other.trimTo(dstLen), columnName, columnNameTxn),
+                                columnSize
+                        );
+                    }
+                    if (metadata.isColumnIndexed(i)) {
+                        compressPartitionLinkFile(keyFileName(path.trimTo(srcLen), columnName, columnNameTxn), keyFileName(other.trimTo(dstLen), columnName, columnNameTxn));
+                        compressPartitionLinkFile(valueFileName(path.trimTo(srcLen), columnName, columnNameTxn), valueFileName(other.trimTo(dstLen), columnName, columnNameTxn));
+                    }
+                }
+            } catch (Throwable e) {
+                if (ff.rmdir(other.trimTo(dstLen).slash$()) != 0) {
+                    LOG.error().$("could not remove compressed partition [errno=").$(ff.errno()).$(", path=").$(other).I$();
+                }
+                throw e;
+            }
+
+            LOG.info().$("compressed partition [table=").utf8(tableToken.getTableName())
+                    .$(", partition=").$ts(timestamp)
+                    .$(", rawSize=").$(rawSize)
+                    .$(", compressedSize=").$(compressedSize)
+                    .I$();
+        } finally {
+            path.trimTo(rootLen);
+            other.trimTo(rootLen);
+        }
+
+        txWriter.updatePartitionSizeAndTxnByIndex(partitionIndex * LONGS_PER_TX_ATTACHED_PARTITION, partitionSize);
+        txWriter.setPartitionReadOnlyByTimestamp(timestamp, true);
+        txWriter.setPartitionCompressedByTimestamp(timestamp, true);
+        txWriter.bumpPartitionTableVersion();
+        txWriter.commit(defaultCommitMode, denseSymbolMapWriters);
+        safeDeletePartitionDir(timestamp, srcNameTxn);
+    }
+
     public void destroy() {
         // Closes all the files and makes this instance unusable e.g. it cannot return to the pool on close.
         LOG.info().$("closing table files [table=").utf8(tableToken.getTableName())
@@ -897,6 +1010,9 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         if (timestamp == getPartitionLo(maxTimestamp)) {
             return AttachDetachStatus.DETACH_ERR_ACTIVE;
         }
+        if (txWriter.isPartitionCompressed(partitionIndex)) {
+            return AttachDetachStatus.DETACH_ERR_COMPRESSED;
+        }
         long minTimestamp = txWriter.getMinTimestamp();
 
         long partitionNameTxn = txWriter.getPartitionNameTxn(partitionIndex);
@@ -1279,6 +1395,10 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         return tempMem16b != 0;
     }
 
+    public boolean isPartitionCompressed(int partitionIndex) {
+        return txWriter.isPartitionCompressed(partitionIndex);
+    }
+
     public boolean isPartitionReadOnly(int partitionIndex) {
         return txWriter.isPartitionReadOnly(partitionIndex);
     }
@@ -1371,6 +1491,19 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         }
     }
 
+    /**
+     * Issues read-ahead of WAL segment data for the transactions, which were observed by
+     * {@link #readWalTxnDetails(TransactionLogCursor)} and are yet to be applied.
+     *
+     * @param fromSeqTxn the first transaction to prefetch, inclusive
+     * @param toSeqTxn   the last transaction to prefetch, inclusive
+     */
+    public void prefetchWalTransactions(long fromSeqTxn, long toSeqTxn) {
+        if (walTxnDetails != null) {
+            walTxnDetails.prefetch(other, rootLen, metadata, fromSeqTxn, toSeqTxn);
+        }
+    }
+
     public void processCommandQueue(TableWriterTask cmd, Sequence commandSubSeq, long cursor, boolean contextAllowsAnyStructureChanges) {
         if (cmd.getTableId() == getMetadata().getTableId()) {
             switch (cmd.getType()) {
@@ -1440,6 +1573,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
 
             long walLagRowCount = txWriter.getLagRowCount();
             long o3Hi = rowHi;
+            final boolean dedup = collectDedupKeyColumns(timestampIndex);
             try {
                 long o3Lo = rowLo;
                 long commitRowCount = rowHi - rowLo;
@@ -1461,7 +1595,9 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
                     o3ShiftLagRowsUp(timestampIndex, o3Hi - o3Lo, o3Lo, walLagRowCount, true, this.o3MoveWalFromFilesToLastPartitionRef);
                     walLagRowCount += commitRowCount;
                     txWriter.setLagRowCount((int) walLagRowCount);
-                    txWriter.setLagOrdered(txWriter.isLagOrdered() && ordered && walLagMaxTimestampBefore <= o3TimestampMin);
+                    // Deduplicated tables never treat LAG as ordered, so that it goes through the sort
+                    // and the duplicate removal before being applied to the partitions.
+                    txWriter.setLagOrdered(!dedup && txWriter.isLagOrdered() && ordered && walLagMaxTimestampBefore <= o3TimestampMin);
                     txWriter.setLagMinTimestamp(newMinLagTs);
                     txWriter.setLagMaxTimestamp(Math.max(o3TimestampMax, txWriter.getLagMaxTimestamp()));
 
@@ -1479,7 +1615,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
                 // Re-valuate WAL lag min/max with impact of the current transaction.
                 txWriter.setLagMinTimestamp(Math.min(o3TimestampMin, txWriter.getLagMinTimestamp()));
                 txWriter.setLagMaxTimestamp(Math.max(o3TimestampMax, txWriter.getLagMaxTimestamp()));
-                boolean needsOrdering = !ordered || walLagRowCount > 0;
+                boolean needsOrdering = !ordered || walLagRowCount > 0 || dedup;
 
                 long timestampAddr;
                 MemoryCR walTimestampColumn = walMappedColumns.getQuick(getPrimaryColumnIndex(timestampIndex));
@@ -1512,6 +1648,13 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
                     );
                     mapAppendColumnBufferRelease(tsLagBufferAddr, tsLagOffset, tsLagSize);
                     o3MergeIntoLag(timestampAddr, walLagRowCount, rowLo, rowHi, timestampIndex);
+                    if (dedup) {
+                        final long dedupRowCount = o3DedupSortedRows(timestampAddr, totalUncommitted);
+                        LOG.info().$("deduplicated WAL rows [table=").$(tableToken)
+                                .$(", rowCount=").$(totalUncommitted)
+                                .$(", dedupRowCount=").$(dedupRowCount).I$();
+                        totalUncommitted = dedupRowCount;
+                    }
 
                     // Sorted data is now sorted in memory copy of the data from mmap files
                     // Row indexes start from 0, not rowLo
@@ -1723,7 +1866,14 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
 
         long appliedSeqTxn = txWriter.getSeqTxn();
         transactionLogCursor.setPosition(Math.max(appliedSeqTxn, walTxnDetails.getLastSeqTxn()));
-        walTxnDetails.readObservableTxnMeta(other, transactionLogCursor, rootLen, appliedSeqTxn, txWriter.getMaxTimestamp());
+        walTxnDetails.readObservableTxnMeta(
+                other,
+                transactionLogCursor,
+                rootLen,
+                appliedSeqTxn,
+                txWriter.getMaxTimestamp(),
+                Math.min(configuration.getWalApplySquashMaxRows(), getMaxWalSquashRows())
+        );
     }
 
     /**
@@ -1873,6 +2023,14 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
             } else {
                 final int prevIndex = index - 1;
                 prevTimestamp = txWriter.getPartitionTimestamp(prevIndex);
+                if (txWriter.isPartitionCompressed(prevIndex)) {
+                    // previous partition would become active, but compressed partitions cannot be appended to
+                    LOG.error().$("cannot remove active partition, previous partition is compressed [path=").utf8(path)
+                            .$(", partitionTimestamp=").$ts(timestamp)
+                            .$(", previousPartitionTimestamp=").$ts(prevTimestamp)
+                            .I$();
+                    return false;
+                }
                 newTransientRowCount = txWriter.getPartitionSize(prevIndex);
                 try {
                     setPathForPartition(path.trimTo(rootLen), partitionBy, prevTimestamp, false);
@@ -2206,6 +2364,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
                 nullers.add(() -> mem1.putInt(SymbolTable.VALUE_IS_NULL));
                 break;
             case ColumnType.BINARY:
+            case ColumnType.VARCHAR:
                 nullers.add(() -> mem2.putLong(mem1.putNullBin()));
                 break;
             case ColumnType.GEOBYTE:
@@ -2345,7 +2504,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         long lagMinTimestamp = txWriter.getLagMinTimestamp();
         if (txWriter.getLagRowCount() > 0
                 && txWriter.isLagOrdered()
-                && txWriter.getMaxTimestamp() <= lagMinTimestamp
+                && (txWriter.getMaxTimestamp() < lagMinTimestamp || (!dedupEnabled && txWriter.getMaxTimestamp() == lagMinTimestamp))
                 && partitionFloorMethod.floor(lagMinTimestamp) == lastPartitionTimestamp) {
             // There is some data in LAG, it's ordered, and it's already written to the last partition.
             // We can simply increase the last partition transient row count to make it committed.
@@ -2679,7 +2838,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
                 }
 
                 // check column is / was indexed
-                if (ColumnType.isSymbol(tableColType)) {
+                if (isIndexable(tableColType)) {
                     boolean isIndexedNow = metadata.isColumnIndexed(colIdx);
                     boolean wasIndexedAtDetached = attachMetadata.isColumnIndexed(detColIdx);
                     int indexValueBlockCapacityNow = metadata.getIndexValueBlockCapacity(colIdx);
@@ -2745,6 +2904,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
                             break;
                         case ColumnType.STRING:
                         case ColumnType.BINARY:
+                        case ColumnType.VARCHAR:
                             attachPartitionCheckFilesMatchVarLenColumn(partitionSize, columnTop, columnName, columnNameTxn, partitionPath, partitionTimestamp, columnIndex);
                             break;
                         case ColumnType.SYMBOL:
@@ -2932,6 +3092,48 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         return TableSequencer.NO_TXN;
     }
 
+    private boolean collectDedupKeyColumns(int timestampIndex) {
+        dedupKeyColumns.clear();
+        boolean dedup = false;
+        for (int i = 0; i < columnCount; i++) {
+            if (metadata.getColumnType(i) > 0 && isColumnDedupKey(metaMem, i)) {
+                // designated timestamp is always part of the key, equal timestamps are compared via sort order
+                if (i != timestampIndex) {
+                    dedupKeyColumns.add(i);
+                }
+                dedup = true;
+            }
+        }
+        return dedupEnabled = dedup;
+    }
+
+    private long compressPartitionColumn(int columnType, LPSZ src, LPSZ dst, long columnSize) {
+        final int fd = TableUtils.openRO(ff, src, LOG);
+        long srcAddr = 0;
+        try (MemoryCMARW dstMem = Vm.getCMARWInstance(ff, dst, ff.getMapPageSize(), 0, MemoryTag.MMAP_TABLE_WRITER, CairoConfiguration.O_NONE)) {
+            srcAddr = TableUtils.mapRO(ff, fd, columnSize, MemoryTag.MMAP_TABLE_WRITER);
+            ColumnCodec.compress(columnType, srcAddr, columnSize >> ColumnType.pow2SizeOf(columnType), dstMem);
+            final long compressedSize = dstMem.getAppendOffset();
+            dstMem.close(true, Vm.TRUNCATE_TO_POINTER);
+            return compressedSize;
+        } finally {
+            if (srcAddr != 0) {
+                ff.munmap(srcAddr, columnSize, MemoryTag.MMAP_TABLE_WRITER);
+            }
+            ff.close(fd);
+        }
+    }
+
+    private void compressPartitionLinkFile(LPSZ src, LPSZ dst) {
+        if (ff.hardLink(src, dst) != 0) {
+            if (!ff.isCrossDeviceCopyError(ff.errno()) || ff.copy(src, dst) < 0) {
+                throw CairoException.critical(ff.errno()).put("could not link column file [from=").put(src)
+                        .put(", to=").put(dst)
+                        .put(']');
+            }
+        }
+    }
+
     private void configureAppendPosition() {
         final boolean partitioned = PartitionBy.isPartitioned(partitionBy);
         if (this.txWriter.getMaxTimestamp() > Long.MIN_VALUE || !partitioned) {
@@ -2971,6 +3173,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
 
             switch (ColumnType.tagOf(type)) {
                 case ColumnType.BINARY:
+                case ColumnType.VARCHAR:
                 case ColumnType.STRING:
                     secondary = Vm.getMAInstance();
                     oooSecondary = Vm.getCARWInstance(o3ColumnMemorySize, configuration.getO3MemMaxPages(), MemoryTag.NATIVE_O3);
@@ -2999,7 +3202,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         configureNullSetters(o3NullSetters2, type, oooPrimary2, oooSecondary2);
 
         if (indexFlag) {
-            indexers.extendAndSet(index, new SymbolColumnIndexer());
+            indexers.extendAndSet(index, new SymbolColumnIndexer(type));
         }
         rowValueIsNotNull.add(0);
     }
@@ -3065,6 +3268,9 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
                     if (isSequential(metaMem, i)) {
                         flags |= META_FLAG_BIT_SEQUENTIAL;
                     }
+                    if (isColumnDedupKey(metaMem, i)) {
+                        flags |= META_FLAG_BIT_DEDUP_KEY;
+                    }
                     ddlMem.putLong(flags);
                     ddlMem.putInt(indexValueBlockSize);
                     ddlMem.skip(16);
@@ -3474,10 +3680,17 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
 
                             if (columnTop > -1L && partitionSize > columnTop) {
                                 TableUtils.dFile(path.trimTo(plen), columnName, columnNameTxn);
-                                final long columnSize = (partitionSize - columnTop) << ColumnType.pow2SizeOf(ColumnType.INT);
-                                roMem.of(ff, path, columnSize, columnSize, MemoryTag.MMAP_TABLE_WRITER);
-                                indexer.configureWriter(configuration, path.trimTo(plen), columnName, columnNameTxn, columnTop);
-                                indexer.index(roMem, columnTop, partitionSize);
+                                final long columnSize = (partitionSize - columnTop) << ColumnType.pow2SizeOf(metadata.getColumnType(columnIndex));
+                                if (txWriter.isPartitionCompressed(i)) {
+                                    try (MemoryMR decompressedMem = Vm.getMRDecompressInstance(ff, path, columnSize, MemoryTag.MMAP_TABLE_WRITER)) {
+                                        indexer.configureWriter(configuration, path.trimTo(plen), columnName, columnNameTxn, columnTop);
+                                        indexer.index(decompressedMem, columnTop, partitionSize);
+                                    }
+                                } else {
+                                    roMem.of(ff, path, columnSize, columnSize, MemoryTag.MMAP_TABLE_WRITER);
+                                    indexer.configureWriter(configuration, path.trimTo(plen), columnName, columnNameTxn, columnTop);
+                                    indexer.index(roMem, columnTop, partitionSize);
+                                }
                             }
                         }
                     }
@@ -3910,6 +4123,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
                 boolean partitionMutates = o3PartitionUpdateSink.get(offset + 5) != 0;
                 long srcOooMax = o3PartitionUpdateSink.get(offset + 6);
                 long srcDataMax = o3PartitionUpdateSink.get(offset + 7);
+                long dedupRowCount = Math.max(o3PartitionUpdateSink.get(offset + 8), 0);
 
                 o3PartitionUpdate(
                         timestampMin,
@@ -3919,6 +4133,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
                         srcOooPartitionHi,
                         srcOooMax,
                         srcDataMax,
+                        dedupRowCount,
                         partitionMutates
                 );
 
@@ -4026,6 +4241,167 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         }
     }
 
+    // Removes duplicate rows from the sorted O3 data in memory. Rows are duplicates when
+    // they have the same timestamp and equal values in all dedup key columns. The last
+    // row of every duplicate group wins, which is the row committed latest, because the
+    // sort is stable and puts LAG rows before rows of the WAL transaction being applied.
+    // Returns the row count after duplicates are removed.
+    private long o3DedupSortedRows(long timestampAddr, long rowCount) {
+        // Radix sort scratch memory is free at this point, reuse it for the keep flags of the rows
+        // and for the (hash, row) pairs that group rows with equal keys within a timestamp run.
+        o3TimestampMemCpy.jumpTo(rowCount * 24);
+        final long keepAddr = o3TimestampMemCpy.addressOf(0);
+        final long pairsAddr = keepAddr + (rowCount << 3);
+        o3DedupKeys.of(this, o3MemColumns);
+        long runLo = 0;
+        while (runLo < rowCount) {
+            final long ts = getTimestampIndexValue(timestampAddr, runLo);
+            long runHi = runLo + 1;
+            while (runHi < rowCount && getTimestampIndexValue(timestampAddr, runHi) == ts) {
+                runHi++;
+            }
+
+            if (runHi - runLo == 1) {
+                Unsafe.getUnsafe().putLong(keepAddr + (runLo << 3), 1);
+            } else {
+                final long runSize = runHi - runLo;
+                for (long row = runLo; row < runHi; row++) {
+                    Unsafe.getUnsafe().putLong(keepAddr + (row << 3), 0);
+                    final long pairAddr = pairsAddr + ((row - runLo) << 4);
+                    Unsafe.getUnsafe().putLong(pairAddr, o3DedupKeys.hash(O3DedupKeys.SOURCE_O3, row));
+                    Unsafe.getUnsafe().putLong(pairAddr + Long.BYTES, row);
+                }
+                Vect.sortLongIndexAscInPlace(pairsAddr, runSize);
+
+                long groupLo = 0;
+                while (groupLo < runSize) {
+                    final long hash = Unsafe.getUnsafe().getLong(pairsAddr + (groupLo << 4));
+                    long groupHi = groupLo + 1;
+                    while (groupHi < runSize && Unsafe.getUnsafe().getLong(pairsAddr + (groupHi << 4)) == hash) {
+                        groupHi++;
+                    }
+
+                    // Distinct keys of the group are collected at the start of the group,
+                    // each with the highest row index that has the key.
+                    long distinctCount = 0;
+                    for (long i = groupLo; i < groupHi; i++) {
+                        final long row = Unsafe.getUnsafe().getLong(pairsAddr + (i << 4) + Long.BYTES);
+                        long d = 0;
+                        for (; d < distinctCount; d++) {
+                            final long distinctAddr = pairsAddr + ((groupLo + d) << 4) + Long.BYTES;
+                            final long distinctRow = Unsafe.getUnsafe().getLong(distinctAddr);
+                            if (o3DedupKeys.keysEqual(O3DedupKeys.SOURCE_O3, row, O3DedupKeys.SOURCE_O3, distinctRow)) {
+                                if (row > distinctRow) {
+                                    Unsafe.getUnsafe().putLong(distinctAddr, row);
+                                }
+                                break;
+                            }
+                        }
+                        if (d == distinctCount) {
+                            Unsafe.getUnsafe().putLong(pairsAddr + ((groupLo + distinctCount++) << 4) + Long.BYTES, row);
+                        }
+                    }
+                    for (long d = 0; d < distinctCount; d++) {
+                        final long row = Unsafe.getUnsafe().getLong(pairsAddr + ((groupLo + d) << 4) + Long.BYTES);
+                        Unsafe.getUnsafe().putLong(keepAddr + (row << 3), 1);
+                    }
+                    groupLo = groupHi;
+                }
+            }
+            runLo = runHi;
+        }
+        o3DedupKeys.close();
+
+        // Turn the keep flags into the ascending list of kept rows, in place.
+        long keepCount = 0;
+        for (long row = 0; row < rowCount; row++) {
+            if (Unsafe.getUnsafe().getLong(keepAddr + (row << 3)) != 0) {
+                Unsafe.getUnsafe().putLong(keepAddr + (keepCount++ << 3), row);
+            }
+        }
+
+        if (keepCount == rowCount) {
+            return rowCount;
+        }
+
+        // Kept row indexes are ascending and never less than their new position,
+        // so the columns can be compacted in place front to back.
+        for (long k = 0; k < keepCount; k++) {
+            final long row = Unsafe.getUnsafe().getLong(keepAddr + (k << 3));
+            if (row != k) {
+                Vect.memcpy(timestampAddr + (k << 4), timestampAddr + (row << 4), 16);
+            }
+        }
+
+        final int timestampIndex = metadata.getTimestampIndex();
+        for (int i = 0; i < columnCount; i++) {
+            final int columnType = metadata.getColumnType(i);
+            if (columnType < 0 || i == timestampIndex) {
+                continue;
+            }
+            final int primaryIndex = getPrimaryColumnIndex(i);
+            final MemoryCARW dataMem = o3MemColumns.getQuick(primaryIndex);
+            final long dataAddr = dataMem.addressOf(0);
+            if (ColumnType.isVariableLength(columnType)) {
+                final MemoryCARW indexMem = o3MemColumns.getQuick(primaryIndex + 1);
+                final long indexAddr = indexMem.addressOf(0);
+                long offset = 0;
+                for (long k = 0; k < keepCount; k++) {
+                    final long row = Unsafe.getUnsafe().getLong(keepAddr + (k << 3));
+                    final long lo = Unsafe.getUnsafe().getLong(indexAddr + (row << 3));
+                    final long len = Unsafe.getUnsafe().getLong(indexAddr + ((row + 1) << 3)) - lo;
+                    if (lo != offset) {
+                        Vect.memmove(dataAddr + offset, dataAddr + lo, len);
+                    }
+                    Unsafe.getUnsafe().putLong(indexAddr + (k << 3), offset);
+                    offset += len;
+                }
+                Unsafe.getUnsafe().putLong(indexAddr + (keepCount << 3), offset);
+                indexMem.jumpTo((keepCount + 1) << 3);
+                dataMem.jumpTo(offset);
+            } else {
+                final int shl = ColumnType.pow2SizeOf(columnType);
+                final long size = 1L << shl;
+                for (long k = 0; k < keepCount; k++) {
+                    final long row = Unsafe.getUnsafe().getLong(keepAddr + (k << 3));
+                    if (row != k) {
+                        Vect.memcpy(dataAddr + (k << shl), dataAddr + (row << shl), size);
+                    }
+                }
+                dataMem.jumpTo(keepCount << shl);
+            }
+        }
+        return keepCount;
+    }
+
+    /**
+     * Finds the first compressed partition that sorted O3 rows fall into.
+     *
+     * @return timestamp of the compressed partition or Long.MIN_VALUE when O3 rows do not touch compressed partitions
+     */
+    private long o3FindCompressedPartition(long sortedTimestampsAddr, long srcOooLo, long srcOooMax, long o3TimestampMax) {
+        long srcOoo = srcOooLo;
+        while (srcOoo < srcOooMax) {
+            final long o3Timestamp = getTimestampIndexValue(sortedTimestampsAddr, srcOoo);
+            final long partitionTimestamp = partitionFloorMethod.floor(o3Timestamp);
+            if (txWriter.isPartitionCompressedByPartitionTimestamp(partitionTimestamp)) {
+                return partitionTimestamp;
+            }
+            final long srcOooTimestampCeil = partitionCeilMethod.ceil(o3Timestamp) - 1;
+            if (srcOooTimestampCeil >= o3TimestampMax) {
+                break;
+            }
+            srcOoo = Vect.boundedBinarySearchIndexT(
+                    sortedTimestampsAddr,
+                    srcOooTimestampCeil,
+                    srcOoo,
+                    srcOooMax - 1,
+                    BinarySearch.SCAN_DOWN
+            ) + 1;
+        }
+        return Long.MIN_VALUE;
+    }
+
     private void o3MergeFixColumnLag(int columnIndex, int columnType, long mergeIndex, long lagRows, long mappedRowLo, long mappedRowHi) {
         if (o3ErrorCount.get() > 0) {
             return;
@@ -4216,7 +4592,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
                                 destDataAddr,
                                 0L
                         );
-                    } else if (columnType == ColumnType.BINARY) {
+                    } else if (columnType == ColumnType.BINARY || columnType == ColumnType.VARCHAR) {
                         Vect.oooMergeCopyBinColumn(
                                 mergedTimestampAddress,
                                 rowCount,
@@ -4640,10 +5016,19 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
             long srcOooPartitionHi,
             long srcOooMax,
             long srcDataMax,
+            long dedupRowCount,
             boolean partitionMutates
     ) {
         txWriter.minTimestamp = Math.min(timestampMin, txWriter.minTimestamp);
-        final long partitionSize = srcDataMax + srcOooPartitionHi - srcOooPartitionLo + 1;
+        final long partitionSize = srcDataMax + srcOooPartitionHi - srcOooPartitionLo + 1 - dedupRowCount;
+        if (dedupRowCount > 0) {
+            // row counts were set before the merge, take out the committed rows replaced by the O3 rows
+            if (partitionTimestamp == partitionFloorMethod.floor(txWriter.getMaxTimestamp())) {
+                txWriter.transientRowCount -= dedupRowCount;
+            } else {
+                txWriter.fixedRowCount -= dedupRowCount;
+            }
+        }
         final long rowDelta = srcOooPartitionHi - srcOooMax;
         final int partitionIndex = txWriter.findAttachedPartitionIndexByLoTimestamp(partitionTimestamp);
         if (partitionTimestamp == lastPartitionTimestamp) {
@@ -4664,6 +5049,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
                 .$(", srcOooPartitionHi=").$(srcOooPartitionHi)
                 .$(", srcOooMax=").$(srcOooMax)
                 .$(", srcDataMax=").$(srcDataMax)
+                .$(", dedupRowCount=").$(dedupRowCount)
                 .$(", partitionMutates=").$(partitionMutates)
                 .$(", lastPartitionTimestamp=").$(lastPartitionTimestamp)
                 .$(", partitionSize=").$(partitionSize)
@@ -5239,6 +5625,16 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
             resizeColumnTopSink(o3TimestampMin, o3TimestampMax);
             resizePartitionUpdateSink(o3TimestampMin, o3TimestampMax);
 
+            // compressed partitions are read-only, rows cannot be merged into them without
+            // rewriting the partition, fail the commit before any partition is touched
+            final long compressedPartitionTimestamp = o3FindCompressedPartition(sortedTimestampsAddr, srcOoo, srcOooMax, o3TimestampMax);
+            if (compressedPartitionTimestamp != Long.MIN_VALUE) {
+                success = false;
+                throw CairoException.nonCritical().put("cannot insert rows into compressed partition [table=").put(tableToken.getTableName())
+                        .put(", partition=").ts(compressedPartitionTimestamp)
+                        .put(']');
+            }
+
             // One loop iteration per partition.
             while (srcOoo < srcOooMax) {
                 try {
@@ -5291,7 +5687,8 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
                     }
 
                     // We're appending onto the last (active) partition.
-                    final boolean append = last && (srcDataMax == 0 || o3Timestamp >= maxTimestamp);
+                    // Deduplicated tables merge rows with the partition max timestamp, so that they can replace committed rows.
+                    final boolean append = last && (srcDataMax == 0 || o3Timestamp > maxTimestamp || (!dedupEnabled && o3Timestamp == maxTimestamp));
 
                     // Number of rows to insert from the O3 segment into this partition.
                     final long srcOooBatchRowSize = srcOooHi - srcOooLo + 1;
@@ -5624,7 +6021,9 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
                 // read min timestamp value
                 final int fd = TableUtils.openRO(ff, other, LOG);
                 try {
-                    return TableUtils.readLongOrFail(ff, fd, 0, tempMem16b, other);
+                    // compressed timestamp column keeps the first value uncompressed, right after the header
+                    final long offset = txWriter.isPartitionCompressedByPartitionTimestamp(partitionTimestamp) ? ColumnCodec.HEADER_SIZE : 0;
+                    return TableUtils.readLongOrFail(ff, fd, offset, tempMem16b, other);
                 } finally {
                     ff.close(fd);
                 }
@@ -5784,7 +6183,8 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
                 path,
                 -1L,
                 partitionTimestamp,
-                partitionSize
+                partitionSize,
+                false
         );
     }
 
@@ -6490,6 +6890,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
                     final long m1pos;
                     switch (ColumnType.tagOf(type)) {
                         case ColumnType.BINARY:
+                        case ColumnType.VARCHAR:
                         case ColumnType.STRING:
                             assert mem2 != null;
                             if (doubleAllocate) {
@@ -6900,6 +7301,10 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         if (isSequential(metaMem, i)) {
             flags |= META_FLAG_BIT_SEQUENTIAL;
         }
+
+        if (isColumnDedupKey(metaMem, i)) {
+            flags |= META_FLAG_BIT_DEDUP_KEY;
+        }
         ddlMem.putLong(flags);
         ddlMem.putInt(getIndexBlockCapacity(metaMem, i));
         ddlMem.skip(16);
@@ -6965,6 +7370,10 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         return configuration;
     }
 
+    IntList getDedupKeyColumns() {
+        return dedupKeyColumns;
+    }
+
     Sequence getO3CopyPubSeq() {
         return messageBus.getO3CopyPubSeq();
     }
@@ -6993,6 +7402,10 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         return txWriter;
     }
 
+    boolean isDedupEnabled() {
+        return dedupEnabled;
+    }
+
     void o3ClockDownPartitionUpdateCount() {
         o3PartitionUpdRemaining.decrementAndGet();
     }
@@ -7001,6 +7414,12 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         o3DoneLatch.countDown();
     }
 
+    void o3NotifyPartitionDedup(long partitionTimestamp, long dedupRowCount) {
+        long basePartitionTs = o3PartitionUpdateSink.get(0);
+        int partitionSinkIndex = (int) ((partitionTimestamp - basePartitionTs) / PartitionBy.getPartitionTimeIntervalFloor(partitionBy));
+        o3PartitionUpdateSink.set(partitionSinkIndex * PARTITION_UPDATE_SINK_ENTRY_SIZE + 8, dedupRowCount);
+    }
+
     void o3NotifyPartitionUpdate(
             long timestampMin,
             long timestampMax,
@@ -7237,6 +7656,13 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         }
 
         void putUuid(int columnIndex, CharSequence uuid);
+
+        void putVarchar(int columnIndex, CharSequence value);
+
+        /**
+         * Writes VARCHAR value from UTF-8 bytes, e.g. as received over ILP, without decoding them.
+         */
+        void putVarcharUtf8(int columnIndex, DirectByteCharSequence value);
     }
 
     private static class NoOpRow implements Row {
@@ -7394,6 +7820,16 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         public void putUuid(int columnIndex, CharSequence uuid) {
 
         }
+
+        @Override
+        public void putVarchar(int columnIndex, CharSequence value) {
+            // no-op
+        }
+
+        @Override
+        public void putVarcharUtf8(int columnIndex, DirectByteCharSequence value) {
+            // no-op
+        }
     }
 
     private class RowImpl implements Row {
@@ -7559,6 +7995,18 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
             putLong128(columnIndex, uuid.getLo(), uuid.getHi());
         }
 
+        @Override
+        public void putVarchar(int columnIndex, CharSequence value) {
+            getSecondaryColumn(columnIndex).putLong(getPrimaryColumn(columnIndex).putVarchar(value));
+            setRowValueNotNull(columnIndex);
+        }
+
+        @Override
+        public void putVarcharUtf8(int columnIndex, DirectByteCharSequence value) {
+            getSecondaryColumn(columnIndex).putLong(getPrimaryColumn(columnIndex).putVarchar(value.getLo(), value.getHi()));
+            setRowValueNotNull(columnIndex);
+        }
+
         private MemoryA getPrimaryColumn(int columnIndex) {
             return activeColumns.getQuick(getPrimaryColumnIndex(columnIndex));
         }
@@ -41,15 +41,18 @@ public class TxReader implements Closeable, Mutable {
     protected static final long DEFAULT_PARTITION_TIMESTAMP = 0L;
     protected static final int PARTITION_COLUMN_VERSION_OFFSET = 3;
     protected static final int PARTITION_MASKED_SIZE_OFFSET = 1;
+    protected static final int PARTITION_MASK_COMPRESSED_BIT_OFFSET = 61;
     protected static final int PARTITION_MASK_READ_ONLY_BIT_OFFSET = 62;
     protected static final int PARTITION_NAME_TX_OFFSET = 2;
     // partition size's highest possible value is 0xFFFFFFFFFFFL (15 Tera Rows):
     //
-    // | reserved | read-only | available bits | partition size |
-    // +----------+-----------+----------------+----------------+
-    // |  1 bit   |  1 bit    |  18 bits       |      44 bits   |
+    // | reserved | read-only | compressed | available bits | partition size |
+    // +----------+-----------+------------+----------------+----------------+
+    // |  1 bit   |  1 bit    |  1 bit     |  17 bits       |      44 bits   |
     //
     // when read-only bit is set, the partition is read only.
+    // when compressed bit is set, fixed size column files of the partition
+    // are encoded with ColumnCodec, compressed partitions are also read only.
     // we reserve the highest bit to allow negative values to 
     // have meaning (in future). For instance the table reader uses
     // a negative size value to mean that the partition is not open.
@@ -308,6 +311,18 @@ public class TxReader implements Closeable, Mutable {
         return lagOrdered;
     }
 
+    public boolean isPartitionCompressed(int i) {
+        return isPartitionCompressedByIndex(i * LONGS_PER_TX_ATTACHED_PARTITION);
+    }
+
+    public boolean isPartitionCompressedByPartitionTimestamp(long ts) {
+        int index = findAttachedPartitionIndex(ts);
+        if (index > -1) {
+            return isPartitionCompressedByIndex(index);
+        }
+        return false;
+    }
+
     public boolean isPartitionReadOnly(int i) {
         return isPartitionReadOnlyByIndex(i * LONGS_PER_TX_ATTACHED_PARTITION);
     }
@@ -434,6 +449,11 @@ public class TxReader implements Closeable, Mutable {
         return roTxMemBase.getLong(baseOffset + readOffset);
     }
 
+    private boolean isPartitionCompressedByIndex(int index) {
+        long maskedSize = attachedPartitions.getQuick(index + PARTITION_MASKED_SIZE_OFFSET);
+        return ((maskedSize >>> PARTITION_MASK_COMPRESSED_BIT_OFFSET) & 1) == 1;
+    }
+
     private boolean isPartitionReadOnlyByIndex(int index) {
         long maskedSize = attachedPartitions.getQuick(index + PARTITION_MASKED_SIZE_OFFSET);
         return ((maskedSize >>> PARTITION_MASK_READ_ONLY_BIT_OFFSET) & 1) == 1;
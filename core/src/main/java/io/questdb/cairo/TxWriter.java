@@ -326,6 +326,22 @@ public final class TxWriter extends TxReader implements Closeable, Mutable, Symb
         }
     }
 
+    public void setPartitionCompressedByTimestamp(long timestamp, boolean isCompressed) {
+        final int index = findAttachedPartitionIndex(timestamp);
+        if (index < 0) {
+            throw CairoException.nonCritical().put("bad partition index -1");
+        }
+        int offset = index + PARTITION_MASKED_SIZE_OFFSET;
+        long maskedSize = attachedPartitions.getQuick(offset);
+        if (isCompressed) {
+            maskedSize |= 1L << PARTITION_MASK_COMPRESSED_BIT_OFFSET;
+        } else {
+            maskedSize &= ~(1L << PARTITION_MASK_COMPRESSED_BIT_OFFSET);
+        }
+        attachedPartitions.setQuick(offset, maskedSize);
+        recordStructureVersion++;
+    }
+
     public void setPartitionReadOnly(int partitionIndex, boolean isReadOnly) {
         setPartitionReadOnlyByIndex(partitionIndex * LONGS_PER_TX_ATTACHED_PARTITION, isReadOnly);
     }
@@ -214,6 +214,11 @@ public class CompactMap implements Map, Reopenable {
         clear();
     }
 
+    @Override
+    public void merge(Map srcMap, MapValueMergeFunction mergeFunc) {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public void restoreInitialCapacity() {
         // no op
@@ -268,6 +273,7 @@ public class CompactMap implements Map, Reopenable {
                 case ColumnType.DATE:
                 case ColumnType.TIMESTAMP:
                 case ColumnType.STRING:
+                case ColumnType.VARCHAR:
                 case ColumnType.BINARY:
                 case ColumnType.GEOLONG:
                     sz = 8;
@@ -84,9 +84,9 @@ public class FastMap implements Map, Reopenable {
     private final int keySize;
     private final int listMemoryTag;
     private final double loadFactor;
-    private final int mapMemoryTag;
     private final int maxResizes;
     private final FastMapRecord record;
+    private final SpillAllocator spillAllocator;
     private final FastMapValue value;
     private final FastMapValue value2;
     private final FastMapValue value3;
@@ -137,6 +137,18 @@ public class FastMap implements Map, Reopenable {
         this(pageSize, keyTypes, valueTypes, keyCapacity, loadFactor, maxResizes, MemoryTag.NATIVE_FAST_MAP, MemoryTag.NATIVE_FAST_MAP_LONG_LIST);
     }
 
+    public FastMap(
+            int pageSize,
+            @Transient @NotNull ColumnTypes keyTypes,
+            @Transient @Nullable ColumnTypes valueTypes,
+            int keyCapacity,
+            double loadFactor,
+            int maxResizes,
+            @NotNull SpillAllocator spillAllocator
+    ) {
+        this(pageSize, keyTypes, valueTypes, keyCapacity, loadFactor, maxResizes, spillAllocator, MemoryTag.NATIVE_FAST_MAP_LONG_LIST);
+    }
+
     @TestOnly
     FastMap(
             int pageSize,
@@ -147,16 +159,29 @@ public class FastMap implements Map, Reopenable {
             int maxResizes,
             int mapMemoryTag,
             int listMemoryTag
+    ) {
+        this(pageSize, keyTypes, valueTypes, keyCapacity, loadFactor, maxResizes, new SpillAllocator(mapMemoryTag), listMemoryTag);
+    }
+
+    private FastMap(
+            int pageSize,
+            @NotNull @Transient ColumnTypes keyTypes,
+            @Nullable @Transient ColumnTypes valueTypes,
+            int keyCapacity,
+            double loadFactor,
+            int maxResizes,
+            @NotNull SpillAllocator spillAllocator,
+            int listMemoryTag
     ) {
         assert pageSize > 3;
         assert loadFactor > 0 && loadFactor < 1d;
 
-        this.mapMemoryTag = mapMemoryTag;
+        this.spillAllocator = spillAllocator;
         this.listMemoryTag = listMemoryTag;
         initialKeyCapacity = keyCapacity;
         initialPageSize = pageSize;
         this.loadFactor = loadFactor;
-        kStart = kPos = Unsafe.malloc(capacity = pageSize, mapMemoryTag);
+        kStart = kPos = spillAllocator.malloc(capacity = pageSize);
         kLimit = kStart + pageSize;
         this.keyCapacity = (int) (keyCapacity / loadFactor);
         this.keyCapacity = this.keyCapacity < MIN_INITIAL_CAPACITY ? MIN_INITIAL_CAPACITY : Numbers.ceilPow2(this.keyCapacity);
@@ -230,7 +255,7 @@ public class FastMap implements Map, Reopenable {
     public final void close() {
         Misc.free(offsets);
         if (kStart != 0) {
-            Unsafe.free(kStart, capacity, mapMemoryTag);
+            spillAllocator.free(kStart, capacity);
             kLimit = kStart = kPos = 0;
             free = 0;
             size = 0;
@@ -238,6 +263,35 @@ public class FastMap implements Map, Reopenable {
         }
     }
 
+    /**
+     * Looks up the key written to the given map via {@code keyMap.withKey()} in this map.
+     * Unlike {@link MapKey#findValue()}, the lookup doesn't write to this map's memory,
+     * so multiple threads may probe the map concurrently as long as the map isn't modified
+     * and each thread uses its own key map. Both maps must have the same key and value structure.
+     *
+     * @param keyMap map holding the key to look up
+     * @return the key map's value object pointing at the found entry or null when the key is missing
+     */
+    public MapValue findValue(FastMap keyMap) {
+        assert this != keyMap;
+        assert keySize == keyMap.keySize && valueSize == keyMap.valueSize;
+        final BaseKey srcKey = keyMap.key;
+        srcKey.commit();
+        final long srcAddress = srcKey.startAddress;
+        final int keyValueSize = keySize != -1 ? keyOffset + keySize : Unsafe.getUnsafe().getInt(srcAddress);
+        final int hashCode = Hash.hashMem32(srcAddress + keyOffset, keyValueSize - keyOffset);
+        int index = hashCode & mask;
+        long packedOffset;
+        long offset;
+        while ((offset = unpackOffset(packedOffset = getPackedOffset(offsets, index))) > -1) {
+            if (hashCode == unpackHashCode(packedOffset) && eqKeys(kStart + offset, srcAddress, keyValueSize)) {
+                return keyMap.value.of(kStart + offset, kLimit, false);
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
     public long getAppendOffset() {
         return kPos;
     }
@@ -264,6 +318,60 @@ public class FastMap implements Map, Reopenable {
         return valueColumnCount;
     }
 
+    @Override
+    public void merge(Map srcMap, MapValueMergeFunction mergeFunc) {
+        assert this != srcMap;
+        final FastMap src = (FastMap) srcMap;
+        assert keySize == src.keySize && valueSize == src.valueSize;
+        if (src.size == 0) {
+            return;
+        }
+
+        // Walk the source key memory sequentially, i.e. in the insertion order,
+        // rather than in the hash table order to avoid random memory access.
+        long srcAddress = src.kStart;
+        for (int i = 0, n = src.size; i < n; i++) {
+            final int keyValueSize = keySize != -1 ? keyOffset + keySize : Unsafe.getUnsafe().getInt(srcAddress);
+            final int hashCode = Hash.hashMem32(srcAddress + keyOffset, keyValueSize - keyOffset);
+            int index = hashCode & mask;
+            long packedOffset;
+            long offset;
+            while ((offset = unpackOffset(packedOffset = getPackedOffset(offsets, index))) > -1) {
+                if (hashCode == unpackHashCode(packedOffset) && eqKeys(kStart + offset, srcAddress, keyValueSize)) {
+                    break;
+                }
+                index = (index + 1) & mask;
+            }
+
+            if (offset > -1) {
+                mergeFunc.merge(valueOf(kStart + offset, false, value), src.valueOf(srcAddress, false, src.value));
+            } else {
+                // The key is missing, so copy the whole key-value pair.
+                if (kPos + keyValueSize > kLimit) {
+                    growKeyMemory(kPos + keyValueSize - kStart);
+                }
+                Vect.memcpy(kPos, srcAddress, keyValueSize);
+                setPackedOffset(offsets, index, kPos - kStart, hashCode);
+                kPos += keyValueSize;
+                if ((kPos & 0x7) != 0) {
+                    kPos |= 0x7;
+                    kPos++;
+                }
+                size++;
+                if (--free == 0) {
+                    rehash();
+                }
+            }
+
+            // Key-value pairs start at 8 byte aligned addresses.
+            srcAddress += keyValueSize;
+            if ((srcAddress & 0x7) != 0) {
+                srcAddress |= 0x7;
+                srcAddress++;
+            }
+        }
+    }
+
     public void reopen() {
         if (kStart == 0) {
             // handles both mem and offsets
@@ -273,7 +381,7 @@ public class FastMap implements Map, Reopenable {
 
     @Override
     public void restoreInitialCapacity() {
-        kStart = kPos = Unsafe.realloc(kStart, kLimit - kStart, capacity = initialPageSize, mapMemoryTag);
+        kStart = kPos = spillAllocator.realloc(kStart, kLimit - kStart, capacity = initialPageSize);
         kLimit = kStart + initialPageSize;
         keyCapacity = (int) (initialKeyCapacity / loadFactor);
         keyCapacity = keyCapacity < MIN_INITIAL_CAPACITY ? MIN_INITIAL_CAPACITY : Numbers.ceilPow2(keyCapacity);
@@ -336,6 +444,46 @@ public class FastMap implements Map, Reopenable {
         return valueOf(keyWriter.startAddress, true, value);
     }
 
+    private boolean eqKeys(long destAddress, long srcAddress, int keyValueSize) {
+        // Var-size key-value pairs must have the same length.
+        if (keySize == -1 && Unsafe.getUnsafe().getInt(destAddress) != keyValueSize) {
+            return false;
+        }
+        return Vect.memeq(destAddress + keyOffset, srcAddress + keyOffset, keyValueSize - keyOffset);
+    }
+
+    /**
+     * Grows key memory so that it's capable of holding at least the target number of bytes.
+     *
+     * @param target required key memory size in bytes
+     * @return difference between the new and the old key memory start addresses
+     */
+    private long growKeyMemory(long target) {
+        if (nResizes < maxResizes) {
+            nResizes++;
+            long kCapacity = (kLimit - kStart) << 1;
+            if (kCapacity < target) {
+                kCapacity = Numbers.ceilPow2(target);
+            }
+            if (kCapacity > MAX_HEAP_SIZE) {
+                throw LimitOverflowException.instance().put("limit of ").put(MAX_HEAP_SIZE).put(" memory exceeded in FastMap");
+            }
+            long kAddress = spillAllocator.realloc(this.kStart, this.capacity, kCapacity);
+
+            this.capacity = kCapacity;
+            long d = kAddress - this.kStart;
+            kPos += d;
+
+            assert kPos > 0;
+
+            this.kStart = kAddress;
+            this.kLimit = kAddress + kCapacity;
+            return d;
+        } else {
+            throw LimitOverflowException.instance().put("limit of ").put(maxResizes).put(" resizes exceeded in FastMap");
+        }
+    }
+
     private FastMapValue probe0(BaseKey keyWriter, int index, int hashCode, FastMapValue value) {
         long packedOffset;
         long offset;
@@ -385,33 +533,12 @@ public class FastMap implements Map, Reopenable {
     }
 
     private void resize(int size) {
-        if (nResizes < maxResizes) {
-            nResizes++;
-            long kCapacity = (kLimit - kStart) << 1;
-            long target = key.appendAddress + size - kStart;
-            if (kCapacity < target) {
-                kCapacity = Numbers.ceilPow2(target);
-            }
-            if (kCapacity > MAX_HEAP_SIZE) {
-                throw LimitOverflowException.instance().put("limit of ").put(MAX_HEAP_SIZE).put(" memory exceeded in FastMap");
-            }
-            long kAddress = Unsafe.realloc(this.kStart, this.capacity, kCapacity, mapMemoryTag);
+        final long d = growKeyMemory(key.appendAddress + size - kStart);
+        key.startAddress += d;
+        key.appendAddress += d;
 
-            this.capacity = kCapacity;
-            long d = kAddress - this.kStart;
-            kPos += d;
-            key.startAddress += d;
-            key.appendAddress += d;
-
-            assert kPos > 0;
-            assert key.startAddress > 0;
-            assert key.appendAddress > 0;
-
-            this.kStart = kAddress;
-            this.kLimit = kAddress + kCapacity;
-        } else {
-            throw LimitOverflowException.instance().put("limit of ").put(maxResizes).put(" resizes exceeded in FastMap");
-        }
+        assert key.startAddress > 0;
+        assert key.appendAddress > 0;
     }
 
     private FastMapValue valueOf(long address, boolean newValue, FastMapValue value) {
@@ -96,6 +96,7 @@ final class FastMapRecord implements MapRecord {
             keyTypesCopy.add(columnType);
             switch (ColumnType.tagOf(columnType)) {
                 case ColumnType.STRING:
+                case ColumnType.VARCHAR:
                     if (csA == null) {
                         csA = new DirectCharSequence[nColumns];
                         csB = new DirectCharSequence[nColumns];
@@ -355,7 +356,7 @@ final class FastMapRecord implements MapRecord {
                 final int len = Unsafe.getUnsafe().getInt(addr);
                 addr += Integer.BYTES;
                 if (len != TableUtils.NULL_LEN) {
-                    if (ColumnType.isString(columnType)) {
+                    if (ColumnType.isString(columnType) || ColumnType.isVarchar(columnType)) {
                         addr += (long) len << 1;
                     } else {
                         addr += len;
@@ -38,6 +38,16 @@ public interface Map extends Mutable, Closeable, Reopenable {
 
     MapRecord getRecord();
 
+    /**
+     * Merges the given map into this one. Keys that are missing in this map are copied
+     * as is, while values of the existing keys are combined with the provided merge function.
+     * Both maps must have the same key and value structure.
+     *
+     * @param srcMap    source map, left intact
+     * @param mergeFunc function used to combine values of the same key
+     */
+    void merge(Map srcMap, MapValueMergeFunction mergeFunc);
+
     void restoreInitialCapacity();
 
     long size();
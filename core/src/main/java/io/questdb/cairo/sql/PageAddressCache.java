@@ -33,6 +33,7 @@ public class PageAddressCache implements Mutable {
     private final long cacheSizeThreshold;
     // Index remapping for variable length columns.
     private final IntList varLenColumnIndexes = new IntList();
+    private final BoolList varcharColumns = new BoolList();
     private int columnCount;
     // Index page addresses and page sizes are stored only for variable length columns.
     private LongList indexPageAddresses = new LongList();
@@ -63,6 +64,7 @@ public class PageAddressCache implements Mutable {
     @Override
     public void clear() {
         varLenColumnIndexes.clear();
+        varcharColumns.clear();
         if (pageAddresses.size() < cacheSizeThreshold) {
             pageAddresses.clear();
             indexPageAddresses.clear();
@@ -109,14 +111,20 @@ public class PageAddressCache implements Mutable {
         return false;
     }
 
+    public boolean isVarchar(int columnIndex) {
+        return varcharColumns.get(columnIndex);
+    }
+
     public void of(@Transient RecordMetadata metadata) {
         this.columnCount = metadata.getColumnCount();
         this.varLenColumnIndexes.setAll(columnCount, -1);
+        this.varcharColumns.setAll(columnCount, false);
         this.varLenColumnCount = 0;
         for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
             final int columnType = metadata.getColumnType(columnIndex);
             if (ColumnType.isVariableLength(columnType)) {
                 varLenColumnIndexes.setQuick(columnIndex, varLenColumnCount++);
+                varcharColumns.set(columnIndex, ColumnType.isVarchar(columnType));
             }
         }
     }
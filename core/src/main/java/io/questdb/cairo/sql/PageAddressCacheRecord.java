@@ -42,6 +42,8 @@ public class PageAddressCacheRecord implements Record, Closeable {
     private final Long256Impl long256A = new Long256Impl();
     private final Long256Impl long256B = new Long256Impl();
     private final ObjList<SymbolTable> symbolTableCache = new ObjList<>();
+    private final MemoryCR.VarcharView varcharView = new MemoryCR.VarcharView();
+    private final MemoryCR.VarcharView varcharView2 = new MemoryCR.VarcharView();
     private int frameIndex;
     private PageAddressCache pageAddressCache;
     private long rowIndex;
@@ -248,6 +250,9 @@ public class PageAddressCacheRecord implements Record, Closeable {
         final long indexPageAddress = pageAddressCache.getIndexPageAddress(frameIndex, columnIndex);
         final long offset = Unsafe.getUnsafe().getLong(indexPageAddress + rowIndex * Long.BYTES);
         final long size = pageAddressCache.getPageSize(frameIndex, columnIndex);
+        if (pageAddressCache.isVarchar(columnIndex)) {
+            return getVarchar(dataPageAddress, offset, size, varcharView);
+        }
         return getStr(dataPageAddress, offset, size, csview);
     }
 
@@ -260,6 +265,9 @@ public class PageAddressCacheRecord implements Record, Closeable {
         final long indexPageAddress = pageAddressCache.getIndexPageAddress(frameIndex, columnIndex);
         final long offset = Unsafe.getUnsafe().getLong(indexPageAddress + rowIndex * Long.BYTES);
         final long size = pageAddressCache.getPageSize(frameIndex, columnIndex);
+        if (pageAddressCache.isVarchar(columnIndex)) {
+            return getVarchar(dataPageAddress, offset, size, varcharView2);
+        }
         return getStr(dataPageAddress, offset, size, csview2);
     }
 
@@ -271,6 +279,11 @@ public class PageAddressCacheRecord implements Record, Closeable {
         }
         final long indexPageAddress = pageAddressCache.getIndexPageAddress(frameIndex, columnIndex);
         final long offset = Unsafe.getUnsafe().getLong(indexPageAddress + rowIndex * Long.BYTES);
+        if (pageAddressCache.isVarchar(columnIndex)) {
+            final long address = dataPageAddress + offset;
+            final long len = Unsafe.getUnsafe().getLong(address);
+            return len != TableUtils.NULL_LEN ? Chars.utf8DecodedLength(address + Long.BYTES, address + Long.BYTES + len) : TableUtils.NULL_LEN;
+        }
         return Unsafe.getUnsafe().getInt(dataPageAddress + offset);
     }
 
@@ -360,6 +373,25 @@ public class PageAddressCacheRecord implements Record, Closeable {
         return symbolTable;
     }
 
+    private CharSequence getVarchar(long base, long offset, long size, MemoryCR.VarcharView view) {
+        final long address = base + offset;
+        final long len = Unsafe.getUnsafe().getLong(address);
+        if (len != TableUtils.NULL_LEN) {
+            if (len + Long.BYTES + offset <= size) {
+                return view.of(address + Long.BYTES, address + Long.BYTES + len);
+            }
+            throw CairoException.critical(0)
+                    .put("Varchar is outside of file boundary [offset=")
+                    .put(offset)
+                    .put(", len=")
+                    .put(len)
+                    .put(", size=")
+                    .put(size)
+                    .put(']');
+        }
+        return null;
+    }
+
     void getLong256(long offset, CharSink sink) {
         final long addr = offset + Long.BYTES * 4;
         final long a, b, c, d;
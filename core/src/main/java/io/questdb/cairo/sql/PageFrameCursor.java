@@ -24,6 +24,7 @@
 
 package io.questdb.cairo.sql;
 
+import io.questdb.cairo.TableReader;
 import io.questdb.std.QuietCloseable;
 import org.jetbrains.annotations.Nullable;
 
@@ -32,6 +33,11 @@ public interface PageFrameCursor extends QuietCloseable, SymbolTableSource {
     @Override
     void close(); // we don't throw IOException
 
+    /**
+     * @return table reader the page frames are read from, the same reader is used for all frames
+     */
+    TableReader getTableReader();
+
     /**
      * Return the REAL row id of given row on current page.
      * This is used for e.g. updating rows.
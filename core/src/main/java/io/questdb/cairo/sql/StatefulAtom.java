@@ -29,6 +29,19 @@ import io.questdb.griffin.SqlExecutionContext;
 
 public interface StatefulAtom {
 
+    /**
+     * Checks whether the page frame can be left out of the dispatch because none of its
+     * rows can be matched by the atom. Called on the query owner thread before the frame
+     * is added to the page address cache.
+     *
+     * @param pageFrameCursor cursor the frame belongs to
+     * @param frame           page frame
+     * @return true when the frame does not need to be dispatched
+     */
+    default boolean canSkipFrame(PageFrameCursor pageFrameCursor, PageFrame frame) {
+        return false;
+    }
+
     /**
      * Initializes state required for filtering, such as child atoms, symbol table sources,
      * bind variable values, circuit breakers, etc.
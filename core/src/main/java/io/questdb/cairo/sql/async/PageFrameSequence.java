@@ -390,6 +390,9 @@ public class PageFrameSequence<T extends StatefulAtom> implements Closeable {
     private void buildAddressCache() {
         PageFrame frame;
         while ((frame = pageFrameCursor.next()) != null) {
+            if (atom.canSkipFrame(pageFrameCursor, frame)) {
+                continue;
+            }
             pageAddressCache.add(frameCount++, frame);
             frameRowCounts.add(frame.getPartitionHi() - frame.getPartitionLo());
         }
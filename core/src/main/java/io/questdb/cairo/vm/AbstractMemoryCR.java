@@ -35,6 +35,8 @@ public abstract class AbstractMemoryCR implements MemoryCR, Mutable {
     private final MemoryCR.CharSequenceView csview2 = new MemoryCR.CharSequenceView();
     private final Long256Impl long256 = new Long256Impl();
     private final Long256Impl long256B = new Long256Impl();
+    private final MemoryCR.VarcharView varcharViewA = new MemoryCR.VarcharView();
+    private final MemoryCR.VarcharView varcharViewB = new MemoryCR.VarcharView();
     protected int fd = -1;
     protected FilesFacade ff;
     protected long lim;
@@ -51,6 +53,8 @@ public abstract class AbstractMemoryCR implements MemoryCR, Mutable {
         csview.clear();
         csview2.clear();
         bsview.clear();
+        varcharViewA.clear();
+        varcharViewB.clear();
     }
 
     public final BinarySequence getBin(long offset) {
@@ -93,6 +97,14 @@ public abstract class AbstractMemoryCR implements MemoryCR, Mutable {
         return getStr(offset, csview2);
     }
 
+    public final CharSequence getVarcharA(long offset) {
+        return getVarchar(offset, varcharViewA);
+    }
+
+    public final CharSequence getVarcharB(long offset) {
+        return getVarchar(offset, varcharViewB);
+    }
+
     @Override
     public long offsetInPage(long offset) {
         return offset;
@@ -70,7 +70,7 @@ public class MemoryCARWImpl extends AbstractMemoryCR implements MemoryCARW, Muta
         super.clear();
         if (pageAddress != 0) {
             long baseLength = lim - pageAddress;
-            Unsafe.free(pageAddress, baseLength, memoryTag);
+            freeMemory(pageAddress, baseLength);
             handleMemoryReleased();
             size = 0;
         }
@@ -182,6 +182,10 @@ public class MemoryCARWImpl extends AbstractMemoryCR implements MemoryCARW, Muta
         handleMemoryReallocation(newBaseAddress, size);
     }
 
+    protected void freeMemory(long baseAddress, long size) {
+        Unsafe.free(baseAddress, size, memoryTag);
+    }
+
     protected final void handleMemoryReallocation(long newBaseAddress, long newSize) {
         assert newBaseAddress != 0;
         long appendOffset = appendAddress - pageAddress;
@@ -0,0 +1,56 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo.vm;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.SpillAllocator;
+
+/**
+ * Contiguous append-read-write memory which moves its data to a memory-mapped temporary
+ * file once it grows past the spill threshold, see {@link SpillAllocator}.
+ */
+public class MemoryCARWSpillImpl extends MemoryCARWImpl {
+    private final SpillAllocator spillAllocator;
+
+    public MemoryCARWSpillImpl(CairoConfiguration configuration, long pageSize, int maxPages, int memoryTag) {
+        super(pageSize, maxPages, memoryTag);
+        this.spillAllocator = new SpillAllocator(configuration, memoryTag);
+    }
+
+    public boolean isSpilled() {
+        return spillAllocator.isSpilled();
+    }
+
+    @Override
+    protected void freeMemory(long baseAddress, long size) {
+        spillAllocator.free(baseAddress, size);
+    }
+
+    @Override
+    protected long reallocateMemory(long currentBaseAddress, long currentSize, long newSize) {
+        return spillAllocator.realloc(currentBaseAddress, currentSize, newSize);
+    }
+}
@@ -0,0 +1,312 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo.vm;
+
+import io.questdb.cairo.BinarySearch;
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.ColumnCodec;
+import io.questdb.cairo.TableUtils;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.*;
+import io.questdb.std.str.CharSink;
+import io.questdb.std.str.LPSZ;
+
+import java.util.Arrays;
+
+/**
+ * Readable memory over column file of a compressed partition.
+ * <p>
+ * Values are decompressed block by block on access, at most {@link #BLOCK_CACHE_CAPACITY}
+ * decompressed blocks are kept in memory. Contiguous access, such as page frames, decompresses
+ * the whole column on first use.
+ */
+public class MemoryCMRDecompressImpl extends MemoryCMRImpl {
+    private static final int BLOCK_CACHE_CAPACITY = 4;
+    private static final Log LOG = LogFactory.getLog(MemoryCMRDecompressImpl.class);
+    private final long[] cacheBlockIndexes = new long[BLOCK_CACHE_CAPACITY];
+    private final long[] cacheTicks = new long[BLOCK_CACHE_CAPACITY];
+    private long blockSize;
+    private long cacheAddr;
+    private int cacheCapacity;
+    private long cacheTick;
+    private long compressedAddr;
+    private long compressedSize;
+    private long lastBlockAddr;
+    private long lastBlockHi;
+    private long lastBlockLo;
+
+    public MemoryCMRDecompressImpl(FilesFacade ff, LPSZ name, long size, int memoryTag) {
+        of(ff, name, 0, size, memoryTag, 0);
+    }
+
+    public MemoryCMRDecompressImpl() {
+        // intentionally left empty
+    }
+
+    @Override
+    public long addressOf(long offset) {
+        return getPageAddress(0) + offset;
+    }
+
+    /**
+     * Binary search over 64-bit values that decompresses only the blocks it visits.
+     * Return value follows {@link Vect#binarySearch64Bit(long, long, long, long, int)}.
+     */
+    public long binarySearch64Bit(long value, long low, long high, int scanDir) {
+        high = Math.min(high, (size >> 3) - 1);
+        if (scanDir == BinarySearch.SCAN_UP) {
+            // first row with value greater than or equal to the searched value
+            long lo = low;
+            long hi = high + 1;
+            while (lo < hi) {
+                final long mid = (lo + hi) >>> 1;
+                if (getLong(mid << 3) < value) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo <= high && getLong(lo << 3) == value ? lo : -(lo + 1);
+        }
+
+        // last row with value less than or equal to the searched value
+        long lo = low - 1;
+        long hi = high;
+        while (lo < hi) {
+            final long mid = (lo + hi + 1) >>> 1;
+            if (getLong(mid << 3) > value) {
+                hi = mid - 1;
+            } else {
+                lo = mid;
+            }
+        }
+        return lo >= low && getLong(lo << 3) == value ? lo : -(lo + 2);
+    }
+
+    @Override
+    public void close() {
+        clear();
+        if (pageAddress != 0) {
+            Unsafe.free(pageAddress, size, MemoryTag.NATIVE_TABLE_READER);
+            pageAddress = 0;
+        }
+        freeBlockCache();
+        if (compressedAddr != 0) {
+            ff.munmap(compressedAddr, compressedSize, memoryTag);
+            compressedAddr = 0;
+            compressedSize = 0;
+        }
+        size = 0;
+        if (ff != null && ff.close(fd)) {
+            LOG.debug().$("closed [fd=").$(fd).I$();
+            fd = -1;
+        }
+    }
+
+    @Override
+    public void extend(long newSize) {
+        if (newSize > size) {
+            throw CairoException.critical(0).put("compressed column cannot be extended [size=").put(size)
+                    .put(", newSize=").put(newSize)
+                    .put(']');
+        }
+    }
+
+    @Override
+    public byte getByte(long offset) {
+        return Unsafe.getUnsafe().getByte(blockAddressOf(offset));
+    }
+
+    @Override
+    public char getChar(long offset) {
+        return Unsafe.getUnsafe().getChar(blockAddressOf(offset));
+    }
+
+    @Override
+    public double getDouble(long offset) {
+        return Unsafe.getUnsafe().getDouble(blockAddressOf(offset));
+    }
+
+    @Override
+    public float getFloat(long offset) {
+        return Unsafe.getUnsafe().getFloat(blockAddressOf(offset));
+    }
+
+    @Override
+    public int getInt(long offset) {
+        return Unsafe.getUnsafe().getInt(blockAddressOf(offset));
+    }
+
+    @Override
+    public long getLong(long offset) {
+        return Unsafe.getUnsafe().getLong(blockAddressOf(offset));
+    }
+
+    @Override
+    public void getLong256(long offset, CharSink sink) {
+        // blocks hold whole values, long256 does not span blocks
+        final long addr = blockAddressOf(offset);
+        Numbers.appendLong256(
+                Unsafe.getUnsafe().getLong(addr),
+                Unsafe.getUnsafe().getLong(addr + Long.BYTES),
+                Unsafe.getUnsafe().getLong(addr + Long.BYTES * 2),
+                Unsafe.getUnsafe().getLong(addr + Long.BYTES * 3),
+                sink
+        );
+    }
+
+    @Override
+    public void getLong256(long offset, Long256Acceptor sink) {
+        final long addr = blockAddressOf(offset);
+        sink.setAll(
+                Unsafe.getUnsafe().getLong(addr),
+                Unsafe.getUnsafe().getLong(addr + Long.BYTES),
+                Unsafe.getUnsafe().getLong(addr + Long.BYTES * 2),
+                Unsafe.getUnsafe().getLong(addr + Long.BYTES * 3)
+        );
+    }
+
+    @Override
+    public long getPageAddress(int pageIndex) {
+        if (pageAddress == 0 && size > 0) {
+            decompressColumn();
+        }
+        return pageAddress;
+    }
+
+    @Override
+    public int getPageCount() {
+        return size > 0 ? 1 : 0;
+    }
+
+    @Override
+    public short getShort(long offset) {
+        return Unsafe.getUnsafe().getShort(blockAddressOf(offset));
+    }
+
+    @Override
+    public long resize(long size) {
+        extend(size);
+        return getPageAddress(0);
+    }
+
+    private long blockAddressOf(long offset) {
+        assert offset < size : "offset=" + offset + ", size=" + size + ", fd=" + fd;
+        if (offset >= lastBlockLo && offset < lastBlockHi) {
+            return lastBlockAddr + offset - lastBlockLo;
+        }
+        if (pageAddress != 0) {
+            return pageAddress + offset;
+        }
+
+        if (cacheAddr == 0) {
+            cacheCapacity = (int) Math.min(BLOCK_CACHE_CAPACITY, (size + blockSize - 1) / blockSize);
+            cacheAddr = Unsafe.malloc(cacheCapacity * blockSize, MemoryTag.NATIVE_TABLE_READER);
+        }
+
+        final long blockIndex = offset / blockSize;
+        int slot = -1;
+        int lruSlot = 0;
+        for (int i = 0; i < cacheCapacity; i++) {
+            if (cacheBlockIndexes[i] == blockIndex) {
+                slot = i;
+                break;
+            }
+            if (cacheTicks[i] < cacheTicks[lruSlot]) {
+                lruSlot = i;
+            }
+        }
+
+        final long blockLo = blockIndex * blockSize;
+        final long blockHi = Math.min(blockLo + blockSize, size);
+        if (slot == -1) {
+            slot = lruSlot;
+            // evicted block is partially overwritten when decoding fails
+            cacheBlockIndexes[slot] = -1;
+            lastBlockHi = 0;
+            ColumnCodec.decompressBlock(compressedAddr, compressedSize, blockIndex, cacheAddr + slot * blockSize, blockHi - blockLo);
+            cacheBlockIndexes[slot] = blockIndex;
+        }
+        cacheTicks[slot] = ++cacheTick;
+        lastBlockLo = blockLo;
+        lastBlockHi = blockHi;
+        lastBlockAddr = cacheAddr + slot * blockSize;
+        return lastBlockAddr + offset - blockLo;
+    }
+
+    private void decompressColumn() {
+        final long address = Unsafe.malloc(size, MemoryTag.NATIVE_TABLE_READER);
+        try {
+            ColumnCodec.decompress(compressedAddr, compressedSize, address, size);
+        } catch (Throwable e) {
+            Unsafe.free(address, size, MemoryTag.NATIVE_TABLE_READER);
+            throw e;
+        }
+        pageAddress = address;
+        // decompressed column serves value reads as well
+        freeBlockCache();
+        LOG.debug().$("decompressed [fd=").$(fd).$(", size=").$(size).I$();
+    }
+
+    private void freeBlockCache() {
+        if (cacheAddr != 0) {
+            Unsafe.free(cacheAddr, cacheCapacity * blockSize, MemoryTag.NATIVE_TABLE_READER);
+            cacheAddr = 0;
+        }
+        cacheCapacity = 0;
+        cacheTick = 0;
+        Arrays.fill(cacheBlockIndexes, -1);
+        Arrays.fill(cacheTicks, 0);
+        lastBlockLo = 0;
+        lastBlockHi = 0;
+    }
+
+    @Override
+    protected void map(FilesFacade ff, LPSZ name, long size) {
+        this.size = size;
+        if (size > 0) {
+            final long fileSize = ff.length(fd);
+            if (fileSize < 0) {
+                close();
+                throw CairoException.critical(ff.errno()).put("could not get length: ").put(name);
+            }
+
+            try {
+                compressedAddr = TableUtils.mapRO(ff, fd, fileSize, memoryTag);
+                compressedSize = fileSize;
+                ColumnCodec.checkColumn(compressedAddr, compressedSize, size);
+                blockSize = ColumnCodec.getBlockSize(compressedAddr);
+            } catch (Throwable e) {
+                close();
+                throw e;
+            }
+        }
+        pageAddress = 0;
+
+        LOG.debug().$("map compressed [file=").$(name).$(", fd=").$(fd).$(", size=").$(size).I$();
+    }
+}
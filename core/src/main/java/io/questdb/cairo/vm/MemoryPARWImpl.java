@@ -24,6 +24,7 @@
 
 package io.questdb.cairo.vm;
 
+import io.questdb.cairo.CairoException;
 import io.questdb.cairo.TableUtils;
 import io.questdb.cairo.vm.api.MemoryARW;
 import io.questdb.griffin.engine.LimitOverflowException;
@@ -49,6 +50,9 @@ public class MemoryPARWImpl implements MemoryARW {
     private final StraddlingPageLong256FromCharSequenceDecoder straddlingPageLong256Decoder = new StraddlingPageLong256FromCharSequenceDecoder();
     private final FloatingDirectCharSink utf8FloatingSink = new FloatingDirectCharSink();
     private final StringSink utf8StrSink = new StringSink();
+    private final StringSink varcharSinkA = new StringSink();
+    private final StringSink varcharSinkB = new StringSink();
+    private final StringSink varcharSinkLen = new StringSink();
     protected int memoryTag;
     private long absolutePointer;
     private long appendPointer = -1;
@@ -355,6 +359,19 @@ public class MemoryPARWImpl implements MemoryARW {
         return getInt(offset);
     }
 
+    public final CharSequence getVarcharA(long offset) {
+        return getVarchar0(offset, varcharSinkA);
+    }
+
+    public final CharSequence getVarcharB(long offset) {
+        return getVarchar0(offset, varcharSinkB);
+    }
+
+    public final int getVarcharLen(long offset) {
+        final CharSequence value = getVarchar0(offset, varcharSinkLen);
+        return value != null ? value.length() : TableUtils.NULL_LEN;
+    }
+
     public boolean isMapped(long offset, long len) {
         int pageIndex = pageIndex(offset);
         int pageEndIndex = pageIndex(offset + len - 1);
@@ -808,6 +825,35 @@ public class MemoryPARWImpl implements MemoryARW {
         return putStr(value);
     }
 
+    @Override
+    public long putVarchar(CharSequence value) {
+        if (value == null) {
+            return putNullBin();
+        }
+        final int len = Chars.utf8EncodedLength(value);
+        putLong(len);
+        if (len < pageHi - appendPointer) {
+            appendPointer += Chars.utf8Encode(value, appendPointer);
+        } else {
+            // the value crosses page boundary, encode it aside and copy page by page
+            final long buf = Unsafe.malloc(len, MemoryTag.NATIVE_DEFAULT);
+            try {
+                Chars.utf8Encode(value, buf);
+                putBinSlit(buf, len);
+            } finally {
+                Unsafe.free(buf, len, MemoryTag.NATIVE_DEFAULT);
+            }
+        }
+        return getAppendOffset();
+    }
+
+    @Override
+    public long putVarchar(long lo, long hi) {
+        putLong(hi - lo);
+        putBlockOfBytes(lo, hi - lo);
+        return getAppendOffset();
+    }
+
     @Override
     public long size() {
         return getAppendOffset();
@@ -990,6 +1036,33 @@ public class MemoryPARWImpl implements MemoryARW {
         } while (true);
     }
 
+    private CharSequence getVarchar0(long offset, StringSink sink) {
+        final long len = getLong(offset);
+        if (len == TableUtils.NULL_LEN) {
+            return null;
+        }
+        sink.clear();
+        final long valueOffset = offset + Long.BYTES;
+        boolean valid;
+        if (len == 0 || isMapped(valueOffset, len)) {
+            final long addr = addressOf(valueOffset);
+            valid = Chars.utf8toUtf16(addr, addr + len, sink);
+        } else {
+            // the value crosses page boundary, gather the bytes first
+            final long buf = Unsafe.malloc(len, MemoryTag.NATIVE_DEFAULT);
+            try {
+                getBin(offset).copyTo(buf, 0, len);
+                valid = Chars.utf8toUtf16(buf, buf + len, sink);
+            } finally {
+                Unsafe.free(buf, len, MemoryTag.NATIVE_DEFAULT);
+            }
+        }
+        if (!valid) {
+            throw CairoException.critical(0).put("invalid UTF-8 in VARCHAR value [offset=").put(offset).put(']');
+        }
+        return sink;
+    }
+
     private void putByteRnd(long offset, byte value) {
         Unsafe.getUnsafe().putByte(jumpTo0(offset) + offsetInPage(offset), value);
     }
@@ -159,6 +159,21 @@ public class NullMemoryMR implements MemoryMR {
         return TableUtils.NULL_LEN;
     }
 
+    @Override
+    public CharSequence getVarcharA(long offset) {
+        return null;
+    }
+
+    @Override
+    public CharSequence getVarcharB(long offset) {
+        return null;
+    }
+
+    @Override
+    public int getVarcharLen(long offset) {
+        return TableUtils.NULL_LEN;
+    }
+
     @Override
     public boolean isDeleted() {
         return true;
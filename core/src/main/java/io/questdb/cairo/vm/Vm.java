@@ -24,6 +24,7 @@
 
 package io.questdb.cairo.vm;
 
+import io.questdb.cairo.CairoConfiguration;
 import io.questdb.cairo.vm.api.*;
 import io.questdb.log.Log;
 import io.questdb.std.Files;
@@ -109,6 +110,14 @@ public class Vm {
         return new MemoryCMARWImpl(ff, name, extendSegmentSize, size, memoryTag, opts);
     }
 
+    public static MemoryMR getMRDecompressInstance() {
+        return new MemoryCMRDecompressImpl();
+    }
+
+    public static MemoryMR getMRDecompressInstance(FilesFacade ff, LPSZ name, long size, int memoryTag) {
+        return new MemoryCMRDecompressImpl(ff, name, size, memoryTag);
+    }
+
     public static MemoryMR getMRInstance() {
         return new MemoryCMRImpl();
     }
@@ -129,6 +138,10 @@ public class Vm {
         return new MemoryCMARWImpl(ff, name, ff.getPageSize(), -1, memoryTag, opts);
     }
 
+    public static MemoryARW getSpillARWInstance(CairoConfiguration configuration, long pageSize, int maxPages, int memoryTag) {
+        return new MemoryCARWSpillImpl(configuration, pageSize, maxPages, memoryTag);
+    }
+
     public static long getStorageLength(int len) {
         return STRING_LENGTH_BYTES + len * 2L;
     }
@@ -88,6 +88,22 @@ public interface MemoryA extends Closeable {
 
     long putStrUtf8AsUtf16(DirectByteCharSequence value, boolean hasNonAsciiChars);
 
+    /**
+     * Appends VARCHAR value, chars are encoded to UTF-8. The value is stored the same way as
+     * BINARY, i.e. as the long byte count followed by the bytes.
+     *
+     * @param value chars to encode, null value is stored as {@link #putNullBin()}
+     * @return append offset after the value
+     */
+    long putVarchar(CharSequence value);
+
+    /**
+     * Appends VARCHAR value from UTF-8 bytes between lo,hi addresses. The bytes are copied as is.
+     *
+     * @return append offset after the value
+     */
+    long putVarchar(long lo, long hi);
+
     void skip(long bytes);
 
     void truncate();
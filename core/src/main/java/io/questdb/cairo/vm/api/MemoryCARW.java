@@ -245,4 +245,23 @@ public interface MemoryCARW extends MemoryCR, MemoryARW, MemoryCA, MemoryMAT {
     default long putStrUtf8AsUtf16(DirectByteCharSequence value, boolean hasNonAsciiChars) {
         throw new UnsupportedOperationException();
     }
+
+    default long putVarchar(CharSequence value) {
+        if (value != null) {
+            final int len = Chars.utf8EncodedLength(value);
+            final long addr = appendAddressFor(len + Long.BYTES);
+            Unsafe.getUnsafe().putLong(addr, len);
+            Chars.utf8Encode(value, addr + Long.BYTES);
+            return getAppendOffset();
+        }
+        return putNullBin();
+    }
+
+    default long putVarchar(long lo, long hi) {
+        final long len = hi - lo;
+        final long addr = appendAddressFor(len + Long.BYTES);
+        Unsafe.getUnsafe().putLong(addr, len);
+        Vect.memcpy(addr + Long.BYTES, lo, len);
+        return getAppendOffset();
+    }
 }
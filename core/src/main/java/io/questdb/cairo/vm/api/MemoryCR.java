@@ -30,6 +30,8 @@ import io.questdb.cairo.vm.Vm;
 import io.questdb.std.*;
 import io.questdb.std.str.AbstractCharSequence;
 import io.questdb.std.str.CharSink;
+import io.questdb.std.str.DirectChars;
+import io.questdb.std.str.StringSink;
 
 //contiguous readable 
 public interface MemoryCR extends MemoryC, MemoryR {
@@ -122,6 +124,35 @@ public interface MemoryCR extends MemoryC, MemoryR {
         return getInt(offset);
     }
 
+    default CharSequence getVarchar(long offset, VarcharView view) {
+        final long addr = addressOf(offset);
+        assert addr > 0;
+        final long len = Unsafe.getUnsafe().getLong(addr);
+        if (len != TableUtils.NULL_LEN) {
+            if (len + Long.BYTES + offset <= size()) {
+                return view.of(addr + Long.BYTES, addr + Long.BYTES + len);
+            }
+            throw CairoException.critical(0)
+                    .put("Varchar is outside of file boundary [offset=")
+                    .put(offset)
+                    .put(", len=")
+                    .put(len)
+                    .put(", size=")
+                    .put(size())
+                    .put(']');
+        }
+        return null;
+    }
+
+    default int getVarcharLen(long offset) {
+        final long addr = addressOf(offset);
+        final long len = Unsafe.getUnsafe().getLong(addr);
+        if (len != TableUtils.NULL_LEN) {
+            return Chars.utf8DecodedLength(addr + Long.BYTES, addr + Long.BYTES + len);
+        }
+        return TableUtils.NULL_LEN;
+    }
+
     class ByteSequenceView implements BinarySequence, Mutable {
         private long address;
         private long len = -1;
@@ -155,7 +186,7 @@ public interface MemoryCR extends MemoryC, MemoryR {
         }
     }
 
-    class CharSequenceView extends AbstractCharSequence implements Mutable {
+    class CharSequenceView extends AbstractCharSequence implements DirectChars, Mutable {
         private long address;
         private int len;
 
@@ -179,5 +210,53 @@ public interface MemoryCR extends MemoryC, MemoryR {
             this.len = len;
             return this;
         }
+
+        @Override
+        public long ptr() {
+            return address;
+        }
+    }
+
+    /**
+     * Exposes UTF-8 bytes as UTF-16 chars. ASCII-only values, which are the majority, are
+     * read straight from memory, other values are decoded into a sink.
+     */
+    class VarcharView extends AbstractCharSequence implements Mutable {
+        private final StringSink sink = new StringSink();
+        private boolean ascii = true;
+        private long lo;
+        private int len;
+
+        @Override
+        public char charAt(int index) {
+            return ascii ? (char) Unsafe.getUnsafe().getByte(lo + index) : sink.charAt(index);
+        }
+
+        @Override
+        public void clear() {
+            ascii = true;
+            len = 0;
+            sink.clear();
+        }
+
+        @Override
+        public int length() {
+            return ascii ? len : sink.length();
+        }
+
+        public VarcharView of(long lo, long hi) {
+            if (Chars.isAscii(lo, hi)) {
+                this.ascii = true;
+                this.lo = lo;
+                this.len = (int) (hi - lo);
+            } else {
+                this.ascii = false;
+                sink.clear();
+                if (!Chars.utf8toUtf16(lo, hi, sink)) {
+                    throw CairoException.critical(0).put("invalid UTF-8 in VARCHAR value");
+                }
+            }
+            return this;
+        }
     }
 }
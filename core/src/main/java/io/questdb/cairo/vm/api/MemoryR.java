@@ -90,6 +90,22 @@ public interface MemoryR extends Closeable {
 
     int getStrLen(long offset);
 
+    /**
+     * Reads VARCHAR value, UTF-8 bytes are exposed as UTF-16 chars. The returned view is reused
+     * by subsequent calls to this method.
+     */
+    CharSequence getVarcharA(long offset);
+
+    /**
+     * Same as {@link #getVarcharA(long)} but uses a separate view, so that two values can be held at once.
+     */
+    CharSequence getVarcharB(long offset);
+
+    /**
+     * @return number of UTF-16 chars in VARCHAR value or {@link io.questdb.cairo.TableUtils#NULL_LEN} for null
+     */
+    int getVarcharLen(long offset);
+
     long offsetInPage(long offset);
 
     int pageIndex(long offset);
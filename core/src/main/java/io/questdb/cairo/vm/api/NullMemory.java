@@ -117,6 +117,16 @@ public class NullMemory implements MemoryMAR, MemoryCARW {
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public CharSequence getVarcharA(long offset) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public CharSequence getVarcharB(long offset) {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public boolean isMapped(long offset, long len) {
         return false;
@@ -389,6 +389,9 @@ public class ApplyWal2TableJob extends AbstractQueueConsumerJob<WalTxnNotificati
 
 
                             isTerminating = runStatus.isTerminating();
+                            // read-ahead of the upcoming segments overlaps their disk reads
+                            // with sorting and merging of the current transaction
+                            writer.prefetchWalTransactions(seqTxn + 1, seqTxn + lookAheadTransactionCount);
                             final long added = processWalCommit(
                                     writer,
                                     walId,
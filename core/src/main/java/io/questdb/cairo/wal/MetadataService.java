@@ -77,6 +77,14 @@ public interface MetadataService {
 
     void changeCacheFlag(int columnIndex, boolean isCacheOn);
 
+    /**
+     * Rewrites fixed-size column files of the partition in compressed form and marks the partition
+     * read-only. The active partition cannot be compressed.
+     *
+     * @param partitionTimestamp timestamp of the partition to compress
+     */
+    void compressPartition(long partitionTimestamp);
+
     AttachDetachStatus detachPartition(long partitionTimestamp);
 
     void dropIndex(CharSequence columnName);
@@ -24,8 +24,10 @@
 
 package io.questdb.cairo.wal;
 
+import io.questdb.cairo.ColumnType;
 import io.questdb.cairo.GeoHashes;
 import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.vm.api.MemoryR;
 import io.questdb.std.*;
 import io.questdb.std.str.CharSink;
 
@@ -189,21 +191,27 @@ public class WalDataRecord implements Record, Sinkable {
     public CharSequence getStr(int col) {
         final long offset = recordIndex * Long.BYTES;
         final int absoluteColumnIndex = getPrimaryColumnIndex(col);
-        return reader.getColumn(absoluteColumnIndex).getStr(reader.getColumn(absoluteColumnIndex + 1).getLong(offset));
+        final MemoryR mem = reader.getColumn(absoluteColumnIndex);
+        final long dataOffset = reader.getColumn(absoluteColumnIndex + 1).getLong(offset);
+        return isVarchar(col) ? mem.getVarcharA(dataOffset) : mem.getStr(dataOffset);
     }
 
     @Override
     public CharSequence getStrB(int col) {
         final long offset = recordIndex * Long.BYTES;
         final int absoluteColumnIndex = getPrimaryColumnIndex(col);
-        return reader.getColumn(absoluteColumnIndex).getStr2(reader.getColumn(absoluteColumnIndex + 1).getLong(offset));
+        final MemoryR mem = reader.getColumn(absoluteColumnIndex);
+        final long dataOffset = reader.getColumn(absoluteColumnIndex + 1).getLong(offset);
+        return isVarchar(col) ? mem.getVarcharB(dataOffset) : mem.getStr2(dataOffset);
     }
 
     @Override
     public int getStrLen(int col) {
         final long offset = recordIndex * Long.BYTES;
         final int absoluteColumnIndex = getPrimaryColumnIndex(col);
-        return reader.getColumn(absoluteColumnIndex).getStrLen(reader.getColumn(absoluteColumnIndex + 1).getLong(offset));
+        final MemoryR mem = reader.getColumn(absoluteColumnIndex);
+        final long dataOffset = reader.getColumn(absoluteColumnIndex + 1).getLong(offset);
+        return isVarchar(col) ? mem.getVarcharLen(dataOffset) : mem.getStrLen(dataOffset);
     }
 
     @Override
@@ -249,4 +257,8 @@ public class WalDataRecord implements Record, Sinkable {
         final int absoluteColumnIndex = getPrimaryColumnIndex(col);
         return reader.getColumn(absoluteColumnIndex).getLong(offset);
     }
+
+    private boolean isVarchar(int col) {
+        return ColumnType.isVarchar(reader.getColumnType(col));
+    }
 }
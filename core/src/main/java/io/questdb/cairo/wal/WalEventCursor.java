@@ -366,6 +366,7 @@ public class WalEventCursor {
                         bindVariableService.setDouble(i, readDouble());
                         break;
                     case ColumnType.STRING:
+                    case ColumnType.VARCHAR:
                         bindVariableService.setStr(i, readStr());
                         break;
                     case ColumnType.BINARY:
@@ -423,6 +424,7 @@ public class WalEventCursor {
                         bindVariableService.setDouble(name, readDouble());
                         break;
                     case ColumnType.STRING:
+                    case ColumnType.VARCHAR:
                         bindVariableService.setStr(name, readStr());
                         break;
                     case ColumnType.BINARY:
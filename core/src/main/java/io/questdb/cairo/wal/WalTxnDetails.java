@@ -24,9 +24,15 @@
 
 package io.questdb.cairo.wal;
 
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.TableUtils;
+import io.questdb.cairo.sql.TableRecordMetadata;
 import io.questdb.cairo.wal.seq.TransactionLogCursor;
+import io.questdb.std.Files;
 import io.questdb.std.FilesFacade;
 import io.questdb.std.LongList;
+import io.questdb.std.Numbers;
+import io.questdb.std.str.LPSZ;
 import io.questdb.std.str.Path;
 
 import static io.questdb.cairo.wal.WalTxnType.DATA;
@@ -36,14 +42,20 @@ import static io.questdb.cairo.wal.WalUtils.WAL_NAME_BASE;
 public class WalTxnDetails {
     public static final long FORCE_FULL_COMMIT = Long.MAX_VALUE;
     public static final long LAST_ROW_COMMIT = Long.MAX_VALUE - 1;
-    public static final int TXN_METADATA_LONGS_SIZE = 3;
+    public static final int TXN_METADATA_LONGS_SIZE = 6;
     private static final int MAX_TIMESTAMP_OFFSET = 2;
     private static final int MIN_TIMESTAMP_OFFSET = 1;
+    private static final int ROW_HI_OFFSET = 5;
+    private static final int ROW_LO_OFFSET = 4;
+    private static final int WAL_SEGMENT_OFFSET = 3;
+    private final FilesFacade ff;
     private final LongList transactionMeta = new LongList();
     private final WalEventReader walEventReader;
+    private long prefetchedSeqTxn = -1;
     private long startSeqTxn = 0;
 
     public WalTxnDetails(FilesFacade ff) {
+        this.ff = ff;
         walEventReader = new WalEventReader(ff);
     }
 
@@ -70,12 +82,51 @@ public class WalTxnDetails {
         return (seqTxn - startSeqTxn) * TXN_METADATA_LONGS_SIZE < transactionMeta.size();
     }
 
+    /**
+     * Hints the OS to read column data of upcoming WAL transactions ahead of time.
+     * The read-ahead runs in the background while the current transaction is sorted
+     * and merged into the table, so that applying the next transactions finds
+     * their segment data in the page cache rather than waiting for disk.
+     *
+     * @param tempPath   path to use, it must be trimmed to the table directory
+     * @param rootLen    length of the table directory path
+     * @param metadata   table metadata to resolve column files
+     * @param fromSeqTxn the first transaction to prefetch, inclusive
+     * @param toSeqTxn   the last transaction to prefetch, inclusive
+     */
+    public void prefetch(Path tempPath, int rootLen, TableRecordMetadata metadata, long fromSeqTxn, long toSeqTxn) {
+        if (Files.POSIX_FADV_WILLNEED < 0 || startSeqTxn < 0) {
+            return;
+        }
+        final long hi = Math.min(toSeqTxn, getLastSeqTxn());
+        try {
+            for (long seqTxn = Math.max(Math.max(prefetchedSeqTxn + 1, fromSeqTxn), startSeqTxn); seqTxn <= hi; seqTxn++) {
+                final int offset = (int) ((seqTxn - startSeqTxn) * TXN_METADATA_LONGS_SIZE);
+                final long walSegment = transactionMeta.getQuick(offset + WAL_SEGMENT_OFFSET);
+                if (walSegment > -1) {
+                    tempPath.trimTo(rootLen).concat(WAL_NAME_BASE).put(Numbers.decodeHighInt(walSegment))
+                            .slash().put(Numbers.decodeLowInt(walSegment));
+                    prefetchSegmentRows(
+                            tempPath,
+                            metadata,
+                            transactionMeta.getQuick(offset + ROW_LO_OFFSET),
+                            transactionMeta.getQuick(offset + ROW_HI_OFFSET)
+                    );
+                }
+            }
+            prefetchedSeqTxn = Math.max(prefetchedSeqTxn, hi);
+        } finally {
+            tempPath.trimTo(rootLen);
+        }
+    }
+
     public void readObservableTxnMeta(
             final Path tempPath,
             final TransactionLogCursor transactionLogCursor,
             final int rootLen,
             final long committedSeqTxn,
-            final long maxCommittedTimestamp
+            final long maxCommittedTimestamp,
+            final long maxSquashRows
     ) {
         if (committedSeqTxn <= getLastSeqTxn()) {
             int shift = (int) (committedSeqTxn - startSeqTxn + 1);
@@ -128,6 +179,9 @@ public class WalTxnDetails {
                         transactionMeta.add(-1); // commit to timestamp
                         transactionMeta.add(commitInfo.getMinTimestamp());
                         transactionMeta.add(commitInfo.getMaxTimestamp());
+                        transactionMeta.add(Numbers.encodeLowHighInts(segmentId, walId));
+                        transactionMeta.add(commitInfo.getStartRowID());
+                        transactionMeta.add(commitInfo.getEndRowID());
                         runningMaxTimestamp = Math.max(commitInfo.getMaxTimestamp(), runningMaxTimestamp);
                         continue;
                     }
@@ -136,6 +190,9 @@ public class WalTxnDetails {
                 transactionMeta.add(FORCE_FULL_COMMIT); // commit to timestamp
                 transactionMeta.add(runningMaxTimestamp); // min timestamp
                 transactionMeta.add(runningMaxTimestamp); // max timestamp
+                transactionMeta.add(-1); // wal segment, nothing to prefetch
+                transactionMeta.add(0); // row lo
+                transactionMeta.add(0); // row hi
             }
         } finally {
             tempPath.trimTo(rootLen);
@@ -167,9 +224,67 @@ public class WalTxnDetails {
             }
         }
 
+        // Squash runs of consecutive data transactions. All but the last transaction of a run
+        // are copied to LAG without committing, so that the run is sorted, merged and committed once.
+        long squashedRows = 0;
+        for (int i = 0, n = transactionMeta.size() - TXN_METADATA_LONGS_SIZE; i < n; i += TXN_METADATA_LONGS_SIZE) {
+            final int next = i + TXN_METADATA_LONGS_SIZE;
+            if (transactionMeta.getQuick(i + WAL_SEGMENT_OFFSET) > -1 && transactionMeta.getQuick(next + WAL_SEGMENT_OFFSET) > -1) {
+                squashedRows += transactionMeta.getQuick(i + ROW_HI_OFFSET) - transactionMeta.getQuick(i + ROW_LO_OFFSET);
+                final long nextRows = transactionMeta.getQuick(next + ROW_HI_OFFSET) - transactionMeta.getQuick(next + ROW_LO_OFFSET);
+                if (squashedRows + nextRows <= maxSquashRows) {
+                    transactionMeta.setQuick(i, Long.MIN_VALUE);
+                    continue;
+                }
+            }
+            squashedRows = 0;
+        }
     }
 
     private long getCommitMaxTimestamp(long seqTxn) {
         return transactionMeta.get((int) ((seqTxn - startSeqTxn) * TXN_METADATA_LONGS_SIZE + MAX_TIMESTAMP_OFFSET));
     }
+
+    private void prefetchFile(LPSZ name, long offset, long len) {
+        final int fd = ff.openRO(name);
+        if (fd > -1) {
+            ff.fadvise(fd, offset, len, Files.POSIX_FADV_WILLNEED);
+            ff.close(fd);
+        }
+    }
+
+    private void prefetchSegmentRows(Path path, TableRecordMetadata metadata, long rowLo, long rowHi) {
+        if (rowHi <= rowLo) {
+            return;
+        }
+        final int pathLen = path.length();
+        final int timestampIndex = metadata.getTimestampIndex();
+        for (int i = 0, n = metadata.getColumnCount(); i < n; i++) {
+            final int columnType = metadata.getColumnType(i);
+            if (columnType < 0) {
+                // deleted column
+                continue;
+            }
+            final CharSequence columnName = metadata.getColumnName(i);
+            if (ColumnType.isVariableLength(columnType)) {
+                // index holds data offsets of the rows, read the boundaries to find the data range
+                final int fd = ff.openRO(TableUtils.iFile(path.trimTo(pathLen), columnName));
+                if (fd < 0) {
+                    continue;
+                }
+                final long dataLo = ff.readNonNegativeLong(fd, rowLo * Long.BYTES);
+                final long dataHi = ff.readNonNegativeLong(fd, rowHi * Long.BYTES);
+                ff.close(fd);
+                if (dataLo > -1) {
+                    // zero length reads ahead to the end of file when the upper boundary is not known
+                    prefetchFile(TableUtils.dFile(path.trimTo(pathLen), columnName), dataLo, dataHi > dataLo ? dataHi - dataLo : 0);
+                }
+            } else {
+                // designated timestamp is stored in WAL along with the row id
+                final int size = i == timestampIndex ? 2 * Long.BYTES : ColumnType.sizeOf(columnType);
+                prefetchFile(TableUtils.dFile(path.trimTo(pathLen), columnName), rowLo * size, (rowHi - rowLo) * size);
+            }
+        }
+        path.trimTo(pathLen);
+    }
 }
@@ -567,6 +567,7 @@ public class WalWriter implements TableWriterAPI {
                 nullers.add(() -> mem1.putInt(SymbolTable.VALUE_IS_NULL));
                 break;
             case ColumnType.BINARY:
+            case ColumnType.VARCHAR:
                 nullers.add(() -> mem2.putLong(mem1.putNullBin()));
                 break;
             case ColumnType.GEOBYTE:
@@ -926,6 +927,7 @@ public class WalWriter implements TableWriterAPI {
     private MemoryMA createSecondaryMem(int columnType) {
         switch (ColumnType.tagOf(columnType)) {
             case ColumnType.BINARY:
+            case ColumnType.VARCHAR:
             case ColumnType.STRING:
                 return Vm.getMAInstance();
             default:
@@ -1247,6 +1249,7 @@ public class WalWriter implements TableWriterAPI {
                 final long m1pos;
                 switch (ColumnType.tagOf(type)) {
                     case ColumnType.BINARY:
+                    case ColumnType.VARCHAR:
                     case ColumnType.STRING:
                         assert mem2 != null;
                         // Jump to the number of records written to read length of var column correctly
@@ -1776,6 +1779,18 @@ public class WalWriter implements TableWriterAPI {
             putLong128(columnIndex, uuid.getLo(), uuid.getHi());
         }
 
+        @Override
+        public void putVarchar(int columnIndex, CharSequence value) {
+            getSecondaryColumn(columnIndex).putLong(getPrimaryColumn(columnIndex).putVarchar(value));
+            setRowValueNotNull(columnIndex);
+        }
+
+        @Override
+        public void putVarcharUtf8(int columnIndex, DirectByteCharSequence value) {
+            getSecondaryColumn(columnIndex).putLong(getPrimaryColumn(columnIndex).putVarchar(value.getLo(), value.getHi()));
+            setRowValueNotNull(columnIndex);
+        }
+
         private MemoryA getPrimaryColumn(int columnIndex) {
             return columns.getQuick(getPrimaryColumnIndex(columnIndex));
         }
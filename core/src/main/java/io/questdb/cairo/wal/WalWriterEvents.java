@@ -127,6 +127,7 @@ class WalWriterEvents implements Closeable {
                 eventMem.putDouble(function.getDouble(null));
                 break;
             case ColumnType.STRING:
+            case ColumnType.VARCHAR:
                 eventMem.putStr(function.getStr(null));
                 break;
             case ColumnType.BINARY:
@@ -73,7 +73,7 @@ public class HttpConnectionContext extends IOContext<HttpConnectionContext> impl
         this.headerParser = new HttpHeaderParser(configuration.getRequestHeaderBufferSize(), csPool);
         this.multipartContentHeaderParser = new HttpHeaderParser(configuration.getMultipartHeaderBufferSize(), csPool);
         this.multipartContentParser = new HttpMultipartContentParser(multipartContentHeaderParser);
-        this.responseSink = new HttpResponseSink(configuration);
+        this.responseSink = new HttpResponseSink(configuration, this);
         this.recvBufferSize = configuration.getRecvBufferSize();
         this.multipartIdleSpinCount = configuration.getMultipartIdleSpinCount();
         this.dumpNetworkTraffic = configuration.getDumpNetworkTraffic();
@@ -407,7 +407,7 @@ public class HttpConnectionContext extends IOContext<HttpConnectionContext> impl
         long spinsRemaining = multipartIdleSpinCount;
 
         while (true) {
-            final int n = nf.recv(fd, buf, bufRemaining);
+            final int n = recv(nf, buf, bufRemaining);
             if (n < 0) {
                 dispatcher.disconnect(this, DISCONNECT_REASON_PEER_DISCONNECT_AT_MULTIPART_RECV);
                 break;
@@ -541,7 +541,7 @@ public class HttpConnectionContext extends IOContext<HttpConnectionContext> impl
             if (newRequest) {
                 while (headerParser.isIncomplete()) {
                     // read headers
-                    read = nf.recv(fd, recvBuffer, recvBufferSize);
+                    read = recv(nf, recvBuffer, recvBufferSize);
                     LOG.debug().$("recv [fd=").$(fd).$(", count=").$(read).$(']').$();
                     if (read < 0) {
                         LOG.debug()
@@ -592,7 +592,7 @@ public class HttpConnectionContext extends IOContext<HttpConnectionContext> impl
                     // we respond back to client. We will disconnect the client when
                     // they abuse protocol. In addition, we will not call processor
                     // if client has disconnected before we had a chance to reply.
-                    read = nf.recv(fd, recvBuffer, 1);
+                    read = recv(nf, recvBuffer, 1);
                     if (read != 0) {
                         dumpBuffer(recvBuffer, read);
                         LOG.info().$("disconnect after request [fd=").$(fd).$(']').$();
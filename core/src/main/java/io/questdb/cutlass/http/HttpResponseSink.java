@@ -45,6 +45,7 @@ public class HttpResponseSink implements Closeable, Mutable {
     private final ChunkedResponseImpl chunkedResponse = new ChunkedResponseImpl();
     private final ChunkBuffer compressOutBuffer;
     private final boolean connectionCloseHeader;
+    private final IOContext<?> context;
     private final boolean dumpNetworkTraffic;
     private final HttpResponseHeaderImpl headerImpl;
     private final String httpVersion;
@@ -64,7 +65,8 @@ public class HttpResponseSink implements Closeable, Mutable {
     private long totalBytesSent = 0;
     private long z_streamp = 0;
 
-    public HttpResponseSink(HttpContextConfiguration configuration) {
+    public HttpResponseSink(HttpContextConfiguration configuration, IOContext<?> context) {
+        this.context = context;
         final int responseBufferSize = Numbers.ceilPow2(configuration.getSendBufferSize());
         this.nf = configuration.getNetworkFacade();
         this.buffer = new ChunkBuffer(responseBufferSize);
@@ -243,7 +245,7 @@ public class HttpResponseSink implements Closeable, Mutable {
     private void sendBuffer(ChunkBuffer sendBuf) throws PeerDisconnectedException, PeerIsSlowToReadException {
         int nSend = (int) sendBuf.getReadNAvailable();
         while (nSend > 0) {
-            int n = nf.send(fd, sendBuf.getReadAddress(), nSend);
+            int n = context.send(nf, sendBuf.getReadAddress(), nSend);
             if (n < 0) {
                 // disconnected
                 LOG.error()
@@ -362,6 +364,26 @@ public class HttpResponseSink implements Closeable, Mutable {
             return _wptr - _rptr;
         }
 
+        /**
+         * Copies the leading run of ASCII chars that need no JSON escaping, as much as fits into
+         * the buffer. Such chars are encoded to UTF-8 as is, one byte per char.
+         *
+         * @return number of chars copied
+         */
+        int putJsonSafeAscii(CharSequence cs, int lo, int hi) {
+            final long len = Math.min(hi - lo, getWriteNAvailable());
+            int i = 0;
+            for (; i < len; i++) {
+                final char c = cs.charAt(lo + i);
+                if (c < 32 || c > 127 || c == '"' || c == '\\') {
+                    break;
+                }
+                Unsafe.getUnsafe().putByte(_wptr + i, (byte) c);
+            }
+            onWrite(i);
+            return i;
+        }
+
         long getWriteAddress(int len) {
             assert _wptr != 0;
             if (getWriteNAvailable() >= len) {
@@ -578,6 +600,11 @@ public class HttpResponseSink implements Closeable, Mutable {
 
     private class ResponseSinkImpl extends AbstractCharSink {
 
+        @Override
+        public CharSink encodeUtf8(CharSequence cs, int lo, int hi) {
+            return super.encodeUtf8(cs, lo + buffer.putJsonSafeAscii(cs, lo, hi), hi);
+        }
+
         @Override
         public CharSink put(CharSequence seq) {
             buffer.put(seq);
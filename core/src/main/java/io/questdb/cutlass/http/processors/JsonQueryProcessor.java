@@ -122,6 +122,8 @@ public class JsonQueryProcessor implements HttpRequestProcessor, Closeable {
         this.queryExecutors.extendAndSet(CompiledQuery.EXPLAIN, this::executeExplain);
         this.queryExecutors.extendAndSet(CompiledQuery.TABLE_RESUME, sendConfirmation);
         this.queryExecutors.extendAndSet(CompiledQuery.TABLE_SET_TYPE, sendConfirmation);
+        this.queryExecutors.extendAndSet(CompiledQuery.REFRESH_MAT_VIEW, sendConfirmation);
+        this.queryExecutors.extendAndSet(CompiledQuery.COPY_TO_STDOUT, JsonQueryProcessor::cannotCopyToStdout);
         // Query types start with 1 instead of 0, so we have to add 1 to the expected size.
         assert this.queryExecutors.size() == (CompiledQuery.TYPES_COUNT + 1);
         this.sqlExecutionContext = sqlExecutionContext;
@@ -289,6 +291,15 @@ public class JsonQueryProcessor implements HttpRequestProcessor, Closeable {
         throw SqlException.$(0, "copy from STDIN is not supported over REST");
     }
 
+    private static void cannotCopyToStdout(
+            JsonQueryProcessorState state,
+            CompiledQuery cc,
+            CharSequence keepAliveHeader
+    ) throws SqlException {
+        Misc.free(cc.getRecordCursorFactory());
+        throw SqlException.$(0, "copy to STDOUT is not supported over REST");
+    }
+
     private static void doResumeSend(
             JsonQueryProcessorState state,
             HttpConnectionContext context,
@@ -569,6 +569,7 @@ public class JsonQueryProcessorState implements Mutable, Closeable {
                     putCharValue(socket, record, columnIdx);
                     break;
                 case ColumnType.STRING:
+                case ColumnType.VARCHAR:
                     putStrValue(socket, record, columnIdx);
                     break;
                 case ColumnType.SYMBOL:
@@ -116,7 +116,7 @@ public class TextQueryProcessor implements HttpRequestProcessor, Closeable {
             );
             if (state.recordCursorFactory == null) {
                 final CompiledQuery cc = compiler.compile(state.query, sqlExecutionContext);
-                if (cc.getType() == CompiledQuery.SELECT || cc.getType() == CompiledQuery.EXPLAIN) {
+                if (cc.getType() == CompiledQuery.SELECT || cc.getType() == CompiledQuery.EXPLAIN || cc.getType() == CompiledQuery.COPY_TO_STDOUT) {
                     state.recordCursorFactory = cc.getRecordCursorFactory();
                 } else if (isExpRequest) {
                     throw SqlException.$(0, "/exp endpoint only accepts SELECT");
@@ -577,6 +577,7 @@ public class TextQueryProcessor implements HttpRequestProcessor, Closeable {
             case ColumnType.RECORD:
                 break;
             case ColumnType.STRING:
+            case ColumnType.VARCHAR:
                 putStringOrNull(socket, rec.getStr(col));
                 break;
             case ColumnType.SYMBOL:
@@ -210,55 +210,7 @@ public class LineTcpConnectionContext extends IOContext<LineTcpConnectionContext
                 .$();
     }
 
-    private void startNewMeasurement() {
-        parser.startNextMeasurement();
-        recvBufStartOfMeasurement = parser.getBufferAddress();
-        // we ran out of buffer, move to start and start parsing new data from socket
-        if (recvBufStartOfMeasurement == recvBufPos) {
-            recvBufPos = recvBufStart;
-            parser.of(recvBufStart);
-            recvBufStartOfMeasurement = recvBufStart;
-        }
-    }
-
-    void addTableUpdateDetails(ByteCharSequence tableNameUtf8, TableUpdateDetails tableUpdateDetails) {
-        tableUpdateDetailsUtf8.put(tableNameUtf8, tableUpdateDetails);
-    }
-
-    /**
-     * Moves incompletely received measurement to start of the receive buffer. Also updates the state of the
-     * context and protocol parser such that all pointers that point to the incomplete measurement will remain
-     * valid. This allows protocol parser to resume execution from the point of where measurement ended abruptly
-     *
-     * @param recvBufStartOfMeasurement the address in receive buffer where incomplete measurement starts. Everything from
-     *                                  this address to end of the receive buffer will be copied to the start of the
-     *                                  receive buffer
-     * @return true if there was an incomplete measurement in the first place
-     */
-    protected final boolean compactBuffer(long recvBufStartOfMeasurement) {
-        assert recvBufStartOfMeasurement <= recvBufPos;
-        if (recvBufStartOfMeasurement > recvBufStart) {
-            final long len = recvBufPos - recvBufStartOfMeasurement;
-            if (len > 0) {
-                Vect.memmove(recvBufStart, recvBufStartOfMeasurement, len); // Use memmove, there may be an overlap
-                final long shl = recvBufStartOfMeasurement - recvBufStart;
-                parser.shl(shl);
-                this.recvBufStartOfMeasurement -= shl;
-            } else {
-                assert len == 0;
-                resetParser();
-            }
-            recvBufPos = recvBufStart + len;
-            return true;
-        }
-        return false;
-    }
-
-    protected CairoSecurityContext getSecurityContext() {
-        return AllowAllCairoSecurityContext.INSTANCE;
-    }
-
-    protected final IOContextResult parseMeasurements(NetworkIOJob netIoJob) {
+    private IOContextResult parseMeasurements0(NetworkIOJob netIoJob) {
         while (true) {
             try {
                 ParseResult rc = goodMeasurement ? parser.parseMeasurement(recvBufPos) : parser.skipMeasurement(recvBufPos);
@@ -329,11 +281,68 @@ public class LineTcpConnectionContext extends IOContext<LineTcpConnectionContext
         }
     }
 
+    private void startNewMeasurement() {
+        parser.startNextMeasurement();
+        recvBufStartOfMeasurement = parser.getBufferAddress();
+        // we ran out of buffer, move to start and start parsing new data from socket
+        if (recvBufStartOfMeasurement == recvBufPos) {
+            recvBufPos = recvBufStart;
+            parser.of(recvBufStart);
+            recvBufStartOfMeasurement = recvBufStart;
+        }
+    }
+
+    void addTableUpdateDetails(ByteCharSequence tableNameUtf8, TableUpdateDetails tableUpdateDetails) {
+        tableUpdateDetailsUtf8.put(tableNameUtf8, tableUpdateDetails);
+    }
+
+    /**
+     * Moves incompletely received measurement to start of the receive buffer. Also updates the state of the
+     * context and protocol parser such that all pointers that point to the incomplete measurement will remain
+     * valid. This allows protocol parser to resume execution from the point of where measurement ended abruptly
+     *
+     * @param recvBufStartOfMeasurement the address in receive buffer where incomplete measurement starts. Everything from
+     *                                  this address to end of the receive buffer will be copied to the start of the
+     *                                  receive buffer
+     * @return true if there was an incomplete measurement in the first place
+     */
+    protected final boolean compactBuffer(long recvBufStartOfMeasurement) {
+        assert recvBufStartOfMeasurement <= recvBufPos;
+        if (recvBufStartOfMeasurement > recvBufStart) {
+            final long len = recvBufPos - recvBufStartOfMeasurement;
+            if (len > 0) {
+                Vect.memmove(recvBufStart, recvBufStartOfMeasurement, len); // Use memmove, there may be an overlap
+                final long shl = recvBufStartOfMeasurement - recvBufStart;
+                parser.shl(shl);
+                this.recvBufStartOfMeasurement -= shl;
+            } else {
+                assert len == 0;
+                resetParser();
+            }
+            recvBufPos = recvBufStart + len;
+            return true;
+        }
+        return false;
+    }
+
+    protected CairoSecurityContext getSecurityContext() {
+        return AllowAllCairoSecurityContext.INSTANCE;
+    }
+
+    protected final IOContextResult parseMeasurements(NetworkIOJob netIoJob) {
+        try {
+            return parseMeasurements0(netIoJob);
+        } finally {
+            // rows of the current batch become visible to writers once parsing stops
+            scheduler.commitBatch(netIoJob);
+        }
+    }
+
     protected boolean read() {
         int bufferRemaining = (int) (recvBufEnd - recvBufPos);
         final int orig = bufferRemaining;
         if (bufferRemaining > 0 && !peerDisconnected) {
-            int bytesRead = nf.recv(fd, recvBufPos, bufferRemaining);
+            int bytesRead = recv(nf, recvBufPos, bufferRemaining);
             if (bytesRead > 0) {
                 recvBufPos += bytesRead;
                 bufferRemaining -= bytesRead;
@@ -37,9 +37,16 @@ import static io.questdb.std.Chars.utf8ToUtf16;
 import static io.questdb.std.Chars.utf8ToUtf16Unchecked;
 
 public class LineTcpEventBuffer {
+    // Every row starts with a header holding row size (int), structure version (long),
+    // timestamp (long) and number of columns (int).
+    static final long ROW_DESIGNATED_TIMESTAMP_OFFSET = Integer.BYTES + Long.BYTES;
+    static final long ROW_HEADER_SIZE = 2 * Integer.BYTES + 2 * Long.BYTES;
+    static final long ROW_NUM_OF_COLUMNS_OFFSET = Integer.BYTES + 2 * Long.BYTES;
+    static final long ROW_STRUCTURE_VERSION_OFFSET = Integer.BYTES;
     private final long bufLo;
     private final long bufSize;
     private final FloatingDirectCharSink tempSink = new FloatingDirectCharSink();
+    private final DirectByteCharSequence tempUtf8Sequence = new DirectByteCharSequence();
 
     public LineTcpEventBuffer(long bufLo, long bufSize) {
         this.bufLo = bufLo;
@@ -173,6 +180,11 @@ public class LineTcpEventBuffer {
         Unsafe.getUnsafe().putInt(address, numOfColumns);
     }
 
+    public void addRowSize(long address, int rowSize) {
+        checkCapacity(address, Integer.BYTES);
+        Unsafe.getUnsafe().putInt(address, rowSize);
+    }
+
     public long addShort(long address, short value) {
         checkCapacity(address, Short.BYTES + Byte.BYTES);
         Unsafe.getUnsafe().putByte(address, LineTcpParser.ENTITY_TYPE_SHORT);
@@ -250,6 +262,23 @@ public class LineTcpEventBuffer {
         return offset + Long.BYTES;
     }
 
+    /**
+     * Add VARCHAR value to the buffer. The value is kept UTF-8 encoded, exactly as it
+     * arrived from the wire, because that is how the VARCHAR column stores it.
+     *
+     * @param address address in the buffer to write to
+     * @param value   UTF-8 encoded value
+     * @return new address
+     */
+    public long addVarchar(long address, DirectByteCharSequence value) {
+        final int len = value.length();
+        checkCapacity(address, Byte.BYTES + Integer.BYTES + len);
+        Unsafe.getUnsafe().putByte(address, LineTcpParser.ENTITY_TYPE_VARCHAR);
+        Unsafe.getUnsafe().putInt(address + Byte.BYTES, len);
+        Vect.memcpy(address + Byte.BYTES + Integer.BYTES, value.getLo(), len);
+        return address + Byte.BYTES + Integer.BYTES + len;
+    }
+
     public long columnValueLength(byte entityType, long offset) {
         CharSequence cs;
         switch (entityType) {
@@ -282,6 +311,8 @@ public class LineTcpEventBuffer {
                 return Double.BYTES;
             case LineTcpParser.ENTITY_TYPE_UUID:
                 return Long128.BYTES;
+            case LineTcpParser.ENTITY_TYPE_VARCHAR:
+                return readInt(offset) + Integer.BYTES;
             case ENTITY_TYPE_NULL:
                 return 0;
             default:
@@ -293,9 +324,8 @@ public class LineTcpEventBuffer {
         return bufLo;
     }
 
-    public long getAddressAfterHeader() {
-        // The header contains structure version (long), timestamp (long) and number of columns (int).
-        return bufLo + 2 * Long.BYTES + Integer.BYTES;
+    public long getAddressAfterHeader(long rowAddress) {
+        return rowAddress + ROW_HEADER_SIZE;
     }
 
     public byte readByte(long address) {
@@ -335,6 +365,12 @@ public class LineTcpEventBuffer {
         return tempSink.asCharSequence(address, address + length * 2L);
     }
 
+    public DirectByteCharSequence readVarchar(long address) {
+        final int len = readInt(address);
+        final long lo = address + Integer.BYTES;
+        return tempUtf8Sequence.of(lo, lo + len);
+    }
+
     private long addString(long address, DirectByteCharSequence value, boolean hasNonAsciiChars, byte entityTypeString) {
         int maxLen = 2 * value.length();
         checkCapacity(address, Byte.BYTES + Integer.BYTES + maxLen);
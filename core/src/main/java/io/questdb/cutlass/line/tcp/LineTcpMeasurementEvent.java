@@ -49,7 +49,9 @@ class LineTcpMeasurementEvent implements Closeable {
     private final int maxColumnNameLength;
     private final boolean stringToCharCastAllowed;
     private final LineProtoTimestampAdapter timestampAdapter;
+    private long appendAddress;
     private boolean commitOnWriterClose;
+    private int rowCount;
     private TableUpdateDetails tableUpdateDetails;
     private int writerWorkerId;
 
@@ -113,6 +115,10 @@ class LineTcpMeasurementEvent implements Closeable {
         return tableUpdateDetails;
     }
 
+    public int getRowCount() {
+        return rowCount;
+    }
+
     public int getWriterWorkerId() {
         return writerWorkerId;
     }
@@ -122,192 +128,35 @@ class LineTcpMeasurementEvent implements Closeable {
     }
 
     void append() throws CommitFailedException {
-        TableWriter.Row row = null;
-        try {
-            TableWriterAPI writer = tableUpdateDetails.getWriter();
-            long offset = buffer.getAddress();
-            final long structureVersion = buffer.readLong(offset);
-            offset += Long.BYTES;
-            if (structureVersion > writer.getStructureVersion()) {
-                // I/O thread has a more recent version of the WAL table metadata than the writer.
-                // Let the WAL writer commit, so that it refreshes its metadata copy.
-                writer.commit();
-            }
-            long timestamp = buffer.readLong(offset);
-            offset += Long.BYTES;
-            if (timestamp == LineTcpParser.NULL_TIMESTAMP) {
-                timestamp = clock.getTicks();
-            }
-            row = writer.newRow(timestamp);
-            final int nEntities = buffer.readInt(offset);
-            offset += Integer.BYTES;
-            final long writerStructureVersion = writer.getStructureVersion();
-            for (int nEntity = 0; nEntity < nEntities; nEntity++) {
-                int colIndex = buffer.readInt(offset);
-                offset += Integer.BYTES;
-                final byte entityType;
-                if (colIndex > -1) {
-                    entityType = buffer.readByte(offset);
-                    offset += Byte.BYTES;
-                    // Did the I/O thread have the latest structure version when it serialized the row?
-                    if (structureVersion < writerStructureVersion) {
-                        // Nope. For WAL tables, it could mean that the column is already dropped. Let's check it.
-                        if (!writer.getMetadata().hasColumn(colIndex)) {
-                            // The column was dropped, so we skip it.
-                            offset += buffer.columnValueLength(entityType, offset);
-                            continue;
-                        }
-                    }
-                } else {
-                    // Column is passed by name, it is possible that
-                    // column is new and has to be added. It is also possible that column
-                    // already exist but the publisher is a little out of date and does not yet
-                    // have column index.
-
-                    // Column name will be UTF16 encoded already
-                    final CharSequence columnName = buffer.readUtf16Chars(offset, -colIndex);
-                    offset += -colIndex * 2L;
-
-                    entityType = buffer.readByte(offset);
-                    offset += Byte.BYTES;
-                    colIndex = writer.getMetadata().getColumnIndexQuiet(columnName);
-                    if (colIndex < 0) {
-                        // we have to cancel "active" row to avoid writer committing when
-                        // column is added
-                        row.cancel();
-                        row = null;
-                        final int colType = defaultColumnTypes.MAPPED_COLUMN_TYPES[entityType];
-                        // we have to commit before adding a new column as WalWriter doesn't do that automatically
-                        writer.commit();
-                        try {
-                            writer.addColumn(columnName, colType);
-                        } catch (CairoException e) {
-                            colIndex = writer.getMetadata().getColumnIndexQuiet(columnName);
-                            if (colIndex < 0) {
-                                // the column is still not there, something must be wrong
-                                throw e;
-                            }
-                            // all good, someone added the column concurrently
-                        }
-
-                        // Seek to beginning of entities
-                        offset = buffer.getAddressAfterHeader();
-                        nEntity = -1;
-                        row = writer.newRow(timestamp);
-                        continue;
-                    }
-                }
-
-                CharSequence cs;
-                switch (entityType) {
-                    case LineTcpParser.ENTITY_TYPE_TAG:
-                        cs = buffer.readUtf16Chars(offset);
-                        row.putSym(colIndex, cs);
-                        offset += cs.length() * 2L + Integer.BYTES;
-                        break;
-                    case LineTcpParser.ENTITY_TYPE_CACHED_TAG:
-                        row.putSymIndex(colIndex, buffer.readInt(offset));
-                        offset += Integer.BYTES;
-                        break;
-                    case LineTcpParser.ENTITY_TYPE_LONG:
-                    case LineTcpParser.ENTITY_TYPE_GEOLONG:
-                        row.putLong(colIndex, buffer.readLong(offset));
-                        offset += Long.BYTES;
-                        break;
-                    case LineTcpParser.ENTITY_TYPE_INTEGER:
-                    case LineTcpParser.ENTITY_TYPE_GEOINT:
-                        row.putInt(colIndex, buffer.readInt(offset));
-                        offset += Integer.BYTES;
-                        break;
-                    case LineTcpParser.ENTITY_TYPE_SHORT:
-                    case LineTcpParser.ENTITY_TYPE_GEOSHORT:
-                        row.putShort(colIndex, buffer.readShort(offset));
-                        offset += Short.BYTES;
-                        break;
-                    case LineTcpParser.ENTITY_TYPE_BYTE:
-                    case LineTcpParser.ENTITY_TYPE_GEOBYTE:
-                        row.putByte(colIndex, buffer.readByte(offset));
-                        offset += Byte.BYTES;
-                        break;
-                    case LineTcpParser.ENTITY_TYPE_DATE:
-                        row.putDate(colIndex, buffer.readLong(offset));
-                        offset += Long.BYTES;
-                        break;
-                    case LineTcpParser.ENTITY_TYPE_DOUBLE:
-                        row.putDouble(colIndex, buffer.readDouble(offset));
-                        offset += Double.BYTES;
-                        break;
-                    case LineTcpParser.ENTITY_TYPE_FLOAT:
-                        row.putFloat(colIndex, buffer.readFloat(offset));
-                        offset += Float.BYTES;
-                        break;
-                    case LineTcpParser.ENTITY_TYPE_BOOLEAN:
-                        row.putBool(colIndex, buffer.readByte(offset) == 1);
-                        offset += Byte.BYTES;
-                        break;
-                    case LineTcpParser.ENTITY_TYPE_STRING:
-                        cs = buffer.readUtf16Chars(offset);
-                        row.putStr(colIndex, cs);
-                        offset += cs.length() * 2L + Integer.BYTES;
-                        break;
-                    case LineTcpParser.ENTITY_TYPE_CHAR:
-                        row.putChar(colIndex, buffer.readChar(offset));
-                        offset += Character.BYTES;
-                        break;
-                    case LineTcpParser.ENTITY_TYPE_LONG256:
-                        cs = buffer.readUtf16Chars(offset);
-                        row.putLong256(colIndex, cs);
-                        offset += cs.length() * 2L + Integer.BYTES;
-                        break;
-                    case LineTcpParser.ENTITY_TYPE_TIMESTAMP:
-                        row.putTimestamp(colIndex, buffer.readLong(offset));
-                        offset += Long.BYTES;
-                        break;
-                    case LineTcpParser.ENTITY_TYPE_UUID:
-                        row.putLong128(colIndex, buffer.readLong(offset), buffer.readLong(offset + Long.BYTES));
-                        offset += Long.BYTES * 2;
-                        break;
-                    case ENTITY_TYPE_NULL:
-                        // ignored, default nulls is used
-                        break;
-                    default:
-                        throw new UnsupportedOperationException("entityType " + entityType + " is not implemented!");
-                }
-            }
-            row.append();
-            tableUpdateDetails.commitIfMaxUncommittedRowsCountReached();
-        } catch (CommitFailedException commitFailedException) {
-            throw commitFailedException;
-        } catch (Throwable th) {
-            LOG.error()
-                    .$("could not write line protocol measurement [tableName=").$(tableUpdateDetails.getTableToken())
-                    .$(", message=").$(th.getMessage())
-                    .$(th)
-                    .I$();
-            if (row != null) {
-                row.cancel();
-            }
+        final TableWriterAPI writer = tableUpdateDetails.getWriter();
+        long rowAddress = buffer.getAddress();
+        for (int i = 0; i < rowCount; i++) {
+            appendRow(writer, rowAddress);
+            rowAddress += buffer.readInt(rowAddress);
         }
     }
 
-    void createMeasurementEvent(
+    /**
+     * Serializes parsed measurement as the next row of the batch. Row is only counted
+     * once fully written, so a failure leaves the batch as it was before the call.
+     */
+    void appendMeasurement(
             CairoSecurityContext securityContext,
             TableUpdateDetails tud,
             LineTcpParser parser,
             int workerId
     ) {
-        writerWorkerId = LineTcpMeasurementEventType.ALL_WRITERS_INCOMPLETE_EVENT;
         final TableUpdateDetails.ThreadLocalDetails localDetails = tud.getThreadLocalDetails(workerId);
         localDetails.resetStateIfNecessary(securityContext);
-        this.tableUpdateDetails = tud;
         long timestamp = parser.getTimestamp();
         if (timestamp != LineTcpParser.NULL_TIMESTAMP) {
             timestamp = timestampAdapter.getMicros(timestamp);
         }
-        buffer.addStructureVersion(buffer.getAddress(), localDetails.getStructureVersion());
-        // timestamp, entitiesWritten are written to the buffer after saving all fields
+        final long rowAddress = appendAddress;
+        buffer.addStructureVersion(rowAddress + LineTcpEventBuffer.ROW_STRUCTURE_VERSION_OFFSET, localDetails.getStructureVersion());
+        // row size, timestamp, entitiesWritten are written to the buffer after saving all fields
         // because their values are worked out while the columns are processed
-        long offset = buffer.getAddressAfterHeader();
+        long offset = buffer.getAddressAfterHeader(rowAddress);
         int entitiesWritten = 0;
         for (int nEntity = 0, n = parser.getEntityCount(); nEntity < n; nEntity++) {
             LineTcpParser.ProtoEntity entity = parser.getEntity(nEntity);
@@ -330,9 +179,9 @@ class LineTcpMeasurementEvent implements Closeable {
                     offset = buffer.addColumnName(offset, colNameUtf16);
                     colType = localDetails.getColumnType(localDetails.getColNameUtf8(), entityType);
                 } else if (!autoCreateNewColumns) {
-                    throw newColumnsNotAllowed(tableUpdateDetails, colNameUtf16);
+                    throw newColumnsNotAllowed(tud, colNameUtf16);
                 } else {
-                    throw invalidColNameError(tableUpdateDetails, colNameUtf16);
+                    throw invalidColNameError(tud, colNameUtf16);
                 }
             } else {
                 // duplicate column, skip
@@ -456,6 +305,10 @@ class LineTcpMeasurementEvent implements Closeable {
                                 offset = buffer.addString(offset, entityValue, parser.hasNonAsciiChars());
                                 break;
 
+                            case ColumnType.VARCHAR:
+                                offset = buffer.addVarchar(offset, entityValue);
+                                break;
+
                             case ColumnType.CHAR:
                                 if (entityValue.length() == 1 && entityValue.byteAt(0) > -1) {
                                     offset = buffer.addChar(offset, entityValue.charAt(0));
@@ -606,14 +459,204 @@ class LineTcpMeasurementEvent implements Closeable {
                     break;
             }
         }
-        buffer.addDesignatedTimestamp(buffer.getAddress() + Long.BYTES, timestamp);
-        buffer.addNumOfColumns(buffer.getAddress() + 2 * Long.BYTES, entitiesWritten);
-        writerWorkerId = tud.getWriterThreadId();
+        buffer.addDesignatedTimestamp(rowAddress + LineTcpEventBuffer.ROW_DESIGNATED_TIMESTAMP_OFFSET, timestamp);
+        buffer.addNumOfColumns(rowAddress + LineTcpEventBuffer.ROW_NUM_OF_COLUMNS_OFFSET, entitiesWritten);
+        buffer.addRowSize(rowAddress, (int) (offset - rowAddress));
+        appendAddress = offset;
+        rowCount++;
+    }
+
+    void beginBatch(TableUpdateDetails tud) {
+        writerWorkerId = LineTcpMeasurementEventType.ALL_WRITERS_INCOMPLETE_EVENT;
+        tableUpdateDetails = tud;
+        appendAddress = buffer.getAddress();
+        rowCount = 0;
+    }
+
+    void commitBatch() {
+        // empty batches are left incomplete, writers skip them
+        if (rowCount > 0) {
+            writerWorkerId = tableUpdateDetails.getWriterThreadId();
+        }
     }
 
     void createWriterReleaseEvent(TableUpdateDetails tableUpdateDetails, boolean commitOnWriterClose) {
         writerWorkerId = LineTcpMeasurementEventType.ALL_WRITERS_RELEASE_WRITER;
+        rowCount = 0;
         this.tableUpdateDetails = tableUpdateDetails;
         this.commitOnWriterClose = commitOnWriterClose;
     }
+
+    private void appendRow(TableWriterAPI writer, long rowAddress) throws CommitFailedException {
+        TableWriter.Row row = null;
+        try {
+            long offset = rowAddress + LineTcpEventBuffer.ROW_STRUCTURE_VERSION_OFFSET;
+            final long structureVersion = buffer.readLong(offset);
+            offset += Long.BYTES;
+            if (structureVersion > writer.getStructureVersion()) {
+                // I/O thread has a more recent version of the WAL table metadata than the writer.
+                // Let the WAL writer commit, so that it refreshes its metadata copy.
+                writer.commit();
+            }
+            long timestamp = buffer.readLong(offset);
+            offset += Long.BYTES;
+            if (timestamp == LineTcpParser.NULL_TIMESTAMP) {
+                timestamp = clock.getTicks();
+            }
+            row = writer.newRow(timestamp);
+            final int nEntities = buffer.readInt(offset);
+            offset += Integer.BYTES;
+            final long writerStructureVersion = writer.getStructureVersion();
+            for (int nEntity = 0; nEntity < nEntities; nEntity++) {
+                int colIndex = buffer.readInt(offset);
+                offset += Integer.BYTES;
+                final byte entityType;
+                if (colIndex > -1) {
+                    entityType = buffer.readByte(offset);
+                    offset += Byte.BYTES;
+                    // Did the I/O thread have the latest structure version when it serialized the row?
+                    if (structureVersion < writerStructureVersion) {
+                        // Nope. For WAL tables, it could mean that the column is already dropped. Let's check it.
+                        if (!writer.getMetadata().hasColumn(colIndex)) {
+                            // The column was dropped, so we skip it.
+                            offset += buffer.columnValueLength(entityType, offset);
+                            continue;
+                        }
+                    }
+                } else {
+                    // Column is passed by name, it is possible that
+                    // column is new and has to be added. It is also possible that column
+                    // already exist but the publisher is a little out of date and does not yet
+                    // have column index.
+
+                    // Column name will be UTF16 encoded already
+                    final CharSequence columnName = buffer.readUtf16Chars(offset, -colIndex);
+                    offset += -colIndex * 2L;
+
+                    entityType = buffer.readByte(offset);
+                    offset += Byte.BYTES;
+                    colIndex = writer.getMetadata().getColumnIndexQuiet(columnName);
+                    if (colIndex < 0) {
+                        // we have to cancel "active" row to avoid writer committing when
+                        // column is added
+                        row.cancel();
+                        row = null;
+                        final int colType = defaultColumnTypes.MAPPED_COLUMN_TYPES[entityType];
+                        // we have to commit before adding a new column as WalWriter doesn't do that automatically
+                        writer.commit();
+                        try {
+                            writer.addColumn(columnName, colType);
+                        } catch (CairoException e) {
+                            colIndex = writer.getMetadata().getColumnIndexQuiet(columnName);
+                            if (colIndex < 0) {
+                                // the column is still not there, something must be wrong
+                                throw e;
+                            }
+                            // all good, someone added the column concurrently
+                        }
+
+                        // Seek to beginning of entities
+                        offset = buffer.getAddressAfterHeader(rowAddress);
+                        nEntity = -1;
+                        row = writer.newRow(timestamp);
+                        continue;
+                    }
+                }
+
+                CharSequence cs;
+                switch (entityType) {
+                    case LineTcpParser.ENTITY_TYPE_TAG:
+                        cs = buffer.readUtf16Chars(offset);
+                        row.putSym(colIndex, cs);
+                        offset += cs.length() * 2L + Integer.BYTES;
+                        break;
+                    case LineTcpParser.ENTITY_TYPE_CACHED_TAG:
+                        row.putSymIndex(colIndex, buffer.readInt(offset));
+                        offset += Integer.BYTES;
+                        break;
+                    case LineTcpParser.ENTITY_TYPE_LONG:
+                    case LineTcpParser.ENTITY_TYPE_GEOLONG:
+                        row.putLong(colIndex, buffer.readLong(offset));
+                        offset += Long.BYTES;
+                        break;
+                    case LineTcpParser.ENTITY_TYPE_INTEGER:
+                    case LineTcpParser.ENTITY_TYPE_GEOINT:
+                        row.putInt(colIndex, buffer.readInt(offset));
+                        offset += Integer.BYTES;
+                        break;
+                    case LineTcpParser.ENTITY_TYPE_SHORT:
+                    case LineTcpParser.ENTITY_TYPE_GEOSHORT:
+                        row.putShort(colIndex, buffer.readShort(offset));
+                        offset += Short.BYTES;
+                        break;
+                    case LineTcpParser.ENTITY_TYPE_BYTE:
+                    case LineTcpParser.ENTITY_TYPE_GEOBYTE:
+                        row.putByte(colIndex, buffer.readByte(offset));
+                        offset += Byte.BYTES;
+                        break;
+                    case LineTcpParser.ENTITY_TYPE_DATE:
+                        row.putDate(colIndex, buffer.readLong(offset));
+                        offset += Long.BYTES;
+                        break;
+                    case LineTcpParser.ENTITY_TYPE_DOUBLE:
+                        row.putDouble(colIndex, buffer.readDouble(offset));
+                        offset += Double.BYTES;
+                        break;
+                    case LineTcpParser.ENTITY_TYPE_FLOAT:
+                        row.putFloat(colIndex, buffer.readFloat(offset));
+                        offset += Float.BYTES;
+                        break;
+                    case LineTcpParser.ENTITY_TYPE_BOOLEAN:
+                        row.putBool(colIndex, buffer.readByte(offset) == 1);
+                        offset += Byte.BYTES;
+                        break;
+                    case LineTcpParser.ENTITY_TYPE_STRING:
+                        cs = buffer.readUtf16Chars(offset);
+                        row.putStr(colIndex, cs);
+                        offset += cs.length() * 2L + Integer.BYTES;
+                        break;
+                    case LineTcpParser.ENTITY_TYPE_CHAR:
+                        row.putChar(colIndex, buffer.readChar(offset));
+                        offset += Character.BYTES;
+                        break;
+                    case LineTcpParser.ENTITY_TYPE_LONG256:
+                        cs = buffer.readUtf16Chars(offset);
+                        row.putLong256(colIndex, cs);
+                        offset += cs.length() * 2L + Integer.BYTES;
+                        break;
+                    case LineTcpParser.ENTITY_TYPE_TIMESTAMP:
+                        row.putTimestamp(colIndex, buffer.readLong(offset));
+                        offset += Long.BYTES;
+                        break;
+                    case LineTcpParser.ENTITY_TYPE_UUID:
+                        row.putLong128(colIndex, buffer.readLong(offset), buffer.readLong(offset + Long.BYTES));
+                        offset += Long.BYTES * 2;
+                        break;
+                    case LineTcpParser.ENTITY_TYPE_VARCHAR:
+                        final DirectByteCharSequence utf8 = buffer.readVarchar(offset);
+                        row.putVarcharUtf8(colIndex, utf8);
+                        offset += utf8.length() + Integer.BYTES;
+                        break;
+                    case ENTITY_TYPE_NULL:
+                        // ignored, default nulls is used
+                        break;
+                    default:
+                        throw new UnsupportedOperationException("entityType " + entityType + " is not implemented!");
+                }
+            }
+            row.append();
+            tableUpdateDetails.commitIfMaxUncommittedRowsCountReached();
+        } catch (CommitFailedException commitFailedException) {
+            throw commitFailedException;
+        } catch (Throwable th) {
+            LOG.error()
+                    .$("could not write line protocol measurement [tableName=").$(tableUpdateDetails.getTableToken())
+                    .$(", message=").$(th.getMessage())
+                    .$(th)
+                    .I$();
+            if (row != null) {
+                row.cancel();
+            }
+        }
+    }
 }
@@ -61,6 +61,10 @@ public class LineTcpMeasurementScheduler implements Closeable {
     private static final Log LOG = LogFactory.getLog(LineTcpMeasurementScheduler.class);
     private final ObjList<TableUpdateDetails>[] assignedTables;
     private final boolean autoCreateNewColumns;
+    // per I/O thread batch that is being filled: claimed queue sequence, writer thread and the event
+    private final LineTcpMeasurementEvent[] batchEvents;
+    private final long[] batchSeqs;
+    private final int[] batchWriterIds;
     private final boolean autoCreateNewTables;
     private final CairoConfiguration cairoConfiguration;
     private final LineTcpReceiverConfiguration configuration;
@@ -96,6 +100,10 @@ public class LineTcpMeasurementScheduler implements Closeable {
         final int ioWorkerPoolSize = ioWorkerPool.getWorkerCount();
         this.netIoJobs = new NetworkIOJob[ioWorkerPoolSize];
         this.tableNameSinks = new StringSink[ioWorkerPoolSize];
+        this.batchEvents = new LineTcpMeasurementEvent[ioWorkerPoolSize];
+        this.batchSeqs = new long[ioWorkerPoolSize];
+        this.batchWriterIds = new int[ioWorkerPoolSize];
+        Arrays.fill(batchSeqs, -1);
         for (int i = 0; i < ioWorkerPoolSize; i++) {
             tableNameSinks[i] = new StringSink();
             NetworkIOJob netIoJob = createNetworkIOJob(dispatcher, i);
@@ -184,6 +192,24 @@ public class LineTcpMeasurementScheduler implements Closeable {
         }
     }
 
+    /**
+     * Publishes rows accumulated by the given I/O thread to the writer queue. Must be called
+     * before the I/O thread stops parsing, since a claimed queue slot holds back the writer.
+     */
+    public void commitBatch(NetworkIOJob netIoJob) {
+        final int ioWorkerId = netIoJob.getWorkerId();
+        final long seq = batchSeqs[ioWorkerId];
+        if (seq > -1) {
+            try {
+                batchEvents[ioWorkerId].commitBatch();
+            } finally {
+                pubSeq[batchWriterIds[ioWorkerId]].done(seq);
+                batchEvents[ioWorkerId] = null;
+                batchSeqs[ioWorkerId] = -1;
+            }
+        }
+    }
+
     public boolean doMaintenance(
             ByteCharSequenceObjHashMap<TableUpdateDetails> tableUpdateDetailsUtf8,
             int readerWorkerId,
@@ -273,6 +299,7 @@ public class LineTcpMeasurementScheduler implements Closeable {
                     tud = getTableUpdateDetailsFromSharedArea(netIoJob, ctx, parser, securityContext);
                 }
             } else if (tud.isWriterInError()) {
+                commitBatch(netIoJob);
                 TableUpdateDetails removed = ctx.removeTableUpdateDetails(measurementName);
                 assert tud == removed;
                 removed.close();
@@ -503,6 +530,10 @@ public class LineTcpMeasurementScheduler implements Closeable {
                                     r.putStrUtf8AsUtf16(columnIndex, entityValue, parser.hasNonAsciiChars());
                                     break;
 
+                                case ColumnType.VARCHAR:
+                                    r.putVarcharUtf8(columnIndex, entityValue);
+                                    break;
+
                                 case ColumnType.CHAR:
                                     if (entityValue.length() == 1 && entityValue.byteAt(0) > -1) {
                                         r.putChar(columnIndex, entityValue.charAt(0));
@@ -638,6 +669,20 @@ public class LineTcpMeasurementScheduler implements Closeable {
         }
     }
 
+    private LineTcpMeasurementEvent beginBatch(int ioWorkerId, TableUpdateDetails tud) {
+        final int writerThreadId = tud.getWriterThreadId();
+        final long seq = getNextPublisherEventSequence(writerThreadId);
+        if (seq > -1) {
+            final LineTcpMeasurementEvent event = queue[writerThreadId].get(seq);
+            event.beginBatch(tud);
+            batchEvents[ioWorkerId] = event;
+            batchSeqs[ioWorkerId] = seq;
+            batchWriterIds[ioWorkerId] = writerThreadId;
+            return event;
+        }
+        return null;
+    }
+
     private void closeLocals(LowerCaseCharSequenceObjHashMap<TableUpdateDetails> tudUtf16) {
         ObjList<CharSequence> tableNames = tudUtf16.keys();
         for (int n = 0, sz = tableNames.size(); n < sz; n++) {
@@ -652,21 +697,34 @@ public class LineTcpMeasurementScheduler implements Closeable {
             LineTcpParser parser,
             TableUpdateDetails tud
     ) {
-        final int writerThreadId = tud.getWriterThreadId();
-        long seq = getNextPublisherEventSequence(writerThreadId);
-        if (seq > -1) {
-            try {
-                if (tud.isWriterInError()) {
-                    throw CairoException.critical(0).put("writer is in error, aborting ILP pipeline");
-                }
-                queue[writerThreadId].get(seq).createMeasurementEvent(securityContext, tud, parser, netIoJob.getWorkerId());
-            } finally {
-                pubSeq[writerThreadId].done(seq);
+        final int ioWorkerId = netIoJob.getWorkerId();
+        LineTcpMeasurementEvent event = batchEvents[ioWorkerId];
+        if (event != null && event.getTableUpdateDetails() != tud) {
+            commitBatch(netIoJob);
+            event = null;
+        }
+        if (event == null && (event = beginBatch(ioWorkerId, tud)) == null) {
+            return true;
+        }
+
+        if (tud.isWriterInError()) {
+            throw CairoException.critical(0).put("writer is in error, aborting ILP pipeline");
+        }
+        try {
+            event.appendMeasurement(securityContext, tud, parser, ioWorkerId);
+        } catch (CairoException e) {
+            if (event.getRowCount() == 0) {
+                throw e;
             }
-            tud.incrementEventsProcessedSinceReshuffle();
-            return false;
+            // the batch may be out of space, retry the row with an empty one
+            commitBatch(netIoJob);
+            if ((event = beginBatch(ioWorkerId, tud)) == null) {
+                return true;
+            }
+            event.appendMeasurement(securityContext, tud, parser, ioWorkerId);
         }
-        return true;
+        tud.incrementEventsProcessedSinceReshuffle();
+        return false;
     }
 
     private TableUpdateDetails getTableUpdateDetailsFromSharedArea(
@@ -35,6 +35,7 @@ import io.questdb.cutlass.text.types.TypeManager;
 import io.questdb.griffin.*;
 import io.questdb.griffin.engine.functions.bind.BindVariableServiceImpl;
 import io.questdb.griffin.engine.ops.UpdateOperation;
+import io.questdb.griffin.model.CopyModel;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
 import io.questdb.mp.SCSequence;
@@ -74,6 +75,8 @@ public class PGConnectionContext extends IOContext<PGConnectionContext> implemen
     public static final String TAG_SET = "SET";
     public static final String TAG_UPDATE = "UPDATE";
     private static final int COMMIT_TRANSACTION = 2;
+    // signature that starts binary COPY output: "PGCOPY\n\377\r\n\0"
+    private static final byte[] COPY_BINARY_SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xff, '\r', '\n', 0};
     private static final int ERROR_TRANSACTION = 3;
     private static final int INIT_CANCEL_REQUEST = 80877102;
     private static final int INIT_GSS_REQUEST = 80877104;
@@ -86,7 +89,10 @@ public class PGConnectionContext extends IOContext<PGConnectionContext> implemen
     private static final byte MESSAGE_TYPE_BIND_COMPLETE = '2';
     private static final byte MESSAGE_TYPE_CLOSE_COMPLETE = '3';
     private static final byte MESSAGE_TYPE_COMMAND_COMPLETE = 'C';
+    private static final byte MESSAGE_TYPE_COPY_DATA = 'd';
+    private static final byte MESSAGE_TYPE_COPY_DONE = 'c';
     private static final byte MESSAGE_TYPE_COPY_IN_RESPONSE = 'G';
+    private static final byte MESSAGE_TYPE_COPY_OUT_RESPONSE = 'H';
     private static final byte MESSAGE_TYPE_DATA_ROW = 'D';
     private static final byte MESSAGE_TYPE_EMPTY_QUERY = 'I';
     private static final byte MESSAGE_TYPE_ERROR_RESPONSE = 'E';
@@ -107,6 +113,8 @@ public class PGConnectionContext extends IOContext<PGConnectionContext> implemen
     private static final int SYNC_DESCRIBE_PORTAL = 4;
     private static final int SYNC_PARSE = 1;
     private static final String WRITER_LOCK_REASON = "pgConnection";
+    //column type tags with format flag of the current result set, resolved once per cursor rather than per value
+    private final IntList activeSelectColumnEncoders = new IntList();
     private final PGAuthenticator authenticator;
     private final BatchCallback batchCallback;
     private final ObjectPool<DirectBinarySequence> binarySequenceParamsPool;
@@ -118,6 +126,7 @@ public class PGConnectionContext extends IOContext<PGConnectionContext> implemen
     private final CharacterStore characterStore;
     private final NetworkSqlExecutionCircuitBreaker circuitBreaker;
     private final int circuitBreakerId;
+    private final StringSink copyCharSink = new StringSink();
     private final DirectByteCharSequence dbcs = new DirectByteCharSequence();
     private final boolean dumpNetworkTraffic;
     private final CairoEngine engine;
@@ -152,8 +161,13 @@ public class PGConnectionContext extends IOContext<PGConnectionContext> implemen
     private int bufferRemainingOffset = 0;
     private int bufferRemainingSize = 0;
     private boolean completed = true;
+    // address of the length field of CopyData message that is being filled with rows, -1 when none is open
+    private long copyDataLenAddress = -1;
+    private int copyFormat;
     private RecordCursor currentCursor = null;
     private RecordCursorFactory currentFactory = null;
+    //size of DataRow message when all columns are fixed size binary values, -1 otherwise
+    private int fixedSizeRowLength = -1;
     private boolean isEmptyQuery = false;
     private boolean isPausedQuery = false;
     private long maxRows;
@@ -182,6 +196,8 @@ public class PGConnectionContext extends IOContext<PGConnectionContext> implemen
     private int transactionState = NO_TRANSACTION;
     private final PGResumeProcessor resumeQueryCompleteRef = this::resumeQueryComplete;
     private final PGResumeProcessor resumeCursorQueryRef = this::resumeCursorQuery;
+    private final PGResumeProcessor resumeCopyOutRef = this::resumeCopyOut;
+    private final PGResumeProcessor resumeCopyDoneRef = this::resumeCopyDone;
     private TypesAndInsert typesAndInsert = null;
     // these references are held by context only for a period of processing single request
     // in PF world this request can span multiple messages, but still, only for one request
@@ -318,6 +334,7 @@ public class PGConnectionContext extends IOContext<PGConnectionContext> implemen
         binarySequenceParamsPool.clear();
         resumeProcessor = null;
         completed = true;
+        copyDataLenAddress = -1;
         clearCursorAndFactory();
         totalReceived = 0;
         typesAndSelectIsCached = true;
@@ -582,6 +599,28 @@ public class PGConnectionContext extends IOContext<PGConnectionContext> implemen
         throw BadProtocolException.INSTANCE;
     }
 
+    private static int getFixedBinaryValueSize(int encoder) {
+        switch (encoder) {
+            case BINARY_TYPE_BOOLEAN:
+                return Byte.BYTES;
+            case BINARY_TYPE_BYTE:
+            case BINARY_TYPE_SHORT:
+                return Short.BYTES;
+            case BINARY_TYPE_INT:
+            case BINARY_TYPE_FLOAT:
+                return Integer.BYTES;
+            case BINARY_TYPE_LONG:
+            case BINARY_TYPE_DOUBLE:
+            case BINARY_TYPE_DATE:
+            case BINARY_TYPE_TIMESTAMP:
+                return Long.BYTES;
+            case BINARY_TYPE_UUID:
+                return 2 * Long.BYTES;
+            default:
+                return -1;
+        }
+    }
+
     private static int getIntUnsafe(long address) {
         return Numbers.bswap(Unsafe.getUnsafe().getInt(address));
     }
@@ -598,6 +637,16 @@ public class PGConnectionContext extends IOContext<PGConnectionContext> implemen
         sink.putLen(addr);
     }
 
+    private static long putFixedSizeLong(long p, long value, boolean notNull) {
+        if (notNull) {
+            putInt(p, Long.BYTES);
+            putLong(p + Integer.BYTES, value);
+            return p + Integer.BYTES + Long.BYTES;
+        }
+        Unsafe.getUnsafe().putInt(p, INT_NULL_X);
+        return p + Integer.BYTES;
+    }
+
     private static void setupBindVariables(long lo, IntList bindVariableTypes, int count) {
         bindVariableTypes.setPos(count);
         for (int i = 0; i < count; i++) {
@@ -657,6 +706,250 @@ public class PGConnectionContext extends IOContext<PGConnectionContext> implemen
         }
     }
 
+    private void appendColumn(Record record, int columnIndex) throws SqlException {
+        switch (activeSelectColumnEncoders.getQuick(columnIndex)) {
+            case BINARY_TYPE_INT:
+                appendIntColumnBin(record, columnIndex);
+                break;
+            case ColumnType.INT:
+                appendIntCol(record, columnIndex);
+                break;
+            case ColumnType.STRING:
+            case BINARY_TYPE_STRING:
+            case ColumnType.VARCHAR:
+            case BINARY_TYPE_VARCHAR:
+                appendStrColumn(record, columnIndex);
+                break;
+            case ColumnType.SYMBOL:
+            case BINARY_TYPE_SYMBOL:
+                appendSymbolColumn(record, columnIndex);
+                break;
+            case BINARY_TYPE_LONG:
+                appendLongColumnBin(record, columnIndex);
+                break;
+            case ColumnType.LONG:
+                appendLongColumn(record, columnIndex);
+                break;
+            case ColumnType.SHORT:
+                appendShortColumn(record, columnIndex);
+                break;
+            case BINARY_TYPE_DOUBLE:
+                appendDoubleColumnBin(record, columnIndex);
+                break;
+            case ColumnType.DOUBLE:
+                appendDoubleColumn(record, columnIndex);
+                break;
+            case BINARY_TYPE_FLOAT:
+                appendFloatColumnBin(record, columnIndex);
+                break;
+            case BINARY_TYPE_SHORT:
+                appendShortColumnBin(record, columnIndex);
+                break;
+            case BINARY_TYPE_DATE:
+                appendDateColumnBin(record, columnIndex);
+                break;
+            case BINARY_TYPE_TIMESTAMP:
+                appendTimestampColumnBin(record, columnIndex);
+                break;
+            case BINARY_TYPE_BYTE:
+                appendByteColumnBin(record, columnIndex);
+                break;
+            case BINARY_TYPE_UUID:
+                appendUuidColumnBin(record, columnIndex);
+                break;
+            case ColumnType.FLOAT:
+                appendFloatColumn(record, columnIndex);
+                break;
+            case ColumnType.TIMESTAMP:
+                appendTimestampColumn(record, columnIndex);
+                break;
+            case ColumnType.DATE:
+                appendDateColumn(record, columnIndex);
+                break;
+            case ColumnType.BOOLEAN:
+                appendBooleanColumn(record, columnIndex);
+                break;
+            case BINARY_TYPE_BOOLEAN:
+                appendBooleanColumnBin(record, columnIndex);
+                break;
+            case ColumnType.BYTE:
+                appendByteColumn(record, columnIndex);
+                break;
+            case ColumnType.BINARY:
+            case BINARY_TYPE_BINARY:
+                appendBinColumn(record, columnIndex);
+                break;
+            case ColumnType.CHAR:
+            case BINARY_TYPE_CHAR:
+                appendCharColumn(record, columnIndex);
+                break;
+            case ColumnType.LONG256:
+            case BINARY_TYPE_LONG256:
+                appendLong256Column(record, columnIndex);
+                break;
+            case ColumnType.GEOBYTE:
+                putGeoHashStringByteValue(record, columnIndex, activeSelectColumnTypes.getQuick(2 * columnIndex + 1));
+                break;
+            case ColumnType.GEOSHORT:
+                putGeoHashStringShortValue(record, columnIndex, activeSelectColumnTypes.getQuick(2 * columnIndex + 1));
+                break;
+            case ColumnType.GEOINT:
+                putGeoHashStringIntValue(record, columnIndex, activeSelectColumnTypes.getQuick(2 * columnIndex + 1));
+                break;
+            case ColumnType.GEOLONG:
+                putGeoHashStringLongValue(record, columnIndex, activeSelectColumnTypes.getQuick(2 * columnIndex + 1));
+                break;
+            case ColumnType.NULL:
+                responseAsciiSink.setNullValue();
+                break;
+            case ColumnType.UUID:
+                appendUuidColumn(record, columnIndex);
+                break;
+            default:
+                assert false;
+        }
+    }
+
+    private void appendCopyColumn(Record record, int columnIndex) throws SqlException {
+        switch (activeSelectColumnEncoders.getQuick(columnIndex)) {
+            case ColumnType.STRING:
+            case ColumnType.VARCHAR:
+                appendCopyValue(record.getStr(columnIndex));
+                break;
+            case ColumnType.SYMBOL:
+                appendCopyValue(record.getSym(columnIndex));
+                break;
+            case ColumnType.CHAR:
+                final char charValue = record.getChar(columnIndex);
+                if (charValue == 0) {
+                    appendCopyNull();
+                } else {
+                    copyCharSink.clear();
+                    copyCharSink.put(charValue);
+                    appendCopyValue(copyCharSink);
+                }
+                break;
+            case ColumnType.BINARY:
+                appendCopyHex(record.getBin(columnIndex), columnIndex);
+                break;
+            default:
+                // remaining types print without characters that require escaping,
+                // so the text value is copied over its length prefix
+                final long lo = sendBufferPtr;
+                appendColumn(record, columnIndex);
+                final int len = getIntUnsafe(lo);
+                if (len < 0) {
+                    sendBufferPtr = lo;
+                    appendCopyNull();
+                } else {
+                    Vect.memmove(lo, lo + Integer.BYTES, len);
+                    sendBufferPtr = lo + len;
+                }
+                break;
+        }
+    }
+
+    private void appendCopyHex(BinarySequence sequence, int columnIndex) throws SqlException {
+        if (sequence == null) {
+            appendCopyNull();
+            return;
+        }
+        final long blobSize = sequence.length();
+        if (blobSize >= maxBlobSizeOnQuery) {
+            throw SqlException.position(0)
+                    .put("blob is too large [blobSize=").put(blobSize)
+                    .put(", max=").put(maxBlobSizeOnQuery)
+                    .put(", columnIndex=").put(columnIndex)
+                    .put(']');
+        }
+        if (copyFormat == CopyModel.COPY_FORMAT_TEXT) {
+            responseAsciiSink.put('\\');
+        }
+        responseAsciiSink.put('\\').put('x');
+        for (long i = 0; i < blobSize; i++) {
+            final byte b = sequence.byteAt(i);
+            responseAsciiSink.put(Numbers.hexDigits[(b >> 4) & 0xf]).put(Numbers.hexDigits[b & 0xf]);
+        }
+    }
+
+    private void appendCopyNull() {
+        if (copyFormat == CopyModel.COPY_FORMAT_TEXT) {
+            responseAsciiSink.put('\\').put('N');
+        }
+    }
+
+    private void appendCopyRecord(Record record, int columnCount) throws SqlException {
+        if (copyFormat == CopyModel.COPY_FORMAT_BINARY) {
+            // binary tuple is the DataRow payload: field count followed by length-prefixed values
+            responseAsciiSink.putNetworkShort((short) columnCount);
+            for (int i = 0; i < columnCount; i++) {
+                appendColumn(record, i);
+            }
+        } else {
+            final char delimiter = copyFormat == CopyModel.COPY_FORMAT_CSV ? ',' : '\t';
+            for (int i = 0; i < columnCount; i++) {
+                if (i > 0) {
+                    responseAsciiSink.put(delimiter);
+                }
+                appendCopyColumn(record, i);
+            }
+            responseAsciiSink.put('\n');
+        }
+        rowCount++;
+    }
+
+    private void appendCopyValue(CharSequence value) {
+        if (value == null) {
+            appendCopyNull();
+            return;
+        }
+        final int len = value.length();
+        int lo = 0;
+        if (copyFormat == CopyModel.COPY_FORMAT_CSV) {
+            // empty string is quoted to tell it apart from null
+            boolean quote = len == 0;
+            for (int i = 0; i < len && !quote; i++) {
+                final char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                responseAsciiSink.encodeUtf8(value);
+                return;
+            }
+            responseAsciiSink.put('"');
+            for (int i = 0; i < len; i++) {
+                if (value.charAt(i) == '"') {
+                    responseAsciiSink.encodeUtf8(value, lo, i + 1).put('"');
+                    lo = i + 1;
+                }
+            }
+            responseAsciiSink.encodeUtf8(value, lo, len).put('"');
+        } else {
+            for (int i = 0; i < len; i++) {
+                final char escaped;
+                switch (value.charAt(i)) {
+                    case '\\':
+                        escaped = '\\';
+                        break;
+                    case '\t':
+                        escaped = 't';
+                        break;
+                    case '\n':
+                        escaped = 'n';
+                        break;
+                    case '\r':
+                        escaped = 'r';
+                        break;
+                    default:
+                        continue;
+                }
+                responseAsciiSink.encodeUtf8(value, lo, i).put('\\').put(escaped);
+                lo = i + 1;
+            }
+            responseAsciiSink.encodeUtf8(value, lo, len);
+        }
+    }
+
     private void appendDateColumn(Record record, int columnIndex) {
         final long longValue = record.getDate(columnIndex);
         if (longValue != Numbers.LONG_NaN) {
@@ -700,6 +993,98 @@ public class PGConnectionContext extends IOContext<PGConnectionContext> implemen
         }
     }
 
+    private void appendFixedSizeRecord(Record record, int columnCount) {
+        // the whole row is checked for space once, values are written without per-value checks
+        responseAsciiSink.ensureCapacity(fixedSizeRowLength);
+        final long lenAddress = sendBufferPtr + Byte.BYTES;
+        Unsafe.getUnsafe().putByte(sendBufferPtr, MESSAGE_TYPE_DATA_ROW);
+        putShort(lenAddress + Integer.BYTES, (short) columnCount);
+        long p = lenAddress + Integer.BYTES + Short.BYTES;
+        for (int i = 0; i < columnCount; i++) {
+            switch (activeSelectColumnEncoders.getQuick(i)) {
+                case BINARY_TYPE_INT: {
+                    final int value = record.getInt(i);
+                    if (value != Numbers.INT_NaN) {
+                        Unsafe.getUnsafe().putInt(p, INT_BYTES_X);
+                        putInt(p + Integer.BYTES, value);
+                        p += Integer.BYTES + Integer.BYTES;
+                    } else {
+                        Unsafe.getUnsafe().putInt(p, INT_NULL_X);
+                        p += Integer.BYTES;
+                    }
+                    break;
+                }
+                case BINARY_TYPE_LONG: {
+                    final long value = record.getLong(i);
+                    p = putFixedSizeLong(p, value, value != Numbers.LONG_NaN);
+                    break;
+                }
+                case BINARY_TYPE_DOUBLE: {
+                    final double value = record.getDouble(i);
+                    p = putFixedSizeLong(p, Double.doubleToLongBits(value), value == value);
+                    break;
+                }
+                case BINARY_TYPE_FLOAT: {
+                    final float value = record.getFloat(i);
+                    if (value == value) {
+                        putInt(p, Float.BYTES);
+                        putInt(p + Integer.BYTES, Float.floatToIntBits(value));
+                        p += Integer.BYTES + Float.BYTES;
+                    } else {
+                        Unsafe.getUnsafe().putInt(p, INT_NULL_X);
+                        p += Integer.BYTES;
+                    }
+                    break;
+                }
+                case BINARY_TYPE_SHORT:
+                    putInt(p, Short.BYTES);
+                    putShort(p + Integer.BYTES, record.getShort(i));
+                    p += Integer.BYTES + Short.BYTES;
+                    break;
+                case BINARY_TYPE_BYTE:
+                    putInt(p, Short.BYTES);
+                    putShort(p + Integer.BYTES, record.getByte(i));
+                    p += Integer.BYTES + Short.BYTES;
+                    break;
+                case BINARY_TYPE_BOOLEAN:
+                    putInt(p, Byte.BYTES);
+                    Unsafe.getUnsafe().putByte(p + Integer.BYTES, record.getBool(i) ? (byte) 1 : (byte) 0);
+                    p += Integer.BYTES + Byte.BYTES;
+                    break;
+                case BINARY_TYPE_DATE: {
+                    final long value = record.getLong(i);
+                    // PG epoch starts at 2000 rather than 1970
+                    p = putFixedSizeLong(p, value * 1000 - Numbers.JULIAN_EPOCH_OFFSET_USEC, value != Numbers.LONG_NaN);
+                    break;
+                }
+                case BINARY_TYPE_TIMESTAMP: {
+                    final long value = record.getLong(i);
+                    p = putFixedSizeLong(p, value - Numbers.JULIAN_EPOCH_OFFSET_USEC, value != Numbers.LONG_NaN);
+                    break;
+                }
+                case BINARY_TYPE_UUID: {
+                    final long lo = record.getLong128Lo(i);
+                    final long hi = record.getLong128Hi(i);
+                    if (Uuid.isNull(lo, hi)) {
+                        Unsafe.getUnsafe().putInt(p, INT_NULL_X);
+                        p += Integer.BYTES;
+                    } else {
+                        putInt(p, Long.BYTES * 2);
+                        putLong(p + Integer.BYTES, hi);
+                        putLong(p + Integer.BYTES + Long.BYTES, lo);
+                        p += Integer.BYTES + Long.BYTES * 2;
+                    }
+                    break;
+                }
+                default:
+                    assert false;
+            }
+        }
+        putInt(lenAddress, (int) (p - lenAddress));
+        sendBufferPtr = p;
+        rowCount++;
+    }
+
     private void appendFloatColumn(Record record, int columnIndex) {
         final float floatValue = record.getFloat(columnIndex);
         if (floatValue == floatValue) {
@@ -785,114 +1170,15 @@ public class PGConnectionContext extends IOContext<PGConnectionContext> implemen
     }
 
     private void appendRecord(Record record, int columnCount) throws SqlException {
+        if (fixedSizeRowLength > -1) {
+            appendFixedSizeRecord(record, columnCount);
+            return;
+        }
         responseAsciiSink.put(MESSAGE_TYPE_DATA_ROW); // data
         final long offset = responseAsciiSink.skip();
         responseAsciiSink.putNetworkShort((short) columnCount);
         for (int i = 0; i < columnCount; i++) {
-            final int type = activeSelectColumnTypes.getQuick(2 * i);
-            final short columnBinaryFlag = getColumnBinaryFlag(type);
-            final int typeTag = ColumnType.tagOf(type);
-
-            final int tagWithFlag = toColumnBinaryType(columnBinaryFlag, typeTag);
-            switch (tagWithFlag) {
-                case BINARY_TYPE_INT:
-                    appendIntColumnBin(record, i);
-                    break;
-                case ColumnType.INT:
-                    appendIntCol(record, i);
-                    break;
-                case ColumnType.STRING:
-                case BINARY_TYPE_STRING:
-                    appendStrColumn(record, i);
-                    break;
-                case ColumnType.SYMBOL:
-                case BINARY_TYPE_SYMBOL:
-                    appendSymbolColumn(record, i);
-                    break;
-                case BINARY_TYPE_LONG:
-                    appendLongColumnBin(record, i);
-                    break;
-                case ColumnType.LONG:
-                    appendLongColumn(record, i);
-                    break;
-                case ColumnType.SHORT:
-                    appendShortColumn(record, i);
-                    break;
-                case BINARY_TYPE_DOUBLE:
-                    appendDoubleColumnBin(record, i);
-                    break;
-                case ColumnType.DOUBLE:
-                    appendDoubleColumn(record, i);
-                    break;
-                case BINARY_TYPE_FLOAT:
-                    appendFloatColumnBin(record, i);
-                    break;
-                case BINARY_TYPE_SHORT:
-                    appendShortColumnBin(record, i);
-                    break;
-                case BINARY_TYPE_DATE:
-                    appendDateColumnBin(record, i);
-                    break;
-                case BINARY_TYPE_TIMESTAMP:
-                    appendTimestampColumnBin(record, i);
-                    break;
-                case BINARY_TYPE_BYTE:
-                    appendByteColumnBin(record, i);
-                    break;
-                case BINARY_TYPE_UUID:
-                    appendUuidColumnBin(record, i);
-                    break;
-                case ColumnType.FLOAT:
-                    appendFloatColumn(record, i);
-                    break;
-                case ColumnType.TIMESTAMP:
-                    appendTimestampColumn(record, i);
-                    break;
-                case ColumnType.DATE:
-                    appendDateColumn(record, i);
-                    break;
-                case ColumnType.BOOLEAN:
-                    appendBooleanColumn(record, i);
-                    break;
-                case BINARY_TYPE_BOOLEAN:
-                    appendBooleanColumnBin(record, i);
-                    break;
-                case ColumnType.BYTE:
-                    appendByteColumn(record, i);
-                    break;
-                case ColumnType.BINARY:
-                case BINARY_TYPE_BINARY:
-                    appendBinColumn(record, i);
-                    break;
-                case ColumnType.CHAR:
-                case BINARY_TYPE_CHAR:
-                    appendCharColumn(record, i);
-                    break;
-                case ColumnType.LONG256:
-                case BINARY_TYPE_LONG256:
-                    appendLong256Column(record, i);
-                    break;
-                case ColumnType.GEOBYTE:
-                    putGeoHashStringByteValue(record, i, activeSelectColumnTypes.getQuick(2 * i + 1));
-                    break;
-                case ColumnType.GEOSHORT:
-                    putGeoHashStringShortValue(record, i, activeSelectColumnTypes.getQuick(2 * i + 1));
-                    break;
-                case ColumnType.GEOINT:
-                    putGeoHashStringIntValue(record, i, activeSelectColumnTypes.getQuick(2 * i + 1));
-                    break;
-                case ColumnType.GEOLONG:
-                    putGeoHashStringLongValue(record, i, activeSelectColumnTypes.getQuick(2 * i + 1));
-                    break;
-                case ColumnType.NULL:
-                    responseAsciiSink.setNullValue();
-                    break;
-                case ColumnType.UUID:
-                    appendUuidColumn(record, i);
-                    break;
-                default:
-                    assert false;
-            }
+            appendColumn(record, i);
         }
         responseAsciiSink.putLen(offset);
         rowCount++;
@@ -910,6 +1196,16 @@ public class PGConnectionContext extends IOContext<PGConnectionContext> implemen
         responseAsciiSink.putNetworkShort(value);
     }
 
+    private void appendSingleCopyRecord(Record record, int columnCount) throws SqlException {
+        try {
+            appendCopyRecord(record, columnCount);
+        } catch (NoSpaceLeftInResponseBufferException e1) {
+            // buffer is released by the caller, it ends the copy with an error
+            LOG.error().$("not enough space in buffer for copy data [buffer=").$(sendBufferSize).I$();
+            throw CairoException.critical(0).put("server configuration error: not enough space in send buffer for row data");
+        }
+    }
+
     private void appendSingleRecord(Record record, int columnCount) throws SqlException {
         try {
             appendRecord(record, columnCount);
@@ -1152,6 +1448,18 @@ public class PGConnectionContext extends IOContext<PGConnectionContext> implemen
         }
     }
 
+    private void closeCopyData() {
+        if (copyDataLenAddress != -1) {
+            if (sendBufferPtr == copyDataLenAddress + Integer.BYTES) {
+                // do not send empty CopyData message
+                sendBufferPtr = copyDataLenAddress - Byte.BYTES;
+            } else {
+                responseAsciiSink.putLen(copyDataLenAddress);
+            }
+            copyDataLenAddress = -1;
+        }
+    }
+
     private boolean compileQuery(@Transient SqlCompiler compiler) throws SqlException {
         if (queryText != null && queryText.length() > 0) {
 
@@ -1286,8 +1594,8 @@ public class PGConnectionContext extends IOContext<PGConnectionContext> implemen
         int remaining = bufferSize;
 
         while (remaining > 0) {
-            int m = nf.send(
-                    getFd(),
+            int m = send(
+                    nf,
                     sendBuffer + offset,
                     remaining
             );
@@ -1565,6 +1873,11 @@ public class PGConnectionContext extends IOContext<PGConnectionContext> implemen
      * in the buffer they need to be passed again in parse function along with
      * any additional bytes received
      */
+    private void openCopyData() {
+        responseAsciiSink.put(MESSAGE_TYPE_COPY_DATA);
+        copyDataLenAddress = responseAsciiSink.skip();
+    }
+
     private void parse(
             long address,
             int len,
@@ -1721,6 +2034,32 @@ public class PGConnectionContext extends IOContext<PGConnectionContext> implemen
         responseAsciiSink.putIntDirect(INT_BYTES_X);
     }
 
+    private void prepareCopyDone() {
+        if (copyFormat == CopyModel.COPY_FORMAT_BINARY) {
+            if (copyDataLenAddress == -1) {
+                openCopyData();
+            }
+            // file trailer
+            responseAsciiSink.putNetworkShort((short) -1);
+        }
+        closeCopyData();
+        responseAsciiSink.put(MESSAGE_TYPE_COPY_DONE);
+        responseAsciiSink.putNetworkInt(Integer.BYTES);
+        prepareCommandComplete(true);
+    }
+
+    private void prepareCopyOutResponse(int columnCount) {
+        final short format = (short) (copyFormat == CopyModel.COPY_FORMAT_BINARY ? 1 : 0);
+        responseAsciiSink.put(MESSAGE_TYPE_COPY_OUT_RESPONSE);
+        final long addr = responseAsciiSink.skip();
+        responseAsciiSink.put((byte) format);
+        responseAsciiSink.putNetworkShort((short) columnCount);
+        for (int i = 0; i < columnCount; i++) {
+            responseAsciiSink.putNetworkShort(format);
+        }
+        responseAsciiSink.putLen(addr);
+    }
+
     private void prepareDescribePortalResponse() {
         if (typesAndSelect != null) {
             try {
@@ -1899,6 +2238,20 @@ public class PGConnectionContext extends IOContext<PGConnectionContext> implemen
         sink.putLen(addr);
     }
 
+    private void prepareRowEncoders(int columnCount) {
+        activeSelectColumnEncoders.setPos(columnCount);
+        // message type, message length and column count
+        int rowLength = Byte.BYTES + Integer.BYTES + Short.BYTES;
+        for (int i = 0; i < columnCount; i++) {
+            final int type = activeSelectColumnTypes.getQuick(2 * i);
+            final int encoder = toColumnBinaryType(getColumnBinaryFlag(type), ColumnType.tagOf(type));
+            activeSelectColumnEncoders.setQuick(i, encoder);
+            final int valueSize = getFixedBinaryValueSize(encoder);
+            rowLength = rowLength > -1 && valueSize > -1 ? rowLength + Integer.BYTES + valueSize : -1;
+        }
+        fixedSizeRowLength = rowLength;
+    }
+
     private void prepareSslResponse() {
         responseAsciiSink.put('N');
     }
@@ -2107,6 +2460,10 @@ public class PGConnectionContext extends IOContext<PGConnectionContext> implemen
                 }
                 queryTag = TAG_COPY;
                 break;
+            case CompiledQuery.COPY_TO_STDOUT:
+                // COPY sub-protocol is started by simple query only, see BatchCallback.postCompile()
+                Misc.free(cq.getRecordCursorFactory());
+                throw SqlException.$(0, "COPY TO STDOUT is only supported by the simple query protocol");
             case CompiledQuery.SET:
                 queryTag = TAG_SET;
                 break;
@@ -2525,6 +2882,23 @@ public class PGConnectionContext extends IOContext<PGConnectionContext> implemen
         prepareCommandComplete(true);
     }
 
+    private void resumeCopyDone(boolean queryWasPaused) throws PeerDisconnectedException, PeerIsSlowToReadException {
+        prepareCopyDone();
+        sendReadyForNewQuery();
+    }
+
+    private void resumeCopyOut(boolean queryWasPaused) throws PeerDisconnectedException, PeerIsSlowToReadException, QueryPausedException, SqlException {
+        final Record record = currentCursor.getRecord();
+        final int columnCount = currentFactory.getMetadata().getColumnCount();
+        if (!queryWasPaused) {
+            openCopyData();
+        }
+        responseAsciiSink.bookmark();
+        // when we resume after the buffer was sent, the last record has to be written again
+        sendCopyOut0(record, columnCount, !queryWasPaused);
+        sendReadyForNewQuery();
+    }
+
     private void resumeCursorExecute(boolean queryWasPaused) throws PeerDisconnectedException, PeerIsSlowToReadException, QueryPausedException, SqlException {
         final Record record = currentCursor.getRecord();
         final int columnCount = currentFactory.getMetadata().getColumnCount();
@@ -2564,7 +2938,7 @@ public class PGConnectionContext extends IOContext<PGConnectionContext> implemen
         responseAsciiSink.reset();
     }
 
-    // This method is currently unused. it's used for the COPY sub-protocol, which is currently not implemented.
+    // This method is currently unused. it's used for the COPY FROM STDIN sub-protocol, which is currently not implemented.
     // It's left here so when we add the sub-protocol later we won't need to reimplemented it.
     // We could keep it just in git history, but chances are nobody would recall to search for it there
     private void sendCopyInResponse(CairoEngine engine, TextLoader textLoader) throws PeerDisconnectedException, PeerIsSlowToReadException {
@@ -2596,6 +2970,85 @@ public class PGConnectionContext extends IOContext<PGConnectionContext> implemen
         sendAndReset();
     }
 
+    private void sendCopyOut(boolean header) throws PeerDisconnectedException, PeerIsSlowToReadException, QueryPausedException, SqlException {
+        rowCount = 0;
+        final Record record = currentCursor.getRecord();
+        final RecordMetadata metadata = currentFactory.getMetadata();
+        final int columnCount = metadata.getColumnCount();
+        resumeProcessor = resumeCopyOutRef;
+        prepareRowEncoders(columnCount);
+        prepareCopyOutResponse(columnCount);
+        // rows are packed into CopyData messages as large as the send buffer
+        openCopyData();
+        if (copyFormat == CopyModel.COPY_FORMAT_BINARY) {
+            for (int i = 0, n = COPY_BINARY_SIGNATURE.length; i < n; i++) {
+                responseAsciiSink.put(COPY_BINARY_SIGNATURE[i]);
+            }
+            // flags and header extension length
+            responseAsciiSink.putNetworkInt(0);
+            responseAsciiSink.putNetworkInt(0);
+        } else if (header) {
+            for (int i = 0; i < columnCount; i++) {
+                if (i > 0) {
+                    responseAsciiSink.put(',');
+                }
+                appendCopyValue(metadata.getColumnName(i));
+            }
+            responseAsciiSink.put('\n');
+        }
+        responseAsciiSink.bookmark();
+        sendCopyOut0(record, columnCount, false);
+    }
+
+    private void sendCopyOut0(
+            Record record,
+            int columnCount,
+            boolean resendRecord
+    ) throws PeerDisconnectedException, PeerIsSlowToReadException, QueryPausedException, SqlException {
+        if (!circuitBreaker.isTimerSet()) {
+            circuitBreaker.resetTimer();
+        }
+
+        try {
+            if (resendRecord) {
+                appendSingleCopyRecord(record, columnCount);
+                responseAsciiSink.bookmark();
+            }
+            while (currentCursor.hasNext()) {
+                try {
+                    appendCopyRecord(record, columnCount);
+                } catch (NoSpaceLeftInResponseBufferException e) {
+                    responseAsciiSink.resetToBookmark();
+                    closeCopyData();
+                    sendAndReset();
+                    openCopyData();
+                    responseAsciiSink.bookmark();
+                    appendSingleCopyRecord(record, columnCount);
+                }
+                responseAsciiSink.bookmark();
+            }
+        } catch (DataUnavailableException e) {
+            isPausedQuery = true;
+            responseAsciiSink.resetToBookmark();
+            throw QueryPausedException.instance(e.getEvent(), sqlExecutionContext.getCircuitBreaker());
+        } catch (SqlException | CairoException e) {
+            // error response ends the copy, rows that are already in the buffer are sent ahead of it
+            clearCursorAndFactory();
+            responseAsciiSink.resetToBookmark();
+            closeCopyData();
+            throw e;
+        }
+
+        clearCursorAndFactory();
+        // buffer may not have enough space for the trailer and the command
+        if (sendBufferLimit - sendBufferPtr < PROTOCOL_TAIL_COMMAND_LENGTH) {
+            closeCopyData();
+            resumeProcessor = resumeCopyDoneRef;
+            sendAndReset();
+        }
+        prepareCopyDone();
+    }
+
     private void sendCursor(
             int maxRows,
             PGResumeProcessor cursorResumeProcessor,
@@ -2618,6 +3071,7 @@ public class PGConnectionContext extends IOContext<PGConnectionContext> implemen
             this.maxRows = Long.MAX_VALUE;
         }
         resumeProcessor = cursorResumeProcessor;
+        prepareRowEncoders(columnCount);
         responseAsciiSink.bookmark();
         sendCursor0(record, columnCount, commandCompleteResumeProcessor);
     }
@@ -2687,6 +3141,38 @@ public class PGConnectionContext extends IOContext<PGConnectionContext> implemen
         bindVariableService.setUuid(index, lo, hi);
     }
 
+    private void setupCopyOut(CompiledQuery cq) throws SqlException {
+        sqlExecutionContext.storeTelemetry(cq.getType(), TelemetryOrigin.POSTGRES);
+        queryTag = TAG_COPY;
+        copyFormat = cq.getCopyFormat();
+        // copy results are never cached
+        typesAndSelectIsCached = false;
+        typesAndSelect = typesAndSelectPool.pop();
+        typesAndSelect.of(cq.getRecordCursorFactory(), bindVariableService);
+        activeSelectColumnTypes = selectColumnTypes;
+        buildSelectColumnTypes();
+        if (copyFormat == CopyModel.COPY_FORMAT_BINARY) {
+            // types without binary encoding are sent as their text, which is binary format of varchar
+            for (int i = 0, n = activeSelectColumnTypes.size() / 2; i < n; i++) {
+                final int type = activeSelectColumnTypes.getQuick(2 * i);
+                if (getFixedBinaryValueSize(toColumnBinaryType((short) 1, ColumnType.tagOf(type))) > -1) {
+                    activeSelectColumnTypes.setQuick(2 * i, toColumnBinaryType((short) 1, type));
+                }
+            }
+        }
+
+        if (!circuitBreaker.isTimerSet()) {
+            circuitBreaker.resetTimer();
+        }
+        currentFactory = typesAndSelect.getFactory();
+        try {
+            currentCursor = currentFactory.getCursor(sqlExecutionContext);
+        } catch (Throwable e) {
+            freeFactory();
+            throw e;
+        }
+    }
+
     private void setupFactoryAndCursor(SqlCompiler compiler) throws SqlException {
         if (currentCursor == null) {
             boolean recompileStale = true;
@@ -2771,13 +3257,13 @@ public class PGConnectionContext extends IOContext<PGConnectionContext> implemen
 
     int doReceive(int remaining) {
         final long data = recvBuffer + recvBufferWriteOffset;
-        final int n = nf.recv(getFd(), data, remaining);
+        final int n = recv(nf, data, remaining);
         dumpBuffer('>', data, n);
         return n;
     }
 
     void doSend(int offset, int size) throws PeerDisconnectedException, PeerIsSlowToReadException {
-        final int n = nf.send(getFd(), sendBuffer + offset, size);
+        final int n = send(nf, sendBuffer + offset, size);
         dumpBuffer('<', sendBuffer + offset, n);
         if (n < 0) {
             throw PeerDisconnectedException.INSTANCE;
@@ -2901,26 +3387,31 @@ public class PGConnectionContext extends IOContext<PGConnectionContext> implemen
             try {
                 PGConnectionContext.this.queryText = text;
                 LOG.info().$("parse [fd=").$(fd).$(", q=").utf8(text).I$();
-                processCompiledQuery(cq);
-
-                if (typesAndSelect != null) {
-                    activeSelectColumnTypes = selectColumnTypes;
-                    buildSelectColumnTypes();
-                    assert queryText != null;
-                    queryTag = TAG_SELECT;
-                    setupFactoryAndCursor(compiler);
-                    prepareRowDescription();
-                    sendCursor(0, resumeCursorQueryRef, resumeQueryCompleteRef);
-                } else if (typesAndInsert != null) {
-                    executeInsert(compiler);
-                } else if (typesAndUpdate != null) {
-                    executeUpdate(compiler);
-                } else if (cq.getType() == CompiledQuery.INSERT_AS_SELECT ||
-                        cq.getType() == CompiledQuery.CREATE_TABLE_AS_SELECT) {
-                    prepareCommandComplete(true);
+                if (cq.getType() == CompiledQuery.COPY_TO_STDOUT) {
+                    setupCopyOut(cq);
+                    sendCopyOut(cq.isCopyHeader());
                 } else {
-                    executeTag();
-                    prepareCommandComplete(false);
+                    processCompiledQuery(cq);
+
+                    if (typesAndSelect != null) {
+                        activeSelectColumnTypes = selectColumnTypes;
+                        buildSelectColumnTypes();
+                        assert queryText != null;
+                        queryTag = TAG_SELECT;
+                        setupFactoryAndCursor(compiler);
+                        prepareRowDescription();
+                        sendCursor(0, resumeCursorQueryRef, resumeQueryCompleteRef);
+                    } else if (typesAndInsert != null) {
+                        executeInsert(compiler);
+                    } else if (typesAndUpdate != null) {
+                        executeUpdate(compiler);
+                    } else if (cq.getType() == CompiledQuery.INSERT_AS_SELECT ||
+                            cq.getType() == CompiledQuery.CREATE_TABLE_AS_SELECT) {
+                        prepareCommandComplete(true);
+                    } else {
+                        executeTag();
+                        prepareCommandComplete(false);
+                    }
                 }
 
                 sqlExecutionContext.getCircuitBreaker().unsetTimer();
@@ -2956,6 +3447,18 @@ public class PGConnectionContext extends IOContext<PGConnectionContext> implemen
             sendBufferPtr += size;
         }
 
+        @Override
+        public CharSink encodeUtf8(CharSequence cs, int lo, int hi) {
+            // ASCII chars map to single UTF-8 bytes, copy them straight to the send buffer
+            // and leave the rest, if any, to the general purpose encoder
+            if (sendBufferPtr + hi - lo < sendBufferLimit) {
+                final int i = Chars.utf8EncodeAscii(cs, lo, hi, sendBufferPtr);
+                sendBufferPtr += i - lo;
+                lo = i;
+            }
+            return super.encodeUtf8(cs, lo, hi);
+        }
+
         @Override
         public CharSink put(CharSequence cs) {
             // this method is only called by date format utility to print timezone name
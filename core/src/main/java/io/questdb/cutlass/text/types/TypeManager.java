@@ -45,6 +45,7 @@ public class TypeManager implements Mutable {
     private final StringAdapter stringAdapter;
     private final ObjectPool<TimestampAdapter> timestampAdapterPool;
     private final ObjectPool<TimestampUtf8Adapter> timestampUtf8AdapterPool;
+    private final VarcharAdapter varcharAdapter;
 
     public TypeManager(
             TextConfiguration configuration,
@@ -55,6 +56,7 @@ public class TypeManager implements Mutable {
         this.timestampAdapterPool = new ObjectPool<>(TimestampAdapter::new, configuration.getTimestampAdapterPoolCapacity());
         this.inputFormatConfiguration = configuration.getInputFormatConfiguration();
         this.stringAdapter = new StringAdapter(utf8Sink);
+        this.varcharAdapter = new VarcharAdapter(utf8Sink);
         this.indexedSymbolAdapter = new SymbolAdapter(utf8Sink, true);
         this.notIndexedSymbolAdapter = new SymbolAdapter(utf8Sink, false);
         addDefaultProbes();
@@ -132,6 +134,8 @@ public class TypeManager implements Mutable {
                 return Long256Adapter.INSTANCE;
             case ColumnType.UUID:
                 return UuidAdapter.INSTANCE;
+            case ColumnType.VARCHAR:
+                return varcharAdapter;
             case ColumnType.GEOBYTE:
             case ColumnType.GEOSHORT:
             case ColumnType.GEOINT:
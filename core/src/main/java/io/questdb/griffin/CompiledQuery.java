@@ -41,6 +41,7 @@ public interface CompiledQuery {
     short COMMIT = 19;
     short COPY_LOCAL = 8;
     short COPY_REMOTE = 11;
+    short COPY_TO_STDOUT = 29;
     short CREATE_TABLE = 9;
     short CREATE_TABLE_AS_SELECT = 21;
     short DEALLOCATE = 24;
@@ -49,6 +50,7 @@ public interface CompiledQuery {
     short INSERT = 2;
     short INSERT_AS_SELECT = 10;
     short LOCK = 15;
+    short REFRESH_MAT_VIEW = 28;
     short RENAME_TABLE = 12;
     short REPAIR = 5;
     short ROLLBACK = 20;
@@ -59,7 +61,7 @@ public interface CompiledQuery {
     short TABLE_RESUME = 26;
     short TABLE_SET_TYPE = 27;
     short TRUNCATE = 3;
-    short TYPES_COUNT = TABLE_SET_TYPE;
+    short TYPES_COUNT = COPY_TO_STDOUT;
     short UNLOCK = 16;
     short UPDATE = 14;
     short VACUUM = 17;
@@ -86,6 +88,13 @@ public interface CompiledQuery {
 
     AlterOperation getAlterOperation();
 
+    /**
+     * Returns output format of COPY TO STDOUT, one of CopyModel.COPY_FORMAT_* constants.
+     *
+     * @return copy output format
+     */
+    int getCopyFormat();
+
     InsertOperation getInsertOperation();
 
     RecordCursorFactory getRecordCursorFactory();
@@ -105,6 +114,13 @@ public interface CompiledQuery {
 
     UpdateOperation getUpdateOperation();
 
+    /**
+     * Returns true when COPY TO STDOUT in CSV format should start with a header line.
+     *
+     * @return true when column names should be sent ahead of the rows
+     */
+    boolean isCopyHeader();
+
     CompiledQuery withContext(SqlExecutionContext sqlExecutionContext);
 
     void withSqlStatement(String sqlStatement);
@@ -45,6 +45,8 @@ public class CompiledQueryImpl implements CompiledQuery {
     // number of rows either returned by SELECT operation or affected by UPDATE or INSERT
     private long affectedRowsCount;
     private AlterOperation alterOp;
+    private int copyFormat;
+    private boolean copyHeader;
     private InsertOperation insertOp;
     private RecordCursorFactory recordCursorFactory;
     private SqlExecutionContext sqlExecutionContext;
@@ -102,6 +104,11 @@ public class CompiledQueryImpl implements CompiledQuery {
         return alterOp;
     }
 
+    @Override
+    public int getCopyFormat() {
+        return copyFormat;
+    }
+
     @Override
     public InsertOperation getInsertOperation() {
         return insertOp;
@@ -137,6 +144,11 @@ public class CompiledQueryImpl implements CompiledQuery {
         return updateOp;
     }
 
+    @Override
+    public boolean isCopyHeader() {
+        return copyHeader;
+    }
+
     public CompiledQuery of(short type) {
         return of(type, null);
     }
@@ -217,6 +229,15 @@ public class CompiledQueryImpl implements CompiledQuery {
         return of(COPY_REMOTE);
     }
 
+    CompiledQuery ofCopyToStdout(RecordCursorFactory factory, int copyFormat, boolean copyHeader) {
+        this.type = COPY_TO_STDOUT;
+        this.recordCursorFactory = factory;
+        this.copyFormat = copyFormat;
+        this.copyHeader = copyHeader;
+        this.affectedRowsCount = -1;
+        return this;
+    }
+
     CompiledQuery ofCreateTable() {
         return of(CREATE_TABLE);
     }
@@ -251,6 +272,10 @@ public class CompiledQueryImpl implements CompiledQuery {
         return this;
     }
 
+    CompiledQuery ofRefreshMatView() {
+        return of(REFRESH_MAT_VIEW);
+    }
+
     CompiledQuery ofRenameTable() {
         return of(RENAME_TABLE);
     }
@@ -84,6 +84,13 @@ public interface FunctionFactory {
         return false;
     }
 
+    /**
+     * @return true if the {@link Function} produced by the factory may return different values when the same query is re-executed over the same data (i.e. rnd_int() or now())
+     */
+    default boolean isNonDeterministic() {
+        return false;
+    }
+
     /**
      * @return true if the {@link Function} produced by the factory is guaranteed to be constant for a query such that its result does not depend on any {@link Record} in the result set (i.e. now())
      */
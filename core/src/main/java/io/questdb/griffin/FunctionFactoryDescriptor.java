@@ -164,6 +164,9 @@ public class FunctionFactoryDescriptor {
             case 'z':
                 sigArgType = ColumnType.UUID;
                 break;
+            case 'ø':
+                sigArgType = ColumnType.VARCHAR;
+                break;
             default:
                 sigArgType = -1;
                 break;
@@ -67,6 +67,7 @@ public class FunctionParser implements PostOrderTreeTraversalAlgo.Visitor, Mutab
     private final PostOrderTreeTraversalAlgo traverseAlgo = new PostOrderTreeTraversalAlgo();
     private final IntList undefinedVariables = new IntList();
     private RecordMetadata metadata;
+    private boolean nonDeterministic;
     private SqlCodeGenerator sqlCodeGenerator;
     private SqlExecutionContext sqlExecutionContext;
 
@@ -133,6 +134,8 @@ public class FunctionParser implements PostOrderTreeTraversalAlgo.Visitor, Mutab
                 return Long128Column.newInstance(index);
             case ColumnType.UUID:
                 return UuidColumn.newInstance(index);
+            case ColumnType.VARCHAR:
+                return VarcharColumn.newInstance(index);
             default:
                 throw SqlException.position(position)
                         .put("unsupported column type ")
@@ -143,6 +146,7 @@ public class FunctionParser implements PostOrderTreeTraversalAlgo.Visitor, Mutab
     @Override
     public void clear() {
         this.sqlExecutionContext = null;
+        this.nonDeterministic = false;
     }
 
     public Function createBindVariable(SqlExecutionContext sqlExecutionContext, int position, CharSequence name, int expressionType) throws SqlException {
@@ -195,6 +199,13 @@ public class FunctionParser implements PostOrderTreeTraversalAlgo.Visitor, Mutab
         return functionFactoryCache;
     }
 
+    /**
+     * @return true when any of the functions created since last {@link #clear()} is non-deterministic
+     */
+    public boolean isNonDeterministic() {
+        return nonDeterministic;
+    }
+
     /**
      * Creates function instance. When node type is {@link ExpressionNode#LITERAL} a column or parameter
      * function is returned. We will be using the supplied {@link #metadata} to resolve type of column. When node token
@@ -383,6 +394,7 @@ public class FunctionParser implements PostOrderTreeTraversalAlgo.Visitor, Mutab
         Function function;
         try {
             LOG.debug().$("call ").$(node).$(" -> ").$(factory.getSignature()).$();
+            nonDeterministic |= factory.isNonDeterministic();
             function = factory.newInstance(position, args, argPositions, configuration, sqlExecutionContext);
         } catch (SqlException | ImplicitCastException e) {
             Misc.freeObjList(args);
@@ -485,6 +497,7 @@ public class FunctionParser implements PostOrderTreeTraversalAlgo.Visitor, Mutab
                         || columnType == ColumnType.REGPROCEDURE
                         || columnType == ColumnType.ARRAY_STRING
                         || columnType == ColumnType.UUID
+                        || columnType == ColumnType.VARCHAR
         ) {
             return Constants.getTypeConstant(columnType);
         }
@@ -555,9 +568,17 @@ public class FunctionParser implements PostOrderTreeTraversalAlgo.Visitor, Mutab
             }
         }
 
+        // aggregate functions, such as sum(), have both group-by and analytic implementations,
+        // the OVER clause decides which one to use
+        final boolean analyticOverload = functionFactoryCache.isGroupBy(node.token) && functionFactoryCache.isWindow(node.token);
+        final boolean analyticContext = analyticOverload && !sqlExecutionContext.getAnalyticContext().isEmpty();
+
         for (int i = 0, n = overload.size(); i < n; i++) {
             final FunctionFactoryDescriptor descriptor = overload.getQuick(i);
             final FunctionFactory factory = descriptor.getFactory();
+            if (analyticOverload && (analyticContext ? factory.isGroupBy() : factory.isWindow())) {
+                continue;
+            }
             int sigArgCount = descriptor.getSigArgCount();
 
             final boolean sigVarArg;
@@ -720,6 +741,11 @@ public class FunctionParser implements PostOrderTreeTraversalAlgo.Visitor, Mutab
         }
 
         if (candidate == null) {
+            if (argCount == 2 && Chars.equals("cast", node.token) && ColumnType.tagOf(args.getQuick(1).getType()) == ColumnType.VARCHAR) {
+                // VARCHAR values are read as strings, so anything that casts to STRING casts to VARCHAR
+                args.setQuick(1, Constants.getTypeConstant(ColumnType.STRING));
+                return new CastStrToVarcharFunctionFactory.Func(createFunction(node, args, argPositions));
+            }
             // no signature match
             throw invalidArgument(node, args, candidateDescriptor);
         }
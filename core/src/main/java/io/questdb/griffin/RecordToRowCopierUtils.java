@@ -91,6 +91,7 @@ public class RecordToRowCopierUtils {
         int wPutSym = asm.poolInterfaceMethod(TableWriter.Row.class, "putSym", "(ILjava/lang/CharSequence;)V");
         int wPutSymChar = asm.poolInterfaceMethod(TableWriter.Row.class, "putSym", "(IC)V");
         int wPutStr = asm.poolInterfaceMethod(TableWriter.Row.class, "putStr", "(ILjava/lang/CharSequence;)V");
+        int wPutVarchar = asm.poolInterfaceMethod(TableWriter.Row.class, "putVarchar", "(ILjava/lang/CharSequence;)V");
         int wPutGeoStr = asm.poolInterfaceMethod(TableWriter.Row.class, "putGeoStr", "(ILjava/lang/CharSequence;)V");
         int implicitCastCharAsByte = asm.poolMethod(SqlUtil.class, "implicitCastCharAsByte", "(CI)B");
         int implicitCastCharAsGeoHash = asm.poolMethod(SqlUtil.class, "implicitCastCharAsGeoHash", "(CI)B");
@@ -127,6 +128,8 @@ public class RecordToRowCopierUtils {
         int wPutBin = asm.poolInterfaceMethod(TableWriter.Row.class, "putBin", "(ILio/questdb/std/BinarySequence;)V");
         int implicitCastGeoHashAsGeoHash = asm.poolMethod(SqlUtil.class, "implicitCastGeoHashAsGeoHash", "(JII)J");
         int transferUuidToStrCol = asm.poolMethod(RecordToRowCopierUtils.class, "transferUuidToStrCol", "(Lio/questdb/cairo/TableWriter$Row;IJJ)V");
+        int transferUuidToVarcharCol = asm.poolMethod(RecordToRowCopierUtils.class, "transferUuidToVarcharCol", "(Lio/questdb/cairo/TableWriter$Row;IJJ)V");
+        int transferCharToVarcharCol = asm.poolMethod(RecordToRowCopierUtils.class, "transferCharToVarcharCol", "(Lio/questdb/cairo/TableWriter$Row;IC)V");
 
         // in case of Geo Hashes column type can overflow short and asm.iconst() will not provide
         // the correct value.
@@ -548,6 +551,9 @@ public class RecordToRowCopierUtils {
                         case ColumnType.SYMBOL:
                             asm.invokeInterface(wPutSymChar, 2);
                             break;
+                        case ColumnType.VARCHAR:
+                            asm.invokeStatic(transferCharToVarcharCol);
+                            break;
                         case ColumnType.GEOBYTE:
                             asm.ldc(toColumnType_0 + i * 2);
                             asm.invokeStatic(implicitCastCharAsGeoHash);
@@ -567,12 +573,16 @@ public class RecordToRowCopierUtils {
                         case ColumnType.STRING:
                             asm.invokeInterface(wPutStr, 2);
                             break;
+                        case ColumnType.VARCHAR:
+                            asm.invokeInterface(wPutVarchar, 2);
+                            break;
                         default:
                             assert false;
                             break;
                     }
                     break;
                 case ColumnType.STRING:
+                case ColumnType.VARCHAR:
                     // This is generic code, and it acts on a record
                     // whereas Functions support string to primitive conversions, Record instances
                     // do not. This is because functions are aware of their return type but records
@@ -630,6 +640,9 @@ public class RecordToRowCopierUtils {
                         case ColumnType.UUID:
                             asm.invokeInterface(wPutUuidStr, 2);
                             break;
+                        case ColumnType.VARCHAR:
+                            asm.invokeInterface(wPutVarchar, 2);
+                            break;
                         default:
                             assert false;
                             break;
@@ -796,6 +809,15 @@ public class RecordToRowCopierUtils {
                             // Stack: [RowWriter, lo, hi]
                             asm.invokeStatic(transferUuidToStrCol);
                             break;
+                        case ColumnType.VARCHAR:
+                            assert fromColumnType == ColumnType.UUID;
+                            // same as the STRING case above
+                            asm.invokeInterface(rGetLong128Lo, 1);
+                            asm.aload(1);
+                            asm.iconst(i);
+                            asm.invokeInterface(rGetLong128Hi, 1);
+                            asm.invokeStatic(transferUuidToVarcharCol);
+                            break;
                         default:
                             assert false;
                             break;
@@ -826,6 +848,13 @@ public class RecordToRowCopierUtils {
         return asm.newInstance();
     }
 
+    // Called from dynamically generated bytecode
+    public static void transferCharToVarcharCol(TableWriter.Row row, int col, char value) {
+        StringSink threadLocalBuilder = Misc.getThreadLocalBuilder();
+        threadLocalBuilder.put(value);
+        row.putVarchar(col, threadLocalBuilder);
+    }
+
     // Called from dynamically generated bytecode
     public static void transferUuidToStrCol(TableWriter.Row row, int col, long lo, long hi) {
         StringSink threadLocalBuilder = Misc.getThreadLocalBuilder();
@@ -833,4 +862,12 @@ public class RecordToRowCopierUtils {
             row.putStr(col, threadLocalBuilder);
         }
     }
+
+    // Called from dynamically generated bytecode
+    public static void transferUuidToVarcharCol(TableWriter.Row row, int col, long lo, long hi) {
+        StringSink threadLocalBuilder = Misc.getThreadLocalBuilder();
+        if (SqlUtil.implicitCastUuidAsStr(lo, hi, threadLocalBuilder)) {
+            row.putVarchar(col, threadLocalBuilder);
+        }
+    }
 }
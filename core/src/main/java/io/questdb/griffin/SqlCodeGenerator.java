@@ -34,6 +34,7 @@ import io.questdb.cairo.vm.Vm;
 import io.questdb.cairo.vm.api.MemoryCARW;
 import io.questdb.griffin.engine.*;
 import io.questdb.griffin.engine.analytic.AnalyticFunction;
+import io.questdb.griffin.engine.analytic.AnalyticRecordCursorFactory;
 import io.questdb.griffin.engine.analytic.CachedAnalyticRecordCursorFactory;
 import io.questdb.griffin.engine.functions.GroupByFunction;
 import io.questdb.griffin.engine.functions.SymbolFunction;
@@ -42,11 +43,13 @@ import io.questdb.griffin.engine.functions.bind.NamedParameterLinkFunction;
 import io.questdb.griffin.engine.functions.cast.*;
 import io.questdb.griffin.engine.functions.columns.*;
 import io.questdb.griffin.engine.functions.constants.*;
+import io.questdb.griffin.engine.functions.math.ArithmeticFunctionCompiler;
 import io.questdb.griffin.engine.groupby.*;
 import io.questdb.griffin.engine.groupby.vect.GroupByRecordCursorFactory;
 import io.questdb.griffin.engine.groupby.vect.*;
 import io.questdb.griffin.engine.join.*;
 import io.questdb.griffin.engine.orderby.LimitedSizeSortedLightRecordCursorFactory;
+import io.questdb.griffin.engine.orderby.RadixSortLightRecordCursorFactory;
 import io.questdb.griffin.engine.orderby.RecordComparatorCompiler;
 import io.questdb.griffin.engine.orderby.SortedLightRecordCursorFactory;
 import io.questdb.griffin.engine.orderby.SortedRecordCursorFactory;
@@ -93,6 +96,7 @@ public class SqlCodeGenerator implements Mutable, Closeable {
     private static final IntObjHashMap<VectorAggregateFunctionConstructor> nsumConstructors = new IntObjHashMap<>();
     private static final IntObjHashMap<VectorAggregateFunctionConstructor> sumConstructors = new IntObjHashMap<>();
     private final ArrayColumnTypes arrayColumnTypes = new ArrayColumnTypes();
+    private final ArithmeticFunctionCompiler arithmeticFunctionCompiler;
     private final BytecodeAssembler asm = new BytecodeAssembler();
     private final CairoConfiguration configuration;
     private final ObjList<TableColumnMetadata> deferredAnalyticMetadata = new ObjList<>();
@@ -112,6 +116,8 @@ public class SqlCodeGenerator implements Mutable, Closeable {
     private final ListColumnFilter listColumnFilterA = new ListColumnFilter();
     private final ListColumnFilter listColumnFilterB = new ListColumnFilter();
     private final LongList prefixes = new LongList();
+    // tables read by the query generated since last clear()
+    private final ObjList<TableToken> queryTableTokens = new ObjList<>();
     private final RecordComparatorCompiler recordComparatorCompiler;
     private final IntList recordFunctionPositions = new IntList();
     private final WeakClosableObjectPool<PageFrameReduceTask> reduceTaskPool;
@@ -131,6 +137,7 @@ public class SqlCodeGenerator implements Mutable, Closeable {
     private final WhereClauseParser whereClauseParser = new WhereClauseParser();
     private boolean enableJitNullChecks = true;
     private boolean fullFatJoins = false;
+    private boolean tableFunctionUsed = false;
 
     public SqlCodeGenerator(
             CairoEngine engine,
@@ -142,6 +149,7 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         this.configuration = configuration;
         this.functionParser = functionParser;
         this.recordComparatorCompiler = new RecordComparatorCompiler(asm);
+        this.arithmeticFunctionCompiler = new ArithmeticFunctionCompiler(asm);
         this.enableJitDebug = configuration.isSqlJitDebugEnabled();
         this.jitIRMem = Vm.getCARWInstance(configuration.getSqlJitIRMemoryPageSize(),
                 configuration.getSqlJitIRMemoryMaxPages(), MemoryTag.NATIVE_JIT);
@@ -160,6 +168,8 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         whereClauseParser.clear();
         symbolEstimator.clear();
         intListPool.clear();
+        queryTableTokens.clear();
+        tableFunctionUsed = false;
     }
 
     @Override
@@ -286,6 +296,98 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                 columnIndex, joinContext, masterTableKeyColumns);
     }
 
+    /**
+     * Finds top level equality or IN predicate on a column with hash-based index, i.e. INT, LONG or UUID
+     * column with index, and collects nodes of the values to look up.
+     *
+     * @return index of the column or -1 when there is no such predicate
+     */
+    private static int findHashIndexPredicate(ExpressionNode node, RecordMetadata metadata, ObjList<ExpressionNode> values) {
+        if (node == null) {
+            return -1;
+        }
+        if (isAndKeyword(node.token)) {
+            final int columnIndex = findHashIndexPredicate(node.lhs, metadata, values);
+            return columnIndex > -1 ? columnIndex : findHashIndexPredicate(node.rhs, metadata, values);
+        }
+        if (node.paramCount == 2 && (Chars.equals(node.token, '=') || isInKeyword(node.token))) {
+            int columnIndex = getHashIndexedColumnIndex(node.lhs, metadata);
+            if (columnIndex > -1 && isHashIndexValue(node.rhs)) {
+                values.add(node.rhs);
+                return columnIndex;
+            }
+            columnIndex = getHashIndexedColumnIndex(node.rhs, metadata);
+            if (columnIndex > -1 && isHashIndexValue(node.lhs) && !isInKeyword(node.token)) {
+                values.add(node.lhs);
+                return columnIndex;
+            }
+            return -1;
+        }
+        if (node.paramCount > 2 && isInKeyword(node.token)) {
+            final int columnIndex = getHashIndexedColumnIndex(node.args.getLast(), metadata);
+            if (columnIndex > -1) {
+                for (int i = 0, n = node.paramCount - 1; i < n; i++) {
+                    final ExpressionNode value = node.args.getQuick(i);
+                    if (!isHashIndexValue(value)) {
+                        values.clear();
+                        return -1;
+                    }
+                    values.add(value);
+                }
+                return columnIndex;
+            }
+        }
+        return -1;
+    }
+
+    private static void findIndexedSymbolEqualsPredicates(
+            ExpressionNode node,
+            RecordMetadata metadata,
+            IntList columnIndexes,
+            ObjList<ExpressionNode> values
+    ) {
+        if (node == null) {
+            return;
+        }
+        if (isAndKeyword(node.token)) {
+            findIndexedSymbolEqualsPredicates(node.lhs, metadata, columnIndexes, values);
+            findIndexedSymbolEqualsPredicates(node.rhs, metadata, columnIndexes, values);
+            return;
+        }
+        if (node.paramCount == 2 && Chars.equals(node.token, '=')) {
+            int columnIndex = getIndexedSymbolColumnIndex(node.lhs, metadata);
+            ExpressionNode value = node.rhs;
+            if (columnIndex == -1) {
+                columnIndex = getIndexedSymbolColumnIndex(node.rhs, metadata);
+                value = node.lhs;
+            }
+            if (columnIndex > -1 && value.type == CONSTANT && !columnIndexes.contains(columnIndex)) {
+                columnIndexes.add(columnIndex);
+                values.add(value);
+            }
+        }
+    }
+
+    private static int getHashIndexedColumnIndex(ExpressionNode node, RecordMetadata metadata) {
+        if (node.type == LITERAL) {
+            final int columnIndex = metadata.getColumnIndexQuiet(node.token);
+            if (columnIndex > -1 && metadata.isColumnIndexed(columnIndex) && !ColumnType.isSymbol(metadata.getColumnType(columnIndex))) {
+                return columnIndex;
+            }
+        }
+        return -1;
+    }
+
+    private static int getIndexedSymbolColumnIndex(ExpressionNode node, RecordMetadata metadata) {
+        if (node.type == LITERAL) {
+            final int columnIndex = metadata.getColumnIndexQuiet(node.token);
+            if (columnIndex > -1 && metadata.isColumnIndexed(columnIndex) && ColumnType.isSymbol(metadata.getColumnType(columnIndex))) {
+                return columnIndex;
+            }
+        }
+        return -1;
+    }
+
     private static int getOrderByDirectionOrDefault(QueryModel model, int index) {
         IntList direction = model.getOrderByDirectionAdvice();
         if (index >= direction.size()) {
@@ -294,6 +396,30 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         return model.getOrderByDirectionAdvice().getQuick(index);
     }
 
+    private static boolean isHashIndexValue(ExpressionNode node) {
+        return node.type == CONSTANT || node.type == BIND_VARIABLE || node.type == FUNCTION || node.type == OPERATION;
+    }
+
+    private static boolean isHashIndexValueSupported(int columnType, Function value, boolean runtimeConstantAllowed) {
+        if (!value.isConstant() && !(runtimeConstantAllowed && value.isRuntimeConstant())) {
+            return false;
+        }
+        final int valueType = ColumnType.tagOf(value.getType());
+        switch (ColumnType.tagOf(columnType)) {
+            case ColumnType.INT:
+                return valueType == ColumnType.BYTE || valueType == ColumnType.SHORT || valueType == ColumnType.INT;
+            case ColumnType.LONG:
+                return valueType == ColumnType.BYTE || valueType == ColumnType.SHORT || valueType == ColumnType.INT || valueType == ColumnType.LONG;
+            default:
+                return valueType == ColumnType.UUID || valueType == ColumnType.STRING;
+        }
+    }
+
+    private static boolean isJoinableAsString(int columnType) {
+        // VARCHAR values are read as strings, so they join with STRING and SYMBOL keys
+        return ColumnType.isSymbolOrString(columnType) || ColumnType.isVarchar(columnType);
+    }
+
     private VectorAggregateFunctionConstructor assembleFunctionReference(RecordMetadata metadata, ExpressionNode ast) {
         int columnIndex;
         if (ast.type == FUNCTION && ast.paramCount == 1 && SqlKeywords.isSumKeyword(ast.token) && ast.rhs.type == LITERAL) {
@@ -613,7 +739,8 @@ public class SqlCodeGenerator implements Mutable, Closeable {
             RecordCursorFactory slave,
             int joinType,
             Function filter,
-            JoinContext context
+            JoinContext context,
+            SqlExecutionContext executionContext
     ) {
         /*
          * JoinContext provides the following information:
@@ -648,6 +775,31 @@ public class SqlCodeGenerator implements Mutable, Closeable {
 
         if (slave.recordCursorSupportsRandomAccess() && !fullFatJoins) {
             if (joinType == JOIN_INNER) {
+                final int workerCount = executionContext.getSharedWorkerCount();
+                if (
+                        configuration.isSqlParallelHashJoinEnabled()
+                                && workerCount > 0
+                                && master.supportPageFrameCursor()
+                                && slave.supportPageFrameCursor()
+                                && Chars.equalsLowerCaseAscii(configuration.getDefaultMapType(), "fast")
+                ) {
+                    return new AsyncHashJoinRecordCursorFactory(
+                            configuration,
+                            executionContext.getMessageBus(),
+                            metadata,
+                            master,
+                            slave,
+                            keyTypes,
+                            valueTypes,
+                            masterKeySink,
+                            slaveKeySink,
+                            masterMetadata.getColumnCount(),
+                            context,
+                            reduceTaskPool,
+                            workerCount
+                    );
+                }
+
                 return new HashJoinLightRecordCursorFactory(
                         configuration,
                         metadata,
@@ -1084,6 +1236,7 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                                 ));
                                 break;
                             case ColumnType.STRING:
+                            case ColumnType.VARCHAR:
                                 castFunctions.add(new StrColumn(i));
                                 break;
                             case ColumnType.UUID:
@@ -1309,6 +1462,38 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                     case ColumnType.BINARY:
                         castFunctions.add(new BinColumn(i));
                         break;
+                    case ColumnType.VARCHAR:
+                        switch (fromTag) {
+                            case ColumnType.STRING:
+                                castFunctions.add(new CastStrToVarcharFunctionFactory.Func(new StrColumn(i)));
+                                break;
+                            case ColumnType.CHAR:
+                                castFunctions.add(new CastStrToVarcharFunctionFactory.Func(new CharColumn(i)));
+                                break;
+                            case ColumnType.SYMBOL:
+                                castFunctions.add(new CastStrToVarcharFunctionFactory.Func(
+                                        new CastSymbolToStrFunctionFactory.CastSymbolToStrFunction(
+                                                new SymbolColumn(i, castFromMetadata.isSymbolTableStatic(i))
+                                        )
+                                ));
+                                break;
+                            case ColumnType.UUID:
+                                castFunctions.add(new CastStrToVarcharFunctionFactory.Func(
+                                        new CastUuidToStrFunctionFactory.Func(new UuidColumn(i))
+                                ));
+                                break;
+                            case ColumnType.VARCHAR:
+                                castFunctions.add(new VarcharColumn(i));
+                                break;
+                            default:
+                                throw SqlException.unsupportedCast(
+                                        modelPosition,
+                                        castFromMetadata.getColumnName(i),
+                                        fromType,
+                                        toType
+                                );
+                        }
+                        break;
                 }
             }
         }
@@ -1355,6 +1540,9 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         final boolean enableParallelFilter = executionContext.isParallelFilterEnabled();
         final boolean preTouchColumns = configuration.isSqlParallelFilterPreTouchEnabled();
         if (enableParallelFilter && factory.supportPageFrameCursor()) {
+            final ZoneMap zoneMap = configuration.isSqlZoneMapEnabled()
+                    ? ZoneMap.newInstance(filterExpr, factory.getMetadata())
+                    : null;
 
             final boolean useJit = executionContext.getJitMode() != SqlJitMode.JIT_MODE_DISABLED
                     && (!model.isUpdate() || executionContext.isWalApplication());
@@ -1397,7 +1585,8 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                             limitLoFunction,
                             limitLoPos,
                             preTouchColumns,
-                            executionContext.getSharedWorkerCount()
+                            executionContext.getSharedWorkerCount(),
+                            zoneMap
                     );
                 } catch (SqlException | LimitOverflowException ex) {
                     Misc.free(jitFilter);
@@ -1437,7 +1626,8 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                     limitLoFunction,
                     limitLoPos,
                     preTouchColumns,
-                    executionContext.getSharedWorkerCount()
+                    executionContext.getSharedWorkerCount(),
+                    zoneMap
             );
         }
         return new FilteredRecordCursorFactory(factory, filter);
@@ -1446,6 +1636,7 @@ public class SqlCodeGenerator implements Mutable, Closeable {
     private RecordCursorFactory generateFunctionQuery(QueryModel model, SqlExecutionContext executionContext) throws SqlException {
         final Function function = model.getTableNameFunction();
         if (function != null) {
+            tableFunctionUsed = true;
             // We're transferring ownership of the function's factory to another factory
             // setting function to NULL will prevent double-ownership.
             // We should not release function itself, they typically just a lightweight factory wrapper.
@@ -1458,6 +1649,91 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         }
     }
 
+    /**
+     * INT, LONG and UUID columns index hashes of their values. When the filter has equality or IN predicate
+     * on such column, rows returned by the index are filtered with the whole filter instead of scanning
+     * the table.
+     *
+     * @return record cursor factory or null when there is no suitable predicate in the filter
+     */
+    private RecordCursorFactory generateHashIndexQuery(
+            ExpressionNode filterExpr,
+            RecordMetadata metadata,
+            RecordMetadata myMeta,
+            DataFrameCursorFactory dfcFactory,
+            boolean orderDescending,
+            IntList columnIndexes,
+            IntList columnSizes,
+            boolean supportsRandomAccess,
+            SqlExecutionContext executionContext
+    ) throws SqlException {
+        final ObjList<ExpressionNode> valueNodes = new ObjList<>();
+        final int columnIndex = findHashIndexPredicate(filterExpr, metadata, valueNodes);
+        final int valueCount = valueNodes.size();
+        if (columnIndex == -1 || (orderDescending && valueCount > 1)) {
+            // heap row cursor doesn't support backward scan
+            return null;
+        }
+
+        final int columnType = metadata.getColumnType(columnIndex);
+        // filter goes first, it assigns types to the bind variables
+        final Function filter = compileBooleanFilter(filterExpr, myMeta, executionContext);
+        final ObjList<HashIndexFilteredRowCursorFactory> rowCursorFactories = new ObjList<>(valueCount);
+        final IntHashSet indexKeys = new IntHashSet(valueCount);
+        for (int i = 0; i < valueCount; i++) {
+            final Function value;
+            try {
+                value = functionParser.parseFunction(valueNodes.getQuick(i), myMeta, executionContext);
+            } catch (Throwable th) {
+                Misc.free(filter);
+                throw th;
+            }
+            if (!isHashIndexValueSupported(columnType, value, valueCount == 1)) {
+                Misc.free(value);
+                Misc.free(filter);
+                return null;
+            }
+            if (value.isConstant()) {
+                final int indexKey = HashIndexFilteredRowCursorFactory.toIndexKey(columnType, value);
+                if (indexKey == -1) {
+                    Misc.free(filter);
+                    return null;
+                }
+                if (!indexKeys.add(indexKey)) {
+                    // values with the same key would produce duplicate rows
+                    continue;
+                }
+            }
+            rowCursorFactories.add(
+                    new HashIndexFilteredRowCursorFactory(
+                            columnIndex,
+                            columnType,
+                            value,
+                            filter,
+                            valueCount == 1,
+                            orderDescending ? BitmapIndexReader.DIR_BACKWARD : BitmapIndexReader.DIR_FORWARD,
+                            columnIndexes
+                    )
+            );
+        }
+
+        final RowCursorFactory rowCursorFactory = rowCursorFactories.size() == 1
+                ? rowCursorFactories.getQuick(0)
+                : new HeapRowCursorFactory(rowCursorFactories, new int[]{rowCursorFactories.size()});
+        return new DataFrameRecordCursorFactory(
+                configuration,
+                myMeta,
+                dfcFactory,
+                rowCursorFactory,
+                false,
+                filter,
+                false,
+                columnIndexes,
+                columnSizes,
+                supportsRandomAccess
+        );
+    }
+
     private RecordCursorFactory generateJoins(QueryModel model, SqlExecutionContext executionContext) throws SqlException {
         final ObjList<QueryModel> joinModels = model.getJoinModels();
         IntList ordered = model.getOrderedJoinModels();
@@ -1689,7 +1965,8 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                                         slave,
                                         joinType,
                                         filter,
-                                        slaveModel.getContext()
+                                        slaveModel.getContext(),
+                                        executionContext
                                 );
                                 masterAlias = null;
                                 break;
@@ -1731,7 +2008,8 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                                 null,
                                 0,
                                 false,
-                                executionContext.getSharedWorkerCount()
+                                executionContext.getSharedWorkerCount(),
+                                null
                         );
                     } else {
                         master = new FilteredRecordCursorFactory(
@@ -2218,6 +2496,16 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                                 hiFunc,
                                 listColumnFilterA.copy()
                         );
+                    } else if (
+                            listColumnFilterA.size() == 1
+                                    && RadixSortLightRecordCursorFactory.isSupported(metadata.getColumnType(Math.abs(listColumnFilterA.getQuick(0)) - 1))
+                    ) {
+                        return new RadixSortLightRecordCursorFactory(
+                                configuration,
+                                orderedMetadata,
+                                recordCursorFactory,
+                                listColumnFilterA.copy()
+                        );
                     } else {
                         return new SortedLightRecordCursorFactory(
                                 configuration,
@@ -2531,6 +2819,64 @@ public class SqlCodeGenerator implements Mutable, Closeable {
 
             if (isFillNone) {
 
+                final int workerCount = executionContext.getSharedWorkerCount();
+                if (
+                        configuration.isSqlParallelSampleByEnabled()
+                                && workerCount > 0
+                                && timezoneName == null
+                                && timestampSampler instanceof MicroTimestampSampler
+                                && factory.supportPageFrameCursor()
+                                && Chars.equalsLowerCaseAscii(configuration.getDefaultMapType(), "fast")
+                                && GroupByUtils.isParallelismSupported(groupByFunctions)
+                ) {
+                    final ObjList<ObjList<GroupByFunction>> perWorkerGroupByFunctions = new ObjList<>(workerCount);
+                    try {
+                        for (int i = 0; i < workerCount; i++) {
+                            final ObjList<GroupByFunction> workerGroupByFunctions = new ObjList<>(columnCount);
+                            perWorkerGroupByFunctions.extendAndSet(i, workerGroupByFunctions);
+                            arrayColumnTypes.clear();
+                            arrayColumnTypes.add(ColumnType.TIMESTAMP); // bucket timestamp
+                            GroupByUtils.prepareGroupByFunctions(
+                                    model,
+                                    metadata,
+                                    functionParser,
+                                    executionContext,
+                                    workerGroupByFunctions,
+                                    groupByFunctionPositions,
+                                    arrayColumnTypes
+                            );
+                        }
+                    } catch (Throwable e) {
+                        for (int i = 0, n = perWorkerGroupByFunctions.size(); i < n; i++) {
+                            Misc.freeObjList(perWorkerGroupByFunctions.getQuick(i));
+                        }
+                        Misc.freeObjList(recordFunctions);
+                        throw e;
+                    }
+
+                    // bucket timestamp goes after the sample by keys
+                    keyTypes.add(ColumnType.TIMESTAMP);
+                    return new AsyncSampleByRecordCursorFactory(
+                            asm,
+                            configuration,
+                            executionContext.getMessageBus(),
+                            factory,
+                            listColumnFilterA,
+                            keyTypes,
+                            valueTypes,
+                            groupByMetadata,
+                            groupByFunctions,
+                            perWorkerGroupByFunctions,
+                            recordFunctions,
+                            timestampSampler,
+                            timestampIndex,
+                            offsetFunc,
+                            offsetFuncPos,
+                            reduceTaskPool,
+                            workerCount
+                    );
+                }
+
                 if (keyTypes.getColumnCount() == 0) {
                     // this sample by is not keyed
                     return new SampleByFillNoneNotKeyedRecordCursorFactory(
@@ -2744,12 +3090,16 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         // analytic columns recursively
 
         deferredAnalyticMetadata.clear();
+        // analytic functions can be computed while reading the base cursor when none of them
+        // needs to see following rows and the base cursor is already in the order of functions
+        boolean streaming = true;
+        final ObjList<AnalyticFunction> allAnalyticFunctions = new ObjList<>();
         for (int i = 0; i < columnCount; i++) {
             final QueryColumn qc = columns.getQuick(i);
             if (qc instanceof AnalyticColumn) {
                 final AnalyticColumn ac = (AnalyticColumn) qc;
                 final ExpressionNode ast = qc.getAst();
-                if (ast.paramCount > 1) {
+                if (ast.paramCount > 3) {
                     Misc.free(base);
                     throw SqlException.$(ast.position, "too many arguments");
                 }
@@ -2791,16 +3141,34 @@ public class SqlCodeGenerator implements Mutable, Closeable {
 
 
                 final int osz = ac.getOrderBy().size();
+
+                // RANGE frames with an offset are measured in the units of the ORDER BY timestamp
+                int timestampIndex = -1;
+                if (osz == 1 && ac.getOrderByDirection().getQuick(0) == QueryModel.ORDER_DIRECTION_ASCENDING) {
+                    final int index = chainMetadata.getColumnIndexQuiet(ac.getOrderBy().getQuick(0).token);
+                    if (index > -1 && ColumnType.isTimestamp(chainMetadata.getColumnType(index))) {
+                        timestampIndex = index;
+                    }
+                }
+
                 executionContext.configureAnalyticContext(
                         partitionByRecord,
                         partitionBySink,
                         keyTypes,
                         osz > 0,
-                        base.recordCursorSupportsRandomAccess()
+                        base.recordCursorSupportsRandomAccess(),
+                        ac.getFramingMode(),
+                        ac.getRowsLo(),
+                        ac.getRowsLoPos(),
+                        ac.getRowsHi(),
+                        ac.getRowsHiPos(),
+                        ac.isDefaultFrame(),
+                        timestampIndex
                 );
                 final Function f;
                 try {
-                    f = functionParser.parseFunction(ast, baseMetadata, executionContext);
+                    // arguments are evaluated against chain records, hence chain metadata
+                    f = functionParser.parseFunction(ast, chainMetadata, executionContext);
                     if (!(f instanceof AnalyticFunction)) {
                         Misc.free(base);
                         throw SqlException.$(ast.position, "non-analytic function called in analytic context");
@@ -2827,6 +3195,19 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                     }
                 }
 
+                if (analyticFunction.getPassCount() != AnalyticFunction.STREAM) {
+                    streaming = false;
+                } else if (osz > 0 && !dismissOrder) {
+                    // base cursor returns rows in the order of its designated timestamp
+                    final boolean baseTimestampOrder = timestampIndex > -1
+                            && columnIndexes.getQuick(timestampIndex) == baseMetadata.getTimestampIndex()
+                            && base.getScanDirection() == RecordCursorFactory.SCAN_DIRECTION_FORWARD;
+                    if (!baseTimestampOrder) {
+                        streaming = false;
+                    }
+                }
+                allAnalyticFunctions.add(analyticFunction);
+
                 if (osz > 0 && !dismissOrder) {
                     IntList order = toOrderIndices(chainMetadata, ac.getOrderBy(), ac.getOrderByDirection());
                     // init comparator if we need
@@ -2867,6 +3248,19 @@ public class SqlCodeGenerator implements Mutable, Closeable {
             }
         }
 
+        if (streaming) {
+            final ObjList<Function> functions = new ObjList<>(columnCount);
+            for (int i = 0, analyticIndex = 0; i < columnCount; i++) {
+                final QueryColumn qc = columns.getQuick(i);
+                if (qc instanceof AnalyticColumn) {
+                    functions.add(allAnalyticFunctions.getQuick(analyticIndex++));
+                } else {
+                    functions.add(FunctionParser.createColumn(qc.getAst().position, chainMetadata.getColumnName(i), chainMetadata));
+                }
+            }
+            return new AnalyticRecordCursorFactory(base, factoryMetadata, functions, allAnalyticFunctions, columnIndexes);
+        }
+
         final ObjList<RecordComparator> analyticComparators = new ObjList<>(groupedAnalytic.size());
         final ObjList<ObjList<AnalyticFunction>> functionGroups = new ObjList<>(groupedAnalytic.size());
         for (ObjObjHashMap.Entry<IntList, ObjList<AnalyticFunction>> e : groupedAnalytic) {
@@ -3337,6 +3731,55 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                 );
             }
 
+            final int workerCount = executionContext.getSharedWorkerCount();
+            if (
+                    configuration.isSqlParallelGroupByEnabled()
+                            && workerCount > 0
+                            && factory.supportPageFrameCursor()
+                            && Chars.equalsLowerCaseAscii(configuration.getDefaultMapType(), "fast")
+                            && GroupByUtils.isParallelismSupported(groupByFunctions)
+            ) {
+                final ObjList<ObjList<GroupByFunction>> perWorkerGroupByFunctions = new ObjList<>(workerCount);
+                try {
+                    for (int i = 0; i < workerCount; i++) {
+                        final ObjList<GroupByFunction> workerGroupByFunctions = new ObjList<>(columnCount);
+                        perWorkerGroupByFunctions.extendAndSet(i, workerGroupByFunctions);
+                        arrayColumnTypes.clear();
+                        GroupByUtils.prepareGroupByFunctions(
+                                model,
+                                metadata,
+                                functionParser,
+                                executionContext,
+                                workerGroupByFunctions,
+                                groupByFunctionPositions,
+                                arrayColumnTypes
+                        );
+                    }
+                } catch (Throwable e) {
+                    for (int i = 0, n = perWorkerGroupByFunctions.size(); i < n; i++) {
+                        Misc.freeObjList(perWorkerGroupByFunctions.getQuick(i));
+                    }
+                    Misc.freeObjList(recordFunctions);
+                    throw e;
+                }
+
+                return new AsyncGroupByRecordCursorFactory(
+                        asm,
+                        configuration,
+                        executionContext.getMessageBus(),
+                        factory,
+                        listColumnFilterA,
+                        keyTypes,
+                        valueTypes,
+                        groupByMetadata,
+                        groupByFunctions,
+                        perWorkerGroupByFunctions,
+                        recordFunctions,
+                        reduceTaskPool,
+                        workerCount
+                );
+            }
+
             return new io.questdb.griffin.engine.groupby.GroupByRecordCursorFactory(
                     asm,
                     configuration,
@@ -3422,6 +3865,9 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                     }
                 }
 
+                if (configuration.isSqlProjectionCompilerEnabled()) {
+                    function = arithmeticFunctionCompiler.compile(function);
+                }
                 functions.add(function);
 
                 if (columnType == ColumnType.SYMBOL) {
@@ -3620,6 +4066,55 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         return generateQuery(model.getNestedModel(), executionContext, true);
     }
 
+    /**
+     * When the filter has equality predicates on indexed symbol columns other than the key column,
+     * rows are found by intersecting index cursors of all these columns instead of filtering every
+     * row of the key column's index.
+     *
+     * @return row cursor factory or null when the filter has no such predicates
+     */
+    private RowCursorFactory generateSymbolIndexIntersection(
+            ExpressionNode filterExpr,
+            RecordMetadata metadata,
+            TableReader reader,
+            int keyColumnIndex,
+            int symbolKey,
+            Function filter,
+            int indexDirection,
+            IntList columnIndexes,
+            SqlExecutionContext executionContext
+    ) throws SqlException {
+        final IntList symbolColumnIndexes = new IntList();
+        final ObjList<ExpressionNode> valueNodes = new ObjList<>();
+        symbolColumnIndexes.add(keyColumnIndex);
+        valueNodes.add(null);
+        findIndexedSymbolEqualsPredicates(filterExpr, metadata, symbolColumnIndexes, valueNodes);
+        if (symbolColumnIndexes.size() < 2) {
+            return null;
+        }
+
+        final IntList symbolKeys = new IntList(symbolColumnIndexes.size());
+        symbolKeys.add(symbolKey);
+        for (int i = 1, n = symbolColumnIndexes.size(); i < n; i++) {
+            final Function value = functionParser.parseFunction(valueNodes.getQuick(i), EmptyRecordMetadata.INSTANCE, executionContext);
+            try {
+                final int valueType = ColumnType.tagOf(value.getType());
+                if (valueType != ColumnType.STRING && valueType != ColumnType.SYMBOL) {
+                    return null;
+                }
+                final int key = reader.getSymbolMapReader(symbolColumnIndexes.getQuick(i)).keyOf(value.getStr(null));
+                if (key == SymbolTable.VALUE_NOT_FOUND) {
+                    // symbol can be added after the query is compiled, leave it to the filter
+                    return null;
+                }
+                symbolKeys.add(key);
+            } finally {
+                Misc.free(value);
+            }
+        }
+        return new SymbolIndexIntersectRowCursorFactory(symbolColumnIndexes, symbolKeys, filter, true, indexDirection, columnIndexes);
+    }
+
     private RecordCursorFactory generateTableQuery(
             QueryModel model,
             SqlExecutionContext executionContext
@@ -3636,6 +4131,9 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         }
 
         final TableToken tableToken = executionContext.getTableToken(tab);
+        if (!queryTableTokens.contains(tableToken)) {
+            queryTableTokens.add(tableToken);
+        }
         if (model.isUpdate() && !executionContext.isWalApplication()) {
             try (
                     TableReader reader = executionContext.getReader(tableToken);
@@ -3965,7 +4463,20 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                             if (filter == null) {
                                 rcf = new SymbolIndexRowCursorFactory(keyColumnIndex, symbolKey, true, indexDirection, null);
                             } else {
-                                rcf = new SymbolIndexFilteredRowCursorFactory(keyColumnIndex, symbolKey, filter, true, indexDirection, columnIndexes, null);
+                                final RowCursorFactory intersection = generateSymbolIndexIntersection(
+                                        intrinsicModel.filter,
+                                        metadata,
+                                        reader,
+                                        keyColumnIndex,
+                                        symbolKey,
+                                        filter,
+                                        indexDirection,
+                                        columnIndexes,
+                                        executionContext
+                                );
+                                rcf = intersection != null
+                                        ? intersection
+                                        : new SymbolIndexFilteredRowCursorFactory(keyColumnIndex, symbolKey, filter, true, indexDirection, columnIndexes, null);
                             }
                         }
 
@@ -4050,6 +4561,23 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                 }
             }
 
+            if (intrinsicModel.filter != null) {
+                final RecordCursorFactory hashIndexFactory = generateHashIndexQuery(
+                        intrinsicModel.filter,
+                        metadata,
+                        myMeta,
+                        dfcFactory,
+                        orderDescendingByDesignatedTimestampOnly,
+                        columnIndexes,
+                        columnSizes,
+                        supportsRandomAccess,
+                        executionContext
+                );
+                if (hashIndexFactory != null) {
+                    return hashIndexFactory;
+                }
+            }
+
             if (intervalHitsOnlyOnePartition && intrinsicModel.filter == null) {
                 final ObjList<ExpressionNode> orderByAdvice = model.getOrderByAdvice();
                 final int orderByAdviceSize = orderByAdvice.size();
@@ -4060,7 +4588,7 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                     assert columnIndex > -1;
 
                     // this is our kind of column
-                    if (myMeta.isColumnIndexed(columnIndex)) {
+                    if (ColumnType.isSymbol(myMeta.getColumnType(columnIndex)) && myMeta.isColumnIndexed(columnIndex)) {
                         boolean orderByKeyColumn = false;
                         int indexDirection = BitmapIndexReader.DIR_FORWARD;
                         if (orderByAdviceSize == 1) {
@@ -4146,7 +4674,7 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         // listColumnFilterA = latest by column indexes
         if (latestByColumnCount == 1) {
             int latestByColumnIndex = listColumnFilterA.getColumnIndexFactored(0);
-            if (myMeta.isColumnIndexed(latestByColumnIndex)) {
+            if (ColumnType.isSymbol(myMeta.getColumnType(latestByColumnIndex)) && myMeta.isColumnIndexed(latestByColumnIndex)) {
                 return new LatestByAllIndexedRecordCursorFactory(
                         myMeta,
                         configuration,
@@ -4417,6 +4945,7 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                     case ColumnType.GEOINT:
                     case ColumnType.GEOLONG:
                     case ColumnType.LONG128:
+                    case ColumnType.VARCHAR:
                         // we are reusing collections which leads to confusing naming for this method
                         // keyTypes are types of columns we collect 'latest by' for
                         keyTypes.add(columnType);
@@ -4430,7 +4959,7 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                                 .put(latestByNode.token)
                                 .put(" (")
                                 .put(ColumnType.nameOf(columnType))
-                                .put("): invalid type, only [BOOLEAN, BYTE, SHORT, INT, LONG, DATE, TIMESTAMP, FLOAT, DOUBLE, LONG128, LONG256, CHAR, STRING, SYMBOL, UUID, GEOHASH] are supported in LATEST BY");
+                                .put("): invalid type, only [BOOLEAN, BYTE, SHORT, INT, LONG, DATE, TIMESTAMP, FLOAT, DOUBLE, LONG128, LONG256, CHAR, STRING, SYMBOL, UUID, GEOHASH, VARCHAR] are supported in LATEST BY");
                 }
             }
         }
@@ -4457,11 +4986,11 @@ public class SqlCodeGenerator implements Mutable, Closeable {
             // Key types have too much exactly except SYMBOL and STRING special case
             int columnTypeA = slaveMetadata.getColumnType(listColumnFilterA.getColumnIndexFactored(k));
             int columnTypeB = masterMetadata.getColumnType(listColumnFilterB.getColumnIndexFactored(k));
-            if (columnTypeB != columnTypeA && !(ColumnType.isSymbolOrString(columnTypeB) && ColumnType.isSymbolOrString(columnTypeA))) {
+            if (columnTypeB != columnTypeA && !(isJoinableAsString(columnTypeB) && isJoinableAsString(columnTypeA))) {
                 // index in column filter and join context is the same
                 throw SqlException.$(jc.aNodes.getQuick(k).position, "join column type mismatch");
             }
-            keyTypes.add(columnTypeB == ColumnType.SYMBOL ? ColumnType.STRING : columnTypeB);
+            keyTypes.add(isJoinableAsString(columnTypeB) ? ColumnType.STRING : columnTypeB);
         }
     }
 
@@ -4621,6 +5150,14 @@ public class SqlCodeGenerator implements Mutable, Closeable {
     }
 
     // used in tests
+    ObjList<TableToken> getQueryTableTokens() {
+        return queryTableTokens;
+    }
+
+    boolean isTableFunctionUsed() {
+        return tableFunctionUsed;
+    }
+
     void setEnableJitNullChecks(boolean value) {
         enableJitNullChecks = value;
     }
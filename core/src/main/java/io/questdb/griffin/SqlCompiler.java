@@ -39,9 +39,11 @@ import io.questdb.griffin.engine.ops.AlterOperationBuilder;
 import io.questdb.griffin.engine.ops.CopyFactory;
 import io.questdb.griffin.engine.ops.InsertOperationImpl;
 import io.questdb.griffin.engine.ops.UpdateOperation;
+import io.questdb.griffin.engine.table.ResultCacheRecordCursorFactory;
 import io.questdb.griffin.engine.table.ShowColumnsRecordCursorFactory;
 import io.questdb.griffin.engine.table.ShowPartitionsRecordCursorFactory;
 import io.questdb.griffin.engine.table.TableListRecordCursorFactory;
+import io.questdb.griffin.engine.table.parquet.ParquetEncoder;
 import io.questdb.griffin.model.*;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
@@ -50,7 +52,10 @@ import io.questdb.network.PeerIsSlowToReadException;
 import io.questdb.network.QueryPausedException;
 import io.questdb.std.*;
 import io.questdb.std.datetime.DateFormat;
+import io.questdb.std.datetime.microtime.TimestampFormatUtils;
+import io.questdb.std.datetime.microtime.Timestamps;
 import io.questdb.std.str.Path;
+import io.questdb.std.str.StringSink;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.TestOnly;
@@ -61,6 +66,7 @@ import java.util.function.Consumer;
 
 import static io.questdb.TelemetrySystemEvent.WAL_APPLY_RESUME;
 import static io.questdb.cairo.TableUtils.COLUMN_NAME_TXN_NONE;
+import static io.questdb.cairo.sql.DataFrameCursorFactory.ORDER_ASC;
 import static io.questdb.griffin.SqlKeywords.*;
 
 public class SqlCompiler implements Closeable {
@@ -91,6 +97,9 @@ public class SqlCompiler implements Closeable {
     private final CharSequenceObjHashMap<KeywordBasedExecutor> keywordBasedExecutors = new CharSequenceObjHashMap<>();
     private final GenericLexer lexer;
     private final ListColumnFilter listColumnFilter = new ListColumnFilter();
+    private final MatViewDefinition matViewDefinition = new MatViewDefinition();
+    private final GenericLexer matViewLexer;
+    private final StringSink matViewSink = new StringSink();
     private final MemoryMARW mem = Vm.getMARWInstance();
     private final MessageBus messageBus;
     private final SqlOptimiser optimiser;
@@ -102,6 +111,8 @@ public class SqlCompiler implements Closeable {
     private final ObjectPool<QueryModel> queryModelPool;
     private final IndexBuilder rebuildIndex = new IndexBuilder();
     private final Path renamePath = new Path();
+    private final GenericLexer resultCacheLexer;
+    private final StringSink resultCacheSink = new StringSink();
     private final DatabaseSnapshotAgent snapshotAgent;
     private final ObjectPool<ExpressionNode> sqlNodePool;
     private final TableStructureAdapter tableStructureAdapter = new TableStructureAdapter();
@@ -136,6 +147,8 @@ public class SqlCompiler implements Closeable {
                 configuration.getSqlCharacterStoreSequencePoolCapacity());
 
         this.lexer = new GenericLexer(configuration.getSqlLexerPoolCapacity());
+        this.matViewLexer = new GenericLexer(configuration.getSqlLexerPoolCapacity());
+        this.resultCacheLexer = new GenericLexer(configuration.getSqlLexerPoolCapacity());
         this.functionParser = new FunctionParser(
                 configuration,
                 functionFactoryCache != null
@@ -168,6 +181,7 @@ public class SqlCompiler implements Closeable {
         final KeywordBasedExecutor vacuumTable = this::vacuum;
         final KeywordBasedExecutor snapshotDatabase = this::snapshotDatabase;
         final KeywordBasedExecutor compileDeallocate = this::compileDeallocate;
+        final KeywordBasedExecutor refreshMatView = this::refreshMatView;
 
         keywordBasedExecutors.put("truncate", truncateTables);
         keywordBasedExecutors.put("TRUNCATE", truncateTables);
@@ -205,8 +219,12 @@ public class SqlCompiler implements Closeable {
         keywordBasedExecutors.put("SNAPSHOT", snapshotDatabase);
         keywordBasedExecutors.put("deallocate", compileDeallocate);
         keywordBasedExecutors.put("DEALLOCATE", compileDeallocate);
+        keywordBasedExecutors.put("refresh", refreshMatView);
+        keywordBasedExecutors.put("REFRESH", refreshMatView);
 
         configureLexer(lexer);
+        configureLexer(matViewLexer);
+        configureLexer(resultCacheLexer);
 
         final PostOrderTreeTraversalAlgo postOrderTreeTraversalAlgo = new PostOrderTreeTraversalAlgo();
         optimiser = new SqlOptimiser(
@@ -481,6 +499,13 @@ public class SqlCompiler implements Closeable {
                     } else {
                         throw SqlException.$(lexer.lastTokenPosition(), "'partition' expected");
                     }
+                } else if (SqlKeywords.isCompressKeyword(tok)) {
+                    tok = expectToken(lexer, "'partition'");
+                    if (SqlKeywords.isPartitionKeyword(tok)) {
+                        return alterTableDropDetachOrAttachPartition(tableMetadata, tableToken, PartitionAction.COMPRESS, executionContext);
+                    } else {
+                        throw SqlException.$(lexer.lastTokenPosition(), "'partition' expected");
+                    }
                 } else if (SqlKeywords.isDetachKeyword(tok)) {
                     tok = expectToken(lexer, "'partition'");
                     if (SqlKeywords.isPartitionKeyword(tok)) {
@@ -943,8 +968,11 @@ public class SqlCompiler implements Closeable {
                     case PartitionAction.DETACH:
                         alterOperationBuilder = this.alterOperationBuilder.ofDetachPartition(pos, tableToken, tableMetadata.getTableId());
                         break;
+                    case PartitionAction.COMPRESS:
+                        alterOperationBuilder = this.alterOperationBuilder.ofCompressPartition(pos, tableToken, tableMetadata.getTableId());
+                        break;
                     default:
-                        throw SqlException.$(pos, "WHERE clause can only be used with command DROP PARTITION, or DETACH PARTITION");
+                        throw SqlException.$(pos, "WHERE clause can only be used with command DROP PARTITION, DETACH PARTITION or COMPRESS PARTITION");
                 }
 
                 final int functionPosition = lexer.getPosition();
@@ -1004,6 +1032,9 @@ public class SqlCompiler implements Closeable {
                 // attach
                 alterOperationBuilder = this.alterOperationBuilder.ofAttachPartition(pos, tableToken, tableMetadata.getTableId());
                 break;
+            case PartitionAction.COMPRESS:
+                alterOperationBuilder = this.alterOperationBuilder.ofCompressPartition(pos, tableToken, tableMetadata.getTableId());
+                break;
             default:
                 alterOperationBuilder = null;
                 assert false;
@@ -1319,7 +1350,7 @@ public class SqlCompiler implements Closeable {
         switch (executionModel.getModelType()) {
             case ExecutionModel.QUERY:
                 LOG.info().$("plan [q=`").$((QueryModel) executionModel).$("`, fd=").$(executionContext.getRequestFd()).$(']').$();
-                return compiledQuery.of(generate((QueryModel) executionModel, executionContext));
+                return compiledQuery.of(generateWithResultCache((QueryModel) executionModel, executionContext));
             case ExecutionModel.CREATE_TABLE:
                 return createTableWithRetries(executionModel, executionContext);
             case ExecutionModel.COPY:
@@ -1683,6 +1714,9 @@ public class SqlCompiler implements Closeable {
                 throw SqlException.$(name.position, "Could not create table, ").put(e.getFlyweightMessage());
             }
         } else {
+            if (createTableModel.isMatView()) {
+                snapshotMatViewBaseTable(createTableModel, executionContext);
+            }
             boolean keepLock = !createTableModel.isWalEnabled();
             createTableFromCursorExecutor(createTableModel, executionContext, name.position, metadata -> {
                 if (volumeAlias == null) {
@@ -1705,6 +1739,10 @@ public class SqlCompiler implements Closeable {
                     );
                 }
             });
+            if (createTableModel.isMatView()) {
+                final TableToken viewToken = executionContext.getTableToken(name.token);
+                createTableModel.getMatViewDefinition().write(ff, path.of(configuration.getRoot()).concat(viewToken.getDirName()), mem);
+            }
         }
 
         if (createTableModel.getQueryModel() == null) {
@@ -1808,7 +1846,20 @@ public class SqlCompiler implements Closeable {
 
     @NotNull
     private CompiledQuery executeCopy(SqlExecutionContext executionContext, CopyModel executionModel) throws SqlException {
+        if (executionModel.isStdout()) {
+            // rows are streamed to the client by the wire protocol, nothing is written on the server
+            final QueryModel queryModel = optimiser.optimise(executionModel.getQueryModel(), executionContext);
+            return compiledQuery.ofCopyToStdout(
+                    codeGenerator.generate(queryModel, executionContext),
+                    executionModel.getFormat(),
+                    executionModel.isHeader()
+            );
+        }
         executionContext.getCairoSecurityContext().checkWritePermission();
+        if (executionModel.isExport()) {
+            exportToParquet(executionContext, executionModel);
+            return compiledQuery.ofCopyLocal(null);
+        }
         if (!executionModel.isCancel() && Chars.equalsLowerCaseAscii(executionModel.getFileName().token, "stdin")) {
             // no-op implementation
             setupTextLoaderFromModel(executionModel);
@@ -1840,6 +1891,36 @@ public class SqlCompiler implements Closeable {
         }
     }
 
+    private void exportToParquet(SqlExecutionContext executionContext, CopyModel model) throws SqlException {
+        final ExpressionNode fileNameNode = model.getFileName();
+        final CharSequence fileName = GenericLexer.assertNoDots(GenericLexer.unquote(fileNameNode.token), fileNameNode.position);
+        final QueryModel queryModel = optimiser.optimise(model.getQueryModel(), executionContext);
+        try (RecordCursorFactory factory = codeGenerator.generate(queryModel, executionContext)) {
+            final RecordMetadata metadata = factory.getMetadata();
+            for (int i = 0, n = metadata.getColumnCount(); i < n; i++) {
+                if (!ParquetEncoder.isSupported(metadata.getColumnType(i))) {
+                    throw SqlException.$(model.getTarget().position, "column type is not supported by parquet export [column=")
+                            .put(metadata.getColumnName(i))
+                            .put(", type=").put(ColumnType.nameOf(metadata.getColumnType(i)))
+                            .put(']');
+                }
+            }
+            if (!factory.supportPageFrameCursor()) {
+                throw SqlException.$(model.getTarget().position, "table does not support page frame access");
+            }
+            path.of(configuration.getSqlCopyInputRoot()).concat(fileName).$();
+            try (
+                    PageFrameCursor cursor = factory.getPageFrameCursor(executionContext, ORDER_ASC);
+                    ParquetEncoder encoder = new ParquetEncoder(configuration)
+            ) {
+                final long rowCount = encoder.export(cursor, metadata, path);
+                LOG.info().$("exported to parquet [path=").$(path).$(", rows=").$(rowCount).I$();
+            } catch (CairoException e) {
+                throw SqlException.$(fileNameNode.position, e.getFlyweightMessage());
+            }
+        }
+    }
+
     private CompiledQuery executeWithRetries(
             ExecutableMethod method,
             ExecutionModel executionModel,
@@ -2251,6 +2332,20 @@ public class SqlCompiler implements Closeable {
         return model;
     }
 
+    private CharSequence normalizeQueryText(CharSequence query) {
+        // queries that differ in whitespace and comments only share cache entries
+        resultCacheSink.clear();
+        resultCacheLexer.of(query);
+        CharSequence tok;
+        while ((tok = SqlUtil.fetchNext(resultCacheLexer)) != null) {
+            if (resultCacheSink.length() > 0) {
+                resultCacheSink.put(' ');
+            }
+            resultCacheSink.put(tok);
+        }
+        return resultCacheSink;
+    }
+
     private RecordCursorFactory prepareForUpdate(
             TableToken tableToken,
             QueryModel selectQueryModel,
@@ -2277,7 +2372,8 @@ public class SqlCompiler implements Closeable {
                 int tableColumnType = tableColumnTypes.get(tableColumnIndex);
 
                 if (virtualColumnType != tableColumnType) {
-                    if (!ColumnType.isSymbolOrString(tableColumnType) || !ColumnType.isAssignableFrom(virtualColumnType, ColumnType.STRING)) {
+                    if (!(ColumnType.isSymbolOrString(tableColumnType) || ColumnType.isVarchar(tableColumnType))
+                            || !ColumnType.isAssignableFrom(virtualColumnType, ColumnType.STRING)) {
                         // get column position
                         ExpressionNode setRhs = updateQueryModel.getNestedModel().getColumns().getQuick(i).getAst();
                         throw SqlException.inconvertibleTypes(setRhs.position, virtualColumnType, "", tableColumnType, updateColumnName);
@@ -2291,6 +2387,92 @@ public class SqlCompiler implements Closeable {
         }
     }
 
+    /**
+     * Brings materialized view up to date with its base table.
+     * <p>
+     * Expected syntax: REFRESH MATERIALIZED VIEW name [;]
+     * <p>
+     * Base table partitions are compared with the snapshot taken at the previous refresh. View partitions
+     * starting from the day of the earliest changed base partition are removed and re-aggregated from base
+     * rows of that day onwards. Unchanged base table makes refresh a no-op.
+     */
+    private CompiledQuery refreshMatView(SqlExecutionContext executionContext) throws SqlException {
+        executionContext.getCairoSecurityContext().checkWritePermission();
+        expectKeyword(lexer, "materialized");
+        expectKeyword(lexer, "view");
+        CharSequence tok = expectToken(lexer, "view name");
+        final int viewNamePos = lexer.lastTokenPosition();
+        final CharSequence viewName = GenericLexer.assertNoDotsAndSlashes(GenericLexer.unquote(tok), viewNamePos);
+        tok = SqlUtil.fetchNext(lexer);
+        if (tok != null && !Chars.equals(tok, ';')) {
+            throw SqlException.$(lexer.lastTokenPosition(), "end of line or ';' expected");
+        }
+
+        final TableToken viewToken = tableExistsOrFail(viewNamePos, viewName, executionContext);
+        if (!matViewDefinition.read(ff, path.of(configuration.getRoot()).concat(viewToken.getDirName()), mem)) {
+            throw SqlException.$(viewNamePos, "materialized view expected [table=").put(viewName).put(']');
+        }
+        final TableToken baseToken = tableExistsOrFail(viewNamePos, matViewDefinition.getBaseTableName(), executionContext);
+
+        final long refreshLo;
+        matViewSink.clear();
+        try (TableReader baseReader = executionContext.getReader(baseToken)) {
+            final long changeTimestamp = matViewDefinition.findEarliestChange(baseReader.getTxFile());
+            if (changeTimestamp == Long.MAX_VALUE) {
+                return compiledQuery.ofRefreshMatView();
+            }
+            // view buckets never cross day boundary, so whole days are re-aggregated
+            refreshLo = Timestamps.floorDD(changeTimestamp);
+            matViewDefinition.snapshot(baseReader.getTxFile());
+
+            final TableReaderMetadata baseMetadata = baseReader.getMetadata();
+            matViewSink.put(matViewDefinition.getQueryPrefix())
+                    .put("(\"").put(matViewDefinition.getBaseTableName()).put("\" where \"")
+                    .put(baseMetadata.getColumnName(baseMetadata.getTimestampIndex())).put("\" >= '");
+            TimestampFormatUtils.appendDateTimeUSec(matViewSink, refreshLo);
+            matViewSink.put("')").put(matViewDefinition.getQuerySuffix());
+        }
+
+        LOG.info().$("refreshing materialized view [view=").$(viewToken)
+                .$(", base=").$(baseToken)
+                .$(", from=").$ts(refreshLo)
+                .I$();
+
+        matViewLexer.of(matViewSink);
+        final QueryModel queryModel = optimiser.optimise((QueryModel) parser.parse(matViewLexer, executionContext), executionContext);
+        try (
+                TableWriter writer = engine.getWriter(executionContext.getCairoSecurityContext(), viewToken, "refresh materialized view");
+                RecordCursorFactory factory = generate(queryModel, executionContext);
+                RecordCursor cursor = factory.getCursor(executionContext)
+        ) {
+            for (int i = writer.getPartitionCount() - 1; i > -1; i--) {
+                final long partitionTimestamp = writer.getPartitionTimestamp(i);
+                if (partitionTimestamp < refreshLo) {
+                    break;
+                }
+                if (!writer.removePartition(partitionTimestamp)) {
+                    throw CairoException.critical(0).put("could not remove materialized view partition [view=").put(viewName)
+                            .put(", partition=").ts(partitionTimestamp).put(']');
+                }
+            }
+
+            final RecordMetadata cursorMetadata = factory.getMetadata();
+            final RecordMetadata writerMetadata = writer.getMetadata();
+            entityColumnFilter.of(writerMetadata.getColumnCount());
+            insertCount = copyTableData(
+                    cursor,
+                    cursorMetadata,
+                    writer,
+                    writerMetadata,
+                    RecordToRowCopierUtils.generateCopier(asm, cursorMetadata, writerMetadata, entityColumnFilter),
+                    executionContext.getCircuitBreaker()
+            );
+        }
+        // snapshot is saved only once view data is committed, failed refresh is repeated in full next time
+        matViewDefinition.write(ff, path.of(configuration.getRoot()).concat(viewToken.getDirName()), mem);
+        return compiledQuery.ofRefreshMatView();
+    }
+
     private CompiledQuery reindexTable(SqlExecutionContext executionContext) throws SqlException {
         CharSequence tok;
         tok = SqlUtil.fetchNext(lexer);
@@ -2403,6 +2585,19 @@ public class SqlCompiler implements Closeable {
                 model.getTimestampColumnName(), model.getTimestampFormat());
     }
 
+    private void snapshotMatViewBaseTable(CreateTableModel model, SqlExecutionContext executionContext) throws SqlException {
+        final MatViewDefinition definition = model.getMatViewDefinition();
+        final TableToken baseToken = tableExistsOrFail(model.getName().position, definition.getBaseTableName(), executionContext);
+        try (TableReader baseReader = executionContext.getReader(baseToken)) {
+            if (!PartitionBy.isPartitioned(baseReader.getPartitionedBy())) {
+                throw SqlException.$(model.getName().position, "materialized view base table must be partitioned [table=")
+                        .put(definition.getBaseTableName()).put(']');
+            }
+            // snapshot is taken before view query runs, changes that race with the query are re-aggregated by the next refresh
+            definition.snapshot(baseReader.getTxFile());
+        }
+    }
+
     private CompiledQuery snapshotDatabase(SqlExecutionContext executionContext) throws SqlException {
         executionContext.getCairoSecurityContext().checkWritePermission();
         CharSequence tok = expectToken(lexer, "'prepare' or 'complete'");
@@ -2691,8 +2886,8 @@ public class SqlCompiler implements Closeable {
             int to = ccm.getColumnType();
             if (isCompatibleCase(from, to)) {
                 int modelColumnIndex = model.getColumnIndex(columnName);
-                if (!ColumnType.isSymbol(to) && model.isIndexed(modelColumnIndex)) {
-                    throw SqlException.$(ccm.getColumnTypePos(), "indexes are supported only for SYMBOL columns: ").put(columnName);
+                if (!TableUtils.isIndexable(to) && model.isIndexed(modelColumnIndex)) {
+                    throw SqlException.$(ccm.getColumnTypePos(), "indexes are supported only for SYMBOL, INT, LONG and UUID columns: ").put(columnName);
                 }
                 typeCast.put(index, to);
             } else {
@@ -2700,7 +2895,7 @@ public class SqlCompiler implements Closeable {
             }
         }
 
-        // validate that all indexes are specified only on columns with symbol type
+        // validate that all indexes are specified only on columns of indexable type
         for (int i = 0, n = model.getColumnCount(); i < n; i++) {
             CharSequence columnName = model.getColumnName(i);
             ColumnCastModel ccm = castModels.get(columnName);
@@ -2710,8 +2905,8 @@ public class SqlCompiler implements Closeable {
             }
             int index = metadata.getColumnIndexQuiet(columnName);
             assert index > -1 : "wtf? " + columnName;
-            if (!ColumnType.isSymbol(metadata.getColumnType(index)) && model.isIndexed(i)) {
-                throw SqlException.$(0, "indexes are supported only for SYMBOL columns: ").put(columnName);
+            if (!TableUtils.isIndexable(metadata.getColumnType(index)) && model.isIndexed(i)) {
+                throw SqlException.$(0, "indexes are supported only for SYMBOL, INT, LONG and UUID columns: ").put(columnName);
             }
         }
 
@@ -2731,6 +2926,25 @@ public class SqlCompiler implements Closeable {
         return codeGenerator.generate(queryModel, executionContext);
     }
 
+    /**
+     * Generates query factory and wraps it into result cache when the cache is enabled and the query
+     * is cacheable, i.e. it reads from tables only and does not use non-deterministic functions.
+     */
+    RecordCursorFactory generateWithResultCache(QueryModel queryModel, SqlExecutionContext executionContext) throws SqlException {
+        final RecordCursorFactory factory = generate(queryModel, executionContext);
+        if (
+                configuration.isSqlResultCacheEnabled()
+                        && isSingleQueryMode
+                        && codeGenerator.getQueryTableTokens().size() > 0
+                        && !codeGenerator.isTableFunctionUsed()
+                        && !functionParser.isNonDeterministic()
+                        && QueryResultCache.isCacheable(factory.getMetadata())
+        ) {
+            return new ResultCacheRecordCursorFactory(factory, normalizeQueryText(lexer.getContent()), codeGenerator.getQueryTableTokens());
+        }
+        return factory;
+    }
+
     UpdateOperation generateUpdate(QueryModel updateQueryModel, SqlExecutionContext executionContext, TableRecordMetadata metadata) throws SqlException {
         TableToken updateTableToken = updateQueryModel.getUpdateTableToken();
         final QueryModel selectQueryModel = updateQueryModel.getNestedModel();
@@ -2781,6 +2995,7 @@ public class SqlCompiler implements Closeable {
 
     public final static class PartitionAction {
         public static final int ATTACH = 2;
+        public static final int COMPRESS = 4;
         public static final int DETACH = 3;
         public static final int DROP = 1;
     }
@@ -2859,6 +3074,11 @@ public class SqlCompiler implements Closeable {
             return timestampIndex;
         }
 
+        @Override
+        public boolean isDedupKey(int columnIndex) {
+            return model.isDedupKey(columnIndex);
+        }
+
         @Override
         public boolean isIndexed(int columnIndex) {
             return model.isIndexed(columnIndex);
@@ -3175,6 +3395,7 @@ public class SqlCompiler implements Closeable {
         castGroups.extendAndSet(ColumnType.STRING, 3);
         castGroups.extendAndSet(ColumnType.SYMBOL, 3);
         castGroups.extendAndSet(ColumnType.BINARY, 4);
+        castGroups.extendAndSet(ColumnType.VARCHAR, 3);
 
         sqlControlSymbols.add("(");
         sqlControlSymbols.add(";");
@@ -53,7 +53,14 @@ public interface SqlExecutionContext extends Closeable {
             @Nullable RecordSink partitionBySink,
             @Transient @Nullable ColumnTypes keyTypes,
             boolean isOrdered,
-            boolean baseSupportsRandomAccess
+            boolean baseSupportsRandomAccess,
+            int framingMode,
+            long rowsLo,
+            int rowsLoPos,
+            long rowsHi,
+            int rowsHiPos,
+            boolean defaultFrame,
+            int timestampIndex
     );
 
     AnalyticContext getAnalyticContext();
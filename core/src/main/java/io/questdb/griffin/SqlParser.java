@@ -26,8 +26,10 @@ package io.questdb.griffin;
 
 import io.questdb.cairo.*;
 import io.questdb.cutlass.text.Atomicity;
+import io.questdb.griffin.engine.groupby.TimestampSamplerFactory;
 import io.questdb.griffin.model.*;
 import io.questdb.std.*;
+import io.questdb.std.datetime.microtime.Timestamps;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -154,6 +156,12 @@ public final class SqlParser {
     }
 
     //prevent full/right from being used as table aliases
+    private void checkCopyEnabled(int position) throws SqlException {
+        if (Chars.isBlank(configuration.getSqlCopyInputRoot())) {
+            throw SqlException.$(position, "COPY is disabled ['cairo.sql.copy.root' is not set?]");
+        }
+    }
+
     private void checkSupportedJoinType(GenericLexer lexer, CharSequence tok) throws SqlException {
         if (tok != null && (SqlKeywords.isFullKeyword(tok) || SqlKeywords.isRightKeyword(tok))) {
             throw SqlException.$((lexer.lastTokenPosition()), "unsupported join type");
@@ -343,6 +351,71 @@ public final class SqlParser {
         return tok;
     }
 
+    private long parseAnalyticFrameBound(GenericLexer lexer, CharSequence tok, int framingMode) throws SqlException {
+        if (isUnboundedKeyword(tok)) {
+            tok = tok(lexer, "'preceding' or 'following'");
+            if (isPrecedingKeyword(tok)) {
+                return AnalyticColumn.UNBOUNDED_PRECEDING;
+            }
+            if (isFollowingKeyword(tok)) {
+                return AnalyticColumn.UNBOUNDED_FOLLOWING;
+            }
+            throw err(lexer, tok, "'preceding' or 'following' expected");
+        }
+
+        if (isCurrentKeyword(tok)) {
+            tok = tok(lexer, "'row'");
+            if (isRowKeyword(tok)) {
+                return 0;
+            }
+            throw err(lexer, tok, "'row' expected");
+        }
+
+        long offset;
+        try {
+            offset = Numbers.parseLong(tok);
+        } catch (NumericException e) {
+            throw err(lexer, tok, "'unbounded', 'current' or non-negative integer expected");
+        }
+        if (offset < 0 || offset == Long.MAX_VALUE) {
+            throw err(lexer, tok, "non-negative integer expected");
+        }
+        tok = tok(lexer, "'preceding' or 'following'");
+
+        if (framingMode == AnalyticColumn.FRAMING_RANGE) {
+            // range offset is in timestamp units unless time unit is specified
+            long multiplier = 0;
+            if (isMicrosecondsKeyword(tok)) {
+                multiplier = 1;
+            } else if (isMillisecondsKeyword(tok)) {
+                multiplier = Timestamps.MILLI_MICROS;
+            } else if (isSecondKeyword(tok)) {
+                multiplier = Timestamps.SECOND_MICROS;
+            } else if (isMinuteKeyword(tok)) {
+                multiplier = Timestamps.MINUTE_MICROS;
+            } else if (isHourKeyword(tok)) {
+                multiplier = Timestamps.HOUR_MICROS;
+            } else if (isDayKeyword(tok)) {
+                multiplier = Timestamps.DAY_MICROS;
+            }
+            if (multiplier > 0) {
+                if (offset > (Long.MAX_VALUE - 1) / multiplier) {
+                    throw err(lexer, tok, "frame offset is too large");
+                }
+                offset *= multiplier;
+                tok = tok(lexer, "'preceding' or 'following'");
+            }
+        }
+
+        if (isPrecedingKeyword(tok)) {
+            return -offset;
+        }
+        if (isFollowingKeyword(tok)) {
+            return offset;
+        }
+        throw err(lexer, tok, "'preceding' or 'following' expected");
+    }
+
     private QueryModel parseAsSubQueryAndExpectClosingBrace(GenericLexer lexer,
                                                             LowerCaseCharSequenceObjHashMap<WithClauseModel> withClauses,
                                                             boolean useTopLevelWithClauses)
@@ -353,11 +426,28 @@ public final class SqlParser {
     }
 
     private ExecutionModel parseCopy(GenericLexer lexer) throws SqlException {
-        if (Chars.isBlank(configuration.getSqlCopyInputRoot())) {
-            throw SqlException.$(lexer.lastTokenPosition(), "COPY is disabled ['cairo.sql.copy.root' is not set?]");
+        final int copyPosition = lexer.lastTokenPosition();
+        CharSequence tok = tok(lexer, "table name or '('");
+        if (Chars.equals(tok, '(')) {
+            // COPY (query) TO STDOUT
+            final int queryPosition = lexer.getPosition();
+            final QueryModel queryModel = parseDml(lexer, null, queryPosition, true);
+            expectTok(lexer, ')');
+            expectTok(lexer, "to");
+            tok = tok(lexer, "'stdout'");
+            if (!isStdoutKeyword(tok)) {
+                throw SqlException.$(lexer.lastTokenPosition(), "query results can only be copied to STDOUT");
+            }
+            return parseCopyToStdout(lexer, queryModel);
         }
+        lexer.unparseLast();
+
         ExpressionNode target = expectExpr(lexer);
-        CharSequence tok = tok(lexer, "'from' or 'to' or 'cancel'");
+        tok = tok(lexer, "'from' or 'to' or 'cancel'");
+
+        if (!isToKeyword(tok)) {
+            checkCopyEnabled(copyPosition);
+        }
 
         if (isCancelKeyword(tok)) {
             CopyModel model = copyModelPool.next();
@@ -439,10 +529,171 @@ public final class SqlParser {
             }
             return model;
         }
-        throw SqlException.$(lexer.lastTokenPosition(), "'from' expected");
+        if (isToKeyword(tok)) {
+            tok = tok(lexer, "'stdout' or file name");
+            if (isStdoutKeyword(tok)) {
+                return parseCopyToStdout(lexer, selectStarFrom(target));
+            }
+            lexer.unparseLast();
+            checkCopyEnabled(copyPosition);
+
+            final ExpressionNode fileName = expectExpr(lexer);
+            if (fileName.token.length() < 3 && Chars.startsWith(fileName.token, '\'')) {
+                throw SqlException.$(fileName.position, "file name expected");
+            }
+            tok = optTok(lexer);
+            if (tok != null && !isSemicolon(tok)) {
+                throw SqlException.$(lexer.lastTokenPosition(), "unexpected token [").put(tok).put(']');
+            }
+
+            CopyModel model = copyModelPool.next();
+            model.setExport(true);
+            model.setTarget(target);
+            model.setFileName(fileName);
+            model.setQueryModel(selectStarFrom(target));
+            return model;
+        }
+        throw SqlException.$(lexer.lastTokenPosition(), "'from' or 'to' expected");
+    }
+
+    private ExecutionModel parseCopyToStdout(GenericLexer lexer, QueryModel queryModel) throws SqlException {
+        final CopyModel model = copyModelPool.next();
+        model.setStdout(true);
+        model.setQueryModel(queryModel);
+
+        // both "WITH (FORMAT csv, HEADER true)" and the legacy "WITH CSV HEADER" forms are accepted
+        CharSequence tok = optTok(lexer);
+        if (tok != null && isWithKeyword(tok)) {
+            tok = tok(lexer, "copy option");
+        }
+        final boolean parenthesized = tok != null && Chars.equals(tok, '(');
+        if (parenthesized) {
+            tok = tok(lexer, "copy option");
+        }
+        while (tok != null && !isSemicolon(tok) && !Chars.equals(tok, ')')) {
+            if (isFormatKeyword(tok)) {
+                tok = tok(lexer, "'text', 'csv' or 'binary'");
+                if (isTextKeyword(tok)) {
+                    model.setFormat(CopyModel.COPY_FORMAT_TEXT);
+                } else if (isCsvKeyword(tok)) {
+                    model.setFormat(CopyModel.COPY_FORMAT_CSV);
+                } else if (isBinaryKeyword(tok)) {
+                    model.setFormat(CopyModel.COPY_FORMAT_BINARY);
+                } else {
+                    throw SqlException.$(lexer.lastTokenPosition(), "'text', 'csv' or 'binary' expected");
+                }
+                tok = optTok(lexer);
+            } else if (isCsvKeyword(tok)) {
+                model.setFormat(CopyModel.COPY_FORMAT_CSV);
+                tok = optTok(lexer);
+            } else if (isBinaryKeyword(tok)) {
+                model.setFormat(CopyModel.COPY_FORMAT_BINARY);
+                tok = optTok(lexer);
+            } else if (isHeaderKeyword(tok)) {
+                tok = optTok(lexer);
+                if (tok != null && (isTrueKeyword(tok) || isFalseKeyword(tok))) {
+                    model.setHeader(isTrueKeyword(tok));
+                    tok = optTok(lexer);
+                } else {
+                    model.setHeader(true);
+                }
+            } else {
+                throw SqlException.$(lexer.lastTokenPosition(), "unexpected option");
+            }
+            if (parenthesized && tok != null && Chars.equals(tok, ',')) {
+                tok = tok(lexer, "copy option");
+            }
+        }
+        if (parenthesized) {
+            if (tok == null || !Chars.equals(tok, ')')) {
+                throw SqlException.$(lexer.getPosition(), "')' expected");
+            }
+            tok = optTok(lexer);
+        }
+        if (tok != null && !isSemicolon(tok)) {
+            throw SqlException.$(lexer.lastTokenPosition(), "unexpected token [").put(tok).put(']');
+        }
+        if (model.isHeader() && model.getFormat() != CopyModel.COPY_FORMAT_CSV) {
+            throw SqlException.$(lexer.lastTokenPosition(), "HEADER is only supported in CSV format");
+        }
+        return model;
+    }
+
+    private ExecutionModel parseCreateMatView(GenericLexer lexer, SqlExecutionContext executionContext) throws SqlException {
+        final CreateTableModel model = createTableModelPool.next();
+        final CharSequence viewName = tok(lexer, "view name");
+        model.setName(nextLiteral(GenericLexer.assertNoDotsAndSlashes(GenericLexer.unquote(viewName), lexer.lastTokenPosition()), lexer.lastTokenPosition()));
+        expectTok(lexer, "as");
+        expectTok(lexer, '(');
+        final int queryLo = lexer.getPosition();
+        final QueryModel queryModel = parseDml(lexer, null, queryLo, true);
+        expectTok(lexer, ')');
+        final int queryHi = lexer.lastTokenPosition();
+
+        QueryModel sampleByModel = queryModel;
+        while (sampleByModel != null && sampleByModel.getSampleBy() == null) {
+            sampleByModel = sampleByModel.getNestedModel();
+        }
+        if (sampleByModel == null || queryModel.getUnionModel() != null) {
+            throw SqlException.$(queryLo, "materialized view query must be a SAMPLE BY query");
+        }
+        final ExpressionNode baseTableExpr = sampleByModel.getTableNameExpr();
+        if (baseTableExpr == null || baseTableExpr.type != ExpressionNode.LITERAL || sampleByModel.getJoinModels().size() > 1) {
+            throw SqlException.$(sampleByModel.getSampleBy().position, "materialized view must sample a single base table");
+        }
+        final ExpressionNode sampleByOffset = sampleByModel.getSampleByOffset();
+        if (sampleByOffset == null || !Chars.equals(sampleByOffset.token, ZERO_OFFSET.token) || sampleByModel.getSampleByTimezoneName() != null) {
+            throw SqlException.$(sampleByModel.getSampleBy().position, "materialized view requires ALIGN TO CALENDAR without time zone or offset");
+        }
+        if (sampleByModel.getSampleByFill().size() > 0) {
+            throw SqlException.$(sampleByModel.getSampleBy().position, "FILL is not supported in materialized view");
+        }
+        final ExpressionNode sampleBy = sampleByModel.getSampleBy();
+        if (sampleByModel.getSampleByUnit() != null) {
+            throw SqlException.$(sampleBy.position, "constant sample interval expected");
+        }
+        // buckets must not cross day boundaries, otherwise refreshing a day would produce partial buckets
+        if (TimestampSamplerFactory.getInstance(sampleBy.token, sampleBy.position).round(Timestamps.DAY_MICROS) != Timestamps.DAY_MICROS) {
+            throw SqlException.$(sampleBy.position, "materialized view sample interval must divide a day");
+        }
+
+        final CharSequence content = lexer.getContent();
+        final int tableLo = baseTableExpr.position;
+        final char c = content.charAt(tableLo);
+        final int tableHi = tableLo + baseTableExpr.token.length() + (c == '"' || c == '\'' ? 2 : 0);
+        model.getMatViewDefinition().of(
+                baseTableExpr.token,
+                Chars.toString(content, queryLo, tableLo),
+                Chars.toString(content, tableHi, queryHi)
+        );
+        model.setMatView(true);
+
+        final QueryModel optimisedModel = optimiser.optimise(queryModel, executionContext);
+        final ObjList<QueryColumn> columns = optimisedModel.getBottomUpColumns();
+        for (int i = 0, n = columns.size(); i < n; i++) {
+            model.addColumn(columns.getQuick(i).getName(), -1, configuration.getDefaultSymbolCapacity());
+        }
+        model.setQueryModel(optimisedModel);
+        // views are written by refresh directly, they are always partitioned by day and bypass WAL
+        model.setPartitionBy(nextLiteral(PartitionBy.toString(PartitionBy.DAY), queryHi));
+        model.setWalEnabled(false);
+        model.setMaxUncommittedRows(configuration.getMaxUncommittedRows());
+        model.setO3MaxLag(configuration.getO3MaxLag());
+
+        final CharSequence tok = optTok(lexer);
+        if (tok == null || Chars.equals(tok, ';')) {
+            return model;
+        }
+        throw errUnexpected(lexer, tok);
     }
 
     private ExecutionModel parseCreateStatement(GenericLexer lexer, SqlExecutionContext executionContext) throws SqlException {
+        final CharSequence tok = tok(lexer, "'table'");
+        if (isMaterializedKeyword(tok)) {
+            expectTok(lexer, "view");
+            return parseCreateMatView(lexer, executionContext);
+        }
+        lexer.unparseLast();
         expectTok(lexer, "table");
         return parseCreateTable(lexer, executionContext);
     }
@@ -543,6 +794,16 @@ public final class SqlParser {
                 ((walSetting == WAL_NOT_SET && configuration.getWalEnabledDefault()) || walSetting == WAL_ENABLED);
         model.setWalEnabled(isWalEnabled);
 
+        if (tok != null && isDedupKeyword(tok)) {
+            if (!isWalEnabled) {
+                throw SqlException.position(lexer.lastTokenPosition()).put("deduplication is possible only on WAL tables");
+            }
+            expectTok(lexer, "upsert");
+            expectTok(lexer, "keys");
+            parseDedupColumns(lexer, model);
+            tok = optTok(lexer);
+        }
+
         int maxUncommittedRows = configuration.getMaxUncommittedRows();
         long o3MaxLag = configuration.getO3MaxLag();
 
@@ -748,8 +1009,8 @@ public final class SqlParser {
         final int position = lexer.lastTokenPosition();
         final int columnIndex = getCreateTableColumnIndex(model, columnName, position);
         final int columnType = model.getColumnType(columnIndex);
-        if (columnType > -1 && !ColumnType.isSymbol(columnType)) {
-            throw SqlException.$(position, "indexes are supported only for SYMBOL columns: ").put(columnName);
+        if (columnType > -1 && !TableUtils.isIndexable(columnType)) {
+            throw SqlException.$(position, "indexes are supported only for SYMBOL, INT, LONG and UUID columns: ").put(columnName);
         }
 
         if (isCapacityKeyword(tok(lexer, "'capacity'"))) {
@@ -796,6 +1057,23 @@ public final class SqlParser {
         return null;
     }
 
+    private void parseDedupColumns(GenericLexer lexer, CreateTableModel model) throws SqlException {
+        final int listPosition = lexer.lastTokenPosition();
+        expectTok(lexer, '(');
+        CharSequence tok;
+        do {
+            tok = tok(lexer, "column name");
+            final int columnIndex = getCreateTableColumnIndex(model, GenericLexer.unquote(tok), lexer.lastTokenPosition());
+            model.setDedupKeyFlag(columnIndex);
+            tok = tok(lexer, "',' or ')'");
+        } while (Chars.equals(tok, ','));
+        expectTok(tok, lexer.lastTokenPosition(), ')');
+
+        if (!model.isDedupKey(model.getTimestampIndex())) {
+            throw SqlException.position(listPosition).put("deduplicate key list must include designated timestamp column");
+        }
+    }
+
     private QueryModel parseDml(
             GenericLexer lexer,
             @Nullable LowerCaseCharSequenceObjHashMap<WithClauseModel> withClauses,
@@ -1630,6 +1908,43 @@ public final class SqlParser {
                         }
                     } while (Chars.equals(tok, ','));
                 }
+                if (isRowsKeyword(tok) || isRangeKeyword(tok)) {
+                    final int framingMode = isRowsKeyword(tok) ? AnalyticColumn.FRAMING_ROWS : AnalyticColumn.FRAMING_RANGE;
+                    final int framingModePos = lexer.lastTokenPosition();
+                    final long rowsLo;
+                    final int rowsLoPos;
+                    final long rowsHi;
+                    final int rowsHiPos;
+
+                    tok = tok(lexer, "'between', 'unbounded', 'current' or integer");
+                    if (isBetweenKeyword(tok)) {
+                        tok = tok(lexer, "'unbounded', 'current' or integer");
+                        rowsLoPos = lexer.lastTokenPosition();
+                        rowsLo = parseAnalyticFrameBound(lexer, tok, framingMode);
+                        expectTok(lexer, "and");
+                        tok = tok(lexer, "'unbounded', 'current' or integer");
+                        rowsHiPos = lexer.lastTokenPosition();
+                        rowsHi = parseAnalyticFrameBound(lexer, tok, framingMode);
+                    } else {
+                        // short form, frame ends with current row
+                        rowsLoPos = lexer.lastTokenPosition();
+                        rowsLo = parseAnalyticFrameBound(lexer, tok, framingMode);
+                        rowsHiPos = rowsLoPos;
+                        rowsHi = 0;
+                    }
+
+                    if (rowsLo == AnalyticColumn.UNBOUNDED_FOLLOWING) {
+                        throw SqlException.$(rowsLoPos, "frame start cannot be UNBOUNDED FOLLOWING");
+                    }
+                    if (rowsHi == AnalyticColumn.UNBOUNDED_PRECEDING) {
+                        throw SqlException.$(rowsHiPos, "frame end cannot be UNBOUNDED PRECEDING");
+                    }
+                    if (rowsLo > rowsHi) {
+                        throw SqlException.$(rowsLoPos, "frame start cannot be after frame end");
+                    }
+                    ((AnalyticColumn) col).setFrame(framingMode, framingModePos, rowsLo, rowsLoPos, rowsHi, rowsHiPos);
+                    tok = tokIncludingLocalBrace(lexer, "')'");
+                }
                 expectTok(tok, lexer.lastTokenPosition(), ')');
                 tok = optTok(lexer);
 
@@ -2057,6 +2372,17 @@ public final class SqlParser {
         }
     }
 
+    // export of a table is compiled as "select * from <target>"
+    private QueryModel selectStarFrom(ExpressionNode target) throws SqlException {
+        final QueryModel queryModel = queryModelPool.next();
+        SqlUtil.addSelectStar(queryModel, queryColumnPool, expressionNodePool);
+        final QueryModel nestedModel = queryModelPool.next();
+        nestedModel.setTableNameExpr(nextLiteral(GenericLexer.unquote(target.token), target.position));
+        queryModel.setSelectModelType(QueryModel.SELECT_MODEL_CHOOSE);
+        queryModel.setNestedModel(nestedModel);
+        return queryModel;
+    }
+
     private CharSequence setModelAliasAndGetOptTok(GenericLexer lexer, QueryModel joinModel) throws SqlException {
         CharSequence tok = optTok(lexer);
         if (tok != null && tableAliasStop.excludes(tok)) {
@@ -271,6 +271,7 @@ public class UpdateOperatorImpl extends PurgingOperator implements QuietCloseabl
                 }
                 break;
             case ColumnType.BINARY:
+            case ColumnType.VARCHAR:
                 for (long row = fromRow; row < toRow; row++) {
                     dstFixMem.putLong(dstVarMem.putNullBin());
                 }
@@ -404,6 +405,9 @@ public class UpdateOperatorImpl extends PurgingOperator implements QuietCloseabl
                 case ColumnType.BINARY:
                     dstFixMem.putLong(dstVarMem.putBin(masterRecord.getBin(i)));
                     break;
+                case ColumnType.VARCHAR:
+                    dstFixMem.putLong(dstVarMem.putVarchar(masterRecord.getStr(i)));
+                    break;
                 case ColumnType.LONG128:
                     // fall-through
                 case ColumnType.UUID:
@@ -430,6 +434,7 @@ public class UpdateOperatorImpl extends PurgingOperator implements QuietCloseabl
                     break;
                 case ColumnType.STRING:
                 case ColumnType.BINARY:
+                case ColumnType.VARCHAR:
                     // Primary and secondary
                     srcColumns.add(Vm.getCMRInstance());
                     srcColumns.add(Vm.getCMRInstance());
@@ -570,6 +575,7 @@ public class UpdateOperatorImpl extends PurgingOperator implements QuietCloseabl
         switch (ColumnType.tagOf(columnType)) {
             case ColumnType.STRING:
             case ColumnType.BINARY:
+            case ColumnType.VARCHAR:
                 long varStartOffset = srcFixMem.getLong(fromRowId * Long.BYTES);
                 long varEndOffset = srcFixMem.getLong((toRowId) * Long.BYTES);
                 long varAddress = srcVarMem.addressOf(varStartOffset);
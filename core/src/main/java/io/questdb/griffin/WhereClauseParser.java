@@ -227,6 +227,11 @@ public final class WhereClauseParser implements Mutable {
                 || n.type == ExpressionNode.OPERATION;
     }
 
+    // non-symbol columns index hashes of their values, such indexes cannot serve as key column
+    private static boolean isIndexedSymbol(RecordMetadata m, int columnIndex) {
+        return ColumnType.isSymbol(m.getColumnType(columnIndex)) && m.isColumnIndexed(columnIndex);
+    }
+
     /**
      * Checks if a symbol column with idx index has more distinct values
      * or has higher capacity than the current key column.
@@ -1541,7 +1546,7 @@ public final class WhereClauseParser implements Mutable {
         return !latestByMultiColumn &&
                 (Chars.equalsIgnoreCaseNc(columnName, preferredKeyColumn)
                         ||
-                        (preferredKeyColumn == null && m.isColumnIndexed(m.getColumnIndex(columnName))));
+                        (preferredKeyColumn == null && isIndexedSymbol(m, m.getColumnIndex(columnName))));
     }
 
     private Function createKeyValueBindVariable(
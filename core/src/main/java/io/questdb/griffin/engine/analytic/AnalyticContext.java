@@ -31,12 +31,30 @@ import io.questdb.cairo.sql.VirtualRecord;
 public interface AnalyticContext {
     boolean baseSupportsRandomAccess();
 
+    int getFramingMode();
+
     ColumnTypes getPartitionByKeyTypes();
 
     VirtualRecord getPartitionByRecord();
 
     RecordSink getPartitionBySink();
 
+    long getRowsHi();
+
+    int getRowsHiPos();
+
+    long getRowsLo();
+
+    int getRowsLoPos();
+
+    /**
+     * Index of the timestamp column the analytic function is ordered by, it is
+     * used to resolve RANGE frames. The value is -1 when there is no such column.
+     */
+    int getTimestampIndex();
+
+    boolean isDefaultFrame();
+
     boolean isEmpty();
 
     boolean isOrdered();
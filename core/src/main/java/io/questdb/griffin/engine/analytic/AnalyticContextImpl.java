@@ -27,17 +27,25 @@ package io.questdb.griffin.engine.analytic;
 import io.questdb.cairo.ColumnTypes;
 import io.questdb.cairo.RecordSink;
 import io.questdb.cairo.sql.VirtualRecord;
+import io.questdb.griffin.model.AnalyticColumn;
 import io.questdb.std.Mutable;
 import io.questdb.std.Transient;
 import org.jetbrains.annotations.Nullable;
 
 public class AnalyticContextImpl implements AnalyticContext, Mutable {
     private boolean baseSupportsRandomAccess;
+    private boolean defaultFrame;
     private boolean empty = true;
+    private int framingMode;
     private boolean ordered;
     private ColumnTypes partitionByKeyTypes;
     private VirtualRecord partitionByRecord;
     private RecordSink partitionBySink;
+    private long rowsHi;
+    private int rowsHiPos;
+    private long rowsLo;
+    private int rowsLoPos;
+    private int timestampIndex;
 
     @Override
     public boolean baseSupportsRandomAccess() {
@@ -52,6 +60,18 @@ public class AnalyticContextImpl implements AnalyticContext, Mutable {
         this.partitionByKeyTypes = null;
         this.ordered = false;
         this.baseSupportsRandomAccess = false;
+        this.framingMode = AnalyticColumn.FRAMING_RANGE;
+        this.rowsLo = AnalyticColumn.UNBOUNDED_PRECEDING;
+        this.rowsLoPos = 0;
+        this.rowsHi = 0;
+        this.rowsHiPos = 0;
+        this.defaultFrame = true;
+        this.timestampIndex = -1;
+    }
+
+    @Override
+    public int getFramingMode() {
+        return framingMode;
     }
 
     @Override
@@ -69,6 +89,36 @@ public class AnalyticContextImpl implements AnalyticContext, Mutable {
         return partitionBySink;
     }
 
+    @Override
+    public long getRowsHi() {
+        return rowsHi;
+    }
+
+    @Override
+    public int getRowsHiPos() {
+        return rowsHiPos;
+    }
+
+    @Override
+    public long getRowsLo() {
+        return rowsLo;
+    }
+
+    @Override
+    public int getRowsLoPos() {
+        return rowsLoPos;
+    }
+
+    @Override
+    public int getTimestampIndex() {
+        return timestampIndex;
+    }
+
+    @Override
+    public boolean isDefaultFrame() {
+        return defaultFrame;
+    }
+
     @Override
     public boolean isEmpty() {
         return empty;
@@ -84,7 +134,14 @@ public class AnalyticContextImpl implements AnalyticContext, Mutable {
             @Nullable RecordSink partitionBySink,
             @Transient @Nullable ColumnTypes partitionByKeyTypes,
             boolean ordered,
-            boolean baseSupportsRandomAccess
+            boolean baseSupportsRandomAccess,
+            int framingMode,
+            long rowsLo,
+            int rowsLoPos,
+            long rowsHi,
+            int rowsHiPos,
+            boolean defaultFrame,
+            int timestampIndex
     ) {
         this.empty = false;
         this.partitionByRecord = partitionByRecord;
@@ -92,5 +149,12 @@ public class AnalyticContextImpl implements AnalyticContext, Mutable {
         this.partitionByKeyTypes = partitionByKeyTypes;
         this.ordered = ordered;
         this.baseSupportsRandomAccess = baseSupportsRandomAccess;
+        this.framingMode = framingMode;
+        this.rowsLo = rowsLo;
+        this.rowsLoPos = rowsLoPos;
+        this.rowsHi = rowsHi;
+        this.rowsHiPos = rowsHiPos;
+        this.defaultFrame = defaultFrame;
+        this.timestampIndex = timestampIndex;
     }
 }
@@ -37,11 +37,32 @@ public interface AnalyticFunction extends Function {
     int THREE_PASS = 3;
     int TWO_PASS = 2;
 
+    /**
+     * Computes the value of the function for the given record. Records must arrive in the order
+     * of the analytic function, so that the value can be evaluated without caching base cursor.
+     * The value is then available via the getters of the function. Only functions that
+     * return {@link #STREAM} pass count implement this method.
+     */
+    default void computeNext(Record record) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Returns the number of passes over the data the function needs. {@link #STREAM} functions compute
+     * the value of the current row from the current and preceding rows only. Other functions
+     * require the base cursor to be cached first, {@link #TWO_PASS} functions then compute values in
+     * {@link #pass1(Record, long, AnalyticSPI)} and {@link #THREE_PASS} functions also need
+     * {@link #pass2(Record, long, AnalyticSPI)}, for example when the value depends on the whole partition.
+     */
+    default int getPassCount() {
+        return TWO_PASS;
+    }
+
     void initRecordComparator(RecordComparatorCompiler recordComparatorCompiler, ArrayColumnTypes chainTypes, IntList order);
 
     void pass1(Record record, long recordOffset, AnalyticSPI spi);
 
-    void pass2(Record record);
+    void pass2(Record record, long recordOffset, AnalyticSPI spi);
 
     void preparePass2(RecordCursor cursor);
 
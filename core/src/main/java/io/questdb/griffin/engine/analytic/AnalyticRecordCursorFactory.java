@@ -0,0 +1,226 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.analytic;
+
+import io.questdb.cairo.AbstractRecordCursorFactory;
+import io.questdb.cairo.Reopenable;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.*;
+import io.questdb.griffin.PlanSink;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.functions.SymbolFunction;
+import io.questdb.griffin.engine.groupby.GroupByUtils;
+import io.questdb.griffin.engine.table.SelectedRecordCursor;
+import io.questdb.std.IntList;
+import io.questdb.std.Misc;
+import io.questdb.std.ObjList;
+
+/**
+ * Evaluates analytic functions while the base cursor is being read. Used when all analytic
+ * functions can be computed from the current and preceding rows and the base cursor
+ * already returns rows in the order of the functions, so there is no need to cache the base cursor.
+ */
+public class AnalyticRecordCursorFactory extends AbstractRecordCursorFactory {
+    private final ObjList<AnalyticFunction> analyticFunctions;
+    private final RecordCursorFactory base;
+    private final IntList columnIndexes;
+    private final AnalyticRecordCursor cursor;
+    // one function per output column, non-analytic columns are read from the base record
+    private final ObjList<Function> functions;
+    private boolean closed = false;
+
+    public AnalyticRecordCursorFactory(
+            RecordCursorFactory base,
+            RecordMetadata metadata,
+            ObjList<Function> functions,
+            ObjList<AnalyticFunction> analyticFunctions,
+            IntList columnIndexes
+    ) {
+        super(metadata);
+        this.base = base;
+        this.functions = functions;
+        this.analyticFunctions = analyticFunctions;
+        this.columnIndexes = columnIndexes;
+        this.cursor = new AnalyticRecordCursor(columnIndexes);
+    }
+
+    @Override
+    public boolean followedOrderByAdvice() {
+        return base.followedOrderByAdvice();
+    }
+
+    @Override
+    public String getBaseColumnName(int idx) {
+        return base.getMetadata().getColumnName(columnIndexes.getQuick(idx));
+    }
+
+    @Override
+    public RecordCursorFactory getBaseFactory() {
+        return base;
+    }
+
+    @Override
+    public RecordCursor getCursor(SqlExecutionContext executionContext) throws SqlException {
+        final RecordCursor baseCursor = base.getCursor(executionContext);
+        try {
+            cursor.of(baseCursor, executionContext);
+            return cursor;
+        } catch (Throwable th) {
+            cursor.close();
+            throw th;
+        }
+    }
+
+    @Override
+    public int getScanDirection() {
+        return base.getScanDirection();
+    }
+
+    @Override
+    public boolean recordCursorSupportsRandomAccess() {
+        return false;
+    }
+
+    @Override
+    public void toPlan(PlanSink sink) {
+        sink.type("Analytic");
+        sink.optAttr("functions", analyticFunctions, true);
+        sink.child(base);
+    }
+
+    @Override
+    public boolean usesCompiledFilter() {
+        return base.usesCompiledFilter();
+    }
+
+    private void resetFunctions() {
+        for (int i = 0, n = analyticFunctions.size(); i < n; i++) {
+            analyticFunctions.getQuick(i).reset();
+        }
+    }
+
+    @Override
+    protected void _close() {
+        if (closed) {
+            return;
+        }
+        Misc.free(base);
+        Misc.free(cursor);
+        Misc.freeObjList(functions);
+        closed = true;
+    }
+
+    class AnalyticRecordCursor implements RecordCursor {
+        private final VirtualRecord record;
+        // maps columns of the chain metadata, which functions were parsed against, to base columns
+        private final SelectedRecordCursor selectedCursor;
+        private RecordCursor baseCursor;
+        private SqlExecutionCircuitBreaker circuitBreaker;
+        private boolean isOpen;
+
+        AnalyticRecordCursor(IntList columnIndexes) {
+            this.selectedCursor = new SelectedRecordCursor(columnIndexes, false);
+            this.record = new VirtualRecord(functions);
+            this.isOpen = true;
+        }
+
+        @Override
+        public void close() {
+            if (isOpen) {
+                baseCursor = Misc.free(baseCursor);
+                resetFunctions();
+                isOpen = false;
+            }
+        }
+
+        @Override
+        public Record getRecord() {
+            return record;
+        }
+
+        @Override
+        public Record getRecordB() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public SymbolTable getSymbolTable(int columnIndex) {
+            return (SymbolTable) functions.getQuick(columnIndex);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!selectedCursor.hasNext()) {
+                return false;
+            }
+            circuitBreaker.statefulThrowExceptionIfTripped();
+            final Record baseRecord = selectedCursor.getRecord();
+            for (int i = 0, n = analyticFunctions.size(); i < n; i++) {
+                analyticFunctions.getQuick(i).computeNext(baseRecord);
+            }
+            return true;
+        }
+
+        @Override
+        public SymbolTable newSymbolTable(int columnIndex) {
+            return ((SymbolFunction) functions.getQuick(columnIndex)).newSymbolTable();
+        }
+
+        @Override
+        public void recordAt(Record record, long atRowId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long size() {
+            return selectedCursor.size();
+        }
+
+        @Override
+        public void toTop() {
+            selectedCursor.toTop();
+            GroupByUtils.toTop(functions);
+        }
+
+        private void of(RecordCursor baseCursor, SqlExecutionContext executionContext) throws SqlException {
+            this.baseCursor = baseCursor;
+            selectedCursor.of(baseCursor);
+            circuitBreaker = executionContext.getCircuitBreaker();
+            if (!isOpen) {
+                for (int i = 0, n = analyticFunctions.size(); i < n; i++) {
+                    final AnalyticFunction function = analyticFunctions.getQuick(i);
+                    if (function instanceof Reopenable) {
+                        ((Reopenable) function).reopen();
+                    }
+                }
+                isOpen = true;
+            }
+            record.of(selectedCursor.getRecord());
+            Function.init(functions, selectedCursor, executionContext);
+        }
+    }
+}
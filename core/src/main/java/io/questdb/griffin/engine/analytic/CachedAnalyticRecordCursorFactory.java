@@ -43,10 +43,13 @@ import org.jetbrains.annotations.Nullable;
 public class CachedAnalyticRecordCursorFactory extends AbstractRecordCursorFactory {
     private final ObjList<AnalyticFunction> allFunctions;
     private final RecordCursorFactory base;
+    private final IntList columnIndexes;
     private final ObjList<RecordComparator> comparators;
     private final CachedAnalyticRecordCursor cursor;
     private final ObjList<ObjList<AnalyticFunction>> orderedFunctions;
     private final int orderedGroupCount;
+    // functions that need a second pass over the record chain, e.g. aggregates over the whole partition
+    private final ObjList<AnalyticFunction> pass2Functions;
     @Nullable
     private final ObjList<AnalyticFunction> unorderedFunctions;
     private boolean closed = false;
@@ -68,6 +71,7 @@ public class CachedAnalyticRecordCursorFactory extends AbstractRecordCursorFacto
         assert orderedGroupCount == orderedFunctions.size();
         this.orderedFunctions = orderedFunctions;
         this.comparators = comparators;
+        this.columnIndexes = columnIndexes;
         RecordChain recordChain = new RecordChain(
                 chainMetadata,
                 recordSink,
@@ -99,6 +103,13 @@ public class CachedAnalyticRecordCursorFactory extends AbstractRecordCursorFacto
         }
 
         this.unorderedFunctions = unorderedFunctions;
+
+        this.pass2Functions = new ObjList<>();
+        for (int i = 0, n = allFunctions.size(); i < n; i++) {
+            if (allFunctions.getQuick(i).getPassCount() == AnalyticFunction.THREE_PASS) {
+                pass2Functions.add(allFunctions.getQuick(i));
+            }
+        }
     }
 
     @Override
@@ -106,6 +117,12 @@ public class CachedAnalyticRecordCursorFactory extends AbstractRecordCursorFacto
         return base.followedOrderByAdvice();
     }
 
+    @Override
+    public String getBaseColumnName(int idx) {
+        // analytic functions refer to columns of the record chain
+        return base.getMetadata().getColumnName(columnIndexes.getQuick(idx));
+    }
+
     @Override
     public RecordCursorFactory getBaseFactory() {
         return base;
@@ -115,6 +132,13 @@ public class CachedAnalyticRecordCursorFactory extends AbstractRecordCursorFacto
     public RecordCursor getCursor(SqlExecutionContext executionContext) throws SqlException {
         final RecordCursor baseCursor = base.getCursor(executionContext);
         cursor.of(baseCursor, executionContext);
+        try {
+            // analytic functions are evaluated over records of the chain, symbol tables are resolved by the cursor
+            Function.init(allFunctions, cursor, executionContext);
+        } catch (Throwable th) {
+            cursor.close();
+            throw th;
+        }
         return cursor;
     }
 
@@ -126,7 +150,7 @@ public class CachedAnalyticRecordCursorFactory extends AbstractRecordCursorFacto
     @Override
     public void toPlan(PlanSink sink) {
         sink.type("CachedAnalytic");
-        sink.optAttr("functions", allFunctions);
+        sink.optAttr("functions", allFunctions, true);
         sink.child(base);
     }
 
@@ -284,6 +308,18 @@ public class CachedAnalyticRecordCursorFactory extends AbstractRecordCursorFacto
                 }
             }
 
+            // step #3: run pass2 for functions that need to see all rows of the partition first
+            final int pass2FunctionCount = pass2Functions.size();
+            if (pass2FunctionCount > 0) {
+                recordChain.toTop();
+                while (recordChain.hasNext()) {
+                    circuitBreaker.statefulThrowExceptionIfTripped();
+                    for (int j = 0; j < pass2FunctionCount; j++) {
+                        pass2Functions.getQuick(j).pass2(chainRecord, chainRecord.getRowId(), recordChain);
+                    }
+                }
+            }
+
             recordChain.toTop();
         }
 
@@ -58,10 +58,30 @@ public interface GroupByFunction extends Function, Mutable {
         return false;
     }
 
+    /**
+     * Returns true if the function state can be computed independently on multiple
+     * threads and then combined via {@link #merge(MapValue, MapValue)}.
+     */
+    default boolean isParallelismSupported() {
+        return false;
+    }
+
     default boolean isScalar() {
         return true;
     }
 
+    /**
+     * Combines the partial state computed by another instance of the same function
+     * into the destination map value. Called only if {@link #isParallelismSupported()}
+     * returns true.
+     *
+     * @param destValue map value holding the state to be updated
+     * @param srcValue  map value holding the partial state to merge
+     */
+    default void merge(MapValue destValue, MapValue srcValue) {
+        throw new UnsupportedOperationException();
+    }
+
     void pushValueTypes(ArrayColumnTypes columnTypes);
 
     default void setByte(MapValue mapValue, byte value) {
@@ -168,7 +168,7 @@ public abstract class StrFunction implements ScalarFunction {
     }
 
     @Override
-    public final int getType() {
+    public int getType() {
         return ColumnType.STRING;
     }
 
@@ -0,0 +1,312 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.functions.analytic;
+
+import io.questdb.cairo.ArrayColumnTypes;
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.Reopenable;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.*;
+import io.questdb.griffin.FunctionFactory;
+import io.questdb.griffin.PlanSink;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.analytic.AnalyticContext;
+import io.questdb.griffin.engine.analytic.AnalyticFunction;
+import io.questdb.griffin.engine.functions.DoubleFunction;
+import io.questdb.griffin.engine.functions.LongFunction;
+import io.questdb.griffin.engine.orderby.RecordComparatorCompiler;
+import io.questdb.griffin.model.AnalyticColumn;
+import io.questdb.std.*;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Base for aggregates that are computed over an analytic frame. Supported frames either end with
+ * the current row, which allows computing the aggregate in one pass, or span the whole partition.
+ * RANGE frames with an offset require the function to be ordered by a timestamp column.
+ */
+abstract class AbstractFrameAnalyticFunctionFactory implements FunctionFactory {
+
+    @Override
+    public boolean isWindow() {
+        return true;
+    }
+
+    @Override
+    public Function newInstance(
+            int position,
+            ObjList<Function> args,
+            IntList argPositions,
+            CairoConfiguration configuration,
+            SqlExecutionContext sqlExecutionContext
+    ) throws SqlException {
+        final AnalyticContext analyticContext = sqlExecutionContext.getAnalyticContext();
+        if (analyticContext.isEmpty()) {
+            throw SqlException.$(position, "analytic function called in non-analytic context, make sure to add OVER clause");
+        }
+
+        final long rowsLo = analyticContext.getRowsLo();
+        final long rowsHi = analyticContext.getRowsHi();
+        final boolean wholePartition = (analyticContext.isDefaultFrame() && !analyticContext.isOrdered())
+                || (rowsLo == AnalyticColumn.UNBOUNDED_PRECEDING && rowsHi == AnalyticColumn.UNBOUNDED_FOLLOWING);
+        long frameSize = -1;
+        if (!wholePartition) {
+            if (rowsHi == AnalyticColumn.UNBOUNDED_FOLLOWING) {
+                throw SqlException.$(analyticContext.getRowsLoPos(), "frame start must be UNBOUNDED PRECEDING when frame end is UNBOUNDED FOLLOWING");
+            }
+            if (rowsHi != 0) {
+                throw SqlException.$(analyticContext.getRowsHiPos(), "frame end must be CURRENT ROW or UNBOUNDED FOLLOWING");
+            }
+            if (rowsLo != AnalyticColumn.UNBOUNDED_PRECEDING) {
+                if (analyticContext.getFramingMode() == AnalyticColumn.FRAMING_RANGE && analyticContext.getTimestampIndex() < 0) {
+                    throw SqlException.$(analyticContext.getRowsLoPos(), "RANGE frame with offset requires ORDER BY on a single timestamp column in ascending order");
+                }
+                frameSize = -rowsLo;
+            }
+        }
+
+        final Function arg = args != null && args.size() > 0 ? args.getQuick(0) : null;
+        final FrameAggregator aggregator = new FrameAggregator(configuration, analyticContext, getKind(), frameSize, wholePartition);
+        if (getKind() == FrameAggregator.KIND_COUNT) {
+            return new LongFrameFunction(getName(), arg, aggregator, wholePartition);
+        }
+        return new DoubleFrameFunction(getName(), arg, aggregator, wholePartition);
+    }
+
+    protected abstract int getKind();
+
+    protected abstract String getName();
+
+    private static class DoubleFrameFunction extends DoubleFunction implements ScalarFunction, AnalyticFunction, Reopenable {
+        private final FrameAggregator aggregator;
+        private final Function arg;
+        private final String name;
+        private final boolean wholePartition;
+        private int columnIndex;
+
+        private DoubleFrameFunction(String name, Function arg, FrameAggregator aggregator, boolean wholePartition) {
+            this.name = name;
+            this.arg = arg;
+            this.aggregator = aggregator;
+            this.wholePartition = wholePartition;
+        }
+
+        @Override
+        public void close() {
+            Misc.free(arg);
+            Misc.free(aggregator);
+        }
+
+        @Override
+        public void computeNext(Record record) {
+            aggregator.computeNext(record, arg.getDouble(record));
+        }
+
+        @Override
+        public double getDouble(Record rec) {
+            return aggregator.getDouble();
+        }
+
+        @Override
+        public int getPassCount() {
+            return wholePartition ? THREE_PASS : STREAM;
+        }
+
+        @Override
+        public void init(SymbolTableSource symbolTableSource, SqlExecutionContext executionContext) throws SqlException {
+            arg.init(symbolTableSource, executionContext);
+            aggregator.init(symbolTableSource, executionContext);
+        }
+
+        @Override
+        public void initRecordComparator(RecordComparatorCompiler recordComparatorCompiler, ArrayColumnTypes chainTypes, IntList order) {
+        }
+
+        @Override
+        public boolean isReadThreadSafe() {
+            return false;
+        }
+
+        @Override
+        public void pass1(Record record, long recordOffset, AnalyticSPI spi) {
+            if (wholePartition) {
+                aggregator.accumulate(record, arg.getDouble(record));
+            } else {
+                computeNext(record);
+                Unsafe.getUnsafe().putDouble(spi.getAddress(recordOffset, columnIndex), aggregator.getDouble());
+            }
+        }
+
+        @Override
+        public void pass2(Record record, long recordOffset, AnalyticSPI spi) {
+            if (wholePartition) {
+                aggregator.locate(record);
+                Unsafe.getUnsafe().putDouble(spi.getAddress(recordOffset, columnIndex), aggregator.getDouble());
+            }
+        }
+
+        @Override
+        public void preparePass2(RecordCursor cursor) {
+        }
+
+        @Override
+        public void reopen() {
+            aggregator.reopen();
+        }
+
+        @Override
+        public void reset() {
+            aggregator.reset();
+        }
+
+        @Override
+        public void setColumnIndex(int columnIndex) {
+            this.columnIndex = columnIndex;
+        }
+
+        @Override
+        public void toPlan(PlanSink sink) {
+            sink.val(name).val('(').val(arg).val(')');
+            aggregator.toPlan(sink);
+        }
+
+        @Override
+        public void toTop() {
+            aggregator.toTop();
+        }
+    }
+
+    private static class LongFrameFunction extends LongFunction implements ScalarFunction, AnalyticFunction, Reopenable {
+        private final FrameAggregator aggregator;
+        @Nullable
+        private final Function arg;
+        private final String name;
+        private final boolean wholePartition;
+        private int columnIndex;
+
+        private LongFrameFunction(String name, @Nullable Function arg, FrameAggregator aggregator, boolean wholePartition) {
+            this.name = name;
+            this.arg = arg;
+            this.aggregator = aggregator;
+            this.wholePartition = wholePartition;
+        }
+
+        @Override
+        public void close() {
+            Misc.free(arg);
+            Misc.free(aggregator);
+        }
+
+        @Override
+        public void computeNext(Record record) {
+            aggregator.computeNext(record, getValue(record));
+        }
+
+        @Override
+        public long getLong(Record rec) {
+            return aggregator.getCount();
+        }
+
+        @Override
+        public int getPassCount() {
+            return wholePartition ? THREE_PASS : STREAM;
+        }
+
+        @Override
+        public void init(SymbolTableSource symbolTableSource, SqlExecutionContext executionContext) throws SqlException {
+            if (arg != null) {
+                arg.init(symbolTableSource, executionContext);
+            }
+            aggregator.init(symbolTableSource, executionContext);
+        }
+
+        @Override
+        public void initRecordComparator(RecordComparatorCompiler recordComparatorCompiler, ArrayColumnTypes chainTypes, IntList order) {
+        }
+
+        @Override
+        public boolean isReadThreadSafe() {
+            return false;
+        }
+
+        @Override
+        public void pass1(Record record, long recordOffset, AnalyticSPI spi) {
+            if (wholePartition) {
+                aggregator.accumulate(record, getValue(record));
+            } else {
+                computeNext(record);
+                Unsafe.getUnsafe().putLong(spi.getAddress(recordOffset, columnIndex), aggregator.getCount());
+            }
+        }
+
+        @Override
+        public void pass2(Record record, long recordOffset, AnalyticSPI spi) {
+            if (wholePartition) {
+                aggregator.locate(record);
+                Unsafe.getUnsafe().putLong(spi.getAddress(recordOffset, columnIndex), aggregator.getCount());
+            }
+        }
+
+        @Override
+        public void preparePass2(RecordCursor cursor) {
+        }
+
+        @Override
+        public void reopen() {
+            aggregator.reopen();
+        }
+
+        @Override
+        public void reset() {
+            aggregator.reset();
+        }
+
+        @Override
+        public void setColumnIndex(int columnIndex) {
+            this.columnIndex = columnIndex;
+        }
+
+        @Override
+        public void toPlan(PlanSink sink) {
+            sink.val(name).val('(');
+            if (arg != null) {
+                sink.val(arg);
+            }
+            sink.val(')');
+            aggregator.toPlan(sink);
+        }
+
+        @Override
+        public void toTop() {
+            aggregator.toTop();
+        }
+
+        // count() counts all rows, count(x) skips nulls
+        private double getValue(Record record) {
+            return arg != null ? arg.getDouble(record) : 0;
+        }
+    }
+}
@@ -0,0 +1,476 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.functions.analytic;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.RecordSink;
+import io.questdb.cairo.Reopenable;
+import io.questdb.cairo.SingleColumnType;
+import io.questdb.cairo.map.Map;
+import io.questdb.cairo.map.MapFactory;
+import io.questdb.cairo.map.MapKey;
+import io.questdb.cairo.map.MapValue;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.*;
+import io.questdb.cairo.vm.Vm;
+import io.questdb.cairo.vm.api.MemoryCARW;
+import io.questdb.griffin.PlanSink;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.analytic.AnalyticContext;
+import io.questdb.griffin.model.AnalyticColumn;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Misc;
+import io.questdb.std.Unsafe;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Incrementally computes an aggregate over an analytic frame that ends with the current row.
+ * <p>
+ * State of each partition is a fixed-size header followed by a ring buffer of (position, value)
+ * entries that are still inside the frame. Position is the row number within partition for ROWS frames
+ * and the value of the ORDER BY timestamp for RANGE frames. Both live in native memory, map of
+ * partition keys stores offsets of partition headers only. Unbounded frames do not need the ring buffer.
+ * When the ring buffer is full, it is moved to a new region twice the size, previous region is
+ * released when the function is reset.
+ */
+class FrameAggregator implements Reopenable {
+    static final int KIND_AVG = 0;
+    static final int KIND_COUNT = 1;
+    static final int KIND_FIRST_VALUE = 2;
+    static final int KIND_LAG = 3;
+    static final int KIND_LAST_VALUE = 4;
+    static final int KIND_LEAD = 5;
+    static final int KIND_MAX = 6;
+    static final int KIND_MIN = 7;
+    static final int KIND_SUM = 8;
+    private static final long ENTRY_SIZE = 2 * Long.BYTES;
+    private static final long HEADER_COUNT = 8;
+    private static final long HEADER_DEQUE_CAPACITY = 40;
+    private static final long HEADER_DEQUE_HEAD = 48;
+    private static final long HEADER_DEQUE_SIZE = 56;
+    private static final long HEADER_DEQUE_START = 32;
+    private static final long HEADER_ROW_COUNT = 24;
+    private static final long HEADER_SIZE = 8 * Long.BYTES;
+    private static final long HEADER_SUM = 0;
+    private static final long HEADER_VALUE = 16;
+    private static final long INITIAL_DEQUE_CAPACITY = 16;
+    private static final SingleColumnType LONG_COLUMN_TYPE = new SingleColumnType(ColumnType.LONG);
+    private final int framingMode;
+    // number of preceding rows, or timestamp units for RANGE frames, that are in the frame;
+    // -1 stands for unbounded preceding
+    private final long frameSize;
+    private final int kind;
+    @Nullable
+    private final Map map;
+    private final MemoryCARW memory;
+    @Nullable
+    private final VirtualRecord partitionByRecord;
+    @Nullable
+    private final RecordSink partitionBySink;
+    private final int timestampIndex;
+    private final boolean wholePartition;
+    private long count;
+    private double value;
+
+    FrameAggregator(
+            CairoConfiguration configuration,
+            AnalyticContext analyticContext,
+            int kind,
+            long frameSize,
+            boolean wholePartition
+    ) {
+        this.kind = kind;
+        this.frameSize = frameSize;
+        this.wholePartition = wholePartition;
+        this.framingMode = analyticContext.getFramingMode();
+        this.timestampIndex = framingMode == AnalyticColumn.FRAMING_RANGE && frameSize > -1 && kind != KIND_LAG && kind != KIND_LEAD
+                ? analyticContext.getTimestampIndex()
+                : -1;
+        this.partitionByRecord = analyticContext.getPartitionByRecord();
+        if (partitionByRecord != null) {
+            this.partitionBySink = analyticContext.getPartitionBySink();
+            this.map = MapFactory.createMap(configuration, analyticContext.getPartitionByKeyTypes(), LONG_COLUMN_TYPE);
+        } else {
+            this.partitionBySink = null;
+            this.map = null;
+        }
+        this.memory = Vm.getCARWInstance(
+                configuration.getSqlAnalyticStorePageSize(),
+                configuration.getSqlAnalyticStoreMaxPages(),
+                MemoryTag.NATIVE_DEFAULT
+        );
+    }
+
+    /**
+     * Adds value to the partition of the record without computing the result, used by
+     * whole partition aggregates. The result is available via {@link #locate(Record)} once all rows
+     * were added.
+     */
+    void accumulate(Record record, double value) {
+        final long header = partitionHeader(record);
+        accumulate(header, nextRowNumber(header), value);
+    }
+
+    @Override
+    public void close() {
+        Misc.free(map);
+        Misc.free(memory);
+        if (partitionByRecord != null) {
+            Misc.freeObjList(partitionByRecord.getFunctions());
+        }
+    }
+
+    /**
+     * Lead is computed by deferring writes: a row is written once the row that
+     * leads it by the offset arrives. Rows without such row keep the default value.
+     */
+    void computeLead(Record record, long recordOffset, AnalyticSPI spi, int columnIndex, double value, double defaultValue) {
+        final long header = partitionHeader(record);
+        final long rowNumber = nextRowNumber(header);
+        if (frameSize == 0) {
+            Unsafe.getUnsafe().putDouble(spi.getAddress(recordOffset, columnIndex), value);
+            return;
+        }
+        Unsafe.getUnsafe().putDouble(spi.getAddress(recordOffset, columnIndex), defaultValue);
+        push(header, rowNumber, recordOffset);
+        if (memory.getLong(header + HEADER_DEQUE_SIZE) > frameSize) {
+            final long leadOffset = memory.getLong(frontEntry(header) + Long.BYTES);
+            popFront(header);
+            Unsafe.getUnsafe().putDouble(spi.getAddress(leadOffset, columnIndex), value);
+        }
+    }
+
+    /**
+     * Adds value of the current row and computes the aggregate over the frame ending with this row.
+     */
+    void computeNext(Record record, double value) {
+        final long header = partitionHeader(record);
+        final long rowNumber = nextRowNumber(header);
+        if (frameSize < 0) {
+            accumulate(header, rowNumber, value);
+            readResult(header);
+        } else {
+            slide(header, timestampIndex > -1 ? record.getTimestamp(timestampIndex) : rowNumber, value);
+        }
+    }
+
+    long getCount() {
+        return count;
+    }
+
+    double getDouble() {
+        return value;
+    }
+
+    void init(SymbolTableSource symbolTableSource, SqlExecutionContext executionContext) throws SqlException {
+        if (partitionByRecord != null) {
+            Function.init(partitionByRecord.getFunctions(), symbolTableSource, executionContext);
+        }
+    }
+
+    /**
+     * Reads the aggregate of the whole partition of the record.
+     */
+    void locate(Record record) {
+        readResult(partitionHeader(record));
+    }
+
+    @Override
+    public void reopen() {
+        if (map != null) {
+            map.reopen();
+        }
+    }
+
+    void reset() {
+        if (map != null) {
+            map.close();
+        }
+        memory.close();
+    }
+
+    void toPlan(PlanSink sink) {
+        sink.val(" over (");
+        if (partitionByRecord != null) {
+            sink.val("partition by ").val(partitionByRecord.getFunctions());
+            if (kind == KIND_LAG || kind == KIND_LEAD) {
+                sink.val(')');
+                return;
+            }
+            sink.val(' ');
+        } else if (kind == KIND_LAG || kind == KIND_LEAD) {
+            sink.val(')');
+            return;
+        }
+        sink.val(framingMode == AnalyticColumn.FRAMING_ROWS ? "rows" : "range").val(" between ");
+        if (wholePartition || frameSize < 0) {
+            sink.val("unbounded");
+        } else {
+            sink.val(frameSize);
+        }
+        sink.val(" preceding and ").val(wholePartition ? "unbounded following" : "current row").val(')');
+    }
+
+    void toTop() {
+        if (map != null) {
+            map.clear();
+        }
+        memory.truncate();
+    }
+
+    private static long nextIndex(long index, long capacity) {
+        return index + 1 < capacity ? index + 1 : 0;
+    }
+
+    private void accumulate(long header, long rowNumber, double value) {
+        switch (kind) {
+            case KIND_SUM:
+            case KIND_AVG:
+            case KIND_COUNT:
+                if (!Double.isNaN(value)) {
+                    memory.putDouble(header + HEADER_SUM, memory.getDouble(header + HEADER_SUM) + value);
+                    memory.putLong(header + HEADER_COUNT, memory.getLong(header + HEADER_COUNT) + 1);
+                }
+                break;
+            case KIND_MIN:
+                if (!Double.isNaN(value)) {
+                    final double min = memory.getDouble(header + HEADER_VALUE);
+                    if (Double.isNaN(min) || value < min) {
+                        memory.putDouble(header + HEADER_VALUE, value);
+                    }
+                }
+                break;
+            case KIND_MAX:
+                if (!Double.isNaN(value)) {
+                    final double max = memory.getDouble(header + HEADER_VALUE);
+                    if (Double.isNaN(max) || value > max) {
+                        memory.putDouble(header + HEADER_VALUE, value);
+                    }
+                }
+                break;
+            case KIND_FIRST_VALUE:
+                if (rowNumber == 0) {
+                    memory.putDouble(header + HEADER_VALUE, value);
+                }
+                break;
+            default:
+                memory.putDouble(header + HEADER_VALUE, value);
+                break;
+        }
+    }
+
+    private long allocate(long size) {
+        final long offset = memory.getAppendOffset();
+        memory.jumpTo(offset + size);
+        return offset;
+    }
+
+    private long allocateHeader() {
+        final long header = allocate(HEADER_SIZE);
+        memory.putDouble(header + HEADER_SUM, 0);
+        memory.putLong(header + HEADER_COUNT, 0);
+        memory.putDouble(header + HEADER_VALUE, Double.NaN);
+        memory.putLong(header + HEADER_ROW_COUNT, 0);
+        memory.putLong(header + HEADER_DEQUE_START, 0);
+        memory.putLong(header + HEADER_DEQUE_CAPACITY, 0);
+        memory.putLong(header + HEADER_DEQUE_HEAD, 0);
+        memory.putLong(header + HEADER_DEQUE_SIZE, 0);
+        return header;
+    }
+
+    private long entry(long start, long index) {
+        return start + index * ENTRY_SIZE;
+    }
+
+    private long frontEntry(long header) {
+        return entry(memory.getLong(header + HEADER_DEQUE_START), memory.getLong(header + HEADER_DEQUE_HEAD));
+    }
+
+    private long nextRowNumber(long header) {
+        final long rowNumber = memory.getLong(header + HEADER_ROW_COUNT);
+        memory.putLong(header + HEADER_ROW_COUNT, rowNumber + 1);
+        return rowNumber;
+    }
+
+    private long partitionHeader(Record record) {
+        if (map == null) {
+            if (memory.getAppendOffset() == 0) {
+                return allocateHeader();
+            }
+            return 0;
+        }
+
+        partitionByRecord.of(record);
+        final MapKey key = map.withKey();
+        key.put(partitionByRecord, partitionBySink);
+        final MapValue mapValue = key.createValue();
+        if (mapValue.isNew()) {
+            final long header = allocateHeader();
+            mapValue.putLong(0, header);
+            return header;
+        }
+        return mapValue.getLong(0);
+    }
+
+    private void popBack(long header) {
+        memory.putLong(header + HEADER_DEQUE_SIZE, memory.getLong(header + HEADER_DEQUE_SIZE) - 1);
+    }
+
+    private void popFront(long header) {
+        memory.putLong(header + HEADER_DEQUE_HEAD, nextIndex(memory.getLong(header + HEADER_DEQUE_HEAD), memory.getLong(header + HEADER_DEQUE_CAPACITY)));
+        memory.putLong(header + HEADER_DEQUE_SIZE, memory.getLong(header + HEADER_DEQUE_SIZE) - 1);
+    }
+
+    private void push(long header, long position, long payload) {
+        long start = memory.getLong(header + HEADER_DEQUE_START);
+        long capacity = memory.getLong(header + HEADER_DEQUE_CAPACITY);
+        long head = memory.getLong(header + HEADER_DEQUE_HEAD);
+        final long size = memory.getLong(header + HEADER_DEQUE_SIZE);
+
+        if (size == capacity) {
+            final long newCapacity;
+            if (capacity == 0) {
+                // ROWS frame never holds more than frameSize + 1 entries
+                newCapacity = timestampIndex < 0 && frameSize < INITIAL_DEQUE_CAPACITY ? frameSize + 1 : INITIAL_DEQUE_CAPACITY;
+            } else {
+                newCapacity = capacity * 2;
+            }
+            final long newStart = allocate(newCapacity * ENTRY_SIZE);
+            for (long i = 0, index = head; i < size; i++, index = nextIndex(index, capacity)) {
+                final long src = entry(start, index);
+                final long dst = entry(newStart, i);
+                memory.putLong(dst, memory.getLong(src));
+                memory.putLong(dst + Long.BYTES, memory.getLong(src + Long.BYTES));
+            }
+            start = newStart;
+            capacity = newCapacity;
+            head = 0;
+            memory.putLong(header + HEADER_DEQUE_START, start);
+            memory.putLong(header + HEADER_DEQUE_CAPACITY, capacity);
+            memory.putLong(header + HEADER_DEQUE_HEAD, head);
+        }
+
+        long tail = head + size;
+        if (tail >= capacity) {
+            tail -= capacity;
+        }
+        final long dst = entry(start, tail);
+        memory.putLong(dst, position);
+        memory.putLong(dst + Long.BYTES, payload);
+        memory.putLong(header + HEADER_DEQUE_SIZE, size + 1);
+    }
+
+    private void readResult(long header) {
+        switch (kind) {
+            case KIND_SUM:
+                count = memory.getLong(header + HEADER_COUNT);
+                value = count > 0 ? memory.getDouble(header + HEADER_SUM) : Double.NaN;
+                break;
+            case KIND_AVG:
+                count = memory.getLong(header + HEADER_COUNT);
+                value = count > 0 ? memory.getDouble(header + HEADER_SUM) / count : Double.NaN;
+                break;
+            case KIND_COUNT:
+                count = memory.getLong(header + HEADER_COUNT);
+                break;
+            default:
+                value = memory.getDouble(header + HEADER_VALUE);
+                break;
+        }
+    }
+
+    private void slide(long header, long position, double value) {
+        // expire entries that are before the start of the frame
+        final long frameStart = position >= Long.MIN_VALUE + frameSize ? position - frameSize : Long.MIN_VALUE;
+        final boolean additive = kind == KIND_SUM || kind == KIND_AVG || kind == KIND_COUNT;
+        long size = memory.getLong(header + HEADER_DEQUE_SIZE);
+        while (size > 0) {
+            final long front = frontEntry(header);
+            if (memory.getLong(front) >= frameStart) {
+                break;
+            }
+            if (additive) {
+                memory.putDouble(header + HEADER_SUM, memory.getDouble(header + HEADER_SUM) - memory.getDouble(front + Long.BYTES));
+                memory.putLong(header + HEADER_COUNT, memory.getLong(header + HEADER_COUNT) - 1);
+            }
+            popFront(header);
+            size--;
+        }
+
+        switch (kind) {
+            case KIND_SUM:
+            case KIND_AVG:
+            case KIND_COUNT:
+                if (!Double.isNaN(value)) {
+                    push(header, position, Double.doubleToRawLongBits(value));
+                    memory.putDouble(header + HEADER_SUM, memory.getDouble(header + HEADER_SUM) + value);
+                    memory.putLong(header + HEADER_COUNT, memory.getLong(header + HEADER_COUNT) + 1);
+                } else if (memory.getLong(header + HEADER_COUNT) == 0) {
+                    // drop rounding errors accumulated by subtraction
+                    memory.putDouble(header + HEADER_SUM, 0);
+                }
+                readResult(header);
+                break;
+            case KIND_MIN:
+            case KIND_MAX:
+                if (!Double.isNaN(value)) {
+                    // keep the ring buffer monotonic, front entry is the result
+                    final long start = memory.getLong(header + HEADER_DEQUE_START);
+                    final long capacity = memory.getLong(header + HEADER_DEQUE_CAPACITY);
+                    final long head = memory.getLong(header + HEADER_DEQUE_HEAD);
+                    while (size > 0) {
+                        long tail = head + size - 1;
+                        if (tail >= capacity) {
+                            tail -= capacity;
+                        }
+                        final double back = memory.getDouble(entry(start, tail) + Long.BYTES);
+                        if (kind == KIND_MIN ? back < value : back > value) {
+                            break;
+                        }
+                        popBack(header);
+                        size--;
+                    }
+                    push(header, position, Double.doubleToRawLongBits(value));
+                    size++;
+                }
+                this.value = size > 0 ? memory.getDouble(frontEntry(header) + Long.BYTES) : Double.NaN;
+                break;
+            case KIND_LAST_VALUE:
+                this.value = value;
+                break;
+            default:
+                // first_value and lag keep all rows of the frame
+                push(header, position, Double.doubleToRawLongBits(value));
+                final long front = frontEntry(header);
+                this.value = memory.getDouble(front + Long.BYTES);
+                // lag finds the row only if it is exactly at the start of the frame
+                this.count = memory.getLong(front) == frameStart ? 1 : 0;
+                break;
+        }
+    }
+}
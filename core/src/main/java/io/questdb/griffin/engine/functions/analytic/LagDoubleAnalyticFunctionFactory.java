@@ -0,0 +1,202 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.functions.analytic;
+
+import io.questdb.cairo.ArrayColumnTypes;
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.Reopenable;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.*;
+import io.questdb.griffin.FunctionFactory;
+import io.questdb.griffin.PlanSink;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.analytic.AnalyticContext;
+import io.questdb.griffin.engine.analytic.AnalyticFunction;
+import io.questdb.griffin.engine.functions.DoubleFunction;
+import io.questdb.griffin.engine.orderby.RecordComparatorCompiler;
+import io.questdb.std.*;
+
+public class LagDoubleAnalyticFunctionFactory implements FunctionFactory {
+    private static final String NAME = "lag";
+    private static final String SIGNATURE = NAME + "(DV)";
+
+    @Override
+    public String getSignature() {
+        return SIGNATURE;
+    }
+
+    @Override
+    public boolean isWindow() {
+        return true;
+    }
+
+    @Override
+    public Function newInstance(
+            int position,
+            ObjList<Function> args,
+            IntList argPositions,
+            CairoConfiguration configuration,
+            SqlExecutionContext sqlExecutionContext
+    ) throws SqlException {
+        final AnalyticContext analyticContext = sqlExecutionContext.getAnalyticContext();
+        if (analyticContext.isEmpty()) {
+            throw SqlException.$(position, "analytic function called in non-analytic context, make sure to add OVER clause");
+        }
+        final long offset = getOffset(args, argPositions);
+        final double defaultValue = getDefaultValue(args, argPositions);
+        return new LagFunction(
+                args.getQuick(0),
+                offset,
+                defaultValue,
+                new FrameAggregator(configuration, analyticContext, FrameAggregator.KIND_LAG, offset, false)
+        );
+    }
+
+    static double getDefaultValue(ObjList<Function> args, IntList argPositions) throws SqlException {
+        if (args.size() < 3) {
+            return Double.NaN;
+        }
+        final Function defaultValue = args.getQuick(2);
+        if (!defaultValue.isConstant()) {
+            throw SqlException.$(argPositions.getQuick(2), "default value must be a constant");
+        }
+        if (!ColumnType.isAssignableFrom(defaultValue.getType(), ColumnType.DOUBLE)) {
+            throw SqlException.$(argPositions.getQuick(2), "default value must be numeric");
+        }
+        return defaultValue.getDouble(null);
+    }
+
+    static long getOffset(ObjList<Function> args, IntList argPositions) throws SqlException {
+        if (args.size() > 3) {
+            throw SqlException.$(argPositions.getQuick(3), "too many arguments");
+        }
+        if (args.size() < 2) {
+            return 1;
+        }
+        final Function offset = args.getQuick(1);
+        if (!offset.isConstant() || !ColumnType.isAssignableFrom(offset.getType(), ColumnType.LONG)) {
+            throw SqlException.$(argPositions.getQuick(1), "offset must be a constant integer");
+        }
+        final long value = offset.getLong(null);
+        if (value < 0) {
+            throw SqlException.$(argPositions.getQuick(1), "offset must be a non-negative integer");
+        }
+        return value;
+    }
+
+    private static class LagFunction extends DoubleFunction implements ScalarFunction, AnalyticFunction, Reopenable {
+        private final FrameAggregator aggregator;
+        private final Function arg;
+        private final double defaultValue;
+        private final long offset;
+        private int columnIndex;
+
+        private LagFunction(Function arg, long offset, double defaultValue, FrameAggregator aggregator) {
+            this.arg = arg;
+            this.offset = offset;
+            this.defaultValue = defaultValue;
+            this.aggregator = aggregator;
+        }
+
+        @Override
+        public void close() {
+            Misc.free(arg);
+            Misc.free(aggregator);
+        }
+
+        @Override
+        public void computeNext(Record record) {
+            aggregator.computeNext(record, arg.getDouble(record));
+        }
+
+        @Override
+        public double getDouble(Record rec) {
+            return aggregator.getCount() > 0 ? aggregator.getDouble() : defaultValue;
+        }
+
+        @Override
+        public int getPassCount() {
+            return STREAM;
+        }
+
+        @Override
+        public void init(SymbolTableSource symbolTableSource, SqlExecutionContext executionContext) throws SqlException {
+            arg.init(symbolTableSource, executionContext);
+            aggregator.init(symbolTableSource, executionContext);
+        }
+
+        @Override
+        public void initRecordComparator(RecordComparatorCompiler recordComparatorCompiler, ArrayColumnTypes chainTypes, IntList order) {
+        }
+
+        @Override
+        public boolean isReadThreadSafe() {
+            return false;
+        }
+
+        @Override
+        public void pass1(Record record, long recordOffset, AnalyticSPI spi) {
+            computeNext(record);
+            Unsafe.getUnsafe().putDouble(spi.getAddress(recordOffset, columnIndex), getDouble(record));
+        }
+
+        @Override
+        public void pass2(Record record, long recordOffset, AnalyticSPI spi) {
+        }
+
+        @Override
+        public void preparePass2(RecordCursor cursor) {
+        }
+
+        @Override
+        public void reopen() {
+            aggregator.reopen();
+        }
+
+        @Override
+        public void reset() {
+            aggregator.reset();
+        }
+
+        @Override
+        public void setColumnIndex(int columnIndex) {
+            this.columnIndex = columnIndex;
+        }
+
+        @Override
+        public void toPlan(PlanSink sink) {
+            sink.val(NAME).val('(').val(arg).val(',').val(offset).val(',').val(defaultValue).val(')');
+            aggregator.toPlan(sink);
+        }
+
+        @Override
+        public void toTop() {
+            aggregator.toTop();
+        }
+    }
+}
@@ -93,6 +93,7 @@ public class RowNumberFunctionFactory implements FunctionFactory {
     private static class OrderRowNumberFunction extends LongFunction implements ScalarFunction, AnalyticFunction, Reopenable {
         private int columnIndex;
         private long next = 1;
+        private long value;
 
         public OrderRowNumberFunction() {
         }
@@ -101,10 +102,19 @@ public class RowNumberFunctionFactory implements FunctionFactory {
         public void close() {
         }
 
+        @Override
+        public void computeNext(Record record) {
+            value = next++;
+        }
+
         @Override
         public long getLong(Record rec) {
-            // not called
-            throw new UnsupportedOperationException();
+            return value;
+        }
+
+        @Override
+        public int getPassCount() {
+            return STREAM;
         }
 
         @Override
@@ -118,11 +128,12 @@ public class RowNumberFunctionFactory implements FunctionFactory {
 
         @Override
         public void pass1(Record record, long recordOffset, AnalyticSPI spi) {
-            Unsafe.getUnsafe().putLong(spi.getAddress(recordOffset, columnIndex), next++);
+            computeNext(record);
+            Unsafe.getUnsafe().putLong(spi.getAddress(recordOffset, columnIndex), value);
         }
 
         @Override
-        public void pass2(Record record) {
+        public void pass2(Record record, long recordOffset, AnalyticSPI spi) {
         }
 
         @Override
@@ -148,6 +159,11 @@ public class RowNumberFunctionFactory implements FunctionFactory {
         public void toPlan(PlanSink sink) {
             sink.val(SIGNATURE);
         }
+
+        @Override
+        public void toTop() {
+            next = 1;
+        }
     }
 
     private static class RowNumberFunction extends LongFunction implements ScalarFunction, AnalyticFunction, Reopenable {
@@ -155,6 +171,7 @@ public class RowNumberFunctionFactory implements FunctionFactory {
         private final VirtualRecord partitionByRecord;
         private final RecordSink partitionBySink;
         private int columnIndex;
+        private long value;
 
         public RowNumberFunction(Map map, VirtualRecord partitionByRecord, RecordSink partitionBySink) {
             this.map = map;
@@ -168,10 +185,33 @@ public class RowNumberFunctionFactory implements FunctionFactory {
             Misc.freeObjList(partitionByRecord.getFunctions());
         }
 
+        @Override
+        public void computeNext(Record record) {
+            partitionByRecord.of(record);
+            MapKey key = map.withKey();
+            key.put(partitionByRecord, partitionBySink);
+            MapValue mapValue = key.createValue();
+            if (mapValue.isNew()) {
+                value = 1;
+            } else {
+                value = mapValue.getLong(0) + 1;
+            }
+            mapValue.putLong(0, value);
+        }
+
         @Override
         public long getLong(Record rec) {
-            // not called
-            throw new UnsupportedOperationException();
+            return value;
+        }
+
+        @Override
+        public int getPassCount() {
+            return STREAM;
+        }
+
+        @Override
+        public void init(SymbolTableSource symbolTableSource, SqlExecutionContext executionContext) throws SqlException {
+            Function.init(partitionByRecord.getFunctions(), symbolTableSource, executionContext);
         }
 
         @Override
@@ -185,22 +225,12 @@ public class RowNumberFunctionFactory implements FunctionFactory {
 
         @Override
         public void pass1(Record record, long recordOffset, AnalyticSPI spi) {
-            partitionByRecord.of(record);
-            MapKey key = map.withKey();
-            key.put(partitionByRecord, partitionBySink);
-            MapValue value = key.createValue();
-            long x;
-            if (value.isNew()) {
-                x = 0;
-            } else {
-                x = value.getLong(0);
-            }
-            value.putLong(0, x + 1);
-            Unsafe.getUnsafe().putLong(spi.getAddress(recordOffset, columnIndex), x + 1);
+            computeNext(record);
+            Unsafe.getUnsafe().putLong(spi.getAddress(recordOffset, columnIndex), value);
         }
 
         @Override
-        public void pass2(Record record) {
+        public void pass2(Record record, long recordOffset, AnalyticSPI spi) {
         }
 
         @Override
@@ -226,16 +256,31 @@ public class RowNumberFunctionFactory implements FunctionFactory {
         public void toPlan(PlanSink sink) {
             sink.val(SIGNATURE);
         }
+
+        @Override
+        public void toTop() {
+            map.clear();
+        }
     }
 
     private static class SequenceRowNumberFunction extends LongFunction implements ScalarFunction, AnalyticFunction, Reopenable {
         private int columnIndex;
         private long next = 1;
+        private long value;
+
+        @Override
+        public void computeNext(Record record) {
+            value = next++;
+        }
 
         @Override
         public long getLong(Record rec) {
-            // not called
-            throw new UnsupportedOperationException();
+            return value;
+        }
+
+        @Override
+        public int getPassCount() {
+            return STREAM;
         }
 
         @Override
@@ -249,11 +294,12 @@ public class RowNumberFunctionFactory implements FunctionFactory {
 
         @Override
         public void pass1(Record record, long recordOffset, AnalyticSPI spi) {
-            Unsafe.getUnsafe().putLong(spi.getAddress(recordOffset, columnIndex), next++);
+            computeNext(record);
+            Unsafe.getUnsafe().putLong(spi.getAddress(recordOffset, columnIndex), value);
         }
 
         @Override
-        public void pass2(Record record) {
+        public void pass2(Record record, long recordOffset, AnalyticSPI spi) {
         }
 
         @Override
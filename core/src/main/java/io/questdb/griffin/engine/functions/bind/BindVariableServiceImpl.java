@@ -125,6 +125,7 @@ public class BindVariableServiceImpl implements BindVariableService {
                 return type;
             case ColumnType.STRING:
             case ColumnType.SYMBOL:
+            case ColumnType.VARCHAR:
             case ColumnType.VAR_ARG:
                 setStr(index);
                 return ColumnType.STRING;
@@ -215,6 +215,7 @@ public class NamedParameterLinkFunction implements ScalarFunction {
         switch (type) {
             case ColumnType.STRING:
             case ColumnType.SYMBOL:
+            case ColumnType.VARCHAR:
             case ColumnType.LONG256:
             case ColumnType.BINARY:
                 return false;
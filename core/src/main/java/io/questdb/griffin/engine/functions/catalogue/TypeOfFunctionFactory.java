@@ -82,6 +82,7 @@ public class TypeOfFunctionFactory implements FunctionFactory {
         TYPE_NAMES.put(ColumnType.CURSOR, new StrConstant(ColumnType.nameOf(ColumnType.CURSOR)));
         TYPE_NAMES.put(ColumnType.VAR_ARG, new StrConstant(ColumnType.nameOf(ColumnType.VAR_ARG)));
         TYPE_NAMES.put(ColumnType.UUID, new StrConstant(ColumnType.nameOf(ColumnType.UUID)));
+        TYPE_NAMES.put(ColumnType.VARCHAR, new StrConstant(ColumnType.nameOf(ColumnType.VARCHAR)));
 
         TYPE_NAMES.put(ColumnType.GEOBYTE, new StrConstant("null(GEOBYTE)"));
         TYPE_NAMES.put(ColumnType.GEOSHORT, new StrConstant("null(GEOSHORT)"));
@@ -356,6 +356,14 @@ public class CaseCommon {
         typeEscalationMap.put(Numbers.encodeLowHighInts(ColumnType.UUID, ColumnType.SYMBOL), ColumnType.STRING);
         typeEscalationMap.put(Numbers.encodeLowHighInts(ColumnType.UUID, ColumnType.UUID), ColumnType.UUID);
 
+        typeEscalationMap.put(Numbers.encodeLowHighInts(ColumnType.VARCHAR, ColumnType.CHAR), ColumnType.STRING);
+        typeEscalationMap.put(Numbers.encodeLowHighInts(ColumnType.VARCHAR, ColumnType.STRING), ColumnType.STRING);
+        typeEscalationMap.put(Numbers.encodeLowHighInts(ColumnType.VARCHAR, ColumnType.SYMBOL), ColumnType.STRING);
+        typeEscalationMap.put(Numbers.encodeLowHighInts(ColumnType.VARCHAR, ColumnType.VARCHAR), ColumnType.VARCHAR);
+        typeEscalationMap.put(Numbers.encodeLowHighInts(ColumnType.CHAR, ColumnType.VARCHAR), ColumnType.STRING);
+        typeEscalationMap.put(Numbers.encodeLowHighInts(ColumnType.STRING, ColumnType.VARCHAR), ColumnType.STRING);
+        typeEscalationMap.put(Numbers.encodeLowHighInts(ColumnType.SYMBOL, ColumnType.VARCHAR), ColumnType.STRING);
+
         typeEscalationMap.put(Numbers.encodeLowHighInts(ColumnType.BINARY, ColumnType.BINARY), ColumnType.BINARY);
     }
 
@@ -377,5 +385,6 @@ public class CaseCommon {
         constructors.extendAndSet(ColumnType.BINARY, (position, picker, args) -> new BinCaseFunction(picker, args));
         constructors.extendAndSet(ColumnType.LONG128, (position, picker, args) -> new Long128CaseFunction(picker, args));
         constructors.extendAndSet(ColumnType.UUID, (position, picker, args) -> new UuidCaseFunction(picker, args));
+        constructors.extendAndSet(ColumnType.VARCHAR, (position, picker, args) -> new CastStrToVarcharFunctionFactory.Func(new StrCaseFunction(picker, args)));
     }
 }
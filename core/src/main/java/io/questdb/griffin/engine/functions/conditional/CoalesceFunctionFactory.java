@@ -32,6 +32,7 @@ import io.questdb.griffin.FunctionFactory;
 import io.questdb.griffin.SqlException;
 import io.questdb.griffin.SqlExecutionContext;
 import io.questdb.griffin.engine.functions.*;
+import io.questdb.griffin.engine.functions.cast.CastStrToVarcharFunctionFactory;
 import io.questdb.std.*;
 import io.questdb.std.str.CharSink;
 
@@ -94,6 +95,10 @@ public class CoalesceFunctionFactory implements FunctionFactory {
                 return new SymStrCoalesceFunction(args, argsSize);
             case ColumnType.UUID:
                 return argsSize == 2 ? new TwoUuidCoalesceFunction(args) : new UuidCoalesceFunction(args, argsSize);
+            case ColumnType.VARCHAR:
+                return new CastStrToVarcharFunctionFactory.Func(
+                        argsSize == 2 ? new TwoStrCoalesceFunction(args) : new SymStrCoalesceFunction(args, argsSize)
+                );
             case ColumnType.BOOLEAN:
             case ColumnType.SHORT:
             case ColumnType.BYTE:
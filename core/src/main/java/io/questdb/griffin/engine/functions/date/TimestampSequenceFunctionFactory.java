@@ -45,6 +45,11 @@ public class TimestampSequenceFunctionFactory implements FunctionFactory {
         return "timestamp_sequence(NL)";
     }
 
+    @Override
+    public boolean isNonDeterministic() {
+        return true;
+    }
+
     @Override
     public Function newInstance(
             int position,
@@ -0,0 +1,317 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.functions.groupby;
+
+import io.questdb.cairo.ArrayColumnTypes;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.map.MapValue;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.Record;
+import io.questdb.griffin.engine.functions.BinaryFunction;
+import io.questdb.griffin.engine.functions.DoubleFunction;
+import io.questdb.griffin.engine.functions.GroupByFunction;
+import io.questdb.std.Numbers;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Approximate percentile over a log-bucketed histogram with relative error guarantee,
+ * as in DDSketch. Bucket k counts values in (gamma^(k-1), gamma^k], positive and
+ * negative values have a window of {@link #BUCKET_COUNT} buckets each. When values
+ * don't fit in the window, adjacent buckets are merged pairwise, which squares gamma.
+ * The relative error starts at 1% and doubles with each collapse. The sketch has
+ * a fixed size, so it lives in map value columns and merges across workers.
+ */
+public class ApproxPercentileDoubleGroupByFunction extends DoubleFunction implements GroupByFunction, BinaryFunction {
+    private static final int BUCKET_COUNT = 128;
+    private static final int BUCKETS = 7;
+    private static final int COUNT = 0;
+    private static final int LEVEL = 4;
+    private static final double LN_GAMMA = Math.log((1 + 0.01) / (1 - 0.01));
+    private static final int MAX = 3;
+    private static final int MIN = 2;
+    private static final int NEGATIVE_OFFSET = 6;
+    private static final int POSITIVE_OFFSET = 5;
+    private static final int ZERO_COUNT = 1;
+    private final Function arg;
+    private final double percentile;
+    private final Function percentileFunc;
+    private final long[] scratch = new long[BUCKET_COUNT];
+    private int valueIndex;
+
+    public ApproxPercentileDoubleGroupByFunction(@NotNull Function arg, @NotNull Function percentileFunc, double percentile) {
+        this.arg = arg;
+        this.percentileFunc = percentileFunc;
+        this.percentile = percentile;
+    }
+
+    @Override
+    public void computeFirst(MapValue mapValue, Record record) {
+        setNull(mapValue);
+        computeNext(mapValue, record);
+    }
+
+    @Override
+    public void computeNext(MapValue mapValue, Record record) {
+        final double value = arg.getDouble(record);
+        if (Double.isNaN(value)) {
+            return;
+        }
+        mapValue.addLong(valueIndex + COUNT, 1);
+        if (value < mapValue.getDouble(valueIndex + MIN)) {
+            mapValue.putDouble(valueIndex + MIN, value);
+        }
+        if (value > mapValue.getDouble(valueIndex + MAX)) {
+            mapValue.putDouble(valueIndex + MAX, value);
+        }
+        if (value == 0) {
+            mapValue.addLong(valueIndex + ZERO_COUNT, 1);
+        } else {
+            final int level = mapValue.getInt(valueIndex + LEVEL);
+            addToStore(mapValue, value < 0, key(Math.min(Math.abs(value), Double.MAX_VALUE), level), 1);
+        }
+    }
+
+    @Override
+    public double getDouble(Record rec) {
+        final long count = rec.getLong(valueIndex + COUNT);
+        if (count == 0) {
+            return Double.NaN;
+        }
+        final double min = rec.getDouble(valueIndex + MIN);
+        final double max = rec.getDouble(valueIndex + MAX);
+        final int level = rec.getInt(valueIndex + LEVEL);
+        final double rank = percentile * (count - 1);
+        // extremes are tracked exactly, no need to go through the buckets
+        if (rank == 0) {
+            return min;
+        }
+        if (rank >= count - 1) {
+            return max;
+        }
+
+        long cumulative = 0;
+        // negative store keeps absolute values, so the largest key is the smallest value
+        final int negativeOffset = rec.getInt(valueIndex + NEGATIVE_OFFSET);
+        if (negativeOffset != Numbers.INT_NaN) {
+            final int base = valueIndex + BUCKETS + BUCKET_COUNT;
+            for (int i = BUCKET_COUNT - 1; i > -1; i--) {
+                cumulative += rec.getLong(base + i);
+                if (cumulative > rank) {
+                    return clamp(-value(negativeOffset + i, level), min, max);
+                }
+            }
+        }
+        cumulative += rec.getLong(valueIndex + ZERO_COUNT);
+        if (cumulative > rank) {
+            return clamp(0, min, max);
+        }
+        final int positiveOffset = rec.getInt(valueIndex + POSITIVE_OFFSET);
+        if (positiveOffset != Numbers.INT_NaN) {
+            final int base = valueIndex + BUCKETS;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                cumulative += rec.getLong(base + i);
+                if (cumulative > rank) {
+                    return clamp(value(positiveOffset + i, level), min, max);
+                }
+            }
+        }
+        return max;
+    }
+
+    @Override
+    public Function getLeft() {
+        return arg;
+    }
+
+    @Override
+    public String getName() {
+        return "approx_percentile";
+    }
+
+    @Override
+    public Function getRight() {
+        return percentileFunc;
+    }
+
+    @Override
+    public boolean isConstant() {
+        return false;
+    }
+
+    @Override
+    public boolean isParallelismSupported() {
+        return true;
+    }
+
+    @Override
+    public boolean isReadThreadSafe() {
+        return false;
+    }
+
+    @Override
+    public void merge(MapValue destValue, MapValue srcValue) {
+        final long srcCount = srcValue.getLong(valueIndex + COUNT);
+        if (srcCount == 0) {
+            return;
+        }
+        final int srcLevel = srcValue.getInt(valueIndex + LEVEL);
+        while (destValue.getInt(valueIndex + LEVEL) < srcLevel) {
+            collapse(destValue);
+        }
+        destValue.addLong(valueIndex + COUNT, srcCount);
+        destValue.addLong(valueIndex + ZERO_COUNT, srcValue.getLong(valueIndex + ZERO_COUNT));
+        destValue.putDouble(valueIndex + MIN, Math.min(destValue.getDouble(valueIndex + MIN), srcValue.getDouble(valueIndex + MIN)));
+        destValue.putDouble(valueIndex + MAX, Math.max(destValue.getDouble(valueIndex + MAX), srcValue.getDouble(valueIndex + MAX)));
+        mergeStore(destValue, srcValue, false, srcLevel);
+        mergeStore(destValue, srcValue, true, srcLevel);
+    }
+
+    @Override
+    public void pushValueTypes(ArrayColumnTypes columnTypes) {
+        valueIndex = columnTypes.getColumnCount();
+        columnTypes.add(ColumnType.LONG); // count
+        columnTypes.add(ColumnType.LONG); // zero count
+        columnTypes.add(ColumnType.DOUBLE); // min
+        columnTypes.add(ColumnType.DOUBLE); // max
+        columnTypes.add(ColumnType.INT); // collapse level
+        columnTypes.add(ColumnType.INT); // positive window offset
+        columnTypes.add(ColumnType.INT); // negative window offset
+        for (int i = 0, n = 2 * BUCKET_COUNT; i < n; i++) {
+            columnTypes.add(ColumnType.LONG);
+        }
+    }
+
+    @Override
+    public void setNull(MapValue mapValue) {
+        mapValue.putLong(valueIndex + COUNT, 0);
+        mapValue.putLong(valueIndex + ZERO_COUNT, 0);
+        mapValue.putDouble(valueIndex + MIN, Double.POSITIVE_INFINITY);
+        mapValue.putDouble(valueIndex + MAX, Double.NEGATIVE_INFINITY);
+        mapValue.putInt(valueIndex + LEVEL, 0);
+        mapValue.putInt(valueIndex + POSITIVE_OFFSET, Numbers.INT_NaN);
+        mapValue.putInt(valueIndex + NEGATIVE_OFFSET, Numbers.INT_NaN);
+        for (int i = 0, n = 2 * BUCKET_COUNT; i < n; i++) {
+            mapValue.putLong(valueIndex + BUCKETS + i, 0);
+        }
+    }
+
+    private static int ceilDiv(int key, int level) {
+        return -Math.floorDiv(-key, 1 << level);
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    private static int key(double absValue, int level) {
+        return ceilDiv((int) Math.ceil(Math.log(absValue) / LN_GAMMA), level);
+    }
+
+    private static double value(int key, int level) {
+        final double lnGamma = LN_GAMMA * (1 << level);
+        return 2 * Math.exp(key * lnGamma) / (Math.exp(lnGamma) + 1);
+    }
+
+    private void addToStore(MapValue mapValue, boolean negative, int key, long count) {
+        final int offsetIndex = valueIndex + (negative ? NEGATIVE_OFFSET : POSITIVE_OFFSET);
+        final int base = valueIndex + BUCKETS + (negative ? BUCKET_COUNT : 0);
+        while (true) {
+            int offset = mapValue.getInt(offsetIndex);
+            if (offset == Numbers.INT_NaN) {
+                offset = key - BUCKET_COUNT / 2;
+                mapValue.putInt(offsetIndex, offset);
+            }
+            if (key >= offset && key < offset + BUCKET_COUNT) {
+                mapValue.addLong(base + key - offset, count);
+                return;
+            }
+
+            int lo = key;
+            int hi = key;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                if (mapValue.getLong(base + i) != 0) {
+                    lo = Math.min(lo, offset + i);
+                    hi = Math.max(hi, offset + i);
+                }
+            }
+            if (hi - lo < BUCKET_COUNT) {
+                // values still fit in the window, center it over them
+                moveWindow(mapValue, base, offsetIndex, lo - (BUCKET_COUNT - (hi - lo + 1)) / 2, 0);
+            } else {
+                collapse(mapValue);
+                key = ceilDiv(key, 1);
+            }
+        }
+    }
+
+    private void collapse(MapValue mapValue) {
+        mapValue.addInt(valueIndex + LEVEL, 1);
+        collapseStore(mapValue, valueIndex + POSITIVE_OFFSET, valueIndex + BUCKETS);
+        collapseStore(mapValue, valueIndex + NEGATIVE_OFFSET, valueIndex + BUCKETS + BUCKET_COUNT);
+    }
+
+    private void collapseStore(MapValue mapValue, int offsetIndex, int base) {
+        final int offset = mapValue.getInt(offsetIndex);
+        if (offset != Numbers.INT_NaN) {
+            // collapsed keys take half of the window, keep them in the middle
+            moveWindow(mapValue, base, offsetIndex, ceilDiv(offset, 1) - BUCKET_COUNT / 4, 1);
+        }
+    }
+
+    private void mergeStore(MapValue destValue, MapValue srcValue, boolean negative, int srcLevel) {
+        final int srcOffset = srcValue.getInt(valueIndex + (negative ? NEGATIVE_OFFSET : POSITIVE_OFFSET));
+        if (srcOffset == Numbers.INT_NaN) {
+            return;
+        }
+        final int base = valueIndex + BUCKETS + (negative ? BUCKET_COUNT : 0);
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            final long count = srcValue.getLong(base + i);
+            if (count != 0) {
+                // destination may collapse while buckets are added
+                final int levelDiff = destValue.getInt(valueIndex + LEVEL) - srcLevel;
+                addToStore(destValue, negative, ceilDiv(srcOffset + i, levelDiff), count);
+            }
+        }
+    }
+
+    /**
+     * Moves bucket counts to a window starting at the new offset. Keys are divided
+     * by 2^levelDiff on the way, merging the buckets that land on the same key.
+     */
+    private void moveWindow(MapValue mapValue, int base, int offsetIndex, int newOffset, int levelDiff) {
+        final int offset = mapValue.getInt(offsetIndex);
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            scratch[i] = mapValue.getLong(base + i);
+            mapValue.putLong(base + i, 0);
+        }
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            if (scratch[i] != 0) {
+                mapValue.addLong(base + ceilDiv(offset + i, levelDiff) - newOffset, scratch[i]);
+            }
+        }
+        mapValue.putInt(offsetIndex, newOffset);
+    }
+}
@@ -0,0 +1,120 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.functions.groupby;
+
+import io.questdb.cairo.ArrayColumnTypes;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.map.MapValue;
+import io.questdb.cairo.sql.Record;
+
+/**
+ * HyperLogLog sketch kept in a fixed number of LONG map value columns, 8 one-byte
+ * registers per column. Values are hashed to 64 bits, so the estimate needs no
+ * large range correction, and small cardinalities fall back to linear counting.
+ * The standard error is 1.04/sqrt(2^PRECISION), i.e. about 3.3%.
+ */
+public final class HyperLogLog {
+    public static final int PRECISION = 10;
+    private static final int REGISTER_COUNT = 1 << PRECISION;
+    public static final int WORD_COUNT = REGISTER_COUNT >>> 3;
+    private static final double ALPHA_MM = 0.7213 / (1 + 1.079 / REGISTER_COUNT) * REGISTER_COUNT * REGISTER_COUNT;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+
+    private HyperLogLog() {
+    }
+
+    public static void add(MapValue mapValue, int valueIndex, long hash) {
+        final int register = (int) (hash >>> (64 - PRECISION));
+        // the guard bit caps the rank at 64 - PRECISION + 1
+        final long rank = Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1;
+        final int index = valueIndex + (register >>> 3);
+        final int shift = (register & 7) << 3;
+        final long word = mapValue.getLong(index);
+        if (((word >>> shift) & 0xff) < rank) {
+            mapValue.putLong(index, (word & ~(0xffL << shift)) | (rank << shift));
+        }
+    }
+
+    public static void clear(MapValue mapValue, int valueIndex) {
+        for (int i = 0; i < WORD_COUNT; i++) {
+            mapValue.putLong(valueIndex + i, 0);
+        }
+    }
+
+    public static long estimate(Record record, int valueIndex) {
+        double sum = 0;
+        int zeros = 0;
+        for (int i = 0; i < WORD_COUNT; i++) {
+            long word = record.getLong(valueIndex + i);
+            for (int j = 0; j < 8; j++) {
+                final int rank = (int) (word & 0xff);
+                if (rank == 0) {
+                    zeros++;
+                }
+                sum += Double.longBitsToDouble((long) (1023 - rank) << 52);
+                word >>>= 8;
+            }
+        }
+        final double estimate = ALPHA_MM / sum;
+        if (zeros > 0 && estimate <= 2.5 * REGISTER_COUNT) {
+            return Math.round(REGISTER_COUNT * Math.log((double) REGISTER_COUNT / zeros));
+        }
+        return Math.round(estimate);
+    }
+
+    public static long hash(long value) {
+        // murmur3 finalizer
+        value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+        value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return value ^ (value >>> 33);
+    }
+
+    public static long hash(CharSequence value) {
+        // FNV-1a over UTF-16 chars
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0, n = value.length(); i < n; i++) {
+            h = (h ^ value.charAt(i)) * 0x100000001b3L;
+        }
+        return hash(h);
+    }
+
+    public static void merge(MapValue destValue, MapValue srcValue, int valueIndex) {
+        for (int i = 0; i < WORD_COUNT; i++) {
+            final long a = destValue.getLong(valueIndex + i);
+            final long b = srcValue.getLong(valueIndex + i);
+            // ranks are below 128, so the per-byte subtraction never borrows from the next byte
+            final long ge = (((a | HIGH_BITS) - b) & HIGH_BITS) >>> 7;
+            final long mask = ge * 0xff;
+            destValue.putLong(valueIndex + i, (a & mask) | (b & ~mask));
+        }
+    }
+
+    public static void pushValueTypes(ArrayColumnTypes columnTypes) {
+        for (int i = 0; i < WORD_COUNT; i++) {
+            columnTypes.add(ColumnType.LONG);
+        }
+    }
+}
@@ -71,6 +71,20 @@ public class MaxDoubleGroupByFunction extends DoubleFunction implements GroupByF
         return "max";
     }
 
+    @Override
+    public boolean isParallelismSupported() {
+        return true;
+    }
+
+    @Override
+    public void merge(MapValue destValue, MapValue srcValue) {
+        double dest = destValue.getDouble(valueIndex);
+        double src = srcValue.getDouble(valueIndex);
+        if (src > dest || Double.isNaN(dest)) {
+            destValue.putDouble(valueIndex, src);
+        }
+    }
+
     @Override
     public void pushValueTypes(ArrayColumnTypes columnTypes) {
         this.valueIndex = columnTypes.getColumnCount();
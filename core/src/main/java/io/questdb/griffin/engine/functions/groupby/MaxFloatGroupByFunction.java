@@ -71,6 +71,20 @@ public class MaxFloatGroupByFunction extends FloatFunction implements GroupByFun
         return "max";
     }
 
+    @Override
+    public boolean isParallelismSupported() {
+        return true;
+    }
+
+    @Override
+    public void merge(MapValue destValue, MapValue srcValue) {
+        float dest = destValue.getFloat(valueIndex);
+        float src = srcValue.getFloat(valueIndex);
+        if (src > dest) {
+            destValue.putFloat(valueIndex, src);
+        }
+    }
+
     @Override
     public void pushValueTypes(ArrayColumnTypes columnTypes) {
         this.valueIndex = columnTypes.getColumnCount();
@@ -78,6 +78,20 @@ public class MaxIntGroupByFunction extends IntFunction implements GroupByFunctio
         return false;
     }
 
+    @Override
+    public boolean isParallelismSupported() {
+        return true;
+    }
+
+    @Override
+    public void merge(MapValue destValue, MapValue srcValue) {
+        int dest = destValue.getInt(valueIndex);
+        int src = srcValue.getInt(valueIndex);
+        if (src > dest) {
+            destValue.putInt(valueIndex, src);
+        }
+    }
+
     @Override
     public void pushValueTypes(ArrayColumnTypes columnTypes) {
         this.valueIndex = columnTypes.getColumnCount();
@@ -71,6 +71,20 @@ public class MinCharGroupByFunction extends CharFunction implements GroupByFunct
         return "min";
     }
 
+    @Override
+    public boolean isParallelismSupported() {
+        return true;
+    }
+
+    @Override
+    public void merge(MapValue destValue, MapValue srcValue) {
+        char dest = destValue.getChar(valueIndex);
+        char src = srcValue.getChar(valueIndex);
+        if (src > 0 && (src < dest || dest == 0)) {
+            destValue.putChar(valueIndex, src);
+        }
+    }
+
     @Override
     public void pushValueTypes(ArrayColumnTypes columnTypes) {
         this.valueIndex = columnTypes.getColumnCount();
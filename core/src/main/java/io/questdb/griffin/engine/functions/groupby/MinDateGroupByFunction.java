@@ -72,6 +72,20 @@ public class MinDateGroupByFunction extends DateFunction implements GroupByFunct
         return "min";
     }
 
+    @Override
+    public boolean isParallelismSupported() {
+        return true;
+    }
+
+    @Override
+    public void merge(MapValue destValue, MapValue srcValue) {
+        long dest = destValue.getDate(valueIndex);
+        long src = srcValue.getDate(valueIndex);
+        if (src != Numbers.LONG_NaN && (src < dest || dest == Numbers.LONG_NaN)) {
+            destValue.putDate(valueIndex, src);
+        }
+    }
+
     @Override
     public void pushValueTypes(ArrayColumnTypes columnTypes) {
         this.valueIndex = columnTypes.getColumnCount();
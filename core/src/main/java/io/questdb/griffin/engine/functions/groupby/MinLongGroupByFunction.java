@@ -72,6 +72,20 @@ public class MinLongGroupByFunction extends LongFunction implements GroupByFunct
         return "min";
     }
 
+    @Override
+    public boolean isParallelismSupported() {
+        return true;
+    }
+
+    @Override
+    public void merge(MapValue destValue, MapValue srcValue) {
+        long dest = destValue.getLong(valueIndex);
+        long src = srcValue.getLong(valueIndex);
+        if (src != Numbers.LONG_NaN && (src < dest || dest == Numbers.LONG_NaN)) {
+            destValue.putLong(valueIndex, src);
+        }
+    }
+
     @Override
     public void pushValueTypes(ArrayColumnTypes columnTypes) {
         this.valueIndex = columnTypes.getColumnCount();
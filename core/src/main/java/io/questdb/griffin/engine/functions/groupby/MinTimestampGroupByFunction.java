@@ -72,6 +72,20 @@ public class MinTimestampGroupByFunction extends TimestampFunction implements Gr
         return rec.getTimestamp(valueIndex);
     }
 
+    @Override
+    public boolean isParallelismSupported() {
+        return true;
+    }
+
+    @Override
+    public void merge(MapValue destValue, MapValue srcValue) {
+        long dest = destValue.getTimestamp(valueIndex);
+        long src = srcValue.getTimestamp(valueIndex);
+        if (src != Numbers.LONG_NaN && (src < dest || dest == Numbers.LONG_NaN)) {
+            destValue.putTimestamp(valueIndex, src);
+        }
+    }
+
     @Override
     public void pushValueTypes(ArrayColumnTypes columnTypes) {
         this.valueIndex = columnTypes.getColumnCount();
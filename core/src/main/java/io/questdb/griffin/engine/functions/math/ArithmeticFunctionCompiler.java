@@ -0,0 +1,533 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.functions.math;
+
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.Record;
+import io.questdb.griffin.PlanSink;
+import io.questdb.griffin.engine.functions.DoubleFunction;
+import io.questdb.griffin.engine.functions.IntFunction;
+import io.questdb.griffin.engine.functions.LongFunction;
+import io.questdb.griffin.engine.functions.UnaryFunction;
+import io.questdb.std.*;
+import io.questdb.std.ex.BytecodeException;
+
+/**
+ * Fuses a tree of {@link ArithmeticFunction} operators into a single generated class.
+ * <p>
+ * The function tree of an expression such as <code>a * b + c</code> costs a chain of
+ * virtual calls per row, and the call sites inside the shared operator classes see
+ * every column type the server ever evaluated, so they rarely inline. The generated
+ * kernel evaluates the whole tree in one straight-line method. Operands that are
+ * not arithmetic operators, such as columns and bind variables, become fields of
+ * the kernel, so each of their call sites is private to the expression and stays
+ * monomorphic. Constants are inlined. INT and LONG operators delegate to the static
+ * helpers below, which replicate the null handling of the operator implementations,
+ * so the generated code has no branches and needs no stack map frames.
+ */
+public class ArithmeticFunctionCompiler {
+    private static final int FIELD_POOL_OFFSET = 3;
+    private static final int OP_CONST = 1;
+    private static final int OP_CONVERT = 2;
+    private static final int OP_LEAF = 0;
+    private static final int OP_OPERATOR = 3;
+    private final BytecodeAssembler asm;
+    private final LongList constants = new LongList();
+    private final ObjList<Function> leaves = new ObjList<>();
+    // triplets of (op, type, operand)
+    private final IntList program = new IntList();
+
+    public ArithmeticFunctionCompiler(BytecodeAssembler asm) {
+        this.asm = asm;
+    }
+
+    public static int addInt(int l, int r) {
+        if (l == Numbers.INT_NaN || r == Numbers.INT_NaN) {
+            return Numbers.INT_NaN;
+        }
+        return l + r;
+    }
+
+    public static long addLong(long l, long r) {
+        if (l == Numbers.LONG_NaN || r == Numbers.LONG_NaN) {
+            return Numbers.LONG_NaN;
+        }
+        return l + r;
+    }
+
+    public static int divInt(int l, int r) {
+        if (l == Numbers.INT_NaN || r == Numbers.INT_NaN || r == 0) {
+            return Numbers.INT_NaN;
+        }
+        return l / r;
+    }
+
+    public static long divLong(long l, long r) {
+        if (l == Numbers.LONG_NaN || r == Numbers.LONG_NaN || r == 0) {
+            return Numbers.LONG_NaN;
+        }
+        return l / r;
+    }
+
+    public static double longToDouble(long value) {
+        return value != Numbers.LONG_NaN ? value : Double.NaN;
+    }
+
+    public static int mulInt(int l, int r) {
+        if (l == Numbers.INT_NaN || r == Numbers.INT_NaN) {
+            return Numbers.INT_NaN;
+        }
+        return l * r;
+    }
+
+    public static long mulLong(long l, long r) {
+        if (l == Numbers.LONG_NaN || r == Numbers.LONG_NaN) {
+            return Numbers.LONG_NaN;
+        }
+        return l * r;
+    }
+
+    public static int subInt(int l, int r) {
+        if (l == Numbers.INT_NaN || r == Numbers.INT_NaN) {
+            return Numbers.INT_NaN;
+        }
+        return l - r;
+    }
+
+    public static long subLong(long l, long r) {
+        if (l == Numbers.LONG_NaN || r == Numbers.LONG_NaN) {
+            return Numbers.LONG_NaN;
+        }
+        return l - r;
+    }
+
+    /**
+     * Replaces arithmetic expression with a function backed by generated kernel. The
+     * returned function owns the original tree: it initialises, closes and prints
+     * the original functions, so query plans are not affected.
+     *
+     * @param function function to compile
+     * @return compiled function or the original function when it is not an INT, LONG
+     * or DOUBLE arithmetic operator
+     */
+    public Function compile(Function function) {
+        if (!(function instanceof ArithmeticFunction) || function.isConstant() || !isSupported(function.getType())) {
+            return function;
+        }
+
+        program.clear();
+        constants.clear();
+        leaves.clear();
+        collect((ArithmeticFunction) function);
+
+        final ArithmeticKernel kernel;
+        try {
+            kernel = generate(function.getType());
+        } catch (BytecodeException e) {
+            // expression is too large for a single method, keep interpreting it
+            return function;
+        } finally {
+            leaves.clear();
+        }
+
+        switch (ColumnType.tagOf(function.getType())) {
+            case ColumnType.INT:
+                return new CompiledIntFunction(function, kernel);
+            case ColumnType.LONG:
+                return new CompiledLongFunction(function, kernel);
+            default:
+                return new CompiledDoubleFunction(function, kernel);
+        }
+    }
+
+    private static boolean canWiden(int fromType, int toType) {
+        return fromType == toType
+                || (fromType == ColumnType.INT && (toType == ColumnType.LONG || toType == ColumnType.DOUBLE))
+                || (fromType == ColumnType.LONG && toType == ColumnType.DOUBLE);
+    }
+
+    private static boolean isSupported(int type) {
+        return type == ColumnType.INT || type == ColumnType.LONG || type == ColumnType.DOUBLE;
+    }
+
+    private static int stackSize(int type) {
+        return type == ColumnType.INT ? 1 : 2;
+    }
+
+    private void collect(ArithmeticFunction function) {
+        final int type = function.getType();
+        collectArg(function.getLeft(), type);
+        collectArg(function.getRight(), type);
+        emit(OP_OPERATOR, type, function.getOperator());
+    }
+
+    private void collectArg(Function arg, int parentType) {
+        final int argType = arg.getType();
+        if (arg.isConstant()) {
+            // operators read constants via the getter of their own type
+            switch (parentType) {
+                case ColumnType.INT:
+                    constants.add(arg.getInt(null));
+                    break;
+                case ColumnType.LONG:
+                    constants.add(arg.getLong(null));
+                    break;
+                default:
+                    constants.add(Double.doubleToRawLongBits(arg.getDouble(null)));
+                    break;
+            }
+            emit(OP_CONST, parentType, constants.size() - 1);
+        } else if (arg instanceof ArithmeticFunction && isSupported(argType) && canWiden(argType, parentType)) {
+            collect((ArithmeticFunction) arg);
+            if (argType != parentType) {
+                emit(OP_CONVERT, parentType, argType);
+            }
+        } else {
+            leaves.add(arg);
+            emit(OP_LEAF, parentType, leaves.size() - 1);
+        }
+    }
+
+    private void emit(int op, int type, int operand) {
+        program.add(op);
+        program.add(type);
+        program.add(operand);
+    }
+
+    private ArithmeticKernel generate(int type) {
+        asm.init(ArithmeticKernel.class);
+        asm.setupPool();
+        final int thisClassIndex = asm.poolClass(asm.poolUtf8("io/questdb/griffin/engine/functions/math/ArithmeticKernelAsm"));
+        final int interfaceClassIndex = asm.poolClass(ArithmeticKernel.class);
+
+        final int leafCount = leaves.size();
+        final int fieldTypeIndex = asm.poolUtf8("Lio/questdb/cairo/sql/Function;");
+        int firstFieldNameIndex = 0;
+        int firstFieldIndex = 0;
+        for (int i = 0; i < leafCount; i++) {
+            // if you change pool calls then you will likely need to change the FIELD_POOL_OFFSET constant
+            int fieldNameIndex = asm.poolUtf8().put("f").put(i).$();
+            int nameAndType = asm.poolNameAndType(fieldNameIndex, fieldTypeIndex);
+            int fieldIndex = asm.poolField(thisClassIndex, nameAndType);
+            if (i == 0) {
+                firstFieldNameIndex = fieldNameIndex;
+                firstFieldIndex = fieldIndex;
+            }
+        }
+
+        // replace constant references with pool indexes
+        for (int i = 0, n = program.size(); i < n; i += 3) {
+            if (program.getQuick(i) == OP_CONST) {
+                final long value = constants.getQuick(program.getQuick(i + 2));
+                final int poolIndex;
+                switch (program.getQuick(i + 1)) {
+                    case ColumnType.INT:
+                        poolIndex = asm.getPoolCount();
+                        asm.poolIntConst((int) value);
+                        break;
+                    case ColumnType.LONG:
+                        poolIndex = asm.poolLongConst(value);
+                        break;
+                    default:
+                        poolIndex = asm.poolDoubleConst(Double.longBitsToDouble(value));
+                        break;
+                }
+                program.setQuick(i + 2, poolIndex);
+            }
+        }
+
+        final int getIntIndex = asm.poolInterfaceMethod(Function.class, "getInt", "(Lio/questdb/cairo/sql/Record;)I");
+        final int getLongIndex = asm.poolInterfaceMethod(Function.class, "getLong", "(Lio/questdb/cairo/sql/Record;)J");
+        final int getDoubleIndex = asm.poolInterfaceMethod(Function.class, "getDouble", "(Lio/questdb/cairo/sql/Record;)D");
+        final int helperClassIndex = asm.poolClass(ArithmeticFunctionCompiler.class);
+        final int addIntIndex = asm.poolMethod(helperClassIndex, "addInt", "(II)I");
+        final int subIntIndex = asm.poolMethod(helperClassIndex, "subInt", "(II)I");
+        final int mulIntIndex = asm.poolMethod(helperClassIndex, "mulInt", "(II)I");
+        final int divIntIndex = asm.poolMethod(helperClassIndex, "divInt", "(II)I");
+        final int addLongIndex = asm.poolMethod(helperClassIndex, "addLong", "(JJ)J");
+        final int subLongIndex = asm.poolMethod(helperClassIndex, "subLong", "(JJ)J");
+        final int mulLongIndex = asm.poolMethod(helperClassIndex, "mulLong", "(JJ)J");
+        final int divLongIndex = asm.poolMethod(helperClassIndex, "divLong", "(JJ)J");
+        final int longToDoubleIndex = asm.poolMethod(helperClassIndex, "longToDouble", "(J)D");
+        final int numbersClassIndex = asm.poolClass(Numbers.class);
+        final int intToLongIndex = asm.poolMethod(numbersClassIndex, "intToLong", "(I)J");
+        final int intToDoubleIndex = asm.poolMethod(numbersClassIndex, "intToDouble", "(I)D");
+        final int objListGetIndex = asm.poolMethod(ObjList.class, "getQuick", "(I)Ljava/lang/Object;");
+
+        final int evalNameIndex;
+        final int evalSigIndex;
+        switch (type) {
+            case ColumnType.INT:
+                evalNameIndex = asm.poolUtf8("getInt");
+                evalSigIndex = asm.poolUtf8("(Lio/questdb/cairo/sql/Record;)I");
+                break;
+            case ColumnType.LONG:
+                evalNameIndex = asm.poolUtf8("getLong");
+                evalSigIndex = asm.poolUtf8("(Lio/questdb/cairo/sql/Record;)J");
+                break;
+            default:
+                evalNameIndex = asm.poolUtf8("getDouble");
+                evalSigIndex = asm.poolUtf8("(Lio/questdb/cairo/sql/Record;)D");
+                break;
+        }
+        final int setFunctionsNameIndex = asm.poolUtf8("setFunctions");
+        final int setFunctionsSigIndex = asm.poolUtf8("(Lio/questdb/std/ObjList;)V");
+
+        asm.finishPool();
+
+        asm.defineClass(thisClassIndex);
+        asm.interfaceCount(1);
+        asm.putShort(interfaceClassIndex);
+        asm.fieldCount(leafCount);
+        for (int i = 0; i < leafCount; i++) {
+            asm.defineField(firstFieldNameIndex + (i * FIELD_POOL_OFFSET), fieldTypeIndex);
+        }
+        asm.methodCount(3);
+        asm.defineDefaultConstructor();
+
+        // setFunctions(ObjList<Function> functions)
+        asm.startMethod(setFunctionsNameIndex, setFunctionsSigIndex, 3, 2);
+        for (int i = 0; i < leafCount; i++) {
+            asm.aload(0);
+            asm.aload(1);
+            asm.iconst(i);
+            asm.invokeVirtual(objListGetIndex);
+            asm.putfield(firstFieldIndex + (i * FIELD_POOL_OFFSET));
+        }
+        asm.return_();
+        asm.endMethodCode();
+        // exceptions
+        asm.putShort(0);
+        // attributes
+        asm.putShort(0);
+        asm.endMethod();
+
+        // the evaluation method, only the getter of the expression type is generated
+        asm.startMethod(evalNameIndex, evalSigIndex, maxStack(), 2);
+        for (int i = 0, n = program.size(); i < n; i += 3) {
+            final int opType = program.getQuick(i + 1);
+            final int operand = program.getQuick(i + 2);
+            switch (program.getQuick(i)) {
+                case OP_LEAF:
+                    asm.aload(0);
+                    asm.getfield(firstFieldIndex + (operand * FIELD_POOL_OFFSET));
+                    asm.aload(1);
+                    switch (opType) {
+                        case ColumnType.INT:
+                            asm.invokeInterface(getIntIndex, 1);
+                            break;
+                        case ColumnType.LONG:
+                            asm.invokeInterface(getLongIndex, 1);
+                            break;
+                        default:
+                            asm.invokeInterface(getDoubleIndex, 1);
+                            break;
+                    }
+                    break;
+                case OP_CONST:
+                    if (opType == ColumnType.INT) {
+                        asm.ldc(operand);
+                    } else {
+                        asm.ldc2_w(operand);
+                    }
+                    break;
+                case OP_CONVERT:
+                    if (operand == ColumnType.INT) {
+                        asm.invokeStatic(opType == ColumnType.LONG ? intToLongIndex : intToDoubleIndex);
+                    } else {
+                        asm.invokeStatic(longToDoubleIndex);
+                    }
+                    break;
+                default:
+                    switch (opType) {
+                        case ColumnType.INT:
+                            asm.invokeStatic(operand == '+' ? addIntIndex : operand == '-' ? subIntIndex : operand == '*' ? mulIntIndex : divIntIndex);
+                            break;
+                        case ColumnType.LONG:
+                            asm.invokeStatic(operand == '+' ? addLongIndex : operand == '-' ? subLongIndex : operand == '*' ? mulLongIndex : divLongIndex);
+                            break;
+                        default:
+                            switch (operand) {
+                                case '+':
+                                    asm.dadd();
+                                    break;
+                                case '-':
+                                    asm.dsub();
+                                    break;
+                                case '*':
+                                    asm.dmul();
+                                    break;
+                                default:
+                                    asm.ddiv();
+                                    break;
+                            }
+                            break;
+                    }
+                    break;
+            }
+        }
+        switch (type) {
+            case ColumnType.INT:
+                asm.ireturn();
+                break;
+            case ColumnType.LONG:
+                asm.lreturn();
+                break;
+            default:
+                asm.dreturn();
+                break;
+        }
+        asm.endMethodCode();
+        // exceptions
+        asm.putShort(0);
+        // attributes
+        asm.putShort(0);
+        asm.endMethod();
+
+        // class attribute count
+        asm.putShort(0);
+
+        final ArithmeticKernel kernel = asm.newInstance();
+        kernel.setFunctions(leaves);
+        return kernel;
+    }
+
+    private int maxStack() {
+        int depth = 0;
+        int max = 0;
+        for (int i = 0, n = program.size(); i < n; i += 3) {
+            final int opType = program.getQuick(i + 1);
+            switch (program.getQuick(i)) {
+                case OP_LEAF:
+                    // this, field value and record are on the stack before the call
+                    max = Math.max(max, depth + 2);
+                    depth += stackSize(opType);
+                    break;
+                case OP_CONST:
+                    depth += stackSize(opType);
+                    break;
+                case OP_CONVERT:
+                    depth += stackSize(opType) - stackSize(program.getQuick(i + 2));
+                    break;
+                default:
+                    depth -= stackSize(opType);
+                    break;
+            }
+            max = Math.max(max, depth);
+        }
+        return max;
+    }
+
+    /**
+     * Generated evaluator of a fused arithmetic expression. Only the getter
+     * matching the expression type is implemented.
+     */
+    public interface ArithmeticKernel {
+        double getDouble(Record rec);
+
+        int getInt(Record rec);
+
+        long getLong(Record rec);
+
+        void setFunctions(ObjList<Function> functions);
+    }
+
+    private static class CompiledDoubleFunction extends DoubleFunction implements UnaryFunction {
+        private final Function arg;
+        private final ArithmeticKernel kernel;
+
+        private CompiledDoubleFunction(Function arg, ArithmeticKernel kernel) {
+            this.arg = arg;
+            this.kernel = kernel;
+        }
+
+        @Override
+        public Function getArg() {
+            return arg;
+        }
+
+        @Override
+        public double getDouble(Record rec) {
+            return kernel.getDouble(rec);
+        }
+
+        @Override
+        public void toPlan(PlanSink sink) {
+            sink.val(arg);
+        }
+    }
+
+    private static class CompiledIntFunction extends IntFunction implements UnaryFunction {
+        private final Function arg;
+        private final ArithmeticKernel kernel;
+
+        private CompiledIntFunction(Function arg, ArithmeticKernel kernel) {
+            this.arg = arg;
+            this.kernel = kernel;
+        }
+
+        @Override
+        public Function getArg() {
+            return arg;
+        }
+
+        @Override
+        public int getInt(Record rec) {
+            return kernel.getInt(rec);
+        }
+
+        @Override
+        public void toPlan(PlanSink sink) {
+            sink.val(arg);
+        }
+    }
+
+    private static class CompiledLongFunction extends LongFunction implements UnaryFunction {
+        private final Function arg;
+        private final ArithmeticKernel kernel;
+
+        private CompiledLongFunction(Function arg, ArithmeticKernel kernel) {
+            this.arg = arg;
+            this.kernel = kernel;
+        }
+
+        @Override
+        public Function getArg() {
+            return arg;
+        }
+
+        @Override
+        public long getLong(Record rec) {
+            return kernel.getLong(rec);
+        }
+
+        @Override
+        public void toPlan(PlanSink sink) {
+            sink.val(arg);
+        }
+    }
+}
@@ -30,7 +30,6 @@ import io.questdb.cairo.sql.Record;
 import io.questdb.griffin.FunctionFactory;
 import io.questdb.griffin.PlanSink;
 import io.questdb.griffin.SqlExecutionContext;
-import io.questdb.griffin.engine.functions.BinaryFunction;
 import io.questdb.griffin.engine.functions.LongFunction;
 import io.questdb.std.IntList;
 import io.questdb.std.Numbers;
@@ -47,7 +46,7 @@ public class DivLongFunctionFactory implements FunctionFactory {
         return new Func(args.getQuick(0), args.getQuick(1));
     }
 
-    private static class Func extends LongFunction implements BinaryFunction {
+    private static class Func extends LongFunction implements ArithmeticFunction {
         private final Function left;
         private final Function right;
 
@@ -72,6 +71,11 @@ public class DivLongFunctionFactory implements FunctionFactory {
             return l / r;
         }
 
+        @Override
+        public char getOperator() {
+            return '/';
+        }
+
         @Override
         public Function getRight() {
             return right;
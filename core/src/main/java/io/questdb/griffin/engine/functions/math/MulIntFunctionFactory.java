@@ -29,7 +29,6 @@ import io.questdb.cairo.sql.Function;
 import io.questdb.cairo.sql.Record;
 import io.questdb.griffin.FunctionFactory;
 import io.questdb.griffin.SqlExecutionContext;
-import io.questdb.griffin.engine.functions.BinaryFunction;
 import io.questdb.griffin.engine.functions.IntFunction;
 import io.questdb.std.IntList;
 import io.questdb.std.Numbers;
@@ -46,7 +45,7 @@ public class MulIntFunctionFactory implements FunctionFactory {
         return new Func(args.getQuick(0), args.getQuick(1));
     }
 
-    private static final class Func extends IntFunction implements BinaryFunction {
+    private static final class Func extends IntFunction implements ArithmeticFunction {
         private final Function left;
         private final Function right;
 
@@ -76,6 +75,11 @@ public class MulIntFunctionFactory implements FunctionFactory {
             return "*";
         }
 
+        @Override
+        public char getOperator() {
+            return '*';
+        }
+
         @Override
         public Function getRight() {
             return right;
@@ -30,7 +30,6 @@ import io.questdb.cairo.sql.Record;
 import io.questdb.griffin.FunctionFactory;
 import io.questdb.griffin.PlanSink;
 import io.questdb.griffin.SqlExecutionContext;
-import io.questdb.griffin.engine.functions.BinaryFunction;
 import io.questdb.griffin.engine.functions.IntFunction;
 import io.questdb.std.IntList;
 import io.questdb.std.Numbers;
@@ -47,7 +46,7 @@ public class SubIntFunctionFactory implements FunctionFactory {
         return new SubtractIntVVFunc(args.getQuick(0), args.getQuick(1));
     }
 
-    private static class SubtractIntVVFunc extends IntFunction implements BinaryFunction {
+    private static class SubtractIntVVFunc extends IntFunction implements ArithmeticFunction {
         final Function left;
         final Function right;
 
@@ -74,6 +73,11 @@ public class SubIntFunctionFactory implements FunctionFactory {
             return left;
         }
 
+        @Override
+        public char getOperator() {
+            return '-';
+        }
+
         @Override
         public Function getRight() {
             return right;
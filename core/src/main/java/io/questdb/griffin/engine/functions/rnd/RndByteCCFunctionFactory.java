@@ -44,6 +44,11 @@ public class RndByteCCFunctionFactory implements FunctionFactory {
         return "rnd_byte(ii)";
     }
 
+    @Override
+    public boolean isNonDeterministic() {
+        return true;
+    }
+
     @Override
     public Function newInstance(int position, ObjList<Function> args, IntList argPositions, CairoConfiguration configuration, SqlExecutionContext sqlExecutionContext) throws SqlException {
         byte lo = (byte) args.getQuick(0).getInt(null);
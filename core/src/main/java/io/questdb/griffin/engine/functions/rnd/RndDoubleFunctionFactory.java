@@ -45,6 +45,11 @@ public class RndDoubleFunctionFactory implements FunctionFactory {
         return SIGNATURE;
     }
 
+    @Override
+    public boolean isNonDeterministic() {
+        return true;
+    }
+
     @Override
     public Function newInstance(int position, ObjList<Function> args, IntList argPositions, CairoConfiguration configuration, SqlExecutionContext sqlExecutionContext) {
         return new RndFunction();
@@ -44,6 +44,11 @@ public class RndStrFunctionFactory implements FunctionFactory {
         return "rnd_str(iii)";
     }
 
+    @Override
+    public boolean isNonDeterministic() {
+        return true;
+    }
+
     @Override
     public Function newInstance(int position, ObjList<Function> args, IntList argPositions, CairoConfiguration configuration, SqlExecutionContext sqlExecutionContext) throws SqlException {
 
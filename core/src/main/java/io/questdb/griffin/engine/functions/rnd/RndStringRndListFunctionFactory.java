@@ -43,6 +43,11 @@ public class RndStringRndListFunctionFactory implements FunctionFactory {
         return "rnd_str(iiii)";
     }
 
+    @Override
+    public boolean isNonDeterministic() {
+        return true;
+    }
+
     @Override
     public Function newInstance(
             int position,
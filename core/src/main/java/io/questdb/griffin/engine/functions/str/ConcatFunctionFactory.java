@@ -191,6 +191,7 @@ public class ConcatFunctionFactory implements FunctionFactory {
         adapterReferences.extendAndSet(ColumnType.DATE, ConcatFunctionFactory::sinkDate);
         adapterReferences.extendAndSet(ColumnType.TIMESTAMP, ConcatFunctionFactory::sinkTimestamp);
         adapterReferences.extendAndSet(ColumnType.UUID, ConcatFunctionFactory::sinkUuid);
+        adapterReferences.extendAndSet(ColumnType.VARCHAR, ConcatFunctionFactory::sinkStr);
         adapterReferences.extendAndSet(ColumnType.NULL, ConcatFunctionFactory::sinkNull);
     }
 }
@@ -0,0 +1,86 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.functions.table;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.GenericRecordMetadata;
+import io.questdb.cairo.TableColumnMetadata;
+import io.questdb.cairo.sql.Function;
+import io.questdb.griffin.FunctionFactory;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.functions.CursorFunction;
+import io.questdb.griffin.engine.table.parquet.ParquetDecoder;
+import io.questdb.griffin.engine.table.parquet.ReadParquetRecordCursorFactory;
+import io.questdb.std.Chars;
+import io.questdb.std.GenericLexer;
+import io.questdb.std.IntList;
+import io.questdb.std.Misc;
+import io.questdb.std.ObjList;
+import io.questdb.std.str.Path;
+
+public class ReadParquetFunctionFactory implements FunctionFactory {
+    @Override
+    public String getSignature() {
+        return "read_parquet(s)";
+    }
+
+    @Override
+    public boolean isCursor() {
+        return true;
+    }
+
+    @Override
+    public Function newInstance(int position, ObjList<Function> args, IntList argPos, CairoConfiguration config, SqlExecutionContext context) throws SqlException {
+        final CharSequence root = config.getSqlCopyInputRoot();
+        if (Chars.isBlank(root)) {
+            throw SqlException.$(position, "read_parquet is disabled ['cairo.sql.copy.root' is not set?]");
+        }
+        final CharSequence fileName = args.getQuick(0).getStr(null);
+        if (fileName == null || fileName.length() == 0) {
+            throw SqlException.$(argPos.getQuick(0), "file name expected");
+        }
+        GenericLexer.assertNoDots(fileName, argPos.getQuick(0));
+
+        Path path = new Path();
+        try (ParquetDecoder decoder = new ParquetDecoder(config)) {
+            path.of(root).concat(fileName).$();
+            decoder.of(path);
+            final GenericRecordMetadata metadata = new GenericRecordMetadata();
+            for (int i = 0, n = decoder.getColumnCount(); i < n; i++) {
+                metadata.add(new TableColumnMetadata(decoder.getColumnName(i), decoder.getColumnType(i)));
+            }
+            return new CursorFunction(new ReadParquetRecordCursorFactory(config, path, metadata));
+        } catch (CairoException e) {
+            Misc.free(path);
+            throw SqlException.$(argPos.getQuick(0), e.getFlyweightMessage());
+        } catch (Throwable th) {
+            Misc.free(path);
+            throw th;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.groupby;
+
+import io.questdb.cairo.ArrayColumnTypes;
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.RecordSink;
+import io.questdb.cairo.Reopenable;
+import io.questdb.cairo.map.Map;
+import io.questdb.cairo.map.MapFactory;
+import io.questdb.cairo.map.MapValue;
+import io.questdb.cairo.map.MapValueMergeFunction;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.SqlExecutionCircuitBreaker;
+import io.questdb.cairo.sql.StatefulAtom;
+import io.questdb.cairo.sql.SymbolTableSource;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.PerWorkerLocks;
+import io.questdb.griffin.engine.functions.GroupByFunction;
+import io.questdb.std.*;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+
+/**
+ * Holds the state of a parallel keyed GROUP BY: the owner map and functions used by the
+ * query owner thread plus per-worker maps and functions used by the page frame reduce workers.
+ * Once all page frames are aggregated, per-worker maps are merged into the owner map.
+ */
+public class AsyncGroupByAtom implements StatefulAtom, Closeable, Reopenable {
+
+    private final RecordSink mapSink;
+    private final MapValueMergeFunction mergeFunction = this::mergeValues;
+    private final ObjList<GroupByFunction> ownerFunctions;
+    private final GroupByFunctionsUpdater ownerFunctionsUpdater;
+    private final Map ownerMap;
+    private final ObjList<ObjList<GroupByFunction>> perWorkerFunctions;
+    private final ObjList<GroupByFunctionsUpdater> perWorkerFunctionsUpdaters;
+    private final PerWorkerLocks perWorkerLocks;
+    private final ObjList<Map> perWorkerMaps;
+
+    public AsyncGroupByAtom(
+            @Transient @NotNull BytecodeAssembler asm,
+            @NotNull CairoConfiguration configuration,
+            @Transient @NotNull ArrayColumnTypes keyTypes,
+            @Transient @NotNull ArrayColumnTypes valueTypes,
+            @NotNull RecordSink mapSink,
+            @NotNull ObjList<GroupByFunction> ownerFunctions,
+            @NotNull ObjList<ObjList<GroupByFunction>> perWorkerFunctions,
+            int workerCount
+    ) {
+        assert perWorkerFunctions.size() == workerCount;
+        try {
+            this.mapSink = mapSink;
+            this.ownerFunctions = ownerFunctions;
+            this.perWorkerFunctions = perWorkerFunctions;
+            ownerFunctionsUpdater = GroupByFunctionsUpdaterFactory.getInstance(asm, ownerFunctions);
+            ownerMap = MapFactory.createMap(configuration, keyTypes, valueTypes);
+            perWorkerFunctionsUpdaters = new ObjList<>(workerCount);
+            perWorkerMaps = new ObjList<>(workerCount);
+            for (int i = 0; i < workerCount; i++) {
+                perWorkerFunctionsUpdaters.extendAndSet(i, GroupByFunctionsUpdaterFactory.getInstance(asm, perWorkerFunctions.getQuick(i)));
+                perWorkerMaps.extendAndSet(i, MapFactory.createSmallMap(configuration, keyTypes, valueTypes));
+            }
+            perWorkerLocks = new PerWorkerLocks(configuration, workerCount);
+        } catch (Throwable e) {
+            close();
+            throw e;
+        }
+    }
+
+    public int acquire(int workerId, boolean owner, SqlExecutionCircuitBreaker circuitBreaker) {
+        if (workerId == -1 && owner) {
+            // Owner thread is free to use the owner map and functions anytime.
+            return -1;
+        }
+        return perWorkerLocks.acquireSlot(workerId, circuitBreaker);
+    }
+
+    /**
+     * Releases the memory held by the maps and resets group by functions' state.
+     * The atom can be used again after a {@link #reopen()} call.
+     */
+    public void clear() {
+        Misc.free(ownerMap);
+        Misc.freeObjListAndKeepObjects(perWorkerMaps);
+        if (perWorkerFunctions != null) {
+            for (int i = 0, n = perWorkerFunctions.size(); i < n; i++) {
+                Misc.clearObjList(perWorkerFunctions.getQuick(i));
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        Misc.free(ownerMap);
+        Misc.freeObjList(perWorkerMaps);
+        if (perWorkerFunctions != null) {
+            for (int i = 0, n = perWorkerFunctions.size(); i < n; i++) {
+                Misc.freeObjList(perWorkerFunctions.getQuick(i));
+            }
+        }
+    }
+
+    public GroupByFunctionsUpdater getFunctionsUpdater(int slotId) {
+        if (slotId == -1) {
+            return ownerFunctionsUpdater;
+        }
+        return perWorkerFunctionsUpdaters.getQuick(slotId);
+    }
+
+    public Map getMap(int slotId) {
+        if (slotId == -1) {
+            return ownerMap;
+        }
+        return perWorkerMaps.getQuick(slotId);
+    }
+
+    public RecordSink getMapSink() {
+        return mapSink;
+    }
+
+    @Override
+    public void init(SymbolTableSource symbolTableSource, SqlExecutionContext executionContext) throws SqlException {
+        // Owner functions are initialized along with the rest of the record functions.
+        final boolean current = executionContext.getCloneSymbolTables();
+        executionContext.setCloneSymbolTables(true);
+        try {
+            for (int i = 0, n = perWorkerFunctions.size(); i < n; i++) {
+                Function.init(perWorkerFunctions.getQuick(i), symbolTableSource, executionContext);
+            }
+        } finally {
+            executionContext.setCloneSymbolTables(current);
+        }
+    }
+
+    @Override
+    public void initCursor() {
+        Function.initCursor(ownerFunctions);
+        // Initialize all per-worker functions on the query owner thread to avoid
+        // DataUnavailableException thrown on worker threads when aggregating.
+        for (int i = 0, n = perWorkerFunctions.size(); i < n; i++) {
+            Function.initCursor(perWorkerFunctions.getQuick(i));
+        }
+    }
+
+    /**
+     * Merges per-worker maps into the owner map. Must be called on the query owner thread
+     * once all page frames are aggregated. Per-worker maps are released after the merge.
+     *
+     * @return owner map holding the final aggregation results
+     */
+    public Map mergeWorkerMaps() {
+        for (int i = 0, n = perWorkerMaps.size(); i < n; i++) {
+            final Map srcMap = perWorkerMaps.getQuick(i);
+            if (srcMap.size() > 0) {
+                ownerMap.merge(srcMap, mergeFunction);
+            }
+            srcMap.close();
+        }
+        return ownerMap;
+    }
+
+    public void release(int slotId) {
+        perWorkerLocks.releaseSlot(slotId);
+    }
+
+    @Override
+    public void reopen() {
+        ownerMap.reopen();
+        for (int i = 0, n = perWorkerMaps.size(); i < n; i++) {
+            perWorkerMaps.getQuick(i).reopen();
+        }
+    }
+
+    private void mergeValues(MapValue destValue, MapValue srcValue) {
+        for (int i = 0, n = ownerFunctions.size(); i < n; i++) {
+            ownerFunctions.getQuick(i).merge(destValue, srcValue);
+        }
+    }
+}
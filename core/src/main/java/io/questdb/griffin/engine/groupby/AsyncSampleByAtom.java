@@ -0,0 +1,76 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.groupby;
+
+import io.questdb.cairo.ArrayColumnTypes;
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.RecordSink;
+import io.questdb.griffin.engine.functions.GroupByFunction;
+import io.questdb.std.BytecodeAssembler;
+import io.questdb.std.ObjList;
+import io.questdb.std.Transient;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * State of a parallel SAMPLE BY. On top of the parallel GROUP BY state it carries the
+ * timestamp sampler used by the workers to map rows to time buckets. Bucket timestamp is
+ * the last map key column and is also stored in the first map value column.
+ */
+public class AsyncSampleByAtom extends AsyncGroupByAtom {
+    private final int timestampIndex;
+    private final TimestampSampler timestampSampler;
+
+    public AsyncSampleByAtom(
+            @Transient @NotNull BytecodeAssembler asm,
+            @NotNull CairoConfiguration configuration,
+            @Transient @NotNull ArrayColumnTypes keyTypes,
+            @Transient @NotNull ArrayColumnTypes valueTypes,
+            @NotNull RecordSink mapSink,
+            @NotNull ObjList<GroupByFunction> ownerFunctions,
+            @NotNull ObjList<ObjList<GroupByFunction>> perWorkerFunctions,
+            @NotNull TimestampSampler timestampSampler,
+            int timestampIndex,
+            int workerCount
+    ) {
+        super(asm, configuration, keyTypes, valueTypes, mapSink, ownerFunctions, perWorkerFunctions, workerCount);
+        this.timestampSampler = timestampSampler;
+        this.timestampIndex = timestampIndex;
+    }
+
+    public int getTimestampIndex() {
+        return timestampIndex;
+    }
+
+    /**
+     * The sampler is read-only for the workers. Its start is set by the query owner thread
+     * before any page frame is dispatched.
+     *
+     * @return timestamp sampler aligned to the query's first observation or offset
+     */
+    public TimestampSampler getTimestampSampler() {
+        return timestampSampler;
+    }
+}
@@ -0,0 +1,212 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.groupby;
+
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.map.Map;
+import io.questdb.cairo.map.MapRecord;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.async.PageFrameReduceTask;
+import io.questdb.cairo.sql.async.PageFrameSequence;
+import io.questdb.griffin.engine.AbstractVirtualFunctionRecordCursor;
+import io.questdb.griffin.engine.functions.GroupByFunction;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.*;
+
+class AsyncSampleByRecordCursor extends AbstractVirtualFunctionRecordCursor {
+
+    private static final Log LOG = LogFactory.getLog(AsyncSampleByRecordCursor.class);
+    private static final String exceptionMessage = "timeout, query aborted";
+    private final ObjList<GroupByFunction> groupByFunctions;
+    // (bucket timestamp, map row id) pairs sorted by the bucket timestamp
+    private final DirectLongList sortedRows;
+    private long cursor = -1;
+    private long fixedOffset;
+    private int frameLimit;
+    private PageFrameSequence<AsyncSampleByAtom> frameSequence;
+    private boolean isDataMapBuilt;
+    private boolean isOpen;
+    private MapRecord mapRecord;
+    private long rowCount;
+    private long rowIndex;
+
+    public AsyncSampleByRecordCursor(ObjList<Function> recordFunctions, ObjList<GroupByFunction> groupByFunctions) {
+        super(recordFunctions, true);
+        this.groupByFunctions = groupByFunctions;
+        this.sortedRows = new DirectLongList(16, MemoryTag.NATIVE_SAMPLE_BY_LONG_LIST);
+    }
+
+    @Override
+    public void close() {
+        if (isOpen) {
+            LOG.debug()
+                    .$("closing [shard=").$(frameSequence.getShard())
+                    .$(", frameCount=").$(frameLimit)
+                    .$(", frameId=").$(frameSequence.getId())
+                    .$(", cursor=").$(cursor)
+                    .I$();
+
+            // Workers must be done with the maps before we release them.
+            collectCursor(true);
+            if (frameLimit > -1) {
+                frameSequence.await();
+            }
+            frameSequence.clear();
+
+            super.close();
+            frameSequence.getAtom().clear();
+            Misc.clearObjList(groupByFunctions);
+            isOpen = false;
+        }
+        Misc.free(sortedRows);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!isDataMapBuilt) {
+            buildMap();
+        }
+        if (rowIndex < rowCount) {
+            baseCursor.recordAt(mapRecord, sortedRows.get(2 * rowIndex + 1));
+            rowIndex++;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public long size() {
+        return isDataMapBuilt ? rowCount : -1;
+    }
+
+    @Override
+    public void toTop() {
+        if (isDataMapBuilt) {
+            super.toTop();
+            rowIndex = 0;
+        }
+    }
+
+    private void alignSampler() {
+        final AsyncSampleByAtom atom = frameSequence.getAtom();
+        final TimestampSampler timestampSampler = atom.getTimestampSampler();
+        if (fixedOffset != Long.MIN_VALUE) {
+            timestampSampler.setStart(fixedOffset);
+        } else {
+            // Align buckets to the first observation. Frames come in the designated timestamp order,
+            // so the first row of the first frame holds the lowest timestamp.
+            final long timestampAddress = frameSequence.getPageAddressCache().getPageAddress(0, atom.getTimestampIndex());
+            timestampSampler.setStart(Unsafe.getUnsafe().getLong(timestampAddress));
+        }
+    }
+
+    private void buildMap() {
+        if (frameLimit == -1) {
+            frameSequence.prepareForDispatch();
+            frameLimit = frameSequence.getFrameCount() - 1;
+            if (frameLimit > -1) {
+                // The sampler must be aligned before frames are dispatched to the workers.
+                alignSampler();
+            }
+        }
+
+        boolean allFramesActive = true;
+        int frameIndex = -1;
+        try {
+            do {
+                cursor = frameSequence.next();
+                if (cursor > -1) {
+                    final PageFrameReduceTask task = frameSequence.getTask(cursor);
+                    LOG.debug()
+                            .$("collected [shard=").$(frameSequence.getShard())
+                            .$(", frameIndex=").$(task.getFrameIndex())
+                            .$(", frameCount=").$(frameSequence.getFrameCount())
+                            .$(", frameId=").$(frameSequence.getId())
+                            .$(", active=").$(frameSequence.isActive())
+                            .$(", cursor=").$(cursor)
+                            .I$();
+                    allFramesActive &= frameSequence.isActive();
+                    frameIndex = task.getFrameIndex();
+                    collectCursor(false);
+                } else if (cursor == -2) {
+                    break; // No frames to aggregate
+                } else {
+                    Os.pause();
+                }
+            } while (frameIndex < frameLimit);
+        } catch (Throwable e) {
+            LOG.critical().$("unexpected error [ex=").$(e).I$();
+            throw CairoException.nonCritical().put(exceptionMessage).setInterruption(true);
+        }
+
+        if (!allFramesActive) {
+            throw CairoException.nonCritical().put(exceptionMessage).setInterruption(true);
+        }
+
+        // All frames are collected, so it's safe to access per-worker maps.
+        // Partial aggregates of buckets that span several frames are merged here.
+        final Map dataMap = frameSequence.getAtom().mergeWorkerMaps();
+        final RecordCursor mapCursor = dataMap.getCursor();
+        mapRecord = (MapRecord) mapCursor.getRecord();
+        sortRows(mapCursor);
+        super.of(mapCursor);
+        isDataMapBuilt = true;
+    }
+
+    private void collectCursor(boolean forceCollect) {
+        if (cursor > -1) {
+            frameSequence.collect(cursor, forceCollect);
+            // It is necessary to clear 'cursor' value
+            // because we updated frameIndex and loop can exit due to lack of frames.
+            // Non-update of 'cursor' could cause double-free.
+            cursor = -1;
+        }
+    }
+
+    private void sortRows(RecordCursor mapCursor) {
+        sortedRows.clear();
+        while (mapCursor.hasNext()) {
+            // the first map value is the bucket timestamp
+            sortedRows.add(mapRecord.getTimestamp(0));
+            sortedRows.add(mapRecord.getRowId());
+        }
+        rowCount = sortedRows.size() / 2;
+        Vect.sortLongIndexAscInPlace(sortedRows.getAddress(), rowCount);
+        rowIndex = 0;
+    }
+
+    void of(PageFrameSequence<AsyncSampleByAtom> frameSequence, long fixedOffset) {
+        this.frameSequence = frameSequence;
+        this.fixedOffset = fixedOffset;
+        frameSequence.getAtom().reopen();
+        sortedRows.reopen();
+        frameLimit = -1;
+        isDataMapBuilt = false;
+        isOpen = true;
+    }
+}
@@ -44,6 +44,15 @@ import org.jetbrains.annotations.NotNull;
 
 public class GroupByUtils {
 
+    public static boolean isParallelismSupported(ObjList<GroupByFunction> functions) {
+        for (int i = 0, n = functions.size(); i < n; i++) {
+            if (!functions.getQuick(i).isParallelismSupported()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public static void prepareGroupByFunctions(
             QueryModel model,
             RecordMetadata metadata,
@@ -162,6 +171,9 @@ public class GroupByUtils {
                         case ColumnType.STRING:
                             fun = StrColumn.newInstance(keyColumnIndex - 1);
                             break;
+                        case ColumnType.VARCHAR:
+                            fun = VarcharColumn.newInstance(keyColumnIndex - 1);
+                            break;
                         case ColumnType.SYMBOL:
                             fun = new MapSymbolColumn(keyColumnIndex - 1, index, metadata.isSymbolTableStatic(index));
                             break;
@@ -0,0 +1,232 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.join;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.ColumnTypes;
+import io.questdb.cairo.RecordSink;
+import io.questdb.cairo.Reopenable;
+import io.questdb.cairo.map.FastMap;
+import io.questdb.cairo.map.MapFactory;
+import io.questdb.cairo.map.MapValue;
+import io.questdb.cairo.map.MapValueMergeFunction;
+import io.questdb.cairo.sql.SqlExecutionCircuitBreaker;
+import io.questdb.cairo.sql.StatefulAtom;
+import io.questdb.cairo.vm.Vm;
+import io.questdb.cairo.vm.api.MemoryCARW;
+import io.questdb.griffin.engine.PerWorkerLocks;
+import io.questdb.std.*;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+
+/**
+ * Holds the state of a parallel hash join. Slave page frames are hashed into per-worker maps,
+ * each keeping a chain of slave row ids per join key in its own chain memory. Chain references
+ * carry the chain index, so once all slave frames are reduced, per-worker maps are merged into
+ * the owner map by linking the chain tails instead of copying the row ids. The merged map is
+ * then probed by the workers, each writing master keys to its own key map.
+ */
+public class AsyncHashJoinAtom implements StatefulAtom, Closeable, Reopenable {
+
+    private static final int CHAIN_INDEX_SHIFT = 48;
+    private static final long CHAIN_OFFSET_MASK = (1L << CHAIN_INDEX_SHIFT) - 1;
+    // Chain at index 0 is used by the query owner thread, worker slots use index slotId + 1.
+    private final ObjList<MemoryCARW> chains;
+    private final RecordSink masterKeySink;
+    private final MapValueMergeFunction mergeFunction = this::mergeChains;
+    private final FastMap ownerKeyMap;
+    private final FastMap ownerMap;
+    private final PerWorkerLocks perWorkerLocks;
+    private final ObjList<FastMap> perWorkerMaps;
+    private final RecordSink slaveKeySink;
+
+    public AsyncHashJoinAtom(
+            @NotNull CairoConfiguration configuration,
+            @Transient @NotNull ColumnTypes joinColumnTypes,
+            @Transient @NotNull ColumnTypes valueTypes,
+            @NotNull RecordSink masterKeySink,
+            @NotNull RecordSink slaveKeySink,
+            int workerCount
+    ) {
+        this.chains = new ObjList<>(workerCount + 1);
+        this.perWorkerMaps = new ObjList<>(workerCount);
+        this.masterKeySink = masterKeySink;
+        this.slaveKeySink = slaveKeySink;
+        FastMap ownerMap = null;
+        FastMap ownerKeyMap = null;
+        try {
+            ownerMap = (FastMap) MapFactory.createMap(configuration, joinColumnTypes, valueTypes);
+            ownerKeyMap = (FastMap) MapFactory.createSmallMap(configuration, joinColumnTypes, valueTypes);
+            final long chainPageSize = configuration.getSqlHashJoinLightValuePageSize();
+            final int chainMaxPages = configuration.getSqlHashJoinLightValueMaxPages();
+            chains.add(Vm.getCARWInstance(chainPageSize, chainMaxPages, MemoryTag.NATIVE_DEFAULT));
+            for (int i = 0; i < workerCount; i++) {
+                perWorkerMaps.extendAndSet(i, (FastMap) MapFactory.createSmallMap(configuration, joinColumnTypes, valueTypes));
+                chains.add(Vm.getCARWInstance(chainPageSize, chainMaxPages, MemoryTag.NATIVE_DEFAULT));
+            }
+            this.perWorkerLocks = new PerWorkerLocks(configuration, workerCount);
+        } catch (Throwable e) {
+            Misc.free(ownerMap);
+            Misc.free(ownerKeyMap);
+            Misc.freeObjList(perWorkerMaps);
+            Misc.freeObjList(chains);
+            throw e;
+        }
+        this.ownerMap = ownerMap;
+        this.ownerKeyMap = ownerKeyMap;
+    }
+
+    public int acquire(int workerId, boolean owner, SqlExecutionCircuitBreaker circuitBreaker) {
+        if (workerId == -1 && owner) {
+            // Owner thread is free to use the owner map and chain anytime.
+            return -1;
+        }
+        return perWorkerLocks.acquireSlot(workerId, circuitBreaker);
+    }
+
+    /**
+     * Appends the given slave row id to the chain of the key the value belongs to.
+     * The value must come from the map returned by {@link #getBuildMap(int)} for the same slot.
+     */
+    public void appendSlaveRow(int slotId, MapValue value, long rowId) {
+        final int chainIndex = slotId + 1;
+        final MemoryCARW chain = chains.getQuick(chainIndex);
+        final long ref = toChainRef(chainIndex, chain.getAppendOffset());
+        chain.putLong(-1);
+        chain.putLong(rowId);
+        if (value.isNew()) {
+            value.putLong(0, ref);
+        } else {
+            linkChainRef(value.getLong(1), ref);
+        }
+        value.putLong(1, ref);
+    }
+
+    /**
+     * Releases the memory held by the maps and chains. The atom can be used again
+     * after a {@link #reopen()} call.
+     */
+    public void clear() {
+        Misc.free(ownerMap);
+        Misc.free(ownerKeyMap);
+        Misc.freeObjListAndKeepObjects(perWorkerMaps);
+        Misc.freeObjListAndKeepObjects(chains);
+    }
+
+    @Override
+    public void close() {
+        Misc.free(ownerMap);
+        Misc.free(ownerKeyMap);
+        Misc.freeObjList(perWorkerMaps);
+        Misc.freeObjList(chains);
+    }
+
+    /**
+     * Adds (master row, slave row id) pairs for all slave rows chained to the given value
+     * to the row list. Safe to call concurrently once the maps are merged.
+     */
+    public void collectSlaveRows(MapValue value, long masterRowIndex, DirectLongList rows) {
+        long ref = value.getLong(0);
+        while (ref != -1) {
+            final MemoryCARW chain = chains.getQuick((int) (ref >>> CHAIN_INDEX_SHIFT));
+            final long offset = ref & CHAIN_OFFSET_MASK;
+            rows.add(masterRowIndex);
+            rows.add(chain.getLong(offset + Long.BYTES));
+            ref = chain.getLong(offset);
+        }
+    }
+
+    public FastMap getBuildMap(int slotId) {
+        if (slotId == -1) {
+            return ownerMap;
+        }
+        return perWorkerMaps.getQuick(slotId);
+    }
+
+    public FastMap getJoinKeyMap() {
+        return ownerMap;
+    }
+
+    /**
+     * Returns the map used to hold master keys while probing. Per-worker maps are empty
+     * once merged, so they are reused for that purpose.
+     */
+    public FastMap getKeyMap(int slotId) {
+        if (slotId == -1) {
+            return ownerKeyMap;
+        }
+        return perWorkerMaps.getQuick(slotId);
+    }
+
+    public RecordSink getMasterKeySink() {
+        return masterKeySink;
+    }
+
+    public RecordSink getSlaveKeySink() {
+        return slaveKeySink;
+    }
+
+    /**
+     * Merges per-worker maps into the owner map. Must be called on the query owner thread
+     * once all slave page frames are reduced. Per-worker maps are left empty.
+     */
+    public void mergeWorkerMaps() {
+        for (int i = 0, n = perWorkerMaps.size(); i < n; i++) {
+            final FastMap srcMap = perWorkerMaps.getQuick(i);
+            if (srcMap.size() > 0) {
+                ownerMap.merge(srcMap, mergeFunction);
+                srcMap.clear();
+            }
+        }
+    }
+
+    public void release(int slotId) {
+        perWorkerLocks.releaseSlot(slotId);
+    }
+
+    @Override
+    public void reopen() {
+        ownerMap.reopen();
+        ownerKeyMap.reopen();
+        for (int i = 0, n = perWorkerMaps.size(); i < n; i++) {
+            perWorkerMaps.getQuick(i).reopen();
+        }
+    }
+
+    private static long toChainRef(int chainIndex, long offset) {
+        return ((long) chainIndex << CHAIN_INDEX_SHIFT) | offset;
+    }
+
+    private void linkChainRef(long tailRef, long ref) {
+        final MemoryCARW chain = chains.getQuick((int) (tailRef >>> CHAIN_INDEX_SHIFT));
+        chain.putLong(tailRef & CHAIN_OFFSET_MASK, ref);
+    }
+
+    private void mergeChains(MapValue destValue, MapValue srcValue) {
+        linkChainRef(destValue.getLong(1), srcValue.getLong(0));
+        destValue.putLong(1, srcValue.getLong(1));
+    }
+}
@@ -0,0 +1,208 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.join;
+
+import io.questdb.MessageBus;
+import io.questdb.cairo.*;
+import io.questdb.cairo.map.FastMap;
+import io.questdb.cairo.map.MapKey;
+import io.questdb.cairo.map.MapValue;
+import io.questdb.cairo.sql.*;
+import io.questdb.cairo.sql.async.PageFrameReduceTask;
+import io.questdb.cairo.sql.async.PageFrameReducer;
+import io.questdb.cairo.sql.async.PageFrameSequence;
+import io.questdb.griffin.PlanSink;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.model.JoinContext;
+import io.questdb.mp.SCSequence;
+import io.questdb.std.DirectLongList;
+import io.questdb.std.Misc;
+import io.questdb.std.Transient;
+import io.questdb.std.WeakClosableObjectPool;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import static io.questdb.cairo.sql.DataFrameCursorFactory.*;
+
+/**
+ * Inner hash join executed in parallel on the shared worker pool. Both sides are dispatched
+ * as page frames via {@link io.questdb.cairo.sql.async.PageFrameReduceJob}: slave frames are
+ * hashed into per-worker maps that are merged once all frames are processed, then master
+ * frames are probed against the merged map, each frame producing a list of matching
+ * (master row, slave row id) pairs.
+ */
+public class AsyncHashJoinRecordCursorFactory extends AbstractRecordCursorFactory {
+
+    private static final PageFrameReducer BUILD_REDUCER = AsyncHashJoinRecordCursorFactory::build;
+    private static final PageFrameReducer PROBE_REDUCER = AsyncHashJoinRecordCursorFactory::probe;
+
+    private final AsyncHashJoinAtom atom;
+    private final AsyncHashJoinRecordCursor cursor;
+    private final JoinContext joinContext;
+    private final SCSequence masterCollectSubSeq = new SCSequence();
+    private final RecordCursorFactory masterFactory;
+    private final PageFrameSequence<AsyncHashJoinAtom> masterFrameSequence;
+    private final SCSequence slaveCollectSubSeq = new SCSequence();
+    private final RecordCursorFactory slaveFactory;
+    private final PageFrameSequence<AsyncHashJoinAtom> slaveFrameSequence;
+    private final int workerCount;
+
+    public AsyncHashJoinRecordCursorFactory(
+            @NotNull CairoConfiguration configuration,
+            @NotNull MessageBus messageBus,
+            @NotNull RecordMetadata metadata,
+            @NotNull RecordCursorFactory masterFactory,
+            @NotNull RecordCursorFactory slaveFactory,
+            @Transient @NotNull ColumnTypes joinColumnTypes,
+            @Transient @NotNull ColumnTypes valueTypes, // this expected to be LONG, LONG; we store chain references in map
+            @NotNull RecordSink masterKeySink,
+            @NotNull RecordSink slaveKeySink,
+            int columnSplit,
+            @NotNull JoinContext joinContext,
+            @NotNull @Transient WeakClosableObjectPool<PageFrameReduceTask> localTaskPool,
+            int workerCount
+    ) {
+        super(metadata);
+        this.masterFactory = masterFactory;
+        this.slaveFactory = slaveFactory;
+        this.joinContext = joinContext;
+        this.workerCount = workerCount;
+        this.atom = new AsyncHashJoinAtom(configuration, joinColumnTypes, valueTypes, masterKeySink, slaveKeySink, workerCount);
+        this.masterFrameSequence = new PageFrameSequence<>(configuration, messageBus, PROBE_REDUCER, localTaskPool);
+        this.slaveFrameSequence = new PageFrameSequence<>(configuration, messageBus, BUILD_REDUCER, localTaskPool);
+        this.cursor = new AsyncHashJoinRecordCursor(columnSplit, masterFactory.getScanDirection() == SCAN_DIRECTION_BACKWARD);
+    }
+
+    @Override
+    public RecordCursor getCursor(SqlExecutionContext executionContext) throws SqlException {
+        final int order = masterFactory.getScanDirection() == SCAN_DIRECTION_BACKWARD ? ORDER_DESC : ORDER_ASC;
+        slaveFrameSequence.of(slaveFactory, executionContext, slaveCollectSubSeq, atom, ORDER_ANY);
+        try {
+            masterFrameSequence.of(masterFactory, executionContext, masterCollectSubSeq, atom, order);
+        } catch (Throwable e) {
+            slaveFrameSequence.clear();
+            throw e;
+        }
+        cursor.of(masterFrameSequence, slaveFrameSequence);
+        return cursor;
+    }
+
+    @Override
+    public int getScanDirection() {
+        return masterFactory.getScanDirection();
+    }
+
+    @Override
+    public boolean recordCursorSupportsRandomAccess() {
+        return false;
+    }
+
+    @Override
+    public boolean supportsUpdateRowId(TableToken tableToken) {
+        return masterFactory.supportsUpdateRowId(tableToken);
+    }
+
+    @Override
+    public void toPlan(PlanSink sink) {
+        sink.type("Async Hash Join Light");
+        sink.attr("workers").val(workerCount);
+        sink.attr("condition").val(joinContext);
+        sink.child(masterFactory);
+        sink.child("Hash", slaveFactory);
+    }
+
+    private static void build(
+            int workerId,
+            @NotNull PageAddressCacheRecord record,
+            @NotNull PageFrameReduceTask task,
+            @NotNull SqlExecutionCircuitBreaker circuitBreaker,
+            @Nullable PageFrameSequence<?> stealingFrameSequence
+    ) {
+        final long frameRowCount = task.getFrameRowCount();
+        final AsyncHashJoinAtom atom = task.getFrameSequence(AsyncHashJoinAtom.class).getAtom();
+
+        final boolean owner = stealingFrameSequence != null && stealingFrameSequence == task.getFrameSequence();
+        final int slotId = atom.acquire(workerId, owner, circuitBreaker);
+        final FastMap map = atom.getBuildMap(slotId);
+        final RecordSink slaveKeySink = atom.getSlaveKeySink();
+        try {
+            for (long r = 0; r < frameRowCount; r++) {
+                record.setRowIndex(r);
+                final MapKey key = map.withKey();
+                slaveKeySink.copy(record, key);
+                final MapValue value = key.createValue();
+                // row id is relative to the page frame, it's used to position the slave record later on
+                atom.appendSlaveRow(slotId, value, record.getRowId());
+            }
+        } finally {
+            atom.release(slotId);
+        }
+    }
+
+    private static void probe(
+            int workerId,
+            @NotNull PageAddressCacheRecord record,
+            @NotNull PageFrameReduceTask task,
+            @NotNull SqlExecutionCircuitBreaker circuitBreaker,
+            @Nullable PageFrameSequence<?> stealingFrameSequence
+    ) {
+        final long frameRowCount = task.getFrameRowCount();
+        final AsyncHashJoinAtom atom = task.getFrameSequence(AsyncHashJoinAtom.class).getAtom();
+        final DirectLongList rows = task.getRows();
+        rows.clear();
+
+        final boolean owner = stealingFrameSequence != null && stealingFrameSequence == task.getFrameSequence();
+        final int slotId = atom.acquire(workerId, owner, circuitBreaker);
+        final FastMap joinKeyMap = atom.getJoinKeyMap();
+        final FastMap keyMap = atom.getKeyMap(slotId);
+        final RecordSink masterKeySink = atom.getMasterKeySink();
+        try {
+            for (long r = 0; r < frameRowCount; r++) {
+                record.setRowIndex(r);
+                final MapKey key = keyMap.withKey();
+                masterKeySink.copy(record, key);
+                final MapValue value = joinKeyMap.findValue(keyMap);
+                if (value != null) {
+                    atom.collectSlaveRows(value, r, rows);
+                }
+            }
+        } finally {
+            atom.release(slotId);
+        }
+    }
+
+    @Override
+    protected void _close() {
+        Misc.free(cursor);
+        cursor.freeRecords();
+        Misc.free(masterFrameSequence);
+        Misc.free(slaveFrameSequence);
+        Misc.free(atom);
+        ((JoinRecordMetadata) getMetadata()).close();
+        Misc.free(masterFactory);
+        Misc.free(slaveFactory);
+    }
+}
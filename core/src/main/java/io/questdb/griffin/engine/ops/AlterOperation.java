@@ -45,6 +45,7 @@ public class AlterOperation extends AbstractOperation implements Mutable {
     public final static short ADD_SYMBOL_CACHE = 6;
     public final static short ATTACH_PARTITION = 3;
     public final static String CMD_NAME = "ALTER TABLE";
+    public final static short COMPRESS_PARTITION = 13;
     public final static short DETACH_PARTITION = 12;
     public final static short DO_NOTHING = 0;
     public final static short DROP_COLUMN = 8;
@@ -104,6 +105,9 @@ public class AlterOperation extends AbstractOperation implements Mutable {
                 case ATTACH_PARTITION:
                     applyAttachPartition(svc);
                     break;
+                case COMPRESS_PARTITION:
+                    applyCompressPartition(svc);
+                    break;
                 case ADD_INDEX:
                     applyAddIndex(svc);
                     break;
@@ -340,6 +344,18 @@ public class AlterOperation extends AbstractOperation implements Mutable {
         }
     }
 
+    private void applyCompressPartition(MetadataService svc) {
+        // long list is a set of two longs per partition - (timestamp, partitionNamePosition)
+        for (int i = 0, n = extraInfo.size() / 2; i < n; i++) {
+            try {
+                svc.compressPartition(extraInfo.getQuick(i * 2));
+            } catch (CairoException e) {
+                e.position((int) extraInfo.getQuick(i * 2 + 1));
+                throw e;
+            }
+        }
+    }
+
     private void applyDetachPartition(MetadataService svc) {
         for (int i = 0, n = extraInfo.size() / 2; i < n; i++) {
             final long partitionTimestamp = extraInfo.getQuick(i * 2);
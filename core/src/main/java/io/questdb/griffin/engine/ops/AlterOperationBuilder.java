@@ -142,6 +142,14 @@ public class AlterOperationBuilder {
         return this;
     }
 
+    public AlterOperationBuilder ofCompressPartition(int tableNamePosition, TableToken tableToken, int tableId) {
+        this.command = COMPRESS_PARTITION;
+        this.tableNamePosition = tableNamePosition;
+        this.tableToken = tableToken;
+        this.tableId = tableId;
+        return this;
+    }
+
     public AlterOperationBuilder ofDetachPartition(int tableNamePosition, TableToken tableToken, int tableId) {
         this.command = DETACH_PARTITION;
         this.tableNamePosition = tableNamePosition;
@@ -0,0 +1,261 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.orderby;
+
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.*;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.LimitOverflowException;
+import io.questdb.std.*;
+
+/**
+ * Sorts base cursor rows by a single fixed-width column. The cursor materializes (key, row id)
+ * pairs off-heap, where the key is the column value encoded as an unsigned long that preserves
+ * the {@link RecordComparatorCompiler} order, and sorts them with the native LSD radix sort.
+ */
+class RadixSortLightRecordCursor implements DelegatingRecordCursor {
+    private static final long ENTRY_SIZE = 2 * Long.BYTES;
+    private static final long INITIAL_ENTRY_CAPACITY = 512;
+    private final int columnIndex;
+    private final int columnType;
+    private final boolean descending;
+    // (key, row id) pairs
+    private final DirectLongList entries;
+    private final long maxEntryCount;
+    private final int maxPages;
+    private final DirectLongList sortBuffer;
+    private RecordCursor base;
+    private Record baseRecord;
+    private SqlExecutionCircuitBreaker circuitBreaker;
+    private long entryCount;
+    private long entryIndex;
+    private boolean isOpen;
+    private boolean isSorted;
+
+    public RadixSortLightRecordCursor(long pageSize, int maxPages, int columnIndex, int columnType, boolean descending) {
+        // each entry is paired with a scratch slot of the same size used by the sort
+        this.maxEntryCount = Math.max(1, pageSize / (2 * ENTRY_SIZE)) * maxPages;
+        this.maxPages = maxPages;
+        this.columnIndex = columnIndex;
+        this.columnType = columnType;
+        this.descending = descending;
+        this.entries = new DirectLongList(2 * INITIAL_ENTRY_CAPACITY, MemoryTag.NATIVE_TREE_CHAIN);
+        this.sortBuffer = new DirectLongList(2 * INITIAL_ENTRY_CAPACITY, MemoryTag.NATIVE_TREE_CHAIN);
+        this.isOpen = true;
+    }
+
+    @Override
+    public void close() {
+        if (isOpen) {
+            isOpen = false;
+            Misc.free(entries);
+            Misc.free(sortBuffer);
+            base = Misc.free(base);
+            baseRecord = null;
+        }
+    }
+
+    @Override
+    public Record getRecord() {
+        return baseRecord;
+    }
+
+    @Override
+    public Record getRecordB() {
+        return base.getRecordB();
+    }
+
+    @Override
+    public SymbolTable getSymbolTable(int columnIndex) {
+        return base.getSymbolTable(columnIndex);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!isSorted) {
+            sort();
+            isSorted = true;
+        }
+        if (entryIndex < entryCount) {
+            base.recordAt(baseRecord, entries.get(2 * entryIndex + 1));
+            entryIndex++;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public SymbolTable newSymbolTable(int columnIndex) {
+        return base.newSymbolTable(columnIndex);
+    }
+
+    @Override
+    public void of(RecordCursor base, SqlExecutionContext executionContext) {
+        if (!isOpen) {
+            entries.reopen();
+            sortBuffer.reopen();
+            isOpen = true;
+        }
+
+        this.base = base;
+        baseRecord = base.getRecord();
+        circuitBreaker = executionContext.getCircuitBreaker();
+        entries.clear();
+        entryCount = 0;
+        entryIndex = 0;
+        isSorted = false;
+    }
+
+    @Override
+    public void recordAt(Record record, long atRowId) {
+        base.recordAt(record, atRowId);
+    }
+
+    @Override
+    public long size() {
+        return base.size();
+    }
+
+    @Override
+    public void toTop() {
+        entryIndex = 0;
+    }
+
+    private static long encodeDouble(double value) {
+        if (value != value) {
+            // NaN, i.e. null, goes first
+            return 0;
+        }
+        final long bits = Double.doubleToRawLongBits(value);
+        if (bits == Long.MIN_VALUE) {
+            // the comparator puts -0.0 right after 0.0
+            return Long.MIN_VALUE;
+        }
+        if (bits == 0) {
+            return Long.MAX_VALUE;
+        }
+        return bits < 0 ? ~bits : bits ^ Long.MIN_VALUE;
+    }
+
+    private static long encodeFloat(float value) {
+        if (value != value) {
+            return 0;
+        }
+        final int bits = Float.floatToRawIntBits(value);
+        if (bits == Integer.MIN_VALUE) {
+            return 1L << 31;
+        }
+        if (bits == 0) {
+            return (1L << 31) - 1;
+        }
+        return Integer.toUnsignedLong(bits < 0 ? ~bits : bits ^ Integer.MIN_VALUE);
+    }
+
+    private long encodeKey(Record record) {
+        final long key;
+        switch (ColumnType.tagOf(columnType)) {
+            case ColumnType.BOOLEAN:
+                key = record.getBool(columnIndex) ? 1 : 0;
+                break;
+            case ColumnType.BYTE:
+                key = record.getByte(columnIndex) ^ Long.MIN_VALUE;
+                break;
+            case ColumnType.SHORT:
+                key = record.getShort(columnIndex) ^ Long.MIN_VALUE;
+                break;
+            case ColumnType.CHAR:
+                key = record.getChar(columnIndex);
+                break;
+            case ColumnType.INT:
+                key = record.getInt(columnIndex) ^ Long.MIN_VALUE;
+                break;
+            case ColumnType.LONG:
+                key = record.getLong(columnIndex) ^ Long.MIN_VALUE;
+                break;
+            case ColumnType.DATE:
+                key = record.getDate(columnIndex) ^ Long.MIN_VALUE;
+                break;
+            case ColumnType.TIMESTAMP:
+                key = record.getTimestamp(columnIndex) ^ Long.MIN_VALUE;
+                break;
+            case ColumnType.FLOAT:
+                key = encodeFloat(record.getFloat(columnIndex));
+                break;
+            case ColumnType.DOUBLE:
+                key = encodeDouble(record.getDouble(columnIndex));
+                break;
+            case ColumnType.GEOBYTE:
+                key = record.getGeoByte(columnIndex) ^ Long.MIN_VALUE;
+                break;
+            case ColumnType.GEOSHORT:
+                key = record.getGeoShort(columnIndex) ^ Long.MIN_VALUE;
+                break;
+            case ColumnType.GEOINT:
+                key = record.getGeoInt(columnIndex) ^ Long.MIN_VALUE;
+                break;
+            default:
+                key = record.getGeoLong(columnIndex) ^ Long.MIN_VALUE;
+                break;
+        }
+        return descending ? ~key : key;
+    }
+
+    private void sort() {
+        while (base.hasNext()) {
+            circuitBreaker.statefulThrowExceptionIfTripped();
+            if (entryCount == maxEntryCount) {
+                throw LimitOverflowException.instance().put("Maximum number of pages (").put(maxPages).put(") breached in radix sort");
+            }
+            entries.add(encodeKey(baseRecord));
+            entries.add(baseRecord.getRowId());
+            entryCount++;
+        }
+
+        if (entryCount > 1) {
+            // Tree chain returns rows with equal keys in the reverse insertion order.
+            // The radix sort is stable, so we reverse the input to keep the same order.
+            reverseEntries();
+            sortBuffer.setCapacity(2 * entryCount);
+            Vect.radixSortLongIndexAscInPlace(entries.getAddress(), entryCount, sortBuffer.getAddress());
+        }
+        entryIndex = 0;
+    }
+
+    private void reverseEntries() {
+        long lo = entries.getAddress();
+        long hi = lo + (entryCount - 1) * ENTRY_SIZE;
+        while (lo < hi) {
+            final long key = Unsafe.getUnsafe().getLong(lo);
+            final long rowId = Unsafe.getUnsafe().getLong(lo + Long.BYTES);
+            Unsafe.getUnsafe().putLong(lo, Unsafe.getUnsafe().getLong(hi));
+            Unsafe.getUnsafe().putLong(lo + Long.BYTES, Unsafe.getUnsafe().getLong(hi + Long.BYTES));
+            Unsafe.getUnsafe().putLong(hi, key);
+            Unsafe.getUnsafe().putLong(hi + Long.BYTES, rowId);
+            lo += ENTRY_SIZE;
+            hi -= ENTRY_SIZE;
+        }
+    }
+}
@@ -320,6 +320,7 @@ public class RecordComparatorCompiler {
                     comparatorClass = Character.class;
                     break;
                 case ColumnType.STRING:
+                case ColumnType.VARCHAR:
                     getterNameA = "getStr";
                     getterNameB = "getStrB";
                     fieldType = "Ljava/lang/CharSequence;";
@@ -24,6 +24,7 @@
 
 package io.questdb.griffin.engine.orderby;
 
+import io.questdb.cairo.CairoConfiguration;
 import io.questdb.cairo.ColumnTypes;
 import io.questdb.cairo.RecordChain;
 import io.questdb.cairo.RecordSink;
@@ -58,6 +59,7 @@ public class RecordTreeChain implements Closeable, Mutable, Reopenable {
     private long root = -1;
 
     public RecordTreeChain(
+            @NotNull CairoConfiguration configuration,
             @NotNull ColumnTypes columnTypes,
             @NotNull RecordSink recordSink,
             @NotNull RecordComparator comparator,
@@ -68,7 +70,7 @@ public class RecordTreeChain implements Closeable, Mutable, Reopenable {
     ) {
         this.comparator = comparator;
         this.mem = new MemoryPages(keyPageSize, keyMaxPages);
-        this.recordChain = new RecordChain(columnTypes, recordSink, valuePageSize, valueMaxPages);
+        this.recordChain = new RecordChain(configuration, columnTypes, recordSink, valuePageSize, valueMaxPages);
         this.recordChainRecord = this.recordChain.getRecordB();
     }
 
@@ -53,6 +53,7 @@ public class SortedRecordCursorFactory extends AbstractRecordCursorFactory {
     ) {
         super(metadata);
         RecordTreeChain chain = new RecordTreeChain(
+                configuration,
                 metadata,
                 recordSink,
                 comparator,
@@ -47,13 +47,15 @@ public class AsyncFilterAtom implements StatefulAtom, Closeable, Plannable {
     private final ObjList<Function> perWorkerFilters;
     private final PerWorkerLocks perWorkerLocks;
     private final IntList preTouchColumnTypes;
+    private final ZoneMap zoneMap;
     private boolean preTouchEnabled;
 
     public AsyncFilterAtom(
             @NotNull CairoConfiguration configuration,
             @NotNull Function filter,
             @Nullable ObjList<Function> perWorkerFilters,
-            @Nullable IntList preTouchColumnTypes
+            @Nullable IntList preTouchColumnTypes,
+            @Nullable ZoneMap zoneMap
     ) {
         this.filter = filter;
         this.perWorkerFilters = perWorkerFilters;
@@ -63,6 +65,7 @@ public class AsyncFilterAtom implements StatefulAtom, Closeable, Plannable {
             perWorkerLocks = null;
         }
         this.preTouchColumnTypes = preTouchColumnTypes;
+        this.zoneMap = zoneMap;
     }
 
     public int acquireFilter(int workerId, boolean owner, SqlExecutionCircuitBreaker circuitBreaker) {
@@ -76,10 +79,16 @@ public class AsyncFilterAtom implements StatefulAtom, Closeable, Plannable {
         return perWorkerLocks.acquireSlot(workerId, circuitBreaker);
     }
 
+    @Override
+    public boolean canSkipFrame(PageFrameCursor pageFrameCursor, PageFrame frame) {
+        return zoneMap != null && zoneMap.canSkipFrame(pageFrameCursor, frame);
+    }
+
     @Override
     public void close() {
         Misc.free(filter);
         Misc.freeObjList(perWorkerFilters);
+        Misc.free(zoneMap);
     }
 
     public Function getFilter(int filterId) {
@@ -90,6 +99,11 @@ public class AsyncFilterAtom implements StatefulAtom, Closeable, Plannable {
         return perWorkerFilters.getQuick(filterId);
     }
 
+    @Nullable
+    public ZoneMap getZoneMap() {
+        return zoneMap;
+    }
+
     @Override
     public void init(SymbolTableSource symbolTableSource, SqlExecutionContext executionContext) throws SqlException {
         filter.init(symbolTableSource, executionContext);
@@ -181,6 +195,7 @@ public class AsyncFilterAtom implements StatefulAtom, Closeable, Plannable {
                         sum += record.getGeoLong(i);
                         break;
                     case ColumnType.STRING:
+                    case ColumnType.VARCHAR:
                         CharSequence cs = record.getStr(i);
                         if (cs != null && cs.length() > 0) {
                             // Touch the first page of the string contents only.
@@ -44,6 +44,7 @@ import io.questdb.mp.SCSequence;
 import io.questdb.std.*;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.TestOnly;
 
 import static io.questdb.cairo.sql.DataFrameCursorFactory.*;
 
@@ -75,7 +76,8 @@ public class AsyncJitFilteredRecordCursorFactory extends AbstractRecordCursorFac
             @Nullable Function limitLoFunction,
             int limitLoPos,
             boolean preTouchColumns,
-            int workerCount
+            int workerCount,
+            @Nullable ZoneMap zoneMap
     ) {
         super(base.getMetadata());
         assert !(base instanceof FilteredRecordCursorFactory);
@@ -100,7 +102,8 @@ public class AsyncJitFilteredRecordCursorFactory extends AbstractRecordCursorFac
                 compiledFilter,
                 bindVarMemory,
                 bindVarFunctions,
-                preTouchColumnTypes
+                preTouchColumnTypes,
+                zoneMap
         );
         this.frameSequence = new PageFrameSequence<>(configuration, messageBus, REDUCER, localTaskPool);
         this.limitLoFunction = limitLoFunction;
@@ -165,6 +168,11 @@ public class AsyncJitFilteredRecordCursorFactory extends AbstractRecordCursorFac
         return base.getScanDirection();
     }
 
+    @TestOnly
+    public ZoneMap getZoneMap() {
+        return filterAtom.getZoneMap();
+    }
+
     @Override
     public boolean recordCursorSupportsRandomAccess() {
         return true;
@@ -299,9 +307,10 @@ public class AsyncJitFilteredRecordCursorFactory extends AbstractRecordCursorFac
                 CompiledFilter compiledFilter,
                 MemoryCARW bindVarMemory,
                 ObjList<Function> bindVarFunctions,
-                @Nullable IntList preTouchColumnTypes
+                @Nullable IntList preTouchColumnTypes,
+                @Nullable ZoneMap zoneMap
         ) {
-            super(configuration, filter, perWorkerFilters, preTouchColumnTypes);
+            super(configuration, filter, perWorkerFilters, preTouchColumnTypes, zoneMap);
             this.compiledFilter = compiledFilter;
             this.bindVarMemory = bindVarMemory;
             this.bindVarFunctions = bindVarFunctions;
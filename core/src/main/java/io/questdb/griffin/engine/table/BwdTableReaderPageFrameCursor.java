@@ -79,6 +79,11 @@ public class BwdTableReaderPageFrameCursor implements PageFrameCursor {
         return reader.getSymbolTable(columnIndexes.getQuick(columnIndex));
     }
 
+    @Override
+    public TableReader getTableReader() {
+        return reader;
+    }
+
     @Override
     public long getUpdateRowId(long rowIndex) {
         return Rows.toRowID(frame.getPartitionIndex(), frame.getPartitionLo() + rowIndex);
@@ -0,0 +1,173 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.cairo.BitmapIndexReader;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.EmptyRowCursor;
+import io.questdb.cairo.TableReader;
+import io.questdb.cairo.TableReaderSelectedColumnRecord;
+import io.questdb.cairo.TableUtils;
+import io.questdb.cairo.sql.DataFrame;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.RowCursor;
+import io.questdb.cairo.sql.RowCursorFactory;
+import io.questdb.griffin.PlanSink;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.std.IntList;
+import io.questdb.std.NumericException;
+import io.questdb.std.Uuid;
+
+/**
+ * Returns rows of INT, LONG or UUID column matching a value using column's index. The index keys
+ * are hashes of the values, so the filter, which must include the equality predicate on the column,
+ * is applied to every row returned by the index.
+ */
+public class HashIndexFilteredRowCursorFactory implements RowCursorFactory {
+    private final boolean cachedIndexReaderCursor;
+    private final int columnIndex;
+    private final int columnType;
+    private final HashIndexFilteredRowCursor cursor = new HashIndexFilteredRowCursor();
+    private final Function filter;
+    private final int indexDirection;
+    private final TableReaderSelectedColumnRecord record;
+    private final Function value;
+    private int indexKey;
+
+    public HashIndexFilteredRowCursorFactory(
+            int columnIndex,
+            int columnType,
+            Function value,
+            Function filter,
+            boolean cachedIndexReaderCursor,
+            int indexDirection,
+            IntList columnIndexes
+    ) {
+        this.cachedIndexReaderCursor = cachedIndexReaderCursor;
+        this.columnIndex = columnIndex;
+        this.columnType = columnType;
+        this.value = value;
+        this.filter = filter;
+        this.indexDirection = indexDirection;
+        this.record = new TableReaderSelectedColumnRecord(columnIndexes);
+    }
+
+    /**
+     * @param columnType type of the indexed column
+     * @param value      function returning the value to look up
+     * @return index key of the value or -1 when value cannot be found in the column
+     */
+    public static int toIndexKey(int columnType, Function value) {
+        switch (ColumnType.tagOf(columnType)) {
+            case ColumnType.INT:
+                return TableUtils.toIndexKeyInt(value.getInt(null));
+            case ColumnType.LONG:
+                return TableUtils.toIndexKeyLong(value.getLong(null));
+            default:
+                if (ColumnType.tagOf(value.getType()) == ColumnType.UUID) {
+                    return TableUtils.toIndexKeyUuid(value.getLong128Lo(null), value.getLong128Hi(null));
+                }
+                final CharSequence str = value.getStr(null);
+                if (str == null || str.length() == 0) {
+                    return 0;
+                }
+                try {
+                    Uuid.checkDashesAndLength(str);
+                    return TableUtils.toIndexKeyUuid(Uuid.parseLo(str), Uuid.parseHi(str));
+                } catch (NumericException e) {
+                    return -1;
+                }
+        }
+    }
+
+    @Override
+    public RowCursor getCursor(DataFrame dataFrame) {
+        if (indexKey == -1) {
+            return EmptyRowCursor.INSTANCE;
+        }
+        return cursor.of(dataFrame);
+    }
+
+    @Override
+    public void init(TableReader tableReader, SqlExecutionContext sqlExecutionContext) throws SqlException {
+        value.init(tableReader, sqlExecutionContext);
+    }
+
+    @Override
+    public boolean isEntity() {
+        return false;
+    }
+
+    @Override
+    public boolean isUsingIndex() {
+        return true;
+    }
+
+    @Override
+    public void prepareCursor(TableReader tableReader) {
+        record.of(tableReader);
+        indexKey = toIndexKey(columnType, value);
+    }
+
+    @Override
+    public void toPlan(PlanSink sink) {
+        sink.type("Index ").type(BitmapIndexReader.nameOf(indexDirection)).type(" scan").meta("on").putBaseColumnName(columnIndex);
+        sink.attr("hash").putBaseColumnName(columnIndex).val('=').val(value);
+        sink.attr("filter").val(filter);
+    }
+
+    private class HashIndexFilteredRowCursor implements RowCursor {
+        private RowCursor rowCursor;
+        private long rowId;
+
+        @Override
+        public boolean hasNext() {
+            while (rowCursor.hasNext()) {
+                final long rowId = rowCursor.next();
+                record.setRecordIndex(rowId);
+                if (filter.getBool(record)) {
+                    this.rowId = rowId;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public long next() {
+            return rowId;
+        }
+
+        private HashIndexFilteredRowCursor of(DataFrame dataFrame) {
+            rowCursor = dataFrame
+                    .getBitmapIndexReader(columnIndex, indexDirection)
+                    .getCursor(cachedIndexReaderCursor, indexKey, dataFrame.getRowLo(), dataFrame.getRowHi() - 1);
+            record.jumpTo(dataFrame.getPartitionIndex(), 0);
+            return this;
+        }
+    }
+}
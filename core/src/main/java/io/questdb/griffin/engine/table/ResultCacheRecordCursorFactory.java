@@ -0,0 +1,569 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.cairo.AbstractRecordCursorFactory;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.QueryResultCache;
+import io.questdb.cairo.TableReader;
+import io.questdb.cairo.TableToken;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.*;
+import io.questdb.griffin.PlanSink;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.std.*;
+import io.questdb.std.str.CharSink;
+import io.questdb.std.str.DirectCharSequence;
+import io.questdb.std.str.StringSink;
+
+/**
+ * Serves query results from the server-wide {@link QueryResultCache}. On cache miss the base cursor
+ * is materialized into a new cache entry, unless the result does not fit into the cache memory budget,
+ * in which case the base cursor is returned as is.
+ * <p>
+ * Cache key is made of normalized query text and values of bind variables. Cached entry is served only
+ * when none of the tables the query reads from were changed since the entry was populated.
+ */
+public class ResultCacheRecordCursorFactory extends AbstractRecordCursorFactory {
+    private final RecordCursorFactory base;
+    private final CachedRecordCursor cursor;
+    private final StringSink keySink = new StringSink();
+    private final StringSink nameSink = new StringSink();
+    private final String queryText;
+    private final ObjList<TableToken> tableTokens = new ObjList<>();
+    private final LongList tableTxns = new LongList();
+
+    public ResultCacheRecordCursorFactory(RecordCursorFactory base, CharSequence queryText, ObjList<TableToken> tableTokens) {
+        super(base.getMetadata());
+        this.base = base;
+        this.queryText = Chars.toString(queryText);
+        this.tableTokens.addAll(tableTokens);
+        this.cursor = new CachedRecordCursor();
+    }
+
+    @Override
+    public boolean followedLimitAdvice() {
+        return base.followedLimitAdvice();
+    }
+
+    @Override
+    public boolean followedOrderByAdvice() {
+        return base.followedOrderByAdvice();
+    }
+
+    @Override
+    public RecordCursorFactory getBaseFactory() {
+        return base;
+    }
+
+    @Override
+    public RecordCursor getCursor(SqlExecutionContext executionContext) throws SqlException {
+        if (!buildKey(executionContext.getBindVariableService())) {
+            // bind variable of a type that cannot be part of the key
+            return base.getCursor(executionContext);
+        }
+
+        final QueryResultCache cache = executionContext.getCairoEngine().getQueryResultCache();
+        QueryResultCache.Entry entry = cache.acquire(keySink);
+        if (entry != null) {
+            if (isUpToDate(entry, executionContext)) {
+                cursor.of(cache, entry);
+                return cursor;
+            }
+            cache.invalidate(entry);
+            cache.release(entry);
+        }
+
+        // txns are captured before the query runs, so that concurrent commits
+        // can only make the entry look stale, never the other way around
+        readTableTxns(executionContext);
+        final RecordCursor baseCursor = base.getCursor(executionContext);
+        try {
+            entry = cache.newEntry(keySink, getMetadata(), tableTokens, tableTxns);
+            final SqlExecutionCircuitBreaker circuitBreaker = executionContext.getCircuitBreaker();
+            final Record record = baseCursor.getRecord();
+            boolean fits = true;
+            while (fits && baseCursor.hasNext()) {
+                circuitBreaker.statefulThrowExceptionIfTripped();
+                fits = entry.append(record);
+            }
+            if (!fits) {
+                entry = Misc.free(entry);
+            }
+        } catch (Throwable th) {
+            Misc.free(entry);
+            Misc.free(baseCursor);
+            throw th;
+        }
+        // the cache frees entries that do not fit the memory budget
+        if (entry == null || !cache.put(entry)) {
+            baseCursor.toTop();
+            return baseCursor;
+        }
+        baseCursor.close();
+        cursor.of(cache, entry);
+        return cursor;
+    }
+
+    @Override
+    public boolean recordCursorSupportsRandomAccess() {
+        // base cursor is returned when the result does not fit the cache
+        return base.recordCursorSupportsRandomAccess();
+    }
+
+    @Override
+    public void toPlan(PlanSink sink) {
+        sink.type("ResultCache");
+        sink.child(base);
+    }
+
+    @Override
+    public boolean usesCompiledFilter() {
+        return base.usesCompiledFilter();
+    }
+
+    private static CharSequence getStr(long address, DirectCharSequence cs) {
+        final int len = Unsafe.getUnsafe().getInt(address);
+        if (len < 0) {
+            return null;
+        }
+        final long lo = address + Integer.BYTES;
+        return cs.of(lo, lo + 2L * len);
+    }
+
+    private boolean buildKey(BindVariableService bindVariableService) {
+        keySink.clear();
+        keySink.put(queryText);
+        if (bindVariableService != null) {
+            for (int i = 0, n = bindVariableService.getIndexedVariableCount(); i < n; i++) {
+                keySink.put('\0').put('$').put(i + 1).put('=');
+                if (!putBindVariable(bindVariableService.getFunction(i))) {
+                    return false;
+                }
+            }
+            final ObjList<CharSequence> names = bindVariableService.getNamedVariables();
+            for (int i = 0, n = names.size(); i < n; i++) {
+                final CharSequence name = names.getQuick(i);
+                nameSink.clear();
+                nameSink.put(':').put(name);
+                keySink.put('\0').put(nameSink).put('=');
+                if (!putBindVariable(bindVariableService.getFunction(nameSink))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean isUpToDate(QueryResultCache.Entry entry, SqlExecutionContext executionContext) {
+        final ObjList<TableToken> entryTokens = entry.getTableTokens();
+        final LongList entryTxns = entry.getTableTxns();
+        for (int i = 0, n = entryTokens.size(); i < n; i++) {
+            final TableToken tableToken = entryTokens.getQuick(i);
+            if (!tableToken.equals(executionContext.getTableTokenIfExists(tableToken.getTableName()))) {
+                // table was dropped or renamed
+                return false;
+            }
+            try (TableReader reader = executionContext.getReader(tableToken)) {
+                if (reader.getTxn() != entryTxns.getQuick(i)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean putBindVariable(Function function) {
+        if (function == null) {
+            keySink.put("null");
+            return true;
+        }
+        final int type = function.getType();
+        keySink.put(type).put(':');
+        switch (ColumnType.tagOf(type)) {
+            case ColumnType.BOOLEAN:
+                keySink.put(function.getBool(null));
+                break;
+            case ColumnType.BYTE:
+                keySink.put(function.getByte(null));
+                break;
+            case ColumnType.SHORT:
+                keySink.put(function.getShort(null));
+                break;
+            case ColumnType.CHAR:
+                keySink.put((int) function.getChar(null));
+                break;
+            case ColumnType.INT:
+                keySink.put(function.getInt(null));
+                break;
+            case ColumnType.LONG:
+                keySink.put(function.getLong(null));
+                break;
+            case ColumnType.DATE:
+                keySink.put(function.getDate(null));
+                break;
+            case ColumnType.TIMESTAMP:
+                keySink.put(function.getTimestamp(null));
+                break;
+            case ColumnType.FLOAT:
+                keySink.put(Float.floatToRawIntBits(function.getFloat(null)));
+                break;
+            case ColumnType.DOUBLE:
+                keySink.put(Double.doubleToRawLongBits(function.getDouble(null)));
+                break;
+            case ColumnType.GEOBYTE:
+                keySink.put(function.getGeoByte(null));
+                break;
+            case ColumnType.GEOSHORT:
+                keySink.put(function.getGeoShort(null));
+                break;
+            case ColumnType.GEOINT:
+                keySink.put(function.getGeoInt(null));
+                break;
+            case ColumnType.GEOLONG:
+                keySink.put(function.getGeoLong(null));
+                break;
+            case ColumnType.UUID:
+            case ColumnType.LONG128:
+                keySink.put(function.getLong128Lo(null)).put(',').put(function.getLong128Hi(null));
+                break;
+            case ColumnType.LONG256:
+                final Long256 long256 = function.getLong256A(null);
+                keySink.put(long256.getLong0()).put(',').put(long256.getLong1()).put(',')
+                        .put(long256.getLong2()).put(',').put(long256.getLong3());
+                break;
+            case ColumnType.STRING:
+            case ColumnType.VARCHAR:
+                putStr(function.getStr(null));
+                break;
+            case ColumnType.SYMBOL:
+                putStr(function.getSymbol(null));
+                break;
+            default:
+                return false;
+        }
+        return true;
+    }
+
+    private void putStr(CharSequence value) {
+        if (value == null) {
+            keySink.put(-1);
+        } else {
+            // length prefix keeps values containing separators unambiguous
+            keySink.put(value.length()).put(',').put(value);
+        }
+    }
+
+    private void readTableTxns(SqlExecutionContext executionContext) {
+        tableTxns.clear();
+        for (int i = 0, n = tableTokens.size(); i < n; i++) {
+            try (TableReader reader = executionContext.getReader(tableTokens.getQuick(i))) {
+                tableTxns.add(reader.getTxn());
+            }
+        }
+    }
+
+    @Override
+    protected void _close() {
+        Misc.free(base);
+    }
+
+    private static class CachedRecord implements Record {
+        private final DirectCharSequence csA = new DirectCharSequence();
+        private final DirectCharSequence csB = new DirectCharSequence();
+        private final Long256Impl long256A = new Long256Impl();
+        private final Long256Impl long256B = new Long256Impl();
+        private long address;
+        private QueryResultCache.Entry entry;
+        private long row;
+
+        @Override
+        public boolean getBool(int col) {
+            return Unsafe.getUnsafe().getByte(columnAddress(col)) == 1;
+        }
+
+        @Override
+        public byte getByte(int col) {
+            return Unsafe.getUnsafe().getByte(columnAddress(col));
+        }
+
+        @Override
+        public char getChar(int col) {
+            return Unsafe.getUnsafe().getChar(columnAddress(col));
+        }
+
+        @Override
+        public long getDate(int col) {
+            return Unsafe.getUnsafe().getLong(columnAddress(col));
+        }
+
+        @Override
+        public double getDouble(int col) {
+            return Unsafe.getUnsafe().getDouble(columnAddress(col));
+        }
+
+        @Override
+        public float getFloat(int col) {
+            return Unsafe.getUnsafe().getFloat(columnAddress(col));
+        }
+
+        @Override
+        public byte getGeoByte(int col) {
+            return Unsafe.getUnsafe().getByte(columnAddress(col));
+        }
+
+        @Override
+        public int getGeoInt(int col) {
+            return Unsafe.getUnsafe().getInt(columnAddress(col));
+        }
+
+        @Override
+        public long getGeoLong(int col) {
+            return Unsafe.getUnsafe().getLong(columnAddress(col));
+        }
+
+        @Override
+        public short getGeoShort(int col) {
+            return Unsafe.getUnsafe().getShort(columnAddress(col));
+        }
+
+        @Override
+        public int getInt(int col) {
+            return Unsafe.getUnsafe().getInt(columnAddress(col));
+        }
+
+        @Override
+        public long getLong(int col) {
+            return Unsafe.getUnsafe().getLong(columnAddress(col));
+        }
+
+        @Override
+        public long getLong128Hi(int col) {
+            return Unsafe.getUnsafe().getLong(columnAddress(col) + Long.BYTES);
+        }
+
+        @Override
+        public long getLong128Lo(int col) {
+            return Unsafe.getUnsafe().getLong(columnAddress(col));
+        }
+
+        @Override
+        public void getLong256(int col, CharSink sink) {
+            final long address = columnAddress(col);
+            Numbers.appendLong256(
+                    Unsafe.getUnsafe().getLong(address),
+                    Unsafe.getUnsafe().getLong(address + Long.BYTES),
+                    Unsafe.getUnsafe().getLong(address + 2 * Long.BYTES),
+                    Unsafe.getUnsafe().getLong(address + 3 * Long.BYTES),
+                    sink
+            );
+        }
+
+        @Override
+        public Long256 getLong256A(int col) {
+            return getLong256(col, long256A);
+        }
+
+        @Override
+        public Long256 getLong256B(int col) {
+            return getLong256(col, long256B);
+        }
+
+        @Override
+        public long getRowId() {
+            return row;
+        }
+
+        @Override
+        public short getShort(int col) {
+            return Unsafe.getUnsafe().getShort(columnAddress(col));
+        }
+
+        @Override
+        public CharSequence getStr(int col) {
+            return getStr(col, csA);
+        }
+
+        @Override
+        public CharSequence getStrB(int col) {
+            return getStr(col, csB);
+        }
+
+        @Override
+        public int getStrLen(int col) {
+            return Unsafe.getUnsafe().getInt(entry.getStrAddress(address, col));
+        }
+
+        @Override
+        public CharSequence getSym(int col) {
+            return getStr(col, csA);
+        }
+
+        @Override
+        public CharSequence getSymB(int col) {
+            return getStr(col, csB);
+        }
+
+        @Override
+        public long getTimestamp(int col) {
+            return Unsafe.getUnsafe().getLong(columnAddress(col));
+        }
+
+        private long columnAddress(int col) {
+            return address + entry.getColumnOffset(col);
+        }
+
+        private Long256 getLong256(int col, Long256Impl long256) {
+            final long address = columnAddress(col);
+            long256.setAll(
+                    Unsafe.getUnsafe().getLong(address),
+                    Unsafe.getUnsafe().getLong(address + Long.BYTES),
+                    Unsafe.getUnsafe().getLong(address + 2 * Long.BYTES),
+                    Unsafe.getUnsafe().getLong(address + 3 * Long.BYTES)
+            );
+            return long256;
+        }
+
+        private CharSequence getStr(int col, DirectCharSequence cs) {
+            return ResultCacheRecordCursorFactory.getStr(entry.getStrAddress(address, col), cs);
+        }
+
+        private void of(QueryResultCache.Entry entry) {
+            this.entry = entry;
+        }
+
+        private void setRow(long row) {
+            this.row = row;
+            this.address = entry.getRowAddress(row);
+        }
+    }
+
+    private static class CachedRecordCursor implements RecordCursor {
+        private final CachedRecord recordA = new CachedRecord();
+        private final CachedRecord recordB = new CachedRecord();
+        private final ObjList<CachedSymbolTable> symbolTables = new ObjList<>();
+        private QueryResultCache cache;
+        private QueryResultCache.Entry entry;
+        private long row;
+        private long rowCount;
+
+        @Override
+        public void close() {
+            if (entry != null) {
+                cache.release(entry);
+                entry = null;
+            }
+        }
+
+        @Override
+        public Record getRecord() {
+            return recordA;
+        }
+
+        @Override
+        public Record getRecordB() {
+            return recordB;
+        }
+
+        @Override
+        public SymbolTable getSymbolTable(int columnIndex) {
+            CachedSymbolTable symbolTable = symbolTables.getQuiet(columnIndex);
+            if (symbolTable == null) {
+                symbolTable = new CachedSymbolTable();
+                symbolTables.extendAndSet(columnIndex, symbolTable);
+            }
+            return symbolTable.of(entry, columnIndex);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (row < rowCount) {
+                recordA.setRow(row++);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public SymbolTable newSymbolTable(int columnIndex) {
+            // cached entries are immutable, symbol tables are safe to share between threads
+            return new CachedSymbolTable().of(entry, columnIndex);
+        }
+
+        @Override
+        public void recordAt(Record record, long atRowId) {
+            ((CachedRecord) record).setRow(atRowId);
+        }
+
+        @Override
+        public long size() {
+            return rowCount;
+        }
+
+        @Override
+        public void toTop() {
+            row = 0;
+        }
+
+        private void of(QueryResultCache cache, QueryResultCache.Entry entry) {
+            this.cache = cache;
+            this.entry = entry;
+            this.rowCount = entry.getRowCount();
+            this.row = 0;
+            recordA.of(entry);
+            recordB.of(entry);
+        }
+    }
+
+    private static class CachedSymbolTable implements SymbolTable {
+        private final DirectCharSequence csA = new DirectCharSequence();
+        private final DirectCharSequence csB = new DirectCharSequence();
+        private int columnIndex;
+        private QueryResultCache.Entry entry;
+
+        @Override
+        public CharSequence valueBOf(int key) {
+            return valueOf(key, csB);
+        }
+
+        @Override
+        public CharSequence valueOf(int key) {
+            return valueOf(key, csA);
+        }
+
+        private CachedSymbolTable of(QueryResultCache.Entry entry, int columnIndex) {
+            this.entry = entry;
+            this.columnIndex = columnIndex;
+            return this;
+        }
+
+        private CharSequence valueOf(int key, DirectCharSequence cs) {
+            final long address = entry.getSymbolValueAddress(columnIndex, key);
+            return address != 0 ? getStr(address, cs) : null;
+        }
+    }
+}
@@ -29,7 +29,7 @@ import io.questdb.cairo.sql.RecordCursor;
 import io.questdb.cairo.sql.SymbolTable;
 import io.questdb.std.IntList;
 
-class SelectedRecordCursor implements RecordCursor {
+public class SelectedRecordCursor implements RecordCursor {
     private final IntList columnCrossIndex;
     private final SelectedRecord recordA;
     private final SelectedRecord recordB;
@@ -93,7 +93,7 @@ class SelectedRecordCursor implements RecordCursor {
         baseCursor.toTop();
     }
 
-    void of(RecordCursor cursor) {
+    public void of(RecordCursor cursor) {
         this.baseCursor = cursor;
         recordA.of(cursor.getRecord());
         if (recordB != null) {
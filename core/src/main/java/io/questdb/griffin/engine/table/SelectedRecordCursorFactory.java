@@ -26,6 +26,7 @@ package io.questdb.griffin.engine.table;
 
 import io.questdb.cairo.AbstractRecordCursorFactory;
 import io.questdb.cairo.BitmapIndexReader;
+import io.questdb.cairo.TableReader;
 import io.questdb.cairo.TableToken;
 import io.questdb.cairo.sql.*;
 import io.questdb.griffin.PlanSink;
@@ -196,6 +197,11 @@ public class SelectedRecordCursorFactory extends AbstractRecordCursorFactory {
             return baseCursor.getSymbolTable(columnCrossIndex.getQuick(columnIndex));
         }
 
+        @Override
+        public TableReader getTableReader() {
+            return baseCursor.getTableReader();
+        }
+
         @Override
         public long getUpdateRowId(long rowIndex) {
             return baseCursor.getUpdateRowId(rowIndex);
@@ -0,0 +1,209 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.cairo.BitmapIndexReader;
+import io.questdb.cairo.TableReader;
+import io.questdb.cairo.TableReaderSelectedColumnRecord;
+import io.questdb.cairo.TableUtils;
+import io.questdb.cairo.sql.DataFrame;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.RowCursor;
+import io.questdb.cairo.sql.RowCursorFactory;
+import io.questdb.griffin.PlanSink;
+import io.questdb.std.IntList;
+
+/**
+ * Returns rows matching equality predicates on two or more indexed symbol columns, e.g.
+ * <code>sym1 = 'a' and sym2 = 'b'</code>. Row ids of every column's index are sorted in scan
+ * direction, so the cursors are intersected by leapfrogging to the largest (or smallest, when
+ * scanning backward) row id seen so far instead of reading and filtering every row of the first
+ * index. The filter is applied to intersected rows only.
+ */
+public class SymbolIndexIntersectRowCursorFactory implements RowCursorFactory {
+    private final boolean cachedIndexReaderCursor;
+    private final IntersectRowCursor cursor;
+    private final Function filter;
+    private final int indexDirection;
+    private final TableReaderSelectedColumnRecord record;
+    private final IntList symbolColumnIndexes;
+    // index keys, i.e. symbol keys shifted by one
+    private final IntList symbolKeys;
+
+    /**
+     * @param symbolColumnIndexes     indexed symbol columns, at least two
+     * @param symbolKeys              symbol keys of the values to look up, one per column
+     * @param filter                  remaining filter, can be null
+     * @param cachedIndexReaderCursor true when index reader cursors can be reused
+     * @param indexDirection          {@link BitmapIndexReader#DIR_FORWARD} or {@link BitmapIndexReader#DIR_BACKWARD}
+     * @param columnIndexes           table reader column indexes of the selected columns
+     */
+    public SymbolIndexIntersectRowCursorFactory(
+            IntList symbolColumnIndexes,
+            IntList symbolKeys,
+            Function filter,
+            boolean cachedIndexReaderCursor,
+            int indexDirection,
+            IntList columnIndexes
+    ) {
+        assert symbolColumnIndexes.size() > 1 && symbolColumnIndexes.size() == symbolKeys.size();
+        this.symbolColumnIndexes = symbolColumnIndexes;
+        this.symbolKeys = new IntList(symbolKeys.size());
+        for (int i = 0, n = symbolKeys.size(); i < n; i++) {
+            this.symbolKeys.add(TableUtils.toIndexKey(symbolKeys.getQuick(i)));
+        }
+        this.filter = filter;
+        this.cachedIndexReaderCursor = cachedIndexReaderCursor;
+        this.indexDirection = indexDirection;
+        this.record = filter != null ? new TableReaderSelectedColumnRecord(columnIndexes) : null;
+        this.cursor = new IntersectRowCursor(symbolColumnIndexes.size());
+    }
+
+    @Override
+    public RowCursor getCursor(DataFrame dataFrame) {
+        return cursor.of(dataFrame);
+    }
+
+    @Override
+    public boolean isEntity() {
+        return false;
+    }
+
+    @Override
+    public boolean isUsingIndex() {
+        return true;
+    }
+
+    @Override
+    public void prepareCursor(TableReader tableReader) {
+        if (record != null) {
+            record.of(tableReader);
+        }
+    }
+
+    @Override
+    public void toPlan(PlanSink sink) {
+        sink.type("Index ").type(BitmapIndexReader.nameOf(indexDirection)).type(" intersect scan").meta("on");
+        for (int i = 0, n = symbolColumnIndexes.size(); i < n; i++) {
+            if (i > 0) {
+                sink.val(',');
+            }
+            sink.putBaseColumnName(symbolColumnIndexes.getQuick(i));
+        }
+        sink.attr("filter");
+        for (int i = 0, n = symbolColumnIndexes.size(); i < n; i++) {
+            if (i > 0) {
+                sink.val(" and ");
+            }
+            sink.putBaseColumnName(symbolColumnIndexes.getQuick(i)).val('=').val(symbolKeys.getQuick(i));
+        }
+        if (filter != null) {
+            sink.val(" and ").val(filter);
+        }
+    }
+
+    private class IntersectRowCursor implements RowCursor {
+        private final long[] heads;
+        private final RowCursor[] rowCursors;
+        private long rowId;
+
+        private IntersectRowCursor(int cursorCount) {
+            this.heads = new long[cursorCount];
+            this.rowCursors = new RowCursor[cursorCount];
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (nextIntersection()) {
+                if (filter == null) {
+                    return true;
+                }
+                record.setRecordIndex(rowId);
+                if (filter.getBool(record)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public long next() {
+            return rowId;
+        }
+
+        private boolean isBehind(long row, long candidate) {
+            return indexDirection == BitmapIndexReader.DIR_FORWARD ? row < candidate : row > candidate;
+        }
+
+        private boolean nextIntersection() {
+            // all heads point at the last returned row, move past it
+            final RowCursor first = rowCursors[0];
+            if (!first.hasNext()) {
+                return false;
+            }
+            long candidate = heads[0] = first.next();
+            final int n = rowCursors.length;
+            int matched = 1;
+            int i = 1;
+            while (matched < n) {
+                final RowCursor rowCursor = rowCursors[i];
+                long head = heads[i];
+                while (head == -1 || isBehind(head, candidate)) {
+                    if (!rowCursor.hasNext()) {
+                        return false;
+                    }
+                    head = rowCursor.next();
+                }
+                heads[i] = head;
+                if (head == candidate) {
+                    matched++;
+                } else {
+                    // this cursor is ahead, the others have to catch up
+                    candidate = head;
+                    matched = 1;
+                }
+                i = i + 1 < n ? i + 1 : 0;
+            }
+            rowId = candidate;
+            return true;
+        }
+
+        private IntersectRowCursor of(DataFrame dataFrame) {
+            final long rowLo = dataFrame.getRowLo();
+            final long rowHi = dataFrame.getRowHi() - 1;
+            for (int i = 0, n = rowCursors.length; i < n; i++) {
+                rowCursors[i] = dataFrame
+                        .getBitmapIndexReader(symbolColumnIndexes.getQuick(i), indexDirection)
+                        .getCursor(cachedIndexReaderCursor, symbolKeys.getQuick(i), rowLo, rowHi);
+                heads[i] = -1;
+            }
+            if (record != null) {
+                record.jumpTo(dataFrame.getPartitionIndex(), 0);
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,475 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.TableReader;
+import io.questdb.cairo.TxReader;
+import io.questdb.cairo.sql.PageFrame;
+import io.questdb.cairo.sql.PageFrameCursor;
+import io.questdb.cairo.sql.RecordMetadata;
+import io.questdb.griffin.SqlKeywords;
+import io.questdb.griffin.model.ExpressionNode;
+import io.questdb.std.*;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.TestOnly;
+
+/**
+ * Per page frame min/max statistics and bloom filters used to skip frames that cannot
+ * match a filter. Only top-level AND-ed comparisons of numeric columns with numeric
+ * constants, e.g. {@code price > 1e6} or {@code id = 42}, take part in skipping;
+ * the rest of the filter is still evaluated on the remaining frames.
+ * <p>
+ * Statistics are built on the query owner thread the first time a frame is seen and
+ * are kept for as long as the frame's partition version is unchanged. O3 merges write
+ * new partition versions, so they invalidate only the affected partitions. Truncates,
+ * updates and structure changes drop all statistics.
+ */
+public class ZoneMap implements QuietCloseable {
+    private static final int BLOOM_BITS_PER_ROW = 8;
+    private static final int BLOOM_HASH_COUNT = 3;
+    // frame entry: rowLo, rowHi, then min, max, bloom address and bloom bit mask per column
+    private static final int COLUMN_STATS_SIZE = 4;
+    private static final int FRAME_HEADER_SIZE = 2;
+    private static final int OP_EQ = 0;
+    private static final int OP_GE = 1;
+    private static final int OP_GT = 2;
+    private static final int OP_LE = 3;
+    private static final int OP_LT = 4;
+    private final IntList columnBlooms = new IntList();
+    private final IntList columnIndexes = new IntList();
+    private final IntList columnTypes = new IntList();
+    private final LongObjHashMap<PartitionZones> partitions = new LongObjHashMap<>();
+    private final IntList predicateColumns = new IntList();
+    private final IntList predicateDoubles = new IntList();
+    private final IntList predicateOps = new IntList();
+    private final LongList predicateValues = new LongList();
+    private final LongObjHashMap.LongObjConsumer<PartitionZones> freeFunc = (key, zones) -> freeStats(zones.stats);
+    private long columnVersion = -1;
+    private long skippedFrameCount;
+    private long structureVersion = -1;
+    private int tableId = -1;
+    private long truncateVersion = -1;
+
+    private ZoneMap() {
+    }
+
+    /**
+     * Extracts comparisons usable for frame skipping from the filter.
+     *
+     * @param filter   filter expression
+     * @param metadata metadata of the filtered factory
+     * @return zone map or null when the filter has no usable comparisons
+     */
+    @Nullable
+    public static ZoneMap newInstance(ExpressionNode filter, RecordMetadata metadata) {
+        final ZoneMap zoneMap = new ZoneMap();
+        zoneMap.addPredicates(filter, metadata);
+        return zoneMap.predicateOps.size() > 0 ? zoneMap : null;
+    }
+
+    /**
+     * Checks whether the frame can be skipped. Builds and caches frame statistics
+     * when they are not known yet. Must be called on the query owner thread.
+     *
+     * @param pageFrameCursor cursor the frame belongs to
+     * @param frame           page frame
+     * @return true when no row of the frame can satisfy the comparisons
+     */
+    public boolean canSkipFrame(PageFrameCursor pageFrameCursor, PageFrame frame) {
+        final TableReader reader = pageFrameCursor.getTableReader();
+        if (reader == null) {
+            return false;
+        }
+        validate(reader);
+
+        final int partitionIndex = frame.getPartitionIndex();
+        final long partitionTimestamp = reader.getPartitionTimestampByIndex(partitionIndex);
+        final long partitionNameTxn = reader.getTxFile().getPartitionNameTxn(partitionIndex);
+        PartitionZones zones = partitions.get(partitionTimestamp);
+        if (zones == null) {
+            zones = new PartitionZones();
+            partitions.put(partitionTimestamp, zones);
+        } else if (zones.nameTxn != partitionNameTxn) {
+            freeStats(zones.stats);
+        }
+        zones.nameTxn = partitionNameTxn;
+
+        final LongList stats = zones.stats;
+        final int frameOffset = findOrComputeStats(frame, stats);
+        for (int i = 0, n = predicateOps.size(); i < n; i++) {
+            final int statsOffset = frameOffset + FRAME_HEADER_SIZE + predicateColumns.getQuick(i) * COLUMN_STATS_SIZE;
+            if (!mayMatch(i, stats, statsOffset)) {
+                skippedFrameCount++;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void clear() {
+        partitions.forEach(freeFunc);
+        partitions.clear();
+    }
+
+    @Override
+    public void close() {
+        clear();
+    }
+
+    @TestOnly
+    public long getSkippedFrameCount() {
+        return skippedFrameCount;
+    }
+
+    private static boolean bloomMayContain(long address, long mask, long value) {
+        if (address == 0) {
+            return true;
+        }
+        final long hash = Hash.fastLongMix(value);
+        for (int i = 0; i < BLOOM_HASH_COUNT; i++) {
+            final long bit = (hash + i * ((hash >>> 32) | 1)) & mask;
+            if ((Unsafe.getUnsafe().getByte(address + (bit >>> 3)) & (1 << (bit & 7))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void bloomPut(long address, long mask, long value) {
+        final long hash = Hash.fastLongMix(value);
+        for (int i = 0; i < BLOOM_HASH_COUNT; i++) {
+            final long bit = (hash + i * ((hash >>> 32) | 1)) & mask;
+            final long byteAddress = address + (bit >>> 3);
+            Unsafe.getUnsafe().putByte(byteAddress, (byte) (Unsafe.getUnsafe().getByte(byteAddress) | (1 << (bit & 7))));
+        }
+    }
+
+    private static int flip(int op) {
+        switch (op) {
+            case OP_GE:
+                return OP_LE;
+            case OP_GT:
+                return OP_LT;
+            case OP_LE:
+                return OP_GE;
+            case OP_LT:
+                return OP_GT;
+            default:
+                return op;
+        }
+    }
+
+    private static boolean isDoubleColumn(int columnType) {
+        return columnType == ColumnType.FLOAT || columnType == ColumnType.DOUBLE;
+    }
+
+    private static boolean isSupportedColumn(int columnType) {
+        switch (columnType) {
+            case ColumnType.BYTE:
+            case ColumnType.SHORT:
+            case ColumnType.INT:
+            case ColumnType.LONG:
+            case ColumnType.TIMESTAMP:
+            case ColumnType.FLOAT:
+            case ColumnType.DOUBLE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static int op(CharSequence token) {
+        if (Chars.equals(token, '=')) {
+            return OP_EQ;
+        }
+        if (Chars.equals(token, ">=")) {
+            return OP_GE;
+        }
+        if (Chars.equals(token, '>')) {
+            return OP_GT;
+        }
+        if (Chars.equals(token, "<=")) {
+            return OP_LE;
+        }
+        if (Chars.equals(token, '<')) {
+            return OP_LT;
+        }
+        return -1;
+    }
+
+    private void addPredicate(ExpressionNode node, RecordMetadata metadata) {
+        int op = op(node.token);
+        if (op == -1 || node.paramCount != 2) {
+            return;
+        }
+        ExpressionNode column = node.lhs;
+        ExpressionNode constant = node.rhs;
+        if (column.type == ExpressionNode.CONSTANT && constant.type == ExpressionNode.LITERAL) {
+            column = node.rhs;
+            constant = node.lhs;
+            op = flip(op);
+        }
+        if (column.type != ExpressionNode.LITERAL || constant.type != ExpressionNode.CONSTANT) {
+            return;
+        }
+        final int columnIndex = metadata.getColumnIndexQuiet(column.token);
+        if (columnIndex == -1) {
+            return;
+        }
+        final int columnType = metadata.getColumnType(columnIndex);
+        if (!isSupportedColumn(columnType)) {
+            return;
+        }
+
+        boolean isDouble = isDoubleColumn(columnType);
+        long value;
+        try {
+            if (isDouble) {
+                value = Double.doubleToLongBits(Numbers.parseDouble(constant.token));
+            } else {
+                try {
+                    value = Numbers.parseLong(constant.token);
+                    if (value == Numbers.LONG_NaN || (columnType == ColumnType.INT && value == Numbers.INT_NaN)) {
+                        // comparison with null sentinel may match nulls
+                        return;
+                    }
+                } catch (NumericException e) {
+                    // integer column compared with a floating point constant
+                    value = Double.doubleToLongBits(Numbers.parseDouble(constant.token));
+                    isDouble = true;
+                }
+            }
+        } catch (NumericException e) {
+            return;
+        }
+        if (isDouble && (op == OP_EQ || Double.isNaN(Double.longBitsToDouble(value)))) {
+            // floating point equality is not exact, it is not used for skipping
+            return;
+        }
+
+        int slot = columnIndexes.indexOf(columnIndex, 0, columnIndexes.size());
+        if (slot == -1) {
+            slot = columnIndexes.size();
+            columnIndexes.add(columnIndex);
+            columnTypes.add(columnType);
+            columnBlooms.add(0);
+        }
+        if (op == OP_EQ) {
+            columnBlooms.setQuick(slot, 1);
+        }
+        predicateColumns.add(slot);
+        predicateOps.add(op);
+        predicateDoubles.add(isDouble ? 1 : 0);
+        predicateValues.add(value);
+    }
+
+    private void addPredicates(ExpressionNode node, RecordMetadata metadata) {
+        if (node == null) {
+            return;
+        }
+        if (node.type == ExpressionNode.OPERATION && SqlKeywords.isAndKeyword(node.token)) {
+            addPredicates(node.lhs, metadata);
+            addPredicates(node.rhs, metadata);
+        } else if (node.type == ExpressionNode.OPERATION) {
+            addPredicate(node, metadata);
+        }
+    }
+
+    private void computeStats(PageFrame frame, LongList stats, int frameOffset) {
+        final long rowCount = frame.getPartitionHi() - frame.getPartitionLo();
+        for (int i = 0, n = columnIndexes.size(); i < n; i++) {
+            final int offset = frameOffset + FRAME_HEADER_SIZE + i * COLUMN_STATS_SIZE;
+            final int columnType = columnTypes.getQuick(i);
+            final long address = frame.getPageAddress(columnIndexes.getQuick(i));
+
+            long bloomAddress = 0;
+            long bloomMask = 0;
+            if (columnBlooms.getQuick(i) == 1 && address != 0) {
+                final long bloomBits = Numbers.ceilPow2(Math.max(64, rowCount * BLOOM_BITS_PER_ROW));
+                bloomAddress = Unsafe.calloc(bloomBits >>> 3, MemoryTag.NATIVE_DEFAULT);
+                bloomMask = bloomBits - 1;
+            }
+
+            if (isDoubleColumn(columnType)) {
+                double min = Double.POSITIVE_INFINITY;
+                double max = Double.NEGATIVE_INFINITY;
+                if (address != 0) {
+                    for (long r = 0; r < rowCount; r++) {
+                        final double value = columnType == ColumnType.FLOAT
+                                ? Unsafe.getUnsafe().getFloat(address + (r << 2))
+                                : Unsafe.getUnsafe().getDouble(address + (r << 3));
+                        // NaN is null, comparisons never match it
+                        if (value < min) {
+                            min = value;
+                        }
+                        if (value > max) {
+                            max = value;
+                        }
+                    }
+                }
+                stats.setQuick(offset, Double.doubleToLongBits(min));
+                stats.setQuick(offset + 1, Double.doubleToLongBits(max));
+            } else {
+                long min = Long.MAX_VALUE;
+                long max = Long.MIN_VALUE;
+                if (address != 0) {
+                    for (long r = 0; r < rowCount; r++) {
+                        final long value;
+                        switch (columnType) {
+                            case ColumnType.BYTE:
+                                value = Unsafe.getUnsafe().getByte(address + r);
+                                break;
+                            case ColumnType.SHORT:
+                                value = Unsafe.getUnsafe().getShort(address + (r << 1));
+                                break;
+                            case ColumnType.INT:
+                                final int intValue = Unsafe.getUnsafe().getInt(address + (r << 2));
+                                if (intValue == Numbers.INT_NaN) {
+                                    continue;
+                                }
+                                value = intValue;
+                                break;
+                            default:
+                                value = Unsafe.getUnsafe().getLong(address + (r << 3));
+                                if (value == Numbers.LONG_NaN) {
+                                    continue;
+                                }
+                                break;
+                        }
+                        if (value < min) {
+                            min = value;
+                        }
+                        if (value > max) {
+                            max = value;
+                        }
+                        if (bloomAddress != 0) {
+                            bloomPut(bloomAddress, bloomMask, value);
+                        }
+                    }
+                }
+                stats.setQuick(offset, min);
+                stats.setQuick(offset + 1, max);
+            }
+            stats.setQuick(offset + 2, bloomAddress);
+            stats.setQuick(offset + 3, bloomMask);
+        }
+    }
+
+    private int findOrComputeStats(PageFrame frame, LongList stats) {
+        final long rowLo = frame.getPartitionLo();
+        final long rowHi = frame.getPartitionHi();
+        final int entrySize = FRAME_HEADER_SIZE + columnIndexes.size() * COLUMN_STATS_SIZE;
+        for (int offset = 0, n = stats.size(); offset < n; offset += entrySize) {
+            if (stats.getQuick(offset) == rowLo && stats.getQuick(offset + 1) == rowHi) {
+                return offset;
+            }
+        }
+        final int offset = stats.size();
+        stats.setPos(offset + entrySize);
+        stats.setQuick(offset, rowLo);
+        stats.setQuick(offset + 1, rowHi);
+        computeStats(frame, stats, offset);
+        return offset;
+    }
+
+    private void freeStats(LongList stats) {
+        final int entrySize = FRAME_HEADER_SIZE + columnIndexes.size() * COLUMN_STATS_SIZE;
+        for (int offset = 0, n = stats.size(); offset < n; offset += entrySize) {
+            for (int i = 0, k = columnIndexes.size(); i < k; i++) {
+                final int statsOffset = offset + FRAME_HEADER_SIZE + i * COLUMN_STATS_SIZE;
+                final long bloomAddress = stats.getQuick(statsOffset + 2);
+                if (bloomAddress != 0) {
+                    Unsafe.free(bloomAddress, (stats.getQuick(statsOffset + 3) + 1) >>> 3, MemoryTag.NATIVE_DEFAULT);
+                }
+            }
+        }
+        stats.clear();
+    }
+
+    private boolean mayMatch(int predicateIndex, LongList stats, int statsOffset) {
+        final int op = predicateOps.getQuick(predicateIndex);
+        final long value = predicateValues.getQuick(predicateIndex);
+        final int columnType = columnTypes.getQuick(predicateColumns.getQuick(predicateIndex));
+        final long minBits = stats.getQuick(statsOffset);
+        final long maxBits = stats.getQuick(statsOffset + 1);
+
+        if (predicateDoubles.getQuick(predicateIndex) == 1) {
+            final double v = Double.longBitsToDouble(value);
+            final double min = isDoubleColumn(columnType) ? Double.longBitsToDouble(minBits) : (double) minBits;
+            final double max = isDoubleColumn(columnType) ? Double.longBitsToDouble(maxBits) : (double) maxBits;
+            switch (op) {
+                case OP_GE:
+                    return max >= v;
+                case OP_GT:
+                    return max > v;
+                case OP_LE:
+                    return min <= v;
+                case OP_LT:
+                    return min < v;
+                default:
+                    return true;
+            }
+        }
+
+        switch (op) {
+            case OP_EQ:
+                return minBits <= value && value <= maxBits
+                        && bloomMayContain(stats.getQuick(statsOffset + 2), stats.getQuick(statsOffset + 3), value);
+            case OP_GE:
+                return maxBits >= value;
+            case OP_GT:
+                return maxBits > value;
+            case OP_LE:
+                return minBits <= value;
+            case OP_LT:
+                return minBits < value;
+            default:
+                return true;
+        }
+    }
+
+    private void validate(TableReader reader) {
+        final TxReader txFile = reader.getTxFile();
+        final int tableId = reader.getMetadata().getTableId();
+        if (this.tableId != tableId
+                || truncateVersion != txFile.getTruncateVersion()
+                || columnVersion != txFile.getColumnVersion()
+                || structureVersion != txFile.getStructureVersion()
+        ) {
+            clear();
+            this.tableId = tableId;
+            truncateVersion = txFile.getTruncateVersion();
+            columnVersion = txFile.getColumnVersion();
+            structureVersion = txFile.getStructureVersion();
+        }
+    }
+
+    private static class PartitionZones {
+        private final LongList stats = new LongList();
+        private long nameTxn;
+    }
+}
@@ -0,0 +1,795 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.table.parquet;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.vm.Vm;
+import io.questdb.cairo.vm.api.MemoryCARW;
+import io.questdb.std.*;
+import io.questdb.std.str.LPSZ;
+import io.questdb.std.str.StringSink;
+
+import java.io.Closeable;
+
+import static io.questdb.griffin.engine.table.parquet.ParquetConstants.*;
+
+/**
+ * Read-only access to a flat Parquet file. The file is memory mapped and row groups
+ * are decoded one at a time into column buffers laid out as QuestDB fixed-width columns.
+ * String values are not copied, their buffer holds addresses of the length-prefixed
+ * UTF-8 values inside the mapped file, 0 stands for NULL.
+ * <p>
+ * Supported are uncompressed v1 data pages with PLAIN or dictionary encoded values.
+ */
+public class ParquetDecoder implements Closeable {
+    private static final int CHUNK_CODEC = 0;
+    private static final int CHUNK_DATA_PAGE_OFFSET = 1;
+    private static final int CHUNK_DICTIONARY_PAGE_OFFSET = 2;
+    private static final int CHUNK_INFO_SIZE = 4;
+    private static final int CHUNK_NUM_VALUES = 3;
+    private static final long MILLIS_PER_DAY = 24 * 60 * 60 * 1000L;
+    private static final int PAGE_TYPE_DATA_PAGE_V2 = 3;
+    private final LongList chunkInfo = new LongList();
+    private final ObjList<MemoryCARW> columnBuffers = new ObjList<>();
+    private final ObjList<String> columnNames = new ObjList<>();
+    private final IntList columnTypes = new IntList();
+    private final RleBitPackedDecoder defLevelDecoder = new RleBitPackedDecoder();
+    private final LongList dictionary = new LongList();
+    private final RleBitPackedDecoder dictionaryDecoder = new RleBitPackedDecoder();
+    private final FilesFacade ff;
+    private final IntList optional = new IntList();
+    private final IntList physicalTypes = new IntList();
+    private final ThriftCompactReader reader = new ThriftCompactReader();
+    private final LongList rowGroupSizes = new LongList();
+    private final StringSink sink = new StringSink();
+    private int bitIndex;
+    private int columnCount;
+    private boolean dictionaryEncoded;
+    private int fd = -1;
+    private long fileAddress;
+    private long fileSize;
+    private long rowCount;
+    private long valuePtr;
+
+    public ParquetDecoder(CairoConfiguration configuration) {
+        this.ff = configuration.getFilesFacade();
+    }
+
+    @Override
+    public void close() {
+        closeFile();
+        Misc.freeObjListAndClear(columnBuffers);
+    }
+
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    public String getColumnName(int columnIndex) {
+        return columnNames.getQuick(columnIndex);
+    }
+
+    /**
+     * @param columnIndex index of column
+     * @return address of the decoded column of the current row group
+     */
+    public long getColumnAddress(int columnIndex) {
+        return columnBuffers.getQuick(columnIndex).getAddress();
+    }
+
+    public int getColumnType(int columnIndex) {
+        return columnTypes.getQuick(columnIndex);
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public int getRowGroupCount() {
+        return rowGroupSizes.size();
+    }
+
+    public long getRowGroupSize(int rowGroupIndex) {
+        return rowGroupSizes.getQuick(rowGroupIndex);
+    }
+
+    /**
+     * Decodes all columns of the row group, column buffers are reused between calls.
+     *
+     * @param rowGroupIndex index of row group
+     */
+    public void decodeRowGroup(int rowGroupIndex) {
+        final long rowGroupSize = rowGroupSizes.getQuick(rowGroupIndex);
+        for (int i = 0; i < columnCount; i++) {
+            final MemoryCARW mem = columnBuffers.getQuick(i);
+            mem.jumpTo(0);
+            final int n = (rowGroupIndex * columnCount + i) * CHUNK_INFO_SIZE;
+            if (chunkInfo.getQuick(n + CHUNK_CODEC) != CODEC_UNCOMPRESSED) {
+                throw CairoException.nonCritical().put("compressed parquet files are not supported [column=").put(columnNames.getQuick(i)).put(']');
+            }
+            final long numValues = chunkInfo.getQuick(n + CHUNK_NUM_VALUES);
+            if (numValues != rowGroupSize) {
+                throw CairoException.nonCritical().put("nested parquet columns are not supported [column=").put(columnNames.getQuick(i)).put(']');
+            }
+            final long dictionaryOffset = chunkInfo.getQuick(n + CHUNK_DICTIONARY_PAGE_OFFSET);
+            final long dataOffset = chunkInfo.getQuick(n + CHUNK_DATA_PAGE_OFFSET);
+            decodeColumnChunk(i, dictionaryOffset > 0 && dictionaryOffset < dataOffset ? dictionaryOffset : dataOffset, numValues, mem);
+        }
+    }
+
+    /**
+     * Maps the file and reads its metadata.
+     *
+     * @param path of the file
+     */
+    public void of(LPSZ path) {
+        closeFile();
+        fd = ff.openRO(path);
+        if (fd < 0) {
+            throw CairoException.critical(ff.errno()).put("could not open parquet file [path=").put(path).put(']');
+        }
+        fileSize = ff.length(fd);
+        if (fileSize < 12) {
+            throw CairoException.nonCritical().put("not a parquet file [path=").put(path).put(']');
+        }
+        fileAddress = ff.mmap(fd, fileSize, 0, Files.MAP_RO, MemoryTag.MMAP_PARQUET);
+        if (fileAddress == FilesFacade.MAP_FAILED) {
+            fileAddress = 0;
+            throw CairoException.critical(ff.errno()).put("could not mmap parquet file [path=").put(path).put(']');
+        }
+        final long footerLenAddress = fileAddress + fileSize - 8;
+        if (Unsafe.getUnsafe().getInt(fileAddress) != MAGIC_INT || Unsafe.getUnsafe().getInt(footerLenAddress + 4) != MAGIC_INT) {
+            throw CairoException.nonCritical().put("not a parquet file [path=").put(path).put(']');
+        }
+        final int footerLen = Unsafe.getUnsafe().getInt(footerLenAddress);
+        if (footerLen < 0 || footerLen > fileSize - 12) {
+            throw CairoException.nonCritical().put("corrupt parquet footer [path=").put(path).put(']');
+        }
+        readFileMetadata(footerLenAddress - footerLen, footerLenAddress);
+        while (columnBuffers.size() < columnCount) {
+            columnBuffers.add(Vm.getCARWInstance(1024 * 1024, Integer.MAX_VALUE, MemoryTag.NATIVE_PARQUET));
+        }
+    }
+
+    private static int columnSizeOf(int columnType) {
+        return ColumnType.isString(columnType) ? Long.BYTES : ColumnType.sizeOf(columnType);
+    }
+
+    private static CairoException unsupported(CharSequence columnName, CharSequence what) {
+        return CairoException.nonCritical().put("unsupported parquet column [column=").put(columnName).put(", reason=").put(what).put(']');
+    }
+
+    private long checkAddress(long address, long len) {
+        if (address < fileAddress || len < 0 || address + len > fileAddress + fileSize) {
+            throw CairoException.nonCritical().put("corrupt parquet file, address out of range");
+        }
+        return address;
+    }
+
+    private void closeFile() {
+        if (fileAddress != 0) {
+            ff.munmap(fileAddress, fileSize, MemoryTag.MMAP_PARQUET);
+            fileAddress = 0;
+        }
+        if (fd > -1) {
+            ff.close(fd);
+            fd = -1;
+        }
+    }
+
+    private void decodeColumnChunk(int columnIndex, long pageOffset, long numValues, MemoryCARW mem) {
+        final int columnType = columnTypes.getQuick(columnIndex);
+        final int physicalType = physicalTypes.getQuick(columnIndex);
+        final boolean isOptional = optional.getQuick(columnIndex) == 1;
+        dictionary.clear();
+        long ptr = fileAddress + pageOffset;
+        long valuesRead = 0;
+        while (valuesRead < numValues) {
+            reader.of(checkAddress(ptr, 0), fileAddress + fileSize);
+            int pageType = -1;
+            int compressedSize = 0;
+            int pageValueCount = 0;
+            int encoding = ENCODING_PLAIN;
+            reader.structBegin();
+            int t;
+            while ((t = reader.readFieldBegin()) != ThriftCompactReader.TYPE_STOP) {
+                switch (reader.getFieldId()) {
+                    case 1:
+                        pageType = reader.readI32();
+                        break;
+                    case 3:
+                        compressedSize = reader.readI32();
+                        break;
+                    case 5:
+                    case 7:
+                        // data page header and dictionary page header share the first two fields
+                        reader.structBegin();
+                        while ((t = reader.readFieldBegin()) != ThriftCompactReader.TYPE_STOP) {
+                            switch (reader.getFieldId()) {
+                                case 1:
+                                    pageValueCount = reader.readI32();
+                                    break;
+                                case 2:
+                                    encoding = reader.readI32();
+                                    break;
+                                default:
+                                    reader.skip(t);
+                                    break;
+                            }
+                        }
+                        reader.structEnd();
+                        break;
+                    default:
+                        reader.skip(t);
+                        break;
+                }
+            }
+            reader.structEnd();
+            final long bodyLo = reader.getPosition();
+            final long bodyHi = checkAddress(bodyLo, compressedSize) + compressedSize;
+            ptr = bodyHi;
+
+            switch (pageType) {
+                case PAGE_TYPE_DICTIONARY_PAGE:
+                    if (encoding != ENCODING_PLAIN && encoding != ENCODING_PLAIN_DICTIONARY) {
+                        throw unsupported(columnNames.getQuick(columnIndex), "dictionary encoding");
+                    }
+                    readDictionary(physicalType, bodyLo, bodyHi, pageValueCount);
+                    break;
+                case PAGE_TYPE_DATA_PAGE:
+                    decodeDataPage(columnType, physicalType, isOptional, encoding, bodyLo, bodyHi, pageValueCount, mem, columnIndex);
+                    valuesRead += pageValueCount;
+                    break;
+                case PAGE_TYPE_DATA_PAGE_V2:
+                    throw unsupported(columnNames.getQuick(columnIndex), "data page v2");
+                default:
+                    // index pages and unknown page types are skipped
+                    break;
+            }
+        }
+    }
+
+    private void decodeDataPage(
+            int columnType,
+            int physicalType,
+            boolean isOptional,
+            int encoding,
+            long lo,
+            long hi,
+            int valueCount,
+            MemoryCARW mem,
+            int columnIndex
+    ) {
+        long p = lo;
+        if (isOptional) {
+            final int defLen = Unsafe.getUnsafe().getInt(checkAddress(p, Integer.BYTES));
+            p += Integer.BYTES;
+            defLevelDecoder.of(p, checkAddress(p, defLen) + defLen, 1);
+            p += defLen;
+        }
+
+        switch (encoding) {
+            case ENCODING_PLAIN:
+                dictionaryEncoded = false;
+                valuePtr = p;
+                bitIndex = 0;
+                break;
+            case ENCODING_PLAIN_DICTIONARY:
+            case ENCODING_RLE_DICTIONARY:
+                if (dictionary.size() == 0) {
+                    throw unsupported(columnNames.getQuick(columnIndex), "missing dictionary page");
+                }
+                dictionaryEncoded = true;
+                dictionaryDecoder.of(p + 1, hi, Unsafe.getUnsafe().getByte(checkAddress(p, 1)));
+                break;
+            default:
+                throw unsupported(columnNames.getQuick(columnIndex), "value encoding");
+        }
+
+        final int size = columnSizeOf(columnType);
+        long dst = mem.appendAddressFor((long) valueCount * size);
+        for (int i = 0; i < valueCount; i++, dst += size) {
+            if (isOptional && defLevelDecoder.next() == 0) {
+                putNull(columnType, dst);
+            } else {
+                putValue(columnType, physicalType, dst, hi);
+            }
+        }
+    }
+
+    private long nextValueAddress(int physicalType, long hi) {
+        if (dictionaryEncoded) {
+            final int index = dictionaryDecoder.next();
+            if (index < 0 || index >= dictionary.size()) {
+                throw CairoException.nonCritical().put("corrupt parquet file, dictionary index out of range [index=").put(index).put(']');
+            }
+            return dictionary.getQuick(index);
+        }
+        final long address = valuePtr;
+        final int width = physicalType == TYPE_BYTE_ARRAY ? Integer.BYTES + Unsafe.getUnsafe().getInt(checkAddress(address, Integer.BYTES)) : valueWidth(physicalType);
+        if (address + width > hi) {
+            throw CairoException.nonCritical().put("corrupt parquet file, page is too short");
+        }
+        valuePtr += width;
+        return address;
+    }
+
+    private void putNull(int columnType, long dst) {
+        switch (ColumnType.tagOf(columnType)) {
+            case ColumnType.INT:
+                Unsafe.getUnsafe().putInt(dst, Numbers.INT_NaN);
+                break;
+            case ColumnType.LONG:
+            case ColumnType.DATE:
+            case ColumnType.TIMESTAMP:
+                Unsafe.getUnsafe().putLong(dst, Numbers.LONG_NaN);
+                break;
+            case ColumnType.FLOAT:
+                Unsafe.getUnsafe().putFloat(dst, Float.NaN);
+                break;
+            case ColumnType.DOUBLE:
+                Unsafe.getUnsafe().putDouble(dst, Double.NaN);
+                break;
+            case ColumnType.STRING:
+                Unsafe.getUnsafe().putLong(dst, 0);
+                break;
+            case ColumnType.UUID:
+                Unsafe.getUnsafe().putLong(dst, Numbers.LONG_NaN);
+                Unsafe.getUnsafe().putLong(dst + Long.BYTES, Numbers.LONG_NaN);
+                break;
+            default:
+                Vect.memset(dst, ColumnType.sizeOf(columnType), 0);
+                break;
+        }
+    }
+
+    private void putValue(int columnType, int physicalType, long dst, long hi) {
+        if (physicalType == TYPE_BOOLEAN && !dictionaryEncoded) {
+            final long address = checkAddress(valuePtr + (bitIndex >>> 3), 1);
+            if (address >= hi) {
+                throw CairoException.nonCritical().put("corrupt parquet file, page is too short");
+            }
+            Unsafe.getUnsafe().putByte(dst, (byte) ((Unsafe.getUnsafe().getByte(address) >>> (bitIndex & 7)) & 1));
+            bitIndex++;
+            return;
+        }
+
+        final long src = nextValueAddress(physicalType, hi);
+        switch (ColumnType.tagOf(columnType)) {
+            case ColumnType.BOOLEAN:
+                Unsafe.getUnsafe().putByte(dst, Unsafe.getUnsafe().getByte(src));
+                break;
+            case ColumnType.BYTE:
+                Unsafe.getUnsafe().putByte(dst, (byte) Unsafe.getUnsafe().getInt(src));
+                break;
+            case ColumnType.SHORT:
+                Unsafe.getUnsafe().putShort(dst, (short) Unsafe.getUnsafe().getInt(src));
+                break;
+            case ColumnType.CHAR:
+                Unsafe.getUnsafe().putChar(dst, (char) Unsafe.getUnsafe().getInt(src));
+                break;
+            case ColumnType.INT:
+            case ColumnType.FLOAT:
+                Unsafe.getUnsafe().putInt(dst, Unsafe.getUnsafe().getInt(src));
+                break;
+            case ColumnType.LONG:
+            case ColumnType.DOUBLE:
+                Unsafe.getUnsafe().putLong(dst, Unsafe.getUnsafe().getLong(src));
+                break;
+            case ColumnType.DATE:
+                Unsafe.getUnsafe().putLong(
+                        dst,
+                        physicalType == TYPE_INT32 ? Unsafe.getUnsafe().getInt(src) * MILLIS_PER_DAY : Unsafe.getUnsafe().getLong(src)
+                );
+                break;
+            case ColumnType.TIMESTAMP:
+                Unsafe.getUnsafe().putLong(dst, Unsafe.getUnsafe().getLong(src));
+                break;
+            case ColumnType.STRING:
+                Unsafe.getUnsafe().putLong(dst, src);
+                break;
+            case ColumnType.UUID:
+                Unsafe.getUnsafe().putLong(dst, Long.reverseBytes(Unsafe.getUnsafe().getLong(src + Long.BYTES)));
+                Unsafe.getUnsafe().putLong(dst + Long.BYTES, Long.reverseBytes(Unsafe.getUnsafe().getLong(src)));
+                break;
+            default:
+                throw CairoException.nonCritical().put("unexpected column type [type=").put(ColumnType.nameOf(columnType)).put(']');
+        }
+    }
+
+    private void readDictionary(int physicalType, long lo, long hi, int count) {
+        dictionary.clear();
+        long p = lo;
+        for (int i = 0; i < count; i++) {
+            final int width = physicalType == TYPE_BYTE_ARRAY ? Integer.BYTES + Unsafe.getUnsafe().getInt(checkAddress(p, Integer.BYTES)) : valueWidth(physicalType);
+            if (p + width > hi) {
+                throw CairoException.nonCritical().put("corrupt parquet file, dictionary page is too short");
+            }
+            dictionary.add(p);
+            p += width;
+        }
+    }
+
+    private void readFileMetadata(long lo, long hi) {
+        columnNames.clear();
+        columnTypes.clear();
+        physicalTypes.clear();
+        optional.clear();
+        rowGroupSizes.clear();
+        chunkInfo.clear();
+        columnCount = 0;
+        rowCount = 0;
+
+        reader.of(lo, hi);
+        reader.structBegin();
+        int t;
+        while ((t = reader.readFieldBegin()) != ThriftCompactReader.TYPE_STOP) {
+            switch (reader.getFieldId()) {
+                case 2:
+                    reader.readListBegin();
+                    final int elementCount = reader.getListSize();
+                    for (int i = 0; i < elementCount; i++) {
+                        readSchemaElement(i == 0);
+                    }
+                    break;
+                case 3:
+                    rowCount = reader.readI64();
+                    break;
+                case 4:
+                    reader.readListBegin();
+                    final int rowGroupCount = reader.getListSize();
+                    for (int i = 0; i < rowGroupCount; i++) {
+                        readRowGroup();
+                    }
+                    break;
+                default:
+                    reader.skip(t);
+                    break;
+            }
+        }
+        reader.structEnd();
+    }
+
+    private void readColumnChunk() {
+        long codec = CODEC_UNCOMPRESSED;
+        long dataPageOffset = -1;
+        long dictionaryPageOffset = -1;
+        long numValues = 0;
+        reader.structBegin();
+        int t;
+        while ((t = reader.readFieldBegin()) != ThriftCompactReader.TYPE_STOP) {
+            if (reader.getFieldId() == 1) {
+                throw CairoException.nonCritical().put("parquet files with external column chunks are not supported");
+            }
+            if (reader.getFieldId() != 3) {
+                reader.skip(t);
+                continue;
+            }
+            reader.structBegin();
+            while ((t = reader.readFieldBegin()) != ThriftCompactReader.TYPE_STOP) {
+                switch (reader.getFieldId()) {
+                    case 4:
+                        codec = reader.readI32();
+                        break;
+                    case 5:
+                        numValues = reader.readI64();
+                        break;
+                    case 9:
+                        dataPageOffset = reader.readI64();
+                        break;
+                    case 11:
+                        dictionaryPageOffset = reader.readI64();
+                        break;
+                    default:
+                        reader.skip(t);
+                        break;
+                }
+            }
+            reader.structEnd();
+        }
+        reader.structEnd();
+        if (dataPageOffset < 4 || dataPageOffset >= fileSize) {
+            throw CairoException.nonCritical().put("corrupt parquet file, invalid data page offset [offset=").put(dataPageOffset).put(']');
+        }
+        chunkInfo.add(codec, dataPageOffset, dictionaryPageOffset, numValues);
+    }
+
+    private void readRowGroup() {
+        long numRows = 0;
+        int chunkCount = 0;
+        reader.structBegin();
+        int t;
+        while ((t = reader.readFieldBegin()) != ThriftCompactReader.TYPE_STOP) {
+            switch (reader.getFieldId()) {
+                case 1:
+                    reader.readListBegin();
+                    chunkCount = reader.getListSize();
+                    for (int i = 0; i < chunkCount; i++) {
+                        readColumnChunk();
+                    }
+                    break;
+                case 3:
+                    numRows = reader.readI64();
+                    break;
+                default:
+                    reader.skip(t);
+                    break;
+            }
+        }
+        reader.structEnd();
+        if (chunkCount != columnCount) {
+            throw CairoException.nonCritical().put("corrupt parquet file, column chunk count mismatch [expected=").put(columnCount).put(", actual=").put(chunkCount).put(']');
+        }
+        rowGroupSizes.add(numRows);
+    }
+
+    private void readSchemaElement(boolean root) {
+        int physicalType = -1;
+        int typeLength = 0;
+        int repetition = REPETITION_REQUIRED;
+        int convertedType = -1;
+        int logicalType = -1;
+        int timeUnit = -1;
+        int numChildren = 0;
+        String name = null;
+
+        reader.structBegin();
+        int t;
+        while ((t = reader.readFieldBegin()) != ThriftCompactReader.TYPE_STOP) {
+            switch (reader.getFieldId()) {
+                case 1:
+                    physicalType = reader.readI32();
+                    break;
+                case 2:
+                    typeLength = reader.readI32();
+                    break;
+                case 3:
+                    repetition = reader.readI32();
+                    break;
+                case 4:
+                    reader.readString(sink);
+                    name = Chars.toString(sink);
+                    break;
+                case 5:
+                    numChildren = reader.readI32();
+                    break;
+                case 6:
+                    convertedType = reader.readI32();
+                    break;
+                case 10:
+                    // logical type is a union, we are only interested in which member is set
+                    reader.structBegin();
+                    while ((t = reader.readFieldBegin()) != ThriftCompactReader.TYPE_STOP) {
+                        logicalType = reader.getFieldId();
+                        if (logicalType == LOGICAL_TYPE_TIMESTAMP) {
+                            timeUnit = readTimeUnit();
+                        } else {
+                            reader.skip(t);
+                        }
+                    }
+                    reader.structEnd();
+                    break;
+                default:
+                    reader.skip(t);
+                    break;
+            }
+        }
+        reader.structEnd();
+
+        if (root) {
+            return;
+        }
+        if (numChildren > 0) {
+            throw unsupported(name, "nested schema");
+        }
+        if (repetition != REPETITION_REQUIRED && repetition != REPETITION_OPTIONAL) {
+            throw unsupported(name, "repeated field");
+        }
+
+        final int columnType;
+        switch (physicalType) {
+            case TYPE_BOOLEAN:
+                columnType = ColumnType.BOOLEAN;
+                break;
+            case TYPE_INT32:
+                if (convertedType == CONVERTED_INT_8) {
+                    columnType = ColumnType.BYTE;
+                } else if (convertedType == CONVERTED_INT_16) {
+                    columnType = ColumnType.SHORT;
+                } else if (convertedType == CONVERTED_UINT_16) {
+                    columnType = ColumnType.CHAR;
+                } else if (convertedType == CONVERTED_DATE || logicalType == LOGICAL_TYPE_DATE) {
+                    columnType = ColumnType.DATE;
+                } else {
+                    columnType = ColumnType.INT;
+                }
+                break;
+            case TYPE_INT64:
+                if (convertedType == CONVERTED_TIMESTAMP_MILLIS || (logicalType == LOGICAL_TYPE_TIMESTAMP && timeUnit == TIME_UNIT_MILLIS)) {
+                    columnType = ColumnType.DATE;
+                } else if (convertedType == CONVERTED_TIMESTAMP_MICROS || (logicalType == LOGICAL_TYPE_TIMESTAMP && timeUnit == TIME_UNIT_MICROS)) {
+                    columnType = ColumnType.TIMESTAMP;
+                } else if (logicalType == LOGICAL_TYPE_TIMESTAMP) {
+                    throw unsupported(name, "nanosecond timestamp");
+                } else {
+                    columnType = ColumnType.LONG;
+                }
+                break;
+            case TYPE_FLOAT:
+                columnType = ColumnType.FLOAT;
+                break;
+            case TYPE_DOUBLE:
+                columnType = ColumnType.DOUBLE;
+                break;
+            case TYPE_BYTE_ARRAY:
+                if (convertedType != CONVERTED_UTF8 && logicalType != LOGICAL_TYPE_STRING) {
+                    throw unsupported(name, "binary");
+                }
+                columnType = ColumnType.STRING;
+                break;
+            case TYPE_FIXED_LEN_BYTE_ARRAY:
+                if (logicalType != LOGICAL_TYPE_UUID || typeLength != 2 * Long.BYTES) {
+                    throw unsupported(name, "fixed length byte array");
+                }
+                columnType = ColumnType.UUID;
+                break;
+            default:
+                throw unsupported(name, "physical type");
+        }
+
+        if (name == null) {
+            throw CairoException.nonCritical().put("corrupt parquet file, column name is missing");
+        }
+        columnNames.add(name);
+        columnTypes.add(columnType);
+        physicalTypes.add(physicalType);
+        optional.add(repetition == REPETITION_OPTIONAL ? 1 : 0);
+        columnCount++;
+    }
+
+    private int readTimeUnit() {
+        int unit = -1;
+        reader.structBegin();
+        int t;
+        while ((t = reader.readFieldBegin()) != ThriftCompactReader.TYPE_STOP) {
+            if (reader.getFieldId() == 2 && t == ThriftCompactWriter.TYPE_STRUCT) {
+                reader.structBegin();
+                while ((t = reader.readFieldBegin()) != ThriftCompactReader.TYPE_STOP) {
+                    unit = reader.getFieldId();
+                    reader.skip(t);
+                }
+                reader.structEnd();
+            } else {
+                reader.skip(t);
+            }
+        }
+        reader.structEnd();
+        return unit;
+    }
+
+    private int valueWidth(int physicalType) {
+        switch (physicalType) {
+            case TYPE_INT32:
+            case TYPE_FLOAT:
+                return Integer.BYTES;
+            case TYPE_INT64:
+            case TYPE_DOUBLE:
+                return Long.BYTES;
+            case TYPE_FIXED_LEN_BYTE_ARRAY:
+                return 2 * Long.BYTES;
+            default:
+                // dictionary encoded booleans are not valid, report them as corrupt
+                throw CairoException.nonCritical().put("corrupt parquet file, unexpected physical type [type=").put(physicalType).put(']');
+        }
+    }
+
+    /**
+     * Decoder of the RLE/bit-packing hybrid encoding used for definition levels and dictionary indexes.
+     */
+    private static class RleBitPackedDecoder {
+        private long bitOffset;
+        private int bitWidth;
+        private long hi;
+        private boolean isRle;
+        private long ptr;
+        private int remaining;
+        private long runAddress;
+        private int value;
+
+        int next() {
+            if (remaining == 0) {
+                readRunHeader();
+            }
+            remaining--;
+            if (isRle) {
+                return value;
+            }
+            int result = 0;
+            for (int b = 0; b < bitWidth; ) {
+                final int shift = (int) (bitOffset & 7);
+                final int take = Math.min(8 - shift, bitWidth - b);
+                final int bits = (Unsafe.getUnsafe().getByte(runAddress + (bitOffset >>> 3)) & 0xFF) >>> shift;
+                result |= (bits & ((1 << take) - 1)) << b;
+                b += take;
+                bitOffset += take;
+            }
+            return result;
+        }
+
+        void of(long lo, long hi, int bitWidth) {
+            if (bitWidth < 0 || bitWidth > 32) {
+                throw CairoException.nonCritical().put("corrupt parquet file, invalid bit width [width=").put(bitWidth).put(']');
+            }
+            this.ptr = lo;
+            this.hi = hi;
+            this.bitWidth = bitWidth;
+            this.remaining = 0;
+        }
+
+        private byte readByte() {
+            if (ptr >= hi) {
+                throw CairoException.nonCritical().put("corrupt parquet file, unexpected end of encoded data");
+            }
+            return Unsafe.getUnsafe().getByte(ptr++);
+        }
+
+        private void readRunHeader() {
+            long header = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = readByte();
+                header |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0 && shift < 64);
+
+            if ((header & 1) == 0) {
+                isRle = true;
+                remaining = (int) (header >>> 1);
+                value = 0;
+                for (int i = 0, n = (bitWidth + 7) >>> 3; i < n; i++) {
+                    value |= (readByte() & 0xFF) << (i << 3);
+                }
+            } else {
+                isRle = false;
+                final long groupCount = header >>> 1;
+                remaining = (int) (groupCount << 3);
+                runAddress = ptr;
+                bitOffset = 0;
+                final long len = groupCount * bitWidth;
+                if (ptr + len > hi) {
+                    throw CairoException.nonCritical().put("corrupt parquet file, unexpected end of encoded data");
+                }
+                ptr += len;
+            }
+            if (remaining == 0) {
+                throw CairoException.nonCritical().put("corrupt parquet file, empty run");
+            }
+        }
+    }
+}
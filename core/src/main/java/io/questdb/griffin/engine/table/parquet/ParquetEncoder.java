@@ -0,0 +1,531 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.table.parquet;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.sql.PageFrame;
+import io.questdb.cairo.sql.PageFrameCursor;
+import io.questdb.cairo.sql.RecordMetadata;
+import io.questdb.cairo.sql.SymbolTable;
+import io.questdb.cairo.vm.Vm;
+import io.questdb.cairo.vm.api.MemoryCARW;
+import io.questdb.std.*;
+import io.questdb.std.str.DirectCharSequence;
+import io.questdb.std.str.DirectUnboundedByteSink;
+import io.questdb.std.str.LPSZ;
+
+import java.io.Closeable;
+
+import static io.questdb.griffin.engine.table.parquet.ParquetConstants.*;
+
+/**
+ * Writes page frames into a Parquet file. Each page frame becomes a row group, column
+ * chunks consist of uncompressed v1 data pages with PLAIN encoded values. Nullable
+ * QuestDB types are written as OPTIONAL columns with RLE encoded definition levels.
+ */
+public class ParquetEncoder implements Closeable {
+    private static final String CREATED_BY = "QuestDB";
+    private static final long DATA_PAGE_SIZE = 1024 * 1024;
+    private final LongList chunkInfo = new LongList();
+    private final DirectCharSequence csView = new DirectCharSequence();
+    private final MemoryCARW defLevelMem;
+    private final FilesFacade ff;
+    private final MemoryCARW headerMem;
+    private final long openOpts;
+    private final LongList rowGroupInfo = new LongList();
+    private final ThriftCompactWriter thrift = new ThriftCompactWriter();
+    private final DirectUnboundedByteSink utf8Sink = new DirectUnboundedByteSink();
+    private final MemoryCARW valueMem;
+    private int bitBuffer;
+    private int bitCount;
+    private boolean defLevelRun;
+    private long defLevelRunLength;
+    private int fd = -1;
+    private long fileOffset;
+    private int pageValueCount;
+
+    public ParquetEncoder(CairoConfiguration configuration) {
+        this.ff = configuration.getFilesFacade();
+        this.openOpts = configuration.getWriterFileOpenOpts();
+        try {
+            this.valueMem = Vm.getCARWInstance(DATA_PAGE_SIZE, Integer.MAX_VALUE, MemoryTag.NATIVE_PARQUET);
+            this.defLevelMem = Vm.getCARWInstance(64 * 1024, Integer.MAX_VALUE, MemoryTag.NATIVE_PARQUET);
+            this.headerMem = Vm.getCARWInstance(64 * 1024, Integer.MAX_VALUE, MemoryTag.NATIVE_PARQUET);
+        } catch (Throwable th) {
+            close();
+            throw th;
+        }
+    }
+
+    public static boolean isSupported(int columnType) {
+        switch (ColumnType.tagOf(columnType)) {
+            case ColumnType.BOOLEAN:
+            case ColumnType.BYTE:
+            case ColumnType.SHORT:
+            case ColumnType.CHAR:
+            case ColumnType.INT:
+            case ColumnType.LONG:
+            case ColumnType.DATE:
+            case ColumnType.TIMESTAMP:
+            case ColumnType.FLOAT:
+            case ColumnType.DOUBLE:
+            case ColumnType.STRING:
+            case ColumnType.SYMBOL:
+            case ColumnType.UUID:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    @Override
+    public void close() {
+        closeFile();
+        Misc.free(valueMem);
+        Misc.free(defLevelMem);
+        Misc.free(headerMem);
+    }
+
+    /**
+     * Writes all frames of the cursor into a new file, existing file with the same name is overwritten.
+     * Caller is expected to check column types with {@link #isSupported(int)} beforehand.
+     *
+     * @param cursor   source of page frames, it is not closed by this method
+     * @param metadata metadata of the page frames
+     * @param path     file to write
+     * @return number of rows written
+     */
+    public long export(PageFrameCursor cursor, RecordMetadata metadata, LPSZ path) {
+        fd = ff.openRW(path, openOpts);
+        if (fd < 0) {
+            throw CairoException.critical(ff.errno()).put("could not open parquet file for writing [path=").put(path).put(']');
+        }
+        boolean success = false;
+        try {
+            if (!ff.truncate(fd, 0)) {
+                throw CairoException.critical(ff.errno()).put("could not truncate parquet file [path=").put(path).put(']');
+            }
+            rowGroupInfo.clear();
+            chunkInfo.clear();
+            fileOffset = 0;
+            headerMem.jumpTo(0);
+            headerMem.putInt(MAGIC_INT);
+            writeMem(headerMem);
+
+            final int columnCount = metadata.getColumnCount();
+            long totalRows = 0;
+            PageFrame frame;
+            while ((frame = cursor.next()) != null) {
+                final long rowCount = frame.getPartitionHi() - frame.getPartitionLo();
+                if (rowCount < 1) {
+                    continue;
+                }
+                final long rowGroupOffset = fileOffset;
+                for (int i = 0; i < columnCount; i++) {
+                    final long chunkOffset = fileOffset;
+                    encodeColumnChunk(frame, cursor, i, metadata.getColumnType(i), rowCount);
+                    chunkInfo.add(chunkOffset, fileOffset - chunkOffset);
+                }
+                rowGroupInfo.add(rowCount, fileOffset - rowGroupOffset);
+                totalRows += rowCount;
+            }
+            writeFooter(metadata, totalRows);
+            success = true;
+            return totalRows;
+        } finally {
+            closeFile();
+            if (!success) {
+                ff.remove(path);
+            }
+        }
+    }
+
+    private static int convertedTypeOf(int columnType) {
+        switch (ColumnType.tagOf(columnType)) {
+            case ColumnType.BYTE:
+                return CONVERTED_INT_8;
+            case ColumnType.SHORT:
+                return CONVERTED_INT_16;
+            case ColumnType.CHAR:
+                return CONVERTED_UINT_16;
+            case ColumnType.DATE:
+                return CONVERTED_TIMESTAMP_MILLIS;
+            case ColumnType.TIMESTAMP:
+                return CONVERTED_TIMESTAMP_MICROS;
+            case ColumnType.STRING:
+            case ColumnType.SYMBOL:
+                return CONVERTED_UTF8;
+            default:
+                return -1;
+        }
+    }
+
+    private static boolean isOptional(int columnType) {
+        switch (ColumnType.tagOf(columnType)) {
+            case ColumnType.BOOLEAN:
+            case ColumnType.BYTE:
+            case ColumnType.SHORT:
+            case ColumnType.CHAR:
+                return false;
+            default:
+                return true;
+        }
+    }
+
+    private static int physicalTypeOf(int columnType) {
+        switch (ColumnType.tagOf(columnType)) {
+            case ColumnType.BOOLEAN:
+                return TYPE_BOOLEAN;
+            case ColumnType.BYTE:
+            case ColumnType.SHORT:
+            case ColumnType.CHAR:
+            case ColumnType.INT:
+                return TYPE_INT32;
+            case ColumnType.LONG:
+            case ColumnType.DATE:
+            case ColumnType.TIMESTAMP:
+                return TYPE_INT64;
+            case ColumnType.FLOAT:
+                return TYPE_FLOAT;
+            case ColumnType.DOUBLE:
+                return TYPE_DOUBLE;
+            case ColumnType.UUID:
+                return TYPE_FIXED_LEN_BYTE_ARRAY;
+            default:
+                return TYPE_BYTE_ARRAY;
+        }
+    }
+
+    private void appendBit(boolean value) {
+        if (value) {
+            bitBuffer |= 1 << bitCount;
+        }
+        if (++bitCount == 8) {
+            valueMem.putByte((byte) bitBuffer);
+            bitBuffer = 0;
+            bitCount = 0;
+        }
+    }
+
+    private void appendDefLevel(boolean defined) {
+        if (defLevelRunLength > 0 && defLevelRun != defined) {
+            flushDefLevelRun();
+        }
+        defLevelRun = defined;
+        defLevelRunLength++;
+    }
+
+    private void appendUtf8(CharSequence value) {
+        final long lenAddress = valueMem.appendAddressFor(Integer.BYTES + 3L * value.length());
+        utf8Sink.of(lenAddress + Integer.BYTES);
+        utf8Sink.encodeUtf8(value);
+        final int len = utf8Sink.length();
+        Unsafe.getUnsafe().putInt(lenAddress, len);
+        valueMem.jumpTo(lenAddress + Integer.BYTES + len - valueMem.getAddress());
+    }
+
+    private void closeFile() {
+        if (fd > -1) {
+            ff.close(fd);
+            fd = -1;
+        }
+    }
+
+    private void encodeColumnChunk(PageFrame frame, PageFrameCursor cursor, int columnIndex, int columnType, long rowCount) {
+        final long address = frame.getPageAddress(columnIndex);
+        final long indexAddress = frame.getIndexPageAddress(columnIndex);
+        final boolean optional = isOptional(columnType);
+        final int columnTag = ColumnType.tagOf(columnType);
+        final SymbolTable symbolTable = columnTag == ColumnType.SYMBOL ? cursor.getSymbolTable(columnIndex) : null;
+        resetPage(optional);
+
+        for (long r = 0; r < rowCount; r++) {
+            boolean defined = false;
+            switch (columnTag) {
+                case ColumnType.BOOLEAN:
+                    appendBit(address != 0 && Unsafe.getUnsafe().getByte(address + r) != 0);
+                    break;
+                case ColumnType.BYTE:
+                    valueMem.putInt(address != 0 ? Unsafe.getUnsafe().getByte(address + r) : 0);
+                    break;
+                case ColumnType.SHORT:
+                    valueMem.putInt(address != 0 ? Unsafe.getUnsafe().getShort(address + (r << 1)) : 0);
+                    break;
+                case ColumnType.CHAR:
+                    valueMem.putInt(address != 0 ? Unsafe.getUnsafe().getChar(address + (r << 1)) : 0);
+                    break;
+                case ColumnType.INT:
+                    if (address != 0) {
+                        final int value = Unsafe.getUnsafe().getInt(address + (r << 2));
+                        if (value != Numbers.INT_NaN) {
+                            valueMem.putInt(value);
+                            defined = true;
+                        }
+                    }
+                    break;
+                case ColumnType.LONG:
+                case ColumnType.DATE:
+                case ColumnType.TIMESTAMP:
+                    if (address != 0) {
+                        final long value = Unsafe.getUnsafe().getLong(address + (r << 3));
+                        if (value != Numbers.LONG_NaN) {
+                            valueMem.putLong(value);
+                            defined = true;
+                        }
+                    }
+                    break;
+                case ColumnType.FLOAT:
+                    if (address != 0) {
+                        final float value = Unsafe.getUnsafe().getFloat(address + (r << 2));
+                        if (!Float.isNaN(value)) {
+                            valueMem.putFloat(value);
+                            defined = true;
+                        }
+                    }
+                    break;
+                case ColumnType.DOUBLE:
+                    if (address != 0) {
+                        final double value = Unsafe.getUnsafe().getDouble(address + (r << 3));
+                        if (!Double.isNaN(value)) {
+                            valueMem.putDouble(value);
+                            defined = true;
+                        }
+                    }
+                    break;
+                case ColumnType.STRING:
+                    if (address != 0) {
+                        final long valueAddress = address + Unsafe.getUnsafe().getLong(indexAddress + (r << 3));
+                        final int len = Unsafe.getUnsafe().getInt(valueAddress);
+                        if (len > -1) {
+                            final long lo = valueAddress + Integer.BYTES;
+                            appendUtf8(csView.of(lo, lo + ((long) len << 1)));
+                            defined = true;
+                        }
+                    }
+                    break;
+                case ColumnType.SYMBOL:
+                    if (address != 0) {
+                        final int key = Unsafe.getUnsafe().getInt(address + (r << 2));
+                        if (key != SymbolTable.VALUE_IS_NULL) {
+                            appendUtf8(symbolTable.valueOf(key));
+                            defined = true;
+                        }
+                    }
+                    break;
+                case ColumnType.UUID:
+                    if (address != 0) {
+                        final long lo = Unsafe.getUnsafe().getLong(address + (r << 4));
+                        final long hi = Unsafe.getUnsafe().getLong(address + (r << 4) + Long.BYTES);
+                        if (!Uuid.isNull(lo, hi)) {
+                            // Parquet UUID is a big-endian 16-byte value
+                            valueMem.putLong(Long.reverseBytes(hi));
+                            valueMem.putLong(Long.reverseBytes(lo));
+                            defined = true;
+                        }
+                    }
+                    break;
+                default:
+                    throw CairoException.nonCritical().put("unsupported column type for parquet [type=").put(ColumnType.nameOf(columnType)).put(']');
+            }
+
+            if (optional) {
+                appendDefLevel(defined);
+            }
+            pageValueCount++;
+            if (valueMem.getAppendOffset() >= DATA_PAGE_SIZE) {
+                flushPage(optional);
+            }
+        }
+
+        if (pageValueCount > 0) {
+            flushPage(optional);
+        }
+    }
+
+    private void flushDefLevelRun() {
+        // RLE run of the RLE/bit-packed hybrid encoding, bit width 1 means value takes one byte
+        long header = defLevelRunLength << 1;
+        while ((header & ~0x7FL) != 0) {
+            defLevelMem.putByte((byte) ((header & 0x7F) | 0x80));
+            header >>>= 7;
+        }
+        defLevelMem.putByte((byte) header);
+        defLevelMem.putByte((byte) (defLevelRun ? 1 : 0));
+        defLevelRunLength = 0;
+    }
+
+    private void flushPage(boolean optional) {
+        if (bitCount > 0) {
+            valueMem.putByte((byte) bitBuffer);
+        }
+        if (optional) {
+            flushDefLevelRun();
+            Unsafe.getUnsafe().putInt(defLevelMem.getAddress(), (int) (defLevelMem.getAppendOffset() - Integer.BYTES));
+        }
+        final long pageSize = (optional ? defLevelMem.getAppendOffset() : 0) + valueMem.getAppendOffset();
+
+        headerMem.jumpTo(0);
+        thrift.of(headerMem);
+        thrift.structBegin();
+        thrift.fieldI32(1, PAGE_TYPE_DATA_PAGE);
+        thrift.fieldI32(2, (int) pageSize);
+        thrift.fieldI32(3, (int) pageSize);
+        thrift.fieldStruct(5);
+        thrift.fieldI32(1, pageValueCount);
+        thrift.fieldI32(2, ENCODING_PLAIN);
+        thrift.fieldI32(3, ENCODING_RLE);
+        thrift.fieldI32(4, ENCODING_RLE);
+        thrift.structEnd();
+        thrift.structEnd();
+
+        writeMem(headerMem);
+        if (optional) {
+            writeMem(defLevelMem);
+        }
+        writeMem(valueMem);
+        resetPage(optional);
+    }
+
+    private void resetPage(boolean optional) {
+        valueMem.jumpTo(0);
+        defLevelMem.jumpTo(0);
+        if (optional) {
+            // placeholder for the length of definition levels
+            defLevelMem.putInt(0);
+        }
+        defLevelRunLength = 0;
+        bitBuffer = 0;
+        bitCount = 0;
+        pageValueCount = 0;
+    }
+
+    private void writeColumnSchema(RecordMetadata metadata, int columnIndex) {
+        final int columnType = metadata.getColumnType(columnIndex);
+        final int physicalType = physicalTypeOf(columnType);
+        thrift.structBegin();
+        thrift.fieldI32(1, physicalType);
+        if (physicalType == TYPE_FIXED_LEN_BYTE_ARRAY) {
+            thrift.fieldI32(2, 2 * Long.BYTES);
+        }
+        thrift.fieldI32(3, isOptional(columnType) ? REPETITION_OPTIONAL : REPETITION_REQUIRED);
+        thrift.fieldBinary(4, metadata.getColumnName(columnIndex));
+        final int convertedType = convertedTypeOf(columnType);
+        if (convertedType > -1) {
+            thrift.fieldI32(6, convertedType);
+        }
+        switch (ColumnType.tagOf(columnType)) {
+            case ColumnType.DATE:
+            case ColumnType.TIMESTAMP:
+                thrift.fieldStruct(10);
+                thrift.fieldStruct(LOGICAL_TYPE_TIMESTAMP);
+                thrift.fieldBool(1, true);
+                thrift.fieldStruct(2);
+                thrift.fieldStruct(ColumnType.isTimestamp(columnType) ? TIME_UNIT_MICROS : TIME_UNIT_MILLIS);
+                thrift.structEnd();
+                thrift.structEnd();
+                thrift.structEnd();
+                thrift.structEnd();
+                break;
+            case ColumnType.UUID:
+                thrift.fieldStruct(10);
+                thrift.fieldStruct(LOGICAL_TYPE_UUID);
+                thrift.structEnd();
+                thrift.structEnd();
+                break;
+            default:
+                break;
+        }
+        thrift.structEnd();
+    }
+
+    private void writeFooter(RecordMetadata metadata, long totalRows) {
+        final int columnCount = metadata.getColumnCount();
+        headerMem.jumpTo(0);
+        thrift.of(headerMem);
+        thrift.structBegin();
+        thrift.fieldI32(1, 1);
+
+        thrift.fieldList(2, ThriftCompactWriter.TYPE_STRUCT, columnCount + 1);
+        thrift.structBegin();
+        thrift.fieldBinary(4, "schema");
+        thrift.fieldI32(5, columnCount);
+        thrift.structEnd();
+        for (int i = 0; i < columnCount; i++) {
+            writeColumnSchema(metadata, i);
+        }
+
+        thrift.fieldI64(3, totalRows);
+
+        final int rowGroupCount = rowGroupInfo.size() / 2;
+        thrift.fieldList(4, ThriftCompactWriter.TYPE_STRUCT, rowGroupCount);
+        for (int g = 0; g < rowGroupCount; g++) {
+            final long rowCount = rowGroupInfo.getQuick(2 * g);
+            thrift.structBegin();
+            thrift.fieldList(1, ThriftCompactWriter.TYPE_STRUCT, columnCount);
+            for (int i = 0; i < columnCount; i++) {
+                final int n = 2 * (g * columnCount + i);
+                final long chunkOffset = chunkInfo.getQuick(n);
+                final long chunkSize = chunkInfo.getQuick(n + 1);
+                thrift.structBegin();
+                thrift.fieldI64(2, chunkOffset);
+                thrift.fieldStruct(3);
+                thrift.fieldI32(1, physicalTypeOf(metadata.getColumnType(i)));
+                thrift.fieldList(2, ThriftCompactWriter.TYPE_I32, 2);
+                thrift.i32(ENCODING_PLAIN);
+                thrift.i32(ENCODING_RLE);
+                thrift.fieldList(3, ThriftCompactWriter.TYPE_BINARY, 1);
+                thrift.binary(metadata.getColumnName(i));
+                thrift.fieldI32(4, CODEC_UNCOMPRESSED);
+                thrift.fieldI64(5, rowCount);
+                thrift.fieldI64(6, chunkSize);
+                thrift.fieldI64(7, chunkSize);
+                thrift.fieldI64(9, chunkOffset);
+                thrift.structEnd();
+                thrift.structEnd();
+            }
+            thrift.fieldI64(2, rowGroupInfo.getQuick(2 * g + 1));
+            thrift.fieldI64(3, rowCount);
+            thrift.structEnd();
+        }
+
+        thrift.fieldBinary(6, CREATED_BY);
+        thrift.structEnd();
+
+        headerMem.putInt((int) headerMem.getAppendOffset());
+        headerMem.putInt(MAGIC_INT);
+        writeMem(headerMem);
+    }
+
+    private void writeMem(MemoryCARW mem) {
+        final long len = mem.getAppendOffset();
+        if (ff.write(fd, mem.getAddress(), len, fileOffset) != len) {
+            throw CairoException.critical(ff.errno()).put("could not write parquet file [fd=").put(fd).put(", offset=").put(fileOffset).put(']');
+        }
+        fileOffset += len;
+    }
+}
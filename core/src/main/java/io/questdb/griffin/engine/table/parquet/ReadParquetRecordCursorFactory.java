@@ -0,0 +1,267 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.table.parquet;
+
+import io.questdb.cairo.AbstractRecordCursorFactory;
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.TableUtils;
+import io.questdb.cairo.sql.NoRandomAccessRecordCursor;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordMetadata;
+import io.questdb.cairo.sql.SqlExecutionCircuitBreaker;
+import io.questdb.griffin.PlanSink;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.std.Chars;
+import io.questdb.std.Misc;
+import io.questdb.std.ObjList;
+import io.questdb.std.Unsafe;
+import io.questdb.std.str.Path;
+import io.questdb.std.str.StringSink;
+
+/**
+ * Reads Parquet file row group by row group. The file is re-opened for every cursor,
+ * so that the latest version of the file is read; its schema must not change after the
+ * query is compiled.
+ */
+public class ReadParquetRecordCursorFactory extends AbstractRecordCursorFactory {
+    private final ParquetRecordCursor cursor;
+    private final ParquetDecoder decoder;
+    private Path path;
+
+    public ReadParquetRecordCursorFactory(CairoConfiguration configuration, Path path, RecordMetadata metadata) {
+        super(metadata);
+        this.path = path;
+        this.decoder = new ParquetDecoder(configuration);
+        this.cursor = new ParquetRecordCursor(metadata);
+    }
+
+    @Override
+    public RecordCursor getCursor(SqlExecutionContext executionContext) {
+        try {
+            decoder.of(path);
+            assertSchema();
+            cursor.of(executionContext.getCircuitBreaker());
+            return cursor;
+        } catch (Throwable th) {
+            decoder.close();
+            throw th;
+        }
+    }
+
+    @Override
+    public boolean recordCursorSupportsRandomAccess() {
+        return false;
+    }
+
+    @Override
+    public void toPlan(PlanSink sink) {
+        sink.type("parquet file sequential scan");
+    }
+
+    @Override
+    protected void _close() {
+        Misc.free(decoder);
+        path = Misc.free(path);
+    }
+
+    private void assertSchema() {
+        final RecordMetadata metadata = getMetadata();
+        boolean matches = decoder.getColumnCount() == metadata.getColumnCount();
+        for (int i = 0, n = metadata.getColumnCount(); matches && i < n; i++) {
+            matches = decoder.getColumnType(i) == metadata.getColumnType(i)
+                    && Chars.equals(decoder.getColumnName(i), metadata.getColumnName(i));
+        }
+        if (!matches) {
+            throw CairoException.nonCritical().put("parquet file schema has changed [path=").put(path).put(']');
+        }
+    }
+
+    private class ParquetRecordCursor implements NoRandomAccessRecordCursor {
+        private final int[] columnSizes;
+        private final ParquetRecord record = new ParquetRecord();
+        private final ObjList<StringSink> sinksA = new ObjList<>();
+        private final ObjList<StringSink> sinksB = new ObjList<>();
+        private SqlExecutionCircuitBreaker circuitBreaker;
+        private int rowGroupIndex;
+        private long rowGroupSize;
+        private long rowIndex;
+
+        private ParquetRecordCursor(RecordMetadata metadata) {
+            final int columnCount = metadata.getColumnCount();
+            this.columnSizes = new int[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                final int columnType = metadata.getColumnType(i);
+                columnSizes[i] = ColumnType.isString(columnType) ? Long.BYTES : ColumnType.sizeOf(columnType);
+            }
+        }
+
+        @Override
+        public void close() {
+            decoder.close();
+        }
+
+        @Override
+        public Record getRecord() {
+            return record;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (++rowIndex < rowGroupSize) {
+                return true;
+            }
+            while (rowGroupIndex + 1 < decoder.getRowGroupCount()) {
+                circuitBreaker.statefulThrowExceptionIfTripped();
+                rowGroupSize = decoder.getRowGroupSize(++rowGroupIndex);
+                if (rowGroupSize > 0) {
+                    decoder.decodeRowGroup(rowGroupIndex);
+                    rowIndex = 0;
+                    return true;
+                }
+            }
+            rowIndex = rowGroupSize;
+            return false;
+        }
+
+        @Override
+        public long size() {
+            return decoder.getRowCount();
+        }
+
+        @Override
+        public void toTop() {
+            rowGroupIndex = -1;
+            rowGroupSize = 0;
+            rowIndex = 0;
+        }
+
+        private long columnAddress(int col) {
+            return decoder.getColumnAddress(col) + rowIndex * columnSizes[col];
+        }
+
+        private CharSequence getStr0(int col, ObjList<StringSink> sinks) {
+            final long address = Unsafe.getUnsafe().getLong(columnAddress(col));
+            if (address == 0) {
+                return null;
+            }
+            StringSink sink = sinks.getQuiet(col);
+            if (sink == null) {
+                sink = new StringSink();
+                sinks.extendAndSet(col, sink);
+            }
+            sink.clear();
+            final long lo = address + Integer.BYTES;
+            Chars.utf8toUtf16(lo, lo + Unsafe.getUnsafe().getInt(address), sink);
+            return sink;
+        }
+
+        private void of(SqlExecutionCircuitBreaker circuitBreaker) {
+            this.circuitBreaker = circuitBreaker;
+            toTop();
+        }
+
+        private class ParquetRecord implements Record {
+            @Override
+            public boolean getBool(int col) {
+                return Unsafe.getUnsafe().getByte(columnAddress(col)) != 0;
+            }
+
+            @Override
+            public byte getByte(int col) {
+                return Unsafe.getUnsafe().getByte(columnAddress(col));
+            }
+
+            @Override
+            public char getChar(int col) {
+                return Unsafe.getUnsafe().getChar(columnAddress(col));
+            }
+
+            @Override
+            public long getDate(int col) {
+                return Unsafe.getUnsafe().getLong(columnAddress(col));
+            }
+
+            @Override
+            public double getDouble(int col) {
+                return Unsafe.getUnsafe().getDouble(columnAddress(col));
+            }
+
+            @Override
+            public float getFloat(int col) {
+                return Unsafe.getUnsafe().getFloat(columnAddress(col));
+            }
+
+            @Override
+            public int getInt(int col) {
+                return Unsafe.getUnsafe().getInt(columnAddress(col));
+            }
+
+            @Override
+            public long getLong(int col) {
+                return Unsafe.getUnsafe().getLong(columnAddress(col));
+            }
+
+            @Override
+            public long getLong128Hi(int col) {
+                return Unsafe.getUnsafe().getLong(columnAddress(col) + Long.BYTES);
+            }
+
+            @Override
+            public long getLong128Lo(int col) {
+                return Unsafe.getUnsafe().getLong(columnAddress(col));
+            }
+
+            @Override
+            public short getShort(int col) {
+                return Unsafe.getUnsafe().getShort(columnAddress(col));
+            }
+
+            @Override
+            public CharSequence getStr(int col) {
+                return getStr0(col, sinksA);
+            }
+
+            @Override
+            public CharSequence getStrB(int col) {
+                return getStr0(col, sinksB);
+            }
+
+            @Override
+            public int getStrLen(int col) {
+                final CharSequence value = getStr0(col, sinksA);
+                return value != null ? value.length() : TableUtils.NULL_LEN;
+            }
+
+            @Override
+            public long getTimestamp(int col) {
+                return Unsafe.getUnsafe().getLong(columnAddress(col));
+            }
+        }
+    }
+}
@@ -0,0 +1,233 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.table.parquet;
+
+import io.questdb.cairo.CairoException;
+import io.questdb.std.Chars;
+import io.questdb.std.IntList;
+import io.questdb.std.Unsafe;
+import io.questdb.std.str.StringSink;
+
+/**
+ * Minimal reader of Thrift compact protocol over native memory. Unknown fields
+ * can be skipped, which is how forward compatible Parquet metadata is consumed.
+ */
+public class ThriftCompactReader {
+    public static final byte TYPE_STOP = 0;
+    private static final byte TYPE_BYTE = 3;
+    private static final byte TYPE_DOUBLE = 7;
+    private static final byte TYPE_I16 = 4;
+    private static final byte TYPE_MAP = 11;
+    private static final byte TYPE_SET = 10;
+    private final IntList fieldIdStack = new IntList();
+    private boolean boolValue;
+    private int fieldId;
+    private int fieldType;
+    private long hi;
+    private int lastFieldId;
+    private int listSize;
+    private long ptr;
+
+    public int getFieldId() {
+        return fieldId;
+    }
+
+    public int getFieldType() {
+        return fieldType;
+    }
+
+    public int getListSize() {
+        return listSize;
+    }
+
+    public long getPosition() {
+        return ptr;
+    }
+
+    public byte readByte() {
+        checkAvailable(1);
+        return Unsafe.getUnsafe().getByte(ptr++);
+    }
+
+    public boolean readBool() {
+        return boolValue;
+    }
+
+    /**
+     * Reads field header of the current struct.
+     *
+     * @return field type, or {@link #TYPE_STOP} at the end of the struct
+     */
+    public int readFieldBegin() {
+        final int b = readByte() & 0xFF;
+        fieldType = b & 0x0F;
+        if (fieldType == TYPE_STOP) {
+            return TYPE_STOP;
+        }
+        final int delta = b >>> 4;
+        fieldId = delta != 0 ? lastFieldId + delta : (short) readI32();
+        lastFieldId = fieldId;
+        if (fieldType == ThriftCompactWriter.TYPE_BOOLEAN_TRUE || fieldType == ThriftCompactWriter.TYPE_BOOLEAN_FALSE) {
+            boolValue = fieldType == ThriftCompactWriter.TYPE_BOOLEAN_TRUE;
+        }
+        return fieldType;
+    }
+
+    public int readI32() {
+        final long v = readVarint();
+        return (int) ((v >>> 1) ^ -(v & 1));
+    }
+
+    public long readI64() {
+        final long v = readVarint();
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    /**
+     * Reads list header.
+     *
+     * @return element type, list size is available via {@link #getListSize()}
+     */
+    public int readListBegin() {
+        final int b = readByte() & 0xFF;
+        int size = b >>> 4;
+        if (size == 15) {
+            size = (int) readVarint();
+        }
+        listSize = size;
+        return b & 0x0F;
+    }
+
+    public void readString(StringSink sink) {
+        final int len = (int) readVarint();
+        checkAvailable(len);
+        sink.clear();
+        Chars.utf8toUtf16(ptr, ptr + len, sink);
+        ptr += len;
+    }
+
+    public void skip(int type) {
+        switch (type) {
+            case ThriftCompactWriter.TYPE_BOOLEAN_TRUE:
+            case ThriftCompactWriter.TYPE_BOOLEAN_FALSE:
+                // value of boolean field is encoded in the field type
+                break;
+            case TYPE_BYTE:
+                readByte();
+                break;
+            case TYPE_I16:
+            case ThriftCompactWriter.TYPE_I32:
+            case ThriftCompactWriter.TYPE_I64:
+                readVarint();
+                break;
+            case TYPE_DOUBLE:
+                checkAvailable(8);
+                ptr += 8;
+                break;
+            case ThriftCompactWriter.TYPE_BINARY:
+                final int len = (int) readVarint();
+                checkAvailable(len);
+                ptr += len;
+                break;
+            case ThriftCompactWriter.TYPE_LIST:
+            case TYPE_SET:
+                final int elementType = readListBegin();
+                for (int i = 0, n = listSize; i < n; i++) {
+                    skipElement(elementType);
+                }
+                break;
+            case TYPE_MAP:
+                final int size = (int) readVarint();
+                if (size > 0) {
+                    final int kv = readByte() & 0xFF;
+                    for (int i = 0; i < size; i++) {
+                        skipElement(kv >>> 4);
+                        skipElement(kv & 0x0F);
+                    }
+                }
+                break;
+            case ThriftCompactWriter.TYPE_STRUCT:
+                structBegin();
+                int t;
+                while ((t = readFieldBegin()) != TYPE_STOP) {
+                    skip(t);
+                }
+                structEnd();
+                break;
+            default:
+                throw CairoException.nonCritical().put("invalid thrift type [type=").put(type).put(']');
+        }
+    }
+
+    public ThriftCompactReader of(long lo, long hi) {
+        this.ptr = lo;
+        this.hi = hi;
+        this.lastFieldId = 0;
+        fieldIdStack.clear();
+        return this;
+    }
+
+    public void structBegin() {
+        fieldIdStack.add(lastFieldId);
+        lastFieldId = 0;
+    }
+
+    public void structEnd() {
+        lastFieldId = fieldIdStack.getLast();
+        fieldIdStack.removeIndex(fieldIdStack.size() - 1);
+    }
+
+    private void checkAvailable(long len) {
+        if (len < 0 || ptr + len > hi) {
+            throw CairoException.nonCritical().put("corrupt parquet metadata, unexpected end of data");
+        }
+    }
+
+    private long readVarint() {
+        long result = 0;
+        int shift = 0;
+        while (true) {
+            final byte b = readByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+            shift += 7;
+            if (shift > 63) {
+                throw CairoException.nonCritical().put("corrupt parquet metadata, varint is too long");
+            }
+        }
+    }
+
+    private void skipElement(int type) {
+        // inside collections booleans occupy a byte
+        if (type == ThriftCompactWriter.TYPE_BOOLEAN_TRUE || type == ThriftCompactWriter.TYPE_BOOLEAN_FALSE) {
+            readByte();
+        } else {
+            skip(type);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.table.parquet;
+
+import io.questdb.cairo.vm.api.MemoryA;
+import io.questdb.std.IntList;
+
+/**
+ * Minimal writer of Thrift compact protocol, sufficient to serialize Parquet metadata structures.
+ */
+public class ThriftCompactWriter {
+    public static final byte TYPE_BINARY = 8;
+    public static final byte TYPE_BOOLEAN_FALSE = 2;
+    public static final byte TYPE_BOOLEAN_TRUE = 1;
+    public static final byte TYPE_I32 = 5;
+    public static final byte TYPE_I64 = 6;
+    public static final byte TYPE_LIST = 9;
+    public static final byte TYPE_STRUCT = 12;
+    private final IntList fieldIdStack = new IntList();
+    private int lastFieldId;
+    private MemoryA mem;
+
+    public static int utf8Length(CharSequence value) {
+        int len = 0;
+        for (int i = 0, n = value.length(); i < n; i++) {
+            final char c = value.charAt(i);
+            if (c < 0x80) {
+                len++;
+            } else if (c < 0x800) {
+                len += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(value.charAt(i + 1))) {
+                len += 4;
+                i++;
+            } else {
+                len += 3;
+            }
+        }
+        return len;
+    }
+
+    public void binary(CharSequence value) {
+        varint(utf8Length(value));
+        for (int i = 0, n = value.length(); i < n; i++) {
+            final char c = value.charAt(i);
+            if (c < 0x80) {
+                mem.putByte((byte) c);
+            } else if (c < 0x800) {
+                mem.putByte((byte) (0xC0 | c >> 6));
+                mem.putByte((byte) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(value.charAt(i + 1))) {
+                final int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                mem.putByte((byte) (0xF0 | codePoint >> 18));
+                mem.putByte((byte) (0x80 | codePoint >> 12 & 0x3F));
+                mem.putByte((byte) (0x80 | codePoint >> 6 & 0x3F));
+                mem.putByte((byte) (0x80 | codePoint & 0x3F));
+            } else {
+                mem.putByte((byte) (0xE0 | c >> 12));
+                mem.putByte((byte) (0x80 | c >> 6 & 0x3F));
+                mem.putByte((byte) (0x80 | c & 0x3F));
+            }
+        }
+    }
+
+    public void fieldBinary(int fieldId, CharSequence value) {
+        fieldHeader(fieldId, TYPE_BINARY);
+        binary(value);
+    }
+
+    public void fieldBool(int fieldId, boolean value) {
+        fieldHeader(fieldId, value ? TYPE_BOOLEAN_TRUE : TYPE_BOOLEAN_FALSE);
+    }
+
+    public void fieldI32(int fieldId, int value) {
+        fieldHeader(fieldId, TYPE_I32);
+        i32(value);
+    }
+
+    public void fieldI64(int fieldId, long value) {
+        fieldHeader(fieldId, TYPE_I64);
+        i64(value);
+    }
+
+    public void fieldList(int fieldId, byte elementType, int size) {
+        fieldHeader(fieldId, TYPE_LIST);
+        list(elementType, size);
+    }
+
+    public void fieldStruct(int fieldId) {
+        fieldHeader(fieldId, TYPE_STRUCT);
+        structBegin();
+    }
+
+    public void i32(int value) {
+        varint((value << 1) ^ (value >> 31));
+    }
+
+    public void i64(long value) {
+        varint((value << 1) ^ (value >> 63));
+    }
+
+    public void list(byte elementType, int size) {
+        if (size < 15) {
+            mem.putByte((byte) (size << 4 | elementType));
+        } else {
+            mem.putByte((byte) (0xF0 | elementType));
+            varint(size);
+        }
+    }
+
+    public ThriftCompactWriter of(MemoryA mem) {
+        this.mem = mem;
+        this.lastFieldId = 0;
+        fieldIdStack.clear();
+        return this;
+    }
+
+    public void structBegin() {
+        fieldIdStack.add(lastFieldId);
+        lastFieldId = 0;
+    }
+
+    public void structEnd() {
+        mem.putByte((byte) 0);
+        lastFieldId = fieldIdStack.getLast();
+        fieldIdStack.removeIndex(fieldIdStack.size() - 1);
+    }
+
+    private void fieldHeader(int fieldId, byte type) {
+        final int delta = fieldId - lastFieldId;
+        if (delta > 0 && delta < 16) {
+            mem.putByte((byte) (delta << 4 | type));
+        } else {
+            mem.putByte(type);
+            i32(fieldId);
+        }
+        lastFieldId = fieldId;
+    }
+
+    private void varint(long value) {
+        while ((value & ~0x7FL) != 0) {
+            mem.putByte((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        mem.putByte((byte) value);
+    }
+}
@@ -27,12 +27,25 @@ package io.questdb.griffin.model;
 import io.questdb.std.IntList;
 import io.questdb.std.ObjList;
 import io.questdb.std.ObjectFactory;
+import io.questdb.std.str.CharSink;
 
 public final class AnalyticColumn extends QueryColumn {
     public final static ObjectFactory<AnalyticColumn> FACTORY = AnalyticColumn::new;
+    public static final int FRAMING_RANGE = 2;
+    public static final int FRAMING_ROWS = 1;
+    // frame bounds are offsets relative to the current row, negative offsets are preceding rows
+    public static final long UNBOUNDED_FOLLOWING = Long.MAX_VALUE;
+    public static final long UNBOUNDED_PRECEDING = Long.MIN_VALUE;
     private final ObjList<ExpressionNode> orderBy = new ObjList<>(2);
     private final IntList orderByDirection = new IntList(2);
     private final ObjList<ExpressionNode> partitionBy = new ObjList<>(2);
+    private boolean defaultFrame = true;
+    private int framingMode = FRAMING_RANGE;
+    private int framingModePos;
+    private long rowsHi = 0;
+    private int rowsHiPos;
+    private long rowsLo = UNBOUNDED_PRECEDING;
+    private int rowsLoPos;
 
     private AnalyticColumn() {
     }
@@ -48,6 +61,29 @@ public final class AnalyticColumn extends QueryColumn {
         partitionBy.clear();
         orderBy.clear();
         orderByDirection.clear();
+        defaultFrame = true;
+        framingMode = FRAMING_RANGE;
+        framingModePos = 0;
+        rowsLo = UNBOUNDED_PRECEDING;
+        rowsLoPos = 0;
+        rowsHi = 0;
+        rowsHiPos = 0;
+    }
+
+    public void frameToSink(CharSink sink) {
+        sink.put(framingMode == FRAMING_ROWS ? "rows" : "range");
+        sink.put(" between ");
+        boundToSink(sink, rowsLo);
+        sink.put(" and ");
+        boundToSink(sink, rowsHi);
+    }
+
+    public int getFramingMode() {
+        return framingMode;
+    }
+
+    public int getFramingModePos() {
+        return framingModePos;
     }
 
     public ObjList<ExpressionNode> getOrderBy() {
@@ -62,8 +98,57 @@ public final class AnalyticColumn extends QueryColumn {
         return partitionBy;
     }
 
+    public long getRowsHi() {
+        return rowsHi;
+    }
+
+    public int getRowsHiPos() {
+        return rowsHiPos;
+    }
+
+    public long getRowsLo() {
+        return rowsLo;
+    }
+
+    public int getRowsLoPos() {
+        return rowsLoPos;
+    }
+
+    /**
+     * Returns true when OVER clause has no explicit frame. Such column uses
+     * RANGE BETWEEN UNBOUNDED PRECEDING AND CURRENT ROW when ordered and the
+     * whole partition otherwise.
+     */
+    public boolean isDefaultFrame() {
+        return defaultFrame;
+    }
+
     @Override
     public AnalyticColumn of(CharSequence alias, ExpressionNode ast) {
         return (AnalyticColumn) super.of(alias, ast);
     }
+
+    public void setFrame(int framingMode, int framingModePos, long rowsLo, int rowsLoPos, long rowsHi, int rowsHiPos) {
+        this.defaultFrame = false;
+        this.framingMode = framingMode;
+        this.framingModePos = framingModePos;
+        this.rowsLo = rowsLo;
+        this.rowsLoPos = rowsLoPos;
+        this.rowsHi = rowsHi;
+        this.rowsHiPos = rowsHiPos;
+    }
+
+    private static void boundToSink(CharSink sink, long bound) {
+        if (bound == UNBOUNDED_PRECEDING) {
+            sink.put("unbounded preceding");
+        } else if (bound == UNBOUNDED_FOLLOWING) {
+            sink.put("unbounded following");
+        } else if (bound == 0) {
+            sink.put("current row");
+        } else if (bound < 0) {
+            sink.put(-bound).put(" preceding");
+        } else {
+            sink.put(bound).put(" following");
+        }
+    }
 }
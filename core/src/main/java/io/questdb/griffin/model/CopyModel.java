@@ -30,13 +30,20 @@ import io.questdb.std.Sinkable;
 import io.questdb.std.str.CharSink;
 
 public class CopyModel implements ExecutionModel, Mutable, Sinkable {
+    public static final int COPY_FORMAT_BINARY = 2;
+    public static final int COPY_FORMAT_CSV = 1;
+    public static final int COPY_FORMAT_TEXT = 0;
     public static final ObjectFactory<CopyModel> FACTORY = CopyModel::new;
     private int atomicity;
     private boolean cancel;
     private byte delimiter;
+    private boolean export;
     private ExpressionNode fileName;
+    private int format; // output format of COPY TO STDOUT
     private boolean header;
     private int partitionBy;
+    private QueryModel queryModel; // source of exported rows
+    private boolean stdout;
     private ExpressionNode target; // holds table name (new import) or import id (cancel model)
     private CharSequence timestampColumnName;
     private CharSequence timestampFormat;
@@ -50,6 +57,10 @@ public class CopyModel implements ExecutionModel, Mutable, Sinkable {
         fileName = null;
         header = false;
         cancel = false;
+        export = false;
+        stdout = false;
+        format = COPY_FORMAT_TEXT;
+        queryModel = null;
         timestampFormat = null;
         timestampColumnName = null;
         partitionBy = -1;
@@ -69,6 +80,10 @@ public class CopyModel implements ExecutionModel, Mutable, Sinkable {
         return fileName;
     }
 
+    public int getFormat() {
+        return format;
+    }
+
     @Override
     public int getModelType() {
         return ExecutionModel.COPY;
@@ -78,6 +93,10 @@ public class CopyModel implements ExecutionModel, Mutable, Sinkable {
         return partitionBy;
     }
 
+    public QueryModel getQueryModel() {
+        return queryModel;
+    }
+
     public ExpressionNode getTarget() {
         return target;
     }
@@ -94,10 +113,18 @@ public class CopyModel implements ExecutionModel, Mutable, Sinkable {
         return cancel;
     }
 
+    public boolean isExport() {
+        return export;
+    }
+
     public boolean isHeader() {
         return header;
     }
 
+    public boolean isStdout() {
+        return stdout;
+    }
+
     public void setAtomicity(int atomicity) {
         this.atomicity = atomicity;
     }
@@ -110,10 +137,18 @@ public class CopyModel implements ExecutionModel, Mutable, Sinkable {
         this.delimiter = delimiter;
     }
 
+    public void setExport(boolean export) {
+        this.export = export;
+    }
+
     public void setFileName(ExpressionNode fileName) {
         this.fileName = fileName;
     }
 
+    public void setFormat(int format) {
+        this.format = format;
+    }
+
     public void setHeader(boolean header) {
         this.header = header;
     }
@@ -122,6 +157,14 @@ public class CopyModel implements ExecutionModel, Mutable, Sinkable {
         this.partitionBy = partitionBy;
     }
 
+    public void setQueryModel(QueryModel queryModel) {
+        this.queryModel = queryModel;
+    }
+
+    public void setStdout(boolean stdout) {
+        this.stdout = stdout;
+    }
+
     public void setTarget(ExpressionNode tableName) {
         this.target = tableName;
     }
@@ -25,6 +25,7 @@
 package io.questdb.griffin.model;
 
 import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.MatViewDefinition;
 import io.questdb.cairo.PartitionBy;
 import io.questdb.cairo.TableStructure;
 import io.questdb.griffin.SqlException;
@@ -34,13 +35,16 @@ import io.questdb.std.str.CharSink;
 public class CreateTableModel implements Mutable, ExecutionModel, Sinkable, TableStructure {
     public static final ObjectFactory<CreateTableModel> FACTORY = CreateTableModel::new;
     private static final int COLUMN_FLAG_CACHED = 1;
+    private static final int COLUMN_FLAG_DEDUP_KEY = 4;
     private static final int COLUMN_FLAG_INDEXED = 2;
     private final LongList columnBits = new LongList();
     private final CharSequenceObjHashMap<ColumnCastModel> columnCastModels = new CharSequenceObjHashMap<>();
     private final LowerCaseCharSequenceIntHashMap columnNameIndexMap = new LowerCaseCharSequenceIntHashMap();
     private final ObjList<CharSequence> columnNames = new ObjList<>();
+    private final MatViewDefinition matViewDefinition = new MatViewDefinition();
     private boolean ignoreIfExists = false;
     private ExpressionNode likeTableName;
+    private boolean matView;
     private int maxUncommittedRows;
     private ExpressionNode name;
     private long o3MaxLag;
@@ -97,6 +101,8 @@ public class CreateTableModel implements Mutable, ExecutionModel, Sinkable, Tabl
         columnNames.clear();
         columnNameIndexMap.clear();
         ignoreIfExists = false;
+        matView = false;
+        matViewDefinition.clear();
     }
 
     public CharSequenceObjHashMap<ColumnCastModel> getColumnCastModels() {
@@ -131,6 +137,10 @@ public class CreateTableModel implements Mutable, ExecutionModel, Sinkable, Tabl
         return likeTableName;
     }
 
+    public MatViewDefinition getMatViewDefinition() {
+        return matViewDefinition;
+    }
+
     @Override
     public int getMaxUncommittedRows() {
         return maxUncommittedRows;
@@ -189,6 +199,11 @@ public class CreateTableModel implements Mutable, ExecutionModel, Sinkable, Tabl
         return volumeAlias;
     }
 
+    @Override
+    public boolean isDedupKey(int index) {
+        return (getLowAt(index * 2 + 1) & COLUMN_FLAG_DEDUP_KEY) != 0;
+    }
+
     public boolean isIgnoreIfExists() {
         return ignoreIfExists;
     }
@@ -198,6 +213,10 @@ public class CreateTableModel implements Mutable, ExecutionModel, Sinkable, Tabl
         return (getLowAt(index * 2 + 1) & COLUMN_FLAG_INDEXED) != 0;
     }
 
+    public boolean isMatView() {
+        return matView;
+    }
+
     @Override
     public boolean isSequential(int columnIndex) {
         // todo: expose this flag on CREATE TABLE statement
@@ -209,6 +228,11 @@ public class CreateTableModel implements Mutable, ExecutionModel, Sinkable, Tabl
         return walEnabled;
     }
 
+    public void setDedupKeyFlag(int columnIndex) {
+        final int index = columnIndex * 2 + 1;
+        columnBits.setQuick(index, Numbers.encodeLowHighInts(getLowAt(index) | COLUMN_FLAG_DEDUP_KEY, getHighAt(index)));
+    }
+
     public void setIgnoreIfExists(boolean flag) {
         this.ignoreIfExists = flag;
     }
@@ -225,6 +249,10 @@ public class CreateTableModel implements Mutable, ExecutionModel, Sinkable, Tabl
         this.likeTableName = tableName;
     }
 
+    public void setMatView(boolean matView) {
+        this.matView = matView;
+    }
+
     public void setMaxUncommittedRows(int maxUncommittedRows) {
         this.maxUncommittedRows = maxUncommittedRows;
     }
@@ -355,6 +383,16 @@ public class CreateTableModel implements Mutable, ExecutionModel, Sinkable, Tabl
             sink.put(" partition by ").put(partitionBy.token);
             if (walEnabled) {
                 sink.put(" wal");
+                boolean dedup = false;
+                for (int i = 0, n = getColumnCount(); i < n; i++) {
+                    if (isDedupKey(i)) {
+                        sink.put(dedup ? "," : " dedup upsert keys(").put(getColumnName(i));
+                        dedup = true;
+                    }
+                }
+                if (dedup) {
+                    sink.put(')');
+                }
             }
         }
 
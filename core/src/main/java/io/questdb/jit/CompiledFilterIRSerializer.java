@@ -119,6 +119,12 @@ public class CompiledFilterIRSerializer implements PostOrderTreeTraversalAlgo.Vi
         // Check if we're at the start of an arithmetic expression
         predicateContext.onNodeDescended(node);
 
+        // IN lists are expanded into a chain of equality checks, so we serialize them here
+        if (node.paramCount > 1 && SqlKeywords.isInKeyword(node.token)) {
+            serializeIn(node);
+            return false;
+        }
+
         // Look ahead for negative const
         if (node.type == ExpressionNode.OPERATION && node.paramCount == 1 && Chars.equals(node.token, "-")) {
             ExpressionNode nextNode = node.lhs != null ? node.lhs : node.rhs;
@@ -214,26 +220,7 @@ public class CompiledFilterIRSerializer implements PostOrderTreeTraversalAlgo.Vi
         } else {
             serializeOperator(node.position, node.token, argCount);
         }
-
-        boolean predicateLeft = predicateContext.onNodeVisited(node);
-
-        if (predicateLeft) {
-            // We're out of a predicate
-
-            // Force scalar mode if the predicate had byte or short arithmetic operations.
-            // That's because SIMD mode uses byte/short-sized overflows for arithmetic
-            // calculations instead of implicit upcast to int done by *.sql.Function classes.
-            forceScalarMode |=
-                    predicateContext.hasArithmeticOperations && predicateContext.localTypesObserver.maxSize() <= 2;
-
-            // Then backfill constants and symbol bind variables and clean up
-            try {
-                backfillNodes.forEach(backfillNodeConsumer);
-                backfillNodes.clear();
-            } catch (SqlWrapperException e) {
-                throw e.wrappedException;
-            }
-        }
+        leaveNode(node);
     }
 
     private static byte bindVariableTypeCode(int columnTypeTag) {
@@ -320,6 +307,9 @@ public class CompiledFilterIRSerializer implements PostOrderTreeTraversalAlgo.Vi
         if (SqlKeywords.isNotKeyword(token)) {
             return true;
         }
+        if (node.paramCount > 1 && SqlKeywords.isInKeyword(token)) {
+            return true;
+        }
         if (node.paramCount < 2) {
             return false;
         }
@@ -476,6 +466,28 @@ public class CompiledFilterIRSerializer implements PostOrderTreeTraversalAlgo.Vi
         return false;
     }
 
+    private void leaveNode(ExpressionNode node) throws SqlException {
+        boolean predicateLeft = predicateContext.onNodeVisited(node);
+
+        if (predicateLeft) {
+            // We're out of a predicate
+
+            // Force scalar mode if the predicate had byte or short arithmetic operations.
+            // That's because SIMD mode uses byte/short-sized overflows for arithmetic
+            // calculations instead of implicit upcast to int done by *.sql.Function classes.
+            forceScalarMode |=
+                    predicateContext.hasArithmeticOperations && predicateContext.localTypesObserver.maxSize() <= 2;
+
+            // Then backfill constants and symbol bind variables and clean up
+            try {
+                backfillNodes.forEach(backfillNodeConsumer);
+                backfillNodes.clear();
+            } catch (SqlWrapperException e) {
+                throw e.wrappedException;
+            }
+        }
+    }
+
     private void putDoubleOperand(long offset, int type, double payload) {
         memory.putInt(offset, CompiledFilterIRSerializer.IMM);
         memory.putInt(offset + Integer.BYTES, type);
@@ -691,6 +703,56 @@ public class CompiledFilterIRSerializer implements PostOrderTreeTraversalAlgo.Vi
         }
     }
 
+    /**
+     * Serializes <code>col IN (v1, v2, ..., vn)</code> as <code>col = v1 OR col = v2 ... OR col = vn</code>.
+     * Symbol values are resolved to keys when constants are backfilled, so symbol IN lists
+     * are evaluated as a set of int key comparisons.
+     */
+    private void serializeIn(ExpressionNode node) throws SqlException {
+        if (!predicateContext.isActive()) {
+            throw SqlException.position(node.position)
+                    .put("in operator outside of predicate");
+        }
+
+        final int paramCount = node.paramCount;
+        final ExpressionNode columnNode = paramCount < 3 ? node.lhs : node.args.getLast();
+        if (columnNode == null || columnNode.type != ExpressionNode.LITERAL) {
+            throw SqlException.position(node.position)
+                    .put("unsupported in operand: ")
+                    .put(columnNode != null ? columnNode.token : null);
+        }
+
+        final int columnIndex = metadata.getColumnIndexQuiet(columnNode.token);
+        if (columnIndex == -1) {
+            throw SqlException.invalidColumn(columnNode.position, columnNode.token);
+        }
+        // timestamp IN lists may stand for intervals, so we only take types where IN means equality
+        final int columnTypeTag = ColumnType.tagOf(metadata.getColumnType(columnIndex));
+        if (columnTypeTag != ColumnType.SYMBOL && columnTypeTag != ColumnType.CHAR && columnTypeTag != ColumnType.UUID) {
+            throw SqlException.position(columnNode.position)
+                    .put("unsupported in column type: ")
+                    .put(ColumnType.nameOf(columnTypeTag));
+        }
+
+        final int valueCount = paramCount - 1;
+        for (int i = 0; i < valueCount; i++) {
+            // args are stored in reverse order, column is the last one
+            final ExpressionNode valueNode = paramCount < 3 ? node.rhs : node.args.getQuick(valueCount - 1 - i);
+            if (valueNode.type != ExpressionNode.CONSTANT && valueNode.type != ExpressionNode.BIND_VARIABLE) {
+                throw SqlException.position(valueNode.position)
+                        .put("unsupported in value: ")
+                        .put(valueNode.token);
+            }
+            traverseAlgo.traverse(valueNode, this);
+            traverseAlgo.traverse(columnNode, this);
+            putOperator(EQ);
+            if (i > 0) {
+                putOperator(OR);
+            }
+        }
+        leaveNode(node);
+    }
+
     private void serializeNull(long offset, int position, int typeCode, boolean geoHashPredicate) throws SqlException {
         switch (typeCode) {
             case I1_TYPE:
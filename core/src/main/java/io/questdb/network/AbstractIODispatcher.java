@@ -225,6 +225,12 @@ public abstract class AbstractIODispatcher<C extends IOContext<C>> extends Synch
     private void createListenFd() throws NetworkError {
         this.serverFd = nf.socketTcp(false);
         final int backlog = configuration.getListenBacklog();
+        if (configuration.getDispatcherCount() > 1 && nf.setReusePort(this.serverFd) < 0) {
+            final int errno = nf.errno();
+            nf.close(this.serverFd, LOG);
+            this.serverFd = -1;
+            throw NetworkError.instance(errno, "could not set SO_REUSEPORT [who=").put(configuration.getDispatcherLogName()).put(']');
+        }
         if (this.port == 0) {
             // Note that `configuration.getBindPort()` might also be 0.
             // In such case, we will bind to an ephemeral port.
@@ -282,42 +288,59 @@ public abstract class AbstractIODispatcher<C extends IOContext<C>> extends Synch
                 break;
             }
 
-            if (nf.configureNonBlocking(fd) < 0) {
-                LOG.error().$("could not configure non-blocking [fd=").$(fd).$(", errno=").$(nf.errno()).$(']').$();
-                nf.close(fd, LOG);
+            if (!addConnection(fd, timestamp)) {
                 break;
             }
+            tlConCount = connectionCount.get();
+        }
 
-            if (nf.setTcpNoDelay(fd, true) < 0) {
-                // Randomly on OS X, if a client connects and the peer TCP socket has SO_LINGER set to false, then setting the TCP_NODELAY
-                // option fails!
-                LOG.info().$("could not turn off Nagle's algorithm [fd=").$(fd).$(", errno=").$(nf.errno()).$(']').$();
-            }
+        if (tlConCount >= activeConnectionLimit) {
+            checkConnectionLimit(timestamp);
+        }
+    }
 
-            if (peerNoLinger) {
-                nf.configureNoLinger(fd);
-            }
+    /**
+     * Configures an accepted socket and adds it to the pending connections.
+     *
+     * @return false if the socket could not be configured, in which case it is closed.
+     */
+    protected boolean addConnection(int fd, long timestamp) {
+        if (nf.configureNonBlocking(fd) < 0) {
+            LOG.error().$("could not configure non-blocking [fd=").$(fd).$(", errno=").$(nf.errno()).$(']').$();
+            nf.close(fd, LOG);
+            return false;
+        }
 
-            if (sndBufSize > 0) {
-                nf.setSndBuf(fd, sndBufSize);
-            }
+        if (nf.setTcpNoDelay(fd, true) < 0) {
+            // Randomly on OS X, if a client connects and the peer TCP socket has SO_LINGER set to false, then setting the TCP_NODELAY
+            // option fails!
+            LOG.info().$("could not turn off Nagle's algorithm [fd=").$(fd).$(", errno=").$(nf.errno()).$(']').$();
+        }
 
-            if (rcvBufSize > 0) {
-                nf.setRcvBuf(fd, rcvBufSize);
-            }
+        if (peerNoLinger) {
+            nf.configureNoLinger(fd);
+        }
 
-            LOG.info().$("connected [ip=").$ip(nf.getPeerIP(fd)).$(", fd=").$(fd).$(']').$();
-            tlConCount = connectionCount.incrementAndGet();
-            addPending(fd, timestamp);
+        if (sndBufSize > 0) {
+            nf.setSndBuf(fd, sndBufSize);
         }
 
-        if (tlConCount >= activeConnectionLimit) {
-            if (connectionCount.get() >= activeConnectionLimit) {
-                unregisterListenerFd();
-                listening = false;
-                closeListenFdEpochMs = timestamp + queuedConnectionTimeoutMs;
-                LOG.info().$("max connection limit reached, unregistered listener [serverFd=").$(serverFd).I$();
-            }
+        if (rcvBufSize > 0) {
+            nf.setRcvBuf(fd, rcvBufSize);
+        }
+
+        LOG.info().$("connected [ip=").$ip(nf.getPeerIP(fd)).$(", fd=").$(fd).$(']').$();
+        connectionCount.incrementAndGet();
+        addPending(fd, timestamp);
+        return true;
+    }
+
+    protected void checkConnectionLimit(long timestamp) {
+        if (connectionCount.get() >= activeConnectionLimit) {
+            unregisterListenerFd();
+            listening = false;
+            closeListenFdEpochMs = timestamp + queuedConnectionTimeoutMs;
+            LOG.info().$("max connection limit reached, unregistered listener [serverFd=").$(serverFd).I$();
         }
     }
 
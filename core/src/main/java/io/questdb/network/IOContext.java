@@ -31,6 +31,8 @@ public abstract class IOContext<T extends IOContext<T>> implements Mutable, Quie
     protected IODispatcher<T> dispatcher;
     protected int fd = -1;
     protected long heartbeatId = -1;
+    // set by the io_uring dispatcher for the lifetime of the connection
+    IOURingSocket ringSocket;
 
     @Override
     public void clear() {
@@ -72,6 +74,25 @@ public abstract class IOContext<T extends IOContext<T>> implements Mutable, Quie
         return (T) this;
     }
 
+    /**
+     * Receives from the connection socket. Processors should read through the context rather
+     * than the network facade, since a completion based dispatcher may have already received
+     * bytes on behalf of the context.
+     */
+    public int recv(NetworkFacade nf, long buffer, int bufferLen) {
+        final IOURingSocket socket = ringSocket;
+        return socket == null ? nf.recv(getFd(), buffer, bufferLen) : socket.recv(nf, getFd(), buffer, bufferLen);
+    }
+
+    /**
+     * Sends to the connection socket. When a send would block, a completion based dispatcher
+     * finishes it on WRITE registration, so the processor must retry it with the same buffer.
+     */
+    public int send(NetworkFacade nf, long buffer, int bufferLen) {
+        final IOURingSocket socket = ringSocket;
+        return socket == null ? nf.send(getFd(), buffer, bufferLen) : socket.send(nf, getFd(), buffer, bufferLen);
+    }
+
     public void setHeartbeatId(long heartbeatId) {
         this.heartbeatId = heartbeatId;
     }
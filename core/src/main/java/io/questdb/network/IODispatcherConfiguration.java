@@ -24,6 +24,8 @@
 
 package io.questdb.network;
 
+import io.questdb.std.IOURingFacade;
+import io.questdb.std.IOURingFacadeImpl;
 import io.questdb.std.Numbers;
 import io.questdb.std.Os;
 import io.questdb.std.datetime.millitime.MillisecondClock;
@@ -38,6 +40,16 @@ public interface IODispatcherConfiguration {
 
     MillisecondClock getClock();
 
+    /**
+     * Number of independent dispatchers serving the bind address. When greater than 1, every
+     * dispatcher listens on its own socket bound with SO_REUSEPORT. Honoured on Linux only.
+     *
+     * @return number of dispatchers
+     */
+    default int getDispatcherCount() {
+        return 1;
+    }
+
     default String getDispatcherLogName() {
         return "IODispatcher";
     }
@@ -52,6 +64,18 @@ public interface IODispatcherConfiguration {
         return false;
     }
 
+    default IOURingFacade getIOURingFacade() {
+        return IOURingFacadeImpl.INSTANCE;
+    }
+
+    /**
+     * Size of the per-connection buffer the io_uring dispatcher receives into on behalf of
+     * the processor.
+     */
+    default int getIOURingRecvBufferSize() {
+        return 64 * 1024;
+    }
+
     default int getIOQueueCapacity() {
         return Numbers.ceilPow2(getLimit());
     }
@@ -96,4 +120,15 @@ public interface IODispatcherConfiguration {
     long getTimeout();
 
     long getHeartbeatInterval();
+
+    /**
+     * When enabled, Linux dispatchers accept, receive and send through io_uring submissions
+     * and dispatch on their completions instead of epoll readiness. Ignored when io_uring
+     * is not available on the running kernel.
+     *
+     * @return true if io_uring backend is requested
+     */
+    default boolean isIOURingEnabled() {
+        return true;
+    }
 }
@@ -0,0 +1,267 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.network;
+
+import io.questdb.mp.EagerThreadSetup;
+import io.questdb.std.IOURingFacade;
+import io.questdb.std.Misc;
+import io.questdb.std.ObjList;
+import io.questdb.std.datetime.millitime.MillisecondClock;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Group of independent dispatchers serving the same address. Every dispatcher owns its
+ * own epoll instance and a listener socket bound with SO_REUSEPORT, so that the kernel
+ * spreads incoming connections across the dispatchers. Each dispatcher is a separate
+ * synchronized job, workers start with the dispatcher matching their id and then help the
+ * others, which lets dispatchers run on as many threads as there are workers.
+ * <p>
+ * Connection contexts keep reference to the dispatcher that accepted them, so interest
+ * and disconnect requests go straight to that dispatcher.
+ */
+public class IODispatcherGroup<C extends IOContext<C>> implements IODispatcher<C>, EagerThreadSetup {
+    private final ObjList<IODispatcher<C>> dispatchers;
+    private final IOContextFactory<C> ioContextFactory;
+
+    public IODispatcherGroup(
+            IODispatcherConfiguration configuration,
+            IOContextFactory<C> ioContextFactory,
+            int dispatcherCount
+    ) {
+        this.ioContextFactory = ioContextFactory;
+        this.dispatchers = new ObjList<>(dispatcherCount);
+        // connection limit is split evenly, the sum of dispatcher limits stays close to the configured value
+        final int limit = Math.max(1, (configuration.getLimit() + dispatcherCount - 1) / dispatcherCount);
+        try {
+            // the first dispatcher resolves ephemeral port, others bind to the same port
+            dispatchers.add(IODispatchers.createSingle(new MemberConfiguration(configuration, configuration.getBindPort(), limit), ioContextFactory));
+            final int port = dispatchers.getQuick(0).getPort();
+            for (int i = 1; i < dispatcherCount; i++) {
+                dispatchers.add(IODispatchers.createSingle(new MemberConfiguration(configuration, port, limit), ioContextFactory));
+            }
+        } catch (Throwable th) {
+            close();
+            throw th;
+        }
+    }
+
+    @Override
+    public void close() {
+        Misc.freeObjList(dispatchers);
+    }
+
+    @Override
+    public void disconnect(C context, int reason) {
+        context.getDispatcher().disconnect(context, reason);
+    }
+
+    @Override
+    public int getConnectionCount() {
+        int count = 0;
+        for (int i = 0, n = dispatchers.size(); i < n; i++) {
+            count += dispatchers.getQuick(i).getConnectionCount();
+        }
+        return count;
+    }
+
+    public IODispatcher<C> getDispatcher(int index) {
+        return dispatchers.getQuick(index);
+    }
+
+    public int getDispatcherCount() {
+        return dispatchers.size();
+    }
+
+    @Override
+    public int getPort() {
+        return dispatchers.getQuick(0).getPort();
+    }
+
+    @Override
+    public boolean isListening() {
+        for (int i = 0, n = dispatchers.size(); i < n; i++) {
+            if (dispatchers.getQuick(i).isListening()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean processIOQueue(IORequestProcessor<C> processor) {
+        boolean useful = false;
+        for (int i = 0, n = dispatchers.size(); i < n; i++) {
+            useful |= dispatchers.getQuick(i).processIOQueue(processor);
+        }
+        return useful;
+    }
+
+    @Override
+    public void registerChannel(C context, int operation) {
+        context.getDispatcher().registerChannel(context, operation);
+    }
+
+    @Override
+    public boolean run(int workerId, @NotNull RunStatus runStatus) {
+        // dispatchers are synchronized jobs, a dispatcher busy on another worker is skipped
+        final int n = dispatchers.size();
+        final int start = workerId > 0 ? workerId % n : 0;
+        boolean useful = false;
+        for (int i = 0; i < n; i++) {
+            useful |= dispatchers.getQuick((start + i) % n).run(workerId, runStatus);
+        }
+        return useful;
+    }
+
+    @Override
+    public void setup() {
+        if (ioContextFactory instanceof EagerThreadSetup) {
+            ((EagerThreadSetup) ioContextFactory).setup();
+        }
+    }
+
+    private static class MemberConfiguration implements IODispatcherConfiguration {
+        private final int bindPort;
+        private final IODispatcherConfiguration delegate;
+        private final int limit;
+
+        private MemberConfiguration(IODispatcherConfiguration delegate, int bindPort, int limit) {
+            this.delegate = delegate;
+            this.bindPort = bindPort;
+            this.limit = limit;
+        }
+
+        @Override
+        public int getBindIPv4Address() {
+            return delegate.getBindIPv4Address();
+        }
+
+        @Override
+        public int getBindPort() {
+            return bindPort;
+        }
+
+        @Override
+        public MillisecondClock getClock() {
+            return delegate.getClock();
+        }
+
+        @Override
+        public int getDispatcherCount() {
+            return delegate.getDispatcherCount();
+        }
+
+        @Override
+        public String getDispatcherLogName() {
+            return delegate.getDispatcherLogName();
+        }
+
+        @Override
+        public EpollFacade getEpollFacade() {
+            return delegate.getEpollFacade();
+        }
+
+        @Override
+        public long getHeartbeatInterval() {
+            return delegate.getHeartbeatInterval();
+        }
+
+        @Override
+        public boolean getHint() {
+            return delegate.getHint();
+        }
+
+        @Override
+        public IOURingFacade getIOURingFacade() {
+            return delegate.getIOURingFacade();
+        }
+
+        @Override
+        public int getIOURingRecvBufferSize() {
+            return delegate.getIOURingRecvBufferSize();
+        }
+
+        @Override
+        public int getInitialBias() {
+            return delegate.getInitialBias();
+        }
+
+        @Override
+        public KqueueFacade getKqueueFacade() {
+            return delegate.getKqueueFacade();
+        }
+
+        @Override
+        public int getLimit() {
+            return limit;
+        }
+
+        @Override
+        public NetworkFacade getNetworkFacade() {
+            return delegate.getNetworkFacade();
+        }
+
+        @Override
+        public boolean getPeerNoLinger() {
+            return delegate.getPeerNoLinger();
+        }
+
+        @Override
+        public long getQueueTimeout() {
+            return delegate.getQueueTimeout();
+        }
+
+        @Override
+        public int getRcvBufSize() {
+            return delegate.getRcvBufSize();
+        }
+
+        @Override
+        public SelectFacade getSelectFacade() {
+            return delegate.getSelectFacade();
+        }
+
+        @Override
+        public int getSndBufSize() {
+            return delegate.getSndBufSize();
+        }
+
+        @Override
+        public int getTestConnectionBufferSize() {
+            return delegate.getTestConnectionBufferSize();
+        }
+
+        @Override
+        public long getTimeout() {
+            return delegate.getTimeout();
+        }
+
+        @Override
+        public boolean isIOURingEnabled() {
+            return delegate.isIOURingEnabled();
+        }
+    }
+}
@@ -0,0 +1,583 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.network;
+
+import io.questdb.std.*;
+
+import static io.questdb.network.IOURingSocket.*;
+
+/**
+ * Linux dispatcher driven by io_uring completions rather than epoll readiness. The server
+ * socket is served by a multishot IORING_OP_ACCEPT. A READ registration is submitted as
+ * IORING_OP_RECV into the connection's {@link IOURingSocket} stage and published once bytes
+ * arrive. A WRITE registration finishes the send the processor could not complete with
+ * IORING_OP_SEND, or polls for POLLOUT when there is nothing to send. Everything queued by
+ * a dispatcher loop goes out with a single io_uring_enter(2).
+ * <p>
+ * An operation in flight pins the connection's buffers, so idle timeouts, heartbeats and
+ * resumed suspended operations cancel it first and act once its completion arrives.
+ */
+public class IODispatcherLinuxIOURing<C extends IOContext<C>> extends AbstractIODispatcher<C> {
+    private static final int EAGAIN = 11;
+    private static final int ECANCELED = 125;
+    private static final int EINVAL = 22;
+    private static final int EVM_DEADLINE = 1;
+    private static final int EVM_ID = 0;
+    private static final int EVM_OPERATION_ID = 2;
+    // the lowest two bits of an id tell socket operations, suspend events, accepts and cancellations apart
+    private static final int ID_TAG_ACCEPT = 2;
+    private static final int ID_TAG_CANCEL = 3;
+    private static final int ID_TAG_EVENT = 1;
+    private static final int ID_TAG_MASK = 3;
+    private final int capacity;
+    private final LongMatrix pendingEvents = new LongMatrix(3);
+    private final IOURing ring;
+    private final WeakClosableObjectPool<IOURingSocket> socketPool;
+    private long acceptId = -1;
+    // set while the armed accept request is a multishot one
+    private boolean acceptArmedMultishot;
+    private boolean acceptMultishot = true;
+    private long idSeq = 1;
+    // socket operations in flight, i.e. the ones that may still access connection buffers
+    private int inFlightOps;
+    private int queued;
+
+    public IODispatcherLinuxIOURing(
+            IODispatcherConfiguration configuration,
+            IOContextFactory<C> ioContextFactory
+    ) {
+        super(configuration, ioContextFactory);
+        this.capacity = Numbers.ceilPow2(configuration.getEventCapacity());
+        try {
+            this.ring = configuration.getIOURingFacade().newInstance(capacity);
+        } catch (Throwable th) {
+            super.close();
+            throw th;
+        }
+        final int recvBufferSize = configuration.getIOURingRecvBufferSize();
+        this.socketPool = new WeakClosableObjectPool<>(() -> new IOURingSocket(recvBufferSize), 16, true);
+        registerListenerFd();
+    }
+
+    @Override
+    public void close() {
+        cancelSocketOperations();
+        super.close();
+        ring.close();
+        socketPool.close();
+        LOG.info().$("closed").$();
+    }
+
+    private void arm(int row, C context, long id) {
+        final IOURingSocket socket = context.ringSocket;
+        final SuspendEvent suspendEvent = context.getSuspendEvent();
+        final int operation = (int) pending.get(row, OPM_OPERATION);
+        if (suspendEvent == null && operation == IOOperation.READ && socket.isReadable()) {
+            // the processor has not consumed everything received so far
+            publishOperation(IOOperation.READ, context);
+            pending.deleteRow(row);
+            return;
+        }
+
+        final int fd = context.getFd();
+        reserveSqe();
+        if (suspendEvent != null) {
+            // if the operation was suspended, we poll for a read to be able to detect a client disconnect
+            ring.enqueuePollAdd(fd, EpollAccessor.EPOLLIN, id);
+            socket.inFlight = OP_POLL_READ;
+        } else if (operation == IOOperation.READ) {
+            ring.enqueueRecv(fd, socket.getStageAddr(), socket.getStageSize(), id);
+            socket.inFlight = OP_RECV;
+        } else if (socket.isSendPending()) {
+            ring.enqueueSend(fd, socket.getSendAddr(), socket.getSendLen(), id);
+            socket.inFlight = OP_SEND;
+        } else {
+            ring.enqueuePollAdd(fd, EpollAccessor.EPOLLOUT, id);
+            socket.inFlight = OP_POLL_WRITE;
+        }
+        inFlightOps++;
+    }
+
+    private void armAccept() {
+        acceptId = nextId(ID_TAG_ACCEPT);
+        // a multishot accept keeps draining the backlog until its cancellation is submitted, so
+        // close to the connection limit accepts are armed one at a time to leave clients queued
+        acceptArmedMultishot = acceptMultishot && hasAcceptHeadroom();
+        reserveSqe();
+        ring.enqueueAccept(serverFd, acceptId, acceptArmedMultishot);
+    }
+
+    private void cancel(long id) {
+        reserveSqe();
+        ring.enqueueCancel(id, ID_TAG_CANCEL);
+    }
+
+    private void cancelSocketOperations() {
+        for (int i = 0, n = pending.size(); i < n; i++) {
+            if (pending.get(i).ringSocket.inFlight != OP_NONE) {
+                cancel(pending.get(i, OPM_ID));
+            }
+        }
+        // wait for the cancelled operations to let go of connection buffers
+        while (inFlightOps > 0) {
+            queued = 0;
+            ring.submitAndWait();
+            while (ring.nextCqe()) {
+                final long id = ring.getCqeId();
+                final int tag = (int) (id & ID_TAG_MASK);
+                if (tag == 0) {
+                    final int row = pending.binarySearch(id, OPM_ID);
+                    if (row > -1) {
+                        pending.get(row).ringSocket.inFlight = OP_NONE;
+                    }
+                    inFlightOps--;
+                } else if (tag == ID_TAG_ACCEPT && ring.getCqeRes() > -1) {
+                    nf.close(Files.bumpFileCount(ring.getCqeRes()), LOG);
+                }
+            }
+        }
+    }
+
+    private void doDisconnect(C context, long id, int reason) {
+        final SuspendEvent suspendEvent = context.getSuspendEvent();
+        if (suspendEvent != null) {
+            // the event row is gone when the suspended operation is already being resumed
+            final int eventRow = pendingEvents.binarySearch(id, EVM_OPERATION_ID);
+            if (eventRow > -1) {
+                cancel(pendingEvents.get(eventRow, EVM_ID));
+                pendingEvents.deleteRow(eventRow);
+            }
+        }
+        doDisconnect(context, reason);
+    }
+
+    private void handleAccept(long id, int res, int flags, long timestamp) {
+        if (res > -1) {
+            // the accepted fd bypasses Net.accept(), so it has to be accounted for here
+            Files.bumpFileCount(res);
+            if (isListening() && getConnectionCount() < activeConnectionLimit) {
+                if (addConnection(res, timestamp) && getConnectionCount() >= activeConnectionLimit) {
+                    checkConnectionLimit(timestamp);
+                } else if (id == acceptId && acceptArmedMultishot && !hasAcceptHeadroom()) {
+                    // switch to single-shot accepts for the last few connections
+                    cancel(acceptId);
+                    armAccept();
+                }
+            } else {
+                // the connection was accepted before the request got cancelled
+                LOG.info().$("max connection limit reached, closing accepted connection [fd=").$(res).I$();
+                nf.close(res, LOG);
+            }
+        } else if (res == -EINVAL && acceptMultishot) {
+            // multishot accept requires kernel 5.19
+            LOG.info().$("multishot accept is not supported, falling back to single-shot accept").$();
+            acceptMultishot = false;
+        } else if (res != -ECANCELED) {
+            LOG.error().$("could not accept [errno=").$(-res).I$();
+        }
+
+        if ((flags & IOURing.IORING_CQE_F_MORE) == 0 && id == acceptId) {
+            // the request is no longer armed
+            acceptId = -1;
+            if (isListening()) {
+                armAccept();
+            }
+        }
+    }
+
+    private boolean handleCompletion(long timestamp) {
+        final long id = ring.getCqeId();
+        final int res = ring.getCqeRes();
+        switch ((int) (id & ID_TAG_MASK)) {
+            case ID_TAG_ACCEPT:
+                handleAccept(id, res, ring.getCqeFlags(), timestamp);
+                return true;
+            case ID_TAG_EVENT:
+                return handleSuspendEvent(id);
+            case ID_TAG_CANCEL:
+                // cancelled operations post their own completions
+                return false;
+            default:
+                return handleSocketOperation(id, res);
+        }
+    }
+
+    private boolean handleSocketOperation(long id, int res) {
+        final int row = pending.binarySearch(id, OPM_ID);
+        if (row < 0) {
+            LOG.critical().$("internal error: io_uring returned unexpected id [id=").$(id).I$();
+            return false;
+        }
+
+        inFlightOps--;
+        final C context = pending.get(row);
+        final IOURingSocket socket = context.ringSocket;
+        final int op = socket.inFlight;
+        socket.inFlight = OP_NONE;
+        if (res != -ECANCELED && res != -EAGAIN) {
+            // a cancelled operation may still complete with data, it must not get lost
+            if (op == OP_RECV) {
+                socket.onRecv(res);
+            } else if (op == OP_SEND) {
+                socket.onSend(res);
+            }
+        }
+
+        final int action = socket.cancelAction;
+        if (action != CANCEL_ACTION_NONE) {
+            socket.cancelAction = CANCEL_ACTION_NONE;
+            runAction(row, context, id, action);
+            return true;
+        }
+
+        switch (op) {
+            case OP_POLL_READ:
+                // the operation is suspended, check if we have a client disconnect
+                if (testConnection(context.getFd())) {
+                    doDisconnect(context, id, DISCONNECT_SRC_PEER_DISCONNECT);
+                    pending.deleteRow(row);
+                    return true;
+                }
+                return false;
+            case OP_POLL_WRITE:
+                publishOperation(IOOperation.WRITE, context);
+                pending.deleteRow(row);
+                return true;
+            case OP_SEND:
+                if (socket.isSendDone()) {
+                    publishOperation(IOOperation.WRITE, context);
+                    pending.deleteRow(row);
+                    return true;
+                }
+                break;
+            default:
+                if (socket.isReadable()) {
+                    publishOperation(IOOperation.READ, context);
+                    pending.deleteRow(row);
+                    return true;
+                }
+                break;
+        }
+        // partial send or a spurious wakeup, carry on with the same operation
+        arm(row, context, id);
+        return false;
+    }
+
+    private boolean handleSuspendEvent(long id) {
+        final int eventsRow = pendingEvents.binarySearch(id, EVM_ID);
+        if (eventsRow < 0) {
+            // the poll was cancelled, but the event fired first
+            return false;
+        }
+
+        final long opId = pendingEvents.get(eventsRow, EVM_OPERATION_ID);
+        final int row = pending.binarySearch(opId, OPM_ID);
+        if (row < 0) {
+            LOG.critical().$("internal error: suspended operation not found [id=").$(opId).$(", eventId=").$(id).I$();
+            return false;
+        }
+
+        pendingEvents.deleteRow(eventsRow);
+        runOrCancel(row, pending.get(row), opId, CANCEL_ACTION_RESUME);
+        return true;
+    }
+
+    private boolean hasAcceptHeadroom() {
+        return activeConnectionLimit - getConnectionCount() > capacity;
+    }
+
+    private void heartbeat(int row, C context, long opId) {
+        final int fd = context.getFd();
+        context.setHeartbeatId(opId);
+        publishOperation(IOOperation.HEARTBEAT, context);
+
+        final int operation = (int) pending.get(row, OPM_OPERATION);
+        int r = pendingHeartbeats.addRow();
+        pendingHeartbeats.set(r, OPM_CREATE_TIMESTAMP, pending.get(row, OPM_CREATE_TIMESTAMP));
+        pendingHeartbeats.set(r, OPM_FD, fd);
+        pendingHeartbeats.set(r, OPM_ID, opId);
+        pendingHeartbeats.set(r, OPM_OPERATION, operation);
+        pendingHeartbeats.set(r, context);
+
+        LOG.debug().$("published heartbeat [fd=").$(fd)
+                .$(", op=").$(operation)
+                .$(", id=").$(opId).I$();
+
+        if (context.getSuspendEvent() != null) {
+            // the suspend event is registered again along with the operation
+            final int eventRow = pendingEvents.binarySearch(opId, EVM_OPERATION_ID);
+            if (eventRow > -1) {
+                cancel(pendingEvents.get(eventRow, EVM_ID));
+                pendingEvents.deleteRow(eventRow);
+            }
+        }
+        pending.deleteRow(row);
+    }
+
+    private long nextId(int tag) {
+        return (idSeq++ << 2) | tag;
+    }
+
+    private void processHeartbeats(long timestamp) {
+        for (int i = 0; i < pending.size() && pending.get(i, OPM_HEARTBEAT_TIMESTAMP) < timestamp; ) {
+            final C context = pending.get(i);
+            if (context.ringSocket.cancelAction != CANCEL_ACTION_NONE
+                    || !runOrCancel(i, context, pending.get(i, OPM_ID), CANCEL_ACTION_HEARTBEAT)) {
+                i++;
+            }
+        }
+    }
+
+    private void processIdleConnections(long idleTimestamp) {
+        for (int i = 0; i < pending.size() && pending.get(i, OPM_CREATE_TIMESTAMP) < idleTimestamp; ) {
+            final C context = pending.get(i);
+            if (context.ringSocket.cancelAction == CANCEL_ACTION_DISCONNECT
+                    || !runOrCancel(i, context, pending.get(i, OPM_ID), CANCEL_ACTION_DISCONNECT)) {
+                i++;
+            }
+        }
+    }
+
+    private boolean processRegistrations(long timestamp) {
+        boolean useful = false;
+        long cursor;
+        while ((cursor = interestSubSeq.next()) > -1) {
+            final IOEvent<C> event = interestQueue.get(cursor);
+            final C context = event.context;
+            final int requestedOperation = event.operation;
+            final long srcOpId = context.getAndResetHeartbeatId();
+            interestSubSeq.done(cursor);
+
+            useful = true;
+            final long opId = nextId(0);
+            final int fd = context.getFd();
+
+            final int opRow;
+            if (requestedOperation == IOOperation.HEARTBEAT) {
+                assert srcOpId != -1;
+
+                int heartbeatRow = pendingHeartbeats.binarySearch(srcOpId, OPM_ID);
+                if (heartbeatRow < 0) {
+                    continue; // The connection is already closed.
+                }
+                final int operation = (int) pendingHeartbeats.get(heartbeatRow, OPM_OPERATION);
+
+                LOG.debug().$("processing heartbeat registration [fd=").$(fd)
+                        .$(", op=").$(operation)
+                        .$(", srcId=").$(srcOpId)
+                        .$(", id=").$(opId).I$();
+
+                opRow = pending.addRow();
+                pending.set(opRow, OPM_CREATE_TIMESTAMP, pendingHeartbeats.get(heartbeatRow, OPM_CREATE_TIMESTAMP));
+                pending.set(opRow, OPM_HEARTBEAT_TIMESTAMP, timestamp);
+                pending.set(opRow, OPM_FD, fd);
+                pending.set(opRow, OPM_ID, opId);
+                pending.set(opRow, OPM_OPERATION, operation);
+                pending.set(opRow, context);
+
+                pendingHeartbeats.deleteRow(heartbeatRow);
+            } else {
+                LOG.debug().$("processing registration [fd=").$(fd)
+                        .$(", op=").$(requestedOperation)
+                        .$(", id=").$(opId).I$();
+
+                opRow = pending.addRow();
+                pending.set(opRow, OPM_CREATE_TIMESTAMP, timestamp);
+                pending.set(opRow, OPM_HEARTBEAT_TIMESTAMP, timestamp);
+                pending.set(opRow, OPM_FD, fd);
+                pending.set(opRow, OPM_ID, opId);
+                pending.set(opRow, OPM_OPERATION, requestedOperation);
+                pending.set(opRow, context);
+            }
+
+            final SuspendEvent suspendEvent = context.getSuspendEvent();
+            if (suspendEvent != null) {
+                // ok, the operation was suspended, so we need to track the suspend event
+                final long eventId = nextId(ID_TAG_EVENT);
+                LOG.debug().$("registering suspend event [fd=").$(fd)
+                        .$(", eventId=").$(eventId)
+                        .$(", suspendedOpId=").$(opId)
+                        .$(", deadline=").$(suspendEvent.getDeadline()).I$();
+
+                int eventRow = pendingEvents.addRow();
+                pendingEvents.set(eventRow, EVM_ID, eventId);
+                pendingEvents.set(eventRow, EVM_OPERATION_ID, opId);
+                pendingEvents.set(eventRow, EVM_DEADLINE, suspendEvent.getDeadline());
+
+                reserveSqe();
+                ring.enqueuePollAdd(suspendEvent.getFd(), EpollAccessor.EPOLLIN, eventId);
+            }
+
+            arm(opRow, context, opId);
+        }
+        return useful;
+    }
+
+    private void processSuspendEventDeadlines(long timestamp) {
+        int count = 0;
+        for (int i = 0, n = pendingEvents.size(); i < n && pendingEvents.get(i, EVM_DEADLINE) < timestamp; i++, count++) {
+            final long eventId = pendingEvents.get(i, EVM_ID);
+            final long opId = pendingEvents.get(i, EVM_OPERATION_ID);
+            final int pendingRow = pending.binarySearch(opId, OPM_ID);
+            if (pendingRow < 0) {
+                LOG.critical().$("internal error: failed to find operation for expired suspend event [id=").$(opId).I$();
+                continue;
+            }
+            cancel(eventId);
+            runOrCancel(pendingRow, pending.get(pendingRow), opId, CANCEL_ACTION_RESUME);
+        }
+        pendingEvents.zapTop(count);
+    }
+
+    private void reserveSqe() {
+        if (queued == capacity) {
+            submit();
+        }
+        queued++;
+    }
+
+    private void runAction(int row, C context, long id, int action) {
+        switch (action) {
+            case CANCEL_ACTION_DISCONNECT:
+                doDisconnect(context, id, DISCONNECT_SRC_IDLE);
+                pending.deleteRow(row);
+                break;
+            case CANCEL_ACTION_HEARTBEAT:
+                heartbeat(row, context, id);
+                break;
+            default:
+                // to resume a socket operation, we simply submit it
+                context.clearSuspendEvent();
+                arm(row, context, id);
+                break;
+        }
+    }
+
+    /**
+     * Runs the action right away when the connection has no operation in flight, otherwise
+     * cancels the operation and leaves the action to its completion. Disconnects take over
+     * any other pending action.
+     *
+     * @return true if the action was run.
+     */
+    private boolean runOrCancel(int row, C context, long id, int action) {
+        final IOURingSocket socket = context.ringSocket;
+        if (socket.inFlight == OP_NONE) {
+            runAction(row, context, id, action);
+            return true;
+        }
+        if (socket.cancelAction == CANCEL_ACTION_NONE) {
+            cancel(id);
+            socket.cancelAction = action;
+        } else if (action == CANCEL_ACTION_DISCONNECT) {
+            socket.cancelAction = action;
+        }
+        return false;
+    }
+
+    private void submit() {
+        if (queued > 0) {
+            ring.submit();
+            queued = 0;
+        }
+    }
+
+    @Override
+    protected void doDisconnect(C context, int src) {
+        if (context != null && !context.invalid() && context.ringSocket != null) {
+            final IOURingSocket socket = context.ringSocket;
+            context.ringSocket = null;
+            socket.clear();
+            socketPool.push(socket);
+        }
+        super.doDisconnect(context, src);
+    }
+
+    @Override
+    protected void pendingAdded(int index) {
+        final long id = nextId(0);
+        final int operation = initialBias == IODispatcherConfiguration.BIAS_READ ? IOOperation.READ : IOOperation.WRITE;
+        pending.set(index, OPM_ID, id);
+        pending.set(index, OPM_OPERATION, operation);
+        final C context = pending.get(index);
+        context.ringSocket = socketPool.pop();
+        arm(index, context, id);
+    }
+
+    @Override
+    protected void registerListenerFd() {
+        if (acceptId == -1) {
+            armAccept();
+        }
+    }
+
+    @Override
+    protected boolean runSerially() {
+        boolean useful = false;
+
+        final long timestamp = clock.getTicks();
+        processDisconnects(timestamp);
+        while (ring.nextCqe()) {
+            useful |= handleCompletion(timestamp);
+        }
+
+        // process timed out suspend events and resume the original operations
+        if (pendingEvents.size() > 0 && pendingEvents.get(0, EVM_DEADLINE) < timestamp) {
+            processSuspendEventDeadlines(timestamp);
+        }
+
+        // process timed out connections
+        final long idleTimestamp = timestamp - idleConnectionTimeout;
+        if (pending.size() > 0 && pending.get(0, OPM_CREATE_TIMESTAMP) < idleTimestamp) {
+            processIdleConnections(idleTimestamp);
+            useful = true;
+        }
+
+        // process heartbeat timers
+        final long heartbeatTimestamp = timestamp - heartbeatIntervalMs;
+        if (pending.size() > 0 && pending.get(0, OPM_HEARTBEAT_TIMESTAMP) < heartbeatTimestamp) {
+            processHeartbeats(heartbeatTimestamp);
+            useful = true;
+        }
+
+        // cancellations usually complete on submission, so their actions take place in this loop
+        submit();
+        while (ring.nextCqe()) {
+            useful |= handleCompletion(timestamp);
+        }
+
+        useful = processRegistrations(timestamp) || useful;
+        submit();
+        return useful;
+    }
+
+    @Override
+    protected void unregisterListenerFd() {
+        if (acceptId != -1) {
+            cancel(acceptId);
+            acceptId = -1;
+        }
+    }
+}
@@ -24,9 +24,12 @@
 
 package io.questdb.network;
 
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
 import io.questdb.std.Os;
 
 public class IODispatchers {
+    private static final Log LOG = LogFactory.getLog(IODispatchers.class);
 
     private IODispatchers() {
     }
@@ -34,10 +37,28 @@ public class IODispatchers {
     public static <C extends IOContext<C>> IODispatcher<C> create(
             IODispatcherConfiguration configuration,
             IOContextFactory<C> ioContextFactory
+    ) {
+        // SO_REUSEPORT balances accepted connections between listeners on Linux only
+        final int dispatcherCount = configuration.getDispatcherCount();
+        if (dispatcherCount > 1 && Os.isLinux()) {
+            return new IODispatcherGroup<>(configuration, ioContextFactory, dispatcherCount);
+        }
+        return createSingle(configuration, ioContextFactory);
+    }
+
+    static <C extends IOContext<C>> IODispatcher<C> createSingle(
+            IODispatcherConfiguration configuration,
+            IOContextFactory<C> ioContextFactory
     ) {
         switch (Os.type) {
             case Os.LINUX_AMD64:
             case Os.LINUX_ARM64:
+                if (configuration.isIOURingEnabled()) {
+                    if (configuration.getIOURingFacade().isAvailable()) {
+                        return new IODispatcherLinuxIOURing<>(configuration, ioContextFactory);
+                    }
+                    LOG.info().$("io_uring is not available, falling back to epoll").$();
+                }
                 return new IODispatcherLinux<>(configuration, ioContextFactory);
             case Os.OSX_AMD64:
             case Os.OSX_ARM64:
@@ -0,0 +1,173 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.network;
+
+import io.questdb.std.MemoryTag;
+import io.questdb.std.QuietCloseable;
+import io.questdb.std.Unsafe;
+import io.questdb.std.Vect;
+
+/**
+ * Socket state of a connection served by {@link IODispatcherLinuxIOURing}. Bytes received by
+ * a ring RECV are staged here until the processor reads them via {@link IOContext#recv}, and
+ * a send that would block is recorded so that the dispatcher can complete it with a ring SEND
+ * before publishing the WRITE operation.
+ * <p>
+ * The dispatcher and the processor never access the state concurrently: the processor only
+ * touches it while it owns the context, i.e. between an operation being published and the
+ * context being registered back with the dispatcher.
+ */
+final class IOURingSocket implements QuietCloseable {
+    static final int CANCEL_ACTION_DISCONNECT = 3;
+    static final int CANCEL_ACTION_HEARTBEAT = 1;
+    static final int CANCEL_ACTION_NONE = 0;
+    static final int CANCEL_ACTION_RESUME = 2;
+    static final int OP_NONE = 0;
+    static final int OP_POLL_READ = 1;
+    static final int OP_POLL_WRITE = 2;
+    static final int OP_RECV = 3;
+    static final int OP_SEND = 4;
+    private final int stageSize;
+    // what the dispatcher does once the cancelled in-flight operation completes
+    int cancelAction = CANCEL_ACTION_NONE;
+    // kind of the ring operation in flight on the socket
+    int inFlight = OP_NONE;
+    private boolean recvClosed;
+    private long sendAddr;
+    private boolean sendDone;
+    private boolean sendFailed;
+    private int sendLen;
+    private int sent;
+    private long stageAddr;
+    private int stageHi;
+    private int stageLo;
+
+    IOURingSocket(int stageSize) {
+        this.stageSize = stageSize;
+        this.stageAddr = Unsafe.malloc(stageSize, MemoryTag.NATIVE_IO_DISPATCHER_RSS);
+    }
+
+    @Override
+    public void close() {
+        stageAddr = Unsafe.free(stageAddr, stageSize, MemoryTag.NATIVE_IO_DISPATCHER_RSS);
+    }
+
+    private void clearSend() {
+        sendAddr = 0;
+        sendLen = 0;
+        sent = 0;
+        sendDone = false;
+        sendFailed = false;
+    }
+
+    void clear() {
+        cancelAction = CANCEL_ACTION_NONE;
+        inFlight = OP_NONE;
+        recvClosed = false;
+        stageLo = stageHi = 0;
+        clearSend();
+    }
+
+    long getSendAddr() {
+        return sendAddr + sent;
+    }
+
+    int getSendLen() {
+        return sendLen - sent;
+    }
+
+    long getStageAddr() {
+        return stageAddr;
+    }
+
+    int getStageSize() {
+        return stageSize;
+    }
+
+    boolean isReadable() {
+        return stageLo < stageHi || recvClosed;
+    }
+
+    boolean isSendDone() {
+        return sendDone;
+    }
+
+    boolean isSendPending() {
+        return sendAddr != 0 && !sendDone;
+    }
+
+    void onRecv(int res) {
+        if (res > 0) {
+            stageLo = 0;
+            stageHi = res;
+        } else {
+            // end of stream or a socket error, the processor sees it as a disconnect
+            recvClosed = true;
+        }
+    }
+
+    void onSend(int res) {
+        if (res < 0) {
+            sendFailed = true;
+            sendDone = true;
+        } else {
+            sent += res;
+            sendDone = sent == sendLen;
+        }
+    }
+
+    int recv(NetworkFacade nf, int fd, long buffer, int bufferLen) {
+        final int staged = stageHi - stageLo;
+        if (staged > 0) {
+            final int n = Math.min(staged, bufferLen);
+            Vect.memcpy(buffer, stageAddr + stageLo, n);
+            stageLo += n;
+            return n;
+        }
+        if (recvClosed) {
+            return Net.EOTHERDISCONNECT;
+        }
+        return nf.recv(fd, buffer, bufferLen);
+    }
+
+    int send(NetworkFacade nf, int fd, long buffer, int bufferLen) {
+        if (sendAddr != 0) {
+            // processors retry a blocked send with the same buffer, so a matching
+            // address means the dispatcher has sent the bytes on their behalf
+            if (sendDone && sendAddr == buffer && sendLen <= bufferLen) {
+                final int res = sendFailed ? Net.EOTHERDISCONNECT : sendLen;
+                clearSend();
+                return res;
+            }
+            clearSend();
+        }
+        final int n = nf.send(fd, buffer, bufferLen);
+        if (n == Net.ERETRY && bufferLen > 0) {
+            sendAddr = buffer;
+            sendLen = bufferLen;
+        }
+        return n;
+    }
+}
@@ -121,10 +121,18 @@ public class BytecodeAssembler {
         putShort(0x8F);
     }
 
+    public void dadd() {
+        putByte(0x63);
+    }
+
     public void dcmpg() {
         putByte(0x98);
     }
 
+    public void ddiv() {
+        putByte(0x6f);
+    }
+
     public void defineClass(int thisClassIndex) {
         defineClass(thisClassIndex, objectClassIndex);
     }
@@ -166,6 +174,18 @@ public class BytecodeAssembler {
         putShort(0);
     }
 
+    public void dmul() {
+        putByte(0x6b);
+    }
+
+    public void dreturn() {
+        putByte(0xaf);
+    }
+
+    public void dsub() {
+        putByte(0x67);
+    }
+
     public void dump(String path) {
         try (FileOutputStream fos = new FileOutputStream(path)) {
             int p = buf.position();
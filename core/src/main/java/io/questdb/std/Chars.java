@@ -172,6 +172,11 @@ public final class Chars {
             return false;
         }
 
+        if (l instanceof DirectChars && r instanceof DirectChars) {
+            // both sides live in native memory, e.g. two STRING columns, so compare the bytes
+            return Vect.memeq(((DirectChars) l).ptr(), ((DirectChars) r).ptr(), (long) ll << 1);
+        }
+
         return equalsChars(l, r, ll);
     }
 
@@ -504,6 +509,25 @@ public final class Chars {
         return -1;
     }
 
+    /**
+     * Checks if the bytes between lo,hi addresses are all ASCII, i.e. a valid UTF-8 sequence
+     * that decodes to one char per byte. Bytes are checked eight at a time.
+     */
+    public static boolean isAscii(long lo, long hi) {
+        long p = lo;
+        for (; p + 7 < hi; p += 8) {
+            if ((Unsafe.getUnsafe().getLong(p) & 0x8080808080808080L) != 0) {
+                return false;
+            }
+        }
+        for (; p < hi; p++) {
+            if (Unsafe.getUnsafe().getByte(p) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public static boolean isBlank(CharSequence s) {
         if (s == null) {
             return true;
@@ -912,6 +936,113 @@ public final class Chars {
         return utf8Decode4Bytes(lo, hi, b, sink);
     }
 
+    /**
+     * Counts UTF-16 chars the UTF-8 bytes between lo,hi addresses decode to. The bytes are
+     * expected to be valid UTF-8, a four byte sequence counts as a surrogate pair.
+     */
+    public static int utf8DecodedLength(long lo, long hi) {
+        int len = 0;
+        for (long p = lo; p < hi; p++) {
+            final byte b = Unsafe.getUnsafe().getByte(p);
+            if ((b & 0xC0) != 0x80) {
+                len += (b & 0xF8) == 0xF0 ? 2 : 1;
+            }
+        }
+        return len;
+    }
+
+    /**
+     * Encodes chars to UTF-8. Unpaired surrogates are encoded as three byte sequences, the same
+     * way as {@link #utf8EncodedLength(CharSequence)} counts them. The caller must make sure
+     * there is room for the encoded bytes at the address.
+     *
+     * @param cs      chars to encode
+     * @param address destination address
+     * @return number of bytes written
+     */
+    public static int utf8Encode(CharSequence cs, long address) {
+        final int n = cs.length();
+        int i = utf8EncodeAscii(cs, 0, n, address);
+        long p = address + i;
+        for (; i < n; i++) {
+            final char c = cs.charAt(i);
+            if (c < 0x80) {
+                Unsafe.getUnsafe().putByte(p++, (byte) c);
+            } else if (c < 0x800) {
+                Unsafe.getUnsafe().putByte(p++, (byte) (0xC0 | c >> 6));
+                Unsafe.getUnsafe().putByte(p++, (byte) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(cs.charAt(i + 1))) {
+                final int codePoint = Character.toCodePoint(c, cs.charAt(++i));
+                Unsafe.getUnsafe().putByte(p++, (byte) (0xF0 | codePoint >> 18));
+                Unsafe.getUnsafe().putByte(p++, (byte) (0x80 | codePoint >> 12 & 0x3F));
+                Unsafe.getUnsafe().putByte(p++, (byte) (0x80 | codePoint >> 6 & 0x3F));
+                Unsafe.getUnsafe().putByte(p++, (byte) (0x80 | codePoint & 0x3F));
+            } else {
+                Unsafe.getUnsafe().putByte(p++, (byte) (0xE0 | c >> 12));
+                Unsafe.getUnsafe().putByte(p++, (byte) (0x80 | c >> 6 & 0x3F));
+                Unsafe.getUnsafe().putByte(p++, (byte) (0x80 | c & 0x3F));
+            }
+        }
+        return (int) (p - address);
+    }
+
+    /**
+     * Encodes the leading ASCII run of the given chars to UTF-8, i.e. writes each char as a single
+     * byte, and stops at the first non-ASCII char. Chars backed by native memory are checked
+     * four at a time. The caller must make sure there is room for hi - lo bytes at the address.
+     *
+     * @param cs      chars to encode
+     * @param lo      index of the first char to encode
+     * @param hi      index after the last char to encode
+     * @param address destination address
+     * @return index of the first char that was not encoded, hi if all chars are ASCII
+     */
+    public static int utf8EncodeAscii(CharSequence cs, int lo, int hi, long address) {
+        int i = lo;
+        long p = address;
+        if (cs instanceof DirectChars) {
+            final long ptr = ((DirectChars) cs).ptr();
+            for (; i + 3 < hi; i += 4, p += 4) {
+                final long chars = Unsafe.getUnsafe().getLong(ptr + ((long) i << 1));
+                if ((chars & 0xff80ff80ff80ff80L) != 0) {
+                    break;
+                }
+                // drop the zero high byte of each of the four chars
+                final int bytes = (int) ((chars & 0xff)
+                        | ((chars >>> 8) & 0xff00)
+                        | ((chars >>> 16) & 0xff0000)
+                        | ((chars >>> 24) & 0xff000000L));
+                Unsafe.getUnsafe().putInt(p, bytes);
+            }
+        }
+        for (; i < hi; i++, p++) {
+            final char c = cs.charAt(i);
+            if (c > 127) {
+                break;
+            }
+            Unsafe.getUnsafe().putByte(p, (byte) c);
+        }
+        return i;
+    }
+
+    public static int utf8EncodedLength(CharSequence cs) {
+        int len = 0;
+        for (int i = 0, n = cs.length(); i < n; i++) {
+            final char c = cs.charAt(i);
+            if (c < 0x80) {
+                len++;
+            } else if (c < 0x800) {
+                len += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(cs.charAt(i + 1))) {
+                len += 4;
+                i++;
+            } else {
+                len += 3;
+            }
+        }
+        return len;
+    }
+
     public static CharSequence utf8ToUtf16(DirectByteCharSequence utf8CharSeq, MutableCharSink tempSink, boolean hasNonAsciiChars) {
         if (hasNonAsciiChars) {
             utf8ToUtf16Unchecked(utf8CharSeq, tempSink);
@@ -29,22 +29,65 @@ import org.jetbrains.annotations.TestOnly;
 import java.io.Closeable;
 
 public interface IOURing extends Closeable {
+    int IORING_CQE_F_MORE = 1 << 1;
 
     @Override
     void close();
 
+    /**
+     * Enqueues an accept(2) on a listening socket. A multishot accept keeps producing
+     * a cqe per accepted connection, each flagged with {@link #IORING_CQE_F_MORE} while
+     * the request stays armed.
+     *
+     * @return the given id or -1 if the submission queue is full.
+     */
+    long enqueueAccept(int fd, long id, boolean multishot);
+
+    /**
+     * Enqueues cancellation of the in-flight operation with the target id. The cancelled
+     * operation still posts its own cqe, usually with -ECANCELED as the result.
+     *
+     * @return the given id or -1 if the submission queue is full.
+     */
+    long enqueueCancel(long targetId, long id);
+
     @TestOnly
     long enqueueNop();
 
+    /**
+     * Enqueues a one-shot poll for the given poll(2) event mask.
+     *
+     * @return the given id or -1 if the submission queue is full.
+     */
+    long enqueuePollAdd(int fd, int events, long id);
+
     long enqueueRead(int fd, long offset, long bufPtr, int len);
 
+    /**
+     * Enqueues a recv(2) into the given buffer. The buffer must stay valid until
+     * the operation's cqe is consumed.
+     *
+     * @return the given id or -1 if the submission queue is full.
+     */
+    long enqueueRecv(int fd, long bufPtr, int len, long id);
+
+    /**
+     * Enqueues a send(2) from the given buffer. The buffer must stay valid until
+     * the operation's cqe is consumed.
+     *
+     * @return the given id or -1 if the submission queue is full.
+     */
+    long enqueueSend(int fd, long bufPtr, int len, long id);
+
+    int getCqeFlags();
+
     long getCqeId();
 
     int getCqeRes();
 
     /**
      * Checks if a cqe is ready and, if so, reads its data. Read data is
-     * then available via {@link #getCqeId} and {@link #getCqeRes} methods.
+     * then available via {@link #getCqeId}, {@link #getCqeRes} and {@link #getCqeFlags} methods.
      *
      * @return true - if cqe was read; false - otherwise.
      */
@@ -31,7 +31,7 @@ import static io.questdb.std.IOUringAccessor.*;
 
 public class IOURingImpl implements IOURing {
 
-    // Holds <id, res> tuples for recently consumed cqes.
+    // Holds <id, res | flags << 32> tuples for recently consumed cqes.
     private final long[] cachedCqes;
     private final long cqKheadAddr;
     private final int cqKringMask;
@@ -91,17 +91,51 @@ public class IOURingImpl implements IOURing {
         closed = true;
     }
 
+    @Override
+    public long enqueueAccept(int fd, long id, boolean multishot) {
+        return enqueueSqe(IORING_OP_ACCEPT, fd, 0, 0, 0, multishot ? IORING_ACCEPT_MULTISHOT : 0, 0, id);
+    }
+
+    @Override
+    public long enqueueCancel(long targetId, long id) {
+        // the sqe addr field carries user_data of the operation to cancel
+        return enqueueSqe(IORING_OP_ASYNC_CANCEL, -1, 0, targetId, 0, 0, 0, id);
+    }
+
     @Override
     @TestOnly
     public long enqueueNop() {
         return enqueueSqe(IORING_OP_NOP, 0, 0, 0, 0);
     }
 
+    @Override
+    public long enqueuePollAdd(int fd, int events, long id) {
+        return enqueueSqe(IORING_OP_POLL_ADD, fd, 0, 0, 0, 0, events, id);
+    }
+
     @Override
     public long enqueueRead(int fd, long offset, long bufAddr, int len) {
         return enqueueSqe(IORING_OP_READ, fd, offset, bufAddr, len);
     }
 
+    @Override
+    public long enqueueRecv(int fd, long bufAddr, int len, long id) {
+        return enqueueSqe(IORING_OP_RECV, fd, 0, bufAddr, len, 0, 0, id);
+    }
+
+    @Override
+    public long enqueueSend(int fd, long bufAddr, int len, long id) {
+        return enqueueSqe(IORING_OP_SEND, fd, 0, bufAddr, len, 0, 0, id);
+    }
+
+    @Override
+    public int getCqeFlags() {
+        if (cachedIndex < cachedSize) {
+            return (int) (cachedCqes[2 * cachedIndex + 1] >>> 32);
+        }
+        return 0;
+    }
+
     @Override
     public long getCqeId() {
         if (cachedIndex < cachedSize) {
@@ -128,12 +162,16 @@ public class IOURingImpl implements IOURing {
         Unsafe.getUnsafe().loadFence();
         final int head = Unsafe.getUnsafe().getInt(cqKheadAddr);
         if (tail == head) {
+            // keep the index from overflowing when the ring is polled while idle
+            cachedIndex = cachedSize;
             return false;
         }
         for (int i = head; i < tail; i++) {
             final long cqeAddr = cqesAddr + (long) (i & cqKringMask) * SIZEOF_CQE;
             cachedCqes[2 * (i - head)] = Unsafe.getUnsafe().getLong(cqeAddr + CQE_USER_DATA_OFFSET);
-            cachedCqes[2 * (i - head) + 1] = Unsafe.getUnsafe().getInt(cqeAddr + CQE_RES_OFFSET);
+            final long res = Unsafe.getUnsafe().getInt(cqeAddr + CQE_RES_OFFSET) & 0xffffffffL;
+            final long flags = Unsafe.getUnsafe().getInt(cqeAddr + CQE_FLAGS_OFFSET);
+            cachedCqes[2 * (i - head) + 1] = res | (flags << 32);
         }
         cachedSize = tail - head;
         cachedIndex = 0;
@@ -157,14 +195,31 @@ public class IOURingImpl implements IOURing {
         if (sqeAddr == 0) {
             return -1;
         }
+        final long id = idSeq++;
+        fillSqe(sqeAddr, op, fd, offset, bufAddr, len, 0, 0, id);
+        return id;
+    }
+
+    private long enqueueSqe(byte op, int fd, long offset, long bufAddr, int len, int ioprio, int opFlags, long id) {
+        final long sqeAddr = nextSqe();
+        if (sqeAddr == 0) {
+            return -1;
+        }
+        fillSqe(sqeAddr, op, fd, offset, bufAddr, len, ioprio, opFlags, id);
+        return id;
+    }
+
+    private void fillSqe(long sqeAddr, byte op, int fd, long offset, long bufAddr, int len, int ioprio, int opFlags, long id) {
+        // sqes are recycled, so every field the kernel may look at for the given opcode has to be written
         Unsafe.getUnsafe().putByte(sqeAddr + SQE_OPCODE_OFFSET, op);
+        Unsafe.getUnsafe().putByte(sqeAddr + SQE_FLAGS_OFFSET, (byte) 0);
+        Unsafe.getUnsafe().putShort(sqeAddr + SQE_IOPRIO_OFFSET, (short) ioprio);
         Unsafe.getUnsafe().putInt(sqeAddr + SQE_FD_OFFSET, fd);
         Unsafe.getUnsafe().putLong(sqeAddr + SQE_OFF_OFFSET, offset);
         Unsafe.getUnsafe().putLong(sqeAddr + SQE_ADDR_OFFSET, bufAddr);
         Unsafe.getUnsafe().putInt(sqeAddr + SQE_LEN_OFFSET, len);
-        final long id = idSeq++;
+        Unsafe.getUnsafe().putInt(sqeAddr + SQE_OP_FLAGS_OFFSET, opFlags);
         Unsafe.getUnsafe().putLong(sqeAddr + SQE_USER_DATA_OFFSET, id);
-        return id;
     }
 
     /**
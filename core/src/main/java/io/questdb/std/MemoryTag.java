@@ -33,7 +33,9 @@ public final class MemoryTag {
     public static final int MMAP_INDEX_WRITER = 14;
     public static final int MMAP_O3 = 2;
     public static final int MMAP_PARALLEL_IMPORT = 39;
+    public static final int MMAP_PARQUET = 57;
     public static final int MMAP_SEQUENCER_METADATA = 38;
+    public static final int MMAP_SQL_SPILL = 54;
     public static final int MMAP_TABLE_READER = 7;
     public static final int MMAP_TABLE_WAL_READER = 36;
     public static final int MMAP_TABLE_WAL_WRITER = 37;
@@ -68,10 +70,12 @@ public final class MemoryTag {
     public static final int NATIVE_O3 = 3;
     public static final int NATIVE_OFFLOAD = 23;
     public static final int NATIVE_PARALLEL_IMPORT = 40;
+    public static final int NATIVE_PARQUET = 56;
     public static final int NATIVE_PATH = 24;
     public static final int NATIVE_PGW_CONN = 12;
     public static final int NATIVE_RECORD_CHAIN = 4;
     public static final int NATIVE_REPL = 17;
+    public static final int NATIVE_RESULT_CACHE = 55;
     public static final int NATIVE_ROSTI = 35;
     public static final int NATIVE_SAMPLE_BY_LONG_LIST = 18;
     public static final int NATIVE_TABLE_READER = 25;
@@ -79,7 +83,7 @@ public final class MemoryTag {
     public static final int NATIVE_TEXT_PARSER_RSS = 48;
     public static final int NATIVE_TLS_RSS = 47;
     public static final int NATIVE_TREE_CHAIN = 6;
-    public static final int SIZE = MMAP_TX_LOG + 1;
+    public static final int SIZE = MMAP_PARQUET + 1;
     private static final ObjList<String> tagNameMap = new ObjList<>(SIZE);
 
     public static String nameOf(int tag) {
@@ -141,5 +145,9 @@ public final class MemoryTag {
         tagNameMap.extendAndSet(NATIVE_DIRECT_CHAR_SINK, "NATIVE_DIRECT_CHAR_SINK");
         tagNameMap.extendAndSet(MMAP_TX_LOG_CURSOR, "MMAP_TX_LOG_CURSOR");
         tagNameMap.extendAndSet(MMAP_TX_LOG, "MMAP_TX_LOG");
+        tagNameMap.extendAndSet(MMAP_SQL_SPILL, "MMAP_SQL_SPILL");
+        tagNameMap.extendAndSet(NATIVE_RESULT_CACHE, "NATIVE_RESULT_CACHE");
+        tagNameMap.extendAndSet(NATIVE_PARQUET, "NATIVE_PARQUET");
+        tagNameMap.extendAndSet(MMAP_PARQUET, "MMAP_PARQUET");
     }
 }
@@ -27,7 +27,7 @@ package io.questdb.std.str;
 import io.questdb.std.Mutable;
 import io.questdb.std.Unsafe;
 
-public class DirectCharSequence extends AbstractCharSequence implements Mutable {
+public class DirectCharSequence extends AbstractCharSequence implements DirectChars, Mutable {
     private long hi;
     private int len;
     private long lo;
@@ -67,6 +67,11 @@ public class DirectCharSequence extends AbstractCharSequence implements Mutable
         return this;
     }
 
+    @Override
+    public long ptr() {
+        return lo;
+    }
+
     @Override
     protected CharSequence _subSequence(int start, int end) {
         DirectCharSequence seq = new DirectCharSequence();
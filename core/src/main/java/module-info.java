@@ -83,6 +83,7 @@ open module io.questdb {
     exports io.questdb.griffin.engine.orderby;
     exports io.questdb.griffin.engine.analytic;
     exports io.questdb.griffin.engine.table;
+    exports io.questdb.griffin.engine.table.parquet;
     exports io.questdb.jit;
     exports io.questdb.std;
     exports io.questdb.std.datetime;
@@ -473,6 +474,9 @@ open module io.questdb {
             io.questdb.griffin.engine.functions.cast.CastGeoHashToGeoHashFunctionFactory,
             io.questdb.griffin.engine.functions.cast.CastStrToUuidFunctionFactory,
             io.questdb.griffin.engine.functions.cast.CastUuidToStrFunctionFactory,
+            io.questdb.griffin.engine.functions.cast.CastStrToVarcharFunctionFactory,
+            io.questdb.griffin.engine.functions.cast.CastVarcharToStrFunctionFactory,
+            io.questdb.griffin.engine.functions.cast.CastVarcharToVarcharFunctionFactory,
 //                  cast symbol to ...
             io.questdb.griffin.engine.functions.cast.CastSymbolToIntFunctionFactory,
             io.questdb.griffin.engine.functions.cast.CastSymbolToDoubleFunctionFactory,
@@ -571,6 +575,10 @@ open module io.questdb {
             io.questdb.griffin.engine.functions.groupby.CountDistinctLongGroupByFunctionFactory,
             io.questdb.griffin.engine.functions.groupby.CountDistinctIntGroupByFunctionFactory,
             io.questdb.griffin.engine.functions.groupby.CountDistinctUuidGroupByFunctionFactory,
+            //      'approx_count_distinct' and 'approx_percentile' group by functions
+            io.questdb.griffin.engine.functions.groupby.ApproxCountDistinctLongGroupByFunctionFactory,
+            io.questdb.griffin.engine.functions.groupby.ApproxCountDistinctStrGroupByFunctionFactory,
+            io.questdb.griffin.engine.functions.groupby.ApproxPercentileDoubleGroupByFunctionFactory,
             //      'haversine_dist_degree' group by function
             io.questdb.griffin.engine.functions.groupby.HaversineDistDegreeGroupByFunctionFactory,
 //                  'isOrdered'
@@ -673,6 +681,7 @@ open module io.questdb {
             io.questdb.griffin.engine.functions.table.AllTablesFunctionFactory,
             io.questdb.griffin.engine.functions.table.TableColumnsFunctionFactory,
             io.questdb.griffin.engine.functions.table.TablePartitionsFunctionFactory,
+            io.questdb.griffin.engine.functions.table.ReadParquetFunctionFactory,
             io.questdb.griffin.engine.functions.table.TouchTableFunctionFactory,
             io.questdb.griffin.engine.functions.table.ReaderPoolFunctionFactory,
             io.questdb.griffin.engine.functions.table.TableWriterMetricsFunctionFactory,
@@ -716,6 +725,16 @@ open module io.questdb {
 
             // analytic functions
             io.questdb.griffin.engine.functions.analytic.RowNumberFunctionFactory,
+            io.questdb.griffin.engine.functions.analytic.SumDoubleAnalyticFunctionFactory,
+            io.questdb.griffin.engine.functions.analytic.AvgDoubleAnalyticFunctionFactory,
+            io.questdb.griffin.engine.functions.analytic.MinDoubleAnalyticFunctionFactory,
+            io.questdb.griffin.engine.functions.analytic.MaxDoubleAnalyticFunctionFactory,
+            io.questdb.griffin.engine.functions.analytic.CountAnalyticFunctionFactory,
+            io.questdb.griffin.engine.functions.analytic.CountDoubleAnalyticFunctionFactory,
+            io.questdb.griffin.engine.functions.analytic.FirstValueDoubleAnalyticFunctionFactory,
+            io.questdb.griffin.engine.functions.analytic.LastValueDoubleAnalyticFunctionFactory,
+            io.questdb.griffin.engine.functions.analytic.LagDoubleAnalyticFunctionFactory,
+            io.questdb.griffin.engine.functions.analytic.LeadDoubleAnalyticFunctionFactory,
             // this factory seems to corrupt memory, symptoms of which are visible on M1 CPU
             //io.questdb.griffin.engine.functions.analytic.RankFunctionFactory,
 
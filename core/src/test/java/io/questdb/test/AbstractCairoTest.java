@@ -345,10 +345,26 @@ public abstract class AbstractCairoTest {
         node1.getConfigurationOverrides().setO3QuickSortEnabled(o3QuickSortEnabled);
     }
 
+    protected static void configOverrideParallelGroupByEnabled(Boolean parallelGroupByEnabled) {
+        node1.getConfigurationOverrides().setParallelGroupByEnabled(parallelGroupByEnabled);
+    }
+
+    protected static void configOverrideParallelSampleByEnabled(Boolean parallelSampleByEnabled) {
+        node1.getConfigurationOverrides().setParallelSampleByEnabled(parallelSampleByEnabled);
+    }
+
+    protected static void configOverrideParallelHashJoinEnabled(Boolean parallelHashJoinEnabled) {
+        node1.getConfigurationOverrides().setParallelHashJoinEnabled(parallelHashJoinEnabled);
+    }
+
     protected static void configOverrideParallelImportStatusLogKeepNDays(int parallelImportStatusLogKeepNDays) {
         node1.getConfigurationOverrides().setParallelImportStatusLogKeepNDays(parallelImportStatusLogKeepNDays);
     }
 
+    protected static void configOverrideProjectionCompilerEnabled(Boolean projectionCompilerEnabled) {
+        node1.getConfigurationOverrides().setProjectionCompilerEnabled(projectionCompilerEnabled);
+    }
+
     protected static void configOverrideRndFunctionMemoryMaxPages(int rndFunctionMemoryMaxPages) {
         node1.getConfigurationOverrides().setRndFunctionMemoryMaxPages(rndFunctionMemoryMaxPages);
     }
@@ -376,6 +392,19 @@ public abstract class AbstractCairoTest {
         node1.getConfigurationOverrides().setSqlJoinMetadataPageSize(sqlJoinMetadataPageSize);
     }
 
+    @SuppressWarnings("SameParameterValue")
+    protected static void configOverrideSqlResultCacheEnabled(Boolean resultCacheEnabled) {
+        node1.getConfigurationOverrides().setResultCacheEnabled(resultCacheEnabled);
+    }
+
+    protected static void configOverrideSqlZoneMapEnabled(Boolean zoneMapEnabled) {
+        node1.getConfigurationOverrides().setZoneMapEnabled(zoneMapEnabled);
+    }
+
+    protected static void configOverrideSqlSpillThreshold(long sqlSpillThreshold) {
+        node1.getConfigurationOverrides().setSqlSpillThreshold(sqlSpillThreshold);
+    }
+
     @SuppressWarnings("SameParameterValue")
     protected static void configOverrideWalSegmentRolloverRowCount(long walSegmentRolloverRowCount) {
         node1.getConfigurationOverrides().setWalSegmentRolloverRowCount(walSegmentRolloverRowCount);
@@ -643,5 +672,6 @@ public abstract class AbstractCairoTest {
         FACTORY_TAGS[MemoryTag.NATIVE_IMPORT] = false;
         FACTORY_TAGS[MemoryTag.NATIVE_PARALLEL_IMPORT] = false;
         FACTORY_TAGS[MemoryTag.NATIVE_REPL] = false;
+        FACTORY_TAGS[MemoryTag.NATIVE_RESULT_CACHE] = false;
     }
 }
@@ -261,6 +261,11 @@ public class CairoTestConfiguration extends DefaultTestCairoConfiguration {
         return overrides.getPageFrameMaxRows() < 0 ? super.getSqlPageFrameMaxRows() : overrides.getPageFrameMaxRows();
     }
 
+    @Override
+    public long getSqlSpillThreshold() {
+        return overrides.getSqlSpillThreshold() > -1 ? overrides.getSqlSpillThreshold() : super.getSqlSpillThreshold();
+    }
+
     @Override
     public int getTableRegistryCompactionThreshold() {
         return overrides.getTableRegistryCompactionThreshold() > 0 ? overrides.getTableRegistryCompactionThreshold() : super.getTableRegistryCompactionThreshold();
@@ -276,6 +281,11 @@ public class CairoTestConfiguration extends DefaultTestCairoConfiguration {
         return volumeDefinitions;
     }
 
+    @Override
+    public long getWalApplySquashMaxRows() {
+        return overrides.getWalApplySquashMaxRows() < 0 ? super.getWalApplySquashMaxRows() : overrides.getWalApplySquashMaxRows();
+    }
+
     @Override
     public long getWalApplyTableTimeQuota() {
         return overrides.getWalApplyTableTimeQuote() >= 0 ? overrides.getWalApplyTableTimeQuote() : super.getWalApplyTableTimeQuota();
@@ -351,6 +361,36 @@ public class CairoTestConfiguration extends DefaultTestCairoConfiguration {
         return overrides.isColumnPreTouchEnabled() != null ? overrides.isColumnPreTouchEnabled() : super.isSqlParallelFilterPreTouchEnabled();
     }
 
+    @Override
+    public boolean isSqlParallelGroupByEnabled() {
+        return overrides.isParallelGroupByEnabled() != null ? overrides.isParallelGroupByEnabled() : super.isSqlParallelGroupByEnabled();
+    }
+
+    @Override
+    public boolean isSqlParallelSampleByEnabled() {
+        return overrides.isParallelSampleByEnabled() != null ? overrides.isParallelSampleByEnabled() : super.isSqlParallelSampleByEnabled();
+    }
+
+    @Override
+    public boolean isSqlParallelHashJoinEnabled() {
+        return overrides.isParallelHashJoinEnabled() != null ? overrides.isParallelHashJoinEnabled() : super.isSqlParallelHashJoinEnabled();
+    }
+
+    @Override
+    public boolean isSqlProjectionCompilerEnabled() {
+        return overrides.isProjectionCompilerEnabled() != null ? overrides.isProjectionCompilerEnabled() : super.isSqlProjectionCompilerEnabled();
+    }
+
+    @Override
+    public boolean isSqlResultCacheEnabled() {
+        return overrides.isResultCacheEnabled() != null ? overrides.isResultCacheEnabled() : super.isSqlResultCacheEnabled();
+    }
+
+    @Override
+    public boolean isSqlZoneMapEnabled() {
+        return overrides.isZoneMapEnabled() != null ? overrides.isZoneMapEnabled() : super.isSqlZoneMapEnabled();
+    }
+
     @Override
     public boolean isWalSupported() {
         return true;
@@ -0,0 +1,186 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.test.cairo;
+
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.ColumnCodec;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.vm.Vm;
+import io.questdb.cairo.vm.api.MemoryCARW;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Rnd;
+import io.questdb.std.Unsafe;
+import io.questdb.std.Vect;
+import io.questdb.std.Zip;
+import io.questdb.test.AbstractCairoTest;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ColumnCodecTest extends AbstractCairoTest {
+
+    @BeforeClass
+    public static void setUpStatic() {
+        AbstractCairoTest.setUpStatic();
+        // static init of Zip allocates memory
+        Zip.init();
+    }
+
+    @Test
+    public void testDecompressBlock() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            final Rnd rnd = new Rnd();
+            final long rowCount = 3 * ColumnCodec.BLOCK_SIZE / Long.BYTES + 100;
+            final long srcSize = rowCount * Long.BYTES;
+            final long blockSize = ColumnCodec.BLOCK_SIZE;
+            final long srcAddr = Unsafe.malloc(srcSize, MemoryTag.NATIVE_DEFAULT);
+            final long dstAddr = Unsafe.malloc(blockSize, MemoryTag.NATIVE_DEFAULT);
+            try (MemoryCARW mem = Vm.getCARWInstance(4096, Integer.MAX_VALUE, MemoryTag.NATIVE_DEFAULT)) {
+                for (long i = 0; i < rowCount; i++) {
+                    Unsafe.getUnsafe().putLong(srcAddr + i * 8, rnd.nextLong());
+                }
+                Assert.assertEquals(ColumnCodec.CODEC_DEFLATE, ColumnCodec.compress(ColumnType.LONG, srcAddr, rowCount, mem));
+                ColumnCodec.checkColumn(mem.addressOf(0), mem.getAppendOffset(), srcSize);
+                Assert.assertEquals(blockSize, ColumnCodec.getBlockSize(mem.addressOf(0)));
+
+                // blocks are decoded independently, in any order
+                for (int blockIndex = 3; blockIndex > -1; blockIndex--) {
+                    final long lo = blockIndex * blockSize;
+                    final long len = Math.min(blockSize, srcSize - lo);
+                    ColumnCodec.decompressBlock(mem.addressOf(0), mem.getAppendOffset(), blockIndex, dstAddr, len);
+                    Assert.assertTrue(Vect.memeq(srcAddr + lo, dstAddr, len));
+                }
+            } finally {
+                Unsafe.free(srcAddr, srcSize, MemoryTag.NATIVE_DEFAULT);
+                Unsafe.free(dstAddr, blockSize, MemoryTag.NATIVE_DEFAULT);
+            }
+        });
+    }
+
+    @Test
+    public void testDeflateRandomDoubles() throws Exception {
+        final Rnd rnd = new Rnd();
+        assertRoundTrip(ColumnType.DOUBLE, 100_000, ColumnCodec.CODEC_DEFLATE, (addr, i) -> Unsafe.getUnsafe().putDouble(addr + i * 8, rnd.nextDouble()));
+    }
+
+    @Test
+    public void testDeltaOfDeltaIrregularTimestamps() throws Exception {
+        final Rnd rnd = new Rnd();
+        final long[] ts = {1_600_000_000_000_000L};
+        assertRoundTrip(ColumnType.TIMESTAMP, 50_000, ColumnCodec.CODEC_DELTA_OF_DELTA, (addr, i) -> {
+            ts[0] += rnd.nextPositiveInt() % 1_000_000;
+            Unsafe.getUnsafe().putLong(addr + i * 8, ts[0]);
+        });
+    }
+
+    @Test
+    public void testDeltaOfDeltaRegularTimestamps() throws Exception {
+        final long size = assertRoundTrip(ColumnType.TIMESTAMP, 100_000, ColumnCodec.CODEC_DELTA_OF_DELTA, (addr, i) -> Unsafe.getUnsafe().putLong(addr + i * 8, 1_600_000_000_000_000L + i * 1_000_000L));
+        // regular interval encodes into a byte per value, each block starts with a raw value
+        final long blockCount = (100_000 * 8L + ColumnCodec.BLOCK_SIZE - 1) / ColumnCodec.BLOCK_SIZE;
+        Assert.assertTrue(size <= ColumnCodec.HEADER_SIZE + blockCount * 16 + 8 + 100_010);
+    }
+
+    @Test
+    public void testEmptyColumn() throws Exception {
+        assertRoundTrip(ColumnType.INT, 0, ColumnCodec.CODEC_DEFLATE, (addr, i) -> {
+        });
+    }
+
+    @Test
+    public void testRleRepeatedSymbols() throws Exception {
+        final long size = assertRoundTrip(ColumnType.SYMBOL, 100_000, ColumnCodec.CODEC_RLE, (addr, i) -> Unsafe.getUnsafe().putInt(addr + i * 4, (int) (i / 1000)));
+        Assert.assertTrue(size < 100_000);
+    }
+
+    @Test
+    public void testRleShortAndByte() throws Exception {
+        assertRoundTrip(ColumnType.SHORT, 10_000, ColumnCodec.CODEC_RLE, (addr, i) -> Unsafe.getUnsafe().putShort(addr + i * 2, (short) (i / 500)));
+        assertRoundTrip(ColumnType.BYTE, 10_000, ColumnCodec.CODEC_RLE, (addr, i) -> Unsafe.getUnsafe().putByte(addr + i, (byte) (i / 500)));
+    }
+
+    @Test
+    public void testRleUuid() throws Exception {
+        assertRoundTrip(ColumnType.UUID, 10_000, ColumnCodec.CODEC_RLE, (addr, i) -> {
+            Unsafe.getUnsafe().putLong(addr + i * 16, i / 100);
+            Unsafe.getUnsafe().putLong(addr + i * 16 + 8, 42);
+        });
+    }
+
+    @Test
+    public void testTruncatedColumn() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            final int rowCount = 1000;
+            final long srcSize = rowCount * 8L;
+            final long srcAddr = Unsafe.malloc(srcSize, MemoryTag.NATIVE_DEFAULT);
+            final long dstAddr = Unsafe.malloc(srcSize, MemoryTag.NATIVE_DEFAULT);
+            try (MemoryCARW mem = Vm.getCARWInstance(4096, Integer.MAX_VALUE, MemoryTag.NATIVE_DEFAULT)) {
+                for (int i = 0; i < rowCount; i++) {
+                    Unsafe.getUnsafe().putLong(srcAddr + i * 8L, i * i);
+                }
+                ColumnCodec.compress(ColumnType.TIMESTAMP, srcAddr, rowCount, mem);
+                try {
+                    ColumnCodec.decompress(mem.addressOf(0), mem.getAppendOffset() / 2, dstAddr, srcSize);
+                    Assert.fail();
+                } catch (CairoException e) {
+                    TestUtils.assertContains(e.getFlyweightMessage(), "compressed column is truncated");
+                }
+            } finally {
+                Unsafe.free(srcAddr, srcSize, MemoryTag.NATIVE_DEFAULT);
+                Unsafe.free(dstAddr, srcSize, MemoryTag.NATIVE_DEFAULT);
+            }
+        });
+    }
+
+    private static long assertRoundTrip(int columnType, int rowCount, int expectedCodec, ValueGenerator generator) throws Exception {
+        final long[] compressedSize = new long[1];
+        TestUtils.assertMemoryLeak(() -> {
+            final long srcSize = (long) rowCount * ColumnType.sizeOf(columnType);
+            final long allocSize = Math.max(srcSize, 1);
+            final long srcAddr = Unsafe.malloc(allocSize, MemoryTag.NATIVE_DEFAULT);
+            final long dstAddr = Unsafe.malloc(allocSize, MemoryTag.NATIVE_DEFAULT);
+            try (MemoryCARW mem = Vm.getCARWInstance(4096, Integer.MAX_VALUE, MemoryTag.NATIVE_DEFAULT)) {
+                for (int i = 0; i < rowCount; i++) {
+                    generator.put(srcAddr, i);
+                }
+                Assert.assertEquals(expectedCodec, ColumnCodec.compress(columnType, srcAddr, rowCount, mem));
+                compressedSize[0] = mem.getAppendOffset();
+                ColumnCodec.decompress(mem.addressOf(0), mem.getAppendOffset(), dstAddr, srcSize);
+                Assert.assertTrue(Vect.memeq(srcAddr, dstAddr, srcSize));
+            } finally {
+                Unsafe.free(srcAddr, allocSize, MemoryTag.NATIVE_DEFAULT);
+                Unsafe.free(dstAddr, allocSize, MemoryTag.NATIVE_DEFAULT);
+            }
+        });
+        return compressedSize[0];
+    }
+
+    @FunctionalInterface
+    private interface ValueGenerator {
+        void put(long addr, long index);
+    }
+}
@@ -114,10 +114,14 @@ public interface ConfigurationOverrides {
 
     int getSqlJoinMetadataPageSize();
 
+    long getSqlSpillThreshold();
+
     int getTableRegistryCompactionThreshold();
 
     MicrosecondClock getTestMicrosClock();
 
+    long getWalApplySquashMaxRows();
+
     long getWalApplyTableTimeQuote();
 
     long getWalPurgeInterval();
@@ -144,6 +148,18 @@ public interface ConfigurationOverrides {
 
     Boolean isParallelFilterEnabled();
 
+    Boolean isParallelGroupByEnabled();
+
+    Boolean isParallelSampleByEnabled();
+
+    Boolean isParallelHashJoinEnabled();
+
+    Boolean isProjectionCompilerEnabled();
+
+    Boolean isResultCacheEnabled();
+
+    Boolean isZoneMapEnabled();
+
     boolean mangleTableDirNames();
 
     void reset();
@@ -214,10 +230,22 @@ public interface ConfigurationOverrides {
 
     void setParallelFilterEnabled(Boolean parallelFilterEnabled);
 
+    void setParallelGroupByEnabled(Boolean parallelGroupByEnabled);
+
+    void setParallelSampleByEnabled(Boolean parallelSampleByEnabled);
+
+    void setParallelHashJoinEnabled(Boolean parallelHashJoinEnabled);
+
     void setParallelImportStatusLogKeepNDays(int parallelImportStatusLogKeepNDays);
 
+    void setProjectionCompilerEnabled(Boolean projectionCompilerEnabled);
+
     void setQueryCacheEventQueueCapacity(int queryCacheEventQueueCapacity);
 
+    void setResultCacheEnabled(Boolean resultCacheEnabled);
+
+    void setZoneMapEnabled(Boolean zoneMapEnabled);
+
     void setRecreateDistressedSequencerAttempts(int recreateDistressedSequencerAttempts);
 
     void setRegistryCompactionThreshold(int value);
@@ -244,8 +272,12 @@ public interface ConfigurationOverrides {
 
     void setSqlJoinMetadataPageSize(int sqlJoinMetadataPageSize);
 
+    void setSqlSpillThreshold(long sqlSpillThreshold);
+
     void setTestMicrosClock(MicrosecondClock testMicrosClock);
 
+    void setWalApplySquashMaxRows(long walApplySquashMaxRows);
+
     void setWalApplyTableTimeQuote(long walApplyTableTimeQuote);
 
     void setWalPurgeInterval(long walPurgeInterval);
@@ -69,9 +69,15 @@ public class Overrides implements ConfigurationOverrides {
     private int pageFrameReduceQueueCapacity = -1;
     private int pageFrameReduceShardCount = -1;
     private Boolean parallelFilterEnabled = null;
+    private Boolean parallelGroupByEnabled = null;
+    private Boolean parallelSampleByEnabled = null;
+    private Boolean parallelHashJoinEnabled = null;
     private int parallelImportStatusLogKeepNDays = -1;
+    private Boolean projectionCompilerEnabled = null;
     private int queryCacheEventQueueCapacity = -1;
     private int recreateDistressedSequencerAttempts = 3;
+    private Boolean resultCacheEnabled = null;
+    private Boolean zoneMapEnabled = null;
     private int repeatMigrationsFromVersion = -1;
     private int rndFunctionMemoryMaxPages = -1;
     private int rndFunctionMemoryPageSize = -1;
@@ -83,7 +89,9 @@ public class Overrides implements ConfigurationOverrides {
     private int sqlCopyBufferSize = 1024 * 1024;
     private int sqlJoinMetadataMaxResizes = -1;
     private int sqlJoinMetadataPageSize = -1;
+    private long sqlSpillThreshold = -1;
     private int tableRegistryCompactionThreshold;
+    private long walApplySquashMaxRows = -1;
     private long walApplyTableTimeQuote = -1;
     private long walPurgeInterval = -1;
     private long walSegmentRolloverRowCount = -1;
@@ -298,6 +306,11 @@ public class Overrides implements ConfigurationOverrides {
         return sqlJoinMetadataPageSize;
     }
 
+    @Override
+    public long getSqlSpillThreshold() {
+        return sqlSpillThreshold;
+    }
+
     @Override
     public int getTableRegistryCompactionThreshold() {
         return tableRegistryCompactionThreshold;
@@ -308,6 +321,11 @@ public class Overrides implements ConfigurationOverrides {
         return testMicrosClock;
     }
 
+    @Override
+    public long getWalApplySquashMaxRows() {
+        return walApplySquashMaxRows;
+    }
+
     @Override
     public long getWalApplyTableTimeQuote() {
         return walApplyTableTimeQuote;
@@ -373,6 +391,36 @@ public class Overrides implements ConfigurationOverrides {
         return parallelFilterEnabled;
     }
 
+    @Override
+    public Boolean isParallelGroupByEnabled() {
+        return parallelGroupByEnabled;
+    }
+
+    @Override
+    public Boolean isParallelSampleByEnabled() {
+        return parallelSampleByEnabled;
+    }
+
+    @Override
+    public Boolean isParallelHashJoinEnabled() {
+        return parallelHashJoinEnabled;
+    }
+
+    @Override
+    public Boolean isProjectionCompilerEnabled() {
+        return projectionCompilerEnabled;
+    }
+
+    @Override
+    public Boolean isResultCacheEnabled() {
+        return resultCacheEnabled;
+    }
+
+    @Override
+    public Boolean isZoneMapEnabled() {
+        return zoneMapEnabled;
+    }
+
     @Override
     public boolean mangleTableDirNames() {
         return mangleTableDirNames;
@@ -398,6 +446,12 @@ public class Overrides implements ConfigurationOverrides {
         snapshotInstanceId = null;
         snapshotRecoveryEnabled = null;
         parallelFilterEnabled = null;
+        parallelGroupByEnabled = null;
+        parallelSampleByEnabled = null;
+        parallelHashJoinEnabled = null;
+        projectionCompilerEnabled = null;
+        resultCacheEnabled = null;
+        zoneMapEnabled = null;
         columnPreTouchEnabled = null;
         writerCommandQueueCapacity = 4;
         queryCacheEventQueueCapacity = -1;
@@ -409,6 +463,7 @@ public class Overrides implements ConfigurationOverrides {
         sqlCopyBufferSize = 1024 * 1024;
         sqlJoinMetadataPageSize = -1;
         sqlJoinMetadataMaxResizes = -1;
+        sqlSpillThreshold = -1;
         ioURingEnabled = null;
         parallelImportStatusLogKeepNDays = -1;
         defaultTableWriteMode = SqlWalMode.WAL_NOT_SET;
@@ -423,6 +478,7 @@ public class Overrides implements ConfigurationOverrides {
         tableRegistryCompactionThreshold = -1;
         maxOpenPartitions = -1;
         walApplyTableTimeQuote = -1;
+        walApplySquashMaxRows = -1;
         repeatMigrationsFromVersion = -1;
     }
 
@@ -591,16 +647,46 @@ public class Overrides implements ConfigurationOverrides {
         this.parallelFilterEnabled = parallelFilterEnabled;
     }
 
+    @Override
+    public void setParallelGroupByEnabled(Boolean parallelGroupByEnabled) {
+        this.parallelGroupByEnabled = parallelGroupByEnabled;
+    }
+
+    @Override
+    public void setParallelSampleByEnabled(Boolean parallelSampleByEnabled) {
+        this.parallelSampleByEnabled = parallelSampleByEnabled;
+    }
+
+    @Override
+    public void setParallelHashJoinEnabled(Boolean parallelHashJoinEnabled) {
+        this.parallelHashJoinEnabled = parallelHashJoinEnabled;
+    }
+
     @Override
     public void setParallelImportStatusLogKeepNDays(int parallelImportStatusLogKeepNDays) {
         this.parallelImportStatusLogKeepNDays = parallelImportStatusLogKeepNDays;
     }
 
+    @Override
+    public void setProjectionCompilerEnabled(Boolean projectionCompilerEnabled) {
+        this.projectionCompilerEnabled = projectionCompilerEnabled;
+    }
+
     @Override
     public void setQueryCacheEventQueueCapacity(int queryCacheEventQueueCapacity) {
         this.queryCacheEventQueueCapacity = queryCacheEventQueueCapacity;
     }
 
+    @Override
+    public void setResultCacheEnabled(Boolean resultCacheEnabled) {
+        this.resultCacheEnabled = resultCacheEnabled;
+    }
+
+    @Override
+    public void setZoneMapEnabled(Boolean zoneMapEnabled) {
+        this.zoneMapEnabled = zoneMapEnabled;
+    }
+
     @Override
     public void setRecreateDistressedSequencerAttempts(int recreateDistressedSequencerAttempts) {
         this.recreateDistressedSequencerAttempts = recreateDistressedSequencerAttempts;
@@ -666,11 +752,20 @@ public class Overrides implements ConfigurationOverrides {
         this.sqlJoinMetadataPageSize = sqlJoinMetadataPageSize;
     }
 
+    @Override
+    public void setSqlSpillThreshold(long sqlSpillThreshold) {
+        this.sqlSpillThreshold = sqlSpillThreshold;
+    }
+
     @Override
     public void setTestMicrosClock(MicrosecondClock testMicrosClock) {
         this.testMicrosClock = testMicrosClock;
     }
 
+    public void setWalApplySquashMaxRows(long walApplySquashMaxRows) {
+        this.walApplySquashMaxRows = walApplySquashMaxRows;
+    }
+
     public void setWalApplyTableTimeQuote(long walApplyTableTimeQuote) {
         this.walApplyTableTimeQuote = walApplyTableTimeQuote;
     }
@@ -571,6 +571,52 @@ public class FastMapTest extends AbstractCairoTest {
         });
     }
 
+    @Test
+    public void testFindValueWithKeyMap() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            ArrayColumnTypes keyTypes = new ArrayColumnTypes();
+            keyTypes.add(ColumnType.STRING);
+            keyTypes.add(ColumnType.INT);
+            ArrayColumnTypes valueTypes = new ArrayColumnTypes();
+            valueTypes.add(ColumnType.LONG);
+
+            final Rnd rnd = new Rnd();
+            try (
+                    FastMap map = new FastMap(64, keyTypes, valueTypes, 16, 0.5, Integer.MAX_VALUE);
+                    FastMap keyMap = new FastMap(64, keyTypes, valueTypes, 16, 0.5, Integer.MAX_VALUE)
+            ) {
+                final int N = 1000;
+                for (int i = 0; i < N; i++) {
+                    MapKey key = map.withKey();
+                    key.putStr(i % 10 == 0 ? null : "k" + i);
+                    key.putInt(i);
+                    MapValue value = key.createValue();
+                    value.putLong(0, i);
+                }
+                final long appendOffset = map.getAppendOffset();
+
+                for (int i = 0; i < 2 * N; i++) {
+                    final int k = rnd.nextPositiveInt() % (2 * N);
+                    MapKey key = keyMap.withKey();
+                    key.putStr(k % 10 == 0 ? null : "k" + k);
+                    key.putInt(k);
+                    MapValue value = map.findValue(keyMap);
+                    if (k < N) {
+                        Assert.assertNotNull(value);
+                        Assert.assertEquals(k, value.getLong(0));
+                    } else {
+                        Assert.assertNull(value);
+                    }
+                }
+
+                // neither map is modified by the lookups
+                Assert.assertEquals(N, map.size());
+                Assert.assertEquals(appendOffset, map.getAppendOffset());
+                Assert.assertEquals(0, keyMap.size());
+            }
+        });
+    }
+
     @Test
     public void testGeoHashRecordAsKey() throws Exception {
         TestUtils.assertMemoryLeak(() -> {
@@ -760,6 +806,121 @@ public class FastMapTest extends AbstractCairoTest {
         testAppendUnique(1);
     }
 
+    @Test
+    public void testMergeFixedSizeKeys() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            ArrayColumnTypes keyTypes = new ArrayColumnTypes();
+            keyTypes.add(ColumnType.INT);
+            keyTypes.add(ColumnType.LONG);
+            ArrayColumnTypes valueTypes = new ArrayColumnTypes();
+            valueTypes.add(ColumnType.LONG);
+
+            try (
+                    FastMap mapA = new FastMap(64, keyTypes, valueTypes, 16, 0.5, Integer.MAX_VALUE);
+                    FastMap mapB = new FastMap(64, keyTypes, valueTypes, 16, 0.5, Integer.MAX_VALUE)
+            ) {
+                final int N = 10000;
+                // mapA holds even keys, mapB holds keys divisible by 3; both hold the key once per insert
+                for (int i = 0; i < N; i++) {
+                    if (i % 2 == 0) {
+                        MapKey key = mapA.withKey();
+                        key.putInt(i);
+                        key.putLong(-i);
+                        MapValue value = key.createValue();
+                        value.putLong(0, i);
+                    }
+                    if (i % 3 == 0) {
+                        MapKey key = mapB.withKey();
+                        key.putInt(i);
+                        key.putLong(-i);
+                        MapValue value = key.createValue();
+                        value.putLong(0, i);
+                    }
+                }
+
+                mapA.merge(mapB, (destValue, srcValue) -> destValue.addLong(0, srcValue.getLong(0)));
+
+                int expectedSize = 0;
+                for (int i = 0; i < N; i++) {
+                    boolean inA = i % 2 == 0;
+                    boolean inB = i % 3 == 0;
+                    MapKey key = mapA.withKey();
+                    key.putInt(i);
+                    key.putLong(-i);
+                    MapValue value = key.findValue();
+                    if (inA || inB) {
+                        expectedSize++;
+                        Assert.assertNotNull(value);
+                        Assert.assertEquals(inA && inB ? 2L * i : i, value.getLong(0));
+                    } else {
+                        Assert.assertNull(value);
+                    }
+                }
+                Assert.assertEquals(expectedSize, mapA.size());
+
+                // the source map is left intact
+                Assert.assertEquals((N + 2) / 3, mapB.size());
+            }
+        });
+    }
+
+    @Test
+    public void testMergeVarSizeKeys() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            ArrayColumnTypes keyTypes = new ArrayColumnTypes();
+            keyTypes.add(ColumnType.STRING);
+            keyTypes.add(ColumnType.INT);
+            ArrayColumnTypes valueTypes = new ArrayColumnTypes();
+            valueTypes.add(ColumnType.LONG);
+            valueTypes.add(ColumnType.DOUBLE);
+
+            final Rnd rnd = new Rnd();
+            try (
+                    FastMap mapA = new FastMap(64, keyTypes, valueTypes, 16, 0.5, Integer.MAX_VALUE);
+                    FastMap mapB = new FastMap(64, keyTypes, valueTypes, 16, 0.5, Integer.MAX_VALUE);
+                    FastMap expectedMap = new FastMap(64, keyTypes, valueTypes, 16, 0.5, Integer.MAX_VALUE)
+            ) {
+                final int N = 5000;
+                for (int i = 0; i < N; i++) {
+                    final CharSequence str = (i % 10) == 0 ? null : rnd.nextChars(rnd.nextPositiveInt() % 32);
+                    final int k = rnd.nextInt() % 10;
+                    final FastMap map = rnd.nextBoolean() ? mapA : mapB;
+                    for (FastMap m : new FastMap[]{map, expectedMap}) {
+                        MapKey key = m.withKey();
+                        key.putStr(str);
+                        key.putInt(k);
+                        MapValue value = key.createValue();
+                        if (value.isNew()) {
+                            value.putLong(0, 1);
+                            value.putDouble(1, i);
+                        } else {
+                            value.addLong(0, 1);
+                            value.addDouble(1, i);
+                        }
+                    }
+                }
+
+                mapA.merge(mapB, (destValue, srcValue) -> {
+                    destValue.addLong(0, srcValue.getLong(0));
+                    destValue.addDouble(1, srcValue.getDouble(1));
+                });
+
+                Assert.assertEquals(expectedMap.size(), mapA.size());
+                RecordCursor cursor = expectedMap.getCursor();
+                MapRecord record = expectedMap.getRecord();
+                while (cursor.hasNext()) {
+                    MapKey key = mapA.withKey();
+                    key.putStr(record.getStr(2));
+                    key.putInt(record.getInt(3));
+                    MapValue value = key.findValue();
+                    Assert.assertNotNull(value);
+                    Assert.assertEquals(record.getLong(0), value.getLong(0));
+                    Assert.assertEquals(record.getDouble(1), value.getDouble(1), 0.000001);
+                }
+            }
+        });
+    }
+
     @Test
     // This test crashes CircleCI, probably due to amount of memory it need to run
     // I'm going to find out how to deal with that
@@ -914,6 +1075,41 @@ public class FastMapTest extends AbstractCairoTest {
         });
     }
 
+    @Test
+    public void testSpillToDisk() throws Exception {
+        configOverrideSqlSpillThreshold(64 * 1024);
+        TestUtils.assertMemoryLeak(() -> {
+            ColumnTypes types = new SingleColumnType(ColumnType.LONG);
+            SpillAllocator spillAllocator = new SpillAllocator(configuration, MemoryTag.NATIVE_FAST_MAP);
+
+            final int N = 100000;
+            final Rnd rnd = new Rnd();
+            try (FastMap map = new FastMap(4 * 1024, types, types, 64, 0.5, Integer.MAX_VALUE, spillAllocator)) {
+                for (int i = 0; i < N; i++) {
+                    MapKey key = map.withKey();
+                    key.putLong(rnd.nextLong());
+                    MapValue value = key.createValue();
+                    Assert.assertTrue(value.isNew());
+                    value.putLong(0, i);
+                }
+                Assert.assertTrue(spillAllocator.isSpilled());
+                Assert.assertEquals(N, map.size());
+
+                rnd.reset();
+                for (int i = 0; i < N; i++) {
+                    MapKey key = map.withKey();
+                    key.putLong(rnd.nextLong());
+                    MapValue value = key.findValue();
+                    Assert.assertNotNull(value);
+                    Assert.assertEquals(i, value.getLong(0));
+                }
+
+                map.restoreInitialCapacity();
+                Assert.assertFalse(spillAllocator.isSpilled());
+            }
+        });
+    }
+
     @Test
     public void testUnsupportedKeyValueBinary() throws Exception {
         testUnsupportedValueType();
@@ -0,0 +1,131 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.test.cairo.vm;
+
+import io.questdb.cairo.BinarySearch;
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.ColumnCodec;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.vm.MemoryCMRDecompressImpl;
+import io.questdb.cairo.vm.Vm;
+import io.questdb.cairo.vm.api.MemoryCMARW;
+import io.questdb.std.*;
+import io.questdb.std.str.Path;
+import io.questdb.test.AbstractCairoTest;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class MemoryCMRDecompressImplTest extends AbstractCairoTest {
+
+    @BeforeClass
+    public static void setUpStatic() {
+        AbstractCairoTest.setUpStatic();
+        // static init of Zip allocates memory
+        Zip.init();
+    }
+
+    @Test
+    public void testBinarySearchDecompressesVisitedBlocks() throws Exception {
+        final long rowCount = 8 * ColumnCodec.BLOCK_SIZE / Long.BYTES + 17;
+        // timestamps with duplicates and gaps
+        withCompressedColumn(ColumnType.TIMESTAMP, rowCount, (addr, i) -> Unsafe.getUnsafe().putLong(addr + i * 8, (i / 3) * 10), (srcAddr, mem) -> {
+            final long memUsed = Unsafe.getMemUsedByTag(MemoryTag.NATIVE_TABLE_READER);
+            final Rnd rnd = new Rnd();
+            final long maxValue = ((rowCount - 1) / 3) * 10;
+            for (int i = 0; i < 1000; i++) {
+                final long value = rnd.nextLong(maxValue + 20) - 5;
+                final long low = rnd.nextLong(rowCount / 2);
+                final long high = low + rnd.nextLong(rowCount - low);
+                for (int scanDir : new int[]{BinarySearch.SCAN_UP, BinarySearch.SCAN_DOWN}) {
+                    Assert.assertEquals(
+                            "value=" + value + ", low=" + low + ", high=" + high + ", scanDir=" + scanDir,
+                            Vect.binarySearch64Bit(srcAddr, value, low, high, scanDir),
+                            mem.binarySearch64Bit(value, low, high, scanDir)
+                    );
+                }
+            }
+            Assert.assertTrue(Unsafe.getMemUsedByTag(MemoryTag.NATIVE_TABLE_READER) - memUsed <= 4L * ColumnCodec.BLOCK_SIZE);
+        });
+    }
+
+    @Test
+    public void testValuesAreDecompressedOnAccess() throws Exception {
+        final long rowCount = 16 * ColumnCodec.BLOCK_SIZE / Long.BYTES + 100;
+        final long seed = 42;
+        withCompressedColumn(ColumnType.LONG, rowCount, (addr, i) -> Unsafe.getUnsafe().putLong(addr + i * 8, i * seed ^ (i >>> 3)), (srcAddr, mem) -> {
+            final long memUsed = Unsafe.getMemUsedByTag(MemoryTag.NATIVE_TABLE_READER);
+            final Rnd rnd = new Rnd();
+            for (int i = 0; i < 10_000; i++) {
+                final long row = rnd.nextLong(rowCount);
+                Assert.assertEquals(Unsafe.getUnsafe().getLong(srcAddr + row * 8), mem.getLong(row * 8));
+                Assert.assertEquals(Unsafe.getUnsafe().getInt(srcAddr + row * 8 + 4), mem.getInt(row * 8 + 4));
+            }
+            // row-by-row access keeps a bounded number of decompressed blocks
+            Assert.assertTrue(Unsafe.getMemUsedByTag(MemoryTag.NATIVE_TABLE_READER) - memUsed <= 4L * ColumnCodec.BLOCK_SIZE);
+
+            // contiguous access decompresses the whole column
+            final long size = rowCount * Long.BYTES;
+            Assert.assertEquals(1, mem.getPageCount());
+            Assert.assertTrue(Vect.memeq(srcAddr, mem.getPageAddress(0), size));
+            Assert.assertEquals(size, Unsafe.getMemUsedByTag(MemoryTag.NATIVE_TABLE_READER) - memUsed);
+            Assert.assertEquals(Unsafe.getUnsafe().getLong(srcAddr + 8 * 1000), mem.getLong(8 * 1000));
+        });
+    }
+
+    private static void withCompressedColumn(int columnType, long rowCount, ValueGenerator generator, ColumnAssertion assertion) throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            final FilesFacade ff = configuration.getFilesFacade();
+            final long size = rowCount << ColumnType.pow2SizeOf(columnType);
+            final long srcAddr = Unsafe.malloc(size, MemoryTag.NATIVE_DEFAULT);
+            try (Path path = new Path().of(root).concat("x.d").$()) {
+                for (long i = 0; i < rowCount; i++) {
+                    generator.put(srcAddr, i);
+                }
+                try (MemoryCMARW dst = Vm.getCMARWInstance(ff, path, ff.getMapPageSize(), 0, MemoryTag.MMAP_DEFAULT, CairoConfiguration.O_NONE)) {
+                    ColumnCodec.compress(columnType, srcAddr, rowCount, dst);
+                    dst.close(true, Vm.TRUNCATE_TO_POINTER);
+                }
+                try (MemoryCMRDecompressImpl mem = new MemoryCMRDecompressImpl(ff, path, size, MemoryTag.MMAP_DEFAULT)) {
+                    assertion.run(srcAddr, mem);
+                }
+            } finally {
+                Unsafe.free(srcAddr, size, MemoryTag.NATIVE_DEFAULT);
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface ColumnAssertion {
+        void run(long srcAddr, MemoryCMRDecompressImpl mem);
+    }
+
+    @FunctionalInterface
+    private interface ValueGenerator {
+        void put(long addr, long index);
+    }
+}
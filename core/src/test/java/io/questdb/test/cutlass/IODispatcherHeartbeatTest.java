@@ -31,6 +31,7 @@ import io.questdb.std.*;
 import io.questdb.std.datetime.millitime.MillisecondClock;
 import io.questdb.test.tools.TestUtils;
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.Timeout;
@@ -51,12 +52,13 @@ public class IODispatcherHeartbeatTest {
             .build();
 
     @Test
-    public void testHeartbeatIntervals() throws Exception {
-        LOG.info().$("started testHeartbeatIntervals").$();
+    public void testDispatcherGroupSharesConnections() throws Exception {
+        // SO_REUSEPORT sharding is only enabled on Linux
+        Assume.assumeTrue(Os.isLinux());
+        LOG.info().$("started testDispatcherGroupSharesConnections").$();
 
-        final long heartbeatInterval = 5;
-        final long tickCount = 1000;
-        final long pingRndEveryN = 3;
+        final long heartbeatInterval = 1000;
+        final int dispatcherCount = 4;
         final int connections = 25;
         AtomicInteger connected = new AtomicInteger();
 
@@ -69,6 +71,11 @@ public class IODispatcherHeartbeatTest {
                             return clock;
                         }
 
+                        @Override
+                        public int getDispatcherCount() {
+                            return dispatcherCount;
+                        }
+
                         @Override
                         public long getHeartbeatInterval() {
                             return heartbeatInterval;
@@ -79,10 +86,11 @@ public class IODispatcherHeartbeatTest {
                         return new TestContext(fd, d, heartbeatInterval);
                     }
             )) {
-                IORequestProcessor<TestContext> processor = new TestProcessor(clock);
-                Rnd rnd = new Rnd();
-                long buf = Unsafe.malloc(1, MemoryTag.NATIVE_DEFAULT);
+                Assert.assertTrue(dispatcher instanceof IODispatcherGroup);
+                IODispatcherGroup<TestContext> group = (IODispatcherGroup<TestContext>) dispatcher;
+                Assert.assertEquals(dispatcherCount, group.getDispatcherCount());
 
+                IORequestProcessor<TestContext> processor = new TestProcessor(clock);
                 int[] fds = new int[connections];
                 for (int i = 0; i < fds.length; i++) {
                     int fd = Net.socketTcp(true);
@@ -92,29 +100,24 @@ public class IODispatcherHeartbeatTest {
 
                 long sockAddr = Net.sockaddr("127.0.0.1", 9001);
                 try {
-                    Unsafe.getUnsafe().putByte(buf, (byte) '.');
-
                     for (int i = 0; i < fds.length; i++) {
                         Net.connect(fds[i], sockAddr);
                     }
+                    // each worker id starts polling from a different member dispatcher
+                    int workerId = 0;
                     while (connected.get() != fds.length) {
-                        dispatcher.run(0);
+                        dispatcher.run(workerId++);
                         dispatcher.processIOQueue(processor);
                     }
+                    Assert.assertEquals(connections, dispatcher.getConnectionCount());
 
-                    for (int i = 0; i < tickCount; i++) {
-                        clock.setCurrent(i);
-                        if (rnd.nextBoolean() && i % pingRndEveryN == 0) {
-                            int idx = rnd.nextInt(fds.length);
-                            Assert.assertEquals(1, Net.send(fds[idx], buf, 1));
-                        }
-                        dispatcher.run(0);
-                        while (dispatcher.processIOQueue(processor)) ;
+                    long total = 0;
+                    for (int i = 0; i < dispatcherCount; i++) {
+                        total += group.getDispatcher(i).getConnectionCount();
                     }
+                    Assert.assertEquals(connections, total);
                 } finally {
-                    Unsafe.free(buf, 1, MemoryTag.NATIVE_DEFAULT);
                     Net.freeSockAddr(sockAddr);
-
                     for (int i = 0; i < fds.length; i++) {
                         Net.close(fds[i]);
                     }
@@ -123,6 +126,19 @@ public class IODispatcherHeartbeatTest {
         });
     }
 
+    @Test
+    public void testHeartbeatIntervals() throws Exception {
+        LOG.info().$("started testHeartbeatIntervals").$();
+        assertHeartbeatIntervals(false);
+    }
+
+    @Test
+    public void testHeartbeatIntervalsIOURing() throws Exception {
+        Assume.assumeTrue(IOURingFacadeImpl.INSTANCE.isAvailable());
+        LOG.info().$("started testHeartbeatIntervalsIOURing").$();
+        assertHeartbeatIntervals(true);
+    }
+
     @Test
     public void testHeartbeatsDoNotPreventIdleDisconnects() throws Exception {
         LOG.info().$("started testHeartbeatsDoNotPreventIdleDisconnects").$();
@@ -426,6 +442,82 @@ public class IODispatcherHeartbeatTest {
         });
     }
 
+    private static void assertHeartbeatIntervals(boolean ioUring) throws Exception {
+        final long heartbeatInterval = 5;
+        final long tickCount = 1000;
+        final long pingRndEveryN = 3;
+        final int connections = 25;
+        AtomicInteger connected = new AtomicInteger();
+
+        assertMemoryLeak(() -> {
+            TestClock clock = new TestClock();
+            try (IODispatcher<TestContext> dispatcher = IODispatchers.create(
+                    new DefaultIODispatcherConfiguration() {
+                        @Override
+                        public MillisecondClock getClock() {
+                            return clock;
+                        }
+
+                        @Override
+                        public long getHeartbeatInterval() {
+                            return heartbeatInterval;
+                        }
+
+                        @Override
+                        public boolean isIOURingEnabled() {
+                            return ioUring;
+                        }
+                    },
+                    (fd, d) -> {
+                        connected.incrementAndGet();
+                        return new TestContext(fd, d, heartbeatInterval);
+                    }
+            )) {
+                Assert.assertEquals(ioUring, dispatcher instanceof IODispatcherLinuxIOURing);
+                IORequestProcessor<TestContext> processor = new TestProcessor(clock);
+                Rnd rnd = new Rnd();
+                long buf = Unsafe.malloc(1, MemoryTag.NATIVE_DEFAULT);
+
+                int[] fds = new int[connections];
+                for (int i = 0; i < fds.length; i++) {
+                    int fd = Net.socketTcp(true);
+                    Net.configureNonBlocking(fd);
+                    fds[i] = fd;
+                }
+
+                long sockAddr = Net.sockaddr("127.0.0.1", 9001);
+                try {
+                    Unsafe.getUnsafe().putByte(buf, (byte) '.');
+
+                    for (int i = 0; i < fds.length; i++) {
+                        Net.connect(fds[i], sockAddr);
+                    }
+                    while (connected.get() != fds.length) {
+                        dispatcher.run(0);
+                        dispatcher.processIOQueue(processor);
+                    }
+
+                    for (int i = 0; i < tickCount; i++) {
+                        clock.setCurrent(i);
+                        if (rnd.nextBoolean() && i % pingRndEveryN == 0) {
+                            int idx = rnd.nextInt(fds.length);
+                            Assert.assertEquals(1, Net.send(fds[idx], buf, 1));
+                        }
+                        dispatcher.run(0);
+                        while (dispatcher.processIOQueue(processor)) ;
+                    }
+                } finally {
+                    Unsafe.free(buf, 1, MemoryTag.NATIVE_DEFAULT);
+                    Net.freeSockAddr(sockAddr);
+
+                    for (int i = 0; i < fds.length; i++) {
+                        Net.close(fds[i]);
+                    }
+                }
+            }
+        });
+    }
+
     private static class SuspendingTestProcessor implements IORequestProcessor<TestContext> {
         final TestClock clock;
         final SuspendEvent suspendEvent;
@@ -494,7 +586,7 @@ public class IODispatcherHeartbeatTest {
                 previousHeartbeatTs = current;
                 isPreviousEventHeartbeat = true;
             } else {
-                Assert.assertEquals(1, Net.recv(getFd(), buffer, 1));
+                Assert.assertEquals(1, recv(NetworkFacadeImpl.INSTANCE, buffer, 1));
                 previousReadTs = current;
                 isPreviousEventHeartbeat = false;
             }
@@ -162,7 +162,7 @@ public class IODispatcherTest {
                             dispatcher.processIOQueue(
                                     (operation, context) -> {
                                         if (operation == IOOperation.WRITE) {
-                                            Assert.assertEquals(1024, Net.send(context.getFd(), context.buffer, 1024));
+                                            Assert.assertEquals(1024, context.send(NetworkFacadeImpl.INSTANCE, context.buffer, 1024));
                                             context.getDispatcher().disconnect(context, IODispatcher.DISCONNECT_REASON_TEST);
                                         }
                                         return true;
@@ -8528,11 +8528,10 @@ public class IODispatcherTest {
                     public void run() {
                         long smem = Unsafe.malloc(1, MemoryTag.NATIVE_DEFAULT);
                         IORequestProcessor<TestIOContext> requestProcessor = (operation, context) -> {
-                            int fd = context.getFd();
                             int rc;
                             switch (operation) {
                                 case IOOperation.READ:
-                                    rc = Net.recv(fd, smem, 1);
+                                    rc = context.recv(NetworkFacadeImpl.INSTANCE, smem, 1);
                                     if (rc == 1) {
                                         dispatcher.registerChannel(context, IOOperation.WRITE);
                                     } else {
@@ -8540,7 +8539,7 @@ public class IODispatcherTest {
                                     }
                                     break;
                                 case IOOperation.WRITE:
-                                    rc = Net.send(fd, smem, 1);
+                                    rc = context.send(NetworkFacadeImpl.INSTANCE, smem, 1);
                                     if (rc == 1) {
                                         dispatcher.registerChannel(context, IOOperation.READ);
                                     } else {
@@ -29,9 +29,11 @@ import io.questdb.griffin.SqlCompiler;
 import io.questdb.griffin.SqlException;
 import io.questdb.griffin.SqlExecutionContext;
 import io.questdb.std.*;
+import io.questdb.std.datetime.microtime.TimestampFormatUtils;
 import io.questdb.std.datetime.microtime.Timestamps;
 import io.questdb.std.str.LPSZ;
 import io.questdb.std.str.Path;
+import io.questdb.std.str.StringSink;
 import io.questdb.test.CreateTableTestUtils;
 import io.questdb.test.cairo.TableModel;
 import io.questdb.test.std.TestFilesFacadeImpl;
@@ -427,6 +429,48 @@ public class LineTcpConnectionContextTest extends BaseLineTcpContextTest {
         });
     }
 
+    @Test
+    public void testBatchesSpanQueueSlots() throws Exception {
+        // rows for the same table are batched into a single queue slot until the slot
+        // is full, the table changes or parsing stops; bad rows must not affect the batch
+        final String table = "batched";
+        final String other = "batchedOther";
+        netMsgBufferSize.set(16 * 1024);
+        runInContext(() -> {
+            StringBuilder buffer = new StringBuilder();
+            StringSink expected = new StringSink();
+            expected.put("location\ttemperature\ttimestamp\n");
+            for (int i = 0; i < 100; i++) {
+                if (i % 10 == 5) {
+                    buffer.append(table).append(",location=bad temperature=\"x\" 1465839830100400200\n");
+                }
+                if (i % 25 == 0) {
+                    buffer.append(other).append(",location=us-west temperature=").append(i).append(" 1465839830100400200\n");
+                }
+                final long ts = 1465839830100400L + i;
+                buffer.append(table).append(",location=us-").append(i % 3).append(" temperature=").append(i).append(' ').append(ts * 1000).append('\n');
+                expected.put("us-").put(i % 3).put('\t').put(i).put(".0\t");
+                TimestampFormatUtils.appendDateTimeUSec(expected, ts);
+                expected.put('\n');
+            }
+            recvBuffer = buffer.toString();
+            do {
+                handleContextIO();
+                Assert.assertFalse(disconnected);
+            } while (recvBuffer.length() > 0);
+            closeContext();
+            assertTable(expected.toString(), table);
+            assertTable(
+                    "location\ttemperature\ttimestamp\n" +
+                            "us-west\t0.0\t2016-06-13T17:43:50.100400Z\n" +
+                            "us-west\t25.0\t2016-06-13T17:43:50.100400Z\n" +
+                            "us-west\t50.0\t2016-06-13T17:43:50.100400Z\n" +
+                            "us-west\t75.0\t2016-06-13T17:43:50.100400Z\n",
+                    other
+            );
+        });
+    }
+
     @Test
     public void testBooleans() throws Exception {
         String table = "badBooleans";
@@ -883,6 +883,26 @@ public class LineTcpInsertOtherTypesTest extends BaseLineTcpContextTest {
                 false);
     }
 
+    @Test
+    public void testInsertVarcharTableExists() throws Exception {
+        assertType(ColumnType.VARCHAR,
+                "value\ttimestamp\n" +
+                        "e\t1970-01-01T00:00:01.000000Z\n" +
+                        "xxx\t1970-01-01T00:00:02.000000Z\n" +
+                        "tt\"tt\t1970-01-01T00:00:05.000000Z\n" +
+                        "\t1970-01-01T00:00:07.000000Z\n",
+                new CharSequence[]{
+                        "\"e\"", // valid
+                        "\"xxx\"", // valid
+                        "\"paff", // discarded bad value
+                        "yyy", // discarded bad type symbol
+                        "\"tt\\\"tt\"", // valid
+                        "1i", // discarded bad type long
+                        "" // valid null
+                },
+                false);
+    }
+
     private void assertType(int columnType, String expected, CharSequence[] values, boolean isTag) throws Exception {
         runInContext(() -> {
             if (columnType != ColumnType.UNDEFINED) {
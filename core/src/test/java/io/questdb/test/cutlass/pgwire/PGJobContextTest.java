@@ -67,9 +67,9 @@ import org.postgresql.jdbc.PgResultSet;
 import org.postgresql.util.PGTimestamp;
 import org.postgresql.util.PSQLException;
 
-import java.io.IOException;
-import java.io.InputStream;
+import java.io.*;
 import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
 import java.sql.Date;
 import java.sql.*;
 import java.text.SimpleDateFormat;
@@ -2147,6 +2147,107 @@ if __name__ == "__main__":
         }
     }
 
+    @Test
+    public void testCopyToStdoutBinary() throws Exception {
+        assertWithPgServer(CONN_AWARE_ALL, (connection, binary) -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "create table x as (select x l, case when x % 3 = 0 then null else 'v' || x end s from long_sequence(5000))"
+            )) {
+                statement.execute();
+            }
+            mayDrainWalQueue();
+
+            final CopyManager copyManager = new CopyManager((BaseConnection) connection);
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            Assert.assertEquals(5000, copyManager.copyOut("COPY x TO STDOUT WITH (FORMAT binary)", out));
+
+            final DataInputStream in = new DataInputStream(new ByteArrayInputStream(out.toByteArray()));
+            final byte[] signature = new byte[11];
+            in.readFully(signature);
+            Assert.assertArrayEquals(new byte[]{'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xff, '\r', '\n', 0}, signature);
+            Assert.assertEquals(0, in.readInt()); // flags
+            Assert.assertEquals(0, in.readInt()); // header extension
+            for (int row = 1; row <= 5000; row++) {
+                Assert.assertEquals(2, in.readShort());
+                Assert.assertEquals(Long.BYTES, in.readInt());
+                Assert.assertEquals(row, in.readLong());
+                final int len = in.readInt();
+                if (row % 3 == 0) {
+                    Assert.assertEquals(-1, len);
+                } else {
+                    final byte[] value = new byte[len];
+                    in.readFully(value);
+                    Assert.assertEquals("v" + row, new String(value, StandardCharsets.UTF_8));
+                }
+            }
+            Assert.assertEquals(-1, in.readShort());
+            Assert.assertEquals(0, in.available());
+        });
+    }
+
+    @Test
+    public void testCopyToStdoutCsv() throws Exception {
+        assertWithPgServer(CONN_AWARE_ALL, (connection, binary) -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "create table x as (select x, timestamp_sequence(0, 1000000) ts from long_sequence(20000)) timestamp(ts) partition by DAY"
+            )) {
+                statement.execute();
+            }
+            mayDrainWalQueue();
+
+            final CopyManager copyManager = new CopyManager((BaseConnection) connection);
+            final StringWriter writer = new StringWriter();
+            final long rowCount = copyManager.copyOut(
+                    "COPY (select x, ts, case when x % 2 = 0 then 'a,\"b\"' when x % 3 = 0 then '' end s from x where x <= 3) TO STDOUT WITH (FORMAT csv, HEADER true)",
+                    writer
+            );
+            Assert.assertEquals(3, rowCount);
+            TestUtils.assertEquals(
+                    "x,ts,s\n" +
+                            "1,1970-01-01 00:00:00.000000,\n" +
+                            "2,1970-01-01 00:00:01.000000,\"a,\"\"b\"\"\"\n" +
+                            "3,1970-01-01 00:00:02.000000,\"\"\n",
+                    writer.toString()
+            );
+
+            // rows span many send buffers
+            final StringWriter all = new StringWriter();
+            Assert.assertEquals(20000, copyManager.copyOut("COPY x TO STDOUT WITH CSV", all));
+            final String[] lines = all.toString().split("\n");
+            Assert.assertEquals(20000, lines.length);
+            for (int i = 0; i < lines.length; i++) {
+                Assert.assertTrue(lines[i].startsWith((i + 1) + ","));
+            }
+        });
+    }
+
+    @Test
+    public void testCopyToStdoutText() throws Exception {
+        assertWithPgServer(CONN_AWARE_ALL, (connection, binary) -> {
+            final CopyManager copyManager = new CopyManager((BaseConnection) connection);
+            final StringWriter writer = new StringWriter();
+            Assert.assertEquals(
+                    2,
+                    copyManager.copyOut(
+                            "COPY (select x, null n, case when x = 1 then 'a\tb\\c' else null end s from long_sequence(2)) TO STDOUT",
+                            writer
+                    )
+            );
+            TestUtils.assertEquals(
+                    "1\t\\N\ta\\tb\\\\c\n" +
+                            "2\t\\N\t\\N\n",
+                    writer.toString()
+            );
+
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("COPY (select x from long_sequence(2)) TO 'out.csv'");
+                Assert.fail();
+            } catch (PSQLException e) {
+                TestUtils.assertContains(e.getMessage(), "query results can only be copied to STDOUT");
+            }
+        });
+    }
+
     @Test
     public void testCreateTableAsSelectExtendedPrepared() throws Exception {
         skipOnWalRun(); // non-partitioned table
@@ -2683,6 +2784,61 @@ if __name__ == "__main__":
         testFetchDisconnnectReleasesReader(query);
     }
 
+    @Test
+    public void testFetchFixedSizeColumns() throws Exception {
+        assertWithPgServer(CONN_AWARE_ALL, (connection, binary) -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "create table x as (" +
+                            "select" +
+                            " rnd_byte() b," +
+                            " rnd_short() sh," +
+                            " case when x % 5 = 0 then null else rnd_int() end i," +
+                            " case when x % 7 = 0 then null else x end l," +
+                            " case when x % 3 = 0 then null else rnd_float() end f," +
+                            " case when x % 4 = 0 then null else rnd_double() end d," +
+                            " rnd_boolean() bool," +
+                            " case when x % 6 = 0 then null else rnd_date(to_date('2015', 'yyyy'), to_date('2016', 'yyyy'), 0) end dt," +
+                            " case when x % 8 = 0 then null else rnd_uuid4() end u," +
+                            " timestamp_sequence(0, 1000000000) ts" +
+                            " from long_sequence(20000)" +
+                            ") timestamp(ts) partition by DAY")) {
+                statement.execute();
+            }
+            mayDrainWalQueue();
+
+            try (PreparedStatement statement = connection.prepareStatement("x limit 5")) {
+                sink.clear();
+                try (ResultSet rs = statement.executeQuery()) {
+                    assertResultSet(
+                            "b[SMALLINT],sh[SMALLINT],i[INTEGER],l[BIGINT],f[REAL],d[DOUBLE],bool[BIT],dt[TIMESTAMP],u[OTHER],ts[TIMESTAMP]\n" +
+                                    "76,24814,1548800833,1,0.130,0.08486964232560668,true,2015-08-20 05:05:25.021,797fa69e-b8fe-46cc-a8be-ef38cd7bb3d8,1970-01-01 00:00:00.0\n" +
+                                    "84,-4914,-1575378703,2,0.986,0.19202208853547864,false,2015-06-26 06:02:24.851,83881d41-7184-4cf3-ae60-a01a5b3ea0db,1970-01-01 00:16:40.0\n" +
+                                    "36,-21733,1125579207,3,null,0.4217768841969397,true,2015-06-22 18:58:53.562,61b1a0b0-a559-4515-b8b7-3d329210d277,1970-01-01 00:33:20.0\n" +
+                                    "112,-11679,1404198,4,0.709,null,false,2015-05-31 21:05:20.229,73dee145-497c-4436-9b98-32d4b5522a94,1970-01-01 00:50:00.0\n" +
+                                    "41,-19127,null,5,0.525,0.3288176907679504,false,2015-10-10 02:10:45.262,84a09f29-df63-4e38-a3eb-3740c80f661e,1970-01-01 01:06:40.0\n",
+                            sink,
+                            rs
+                    );
+                }
+            }
+
+            // rows span many send buffers
+            long count = 0;
+            long sum = 0;
+            try (PreparedStatement statement = connection.prepareStatement("select l from x")) {
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        count++;
+                        sum += rs.getLong(1);
+                    }
+                }
+            }
+            Assert.assertEquals(20000, count);
+            // sum of 1..20000 less the multiples of 7, which are null
+            Assert.assertEquals(20000L * 20001 / 2 - 7L * 2857 * 2858 / 2, sum);
+        });
+    }
+
     @Test
     public void testGORMConnect() throws Exception {
         skipOnWalRun(); // table not created
@@ -6697,7 +6853,12 @@ nodejs code:
                 sink.clear();
                 try (ResultSet rs = metaData.getIndexInfo("qdb", "public", "test", true, false)) {
                     assertResultSet(
-                            "",
+                            "b[SMALLINT],sh[SMALLINT],i[INTEGER],l[BIGINT],f[REAL],d[DOUBLE],bool[BIT],dt[TIMESTAMP],u[OTHER],ts[TIMESTAMP]\n" +
+                                    "76,24814,1548800833,1,0.130,0.08486964232560668,true,2015-08-20 05:05:25.021,797fa69e-b8fe-46cc-a8be-ef38cd7bb3d8,1970-01-01 00:00:00.0\n" +
+                                    "84,-4914,-1575378703,2,0.986,0.19202208853547864,false,2015-06-26 06:02:24.851,83881d41-7184-4cf3-ae60-a01a5b3ea0db,1970-01-01 00:16:40.0\n" +
+                                    "36,-21733,1125579207,3,null,0.4217768841969397,true,2015-06-22 18:58:53.562,61b1a0b0-a559-4515-b8b7-3d329210d277,1970-01-01 00:33:20.0\n" +
+                                    "112,-11679,1404198,4,0.709,null,false,2015-05-31 21:05:20.229,73dee145-497c-4436-9b98-32d4b5522a94,1970-01-01 00:50:00.0\n" +
+                                    "41,-19127,null,5,0.525,0.3288176907679504,false,2015-10-10 02:10:45.262,84a09f29-df63-4e38-a3eb-3740c80f661e,1970-01-01 01:06:40.0\n",
                             sink,
                             rs
                     );
@@ -755,6 +755,21 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return conf.getSqlSortValuePageSize();
     }
 
+    @Override
+    public long getSqlResultCacheMemoryLimit() {
+        return conf.getSqlResultCacheMemoryLimit();
+    }
+
+    @Override
+    public CharSequence getSqlSpillRoot() {
+        return conf.getSqlSpillRoot();
+    }
+
+    @Override
+    public long getSqlSpillThreshold() {
+        return conf.getSqlSpillThreshold();
+    }
+
     @Override
     public int getStrFunctionMaxBufferLength() {
         return conf.getStrFunctionMaxBufferLength();
@@ -805,6 +820,11 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return conf.getWalApplyLookAheadTransactionCount();
     }
 
+    @Override
+    public long getWalApplySquashMaxRows() {
+        return conf.getWalApplySquashMaxRows();
+    }
+
     @Override
     public long getWalApplyTableTimeQuota() {
         return conf.getWalApplyTableTimeQuota();
@@ -925,6 +945,36 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return conf.isSqlParallelFilterPreTouchEnabled();
     }
 
+    @Override
+    public boolean isSqlParallelGroupByEnabled() {
+        return conf.isSqlParallelGroupByEnabled();
+    }
+
+    @Override
+    public boolean isSqlParallelSampleByEnabled() {
+        return conf.isSqlParallelSampleByEnabled();
+    }
+
+    @Override
+    public boolean isSqlParallelHashJoinEnabled() {
+        return conf.isSqlParallelHashJoinEnabled();
+    }
+
+    @Override
+    public boolean isSqlProjectionCompilerEnabled() {
+        return conf.isSqlProjectionCompilerEnabled();
+    }
+
+    @Override
+    public boolean isSqlResultCacheEnabled() {
+        return conf.isSqlResultCacheEnabled();
+    }
+
+    @Override
+    public boolean isSqlZoneMapEnabled() {
+        return conf.isSqlZoneMapEnabled();
+    }
+
     @Override
     public boolean isTableTypeConversionEnabled() {
         return conf.isTableTypeConversionEnabled();
@@ -0,0 +1,293 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.test.griffin;
+
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.O3PartitionPurgeJob;
+import io.questdb.cairo.TableReader;
+import io.questdb.cairo.TableWriter;
+import io.questdb.griffin.SqlException;
+import io.questdb.std.Misc;
+import io.questdb.std.Zip;
+import io.questdb.test.AbstractGriffinTest;
+import io.questdb.test.tools.TestUtils;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class AlterTableCompressPartitionTest extends AbstractGriffinTest {
+
+    private static O3PartitionPurgeJob purgeJob;
+
+    @BeforeClass
+    public static void setUpStatic() {
+        AbstractGriffinTest.setUpStatic();
+        // codec uses zlib, static init of Zip allocates memory
+        Zip.init();
+        purgeJob = new O3PartitionPurgeJob(engine.getMessageBus(), 1);
+    }
+
+    @AfterClass
+    public static void tearDownStatic() {
+        purgeJob = Misc.free(purgeJob);
+        AbstractGriffinTest.tearDownStatic();
+    }
+
+    @Test
+    public void testCannotCompressActivePartition() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables();
+            try {
+                compressPartition("list '2022-02-28'");
+                Assert.fail();
+            } catch (CairoException e) {
+                Assert.assertEquals(38, e.getPosition());
+                TestUtils.assertContains(e.getFlyweightMessage(), "cannot compress active partition");
+            }
+        });
+    }
+
+    @Test
+    public void testCannotDetachCompressedPartition() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables();
+            compressPartition("list '2022-02-24'");
+            try {
+                compile("alter table x detach partition list '2022-02-24'", sqlExecutionContext);
+                Assert.fail();
+            } catch (CairoException e) {
+                TestUtils.assertContains(e.getFlyweightMessage(), "DETACH_ERR_COMPRESSED");
+            }
+        });
+    }
+
+    @Test
+    public void testCannotDropActivePartitionAfterCompressedPartition() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables();
+            compressPartition("list '2022-02-27'");
+            try {
+                compile("alter table x drop partition list '2022-02-28'", sqlExecutionContext);
+                Assert.fail();
+            } catch (CairoException e) {
+                TestUtils.assertContains(e.getFlyweightMessage(), "could not remove partition");
+            }
+            assertSql("select count() from x", "count\n1000\n");
+        });
+    }
+
+    @Test
+    public void testCannotInsertO3RowsIntoCompressedPartition() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables();
+            compressPartition("list '2022-02-24'");
+            try {
+                // rows for the active partition in the same commit are rejected too
+                compile("insert into x select * from y where ts in '2022-02-24' or ts > '2022-02-28T23'", sqlExecutionContext);
+                Assert.fail();
+            } catch (CairoException e) {
+                TestUtils.assertContains(e.getFlyweightMessage(), "cannot insert rows into compressed partition [table=x, partition=2022-02-24T00:00:00.000Z]");
+            }
+            assertTablesEqual();
+
+            // the writer is still usable after the failed commit
+            compile("insert into x select * from y where ts in '2022-02-25' limit 1", sqlExecutionContext);
+            compile("insert into y select * from y where ts in '2022-02-25' limit 1", sqlExecutionContext);
+            assertTablesEqual();
+        });
+    }
+
+    @Test
+    public void testCompressPartitionList() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables();
+            compressPartition("list '2022-02-24', '2022-02-25'");
+            assertCompressed("x", true, true, false, false, false);
+            assertTablesEqual();
+
+            // compressing the same partition again is a no-op
+            compressPartition("list '2022-02-24'");
+            assertTablesEqual();
+
+            // writes to the active partition are not affected
+            compile("insert into x select * from y where ts > '2022-02-28'", sqlExecutionContext);
+            compile("insert into y select * from y where ts > '2022-02-28'", sqlExecutionContext);
+            assertTablesEqual();
+        });
+    }
+
+    @Test
+    public void testCompressPartitionWhere() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables();
+            compressPartition("where ts < '2022-02-28'");
+            assertCompressed("x", true, true, true, true, false);
+            assertTablesEqual();
+            TestUtils.assertSqlCursors(
+                    compiler,
+                    sqlExecutionContext,
+                    "select sym, count(), sum(i), min(ts), max(ts) from y where sym = 'b' and ts in '2022-02-25'",
+                    "select sym, count(), sum(i), min(ts), max(ts) from x where sym = 'b' and ts in '2022-02-25'",
+                    LOG
+            );
+        });
+    }
+
+    @Test
+    public void testCompressedPartitionIsNotUpdated() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables();
+            compressPartition("list '2022-02-24'");
+            try (TableWriter writer = getWriter("x")) {
+                Assert.assertTrue(writer.isPartitionReadOnly(0));
+                Assert.assertTrue(writer.isPartitionCompressed(0));
+                Assert.assertFalse(writer.isPartitionCompressed(1));
+            }
+            try {
+                compile("update x set i = 0 where ts in '2022-02-24'", sqlExecutionContext).execute(null).await();
+                Assert.fail();
+            } catch (CairoException e) {
+                TestUtils.assertContains(e.getFlyweightMessage(), "cannot update read-only partition");
+            }
+        });
+    }
+
+    @Test
+    public void testIndexCompressedPartition() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables();
+            compressPartition("list '2022-02-24', '2022-02-25'");
+            compile("alter table x alter column sym2 add index", sqlExecutionContext);
+            compile("alter table y alter column sym2 add index", sqlExecutionContext);
+            TestUtils.assertSqlCursors(compiler, sqlExecutionContext, "y where sym2 = 'd'", "x where sym2 = 'd'", LOG);
+        });
+    }
+
+    @Test
+    public void testIntervalScanOverCompressedBlocks() throws Exception {
+        assertMemoryLeak(() -> {
+            // several codec blocks per column in each partition
+            compile("create table x as (select rnd_symbol('a','b','c') sym, x i, rnd_double() d, timestamp_sequence('2022-02-24', 2000000L) ts from long_sequence(150000)) timestamp(ts) partition by DAY", sqlExecutionContext);
+            compile("create table y as (select * from x) timestamp(ts) partition by DAY", sqlExecutionContext);
+            compressPartition("list '2022-02-24', '2022-02-25'");
+            assertCompressed("x", true, true, false, false);
+            final String[] queries = {
+                    "select count(), sum(i), sum(d) from %s where ts in '2022-02-24T10;3h'",
+                    "select count(), sum(i), min(ts), max(ts) from %s where ts between '2022-02-24T23:59:59' and '2022-02-25T12:00:01.000001'",
+                    "select * from %s where ts in '2022-02-25T07:13:20' and sym = 'b'",
+                    "select * from %s where ts > '2022-02-25T23:00' limit 10",
+                    "select sym, count(), avg(d) from %s order by sym"
+            };
+            for (String query : queries) {
+                TestUtils.assertSqlCursors(compiler, sqlExecutionContext, String.format(query, "y"), String.format(query, "x"), LOG);
+            }
+        });
+    }
+
+    @Test
+    public void testNotPartitioned() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table z as (select x, timestamp_sequence(0, 1000000) ts from long_sequence(10)) timestamp(ts)", sqlExecutionContext);
+            try {
+                compile("alter table z compress partition list '1970-01-01'", sqlExecutionContext);
+                Assert.fail();
+            } catch (SqlException e) {
+                Assert.assertEquals(23, e.getPosition());
+                TestUtils.assertContains(e.getFlyweightMessage(), "table is not partitioned");
+            }
+        });
+    }
+
+    @Test
+    public void testReindexCompressedPartition() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables();
+            compressPartition("list '2022-02-24', '2022-02-25'");
+            engine.releaseAllWriters();
+            compile("reindex table x column sym lock exclusive", sqlExecutionContext);
+            compile("reindex table x column sym partition '2022-02-24' lock exclusive", sqlExecutionContext);
+            assertCompressed("x", true, true, false, false, false);
+            assertTablesEqual();
+            TestUtils.assertSqlCursors(
+                    compiler,
+                    sqlExecutionContext,
+                    "select sym, count(), sum(i) from y where sym = 'a' and ts in '2022-02-24'",
+                    "select sym, count(), sum(i) from x where sym = 'a' and ts in '2022-02-24'",
+                    LOG
+            );
+        });
+    }
+
+    private void assertCompressed(String tableName, boolean... expected) {
+        try (TableReader reader = getReader(tableName)) {
+            Assert.assertEquals(expected.length, reader.getTxFile().getPartitionCount());
+            for (int i = 0; i < expected.length; i++) {
+                Assert.assertEquals(expected[i], reader.getTxFile().isPartitionCompressed(i));
+            }
+        }
+    }
+
+    private void assertTablesEqual() throws SqlException {
+        TestUtils.assertSqlCursors(compiler, sqlExecutionContext, "y", "x", LOG);
+        TestUtils.assertSqlCursors(compiler, sqlExecutionContext, "y where sym = 'c'", "x where sym = 'c'", LOG);
+        TestUtils.assertSqlCursors(
+                compiler,
+                sqlExecutionContext,
+                "select sym, count(), sum(i), avg(d), min(ts), max(ts) from y order by sym",
+                "select sym, count(), sum(i), avg(d), min(ts), max(ts) from x order by sym",
+                LOG
+        );
+    }
+
+    private void compressPartition(String partitions) throws SqlException {
+        compile("alter table x compress partition " + partitions, sqlExecutionContext);
+        // pooled readers keep the uncompressed partition files open,
+        // release them so that purge job can remove the old partition version
+        engine.releaseInactive();
+        purgeJob.drain(0);
+    }
+
+    private void createTables() throws SqlException {
+        compile(
+                "create table x as (" +
+                        "select" +
+                        " rnd_symbol('a','b','c') sym," +
+                        " rnd_symbol('d','e') sym2," +
+                        " x i," +
+                        " rnd_double() d," +
+                        " rnd_str(5, 10, 1) s," +
+                        " rnd_boolean() b," +
+                        " rnd_long256() l256," +
+                        " rnd_uuid4() u," +
+                        " timestamp_sequence('2022-02-24', 60000000L * 6) ts" +
+                        " from long_sequence(1000)" +
+                        "), index(sym) timestamp(ts) partition by DAY",
+                sqlExecutionContext
+        );
+        compile("create table y as (select * from x), index(sym) timestamp(ts) partition by DAY", sqlExecutionContext);
+    }
+}
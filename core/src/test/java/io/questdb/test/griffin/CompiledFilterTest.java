@@ -178,6 +178,56 @@ public class CompiledFilterTest extends AbstractGriffinTest {
         });
     }
 
+    @Test
+    public void testDeferredSymbolInList() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table x as (select" +
+                    " timestamp_sequence(400000000000, 500000000) ts," +
+                    " x l," +
+                    " rnd_symbol('A','B','C') sym" +
+                    " from long_sequence(5)) timestamp(ts)", sqlExecutionContext);
+
+            final String query = "select sym, l, ts from x where sym in ('B', 'D', 'F', null) and l > 1";
+            final String expected = "sym\tl\tts\n" +
+                    "B\t3\t1970-01-05T15:23:20.000000Z\n";
+
+            assertSql(query, expected);
+            assertSqlRunWithJit(query);
+
+            compiler.compile("insert into x select " +
+                    " timestamp_sequence(500000000000, 500000000) ts," +
+                    " (x+5) l," +
+                    " rnd_symbol('D','E','F', null) sym " +
+                    "from long_sequence(5)", sqlExecutionContext);
+
+            final String expected2 = "sym\tl\tts\n" +
+                    "B\t3\t1970-01-05T15:23:20.000000Z\n" +
+                    "\t6\t1970-01-06T18:53:20.000000Z\n" +
+                    "F\t7\t1970-01-06T19:01:40.000000Z\n" +
+                    "\t8\t1970-01-06T19:10:00.000000Z\n" +
+                    "F\t9\t1970-01-06T19:18:20.000000Z\n" +
+                    "D\t10\t1970-01-06T19:26:40.000000Z\n";
+
+            assertSql(query, expected2);
+            assertSqlRunWithJit(query);
+
+            final String notInQuery = "select sym, l from x where not sym in ('A', 'B', 'C', 'E')";
+            final String expected3 = "sym\tl\n" +
+                    "\t6\n" +
+                    "F\t7\n" +
+                    "\t8\n" +
+                    "F\t9\n" +
+                    "D\t10\n";
+            assertSql(notInQuery, expected3);
+            assertSqlRunWithJit(notInQuery);
+
+            // the interpreted filter must agree
+            sqlExecutionContext.setJitMode(SqlJitMode.JIT_MODE_DISABLED);
+            assertSql(query, expected2);
+            assertSql(notInQuery, expected3);
+        });
+    }
+
     @Test
     public void testIndexBindVariableReplacedContext() throws Exception {
         assertMemoryLeak(() -> {
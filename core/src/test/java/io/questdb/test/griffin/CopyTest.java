@@ -188,6 +188,36 @@ public class CopyTest extends AbstractGriffinTest {
         });
     }
 
+    @Test
+    public void testCopyToStdoutOptions() throws SqlException {
+        CopyModel model = (CopyModel) compiler.testCompileModel("copy y to stdout;", sqlExecutionContext);
+        assertTrue(model.isStdout());
+        assertEquals(CopyModel.COPY_FORMAT_TEXT, model.getFormat());
+        assertFalse(model.isHeader());
+
+        model = (CopyModel) compiler.testCompileModel("copy (select * from y) to STDOUT with (format csv, header true)", sqlExecutionContext);
+        assertTrue(model.isStdout());
+        assertEquals(CopyModel.COPY_FORMAT_CSV, model.getFormat());
+        assertTrue(model.isHeader());
+
+        model = (CopyModel) compiler.testCompileModel("copy y to stdout with csv header", sqlExecutionContext);
+        assertEquals(CopyModel.COPY_FORMAT_CSV, model.getFormat());
+        assertTrue(model.isHeader());
+
+        model = (CopyModel) compiler.testCompileModel("copy y to stdout (format binary)", sqlExecutionContext);
+        assertEquals(CopyModel.COPY_FORMAT_BINARY, model.getFormat());
+    }
+
+    @Test
+    public void testCopyToStdoutUnknownFormat() throws Exception {
+        assertMemoryLeak(() -> assertFailure(
+                "copy x to stdout with (format parquet)",
+                null,
+                30,
+                "'text', 'csv' or 'binary' expected"
+        ));
+    }
+
     @Test
     public void testDefaultCopyOptions() throws SqlException {
         CopyModel model = (CopyModel) compiler.testCompileModel("copy y from 'somefile.csv';", sqlExecutionContext);
@@ -398,7 +398,7 @@ public class GroupByTest extends AbstractGriffinTest {
                     "order by ordr.date_report";
 
             assertPlan(query,
-                    "Sort light\n" +
+                    "Radix sort light\n" +
                             "  keys: [date_report]\n" +
                             "    GroupBy vectorized: false\n" +
                             "      keys: [date_report]\n" +
@@ -422,7 +422,7 @@ public class GroupByTest extends AbstractGriffinTest {
                     "group by date_report " +//no alias used here
                     "order by ordr.date_report";
             assertPlan(query,
-                    "Sort light\n" +
+                    "Radix sort light\n" +
                             "  keys: [date_report]\n" +
                             "    GroupBy vectorized: false\n" +
                             "      keys: [date_report]\n" +
@@ -447,7 +447,7 @@ public class GroupByTest extends AbstractGriffinTest {
                     "order by ordr.date_report";
 
             assertPlan(query,
-                    "Sort light\n" +
+                    "Radix sort light\n" +
                             "  keys: [date_report]\n" +
                             "    GroupBy vectorized: false\n" +
                             "      keys: [date_report]\n" +
@@ -471,7 +471,7 @@ public class GroupByTest extends AbstractGriffinTest {
                     "group by date_report, ordr.date_report " +
                     "order by ordr.date_report";
             assertPlan(query,
-                    "Sort light\n" +
+                    "Radix sort light\n" +
                             "  keys: [date_report]\n" +
                             "    VirtualRecord\n" +
                             "      functions: [date_report,date_report,count]\n" +
@@ -498,7 +498,7 @@ public class GroupByTest extends AbstractGriffinTest {
                     "group by dateadd('d', -1, date_report), ordr.date_report " +
                     "order by ordr.date_report";
             assertPlan(query,
-                    "Sort light\n" +
+                    "Radix sort light\n" +
                             "  keys: [date_report]\n" +
                             "    VirtualRecord\n" +
                             "      functions: [date_report,dateadd,dateadd('d',1,date_report),concat(['1',date_report,'3']),count]\n" +
@@ -528,7 +528,7 @@ public class GroupByTest extends AbstractGriffinTest {
                     "order by ordr.date_report";
 
             assertPlan(query,
-                    "Sort light\n" +
+                    "Radix sort light\n" +
                             "  keys: [date_report]\n" +
                             "    VirtualRecord\n" +
                             "      functions: [date_report,to_str(date_report),dateadd('d',1,date_report),dateadd('d',-1,date_report),count]\n" +
@@ -563,7 +563,7 @@ public class GroupByTest extends AbstractGriffinTest {
                     "order by details.date_report";
 
             assertPlan(query,
-                    "Sort light\n" +
+                    "Radix sort light\n" +
                             "  keys: [date_report]\n" +
                             "    VirtualRecord\n" +
                             "      functions: [date_report,to_str(date_report),dateadd('d',1,date_report),min,count,minminusday]\n" +
@@ -0,0 +1,195 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.test.griffin;
+
+import io.questdb.cairo.CairoException;
+import io.questdb.std.str.StringSink;
+import io.questdb.test.AbstractGriffinTest;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HashIndexTest extends AbstractGriffinTest {
+
+    @Test
+    public void testAddIndexToColumnWithTop() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables("");
+            compile("alter table x add column l2 long");
+            compile("alter table y add column l2 long");
+            final String insert = " select x % 7, x % 100, null, cast(x * 10000000 + 5000000 as timestamp), x % 5 from long_sequence(3000)";
+            compile("insert into x" + insert);
+            compile("insert into y" + insert);
+            compile("alter table x alter column l2 add index");
+
+            assertIndexMatchesScan("l2 = 3", 600);
+            // column top rows are NULLs, they are returned by the index as well
+            assertIndexMatchesScan("l2 = cast(null as long)", 10000);
+        });
+    }
+
+    @Test
+    public void testBindVariable() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables(", index(l)");
+            bindVariableService.clear();
+            bindVariableService.setLong(0, 42);
+            final StringSink expected = new StringSink();
+            TestUtils.printSql(compiler, sqlExecutionContext, "y where l = $1", expected);
+            TestUtils.assertSql(compiler, sqlExecutionContext, "x where l = $1", sink, expected);
+
+            bindVariableService.setLong(0, 43);
+            TestUtils.printSql(compiler, sqlExecutionContext, "y where l = $1", expected);
+            TestUtils.assertSql(compiler, sqlExecutionContext, "x where l = $1", sink, expected);
+        });
+    }
+
+    @Test
+    public void testCannotIndexDouble() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table x as (select rnd_double() d, timestamp_sequence(0, 1000000) ts from long_sequence(10)) timestamp(ts)");
+            try {
+                compile("alter table x alter column d add index");
+                Assert.fail();
+            } catch (CairoException e) {
+                TestUtils.assertContains(e.getFlyweightMessage(), "cannot create index for [column='d, type=DOUBLE");
+            }
+        });
+    }
+
+    @Test
+    public void testEqualsInt() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables(", index(i)");
+            assertIndexMatchesScan("i = 17", 100);
+            assertIndexMatchesScan("17 = i and l < 500", 50);
+        });
+    }
+
+    @Test
+    public void testEqualsLong() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables(", index(l)");
+            assertPlan(
+                    "x where l = 42 and i > 10",
+                    "DataFrame\n" +
+                            "    Index forward scan on: l\n" +
+                            "      hash: l=42\n" +
+                            "      filter: (l=42 and 10<i)\n" +
+                            "    Frame forward scan on: x\n"
+            );
+            assertIndexMatchesScan("l = 42 and i > 10", 10);
+            assertIndexMatchesScan("l = 1234567", 0);
+            assertIndexMatchesScan("l = 42 and ts in '1970-01-01T01'", 4);
+        });
+    }
+
+    @Test
+    public void testInList() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables(", index(l)");
+            assertPlan(
+                    "x where l in (1, 5, 5, 700)",
+                    "DataFrame\n" +
+                            "    Table-order scan\n" +
+                            "        Index forward scan on: l\n" +
+                            "          hash: l=700\n" +
+                            "          filter: l in [1,5,5,700]\n" +
+                            "        Index forward scan on: l\n" +
+                            "          hash: l=5\n" +
+                            "          filter: l in [1,5,5,700]\n" +
+                            "        Index forward scan on: l\n" +
+                            "          hash: l=1\n" +
+                            "          filter: l in [1,5,5,700]\n" +
+                            "    Frame forward scan on: x\n"
+            );
+            assertIndexMatchesScan("l in (1, 5, 5, 700)", 30);
+            assertIndexMatchesScan("l in (3)", 10);
+        });
+    }
+
+    @Test
+    public void testIndexMaintainedOnAppendAndO3() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables(", index(l), index(u)");
+            final String insert = " select" +
+                    " x % 10," +
+                    " x % 100," +
+                    " cast(concat('11111111-1111-1111-1111-11111111111', x % 10) as uuid)," +
+                    " cast(x * 7000000 as timestamp)" +
+                    " from long_sequence(5000)";
+            // out-of-order rows are merged into existing partitions
+            compile("insert into x" + insert);
+            compile("insert into y" + insert);
+
+            assertIndexMatchesScan("l = 4", 510);
+            assertIndexMatchesScan("u = '11111111-1111-1111-1111-111111111114'", 1500);
+        });
+    }
+
+    @Test
+    public void testOrderByTimestampDesc() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables(", index(i)");
+            final StringSink expected = new StringSink();
+            TestUtils.printSql(compiler, sqlExecutionContext, "y where i = 3 order by ts desc", expected);
+            TestUtils.assertSql(compiler, sqlExecutionContext, "x where i = 3 order by ts desc", sink, expected);
+        });
+    }
+
+    @Test
+    public void testUuid() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables(", index(u)");
+            assertIndexMatchesScan("u = '11111111-1111-1111-1111-111111111113'", 1000);
+            assertIndexMatchesScan("u in ('11111111-1111-1111-1111-111111111113', '11111111-1111-1111-1111-111111111117')", 2000);
+        });
+    }
+
+    private void assertIndexMatchesScan(String filter, int expectedRowCount) throws Exception {
+        final StringSink expected = new StringSink();
+        TestUtils.printSql(compiler, sqlExecutionContext, "y where " + filter, expected);
+        TestUtils.assertSql(compiler, sqlExecutionContext, "x where " + filter, sink, expected);
+        TestUtils.assertSql(
+                compiler,
+                sqlExecutionContext,
+                "select count() from x where " + filter,
+                sink,
+                "count\n" + expectedRowCount + "\n"
+        );
+    }
+
+    private void createTables(String indexes) throws Exception {
+        final String query = "(select" +
+                " x % 1000 l," +
+                " cast(x % 100 as int) i," +
+                " cast(concat('11111111-1111-1111-1111-11111111111', x % 10) as uuid) u," +
+                " timestamp_sequence(0, 1000000) ts" +
+                " from long_sequence(10000))";
+        compile("create table x as " + query + indexes + " timestamp(ts) partition by hour");
+        compile("create table y as " + query + " timestamp(ts) partition by hour");
+    }
+}
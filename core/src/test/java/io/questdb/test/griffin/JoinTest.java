@@ -37,6 +37,7 @@ import io.questdb.std.Misc;
 import io.questdb.test.std.TestFilesFacadeImpl;
 import io.questdb.std.datetime.microtime.TimestampFormatUtils;
 import io.questdb.std.str.LPSZ;
+import io.questdb.std.str.StringSink;
 import io.questdb.test.AbstractGriffinTest;
 import io.questdb.test.tools.TestUtils;
 import org.junit.Assert;
@@ -2159,6 +2160,26 @@ public class JoinTest extends AbstractGriffinTest {
         testJoinForCursorLeaks("with crj as (select first(x) x, first(ts) ts from xx latest by x) select xx.x from xx join crj on xx.x = crj.x ");
     }
 
+    @Test
+    public void testHashJoinSpillToDisk() throws Exception {
+        testFullFat(() -> assertMemoryLeak(() -> {
+            compiler.compile("create table x as (select cast(x as int) c, rnd_str(5, 10, 2) s from long_sequence(5000))", sqlExecutionContext);
+            compiler.compile("create table y as (select cast(x % 2500 as int) m, rnd_int() b, rnd_str(5, 10, 2) t from long_sequence(10000))", sqlExecutionContext);
+
+            final String query = "select x.s, y.t, b from x join y on y.m = x.c order by b";
+            final StringSink expected = new StringSink();
+            TestUtils.printSql(compiler, sqlExecutionContext, query, expected);
+            final String groupByQuery = "select s, count(), max(b) from (x join y on y.m = x.c) order by s";
+            final StringSink expectedGroupBy = new StringSink();
+            TestUtils.printSql(compiler, sqlExecutionContext, groupByQuery, expectedGroupBy);
+
+            // tiny threshold makes the join chain, the sort chain and the map spill to disk
+            configOverrideSqlSpillThreshold(16 * 1024);
+            TestUtils.assertSql(compiler, sqlExecutionContext, query, sink, expected);
+            TestUtils.assertSql(compiler, sqlExecutionContext, groupByQuery, sink, expectedGroupBy);
+        }));
+    }
+
     @Test
     public void testJoinAliasBug() throws Exception {
         assertMemoryLeak(() -> {
@@ -0,0 +1,214 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.test.griffin;
+
+import io.questdb.cairo.TableReader;
+import io.questdb.test.AbstractGriffinTest;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MatViewTest extends AbstractGriffinTest {
+
+    private static final String VIEW_QUERY = "select ts, sym, sum(price) s, count() c from base sample by 1h align to calendar";
+
+    @Test
+    public void testBaseTableMustBePartitioned() throws Exception {
+        assertFailure(
+                "create materialized view v as (select ts, sum(price) from base sample by 1h align to calendar)",
+                "create table base (price double, ts timestamp) timestamp(ts)",
+                25,
+                "materialized view base table must be partitioned"
+        );
+    }
+
+    @Test
+    public void testCreate() throws Exception {
+        assertMemoryLeak(() -> {
+            createBase();
+            createView();
+            assertView();
+            try (TableReader reader = getReader("v")) {
+                Assert.assertEquals(3, reader.getPartitionCount());
+            }
+        });
+    }
+
+    @Test
+    public void testFillNotSupported() throws Exception {
+        assertFailure(
+                "create materialized view v as (select ts, sum(price) from base sample by 1h fill(null) align to calendar)",
+                "create table base (price double, ts timestamp) timestamp(ts) partition by day",
+                73,
+                "FILL is not supported in materialized view"
+        );
+    }
+
+    @Test
+    public void testIntervalMustDivideDay() throws Exception {
+        assertFailure(
+                "create materialized view v as (select ts, sum(price) from base sample by 7h align to calendar)",
+                "create table base (price double, ts timestamp) timestamp(ts) partition by day",
+                73,
+                "materialized view sample interval must divide a day"
+        );
+    }
+
+    @Test
+    public void testQueryMustSampleBy() throws Exception {
+        assertFailure(
+                "create materialized view v as (select ts, price from base)",
+                "create table base (price double, ts timestamp) timestamp(ts) partition by day",
+                31,
+                "materialized view query must be a SAMPLE BY query"
+        );
+    }
+
+    @Test
+    public void testRefreshAfterAppend() throws Exception {
+        assertMemoryLeak(() -> {
+            createBase();
+            createView();
+            insertMarker("2023-01-01T00:00:00.000000Z");
+            insertMarker("2023-01-03T00:00:00.000000Z");
+
+            compile("insert into base select rnd_symbol('a','b','c'), rnd_double(), timestamp_sequence('2023-01-03T19:00:00', 600000000L) from long_sequence(50)");
+            refreshView();
+
+            // only the days starting with the latest base partition are re-aggregated
+            assertSql("select ts from v where sym = 'marker'", "ts\n2023-01-01T00:00:00.000000Z\n");
+        });
+    }
+
+    @Test
+    public void testRefreshAfterDropPartition() throws Exception {
+        assertMemoryLeak(() -> {
+            createBase();
+            createView();
+            compile("alter table base drop partition list '2023-01-03'");
+            refreshView();
+            assertView();
+            assertSql("select count() from v where ts >= '2023-01-03'", "count\n0\n");
+        });
+    }
+
+    @Test
+    public void testRefreshAfterOutOfOrderInsert() throws Exception {
+        assertMemoryLeak(() -> {
+            createBase();
+            createView();
+            insertMarker("2023-01-01T00:00:00.000000Z");
+            insertMarker("2023-01-02T00:00:00.000000Z");
+
+            compile("insert into base select rnd_symbol('a','b','c'), rnd_double(), timestamp_sequence('2023-01-02T05:30:00', 60000000L) from long_sequence(20)");
+            refreshView();
+            assertSql("select ts from v where sym = 'marker'", "ts\n2023-01-01T00:00:00.000000Z\n");
+        });
+    }
+
+    @Test
+    public void testRefreshNoop() throws Exception {
+        assertMemoryLeak(() -> {
+            createBase();
+            createView();
+            insertMarker("2023-01-03T00:00:00.000000Z");
+            refreshView();
+            // base table did not change, the view is left untouched
+            assertSql("select ts from v where sym = 'marker'", "ts\n2023-01-03T00:00:00.000000Z\n");
+        });
+    }
+
+    @Test
+    public void testRefreshNotMatView() throws Exception {
+        assertFailure(
+                "refresh materialized view base",
+                "create table base (price double, ts timestamp) timestamp(ts) partition by day",
+                26,
+                "materialized view expected [table=base]"
+        );
+    }
+
+    @Test
+    public void testRefreshSequence() throws Exception {
+        assertMemoryLeak(() -> {
+            createBase();
+            createView();
+            for (int i = 0; i < 3; i++) {
+                compile("insert into base select rnd_symbol('a','b','d'), rnd_double(), timestamp_sequence(dateadd('h', " + (i * 7) + ", '2023-01-02T01:00:00'), 300000000L) from long_sequence(100)");
+                refreshView();
+                assertView();
+            }
+        });
+    }
+
+    @Test
+    public void testTimeZoneNotSupported() throws Exception {
+        assertFailure(
+                "create materialized view v as (select ts, sum(price) from base sample by 1h align to calendar time zone 'Europe/London')",
+                "create table base (price double, ts timestamp) timestamp(ts) partition by day",
+                73,
+                "materialized view requires ALIGN TO CALENDAR without time zone or offset"
+        );
+    }
+
+    @Test
+    public void testViewRequiresCalendarAlignment() throws Exception {
+        assertFailure(
+                "create materialized view v as (select ts, sum(price) from base sample by 1h)",
+                "create table base (price double, ts timestamp) timestamp(ts) partition by day",
+                73,
+                "materialized view requires ALIGN TO CALENDAR without time zone or offset"
+        );
+    }
+
+    private void assertView() throws Exception {
+        TestUtils.assertSqlCursors(
+                compiler,
+                sqlExecutionContext,
+                "select * from (" + VIEW_QUERY + ") order by ts, sym",
+                "select * from v order by ts, sym",
+                LOG
+        );
+    }
+
+    private void createBase() throws Exception {
+        compile("create table base as (" +
+                "select rnd_symbol('a','b','c') sym, rnd_double() price, timestamp_sequence('2023-01-01', 600000000L) ts from long_sequence(400)" +
+                ") timestamp(ts) partition by day");
+    }
+
+    private void createView() throws Exception {
+        compile("create materialized view v as (" + VIEW_QUERY + ")");
+    }
+
+    private void insertMarker(String timestamp) throws Exception {
+        compile("insert into v values ('" + timestamp + "', 'marker', 0.0, 0)");
+    }
+
+    private void refreshView() throws Exception {
+        compile("refresh materialized view v");
+    }
+}
@@ -418,10 +418,10 @@ public class OrderByWithFilterTest extends AbstractGriffinTest {
                     "order by a.mta_tax;";
 
             assertPlan(query, "SelectedRecord\n" +
-                    "    Sort light\n" +
+                    "    Radix sort light\n" +
                     "      keys: [mta_tax]\n" +
                     "        SelectedRecord\n" +
-                    "            Async Filter\n" +
+                    "            Async JIT Filter\n" +
                     "              filter: vendor_id in [A1,A2]\n" +
                     "              workers: 1\n" +
                     "                DataFrame\n" +
@@ -473,7 +473,7 @@ public class OrderByWithFilterTest extends AbstractGriffinTest {
                     "                    Interval forward scan on: t1\n" +
                     "                      intervals: [static=[1561852800000000,9223372036854775807]\n" +
                     "                Hash\n" +
-                    "                    Async Filter\n" +
+                    "                    Async JIT Filter\n" +
                     "                      filter: vendor_id in [A1,A2]\n" +
                     "                      workers: 1\n" +
                     "                        DataFrame\n" +
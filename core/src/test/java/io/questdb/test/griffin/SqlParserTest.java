@@ -1231,6 +1231,41 @@ public class SqlParserTest extends AbstractSqlParserTest {
         );
     }
 
+    @Test
+    public void testCreateTableDedupKeys() throws SqlException {
+        assertCreateTable(
+                "create table x (a INT, s SYMBOL capacity 128 cache, ts TIMESTAMP) timestamp(ts) partition by day wal dedup upsert keys(s,ts)",
+                "create table x (a int, s symbol, ts timestamp) timestamp(ts) partition by day wal dedup upsert keys(ts, s)"
+        );
+    }
+
+    @Test
+    public void testCreateTableDedupKeysBypassWal() throws Exception {
+        assertSyntaxError(
+                "create table x (a int, ts timestamp) timestamp(ts) partition by day bypass wal dedup upsert keys(ts)",
+                79,
+                "deduplication is possible only on WAL tables"
+        );
+    }
+
+    @Test
+    public void testCreateTableDedupKeysInvalidColumn() throws Exception {
+        assertSyntaxError(
+                "create table x (a int, ts timestamp) timestamp(ts) partition by day wal dedup upsert keys(ts, b)",
+                94,
+                "Invalid column"
+        );
+    }
+
+    @Test
+    public void testCreateTableDedupKeysWithoutTimestamp() throws Exception {
+        assertSyntaxError(
+                "create table x (a int, ts timestamp) timestamp(ts) partition by day wal dedup upsert keys(a)",
+                85,
+                "deduplicate key list must include designated timestamp column"
+        );
+    }
+
     @Test
     public void testCreateTableDuplicateCast() throws Exception {
         assertSyntaxError(
@@ -1684,7 +1719,7 @@ public class SqlParserTest extends AbstractSqlParserTest {
                         "TIMESTAMP(t) " +
                         "PARTITION BY YEAR",
                 60,
-                "indexes are supported only for SYMBOL columns: b"
+                "indexes are supported only for SYMBOL, INT, LONG and UUID columns: b"
         );
     }
 
@@ -5106,7 +5141,7 @@ public class SqlParserTest extends AbstractSqlParserTest {
     @Test
     public void testNonAnalyticFunctionInAnalyticContext() throws Exception {
         assertFailure(
-                "select avg(price) over (partition by symbol) from trades",
+                "select ksum(price) over (partition by symbol) from trades",
                 "create table trades " +
                         "(" +
                         " price double," +
@@ -7599,7 +7634,7 @@ public class SqlParserTest extends AbstractSqlParserTest {
     @Test
     public void testTooManyArgumentsInAnalyticFunction() throws Exception {
         assertFailure(
-                "select row_number(1,2,3) over (partition by symbol) from trades",
+                "select row_number(1,2,3,4) over (partition by symbol) from trades",
                 "create table trades " +
                         "(" +
                         " price double," +
@@ -0,0 +1,137 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.test.griffin;
+
+import io.questdb.std.str.StringSink;
+import io.questdb.test.AbstractGriffinTest;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Test;
+
+public class SymbolIndexIntersectTest extends AbstractGriffinTest {
+
+    @Test
+    public void testColumnTop() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables();
+            compile("alter table x add column s4 symbol index");
+            compile("alter table y add column s4 symbol");
+            final String insert = " select" +
+                    " cast(concat('a', x % 3) as symbol)," +
+                    " cast(concat('b', x % 7) as symbol)," +
+                    " cast(concat('c', x % 5) as symbol)," +
+                    " x," +
+                    " cast(10000000000 + x * 1000000 as timestamp)," +
+                    " cast(concat('d', x % 4) as symbol)" +
+                    " from long_sequence(3000)";
+            compile("insert into x" + insert);
+            compile("insert into y" + insert);
+
+            assertIntersectMatchesScan("s1 = 'a1' and s4 = 'd1'", 250);
+        });
+    }
+
+    @Test
+    public void testIntersectThreeColumns() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables();
+            assertPlan(
+                    "x where s1 = 'a1' and s2 = 'b3' and s3 = 'c2' and v > 100",
+                    "DataFrame\n" +
+                            "    Index forward intersect scan on: s2,s1,s3\n" +
+                            "      filter: s2=3 and s1=1 and s3=2 and ((s1='a1' and s3='c2') and 100<v)\n" +
+                            "    Frame forward scan on: x\n"
+            );
+            assertIntersectMatchesScan("s1 = 'a1' and s2 = 'b3' and s3 = 'c2' and v > 100", 94);
+        });
+    }
+
+    @Test
+    public void testIntersectTwoColumns() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables();
+            assertPlan(
+                    "x where s1 = 'a1' and s2 = 'b3'",
+                    "DataFrame\n" +
+                            "    Index forward intersect scan on: s2,s1\n" +
+                            "      filter: s2=3 and s1=1 and s1='a1'\n" +
+                            "    Frame forward scan on: x\n"
+            );
+            assertIntersectMatchesScan("s1 = 'a1' and s2 = 'b3'", 476);
+            assertIntersectMatchesScan("'b3' = s2 and s1 = 'a1'", 476);
+        });
+    }
+
+    @Test
+    public void testOrderByTimestampDesc() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables();
+            final StringSink expected = new StringSink();
+            TestUtils.printSql(compiler, sqlExecutionContext, "y where s1 = 'a2' and s2 = 'b5' order by ts desc", expected);
+            TestUtils.assertSql(compiler, sqlExecutionContext, "x where s1 = 'a2' and s2 = 'b5' order by ts desc", sink, expected);
+        });
+    }
+
+    @Test
+    public void testUnknownSymbol() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables();
+            assertPlan(
+                    "x where s1 = 'a9' and s2 = 'b3'",
+                    "DataFrame\n" +
+                            "    Index forward scan on: s2\n" +
+                            "      filter: s2=3 and s1='a9'\n" +
+                            "    Frame forward scan on: x\n"
+            );
+            // symbol can be added later, the index of s1 is not used
+            assertIntersectMatchesScan("s1 = 'a9' and s2 = 'b3'", 0);
+        });
+    }
+
+    private void assertIntersectMatchesScan(String filter, int expectedRowCount) throws Exception {
+        final StringSink expected = new StringSink();
+        TestUtils.printSql(compiler, sqlExecutionContext, "y where " + filter, expected);
+        TestUtils.assertSql(compiler, sqlExecutionContext, "x where " + filter, sink, expected);
+        TestUtils.assertSql(
+                compiler,
+                sqlExecutionContext,
+                "select count() from x where " + filter,
+                sink,
+                "count\n" + expectedRowCount + "\n"
+        );
+    }
+
+    private void createTables() throws Exception {
+        final String query = "(select" +
+                " cast(concat('a', x % 3) as symbol) s1," +
+                " cast(concat('b', x % 7) as symbol) s2," +
+                " cast(concat('c', x % 5) as symbol) s3," +
+                " x v," +
+                " timestamp_sequence(0, 1000000) ts" +
+                " from long_sequence(10000))";
+        compile("create table x as " + query + ", index(s1), index(s2), index(s3) timestamp(ts) partition by hour");
+        compile("create table y as " + query + " timestamp(ts) partition by hour");
+    }
+}
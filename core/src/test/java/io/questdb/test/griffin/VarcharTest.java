@@ -0,0 +1,168 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.test.griffin;
+
+import io.questdb.griffin.CompiledQuery;
+import io.questdb.test.AbstractGriffinTest;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Test;
+
+public class VarcharTest extends AbstractGriffinTest {
+
+    @Test
+    public void testAddColumn() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table x (i int, ts timestamp) timestamp(ts) partition by DAY", sqlExecutionContext);
+            executeInsert("insert into x values (1, '2023-01-01T00:00:00.000000Z')");
+            compile("alter table x add column v varchar", sqlExecutionContext);
+            executeInsert("insert into x values (2, '2023-01-01T01:00:00.000000Z', 'ąę')");
+            assertSql("select i, v, length(v) from x", "i\tv\tlength\n" +
+                    "1\t\t-1\n" +
+                    "2\tąę\t2\n");
+        });
+    }
+
+    @Test
+    public void testCasts() throws Exception {
+        assertMemoryLeak(() -> assertSql(
+                "select typeOf(cast('abc' as varchar)) t1, typeOf(cast(cast('abc' as varchar) as string)) t2, 1::varchar v1, typeOf(1::varchar) t3, cast(null as varchar) v2 from long_sequence(1)",
+                "t1\tt2\tv1\tt3\tv2\n" +
+                        "VARCHAR\tSTRING\t1\tVARCHAR\t\n"
+        ));
+    }
+
+    @Test
+    public void testFilterGroupByOrderBy() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table x (v varchar, ts timestamp) timestamp(ts) partition by DAY", sqlExecutionContext);
+            executeInsert("insert into x values ('b', '2023-01-01T00:00:00.000000Z')");
+            executeInsert("insert into x values ('żółw', '2023-01-01T00:01:00.000000Z')");
+            executeInsert("insert into x values ('a', '2023-01-01T00:02:00.000000Z')");
+            executeInsert("insert into x values ('b', '2023-01-01T00:03:00.000000Z')");
+            executeInsert("insert into x values (null, '2023-01-01T00:04:00.000000Z')");
+
+            assertSql("select v, count() from x order by v", "v\tcount\n" +
+                    "\t1\n" +
+                    "a\t1\n" +
+                    "b\t2\n" +
+                    "żółw\t1\n");
+            assertSql("select ts from x where v = 'żółw'", "ts\n" +
+                    "2023-01-01T00:01:00.000000Z\n");
+            assertSql("select ts from x where v is null", "ts\n" +
+                    "2023-01-01T00:04:00.000000Z\n");
+        });
+    }
+
+    @Test
+    public void testInsertAndSelect() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table x (v varchar, s string)", sqlExecutionContext);
+            executeInsert("insert into x values ('hello', 'hello')");
+            executeInsert("insert into x values ('привет мир', 'привет мир')");
+            executeInsert("insert into x values (null, null)");
+            executeInsert("insert into x values ('', '')");
+            assertSqlWithTypes("select v, s, length(v) l, v = s eq from x", "v\ts\tl\teq\n" +
+                    "hello:VARCHAR\thello:STRING\t5:INT\ttrue:BOOLEAN\n" +
+                    "привет мир:VARCHAR\tпривет мир:STRING\t10:INT\ttrue:BOOLEAN\n" +
+                    ":VARCHAR\t:STRING\t-1:INT\ttrue:BOOLEAN\n" +
+                    ":VARCHAR\t:STRING\t0:INT\ttrue:BOOLEAN\n");
+        });
+    }
+
+    @Test
+    public void testInsertAsSelectFromString() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table x as (select rnd_str('ab', 'cd', 'éf', null) s, rnd_uuid4() u from long_sequence(20))", sqlExecutionContext);
+            compile("create table y (v varchar, vu varchar)", sqlExecutionContext);
+            compile("insert into y select s, u from x", sqlExecutionContext);
+            TestUtils.assertSqlCursors(
+                    compiler,
+                    sqlExecutionContext,
+                    "select s, u::string u from x",
+                    "select v::string s, vu::string u from y",
+                    LOG
+            );
+            // VARCHAR keys join with STRING keys
+            assertSql("select count() from (select u::string u from x) a join y on a.u = y.vu", "count\n" +
+                    "20\n"
+            );
+        });
+    }
+
+    @Test
+    public void testOutOfOrderInsert() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table x (v varchar, ts timestamp) timestamp(ts) partition by DAY", sqlExecutionContext);
+            executeInsert("insert into x values ('c', '2023-01-01T03:00:00.000000Z')");
+            executeInsert("insert into x values ('ä', '2023-01-02T00:00:00.000000Z')");
+            executeInsert("insert into x values ('a', '2023-01-01T01:00:00.000000Z')");
+            executeInsert("insert into x values (null, '2023-01-01T02:00:00.000000Z')");
+            assertSql("x", "v\tts\n" +
+                    "a\t2023-01-01T01:00:00.000000Z\n" +
+                    "\t2023-01-01T02:00:00.000000Z\n" +
+                    "c\t2023-01-01T03:00:00.000000Z\n" +
+                    "ä\t2023-01-02T00:00:00.000000Z\n");
+        });
+    }
+
+    @Test
+    public void testUnionWithString() throws Exception {
+        assertMemoryLeak(() -> assertSqlWithTypes(
+                "select 'a'::varchar x from long_sequence(1) union all select 'b' from long_sequence(1)",
+                "x\n" +
+                        "a:VARCHAR\n" +
+                        "b:VARCHAR\n"
+        ));
+    }
+
+    @Test
+    public void testUpdate() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table x (i int, v varchar, ts timestamp) timestamp(ts) partition by DAY", sqlExecutionContext);
+            executeInsert("insert into x values (1, 'a', '2023-01-01T00:00:00.000000Z')");
+            executeInsert("insert into x values (2, 'b', '2023-01-01T01:00:00.000000Z')");
+            executeOperation("update x set v = 'ü' || v where i = 2", CompiledQuery.UPDATE);
+            assertSql("select i, v from x", "i\tv\n" +
+                    "1\ta\n" +
+                    "2\tüb\n");
+        });
+    }
+
+    @Test
+    public void testWalTable() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table x (v varchar, ts timestamp) timestamp(ts) partition by DAY WAL", sqlExecutionContext);
+            executeInsert("insert into x values ('b', '2023-01-01T02:00:00.000000Z')");
+            executeInsert("insert into x values ('日本', '2023-01-01T01:00:00.000000Z')");
+            executeInsert("insert into x values (null, '2023-01-01T03:00:00.000000Z')");
+            drainWalQueue();
+            assertSql("x", "v\tts\n" +
+                    "日本\t2023-01-01T01:00:00.000000Z\n" +
+                    "b\t2023-01-01T02:00:00.000000Z\n" +
+                    "\t2023-01-01T03:00:00.000000Z\n");
+        });
+    }
+}
@@ -32,6 +32,12 @@ import org.junit.Ignore;
 import org.junit.Test;
 
 public class AnalyticFunctionTest extends AbstractGriffinTest {
+    private static final String DDL = "create table t as (" +
+            "select x::double v," +
+            " case when x % 2 = 0 then 'a' else 'b' end s," +
+            " timestamp_sequence(0, 1000000) ts" +
+            " from long_sequence(6)" +
+            ") timestamp(ts)";
 
     @Test
     public void testAnalyticContextCleanup() throws Exception {
@@ -66,6 +72,194 @@ public class AnalyticFunctionTest extends AbstractGriffinTest {
         });
     }
 
+    @Test
+    public void testFirstValueAndLastValueOverRows() throws Exception {
+        assertQuery("v\tfirst\tlast\n" +
+                        "1.0\t1.0\t1.0\n" +
+                        "2.0\t1.0\t2.0\n" +
+                        "3.0\t1.0\t3.0\n" +
+                        "4.0\t2.0\t4.0\n" +
+                        "5.0\t3.0\t5.0\n" +
+                        "6.0\t4.0\t6.0\n",
+                "select v, first_value(v) over (order by ts rows between 2 preceding and current row) first, " +
+                        "last_value(v) over (order by ts rows between 2 preceding and current row) last from t",
+                DDL,
+                null,
+                false,
+                true
+        );
+    }
+
+    @Test
+    public void testFrameEndMustBeCurrentRow() throws Exception {
+        assertFailure(
+                "select sum(v) over (order by ts rows between 2 preceding and 1 following) from t",
+                DDL,
+                61,
+                "frame end must be CURRENT ROW or UNBOUNDED FOLLOWING"
+        );
+    }
+
+    @Test
+    public void testFrameEndUnboundedPreceding() throws Exception {
+        assertFailure(
+                "select sum(v) over (order by ts rows between current row and unbounded preceding) from t",
+                DDL,
+                61,
+                "frame end cannot be UNBOUNDED PRECEDING"
+        );
+    }
+
+    @Test
+    public void testFrameStartAfterFrameEnd() throws Exception {
+        assertFailure(
+                "select sum(v) over (order by ts rows between 1 following and current row) from t",
+                DDL,
+                45,
+                "frame start cannot be after frame end"
+        );
+    }
+
+    @Test
+    public void testLagAndLead() throws Exception {
+        assertQuery("v\tlag1\tlag2\tlead1\n" +
+                        "1.0\tNaN\t0.0\t2.0\n" +
+                        "2.0\t1.0\t0.0\t3.0\n" +
+                        "3.0\t2.0\t1.0\t4.0\n" +
+                        "4.0\t3.0\t2.0\t5.0\n" +
+                        "5.0\t4.0\t3.0\t6.0\n" +
+                        "6.0\t5.0\t4.0\tNaN\n",
+                "select v, lag(v) over (order by ts) lag1, lag(v, 2, 0) over (order by ts) lag2, lead(v) over (order by ts) lead1 from t",
+                DDL,
+                null,
+                true,
+                false
+        );
+    }
+
+    @Test
+    public void testLagOffsetMustBeConstant() throws Exception {
+        assertFailure(
+                "select lag(v, v) over (order by ts) from t",
+                DDL,
+                14,
+                "offset must be a constant integer"
+        );
+    }
+
+    @Test
+    public void testMovingAggregatesOverRows() throws Exception {
+        assertQuery("v\tsum\tavg\tmin\tmax\tcount\n" +
+                        "1.0\t1.0\t1.0\t1.0\t1.0\t1\n" +
+                        "2.0\t3.0\t1.5\t1.0\t2.0\t2\n" +
+                        "3.0\t5.0\t2.0\t1.0\t3.0\t3\n" +
+                        "4.0\t7.0\t3.0\t2.0\t4.0\t3\n" +
+                        "5.0\t9.0\t4.0\t3.0\t5.0\t3\n" +
+                        "6.0\t11.0\t5.0\t4.0\t6.0\t3\n",
+                "select v, " +
+                        "sum(v) over (order by ts rows between 1 preceding and current row) sum, " +
+                        "avg(v) over (order by ts rows 2 preceding) avg, " +
+                        "min(v) over (order by ts rows 2 preceding) min, " +
+                        "max(v) over (order by ts rows 2 preceding) max, " +
+                        "count() over (order by ts rows 2 preceding) count " +
+                        "from t",
+                DDL,
+                null,
+                false,
+                true
+        );
+    }
+
+    @Test
+    public void testMovingSumOverRange() throws Exception {
+        assertQuery("ts\tv\tsum\n" +
+                        "1970-01-01T00:00:00.000000Z\t1.0\t1.0\n" +
+                        "1970-01-01T00:00:01.000000Z\t2.0\t3.0\n" +
+                        "1970-01-01T00:00:02.000000Z\t3.0\t6.0\n" +
+                        "1970-01-01T00:00:03.000000Z\t4.0\t9.0\n" +
+                        "1970-01-01T00:00:04.000000Z\t5.0\t12.0\n" +
+                        "1970-01-01T00:00:05.000000Z\t6.0\t15.0\n",
+                "select ts, v, sum(v) over (order by ts range between 2 second preceding and current row) sum from t",
+                DDL,
+                null,
+                false,
+                true
+        );
+    }
+
+    @Test
+    public void testPartitionedRunningAggregates() throws Exception {
+        assertQuery("s\tv\tcount\tmax\n" +
+                        "b\t1.0\t1\t1.0\n" +
+                        "a\t2.0\t1\t2.0\n" +
+                        "b\t3.0\t2\t3.0\n" +
+                        "a\t4.0\t2\t4.0\n" +
+                        "b\t5.0\t3\t5.0\n" +
+                        "a\t6.0\t3\t6.0\n",
+                "select s, v, " +
+                        "count(v) over (partition by s order by ts rows unbounded preceding) count, " +
+                        "max(v) over (partition by s order by ts rows between 1 preceding and current row) max " +
+                        "from t",
+                DDL,
+                null,
+                false,
+                true
+        );
+    }
+
+    @Test
+    public void testRangeFrameRequiresTimestampOrder() throws Exception {
+        assertFailure(
+                "select sum(v) over (order by v range between 1 preceding and current row) from t",
+                DDL,
+                45,
+                "RANGE frame with offset requires ORDER BY on a single timestamp column in ascending order"
+        );
+    }
+
+    @Test
+    public void testStreamingAndCachedPlans() throws Exception {
+        assertMemoryLeak(() -> {
+            compile(DDL);
+            assertPlan(
+                    "select v, sum(v) over (partition by s order by ts rows 2 preceding) from t",
+                    "Analytic\n" +
+                            "  functions: [sum(v) over (partition by [s] rows between 2 preceding and current row)]\n" +
+                            "    DataFrame\n" +
+                            "        Row forward scan\n" +
+                            "        Frame forward scan on: t\n"
+            );
+            // lead needs following rows, so the base cursor has to be cached
+            assertPlan(
+                    "select v, lead(v) over (order by ts) from t",
+                    "CachedAnalytic\n" +
+                            "  functions: [lead(v,1,NaN) over ()]\n" +
+                            "    DataFrame\n" +
+                            "        Row forward scan\n" +
+                            "        Frame forward scan on: t\n"
+            );
+        });
+    }
+
+    @Test
+    public void testWholePartitionAggregates() throws Exception {
+        assertQuery("s\tv\ttotal\tlast\n" +
+                        "b\t1.0\t9.0\t5.0\n" +
+                        "a\t2.0\t12.0\t6.0\n" +
+                        "b\t3.0\t9.0\t5.0\n" +
+                        "a\t4.0\t12.0\t6.0\n" +
+                        "b\t5.0\t9.0\t5.0\n" +
+                        "a\t6.0\t12.0\t6.0\n",
+                "select s, v, sum(v) over (partition by s) total, " +
+                        "last_value(v) over (partition by s order by ts rows between unbounded preceding and unbounded following) last " +
+                        "from t",
+                DDL,
+                null,
+                true,
+                false
+        );
+    }
+
     @Test
     @Ignore
     public void testRankFailsInNonAnalyticContext() throws Exception {
@@ -493,8 +687,8 @@ public class AnalyticFunctionTest extends AbstractGriffinTest {
                         " from long_sequence(10)" +
                         ") timestamp(ts) partition by day",
                 null,
-                true,
-                false
+                false,
+                true
         );
     }
 
@@ -521,8 +715,8 @@ public class AnalyticFunctionTest extends AbstractGriffinTest {
                         " from long_sequence(10)" +
                         ") timestamp(ts) partition by day",
                 null,
-                true,
-                false
+                false,
+                true
         );
     }
 
@@ -576,8 +770,8 @@ public class AnalyticFunctionTest extends AbstractGriffinTest {
                         " from long_sequence(10)" +
                         "), index(s) timestamp(ts) partition by month",
                 null,
-                true,
-                false
+                false,
+                true
         );
     }
 
@@ -631,8 +825,8 @@ public class AnalyticFunctionTest extends AbstractGriffinTest {
                         " from long_sequence(10)" +
                         ") timestamp(ts) partition by day",
                 null,
-                true,
-                false
+                false,
+                true
         );
     }
 
@@ -0,0 +1,156 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.test.griffin.engine.functions.groupby;
+
+import io.questdb.std.str.StringSink;
+import io.questdb.test.AbstractGriffinTest;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ApproxCountDistinctGroupByFunctionFactoryTest extends AbstractGriffinTest {
+
+    @Before
+    public void setUp() {
+        pageFrameMaxRows = 1000;
+        super.setUp();
+    }
+
+    @Test
+    public void testAllNulls() throws Exception {
+        assertQuery(
+                "approx_count_distinct\tapprox_count_distinct1\n" +
+                        "0\t0\n",
+                "select approx_count_distinct(l), approx_count_distinct(s) from x",
+                "create table x as (select cast(null as long) l, cast(null as string) s from long_sequence(10))",
+                null,
+                false,
+                true
+        );
+    }
+
+    @Test
+    public void testEstimateWithinError() throws Exception {
+        // standard error is 3.3%, allow for three of them
+        assertQuery(
+                "ok\tok_str\n" +
+                        "true\ttrue\n",
+                "select abs(c - 1000000) < 100000 ok, abs(cs - 500000) < 50000 ok_str from (" +
+                        "select approx_count_distinct(x) c, approx_count_distinct(concat('s', x % 500000)) cs from long_sequence(1000000)" +
+                        ")",
+                null,
+                null,
+                false,
+                true
+        );
+    }
+
+    @Test
+    public void testKeyed() throws Exception {
+        assertQuery(
+                "a\tapprox_count_distinct\tcount_distinct\n" +
+                        "a\t41\t40\n" +
+                        "b\t41\t40\n" +
+                        "c\t41\t40\n",
+                "select a, approx_count_distinct(l), count_distinct(l) from x order by a",
+                "create table x as (select rnd_symbol('a','b','c') a, rnd_long(0, 39, 0) l from long_sequence(1000))",
+                null,
+                true,
+                true
+        );
+    }
+
+    @Test
+    public void testMergeMatchesSerial() throws Exception {
+        assertParallelEqualsSerial("select s, approx_count_distinct(l), approx_count_distinct(s2) from x order by s");
+    }
+
+    @Test
+    public void testSampleBy() throws Exception {
+        assertQuery(
+                "ts\tapprox_count_distinct\n" +
+                        "1970-01-01T00:00:00.000000Z\t3\n" +
+                        "1970-01-01T01:00:00.000000Z\t3\n",
+                "select ts, approx_count_distinct(s) from x sample by 1h",
+                "create table x as (select rnd_symbol('a','b','c') s, timestamp_sequence(0, 60000000) ts from long_sequence(120)) timestamp(ts)",
+                "ts",
+                false
+        );
+    }
+
+    @Test
+    public void testSampleByMergeMatchesSerial() throws Exception {
+        assertMemoryLeak(() -> {
+            createTable();
+            final String query = "select ts, approx_count_distinct(l), approx_count_distinct(s2) from x sample by 1h";
+
+            configOverrideParallelSampleByEnabled(false);
+            final StringSink expected = new StringSink();
+            TestUtils.printSql(compiler, sqlExecutionContext, query, expected);
+
+            configOverrideParallelSampleByEnabled(true);
+            TestUtils.assertSql(compiler, sqlExecutionContext, query, sink, expected);
+        });
+    }
+
+    @Test
+    public void testSymbol() throws Exception {
+        assertQuery(
+                "approx_count_distinct\n" +
+                        "4\n",
+                "select approx_count_distinct(s) from x",
+                "create table x as (select rnd_symbol('a','b','c','d',null) s from long_sequence(100))",
+                null,
+                false,
+                true
+        );
+    }
+
+    private void assertParallelEqualsSerial(String query) throws Exception {
+        assertMemoryLeak(() -> {
+            createTable();
+
+            configOverrideParallelGroupByEnabled(false);
+            final StringSink expected = new StringSink();
+            TestUtils.printSql(compiler, sqlExecutionContext, query, expected);
+
+            configOverrideParallelGroupByEnabled(true);
+            TestUtils.assertSql(compiler, sqlExecutionContext, query, sink, expected);
+        });
+    }
+
+    private void createTable() throws Exception {
+        compile(
+                "create table x as (" +
+                        "select rnd_symbol('a','b','c') s," +
+                        " rnd_long(0, 100000, 2) l," +
+                        " rnd_str(5, 10, 2) s2," +
+                        " timestamp_sequence(0, 1000000) ts" +
+                        " from long_sequence(20000)" +
+                        ") timestamp(ts) partition by hour"
+        );
+    }
+}
@@ -0,0 +1,168 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.test.griffin.engine.functions.groupby;
+
+import io.questdb.std.str.StringSink;
+import io.questdb.test.AbstractGriffinTest;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ApproxPercentileDoubleGroupByFunctionFactoryTest extends AbstractGriffinTest {
+
+    @Before
+    public void setUp() {
+        pageFrameMaxRows = 1000;
+        super.setUp();
+    }
+
+    @Test
+    public void testAllNulls() throws Exception {
+        assertQuery(
+                "approx_percentile\n" +
+                        "NaN\n",
+                "select approx_percentile(d, 0.5) from x",
+                "create table x as (select cast(null as double) d from long_sequence(10))",
+                null,
+                false,
+                true
+        );
+    }
+
+    @Test
+    public void testInvalidPercentile() throws Exception {
+        assertFailure(
+                "select approx_percentile(x, 1.5) from long_sequence(10)",
+                null,
+                28,
+                "percentile must be between 0.0 and 1.0"
+        );
+    }
+
+    @Test
+    public void testMinMaxAreExact() throws Exception {
+        assertQuery(
+                "approx_percentile\tapprox_percentile1\n" +
+                        "-50.0\t49.0\n",
+                "select approx_percentile(x - 51, 0), approx_percentile(x - 51, 1) from long_sequence(100)",
+                null,
+                null,
+                false,
+                true
+        );
+    }
+
+    @Test
+    public void testMergeMatchesSerial() throws Exception {
+        assertParallelEqualsSerial("select s, approx_percentile(d, 0.5) from x order by s");
+    }
+
+    @Test
+    public void testNegativeAndZero() throws Exception {
+        assertQuery(
+                "p10\tp50\tp90\n" +
+                        "true\ttrue\ttrue\n",
+                "select abs(p10 + 80) < 0.8 p10, p50 = 0 p50, abs(p90 - 80) < 0.8 p90 from (" +
+                        "select approx_percentile(x - 100, 0.1) p10, approx_percentile(x - 100, 0.5) p50, approx_percentile(x - 100, 0.9) p90 from long_sequence(199)" +
+                        ")",
+                null,
+                null,
+                false,
+                true
+        );
+    }
+
+    @Test
+    public void testRelativeError() throws Exception {
+        assertQuery(
+                "p50\tp99\n" +
+                        "true\ttrue\n",
+                "select abs(p50 / 1500.0 - 1) < 0.01 p50, abs(p99 / 1990.0 - 1) < 0.01 p99 from (" +
+                        "select approx_percentile(x + 999, 0.5) p50, approx_percentile(x + 999, 0.99) p99 from long_sequence(1001)" +
+                        ")",
+                null,
+                null,
+                false,
+                true
+        );
+    }
+
+    @Test
+    public void testSampleByMergeMatchesSerial() throws Exception {
+        assertMemoryLeak(() -> {
+            createTable();
+            final String query = "select ts, approx_percentile(l, 0.9) from x sample by 1h";
+
+            configOverrideParallelSampleByEnabled(false);
+            final StringSink expected = new StringSink();
+            TestUtils.printSql(compiler, sqlExecutionContext, query, expected);
+
+            configOverrideParallelSampleByEnabled(true);
+            TestUtils.assertSql(compiler, sqlExecutionContext, query, sink, expected);
+        });
+    }
+
+    @Test
+    public void testWideRange() throws Exception {
+        // ten orders of magnitude don't fit in the window, so buckets get collapsed
+        assertQuery(
+                "p10\tp90\n" +
+                        "true\ttrue\n",
+                "select abs(p10 / 10.0 - 1) < 0.2 p10, abs(p90 / 1e9 - 1) < 0.2 p90 from (" +
+                        "select approx_percentile(power(10, x / 10000.0), 0.1) p10, approx_percentile(power(10, x / 10000.0), 0.9) p90 from long_sequence(100000)" +
+                        ")",
+                null,
+                null,
+                false,
+                true
+        );
+    }
+
+    private void assertParallelEqualsSerial(String query) throws Exception {
+        assertMemoryLeak(() -> {
+            createTable();
+
+            configOverrideParallelGroupByEnabled(false);
+            final StringSink expected = new StringSink();
+            TestUtils.printSql(compiler, sqlExecutionContext, query, expected);
+
+            configOverrideParallelGroupByEnabled(true);
+            TestUtils.assertSql(compiler, sqlExecutionContext, query, sink, expected);
+        });
+    }
+
+    private void createTable() throws Exception {
+        compile(
+                "create table x as (" +
+                        "select rnd_symbol('a','b','c') s," +
+                        " rnd_double(2) * 1000 d," +
+                        " rnd_long(-100000, 100000, 2) l," +
+                        " timestamp_sequence(0, 1000000) ts" +
+                        " from long_sequence(20000)" +
+                        ") timestamp(ts) partition by hour"
+        );
+    }
+}
@@ -0,0 +1,208 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.test.griffin.engine.functions.math;
+
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.Record;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.engine.functions.columns.IntColumn;
+import io.questdb.griffin.engine.functions.columns.LongColumn;
+import io.questdb.griffin.engine.functions.constants.IntConstant;
+import io.questdb.griffin.engine.functions.constants.LongConstant;
+import io.questdb.griffin.engine.functions.math.*;
+import io.questdb.std.BytecodeAssembler;
+import io.questdb.std.Numbers;
+import io.questdb.std.ObjList;
+import io.questdb.std.str.StringSink;
+import io.questdb.test.AbstractGriffinTest;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ArithmeticFunctionCompilerTest extends AbstractGriffinTest {
+
+    @Test
+    public void testBindVariables() throws Exception {
+        bindVariableService.clear();
+        bindVariableService.setLong(0, 3);
+        bindVariableService.setDouble(1, 0.25);
+        assertCompiledEqualsInterpreted("select l * $1 + i, d * $2 - l from x");
+    }
+
+    @Test
+    public void testCompile() throws Exception {
+        assertMemoryLeak(() -> {
+            final ObjList<Function> args = new ObjList<>();
+            args.add(IntColumn.newInstance(0));
+            args.add(IntConstant.newInstance(1));
+            final Function add = new AddIntFunctionFactory().newInstance(0, args, null, configuration, sqlExecutionContext);
+            args.clear();
+            args.add(add);
+            args.add(LongColumn.newInstance(1));
+            final Function mul = new MulLongFunctionFactory().newInstance(0, args, null, configuration, sqlExecutionContext);
+            args.clear();
+            args.add(mul);
+            args.add(LongConstant.newInstance(2));
+            final Function div = new DivLongFunctionFactory().newInstance(0, args, null, configuration, sqlExecutionContext);
+
+            final ArithmeticFunctionCompiler functionCompiler = new ArithmeticFunctionCompiler(new BytecodeAssembler());
+            // operands that are not arithmetic operators are left alone
+            Assert.assertSame(args.getQuick(1), functionCompiler.compile(args.getQuick(1)));
+
+            final Function compiled = functionCompiler.compile(div);
+            Assert.assertNotSame(div, compiled);
+            Assert.assertEquals(ColumnType.LONG, compiled.getType());
+
+            final int[] i = {3};
+            final long[] l = {10};
+            final Record record = new Record() {
+                @Override
+                public int getInt(int col) {
+                    return i[0];
+                }
+
+                @Override
+                public long getLong(int col) {
+                    return l[0];
+                }
+            };
+            Assert.assertEquals(20, compiled.getLong(record));
+            Assert.assertEquals(20.0, compiled.getDouble(record), 0.0);
+            i[0] = Numbers.INT_NaN;
+            Assert.assertEquals(Numbers.LONG_NaN, compiled.getLong(record));
+            Assert.assertTrue(Double.isNaN(compiled.getDouble(record)));
+            i[0] = 0;
+            l[0] = Numbers.LONG_NaN;
+            Assert.assertEquals(Numbers.LONG_NaN, compiled.getLong(record));
+
+            compiled.close();
+        });
+    }
+
+    @Test
+    public void testDouble() throws Exception {
+        assertCompiledEqualsInterpreted(
+                "select d + d * 2.5, (d - i) / (l + 0.5), f * d + s, d / 0, i / d - 1.0 / l from x"
+        );
+    }
+
+    @Test
+    public void testDoubleResult() throws Exception {
+        assertMemoryLeak(() -> {
+            configOverrideProjectionCompilerEnabled(true);
+            assertSql(
+                    "select x, x * 1.5 + 1 a, (x - 3) / (x - 2.0) b from long_sequence(3)",
+                    "x\ta\tb\n" +
+                            "1\t2.5\t2.0\n" +
+                            "2\t4.0\t-Infinity\n" +
+                            "3\t5.5\t0.0\n"
+            );
+        });
+    }
+
+    @Test
+    public void testInt() throws Exception {
+        assertCompiledEqualsInterpreted(
+                "select i + i * 3, (i - 7) / (i % 5), i / 0, i * i - s, (i + 1) * (i - 1) / 2 from x"
+        );
+    }
+
+    @Test
+    public void testLong() throws Exception {
+        assertCompiledEqualsInterpreted(
+                "select l * 2 + i, (l - i) / (i - 10), l / 0, (i + 1) * l - 5, l * l / (i * 2) from x"
+        );
+    }
+
+    @Test
+    public void testNullResult() throws Exception {
+        assertMemoryLeak(() -> {
+            configOverrideProjectionCompilerEnabled(true);
+            assertSql(
+                    "select x, x / (x - 2) a, (x - 2) * cast(null as int) + x b from long_sequence(3)",
+                    "x\ta\tb\n" +
+                            "1\t-1\tNaN\n" +
+                            "2\tNaN\tNaN\n" +
+                            "3\t3\tNaN\n"
+            );
+        });
+    }
+
+    @Test
+    public void testPlan() throws Exception {
+        assertMemoryLeak(() -> {
+            configOverrideProjectionCompilerEnabled(true);
+            createTable();
+            assertPlan(
+                    "select l * 2 + i, d / (i - 1) from x",
+                    "VirtualRecord\n" +
+                            "  functions: [l*2+i,d/i-1]\n" +
+                            "    DataFrame\n" +
+                            "        Row forward scan\n" +
+                            "        Frame forward scan on: x\n"
+            );
+        });
+    }
+
+    @Test
+    public void testWideningOperands() throws Exception {
+        // int operators feed long and double operators, nulls have to survive the conversion
+        assertCompiledEqualsInterpreted(
+                "select (i + 1) * l, (i * 2) + d, (l - i) * d, ((i + s) * 2 + l) / d from x"
+        );
+    }
+
+    private static void createTable() throws SqlException {
+        compile(
+                "create table x as (" +
+                        "select" +
+                        " rnd_int(-100, 100, 4) i," +
+                        " rnd_long(-1000, 1000, 4) l," +
+                        " rnd_double(4) d," +
+                        " rnd_float(4) f," +
+                        " rnd_short(-10, 10) s" +
+                        " from long_sequence(1000)" +
+                        ")"
+        );
+    }
+
+    private void assertCompiledEqualsInterpreted(String query) throws Exception {
+        assertMemoryLeak(() -> {
+            createTable();
+
+            configOverrideProjectionCompilerEnabled(false);
+            final StringSink expected = new StringSink();
+            TestUtils.printSql(compiler, sqlExecutionContext, query, expected);
+
+            configOverrideProjectionCompilerEnabled(true);
+            final StringSink actual = new StringSink();
+            TestUtils.printSql(compiler, sqlExecutionContext, query, actual);
+
+            TestUtils.assertEquals(expected, actual);
+        });
+    }
+}
@@ -0,0 +1,148 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.test.griffin.engine.groupby;
+
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContextImpl;
+import io.questdb.griffin.engine.groupby.AsyncGroupByRecordCursorFactory;
+import io.questdb.griffin.engine.groupby.GroupByRecordCursorFactory;
+import io.questdb.mp.WorkerPool;
+import io.questdb.std.str.StringSink;
+import io.questdb.test.AbstractGriffinTest;
+import io.questdb.test.mp.TestWorkerPool;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AsyncGroupByRecordCursorFactoryTest extends AbstractGriffinTest {
+
+    private static final int PAGE_FRAME_MAX_ROWS = 100;
+
+    @Before
+    public void setUp() {
+        pageFrameMaxRows = PAGE_FRAME_MAX_ROWS;
+        super.setUp();
+    }
+
+    @Test
+    public void testFallbackToSerialGroupBy() throws Exception {
+        assertMemoryLeak(() -> {
+            configOverrideParallelGroupByEnabled(true);
+            createTable();
+            // count_distinct() has no merge support, so the serial factory must be used
+            try (RecordCursorFactory factory = compiler.compile("select s, count_distinct(i) from x", sqlExecutionContext).getRecordCursorFactory()) {
+                Assert.assertEquals(GroupByRecordCursorFactory.class, factory.getClass());
+            }
+        });
+    }
+
+    @Test
+    public void testIntKey() throws Exception {
+        assertParallelEqualsSerial("select i, count(), sum(l), min(d), max(ts) from x order by i");
+    }
+
+    @Test
+    public void testMultipleKeys() throws Exception {
+        assertParallelEqualsSerial("select s, i % 3 k, count(), sum(i), avg(d), min(l), max(l), min(f), max(f) from x order by s, k");
+    }
+
+    @Test
+    public void testPlan() throws Exception {
+        assertMemoryLeak(() -> {
+            configOverrideParallelGroupByEnabled(true);
+            createTable();
+            assertPlan(
+                    "select str, count(), sum(l) from x",
+                    "Async Group By\n" +
+                            "  workers: 1\n" +
+                            "  keys: [str]\n" +
+                            "  values: [count(*),sum(l)]\n" +
+                            "    DataFrame\n" +
+                            "        Row forward scan\n" +
+                            "        Frame forward scan on: x\n"
+            );
+        });
+    }
+
+    @Test
+    public void testStringKeyWithWorkerPool() throws Exception {
+        assertMemoryLeak(() -> {
+            createTable();
+            final String query = "select str, count(), sum(l), min(i), max(i) from x order by str";
+
+            configOverrideParallelGroupByEnabled(false);
+            final StringSink expected = new StringSink();
+            TestUtils.printSql(compiler, sqlExecutionContext, query, expected);
+
+            configOverrideParallelGroupByEnabled(true);
+            final int workerCount = 4;
+            final WorkerPool pool = new TestWorkerPool(workerCount);
+            TestUtils.setupWorkerPool(pool, engine);
+            pool.start();
+            try (SqlExecutionContextImpl ctx = new SqlExecutionContextImpl(engine, workerCount)) {
+                try (RecordCursorFactory factory = compiler.compile("select str, count() from x", ctx).getRecordCursorFactory()) {
+                    Assert.assertEquals(AsyncGroupByRecordCursorFactory.class, factory.getClass());
+                }
+                TestUtils.assertSql(compiler, ctx, query, sink, expected);
+                // run the query once again to make sure the cursor is reusable
+                TestUtils.assertSql(compiler, ctx, query, sink, expected);
+            } finally {
+                pool.halt();
+            }
+        });
+    }
+
+    private void assertParallelEqualsSerial(String query) throws Exception {
+        assertMemoryLeak(() -> {
+            createTable();
+
+            configOverrideParallelGroupByEnabled(false);
+            final StringSink expected = new StringSink();
+            TestUtils.printSql(compiler, sqlExecutionContext, query, expected);
+
+            configOverrideParallelGroupByEnabled(true);
+            TestUtils.assertSql(compiler, sqlExecutionContext, query, sink, expected);
+        });
+    }
+
+    private void createTable() throws SqlException {
+        compiler.compile(
+                "create table x as (" +
+                        "select rnd_symbol('a','b','c','d',null) s," +
+                        " rnd_int(0, 50, 2) i," +
+                        " rnd_long(0, 1000, 2) l," +
+                        " rnd_double(2) d," +
+                        " rnd_float(2) f," +
+                        " rnd_str(10, 2, 4, 3) str," +
+                        " timestamp_sequence(0, 100000) ts" +
+                        " from long_sequence(2000)" +
+                        ") timestamp(ts) partition by hour",
+                sqlExecutionContext
+        );
+    }
+}
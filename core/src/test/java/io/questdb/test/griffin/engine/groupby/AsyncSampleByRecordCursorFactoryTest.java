@@ -0,0 +1,178 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.test.griffin.engine.groupby;
+
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContextImpl;
+import io.questdb.griffin.engine.groupby.AsyncSampleByRecordCursorFactory;
+import io.questdb.mp.WorkerPool;
+import io.questdb.std.str.StringSink;
+import io.questdb.test.AbstractGriffinTest;
+import io.questdb.test.mp.TestWorkerPool;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AsyncSampleByRecordCursorFactoryTest extends AbstractGriffinTest {
+
+    private static final int PAGE_FRAME_MAX_ROWS = 100;
+
+    @Before
+    public void setUp() {
+        pageFrameMaxRows = PAGE_FRAME_MAX_ROWS;
+        super.setUp();
+    }
+
+    @Test
+    public void testAlignToCalendar() throws Exception {
+        assertParallelEqualsSerial("select ts, count(), sum(l), max(d) from x sample by 15m align to calendar");
+    }
+
+    @Test
+    public void testAlignToCalendarWithOffset() throws Exception {
+        assertParallelEqualsSerial("select ts, count(), min(i), max(i) from x sample by 1h align to calendar with offset '00:10'");
+    }
+
+    @Test
+    public void testEmptyTable() throws Exception {
+        assertMemoryLeak(() -> {
+            configOverrideParallelSampleByEnabled(true);
+            compiler.compile("create table y (i int, ts timestamp) timestamp(ts) partition by day", sqlExecutionContext);
+            assertSql("select ts, count(), sum(i) from y sample by 1h", "ts\tcount\tsum\n");
+        });
+    }
+
+    @Test
+    public void testFallbackToSerialSampleBy() throws Exception {
+        assertMemoryLeak(() -> {
+            configOverrideParallelSampleByEnabled(true);
+            createTable();
+            final String[] queries = {
+                    // fill other than none
+                    "select ts, count() from x sample by 1h fill(prev)",
+                    // time zone requires DST aware bucket boundaries
+                    "select ts, count() from x sample by 1h align to calendar time zone 'Europe/London'",
+                    // month buckets are not fixed-size
+                    "select ts, count() from x sample by 1M",
+                    // count_distinct() has no merge support
+                    "select ts, count_distinct(i) from x sample by 1h"
+            };
+            for (String query : queries) {
+                try (RecordCursorFactory factory = compiler.compile(query, sqlExecutionContext).getRecordCursorFactory()) {
+                    Assert.assertNotEquals(query, AsyncSampleByRecordCursorFactory.class, factory.getClass());
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testKeyed() throws Exception {
+        // rows within a bucket are not ordered the same way by the serial and the parallel factories
+        assertParallelEqualsSerial("select * from (select s, ts, count(), sum(i), avg(d), min(f), max(ts) from x sample by 7m) order by ts, s");
+    }
+
+    @Test
+    public void testNotKeyed() throws Exception {
+        assertParallelEqualsSerial("select ts, count(), sum(i), sum(l), avg(d), min(f), max(f) from x sample by 7m");
+    }
+
+    @Test
+    public void testPlan() throws Exception {
+        assertMemoryLeak(() -> {
+            configOverrideParallelSampleByEnabled(true);
+            createTable();
+            assertPlan(
+                    "select s, ts, count(), sum(l) from x sample by 1h",
+                    "Async Sample By\n" +
+                            "  workers: 1\n" +
+                            "  keys: [s,ts]\n" +
+                            "  values: [count(*),sum(l)]\n" +
+                            "    DataFrame\n" +
+                            "        Row forward scan\n" +
+                            "        Frame forward scan on: x\n"
+            );
+        });
+    }
+
+    @Test
+    public void testWithWorkerPool() throws Exception {
+        assertMemoryLeak(() -> {
+            createTable();
+            final String query = "select * from (select s, ts, count(), sum(l), min(i), max(i) from x sample by 10m) order by ts, s";
+
+            configOverrideParallelSampleByEnabled(false);
+            final StringSink expected = new StringSink();
+            TestUtils.printSql(compiler, sqlExecutionContext, query, expected);
+
+            configOverrideParallelSampleByEnabled(true);
+            final int workerCount = 4;
+            final WorkerPool pool = new TestWorkerPool(workerCount);
+            TestUtils.setupWorkerPool(pool, engine);
+            pool.start();
+            try (SqlExecutionContextImpl ctx = new SqlExecutionContextImpl(engine, workerCount)) {
+                try (RecordCursorFactory factory = compiler.compile("select ts, count() from x sample by 10m", ctx).getRecordCursorFactory()) {
+                    Assert.assertEquals(AsyncSampleByRecordCursorFactory.class, factory.getClass());
+                }
+                TestUtils.assertSql(compiler, ctx, query, sink, expected);
+                // run the query once again to make sure the cursor is reusable
+                TestUtils.assertSql(compiler, ctx, query, sink, expected);
+            } finally {
+                pool.halt();
+            }
+        });
+    }
+
+    private void assertParallelEqualsSerial(String query) throws Exception {
+        assertMemoryLeak(() -> {
+            createTable();
+
+            configOverrideParallelSampleByEnabled(false);
+            final StringSink expected = new StringSink();
+            TestUtils.printSql(compiler, sqlExecutionContext, query, expected);
+
+            configOverrideParallelSampleByEnabled(true);
+            TestUtils.assertSql(compiler, sqlExecutionContext, query, sink, expected);
+        });
+    }
+
+    private void createTable() throws SqlException {
+        // 2000 rows 10 seconds apart, so that sample by buckets span several page frames and partitions
+        compiler.compile(
+                "create table x as (" +
+                        "select rnd_symbol('a','b','c','d',null) s," +
+                        " rnd_int(0, 50, 2) i," +
+                        " rnd_long(0, 1000, 2) l," +
+                        " rnd_double(2) d," +
+                        " rnd_float(2) f," +
+                        " timestamp_sequence(1000123456, 10000000) ts" +
+                        " from long_sequence(2000)" +
+                        ") timestamp(ts) partition by hour",
+                sqlExecutionContext
+        );
+    }
+}
@@ -0,0 +1,190 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.test.griffin.engine.join;
+
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContextImpl;
+import io.questdb.griffin.engine.join.AsyncHashJoinRecordCursorFactory;
+import io.questdb.griffin.engine.join.HashJoinLightRecordCursorFactory;
+import io.questdb.griffin.engine.join.HashOuterJoinLightRecordCursorFactory;
+import io.questdb.mp.WorkerPool;
+import io.questdb.std.str.StringSink;
+import io.questdb.test.AbstractGriffinTest;
+import io.questdb.test.mp.TestWorkerPool;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AsyncHashJoinRecordCursorFactoryTest extends AbstractGriffinTest {
+
+    private static final int PAGE_FRAME_MAX_ROWS = 100;
+
+    @Before
+    public void setUp() {
+        pageFrameMaxRows = PAGE_FRAME_MAX_ROWS;
+        super.setUp();
+    }
+
+    @Test
+    public void testEmptySlave() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables();
+            compile("create table z as (select * from y where 1 = 0)");
+            configOverrideParallelHashJoinEnabled(true);
+            assertSql("select x.i, z.l from x join z on (s)", "i\tl\n");
+        });
+    }
+
+    @Test
+    public void testFallbackToSerialJoin() throws Exception {
+        assertMemoryLeak(() -> {
+            configOverrideParallelHashJoinEnabled(true);
+            createTables();
+            // outer joins keep using the serial factories; join factories are wrapped with the column selection
+            try (RecordCursorFactory factory = compiler.compile("select * from x left join y on (s)", sqlExecutionContext).getRecordCursorFactory()) {
+                Assert.assertEquals(HashOuterJoinLightRecordCursorFactory.class, factory.getBaseFactory().getClass());
+            }
+            // filtered slave doesn't support page frames
+            try (RecordCursorFactory factory = compiler.compile("select * from x join (select * from y where l > 10) y on (s)", sqlExecutionContext).getRecordCursorFactory()) {
+                Assert.assertEquals(HashJoinLightRecordCursorFactory.class, factory.getBaseFactory().getClass());
+            }
+        });
+    }
+
+    @Test
+    public void testIntKey() throws Exception {
+        assertParallelEqualsSerial("select x.i, x.ts, y.l, y.str from x join y on (i) order by x.ts, y.l, y.str");
+    }
+
+    @Test
+    public void testMultipleKeys() throws Exception {
+        assertParallelEqualsSerial("select x.s, x.i, x.ts, y.l from x join y on (s, i) order by x.ts, y.l");
+    }
+
+    @Test
+    public void testPlan() throws Exception {
+        assertMemoryLeak(() -> {
+            configOverrideParallelHashJoinEnabled(true);
+            createTables();
+            assertPlan(
+                    "select * from x join y on (s)",
+                    "SelectedRecord\n" +
+                            "    Async Hash Join Light\n" +
+                            "      workers: 1\n" +
+                            "      condition: y.s=x.s\n" +
+                            "        DataFrame\n" +
+                            "            Row forward scan\n" +
+                            "            Frame forward scan on: x\n" +
+                            "        Hash\n" +
+                            "            DataFrame\n" +
+                            "                Row forward scan\n" +
+                            "                Frame forward scan on: y\n"
+            );
+        });
+    }
+
+    @Test
+    public void testStringKeyWithWorkerPool() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables();
+            final String query = "select x.str, x.ts, y.i, y.l from x join y on (str) order by x.ts, y.i, y.l";
+
+            configOverrideParallelHashJoinEnabled(false);
+            final StringSink expected = new StringSink();
+            TestUtils.printSql(compiler, sqlExecutionContext, query, expected);
+
+            configOverrideParallelHashJoinEnabled(true);
+            final int workerCount = 4;
+            final WorkerPool pool = new TestWorkerPool(workerCount);
+            TestUtils.setupWorkerPool(pool, engine);
+            pool.start();
+            try (SqlExecutionContextImpl ctx = new SqlExecutionContextImpl(engine, workerCount)) {
+                try (RecordCursorFactory factory = compiler.compile("select * from x join y on (str)", ctx).getRecordCursorFactory()) {
+                    Assert.assertEquals(AsyncHashJoinRecordCursorFactory.class, factory.getBaseFactory().getClass());
+                }
+                TestUtils.assertSql(compiler, ctx, query, sink, expected);
+                // run the query once again to make sure the cursor is reusable
+                TestUtils.assertSql(compiler, ctx, query, sink, expected);
+            } finally {
+                pool.halt();
+            }
+        });
+    }
+
+    @Test
+    public void testSymbolKeyPreservesMasterOrder() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables();
+            configOverrideParallelHashJoinEnabled(true);
+            // master timestamp order is kept, so there is no need to sort the result
+            TestUtils.assertSqlCursors(
+                    compiler,
+                    sqlExecutionContext,
+                    "select x.ts, count() from x join y on (s) order by x.ts",
+                    "select ts, count() from (select x.ts from x join y on (s)) timestamp(ts) sample by 1T align to first observation",
+                    LOG
+            );
+        });
+    }
+
+    private void assertParallelEqualsSerial(String query) throws Exception {
+        assertMemoryLeak(() -> {
+            createTables();
+
+            configOverrideParallelHashJoinEnabled(false);
+            final StringSink expected = new StringSink();
+            TestUtils.printSql(compiler, sqlExecutionContext, query, expected);
+
+            configOverrideParallelHashJoinEnabled(true);
+            TestUtils.assertSql(compiler, sqlExecutionContext, query, sink, expected);
+        });
+    }
+
+    private void createTables() throws SqlException {
+        compiler.compile(
+                "create table x as (" +
+                        "select rnd_symbol('a','b','c','d',null) s," +
+                        " rnd_int(0, 50, 2) i," +
+                        " rnd_str(5, 2, 4, 3) str," +
+                        " timestamp_sequence(0, 100000) ts" +
+                        " from long_sequence(1000)" +
+                        ") timestamp(ts) partition by hour",
+                sqlExecutionContext
+        );
+        compiler.compile(
+                "create table y as (" +
+                        "select rnd_symbol('a','b','c',null) s," +
+                        " rnd_int(0, 50, 2) i," +
+                        " rnd_long(0, 1000, 2) l," +
+                        " rnd_str(5, 2, 4, 3) str," +
+                        " timestamp_sequence(0, 1000000) ts" +
+                        " from long_sequence(300)" +
+                        ") timestamp(ts) partition by hour",
+                sqlExecutionContext
+        );
+    }
+}
@@ -0,0 +1,169 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.test.griffin.engine.orderby;
+
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.engine.orderby.RadixSortLightRecordCursorFactory;
+import io.questdb.griffin.engine.orderby.SortedLightRecordCursorFactory;
+import io.questdb.test.AbstractGriffinTest;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RadixSortLightRecordCursorFactoryTest extends AbstractGriffinTest {
+
+    private static final String[] COLUMNS = {"b", "bt", "sh", "ch", "i", "l", "d", "f", "dt", "ts", "g1", "g2", "g4", "g8"};
+
+    @Test
+    public void testDoubleSpecialValues() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table x (d double, id int, k int)");
+            compile("insert into x values (0.0, 1, 0), (-0.0, 2, 0), (null, 3, 0), (-1.5, 4, 0), (1.5, 5, 0), (0.0, 6, 0), (null, 7, 0), (-0.0, 8, 0), (4.9E-324, 9, 0), (-4.9E-324, 10, 0)");
+            assertSql(
+                    "select d, id from x order by d",
+                    "d\tid\n" +
+                            "NaN\t7\n" +
+                            "NaN\t3\n" +
+                            "-1.5\t4\n" +
+                            "-4.9E-324\t10\n" +
+                            "0.0\t6\n" +
+                            "0.0\t1\n" +
+                            "-0.0\t8\n" +
+                            "-0.0\t2\n" +
+                            "4.9E-324\t9\n" +
+                            "1.5\t5\n"
+            );
+            assertFactory("select * from x order by d", RadixSortLightRecordCursorFactory.class);
+            // the tree based sort must agree on the order
+            TestUtils.assertSqlCursors(compiler, sqlExecutionContext, "select * from x order by d, k", "select * from x order by d", LOG);
+        });
+    }
+
+    @Test
+    public void testFallbackToTreeSort() throws Exception {
+        assertMemoryLeak(() -> {
+            createTable();
+            assertFactory("select * from x order by s", SortedLightRecordCursorFactory.class);
+            assertFactory("select * from x order by l, i", SortedLightRecordCursorFactory.class);
+        });
+    }
+
+    @Test
+    public void testMatchesTreeSortAsc() throws Exception {
+        assertMemoryLeak(() -> {
+            createTable();
+            for (String column : COLUMNS) {
+                assertMatchesTreeSort(column);
+            }
+        });
+    }
+
+    @Test
+    public void testMatchesTreeSortDesc() throws Exception {
+        assertMemoryLeak(() -> {
+            createTable();
+            for (String column : COLUMNS) {
+                assertMatchesTreeSort(column + " desc");
+            }
+        });
+    }
+
+    @Test
+    public void testPlan() throws Exception {
+        assertMemoryLeak(() -> {
+            createTable();
+            assertPlan(
+                    "select * from x order by l desc",
+                    "Radix sort light\n" +
+                            "  keys: [l desc]\n" +
+                            "    DataFrame\n" +
+                            "        Row forward scan\n" +
+                            "        Frame forward scan on: x\n"
+            );
+        });
+    }
+
+    @Test
+    public void testRandomAccess() throws Exception {
+        // assertQuery() iterates the cursor several times, including after toTop(), and checks recordAt()
+        assertQuery(
+                "l\tid\n" +
+                        "NaN\t4\n" +
+                        "-3\t2\n" +
+                        "1\t5\n" +
+                        "1\t1\n" +
+                        "7\t3\n",
+                "select * from y order by l",
+                "create table y as (select * from (" +
+                        "select 1L l, 1 id from long_sequence(1) union all " +
+                        "select -3L, 2 from long_sequence(1) union all " +
+                        "select 7L, 3 from long_sequence(1) union all " +
+                        "select null::long, 4 from long_sequence(1) union all " +
+                        "select 1L, 5 from long_sequence(1)" +
+                        "))",
+                null,
+                true,
+                true
+        );
+    }
+
+    private void assertFactory(String query, Class<?> expected) throws SqlException {
+        try (RecordCursorFactory factory = compiler.compile(query, sqlExecutionContext).getRecordCursorFactory()) {
+            Assert.assertEquals(expected, factory.getClass());
+        }
+    }
+
+    private void assertMatchesTreeSort(String orderBy) throws SqlException {
+        final String query = "select * from x order by " + orderBy;
+        assertFactory(query, RadixSortLightRecordCursorFactory.class);
+        // the second, constant, key forces the tree based sort
+        TestUtils.assertSqlCursors(compiler, sqlExecutionContext, query + ", k", query, LOG);
+    }
+
+    private void createTable() throws SqlException {
+        compile(
+                "create table x as (" +
+                        "select rnd_boolean() b," +
+                        " rnd_byte(0, 10) bt," +
+                        " rnd_short(0, 10) sh," +
+                        " rnd_char() ch," +
+                        " rnd_int(-5, 5, 2) i," +
+                        " rnd_long(-5, 5, 2) l," +
+                        " rnd_double(2) d," +
+                        " rnd_float(2) f," +
+                        " rnd_date(to_date('2015', 'yyyy'), to_date('2016', 'yyyy'), 2) dt," +
+                        " cast(rnd_long(-5, 5, 2) as timestamp) ts," +
+                        " rnd_geohash(5) g1," +
+                        " rnd_geohash(10) g2," +
+                        " rnd_geohash(20) g4," +
+                        " rnd_geohash(40) g8," +
+                        " rnd_symbol('a','b',null) s," +
+                        " 0 k" +
+                        " from long_sequence(1000)" +
+                        ")"
+        );
+    }
+}
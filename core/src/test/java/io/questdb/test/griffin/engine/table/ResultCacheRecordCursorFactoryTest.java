@@ -0,0 +1,277 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.test.griffin.engine.table;
+
+import io.questdb.cairo.QueryResultCache;
+import io.questdb.cairo.TableToken;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.engine.table.ResultCacheRecordCursorFactory;
+import io.questdb.std.LongList;
+import io.questdb.std.ObjList;
+import io.questdb.std.Unsafe;
+import io.questdb.test.AbstractGriffinTest;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ResultCacheRecordCursorFactoryTest extends AbstractGriffinTest {
+
+    @Override
+    @Before
+    public void setUp() {
+        configOverrideSqlResultCacheEnabled(true);
+        super.setUp();
+    }
+
+    @Test
+    public void testAllTypes() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table x as (" +
+                    "select" +
+                    " rnd_boolean() a," +
+                    " rnd_byte() b," +
+                    " rnd_short() c," +
+                    " rnd_char() d," +
+                    " rnd_int(0, 100, 2) e," +
+                    " rnd_long(0, 100, 2) f," +
+                    " rnd_float(2) g," +
+                    " rnd_double(2) h," +
+                    " rnd_date(to_date('2015', 'yyyy'), to_date('2016', 'yyyy'), 2) i," +
+                    " rnd_str(3, 5, 2) j," +
+                    " rnd_symbol('aa', 'bb', null) k," +
+                    " rnd_long256() l," +
+                    " rnd_uuid4() m," +
+                    " rnd_geohash(20) n," +
+                    " timestamp_sequence(0, 1000000) ts" +
+                    " from long_sequence(20)" +
+                    ") timestamp(ts)");
+
+            final String query = "select * from x";
+            final String expected = queryResult(query);
+            assertCached(1);
+            // served from cache
+            TestUtils.assertEquals(expected, queryResult(query));
+            printSqlResult(expected, query, "ts", true, true);
+            assertCached(1);
+            clearCache();
+        });
+    }
+
+    @Test
+    public void testBindVariablesArePartOfKey() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table x as (select x, rnd_str('a', 'b') s from long_sequence(10))");
+            bindVariableService.clear();
+            bindVariableService.setLong(0, 3);
+            bindVariableService.setStr(1, "a,b");
+            final String expected3 = queryResult("select x from x where x < $1 and s <> $2");
+            TestUtils.assertEquals("x\n1\n2\n", expected3);
+
+            bindVariableService.setLong(0, 4);
+            TestUtils.assertEquals("x\n1\n2\n3\n", queryResult("select x from x where x < $1 and s <> $2"));
+            assertCached(2);
+
+            bindVariableService.setLong(0, 3);
+            TestUtils.assertEquals(expected3, queryResult("select x from x where x < $1 and s <> $2"));
+            assertCached(2);
+
+            bindVariableService.clear();
+            bindVariableService.setLong("lim", 2);
+            TestUtils.assertEquals("x\n1\n", queryResult("select x from x where x < :lim"));
+            bindVariableService.setLong("lim", 3);
+            TestUtils.assertEquals("x\n1\n2\n", queryResult("select x from x where x < :lim"));
+            assertCached(4);
+            clearCache();
+        });
+    }
+
+    @Test
+    public void testEviction() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table x as (select x from long_sequence(100))");
+            final ObjList<TableToken> tableTokens = new ObjList<>();
+            tableTokens.add(engine.getTableToken("x"));
+            final LongList txns = new LongList();
+            txns.add(1);
+
+            try (
+                    RecordCursorFactory factory = compiler.compile("select x from x", sqlExecutionContext).getRecordCursorFactory();
+                    QueryResultCache cache = new QueryResultCache(4096)
+            ) {
+                // each entry takes 1600 bytes, so that only two of them fit
+                final QueryResultCache.Entry a = populate(cache.newEntry("a", factory.getMetadata(), tableTokens, txns), factory);
+                Assert.assertTrue(cache.put(a));
+                cache.release(a);
+                final QueryResultCache.Entry b = populate(cache.newEntry("b", factory.getMetadata(), tableTokens, txns), factory);
+                Assert.assertTrue(cache.put(b));
+                cache.release(b);
+                Assert.assertEquals(2, cache.size());
+
+                // 'a' is used more recently than 'b'
+                final QueryResultCache.Entry pinned = cache.acquire("a");
+                Assert.assertSame(a, pinned);
+                final QueryResultCache.Entry c = populate(cache.newEntry("c", factory.getMetadata(), tableTokens, txns), factory);
+                Assert.assertTrue(cache.put(c));
+                cache.release(c);
+                Assert.assertNull(cache.acquire("b"));
+                Assert.assertEquals(2, cache.size());
+
+                // pinned entry is evicted, but stays readable until released
+                final QueryResultCache.Entry d = populate(cache.newEntry("d", factory.getMetadata(), tableTokens, txns), factory);
+                Assert.assertTrue(cache.put(d));
+                cache.release(d);
+                Assert.assertNull(cache.acquire("a"));
+                Assert.assertEquals(100, pinned.getRowCount());
+                Assert.assertEquals(100, Unsafe.getUnsafe().getLong(pinned.getRowAddress(99)));
+                cache.release(pinned);
+                Assert.assertEquals(3200, cache.getMemoryUsed());
+
+                // entry larger than the whole budget is not cached
+                final QueryResultCache.Entry e = cache.newEntry("e", factory.getMetadata(), tableTokens, txns);
+                try (RecordCursor cursor = factory.getCursor(sqlExecutionContext)) {
+                    final Record record = cursor.getRecord();
+                    boolean fits = true;
+                    for (int i = 0; i < 3; i++) {
+                        while (fits && cursor.hasNext()) {
+                            fits = e.append(record);
+                        }
+                        cursor.toTop();
+                    }
+                    Assert.assertFalse(fits);
+                }
+                Assert.assertFalse(cache.put(e));
+                Assert.assertNull(cache.acquire("e"));
+                Assert.assertEquals(2, cache.size());
+            }
+        });
+    }
+
+    @Test
+    public void testInvalidatedByInsert() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table x as (select x from long_sequence(2))");
+            printSqlResult(
+                    () -> "x\n1\n2\n",
+                    "select x from x",
+                    null,
+                    "insert into x values (3)",
+                    "x\n1\n2\n3\n",
+                    true,
+                    true,
+                    false,
+                    null
+            );
+            clearCache();
+        });
+    }
+
+    @Test
+    public void testInvalidatedByTableRecreate() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table x as (select x from long_sequence(2))");
+            TestUtils.assertEquals("x\n1\n2\n", queryResult("select x from x"));
+            compile("drop table x");
+            compile("create table x as (select x + 10 x from long_sequence(2))");
+            TestUtils.assertEquals("x\n11\n12\n", queryResult("select x from x"));
+            clearCache();
+        });
+    }
+
+    @Test
+    public void testNonDeterministicQueriesNotCached() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table x as (select x, timestamp_sequence(0, 1000000) ts from long_sequence(10)) timestamp(ts)");
+            queryResult("select x, rnd_int() from x");
+            queryResult("select x from x where ts < now()");
+            queryResult("select x from long_sequence(3)");
+            queryResult("select 1");
+            assertCached(0);
+            clearCache();
+        });
+    }
+
+    @Test
+    public void testQueryTextIsNormalized() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table x as (select x from long_sequence(3))");
+            queryResult("select x from x where x > 1");
+            queryResult("select  x\n from x /* comment */ where x > 1 -- comment");
+            assertCached(1);
+            queryResult("select x from x where x > 2");
+            assertCached(2);
+            clearCache();
+        });
+    }
+
+    @Test
+    public void testSqlWrapsQuery() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table x as (select x from long_sequence(3))");
+            try (RecordCursorFactory factory = compiler.compile("select * from x", sqlExecutionContext).getRecordCursorFactory()) {
+                Assert.assertTrue(factory instanceof ResultCacheRecordCursorFactory);
+            }
+            configOverrideSqlResultCacheEnabled(false);
+            try (RecordCursorFactory factory = compiler.compile("select * from x", sqlExecutionContext).getRecordCursorFactory()) {
+                Assert.assertFalse(factory instanceof ResultCacheRecordCursorFactory);
+            }
+        });
+    }
+
+    private static void assertCached(int expected) {
+        Assert.assertEquals(expected, engine.getQueryResultCache().size());
+    }
+
+    private static void clearCache() {
+        engine.getQueryResultCache().clear();
+        Assert.assertEquals(0, engine.getQueryResultCache().getMemoryUsed());
+    }
+
+    private static QueryResultCache.Entry populate(QueryResultCache.Entry entry, RecordCursorFactory factory) throws SqlException {
+        try (RecordCursor cursor = factory.getCursor(sqlExecutionContext)) {
+            final Record record = cursor.getRecord();
+            while (cursor.hasNext()) {
+                Assert.assertTrue(entry.append(record));
+            }
+        }
+        Assert.assertEquals(100, entry.getRowCount());
+        return entry;
+    }
+
+    private static String queryResult(String query) throws SqlException {
+        try (
+                RecordCursorFactory factory = compiler.compile(query, sqlExecutionContext).getRecordCursorFactory();
+                RecordCursor cursor = factory.getCursor(sqlExecutionContext)
+        ) {
+            sink.clear();
+            TestUtils.printCursor(cursor, factory.getMetadata(), true, sink, printer);
+            return sink.toString();
+        }
+    }
+}
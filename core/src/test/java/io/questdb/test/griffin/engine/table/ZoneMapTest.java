@@ -0,0 +1,231 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.test.griffin.engine.table;
+
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.griffin.CompiledQuery;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.engine.table.AsyncFilteredRecordCursorFactory;
+import io.questdb.griffin.engine.table.AsyncJitFilteredRecordCursorFactory;
+import io.questdb.griffin.engine.table.ZoneMap;
+import io.questdb.std.str.StringSink;
+import io.questdb.test.AbstractGriffinTest;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ZoneMapTest extends AbstractGriffinTest {
+
+    @Before
+    public void setUp() {
+        // two page frames per partition
+        pageFrameMaxRows = 30;
+        super.setUp();
+    }
+
+    @Test
+    public void testColumnTop() throws Exception {
+        assertMemoryLeak(() -> {
+            configOverrideSqlZoneMapEnabled(true);
+            createTable();
+            compile("alter table x add column n long");
+            compile("insert into x (l, n, ts) select x, 42, cast(60000000000 + x * 1000000 as timestamp) from long_sequence(3)");
+            assertZoneMap(
+                    "select l, n from x where n = 42",
+                    "l\tn\n" +
+                            "1\t42\n" +
+                            "2\t42\n" +
+                            "3\t42\n",
+                    true
+            );
+        });
+    }
+
+    @Test
+    public void testEqualityUsesBloomFilter() throws Exception {
+        assertMemoryLeak(() -> {
+            configOverrideSqlZoneMapEnabled(true);
+            createTable();
+            // ids are spread across all partitions, so that min/max alone can't skip anything
+            assertZoneMap(
+                    "select l, id from x where id = 42",
+                    "l\tid\n" +
+                            "518\t42\n",
+                    true
+            );
+        });
+    }
+
+    @Test
+    public void testMatchesFilterWithoutZoneMap() throws Exception {
+        final String[] queries = {
+                "select * from x where l > 950",
+                "select * from x where l >= 950 and l < 960",
+                "select * from x where 100 > l",
+                "select * from x where 100 <= l and d < 0.1",
+                "select * from x where i = 3",
+                "select * from x where i > -1 and i < 2",
+                "select * from x where d > 0.99",
+                "select * from x where f < 0.01",
+                "select * from x where sh >= 990",
+                "select * from x where l > 500.5 and l < 510.5",
+                "select * from x where ts > 6000000000",
+                "select * from x where l > 900 or d > 0.99",
+                "select * from x where l > 900 and s = 'a'"
+        };
+        assertMemoryLeak(() -> {
+            createTable();
+            final StringSink expected = new StringSink();
+            for (String query : queries) {
+                configOverrideSqlZoneMapEnabled(false);
+                TestUtils.printSql(compiler, sqlExecutionContext, query, expected);
+
+                configOverrideSqlZoneMapEnabled(true);
+                TestUtils.assertSql(compiler, sqlExecutionContext, query, sink, expected);
+            }
+        });
+    }
+
+    @Test
+    public void testNotUsedForUnsupportedFilters() throws Exception {
+        assertMemoryLeak(() -> {
+            configOverrideSqlZoneMapEnabled(true);
+            createTable();
+            final String[] queries = {
+                    "select * from x where l > 900 or l < 10",
+                    "select * from x where s = 'a'",
+                    "select * from x where l + 1 > 900",
+                    "select * from x where d = 0.5",
+                    "select * from x where l > i"
+            };
+            for (String query : queries) {
+                try (RecordCursorFactory factory = compiler.compile(query, sqlExecutionContext).getRecordCursorFactory()) {
+                    Assert.assertNull(query, getZoneMap(factory));
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testRangeSkipsFrames() throws Exception {
+        assertMemoryLeak(() -> {
+            configOverrideSqlZoneMapEnabled(true);
+            createTable();
+            assertZoneMap(
+                    "select l from x where l > 997",
+                    "l\n" +
+                            "998\n" +
+                            "999\n" +
+                            "1000\n",
+                    true
+            );
+        });
+    }
+
+    @Test
+    public void testStatsInvalidatedOnO3Insert() throws Exception {
+        // the row lands in the first frame of the partition, the frame keeps its row range
+        assertStatsInvalidated("insert into x (l, ts) values (5000, 1)", "5000\n");
+    }
+
+    @Test
+    public void testStatsInvalidatedOnTruncate() throws Exception {
+        assertStatsInvalidated("truncate table x; insert into x (l, ts) values (6000, 30000000)", "6000\n");
+    }
+
+    @Test
+    public void testStatsInvalidatedOnUpdate() throws Exception {
+        assertStatsInvalidated("update x set l = 7000 where l = 1", "7000\n");
+    }
+
+    private static ZoneMap getZoneMap(RecordCursorFactory factory) {
+        if (factory instanceof AsyncJitFilteredRecordCursorFactory) {
+            return ((AsyncJitFilteredRecordCursorFactory) factory).getZoneMap();
+        }
+        Assert.assertEquals(AsyncFilteredRecordCursorFactory.class, factory.getClass());
+        return ((AsyncFilteredRecordCursorFactory) factory).getZoneMap();
+    }
+
+    private void assertStatsInvalidated(String sql, String expected) throws Exception {
+        assertMemoryLeak(() -> {
+            configOverrideSqlZoneMapEnabled(true);
+            createTable();
+            try (RecordCursorFactory factory = compiler.compile("select l from x where l > 1000", sqlExecutionContext).getRecordCursorFactory()) {
+                assertCursor("l\n", factory, true, false, false, sqlExecutionContext);
+                Assert.assertTrue(getZoneMap(factory).getSkippedFrameCount() > 0);
+
+                for (String statement : sql.split("; ")) {
+                    executeInsertOrUpdate(statement);
+                }
+
+                // stats cached by the first run must not hide the new values
+                assertCursor("l\n" + expected, factory, true, false, false, sqlExecutionContext);
+            }
+        });
+    }
+
+    private void assertZoneMap(String query, String expected, boolean expectSkippedFrames) throws SqlException {
+        try (RecordCursorFactory factory = compiler.compile(query, sqlExecutionContext).getRecordCursorFactory()) {
+            final ZoneMap zoneMap = getZoneMap(factory);
+            Assert.assertNotNull(zoneMap);
+            assertCursor(expected, factory, true, false, false, sqlExecutionContext);
+            final long skippedFrameCount = zoneMap.getSkippedFrameCount();
+            Assert.assertEquals(expectSkippedFrames, skippedFrameCount > 0);
+
+            // the second run reuses cached stats
+            assertCursor(expected, factory, true, false, false, sqlExecutionContext);
+            Assert.assertEquals(2 * skippedFrameCount, zoneMap.getSkippedFrameCount());
+        }
+    }
+
+    private void createTable() throws SqlException {
+        // 1000 rows a minute apart make 17 hour partitions
+        compile(
+                "create table x as (" +
+                        "select x l," +
+                        " rnd_int(0, 100, 2) i," +
+                        " rnd_double(2) d," +
+                        " rnd_float(2) f," +
+                        " cast(x as short) sh," +
+                        " x * 7919 % 1000 id," +
+                        " rnd_symbol('a','b',null) s," +
+                        " timestamp_sequence(0, 60000000) ts" +
+                        " from long_sequence(1000)" +
+                        ") timestamp(ts) partition by hour"
+        );
+    }
+
+    private void executeInsertOrUpdate(String sql) throws SqlException {
+        if (sql.startsWith("update")) {
+            executeOperation(sql, CompiledQuery.UPDATE);
+        } else if (sql.startsWith("insert")) {
+            executeInsert(sql);
+        } else {
+            compile(sql);
+        }
+    }
+}
@@ -0,0 +1,321 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.test.griffin.engine.table.parquet;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.cairo.vm.Vm;
+import io.questdb.cairo.vm.api.MemoryCARW;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.engine.table.parquet.ParquetConstants;
+import io.questdb.griffin.engine.table.parquet.ThriftCompactWriter;
+import io.questdb.std.FilesFacade;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.str.Path;
+import io.questdb.test.AbstractGriffinTest;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+
+public class ParquetTest extends AbstractGriffinTest {
+
+    @BeforeClass
+    public static void setUpStatic() {
+        try {
+            inputRoot = temp.newFolder("parquet" + System.nanoTime()).getAbsolutePath();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        AbstractGriffinTest.setUpStatic();
+    }
+
+    @Test
+    public void testExportAllTypes() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table x as (" +
+                    "select" +
+                    " rnd_boolean() a," +
+                    " rnd_byte() b," +
+                    " rnd_short() c," +
+                    " rnd_char() d," +
+                    " rnd_int(0, 100, 2) e," +
+                    " rnd_long(0, 100, 2) f," +
+                    " rnd_float(2) g," +
+                    " rnd_double(2) h," +
+                    " rnd_date(to_date('2015', 'yyyy'), to_date('2016', 'yyyy'), 2) i," +
+                    " rnd_str(3, 5, 2) j," +
+                    " rnd_symbol('aa', 'bb', null) k," +
+                    " rnd_uuid4() l," +
+                    " rnd_str('абв', 'ü€', null) m," +
+                    " timestamp_sequence(0, 3600000000) ts" +
+                    " from long_sequence(100)" +
+                    ") timestamp(ts) partition by day");
+
+            compile("copy x to 'x.parquet'");
+            TestUtils.assertSqlCursors(compiler, sqlExecutionContext, "read_parquet('x.parquet')", "x", LOG, true);
+            assertSql("select count() from read_parquet('x.parquet')", "count\n100\n");
+        });
+    }
+
+    @Test
+    public void testExportColumnTop() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table x as (select x, timestamp_sequence(0, 3600000000) ts from long_sequence(30)) timestamp(ts) partition by day");
+            compile("alter table x add column s string");
+            compile("alter table x add column f double");
+            compile("insert into x select x, timestamp_sequence(30 * 3600000000, 3600000000), 'v' || x, x / 2.0 from long_sequence(3)");
+
+            compile("copy x to 'x.parquet'");
+            TestUtils.assertSqlCursors(compiler, sqlExecutionContext, "read_parquet('x.parquet')", "x", LOG, true);
+            assertSql(
+                    "select * from read_parquet('x.parquet') where x < 3",
+                    "x\tts\ts\tf\n" +
+                            "1\t1970-01-01T00:00:00.000000Z\t\tNaN\n" +
+                            "2\t1970-01-01T01:00:00.000000Z\t\tNaN\n" +
+                            "1\t1970-01-02T06:00:00.000000Z\tv1\t0.5\n" +
+                            "2\t1970-01-02T07:00:00.000000Z\tv2\t1.0\n"
+            );
+        });
+    }
+
+    @Test
+    public void testExportEmptyTable() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table x (a int, s symbol, ts timestamp) timestamp(ts) partition by day");
+            compile("copy x to 'empty.parquet'");
+            assertSql("read_parquet('empty.parquet')", "a\ts\tts\n");
+        });
+    }
+
+    @Test
+    public void testExportFileNameWithDots() throws Exception {
+        assertMemoryLeak(() -> assertFailure(
+                "copy x to '../x.parquet'",
+                "create table x (a int)",
+                10,
+                "'.' is not allowed"
+        ));
+    }
+
+    @Test
+    public void testExportOverwritesFile() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table x as (select x from long_sequence(1000))");
+            compile("create table y as (select x from long_sequence(2))");
+            compile("copy x to 'x.parquet'");
+            compile("copy y to 'x.parquet'");
+            assertSql("read_parquet('x.parquet')", "x\n1\n2\n");
+        });
+    }
+
+    @Test
+    public void testExportUnsupportedType() throws Exception {
+        assertMemoryLeak(() -> assertFailure(
+                "copy x to 'x.parquet'",
+                "create table x as (select rnd_long256() l from long_sequence(1))",
+                5,
+                "column type is not supported by parquet export [column=l, type=LONG256]"
+        ));
+    }
+
+    @Test
+    public void testReadDictionaryEncoded() throws Exception {
+        assertMemoryLeak(() -> {
+            writeDictionaryEncodedFile();
+            assertSql(
+                    "read_parquet('dict.parquet')",
+                    "s\n" +
+                            "foo\n" +
+                            "bar\n" +
+                            "\n" +
+                            "bar\n" +
+                            "foo\n"
+            );
+        });
+    }
+
+    @Test
+    public void testReadFileNotFound() throws Exception {
+        assertMemoryLeak(() -> assertFailure(
+                "select * from read_parquet('missing.parquet')",
+                null,
+                27,
+                "could not open parquet file"
+        ));
+    }
+
+    @Test
+    public void testReadNotParquet() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table x as (select x from long_sequence(1))");
+            compile("copy x to 'x.parquet'");
+            try (Path path = new Path()) {
+                path.of(inputRoot).concat("x.parquet").$();
+                final FilesFacade ff = configuration.getFilesFacade();
+                final int fd = ff.openRW(path, configuration.getWriterFileOpenOpts());
+                Assert.assertTrue(fd > -1);
+                ff.truncate(fd, ff.length(fd) - 1);
+                ff.close(fd);
+            }
+            try {
+                compile("select * from read_parquet('x.parquet')");
+                Assert.fail();
+            } catch (SqlException e) {
+                Assert.assertEquals(27, e.getPosition());
+                TestUtils.assertContains(e.getFlyweightMessage(), "not a parquet file");
+            }
+        });
+    }
+
+    @Test
+    public void testReadSchemaChanged() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table x as (select x from long_sequence(2))");
+            compile("create table y as (select x::string x from long_sequence(2))");
+            compile("copy x to 'x.parquet'");
+            try (RecordCursorFactory factory = compiler.compile("read_parquet('x.parquet')", sqlExecutionContext).getRecordCursorFactory()) {
+                compile("copy y to 'x.parquet'");
+                try {
+                    factory.getCursor(sqlExecutionContext);
+                    Assert.fail();
+                } catch (CairoException e) {
+                    TestUtils.assertContains(e.getFlyweightMessage(), "parquet file schema has changed");
+                }
+            }
+        });
+    }
+
+    private static void writeDictionaryEncodedFile() {
+        final CairoConfiguration configuration = AbstractGriffinTest.configuration;
+        final FilesFacade ff = configuration.getFilesFacade();
+        try (
+                MemoryCARW mem = Vm.getCARWInstance(1024, Integer.MAX_VALUE, MemoryTag.NATIVE_DEFAULT);
+                Path path = new Path()
+        ) {
+            final ThriftCompactWriter thrift = new ThriftCompactWriter();
+            mem.putInt(ParquetConstants.MAGIC_INT);
+
+            // dictionary page: "foo", "bar"
+            final long dictionaryPageOffset = mem.getAppendOffset();
+            thrift.of(mem);
+            thrift.structBegin();
+            thrift.fieldI32(1, ParquetConstants.PAGE_TYPE_DICTIONARY_PAGE);
+            thrift.fieldI32(2, 14);
+            thrift.fieldI32(3, 14);
+            thrift.fieldStruct(7);
+            thrift.fieldI32(1, 2);
+            thrift.fieldI32(2, ParquetConstants.ENCODING_PLAIN);
+            thrift.structEnd();
+            thrift.structEnd();
+            mem.putInt(3);
+            mem.putByte((byte) 'f');
+            mem.putByte((byte) 'o');
+            mem.putByte((byte) 'o');
+            mem.putInt(3);
+            mem.putByte((byte) 'b');
+            mem.putByte((byte) 'a');
+            mem.putByte((byte) 'r');
+
+            // data page: definition levels 1,1,0,1,1 and indexes 0,1,1,0, both bit-packed
+            final long dataPageOffset = mem.getAppendOffset();
+            thrift.of(mem);
+            thrift.structBegin();
+            thrift.fieldI32(1, ParquetConstants.PAGE_TYPE_DATA_PAGE);
+            thrift.fieldI32(2, 9);
+            thrift.fieldI32(3, 9);
+            thrift.fieldStruct(5);
+            thrift.fieldI32(1, 5);
+            thrift.fieldI32(2, ParquetConstants.ENCODING_RLE_DICTIONARY);
+            thrift.fieldI32(3, ParquetConstants.ENCODING_RLE);
+            thrift.fieldI32(4, ParquetConstants.ENCODING_RLE);
+            thrift.structEnd();
+            thrift.structEnd();
+            mem.putInt(2);
+            mem.putByte((byte) 3);
+            mem.putByte((byte) 0x1B);
+            mem.putByte((byte) 1);
+            mem.putByte((byte) 3);
+            mem.putByte((byte) 0x06);
+            final long chunkSize = mem.getAppendOffset() - dictionaryPageOffset;
+
+            final long footerOffset = mem.getAppendOffset();
+            thrift.of(mem);
+            thrift.structBegin();
+            thrift.fieldI32(1, 1);
+            thrift.fieldList(2, ThriftCompactWriter.TYPE_STRUCT, 2);
+            thrift.structBegin();
+            thrift.fieldBinary(4, "schema");
+            thrift.fieldI32(5, 1);
+            thrift.structEnd();
+            thrift.structBegin();
+            thrift.fieldI32(1, ParquetConstants.TYPE_BYTE_ARRAY);
+            thrift.fieldI32(3, ParquetConstants.REPETITION_OPTIONAL);
+            thrift.fieldBinary(4, "s");
+            thrift.fieldI32(6, ParquetConstants.CONVERTED_UTF8);
+            thrift.structEnd();
+            thrift.fieldI64(3, 5);
+            thrift.fieldList(4, ThriftCompactWriter.TYPE_STRUCT, 1);
+            thrift.structBegin();
+            thrift.fieldList(1, ThriftCompactWriter.TYPE_STRUCT, 1);
+            thrift.structBegin();
+            thrift.fieldI64(2, dictionaryPageOffset);
+            thrift.fieldStruct(3);
+            thrift.fieldI32(1, ParquetConstants.TYPE_BYTE_ARRAY);
+            thrift.fieldList(2, ThriftCompactWriter.TYPE_I32, 2);
+            thrift.i32(ParquetConstants.ENCODING_RLE_DICTIONARY);
+            thrift.i32(ParquetConstants.ENCODING_RLE);
+            thrift.fieldList(3, ThriftCompactWriter.TYPE_BINARY, 1);
+            thrift.binary("s");
+            thrift.fieldI32(4, ParquetConstants.CODEC_UNCOMPRESSED);
+            thrift.fieldI64(5, 5);
+            thrift.fieldI64(6, chunkSize);
+            thrift.fieldI64(7, chunkSize);
+            thrift.fieldI64(9, dataPageOffset);
+            thrift.fieldI64(11, dictionaryPageOffset);
+            thrift.structEnd();
+            thrift.structEnd();
+            thrift.fieldI64(2, chunkSize);
+            thrift.fieldI64(3, 5);
+            thrift.structEnd();
+            thrift.structEnd();
+            mem.putInt((int) (mem.getAppendOffset() - footerOffset));
+            mem.putInt(ParquetConstants.MAGIC_INT);
+
+            path.of(inputRoot).concat("dict.parquet").$();
+            final int fd = ff.openRW(path, configuration.getWriterFileOpenOpts());
+            Assert.assertTrue(fd > -1);
+            try {
+                Assert.assertEquals(mem.getAppendOffset(), ff.write(fd, mem.getAddress(), mem.getAppendOffset(), 0));
+            } finally {
+                ff.close(fd);
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.test.griffin.wal;
+
+import io.questdb.test.AbstractGriffinTest;
+import org.junit.Test;
+
+public class WalDedupTest extends AbstractGriffinTest {
+
+    @Test
+    public void testDedupAcrossTransactions() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table x (s symbol, v long, ts timestamp) timestamp(ts) partition by DAY WAL dedup upsert keys(ts, s)");
+
+            executeInsert("insert into x values ('a', 1, '2022-02-24T01'), ('b', 2, '2022-02-24T01'), ('a', 3, '2022-02-24T02')");
+            executeInsert("insert into x values ('a', 10, '2022-02-24T01'), ('c', 20, '2022-02-24T00')");
+            executeInsert("insert into x values ('a', 30, '2022-02-24T02'), ('a', 31, '2022-02-24T03')");
+            drainWalQueue();
+
+            assertSql("x", "s\tv\tts\n" +
+                    "c\t20\t2022-02-24T00:00:00.000000Z\n" +
+                    "b\t2\t2022-02-24T01:00:00.000000Z\n" +
+                    "a\t10\t2022-02-24T01:00:00.000000Z\n" +
+                    "a\t30\t2022-02-24T02:00:00.000000Z\n" +
+                    "a\t31\t2022-02-24T03:00:00.000000Z\n");
+        });
+    }
+
+    @Test
+    public void testDedupCommittedRows() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table x (s symbol, v long, ts timestamp) timestamp(ts) partition by DAY WAL dedup upsert keys(ts, s)");
+
+            executeInsert("insert into x values ('a', 1, '2022-02-23T01'), ('b', 2, '2022-02-23T05'), ('a', 3, '2022-02-24T01'), ('b', 4, '2022-02-24T02'), ('a', 5, '2022-02-24T02')");
+            drainWalQueue();
+
+            // re-sent rows replace committed rows in both the older and the last partition,
+            // including rows at the first and the last timestamp of a partition
+            executeInsert("insert into x values ('a', 1, '2022-02-23T01'), ('b', 20, '2022-02-23T05'), ('a', 3, '2022-02-24T01'), ('b', 40, '2022-02-24T02'), ('a', 5, '2022-02-24T02')");
+            drainWalQueue();
+
+            assertSql("x order by ts, s", "s\tv\tts\n" +
+                    "a\t1\t2022-02-23T01:00:00.000000Z\n" +
+                    "b\t20\t2022-02-23T05:00:00.000000Z\n" +
+                    "a\t3\t2022-02-24T01:00:00.000000Z\n" +
+                    "a\t5\t2022-02-24T02:00:00.000000Z\n" +
+                    "b\t40\t2022-02-24T02:00:00.000000Z\n");
+            assertSql("select count() from x", "count\n5\n");
+
+            // new keys at committed timestamps are kept next to the committed rows
+            executeInsert("insert into x values ('c', 6, '2022-02-23T05'), ('a', 7, '2022-02-24T02'), ('c', 8, '2022-02-24T03')");
+            drainWalQueue();
+
+            assertSql("x order by ts, s", "s\tv\tts\n" +
+                    "a\t1\t2022-02-23T01:00:00.000000Z\n" +
+                    "b\t20\t2022-02-23T05:00:00.000000Z\n" +
+                    "c\t6\t2022-02-23T05:00:00.000000Z\n" +
+                    "a\t3\t2022-02-24T01:00:00.000000Z\n" +
+                    "a\t7\t2022-02-24T02:00:00.000000Z\n" +
+                    "b\t40\t2022-02-24T02:00:00.000000Z\n" +
+                    "c\t8\t2022-02-24T03:00:00.000000Z\n");
+            assertSql("select count() from x", "count\n7\n");
+        });
+    }
+
+    @Test
+    public void testDedupCommittedRowsManyKeys() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table x (k long, s string, v long, ts timestamp) timestamp(ts) partition by DAY WAL dedup upsert keys(ts, k, s)");
+
+            compile("insert into x select x, 's' || (x % 7), x, '2022-02-24T01' from long_sequence(2000)");
+            drainWalQueue();
+
+            // every other committed row is replaced, the rest of the new rows have new keys
+            compile("insert into x select 2 * x, 's' || ((2 * x) % 7), -x, '2022-02-24T01' from long_sequence(2000)");
+            drainWalQueue();
+
+            assertSql("select count(), sum(v) from x", "count\tsum\n3000\t-1001000\n");
+            assertSql("select * from (select k, s, count() c from x) where c > 1", "k\ts\tc\n");
+        });
+    }
+
+    @Test
+    public void testDedupCommittedRowsTimestampOnly() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table x (v int, s string, ts timestamp) timestamp(ts) partition by DAY WAL dedup upsert keys(ts)");
+
+            executeInsert("insert into x values (1, 'abc', '2022-02-24T01'), (2, 'de', '2022-02-24T02'), (3, null, '2022-02-24T03')");
+            drainWalQueue();
+
+            executeInsert("insert into x values (10, 'fghij', '2022-02-24T00'), (20, null, '2022-02-24T02'), (30, 'k', '2022-02-24T03')");
+            drainWalQueue();
+
+            assertSql("x", "v\ts\tts\n" +
+                    "10\tfghij\t2022-02-24T00:00:00.000000Z\n" +
+                    "1\tabc\t2022-02-24T01:00:00.000000Z\n" +
+                    "20\t\t2022-02-24T02:00:00.000000Z\n" +
+                    "30\tk\t2022-02-24T03:00:00.000000Z\n");
+        });
+    }
+
+    @Test
+    public void testDedupTimestampOnly() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table x (v int, s string, ts timestamp) timestamp(ts) partition by DAY WAL dedup upsert keys(ts)");
+
+            executeInsert("insert into x values (1, 'abc', '2022-02-24T01'), (2, null, '2022-02-24T01'), (3, 'de', '2022-02-24T02')");
+            executeInsert("insert into x values (4, 'fghij', '2022-02-24T02')");
+            drainWalQueue();
+
+            assertSql("x", "v\ts\tts\n" +
+                    "2\t\t2022-02-24T01:00:00.000000Z\n" +
+                    "4\tfghij\t2022-02-24T02:00:00.000000Z\n");
+        });
+    }
+
+    @Test
+    public void testDedupVarLengthKey() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table x (s string, v int, b binary, ts timestamp) timestamp(ts) partition by DAY WAL dedup upsert keys(ts, s)");
+
+            executeInsert("insert into x values ('aa', 1, null, '2022-02-24T01'), ('a', 2, null, '2022-02-24T01'), (null, 3, null, '2022-02-24T01')");
+            executeInsert("insert into x values ('', 4, null, '2022-02-24T01'), ('aa', 5, null, '2022-02-24T01'), (null, 6, null, '2022-02-24T01')");
+            drainWalQueue();
+
+            assertSql("x", "s\tv\tb\tts\n" +
+                    "a\t2\t\t2022-02-24T01:00:00.000000Z\n" +
+                    "\t4\t\t2022-02-24T01:00:00.000000Z\n" +
+                    "aa\t5\t\t2022-02-24T01:00:00.000000Z\n" +
+                    "\t6\t\t2022-02-24T01:00:00.000000Z\n");
+        });
+    }
+
+    @Test
+    public void testNoDedupWithoutKeys() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table x (s symbol, v long, ts timestamp) timestamp(ts) partition by DAY WAL");
+
+            executeInsert("insert into x values ('a', 1, '2022-02-24T01'), ('a', 2, '2022-02-24T01')");
+            executeInsert("insert into x values ('a', 3, '2022-02-24T01')");
+            drainWalQueue();
+
+            assertSql("x", "s\tv\tts\n" +
+                    "a\t1\t2022-02-24T01:00:00.000000Z\n" +
+                    "a\t2\t2022-02-24T01:00:00.000000Z\n" +
+                    "a\t3\t2022-02-24T01:00:00.000000Z\n");
+        });
+    }
+}
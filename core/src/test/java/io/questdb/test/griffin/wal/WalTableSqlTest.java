@@ -43,10 +43,12 @@ import io.questdb.test.AbstractGriffinTest;
 import io.questdb.test.std.TestFilesFacadeImpl;
 import io.questdb.test.tools.TestUtils;
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static io.questdb.cairo.TableUtils.COLUMN_VERSION_FILE_NAME;
@@ -204,6 +206,41 @@ public class WalTableSqlTest extends AbstractGriffinTest {
         });
     }
 
+    @Test
+    public void testApplyPrefetchesWalSegments() throws Exception {
+        Assume.assumeTrue(Files.POSIX_FADV_WILLNEED > -1);
+        final AtomicInteger prefetchCount = new AtomicInteger();
+        FilesFacade ff = new TestFilesFacadeImpl() {
+            @Override
+            public void fadvise(int fd, long offset, long len, int advise) {
+                if (advise == Files.POSIX_FADV_WILLNEED) {
+                    prefetchCount.incrementAndGet();
+                }
+                super.fadvise(fd, offset, len, advise);
+            }
+        };
+
+        assertMemoryLeak(ff, () -> {
+            String tableName = testName.getMethodName();
+            compile("create table " + tableName + " (x long, s string, ts timestamp) timestamp(ts) partition by DAY WAL");
+            compile("insert into " + tableName + " values (1, 'a', '2022-02-24T01')");
+            compile("insert into " + tableName + " values (2, 'bb', '2022-02-24T00')");
+            compile("insert into " + tableName + " values (3, null, '2022-02-25T00')");
+
+            drainWalQueue();
+
+            // 3 columns for each of the 2 transactions following the first one
+            Assert.assertEquals(6, prefetchCount.get());
+            assertSql(
+                    tableName,
+                    "x\ts\tts\n" +
+                            "2\tbb\t2022-02-24T00:00:00.000000Z\n" +
+                            "1\ta\t2022-02-24T01:00:00.000000Z\n" +
+                            "3\t\t2022-02-25T00:00:00.000000Z\n"
+            );
+        });
+    }
+
     @Test
     public void testAddWalColumnAfterCommit() throws Exception {
         assertMemoryLeak(() -> {
@@ -983,6 +1020,8 @@ public class WalTableSqlTest extends AbstractGriffinTest {
 
 
             node1.getConfigurationOverrides().setWalApplyTableTimeQuote(0);
+            // apply transactions one by one, without squashing them together
+            node1.getConfigurationOverrides().setWalApplySquashMaxRows(0);
             runApplyOnce();
 
             TableToken token = engine.getTableToken(tableName);
@@ -1345,6 +1384,41 @@ public class WalTableSqlTest extends AbstractGriffinTest {
         });
     }
 
+    @Test
+    public void testSmallTransactionsSquashed() throws Exception {
+        assertMemoryLeak(() -> {
+            String tableName = testName.getMethodName();
+            compile("create table " + tableName + " (x long, s string, ts timestamp) timestamp(ts) partition by DAY WAL");
+
+            final int txnCount = 50;
+            for (int i = 0; i < txnCount; i++) {
+                // in order data, every transaction would be committed separately without squashing
+                compile("insert into " + tableName + " values (" + i + ", 'str-" + i + "', '2022-02-24T00:00:" + (i < 10 ? "0" : "") + i + "')");
+            }
+
+            drainWalQueue();
+
+            TableToken token = engine.getTableToken(tableName);
+            try (TxReader txReader = new TxReader(engine.getConfiguration().getFilesFacade())) {
+                txReader.ofRO(Path.getThreadLocal(root).concat(token).concat(TXN_FILE_NAME).$(), PartitionBy.DAY);
+                txReader.unsafeLoadAll();
+
+                // all the transactions are squashed into a single commit
+                Assert.assertEquals(txnCount, txReader.getSeqTxn());
+                Assert.assertEquals(0, txReader.getLagRowCount());
+                Assert.assertTrue(txReader.getTxn() < 3);
+            }
+
+            assertSql("select count(), min(x), max(x), min(ts), max(ts) from " + tableName,
+                    "count\tmin\tmax\tmin1\tmax1\n" +
+                            "50\t0\t49\t2022-02-24T00:00:00.000000Z\t2022-02-24T00:00:49.000000Z\n");
+            assertSql("select * from " + tableName + " limit -2",
+                    "x\ts\tts\n" +
+                            "48\tstr-48\t2022-02-24T00:00:48.000000Z\n" +
+                            "49\tstr-49\t2022-02-24T00:00:49.000000Z\n");
+        });
+    }
+
     @Test
     public void testVarSizeColumnBeforeInsertCommit() throws Exception {
         assertMemoryLeak(() -> {
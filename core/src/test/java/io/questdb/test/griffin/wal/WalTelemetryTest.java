@@ -73,11 +73,12 @@ public class WalTelemetryTest extends AbstractGriffinTest {
             telemetryJob.runSerially();
             telemetryJob.close();
             CharSequence sysPrefix = configuration.getSystemTableNamePrefix();
+            // both transactions are squashed and committed together with the second one
             assertSql(sysPrefix + TelemetryWalTask.TABLE_NAME, "created\tevent\ttableId\twalId\tseqTxn\trowCount\tphysicalRowCount\tlatency\n" +
                     "1970-01-01T00:00:00.004000Z\t103\t4\t1\t1\t-1\t-1\t2.0000\n" +
-                    "1970-01-01T00:00:00.004000Z\t105\t4\t1\t1\t5\t0\t0.0000\n" +
+                    "1970-01-01T00:00:00.004000Z\t105\t4\t1\t1\t0\t0\t0.0000\n" +
                     "1970-01-01T00:00:00.004000Z\t103\t4\t1\t2\t-1\t-1\t1.0000\n" +
-                    "1970-01-01T00:00:00.004000Z\t105\t4\t1\t2\t1\t1\t0.0000\n");
+                    "1970-01-01T00:00:00.004000Z\t105\t4\t1\t2\t6\t1\t0.0000\n");
 
             assertSql(TelemetryTask.TABLE_NAME, "created\tevent\torigin\n" +
                     "1970-01-01T00:00:00.001000Z\t100\t1\n" +
@@ -284,6 +284,33 @@ public class CompiledFilterIRSerializerTest extends BaseFunctionFactoryTest {
         }
     }
 
+    @Test
+    public void testInCharList() throws Exception {
+        serialize("achar in ('a', 'b')");
+        assertIR("(i16 97L)(i16 achar)(=)(i16 98L)(i16 achar)(=)(||)(ret)");
+    }
+
+    @Test
+    public void testInSymbolList() throws Exception {
+        serialize("asymbol in ('" + KNOWN_SYMBOL_1 + "', '" + UNKNOWN_SYMBOL + "', null) and anint > 0");
+        assertIR("(i32 0L)(i32 anint)(>)(i32 0L)(i32 asymbol)(=)(i32 :0)(i32 asymbol)(=)(||)(i32 -2147483648L)(i32 asymbol)(=)(||)(&&)(ret)");
+
+        Assert.assertEquals(1, bindVarFunctions.size());
+        Assert.assertEquals(UNKNOWN_SYMBOL, bindVarFunctions.get(0).getStr(null));
+    }
+
+    @Test
+    public void testInSymbolSingleValue() throws Exception {
+        serialize("not asymbol in '" + KNOWN_SYMBOL_2 + "'");
+        assertIR("(i32 :0)(i32 asymbol)(=)(!)(ret)");
+    }
+
+    @Test
+    public void testInUuidList() throws Exception {
+        serialize("auuid in ('11111111-1111-1111-1111-111111111111', null)");
+        assertIR("(i128 1229782938247303441 1229782938247303441L)(i128 auuid)(=)(i128 -9223372036854775808 -9223372036854775808L)(i128 auuid)(=)(||)(ret)");
+    }
+
     @Test(expected = SqlException.class)
     public void testInvalidUuidConstant() throws Exception {
         serialize("auuid = '111111110111101111011110111111111111'");
@@ -577,6 +604,16 @@ public class CompiledFilterIRSerializerTest extends BaseFunctionFactoryTest {
         serialize("ageolong = #sp052w92p1p8889");
     }
 
+    @Test(expected = SqlException.class)
+    public void testUnsupportedInColumnType() throws Exception {
+        serialize("atimestamp in ('2020-01-01')");
+    }
+
+    @Test(expected = SqlException.class)
+    public void testUnsupportedInValue() throws Exception {
+        serialize("asymbol in ('" + KNOWN_SYMBOL_1 + "', to_str(atimestamp, 'yyyy'))");
+    }
+
     @Test(expected = SqlException.class)
     public void testUnsupportedInvalidGeoHashConstant() throws Exception {
         serialize("ageolong = ##11211");
@@ -27,6 +27,7 @@ package io.questdb.test.std;
 import io.questdb.std.*;
 import io.questdb.test.griffin.engine.TestBinarySequence;
 import io.questdb.std.str.CharSink;
+import io.questdb.std.str.DirectCharSequence;
 import io.questdb.std.str.FileNameExtractorCharSequence;
 import io.questdb.std.str.Path;
 import io.questdb.std.str.StringSink;
@@ -92,6 +93,27 @@ public class CharsTest {
         Assert.assertTrue(Chars.endsWith("abcd", "cd"));
     }
 
+    @Test
+    public void testEqualsDirectChars() {
+        final String str = "hello, мир!";
+        final int size = 2 * 2 * str.length();
+        final long p = Unsafe.malloc(size, MemoryTag.NATIVE_DEFAULT);
+        try {
+            final long p2 = p + size / 2;
+            Chars.copyStrChars(str, 0, str.length(), p);
+            Chars.copyStrChars(str, 0, str.length(), p2);
+            final DirectCharSequence l = new DirectCharSequence().of(p, p2);
+            final DirectCharSequence r = new DirectCharSequence().of(p2, p + size);
+            Assert.assertTrue(Chars.equals(l, r));
+            Assert.assertTrue(Chars.equals(l, str));
+            Unsafe.getUnsafe().putChar(p2 + 2 * 8, 'M');
+            Assert.assertFalse(Chars.equals(l, r));
+            Assert.assertFalse(Chars.equals(str, r));
+        } finally {
+            Unsafe.free(p, size, MemoryTag.NATIVE_DEFAULT);
+        }
+    }
+
     @Test
     public void testIsBlank() {
         Assert.assertTrue(Chars.isBlank(null));
@@ -274,6 +296,36 @@ public class CharsTest {
         Assert.assertTrue(failExpected != eq);
     }
 
+    @Test
+    public void testUtf8EncodeAscii() {
+        final String[] strings = {"", "a", "abc", "abcd", "abcdefghi", "abcdefgh\u00e9ij", "\u00e9abcdefgh", "abcdefghijk\u4e16", "a\u007fb"};
+        final int size = 64;
+        final long p = Unsafe.malloc(size, MemoryTag.NATIVE_DEFAULT);
+        final long out = Unsafe.malloc(size, MemoryTag.NATIVE_DEFAULT);
+        try {
+            final DirectCharSequence direct = new DirectCharSequence();
+            for (String str : strings) {
+                Chars.copyStrChars(str, 0, str.length(), p);
+                direct.of(p, p + 2L * str.length());
+                int expectedHi = 0;
+                while (expectedHi < str.length() && str.charAt(expectedHi) < 128) {
+                    expectedHi++;
+                }
+                for (CharSequence cs : new CharSequence[]{str, direct}) {
+                    for (int lo = 0; lo <= expectedHi; lo++) {
+                        Assert.assertEquals(str, expectedHi, Chars.utf8EncodeAscii(cs, lo, str.length(), out));
+                        for (int i = lo; i < expectedHi; i++) {
+                            Assert.assertEquals(str, str.charAt(i), (char) Unsafe.getUnsafe().getByte(out + i - lo));
+                        }
+                    }
+                }
+            }
+        } finally {
+            Unsafe.free(p, size, MemoryTag.NATIVE_DEFAULT);
+            Unsafe.free(out, size, MemoryTag.NATIVE_DEFAULT);
+        }
+    }
+
     @Test
     public void testUtf8SupportZ() {
 
@@ -25,6 +25,7 @@
 package io.questdb.test.std;
 
 import io.questdb.cairo.CairoException;
+import io.questdb.network.Net;
 import io.questdb.std.*;
 import io.questdb.std.str.DirectByteCharSequence;
 import io.questdb.std.str.Path;
@@ -135,6 +136,75 @@ public class IOURingImplTest {
         });
     }
 
+    @Test
+    public void testSocketOperations() throws Exception {
+        Assume.assumeTrue(rf.isAvailable());
+
+        TestUtils.assertMemoryLeak(() -> {
+            final int len = 4;
+            final int serverFd = Net.socketTcp(true);
+            Assert.assertTrue(Net.bindTcp(serverFd, "127.0.0.1", 0));
+            Net.listen(serverFd, 4);
+            final long sockAddr = Net.sockaddr("127.0.0.1", Net.resolvePort(serverFd));
+            final int clientFd = Net.socketTcp(true);
+            final long buf = Unsafe.malloc(len, MemoryTag.NATIVE_DEFAULT);
+            int fd = -1;
+            try (IOURing ring = rf.newInstance(4)) {
+                Assert.assertEquals(1, ring.enqueueAccept(serverFd, 1, true));
+                ring.submit();
+                Assert.assertEquals(0, Net.connect(clientFd, sockAddr));
+
+                awaitCqe(ring, 1);
+                fd = Files.bumpFileCount(ring.getCqeRes());
+                Assert.assertTrue(fd > -1);
+                Assert.assertEquals(IOURing.IORING_CQE_F_MORE, ring.getCqeFlags() & IOURing.IORING_CQE_F_MORE);
+
+                // the recv is in flight before the bytes arrive
+                Assert.assertEquals(2, ring.enqueueRecv(fd, buf, len, 2));
+                ring.submit();
+                Unsafe.getUnsafe().putInt(buf, 0);
+                final long clientBuf = Unsafe.malloc(len, MemoryTag.NATIVE_DEFAULT);
+                try {
+                    Unsafe.getUnsafe().putInt(clientBuf, 42);
+                    Assert.assertEquals(len, Net.send(clientFd, clientBuf, len));
+                    awaitCqe(ring, 2);
+                    Assert.assertEquals(len, ring.getCqeRes());
+                    Assert.assertEquals(42, Unsafe.getUnsafe().getInt(buf));
+
+                    Assert.assertEquals(3, ring.enqueueSend(fd, buf, len, 3));
+                    ring.submit();
+                    awaitCqe(ring, 3);
+                    Assert.assertEquals(len, ring.getCqeRes());
+                    Assert.assertEquals(len, Net.recv(clientFd, clientBuf, len));
+                    Assert.assertEquals(42, Unsafe.getUnsafe().getInt(clientBuf));
+                } finally {
+                    Unsafe.free(clientBuf, len, MemoryTag.NATIVE_DEFAULT);
+                }
+
+                // nothing to read, so the poll stays in flight until cancelled
+                Assert.assertEquals(4, ring.enqueuePollAdd(fd, 1, 4));
+                Assert.assertEquals(5, ring.enqueueCancel(4, 5));
+                ring.submit();
+                awaitCqe(ring, 4);
+                Assert.assertEquals(-125, ring.getCqeRes());
+
+                // the multishot accept is still armed
+                Assert.assertEquals(6, ring.enqueueCancel(1, 6));
+                ring.submit();
+                awaitCqe(ring, 1);
+                Assert.assertEquals(0, ring.getCqeFlags() & IOURing.IORING_CQE_F_MORE);
+            } finally {
+                if (fd > -1) {
+                    Net.close(fd);
+                }
+                Net.close(clientFd);
+                Net.close(serverFd);
+                Net.freeSockAddr(sockAddr);
+                Unsafe.free(buf, len, MemoryTag.NATIVE_DEFAULT);
+            }
+        });
+    }
+
     @Test
     public void testSqOverflow() throws Exception {
         Assume.assumeTrue(rf.isAvailable());
@@ -203,4 +273,13 @@ public class IOURingImplTest {
             }
         });
     }
+
+    private static void awaitCqe(IOURing ring, long id) {
+        // skips completions of cancel requests
+        do {
+            while (!ring.nextCqe()) {
+                Os.pause();
+            }
+        } while (ring.getCqeId() != id);
+    }
 }
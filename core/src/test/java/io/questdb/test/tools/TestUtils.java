@@ -1193,6 +1193,7 @@ public final class TestUtils {
                 sink.put("null");
                 break;
             case ColumnType.STRING:
+            case ColumnType.VARCHAR:
                 r.getStr(i, sink);
                 break;
             case ColumnType.SYMBOL:
@@ -1418,6 +1419,7 @@ public final class TestUtils {
                         Assert.assertEquals(rr.getGeoInt(i), lr.getGeoInt(i));
                         break;
                     case ColumnType.STRING:
+                    case ColumnType.VARCHAR:
                         CharSequence actual = symbolsAsStrings && ColumnType.isSymbol(metadataActual.getColumnType(i)) ? lr.getSym(i) : lr.getStr(i);
                         CharSequence expected = rr.getStr(i);
                         TestUtils.assertEquals(expected, actual);